@@ -0,0 +1,219 @@
+package com.ninedata.dbbench.chbench;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.metrics.TransactionMetrics;
+import com.ninedata.dbbench.tpcc.TPCCWorkload;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadLoader;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CH-benCHmark (HTAP): the TPC-C terminals plus analytical streams running the 22 CH queries
+ * against the live TPC-C data. Terminals 0..terminals-1 run TPC-C, the following
+ * benchmark.ch.olap-streams terminals run queries.
+ */
+@Slf4j
+public class ChBenchmarkWorkload extends TPCCWorkload {
+    public static final String NAME = "chbenchmark";
+    private static final List<String> TRANSACTION_NAMES;
+
+    static {
+        List<String> names = new ArrayList<>(TPCCWorkload.TRANSACTION_NAMES);
+        for (int q = 1; q <= ChQueries.COUNT; q++) {
+            names.add(ChQuery.name(q));
+        }
+        TRANSACTION_NAMES = Collections.unmodifiableList(names);
+    }
+
+    /** Queries rendered for the current adapter, set by prepare() and again when the selection changes. */
+    private volatile Streams streams;
+
+    private record Streams(String selection, List<ChQuery> queries) {
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "CH-benCHmark HTAP: TPC-C plus concurrent streams of the 22 analytical queries";
+    }
+
+    @Override
+    public String getSettingsKey() {
+        return "ch";
+    }
+
+    @Override
+    public void applySettings(BenchmarkConfig config, Map<String, Object> settings) {
+        BenchmarkConfig.ChConfig cc = config.getCh();
+        if (settings.containsKey("olapStreams")) cc.setOlapStreams(((Number) settings.get("olapStreams")).intValue());
+        if (settings.containsKey("queries")) {
+            String queries = (String) settings.get("queries");
+            ChQueries.parseSelection(queries);
+            cc.setQueries(queries == null ? "" : queries.trim());
+        }
+        if (settings.containsKey("readOnly")) cc.setReadOnly((Boolean) settings.get("readOnly"));
+    }
+
+    @Override
+    public Map<String, Object> describeSettings(BenchmarkConfig config) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("olapStreams", config.getCh().getOlapStreams());
+        settings.put("queries", config.getCh().getQueries());
+        settings.put("readOnly", config.getCh().isReadOnly());
+        return settings;
+    }
+
+    @Override
+    public void createSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        super.createSchema(adapter, config);
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE region (r_regionkey INTEGER NOT NULL, r_name CHAR(55) NOT NULL, "
+                    + "r_comment CHAR(152) NOT NULL, PRIMARY KEY (r_regionkey))");
+            stmt.execute("CREATE TABLE nation (n_nationkey INTEGER NOT NULL, n_name CHAR(25) NOT NULL, "
+                    + "n_regionkey INTEGER NOT NULL, n_comment CHAR(152) NOT NULL, PRIMARY KEY (n_nationkey))");
+            stmt.execute("CREATE TABLE supplier (su_suppkey INTEGER NOT NULL, su_name CHAR(25) NOT NULL, "
+                    + "su_address VARCHAR(40) NOT NULL, su_nationkey INTEGER NOT NULL, su_phone CHAR(15) NOT NULL, "
+                    + "su_acctbal DECIMAL(12,2) NOT NULL, su_comment CHAR(100) NOT NULL, PRIMARY KEY (su_suppkey))");
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void dropSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        adapter.dropTables("supplier", "nation", "region");
+        super.dropSchema(adapter, config);
+    }
+
+    @Override
+    public boolean isLoaded(DatabaseAdapter adapter) {
+        if (!super.isLoaded(adapter)) {
+            return false;
+        }
+        try (Connection conn = adapter.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM supplier")) {
+            return rs.next() && rs.getInt(1) > 0;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public WorkloadLoader createLoader(DatabaseAdapter adapter, BenchmarkConfig config) {
+        return new ChLoader(adapter, config.getWarehouses(), config.getLoadConcurrency(), partitioning(config));
+    }
+
+    @Override
+    public List<String> getTransactionNames() {
+        return TRANSACTION_NAMES;
+    }
+
+    @Override
+    public Set<String> getReadOnlyTransactionNames() {
+        Set<String> names = new HashSet<>(super.getReadOnlyTransactionNames());
+        names.addAll(TRANSACTION_NAMES.subList(TPCCWorkload.TRANSACTION_NAMES.size(), TRANSACTION_NAMES.size()));
+        return names;
+    }
+
+    @Override
+    public int getTerminalCount(BenchmarkConfig config) {
+        return config.getTerminals() + olapStreams(config);
+    }
+
+    @Override
+    public void configureOptions(BenchmarkConfig config, TransactionOptions options) {
+        super.configureOptions(config, options);
+        if (config.getCh().isReadOnly()) {
+            for (int q : ChQueries.parseSelection(config.getCh().getQueries())) {
+                options.getReadOnlyTransactions().add(ChQuery.name(q));
+            }
+        }
+    }
+
+    @Override
+    public void prepare(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options) throws SQLException {
+        super.prepare(adapter, config, options);
+        streams = selectQueries(adapter, config);
+        log.info("CH-benCHmark prepared: {} analytical stream(s) over {}", olapStreams(config), describeQueries(config));
+    }
+
+    @Override
+    public WorkloadTerminal createTerminal(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options,
+                                           int terminalIndex) {
+        if (terminalIndex < config.getTerminals()) {
+            return super.createTerminal(adapter, config, options, terminalIndex);
+        }
+        Streams current = streams;
+        if (current == null || !current.selection().equals(config.getCh().getQueries())) {
+            current = selectQueries(adapter, config);
+            streams = current;
+        }
+        return new ChStreamTerminal(adapter, options, current.queries(), terminalIndex - config.getTerminals());
+    }
+
+    private static Streams selectQueries(DatabaseAdapter adapter, BenchmarkConfig config) {
+        List<ChQuery> all = ChQueries.forAdapter(adapter);
+        List<ChQuery> selected = new ArrayList<>();
+        for (int q : ChQueries.parseSelection(config.getCh().getQueries())) {
+            selected.add(all.get(q - 1));
+        }
+        return new Streams(config.getCh().getQueries(), selected);
+    }
+
+    @Override
+    public String describeMix(BenchmarkConfig config) {
+        return super.describeMix(config) + String.format("; %d OLAP stream(s) running %s",
+                olapStreams(config), describeQueries(config));
+    }
+
+    private static String describeQueries(BenchmarkConfig config) {
+        String queries = config.getCh().getQueries();
+        return queries == null || queries.isBlank() ? "Q1-Q22" : "queries " + queries;
+    }
+
+    /**
+     * tpmC from the OLTP side plus QphH (analytical queries per hour) and per-query latency.
+     */
+    @Override
+    public Map<String, Object> getResultMetrics(MetricsRegistry metricsRegistry) {
+        Map<String, Object> result = super.getResultMetrics(metricsRegistry);
+        long elapsedMs = metricsRegistry.getElapsedMillis();
+        long completed = 0;
+        Map<String, Object> queryLatency = new LinkedHashMap<>();
+        for (int q = 1; q <= ChQueries.COUNT; q++) {
+            TransactionMetrics tm = metricsRegistry.get(ChQuery.name(q));
+            if (tm == null || tm.getCount() == 0) {
+                continue;
+            }
+            completed += tm.getSuccessCount();
+            queryLatency.put(tm.getName(), Math.round(tm.getAverageLatencyMs() * 100.0) / 100.0);
+        }
+        result.put("QphH", elapsedMs > 0 ? Math.round(completed * 3_600_000.0 / elapsedMs * 100.0) / 100.0 : 0.0);
+        result.put("analyticalQueries", completed);
+        result.put("queryAvgLatencyMs", queryLatency);
+        return result;
+    }
+
+    private static int olapStreams(BenchmarkConfig config) {
+        return Math.max(0, config.getCh().getOlapStreams());
+    }
+}
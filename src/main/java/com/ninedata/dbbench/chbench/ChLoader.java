@@ -0,0 +1,156 @@
+package com.ninedata.dbbench.chbench;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.Partitioning;
+import com.ninedata.dbbench.tpcc.TPCCUtil;
+import com.ninedata.dbbench.tpcc.loader.TPCCLoader;
+import com.ninedata.dbbench.workload.WorkloadLoader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Loads the TPC-C tables, then the fixed CH-benCHmark region, nation and supplier tables.
+ */
+@Slf4j
+public class ChLoader implements WorkloadLoader {
+    public static final int SUPPLIERS = 10000;
+    static final String[] REGIONS = {"AFRICA", "AMERICA", "ASIA", "EUROPE", "MIDDLE EAST"};
+
+    /**
+     * Nations keyed by character code: '0'-'9', 'A'-'Z' and 'a'-'z' (62 nations), with their region key.
+     * Customers map to the upper-case letters through c_state.
+     */
+    static final String[] NATION_NAMES = {
+        "Australia", "Belgium", "Canada", "Chile", "Ethiopia", "Finland", "Ghana", "Iceland", "Indonesia", "Iran",
+        "Algeria", "Brazil", "Cambodia", "Denmark", "Egypt", "France", "Germany", "Hungary", "India", "Japan",
+        "Kenya", "Lebanon", "Mexico", "Norway", "Oman", "Peru", "Qatar", "Romania", "Senegal", "Thailand",
+        "Uruguay", "Vietnam", "Wales", "Luxembourg", "Yemen", "Zambia",
+        "Argentina", "Bolivia", "China", "Cuba", "Estonia", "Fiji", "Georgia", "Honduras", "Iraq", "Jordan",
+        "Korea", "Libya", "Morocco", "Nepal", "Nigeria", "Poland", "Portugal", "Russia", "Sweden", "Syria",
+        "Tunisia", "Ukraine", "Venezuela", "Kuwait", "Italy", "Switzerland"
+    };
+    static final int[] NATION_REGIONS = {
+        2, 3, 1, 1, 0, 3, 0, 3, 2, 4,
+        0, 1, 2, 3, 0, 3, 3, 3, 2, 2,
+        0, 4, 1, 3, 4, 1, 4, 3, 0, 2,
+        1, 2, 3, 3, 4, 0,
+        1, 1, 2, 1, 3, 2, 3, 1, 4, 4,
+        2, 0, 0, 2, 0, 3, 3, 3, 3, 4,
+        0, 3, 1, 4, 3, 3
+    };
+
+    private final TPCCLoader tpccLoader;
+    private final DatabaseAdapter adapter;
+    private Consumer<String> progressCallback;
+    private volatile boolean cancelled;
+
+    public ChLoader(DatabaseAdapter adapter, int warehouses, int concurrency) {
+        this(adapter, warehouses, concurrency, Partitioning.NONE);
+    }
+
+    public ChLoader(DatabaseAdapter adapter, int warehouses, int concurrency, Partitioning partitioning) {
+        this.adapter = adapter;
+        this.tpccLoader = new TPCCLoader(adapter, 1, warehouses, concurrency, partitioning);
+    }
+
+    /**
+     * Character code used as n_nationkey for the nation at the given position.
+     */
+    static int nationKey(int index) {
+        if (index < 10) return '0' + index;
+        if (index < 36) return 'A' + index - 10;
+        return 'a' + index - 36;
+    }
+
+    @Override
+    public void setProgressCallback(Consumer<String> callback) {
+        this.progressCallback = callback;
+        tpccLoader.setProgressCallback(callback);
+    }
+
+    @Override
+    public void load() throws SQLException {
+        cancelled = false;
+        tpccLoader.load();
+        if (cancelled) {
+            throw new SQLException("Data loading cancelled by user");
+        }
+        loadChTables();
+        reportProgress(String.format("CH-benCHmark tables loaded: %d regions, %d nations, %d suppliers",
+                REGIONS.length, NATION_NAMES.length, SUPPLIERS));
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        tpccLoader.cancel();
+    }
+
+    private void loadChTables() throws SQLException {
+        try (Connection conn = adapter.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO region (r_regionkey, r_name, r_comment) VALUES (?, ?, ?)")) {
+                for (int r = 0; r < REGIONS.length; r++) {
+                    ps.setInt(1, r);
+                    ps.setString(2, REGIONS[r]);
+                    ps.setString(3, TPCCUtil.randomString(31, 115));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO nation (n_nationkey, n_name, n_regionkey, n_comment) VALUES (?, ?, ?, ?)")) {
+                for (int n = 0; n < NATION_NAMES.length; n++) {
+                    ps.setInt(1, nationKey(n));
+                    ps.setString(2, NATION_NAMES[n]);
+                    ps.setInt(3, NATION_REGIONS[n]);
+                    ps.setString(4, TPCCUtil.randomString(31, 114));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO supplier (su_suppkey, su_name, su_address, su_nationkey, su_phone, su_acctbal, su_comment) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int s = 0; s < SUPPLIERS; s++) {
+                    ps.setInt(1, s);
+                    ps.setString(2, String.format("Supplier#%09d", s));
+                    ps.setString(3, TPCCUtil.randomString(10, 40));
+                    ps.setInt(4, nationKey(TPCCUtil.randomInt(0, NATION_NAMES.length - 1)));
+                    ps.setString(5, TPCCUtil.randomNumericString(15));
+                    ps.setDouble(6, Math.round(TPCCUtil.randomDouble(-999.99, 9999.99) * 100) / 100.0);
+                    ps.setString(7, supplierComment());
+                    ps.addBatch();
+                    if (s % 1000 == 999) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    /**
+     * About 0.5% of suppliers carry a complaint, which Q16 filters out with LIKE '%bad%'.
+     */
+    private static String supplierComment() {
+        String comment = TPCCUtil.randomString(25, 95);
+        if (TPCCUtil.randomInt(1, 200) == 1) {
+            int pos = TPCCUtil.randomInt(0, comment.length());
+            comment = comment.substring(0, pos) + "bad" + comment.substring(pos);
+        }
+        return comment;
+    }
+
+    private void reportProgress(String message) {
+        log.info(message);
+        if (progressCallback != null) {
+            progressCallback.accept(message);
+        }
+    }
+}
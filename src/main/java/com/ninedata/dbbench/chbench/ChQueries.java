@@ -0,0 +1,318 @@
+package com.ninedata.dbbench.chbench;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The 22 CH-benCHmark queries over the TPC-C schema plus supplier, nation and region.
+ * <p>
+ * Stock rows map to suppliers by {@code (s_w_id * s_i_id) MOD 10000} and customers to nations by the
+ * character code of the first letter of c_state. The few dialect-specific expressions come from the
+ * adapter, grouping on computed columns is done over derived tables, and the Q15 view is inlined.
+ * The spec's upper date bounds (2012/2020) are moved to 2100 since the loader stamps rows with the
+ * current time.
+ */
+public final class ChQueries {
+    public static final int COUNT = 22;
+
+    static final Timestamp FROM = Timestamp.valueOf("2007-01-02 00:00:00");
+    static final Timestamp Q6_FROM = Timestamp.valueOf("1999-01-01 00:00:00");
+    static final Timestamp TO = Timestamp.valueOf("2100-01-02 00:00:00");
+
+    private ChQueries() {
+    }
+
+    /**
+     * Render all 22 queries for the adapter's dialect, Q1 first.
+     */
+    public static List<ChQuery> forAdapter(DatabaseAdapter adapter) {
+        String supplier = adapter.modExpression("s_w_id * s_i_id", "10000");
+        String custNation = adapter.charCodeExpression(adapter.substringExpression("c_state", 1, 1));
+        String entryYear = adapter.yearExpression("o_entry_d");
+        String phonePrefix = adapter.substringExpression("c_phone", 1, 1);
+
+        List<ChQuery> queries = new ArrayList<>(COUNT);
+        queries.add(new ChQuery(1, """
+            SELECT ol_number, SUM(ol_quantity) AS sum_qty, SUM(ol_amount) AS sum_amount,
+                   AVG(ol_quantity) AS avg_qty, AVG(ol_amount) AS avg_amount, COUNT(*) AS count_order
+            FROM order_line
+            WHERE ol_delivery_d > ?
+            GROUP BY ol_number
+            ORDER BY ol_number""", List.of(FROM), 0));
+
+        queries.add(new ChQuery(2, """
+            SELECT su_suppkey, su_name, n_name, i_id, i_name, su_address, su_phone, su_comment
+            FROM item, supplier, stock, nation, region,
+                 (SELECT s_i_id AS m_i_id, MIN(s_quantity) AS m_s_quantity
+                  FROM stock, supplier, nation, region
+                  WHERE %1$s = su_suppkey AND su_nationkey = n_nationkey
+                    AND n_regionkey = r_regionkey AND r_name LIKE 'EUROP%%'
+                  GROUP BY s_i_id) m
+            WHERE i_id = s_i_id AND %1$s = su_suppkey AND su_nationkey = n_nationkey
+              AND n_regionkey = r_regionkey AND i_data LIKE '%%b' AND r_name LIKE 'EUROP%%'
+              AND i_id = m_i_id AND s_quantity = m_s_quantity
+            ORDER BY n_name, su_name, i_id""".formatted(supplier), List.of(), 100));
+
+        queries.add(new ChQuery(3, """
+            SELECT ol_o_id, ol_w_id, ol_d_id, SUM(ol_amount) AS revenue, o_entry_d
+            FROM customer, new_order, oorder, order_line
+            WHERE c_state LIKE 'A%' AND c_id = o_c_id AND c_w_id = o_w_id AND c_d_id = o_d_id
+              AND no_w_id = o_w_id AND no_d_id = o_d_id AND no_o_id = o_id
+              AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id AND o_entry_d > ?
+            GROUP BY ol_o_id, ol_w_id, ol_d_id, o_entry_d
+            ORDER BY revenue DESC, o_entry_d""", List.of(FROM), 10));
+
+        queries.add(new ChQuery(4, """
+            SELECT o_ol_cnt, COUNT(*) AS order_count
+            FROM oorder
+            WHERE o_entry_d >= ? AND o_entry_d < ?
+              AND EXISTS (SELECT * FROM order_line
+                          WHERE o_id = ol_o_id AND o_w_id = ol_w_id AND o_d_id = ol_d_id
+                            AND ol_delivery_d >= o_entry_d)
+            GROUP BY o_ol_cnt
+            ORDER BY o_ol_cnt""", List.of(FROM, TO), 0));
+
+        queries.add(new ChQuery(5, """
+            SELECT n_name, SUM(ol_amount) AS revenue
+            FROM customer, oorder, order_line, stock, supplier, nation, region
+            WHERE c_id = o_c_id AND c_w_id = o_w_id AND c_d_id = o_d_id
+              AND ol_o_id = o_id AND ol_w_id = o_w_id AND ol_d_id = o_d_id
+              AND ol_w_id = s_w_id AND ol_i_id = s_i_id AND %s = su_suppkey
+              AND %s = su_nationkey AND su_nationkey = n_nationkey AND n_regionkey = r_regionkey
+              AND r_name = 'EUROPE' AND o_entry_d >= ?
+            GROUP BY n_name
+            ORDER BY revenue DESC""".formatted(supplier, custNation), List.of(FROM), 0));
+
+        queries.add(new ChQuery(6, """
+            SELECT SUM(ol_amount) AS revenue
+            FROM order_line
+            WHERE ol_delivery_d >= ? AND ol_delivery_d < ? AND ol_quantity BETWEEN 1 AND 100000""",
+                List.of(Q6_FROM, TO), 0));
+
+        queries.add(new ChQuery(7, """
+            SELECT supp_nation, cust_nation, l_year, SUM(amount) AS revenue
+            FROM (SELECT su_nationkey AS supp_nation, %s AS cust_nation, %s AS l_year, ol_amount AS amount
+                  FROM supplier, stock, order_line, oorder, customer, nation n1, nation n2
+                  WHERE ol_supply_w_id = s_w_id AND ol_i_id = s_i_id AND %s = su_suppkey
+                    AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id
+                    AND c_id = o_c_id AND c_w_id = o_w_id AND c_d_id = o_d_id
+                    AND su_nationkey = n1.n_nationkey AND %s = n2.n_nationkey
+                    AND ((n1.n_name = 'Germany' AND n2.n_name = 'Cambodia')
+                      OR (n1.n_name = 'Cambodia' AND n2.n_name = 'Germany'))
+                    AND ol_delivery_d BETWEEN ? AND ?) shipping
+            GROUP BY supp_nation, cust_nation, l_year
+            ORDER BY supp_nation, cust_nation, l_year"""
+                .formatted(adapter.substringExpression("c_state", 1, 1), entryYear, supplier, custNation),
+                List.of(FROM, TO), 0));
+
+        queries.add(new ChQuery(8, """
+            SELECT l_year, SUM(CASE WHEN nation2 = 'Germany' THEN amount ELSE 0 END) / SUM(amount) AS mkt_share
+            FROM (SELECT %s AS l_year, n2.n_name AS nation2, ol_amount AS amount
+                  FROM item, supplier, stock, order_line, oorder, customer, nation n1, nation n2, region
+                  WHERE i_id = s_i_id AND ol_i_id = s_i_id AND ol_supply_w_id = s_w_id AND %s = su_suppkey
+                    AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id
+                    AND c_id = o_c_id AND c_w_id = o_w_id AND c_d_id = o_d_id
+                    AND n1.n_nationkey = %s AND n1.n_regionkey = r_regionkey AND ol_i_id < 1000
+                    AND r_name = 'EUROPE' AND su_nationkey = n2.n_nationkey
+                    AND o_entry_d BETWEEN ? AND ? AND i_data LIKE '%%b' AND i_id = ol_i_id) all_nations
+            GROUP BY l_year
+            ORDER BY l_year""".formatted(entryYear, supplier, custNation), List.of(FROM, TO), 0));
+
+        queries.add(new ChQuery(9, """
+            SELECT n_name, l_year, SUM(amount) AS sum_profit
+            FROM (SELECT n_name, %s AS l_year, ol_amount AS amount
+                  FROM item, stock, supplier, order_line, oorder, nation
+                  WHERE ol_i_id = s_i_id AND ol_supply_w_id = s_w_id AND %s = su_suppkey
+                    AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id
+                    AND ol_i_id = i_id AND su_nationkey = n_nationkey AND i_data LIKE '%%BB') profit
+            GROUP BY n_name, l_year
+            ORDER BY n_name, l_year DESC""".formatted(entryYear, supplier), List.of(), 0));
+
+        queries.add(new ChQuery(10, """
+            SELECT c_id, c_last, SUM(ol_amount) AS revenue, c_city, c_phone, n_name
+            FROM customer, oorder, order_line, nation
+            WHERE c_id = o_c_id AND c_w_id = o_w_id AND c_d_id = o_d_id
+              AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id
+              AND o_entry_d >= ? AND o_entry_d <= ol_delivery_d AND n_nationkey = %s
+            GROUP BY c_id, c_last, c_city, c_phone, n_name
+            ORDER BY revenue DESC""".formatted(custNation), List.of(FROM), 20));
+
+        queries.add(new ChQuery(11, """
+            SELECT s_i_id, SUM(s_order_cnt) AS ordercount
+            FROM stock, supplier, nation
+            WHERE %1$s = su_suppkey AND su_nationkey = n_nationkey AND n_name = 'Germany'
+            GROUP BY s_i_id
+            HAVING SUM(s_order_cnt) > (SELECT SUM(s_order_cnt) * 0.005
+                                       FROM stock, supplier, nation
+                                       WHERE %1$s = su_suppkey AND su_nationkey = n_nationkey
+                                         AND n_name = 'Germany')
+            ORDER BY ordercount DESC""".formatted(supplier), List.of(), 0));
+
+        queries.add(new ChQuery(12, """
+            SELECT o_ol_cnt,
+                   SUM(CASE WHEN o_carrier_id = 1 OR o_carrier_id = 2 THEN 1 ELSE 0 END) AS high_line_count,
+                   SUM(CASE WHEN o_carrier_id <> 1 AND o_carrier_id <> 2 THEN 1 ELSE 0 END) AS low_line_count
+            FROM oorder, order_line
+            WHERE ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id
+              AND o_entry_d <= ol_delivery_d AND ol_delivery_d < ?
+            GROUP BY o_ol_cnt
+            ORDER BY o_ol_cnt""", List.of(TO), 0));
+
+        queries.add(new ChQuery(13, """
+            SELECT c_count, COUNT(*) AS custdist
+            FROM (SELECT c_id, COUNT(o_id) AS c_count
+                  FROM customer LEFT OUTER JOIN oorder
+                    ON (c_w_id = o_w_id AND c_d_id = o_d_id AND c_id = o_c_id AND o_carrier_id > 8)
+                  GROUP BY c_id) c_orders
+            GROUP BY c_count
+            ORDER BY custdist DESC, c_count DESC""", List.of(), 0));
+
+        queries.add(new ChQuery(14, """
+            SELECT 100.00 * SUM(CASE WHEN i_data LIKE 'PR%' THEN ol_amount ELSE 0 END) / (1 + SUM(ol_amount)) AS promo_revenue
+            FROM order_line, item
+            WHERE ol_i_id = i_id AND ol_delivery_d >= ? AND ol_delivery_d < ?""", List.of(FROM, TO), 0));
+
+        queries.add(new ChQuery(15, """
+            SELECT su_suppkey, su_name, su_address, su_phone, total_revenue
+            FROM supplier,
+                 (SELECT supplier_no, SUM(amount) AS total_revenue
+                  FROM (SELECT %1$s AS supplier_no, ol_amount AS amount
+                        FROM order_line, stock
+                        WHERE ol_i_id = s_i_id AND ol_supply_w_id = s_w_id AND ol_delivery_d >= ?) r
+                  GROUP BY supplier_no) revenue0
+            WHERE su_suppkey = supplier_no
+              AND total_revenue = (SELECT MAX(total_revenue)
+                                   FROM (SELECT SUM(amount) AS total_revenue
+                                         FROM (SELECT %1$s AS supplier_no, ol_amount AS amount
+                                               FROM order_line, stock
+                                               WHERE ol_i_id = s_i_id AND ol_supply_w_id = s_w_id
+                                                 AND ol_delivery_d >= ?) r2
+                                         GROUP BY supplier_no) m)
+            ORDER BY su_suppkey""".formatted(supplier), List.of(FROM, FROM), 0));
+
+        queries.add(new ChQuery(16, """
+            SELECT i_name, brand, i_price, COUNT(DISTINCT supplier_no) AS supplier_cnt
+            FROM (SELECT i_name, %s AS brand, i_price, %s AS supplier_no
+                  FROM stock, item
+                  WHERE i_id = s_i_id AND i_data NOT LIKE 'zz%%'
+                    AND %s NOT IN (SELECT su_suppkey FROM supplier WHERE su_comment LIKE '%%bad%%')) parts
+            GROUP BY i_name, brand, i_price
+            ORDER BY supplier_cnt DESC"""
+                .formatted(adapter.substringExpression("i_data", 1, 3), supplier, supplier), List.of(), 0));
+
+        queries.add(new ChQuery(17, """
+            SELECT SUM(ol_amount) / 2.0 AS avg_yearly
+            FROM order_line,
+                 (SELECT i_id, AVG(ol_quantity) AS a
+                  FROM item, order_line
+                  WHERE i_data LIKE '%b' AND ol_i_id = i_id
+                  GROUP BY i_id) t
+            WHERE ol_i_id = t.i_id AND ol_quantity < t.a""", List.of(), 0));
+
+        queries.add(new ChQuery(18, """
+            SELECT c_last, c_id, o_id, o_entry_d, o_ol_cnt, SUM(ol_amount) AS amount_sum
+            FROM customer, oorder, order_line
+            WHERE c_id = o_c_id AND c_w_id = o_w_id AND c_d_id = o_d_id
+              AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id
+            GROUP BY o_id, o_w_id, o_d_id, c_id, c_last, o_entry_d, o_ol_cnt
+            HAVING SUM(ol_amount) > 200
+            ORDER BY amount_sum DESC, o_entry_d""", List.of(), 100));
+
+        queries.add(new ChQuery(19, """
+            SELECT SUM(ol_amount) AS revenue
+            FROM order_line, item
+            WHERE (ol_i_id = i_id AND i_data LIKE '%a' AND ol_quantity >= 1 AND ol_quantity <= 10
+                   AND i_price BETWEEN 1 AND 400000 AND ol_w_id IN (1, 2, 3))
+               OR (ol_i_id = i_id AND i_data LIKE '%b' AND ol_quantity >= 1 AND ol_quantity <= 10
+                   AND i_price BETWEEN 1 AND 400000 AND ol_w_id IN (1, 2, 4))
+               OR (ol_i_id = i_id AND i_data LIKE '%c' AND ol_quantity >= 1 AND ol_quantity <= 10
+                   AND i_price BETWEEN 1 AND 400000 AND ol_w_id IN (1, 5, 3))""", List.of(), 0));
+
+        queries.add(new ChQuery(20, """
+            SELECT su_name, su_address
+            FROM supplier, nation
+            WHERE su_suppkey IN (SELECT %s
+                                 FROM stock, order_line
+                                 WHERE s_i_id IN (SELECT i_id FROM item WHERE i_data LIKE 'co%%')
+                                   AND ol_i_id = s_i_id AND ol_delivery_d > ?
+                                 GROUP BY s_i_id, s_w_id, s_quantity
+                                 HAVING 2 * s_quantity > SUM(ol_quantity))
+              AND su_nationkey = n_nationkey AND n_name = 'Germany'
+            ORDER BY su_name""".formatted(supplier), List.of(FROM), 0));
+
+        queries.add(new ChQuery(21, """
+            SELECT su_name, COUNT(*) AS numwait
+            FROM supplier, order_line l1, oorder, stock, nation
+            WHERE l1.ol_o_id = o_id AND l1.ol_w_id = o_w_id AND l1.ol_d_id = o_d_id
+              AND l1.ol_w_id = s_w_id AND l1.ol_i_id = s_i_id AND %s = su_suppkey
+              AND l1.ol_delivery_d > o_entry_d
+              AND NOT EXISTS (SELECT * FROM order_line l2
+                              WHERE l2.ol_o_id = l1.ol_o_id AND l2.ol_w_id = l1.ol_w_id
+                                AND l2.ol_d_id = l1.ol_d_id AND l2.ol_delivery_d > l1.ol_delivery_d)
+              AND su_nationkey = n_nationkey AND n_name = 'Germany'
+            GROUP BY su_name
+            ORDER BY numwait DESC, su_name""".formatted(supplier), List.of(), 100));
+
+        queries.add(new ChQuery(22, """
+            SELECT country, COUNT(*) AS numcust, SUM(c_balance) AS totacctbal
+            FROM (SELECT %1$s AS country, c_balance
+                  FROM customer
+                  WHERE %2$s IN ('1', '2', '3', '4', '5', '6', '7')
+                    AND c_balance > (SELECT AVG(c_balance) FROM customer
+                                     WHERE c_balance > 0.00 AND %2$s IN ('1', '2', '3', '4', '5', '6', '7'))
+                    AND NOT EXISTS (SELECT * FROM oorder
+                                    WHERE o_c_id = c_id AND o_w_id = c_w_id AND o_d_id = c_d_id)) custsale
+            GROUP BY country
+            ORDER BY country""".formatted(adapter.substringExpression("c_state", 1, 1), phonePrefix), List.of(), 0));
+
+        // Top-N queries end in ORDER BY; the row count is bound after the dates
+        queries.replaceAll(q -> q.maxRows() > 0
+                ? new ChQuery(q.number(), adapter.limitRows(q.sql()), q.parameters(), q.maxRows()) : q);
+        return queries;
+    }
+
+    /**
+     * Parse a query selection such as "1,6,14" or "1-5,22"; empty selects all 22.
+     */
+    public static List<Integer> parseSelection(String selection) {
+        List<Integer> numbers = new ArrayList<>();
+        if (selection == null || selection.isBlank()) {
+            for (int q = 1; q <= COUNT; q++) {
+                numbers.add(q);
+            }
+            return numbers;
+        }
+        for (String part : selection.split(",")) {
+            String token = part.trim().toUpperCase();
+            if (token.isEmpty()) {
+                continue;
+            }
+            try {
+                int dash = token.indexOf('-');
+                int from = queryNumber(dash < 0 ? token : token.substring(0, dash));
+                int to = dash < 0 ? from : queryNumber(token.substring(dash + 1));
+                for (int q = from; q <= to; q++) {
+                    numbers.add(q);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid CH-benCHmark query selection: " + selection);
+            }
+        }
+        if (numbers.isEmpty()) {
+            throw new IllegalArgumentException("Invalid CH-benCHmark query selection: " + selection);
+        }
+        return numbers;
+    }
+
+    private static int queryNumber(String token) {
+        String digits = token.trim().startsWith("Q") ? token.trim().substring(1) : token.trim();
+        int number = Integer.parseInt(digits);
+        if (number < 1 || number > COUNT) {
+            throw new IllegalArgumentException("CH-benCHmark query out of range (1-" + COUNT + "): " + token.trim());
+        }
+        return number;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ninedata.dbbench.chbench;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * One CH-benCHmark query rendered for a database dialect.
+ *
+ * @param number     query number, 1-22
+ * @param sql        query text with JDBC placeholders
+ * @param parameters date parameters bound in order
+ * @param maxRows    row limit of top-N queries, bound after the dates; 0 for all rows
+ */
+public record ChQuery(int number, String sql, List<Timestamp> parameters, int maxRows) {
+
+    public String getName() {
+        return name(number);
+    }
+
+    public static String name(int number) {
+        return "Q" + number;
+    }
+}
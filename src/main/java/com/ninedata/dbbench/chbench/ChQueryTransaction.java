@@ -0,0 +1,49 @@
+package com.ninedata.dbbench.chbench;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.JdbcTransaction;
+import com.ninedata.dbbench.workload.TransactionOptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Runs one analytical query and reads the whole result, so the latency includes fetching it.
+ */
+public class ChQueryTransaction extends JdbcTransaction {
+    private final ChQuery query;
+
+    public ChQueryTransaction(DatabaseAdapter adapter, TransactionOptions options, ChQuery query) {
+        super(adapter, options);
+        this.query = query;
+    }
+
+    @Override
+    public String getName() {
+        return query.getName();
+    }
+
+    @Override
+    protected boolean doExecute(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(query.sql())) {
+            for (int i = 0; i < query.parameters().size(); i++) {
+                ps.setTimestamp(i + 1, query.parameters().get(i));
+            }
+            if (query.maxRows() > 0) {
+                ps.setInt(query.parameters().size() + 1, query.maxRows());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    for (int c = 1; c <= columns; c++) {
+                        rs.getObject(c);
+                    }
+                }
+            }
+        }
+        addStatements(1);
+        return true;
+    }
+}
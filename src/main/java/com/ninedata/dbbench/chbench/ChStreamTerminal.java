@@ -0,0 +1,41 @@
+package com.ninedata.dbbench.chbench;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+import java.util.List;
+
+/**
+ * An analytical stream: runs the configured queries one after another, back to back.
+ * Streams start at different offsets so they don't all run the same query at once.
+ */
+public class ChStreamTerminal implements WorkloadTerminal {
+    private final DatabaseAdapter adapter;
+    private final TransactionOptions options;
+    private final List<ChQuery> queries;
+    private int next;
+
+    public ChStreamTerminal(DatabaseAdapter adapter, TransactionOptions options, List<ChQuery> queries, int streamIndex) {
+        if (queries.isEmpty()) {
+            throw new IllegalArgumentException("An analytical stream needs at least one query");
+        }
+        this.adapter = adapter;
+        this.options = options;
+        this.queries = List.copyOf(queries);
+        this.next = streamIndex % queries.size();
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        ChQuery query = queries.get(next);
+        next = (next + 1) % queries.size();
+        return new ChQueryTransaction(adapter, options, query);
+    }
+
+    @Override
+    public boolean usesThinkTime() {
+        return false;
+    }
+}
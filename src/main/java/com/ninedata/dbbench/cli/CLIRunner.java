@@ -1,16 +1,42 @@
 package com.ninedata.dbbench.cli;
 
+import com.ninedata.dbbench.chbench.ChBenchmarkWorkload;
+import com.ninedata.dbbench.chbench.ChQueries;
 import com.ninedata.dbbench.config.BenchmarkConfig;
 import com.ninedata.dbbench.config.DatabaseConfig;
 import com.ninedata.dbbench.database.DatabaseAdapter;
 import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.database.IsolationLevel;
+import com.ninedata.dbbench.database.BalancePolicy;
+import com.ninedata.dbbench.database.PartitionMethod;
+import com.ninedata.dbbench.database.Partitioning;
+import com.ninedata.dbbench.database.PhysicalDesign;
+import com.ninedata.dbbench.database.ShardRouter;
+import com.ninedata.dbbench.distributed.DistributedAgent;
 import com.ninedata.dbbench.metrics.MetricsRegistry;
 import com.ninedata.dbbench.metrics.OSMetricsCollector;
 import com.ninedata.dbbench.engine.BenchmarkEngine;
+import com.ninedata.dbbench.pgbench.PgbenchScript;
+import com.ninedata.dbbench.pgbench.PgbenchWorkload;
+import com.ninedata.dbbench.sysbench.SysbenchTest;
+import com.ninedata.dbbench.ingest.IngestKeyPattern;
+import com.ninedata.dbbench.ingest.IngestWorkload;
+import com.ninedata.dbbench.replay.ReplayPacing;
+import com.ninedata.dbbench.template.TemplateWorkload;
+import com.ninedata.dbbench.tpcc.transaction.StatementCatalog;
+import com.ninedata.dbbench.sysbench.SysbenchWorkload;
+import com.ninedata.dbbench.workload.Workload;
+import com.ninedata.dbbench.workload.WorkloadRegistry;
+import com.ninedata.dbbench.ycsb.RequestDistribution;
+import com.ninedata.dbbench.ycsb.YcsbCoreWorkload;
+import com.ninedata.dbbench.ycsb.YcsbWorkload;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
@@ -32,6 +58,9 @@ public class CLIRunner implements Callable<Integer> {
     @Option(names = {"-p", "--password"}, description = "Database password", defaultValue = "")
     private String password;
 
+    @Option(names = {"--connection-timeout"}, description = "Milliseconds a transaction waits for a pooled connection", defaultValue = "30000")
+    private int connectionTimeout;
+
     @Option(names = {"--pool-size"}, description = "Connection pool size", defaultValue = "50")
     private int poolSize;
 
@@ -48,6 +77,172 @@ public class CLIRunner implements Callable<Integer> {
     @Option(names = {"--load-threads"}, description = "Number of parallel threads for data loading", defaultValue = "4")
     private int loadConcurrency;
 
+    @Option(names = {"--partitions"}, description = "Partition the warehouse-keyed TPC-C tables by warehouse into this many partitions (0 = off)", defaultValue = "0")
+    private int partitions;
+
+    @Option(names = {"--partition-method"}, description = "Partitioning by warehouse: hash or range", defaultValue = "hash")
+    private String partitionMethod;
+
+    @Option(names = {"--schema-profile"}, description = "Physical-design profiles of the TPC-C schema, comma separated, "
+            + "e.g. compressed,foreign-keys (default: the adapter's plain tables)", defaultValue = "")
+    private String schemaProfile;
+
+    @Option(names = {"--statement-profile"}, description = "Statement profiles of the TPC-C transactions, comma separated, "
+            + "e.g. hints,skip-locked or returning (default: the adapter's plain statements)", defaultValue = "")
+    private String statementProfile;
+
+    @Option(names = {"--workload"}, description = "Workload to run: ${COMPLETION-CANDIDATES}", defaultValue = "tpcc", completionCandidates = WorkloadNames.class)
+    private String workload;
+
+    @Option(names = {"--mode"}, description = "Transaction execution mode: interactive, batched or procedure", defaultValue = "interactive")
+    private String executionMode;
+
+    @Option(names = {"--max-retries"}, description = "Retries for deadlocks, serialization failures and lock timeouts (0 disables)", defaultValue = "3")
+    private int maxRetries;
+
+    @Option(names = {"--isolation"}, description = "Isolation for all transaction types: default, read-committed, repeatable-read, serializable or snapshot", defaultValue = "default")
+    private String isolation;
+
+    @Option(names = {"--tx-isolation"}, description = "Isolation for one transaction type, e.g. --tx-isolation ORDER_STATUS=snapshot")
+    private Map<String, String> txIsolation = new LinkedHashMap<>();
+
+    @Option(names = {"--read-only"}, split = ",", description = "Transaction types run read-only, e.g. ORDER_STATUS,STOCK_LEVEL")
+    private List<String> readOnly = new ArrayList<>();
+
+    @Option(names = {"--sysbench-test"}, description = "Sysbench script: oltp_point_select, oltp_read_only, oltp_read_write, oltp_update_index, oltp_update_non_index, oltp_insert or oltp_delete", defaultValue = "oltp_read_write")
+    private String sysbenchTest;
+
+    @Option(names = {"--tables"}, description = "Sysbench table count", defaultValue = "4")
+    private int sysbenchTables;
+
+    @Option(names = {"--table-size"}, description = "Sysbench rows per table", defaultValue = "10000")
+    private int sysbenchTableSize;
+
+    @Option(names = {"--rand-type"}, description = "Sysbench id distribution: uniform or special", defaultValue = "uniform")
+    private String sysbenchRandType;
+
+    @Option(names = {"--pgbench-script"}, description = "pgbench built-in script(s): tpcb-like, simple-update, select-only, optionally weighted as tpcb-like@9,select-only@1", defaultValue = "tpcb-like")
+    private String pgbenchScript;
+
+    @Option(names = {"--scale"}, description = "pgbench scale factor (branches)", defaultValue = "1")
+    private int pgbenchScale;
+
+    @Option(names = {"--template-file"}, description = "YAML or JSON file defining the template workload")
+    private String templateFile;
+
+    @Option(names = {"--row-width"}, description = "Ingest: approximate bytes per row", defaultValue = "256")
+    private int ingestRowWidth;
+
+    @Option(names = {"--batch-size"}, description = "Ingest: rows per insert batch", defaultValue = "10")
+    private int ingestBatchSize;
+
+    @Option(names = {"--key-pattern"}, description = "Ingest key pattern: monotonic, uuid or tenant", defaultValue = "monotonic")
+    private String ingestKeyPattern;
+
+    @Option(names = {"--tenants"}, description = "Ingest: tenants the events are spread over", defaultValue = "100")
+    private int ingestTenants;
+
+    @Option(names = {"--secondary-indexes"}, description = "Ingest: secondary indexes on the event table (0-6)", defaultValue = "1")
+    private int ingestSecondaryIndexes;
+
+    @Option(names = {"--read-fraction"}, description = "Ingest: share of transactions reading the newest events", defaultValue = "0.05")
+    private double ingestReadFraction;
+
+    @Option(names = {"--initial-rows"}, description = "Ingest: rows to load before the run", defaultValue = "0")
+    private long ingestInitialRows;
+
+    @Option(names = {"--record"}, description = "Record every terminal's transaction inputs to this file")
+    private String recordFile;
+
+    @Option(names = {"--replay"}, description = "Replay the transaction inputs recorded in this file")
+    private String replayFile;
+
+    @Option(names = {"--replay-pacing"}, description = "Replay pacing: original or fast", defaultValue = "original")
+    private String replayPacing;
+
+    @Option(names = {"--scenario"}, description = "Run the phases in this YAML or JSON scenario file instead of a flat run")
+    private String scenarioFile;
+
+    @Option(names = {"--target"}, description = "Run the same workload side by side on another database, [name=]jdbcUrl; repeatable, "
+            + "credentials and pool size are taken from the main one")
+    private List<String> targets = new ArrayList<>();
+
+    @Option(names = {"--replica"}, description = "Read replica of the main database, [name=]jdbcUrl; repeatable, "
+            + "credentials and pool size are taken from the main one")
+    private List<String> replicas = new ArrayList<>();
+
+    @Option(names = {"--shard"}, description = "Further shard of a sharded run, [name=]jdbcUrl; repeatable, warehouses are split "
+            + "evenly across the main database and the shards, credentials and pool size are taken from the main one")
+    private List<String> shards = new ArrayList<>();
+
+    @Option(names = {"--endpoint"}, description = "Further SQL endpoint of the main database (tidb-server, obproxy), [name=]jdbcUrl; "
+            + "repeatable, terminals are balanced across the main endpoint and these, each with its own pool")
+    private List<String> endpoints = new ArrayList<>();
+
+    @Option(names = {"--balance"}, description = "Endpoint balancing: round-robin, least-latency or warehouse", defaultValue = "round-robin")
+    private String balance;
+
+    @Option(names = {"--eject-after"}, description = "Consecutive connection errors that take an endpoint out of rotation", defaultValue = "3")
+    private int ejectAfter;
+
+    @Option(names = {"--eject-ms"}, description = "Milliseconds an endpoint stays out of rotation", defaultValue = "5000")
+    private int ejectMs;
+
+    @Option(names = {"--replica-types"}, description = "Transaction types sent to replicas, e.g. ORDER_STATUS,STOCK_LEVEL (default: the workload's read-only types)")
+    private String replicaTypes;
+
+    @Option(names = {"--replica-fraction"}, description = "Share of those transactions routed to replicas (0-1)", defaultValue = "1.0")
+    private double replicaFraction;
+
+    @Option(names = {"--read-your-writes"}, description = "Keep a terminal's reads on the primary this many ms after its writes (0 = off)", defaultValue = "0")
+    private int readYourWritesMs;
+
+    @Option(names = {"--lag-interval"}, description = "Probe replication lag with a heartbeat every this many ms (0 = off)", defaultValue = "0")
+    private int lagIntervalMs;
+
+    @Option(names = {"--availability"}, description = "Track outages: time to first success and to full throughput after a restart or failover")
+    private boolean availability;
+
+    @Option(names = {"--outage-threshold"}, description = "Milliseconds without a successful transaction that count as an outage", defaultValue = "2000")
+    private int outageThresholdMs;
+
+    @Option(names = {"--short-connections"}, description = "Open a new physical connection for every Nth transaction of a terminal "
+            + "instead of a pooled one (1 = every transaction, 0 = off)", defaultValue = "0")
+    private int shortConnections;
+
+    @Option(names = {"--name"}, description = "Label of the main database in multi-target runs", defaultValue = "")
+    private String name;
+
+    @Option(names = {"--seed"}, description = "Seed of the transaction input streams (0 = random)", defaultValue = "0")
+    private long seed;
+
+    @Option(names = {"--agents"}, description = "Act as controller: split the run across this many agent processes", defaultValue = "0")
+    private int agents;
+
+    @Option(names = {"--listen"}, description = "Controller address agents connect to, host:port", defaultValue = "127.0.0.1:7661")
+    private String listenAddress;
+
+    @Option(names = {"--agent"}, description = "Act as agent of the controller at host:port; the run settings come from the controller")
+    private String agentAddress;
+
+    @Option(names = {"--ycsb-workload"}, description = "YCSB core workload: a, b, c, d, e or f", defaultValue = "a")
+    private String ycsbWorkload;
+
+    @Option(names = {"--record-count"}, description = "YCSB records to load", defaultValue = "100000")
+    private long ycsbRecordCount;
+
+    @Option(names = {"--request-distribution"}, description = "YCSB key distribution: uniform, zipfian or latest (default: the workload's)")
+    private String ycsbDistribution;
+
+    @Option(names = {"--olap-streams"}, description = "CH-benCHmark analytical streams next to the TPC-C terminals", defaultValue = "1")
+    private int olapStreams;
+
+    @Option(names = {"--ch-queries"}, description = "CH-benCHmark queries per stream, e.g. 1,6,14 or 1-5 (default: all 22)")
+    private String chQueries;
+
+    @Option(names = {"--olap-read-only"}, description = "Run CH-benCHmark queries as read-only transactions")
+    private boolean olapReadOnly;
+
     // Run mode options
     @Option(names = {"--load-only"}, description = "Only load data, don't run benchmark")
     private boolean loadOnly;
@@ -79,6 +274,40 @@ public class CLIRunner implements Callable<Integer> {
         dbConfig.setUsername(username);
         dbConfig.setPassword(password);
         dbConfig.getPool().setSize(poolSize);
+        dbConfig.getPool().setConnectionTimeout(connectionTimeout);
+        dbConfig.setName(name);
+        for (String target : targets) {
+            DatabaseConfig.TargetConfig targetConfig = parseEndpoint(target);
+            if (targetConfig == null) {
+                return 1;
+            }
+            dbConfig.getTargets().add(targetConfig);
+        }
+        for (String replica : replicas) {
+            DatabaseConfig.TargetConfig replicaConfig = parseEndpoint(replica);
+            if (replicaConfig == null) {
+                return 1;
+            }
+            dbConfig.getReplicas().add(replicaConfig);
+        }
+        for (String shard : shards) {
+            DatabaseConfig.TargetConfig shardConfig = parseEndpoint(shard);
+            if (shardConfig == null) {
+                return 1;
+            }
+            // Shards are of the main database's type, which the URL alone may not tell (TiDB on jdbc:mysql)
+            shardConfig.setType("");
+            dbConfig.getShards().add(shardConfig);
+        }
+        for (String endpoint : endpoints) {
+            DatabaseConfig.TargetConfig endpointConfig = parseEndpoint(endpoint);
+            if (endpointConfig == null) {
+                return 1;
+            }
+            // Endpoints front the main database, which the URL alone may not tell apart (TiDB on jdbc:mysql)
+            endpointConfig.setType("");
+            dbConfig.getEndpoints().add(endpointConfig);
+        }
 
         // Configure benchmark
         BenchmarkConfig benchConfig = new BenchmarkConfig();
@@ -86,17 +315,188 @@ public class CLIRunner implements Callable<Integer> {
         benchConfig.setTerminals(terminals);
         benchConfig.setDuration(duration);
         benchConfig.setLoadConcurrency(loadConcurrency);
+        benchConfig.setWorkload(WorkloadRegistry.get(workload).getName());
+        benchConfig.setExecutionMode(executionMode);
+        benchConfig.setSeed(seed);
+        if (replicaFraction < 0 || replicaFraction > 1) {
+            throw new IllegalArgumentException("--replica-fraction must be between 0 and 1: " + replicaFraction);
+        }
+        if (replicaTypes != null) {
+            benchConfig.getReplica().setTypes(replicaTypes.trim());
+        }
+        benchConfig.getReplica().setFraction(replicaFraction);
+        benchConfig.getReplica().setReadYourWritesMs(readYourWritesMs);
+        benchConfig.getReplica().setLagIntervalMs(lagIntervalMs);
+        benchConfig.getRetry().setMaxRetries(maxRetries);
+        benchConfig.getIsolation().setLevel(IsolationLevel.fromString(isolation).name().toLowerCase());
+        txIsolation.forEach((type, level) -> benchConfig.getIsolation().setForType(type, IsolationLevel.fromString(level).name().toLowerCase()));
+        readOnly.forEach(type -> benchConfig.getReadOnly().setForType(type, true));
+        benchConfig.getSysbench().setTest(SysbenchTest.fromString(sysbenchTest).getScriptName());
+        benchConfig.getSysbench().setTables(sysbenchTables);
+        benchConfig.getSysbench().setTableSize(sysbenchTableSize);
+        benchConfig.getSysbench().setRandType(sysbenchRandType);
+        benchConfig.getPgbench().setScript(PgbenchScript.formatMix(PgbenchScript.parseMix(pgbenchScript)));
+        benchConfig.getPgbench().setScale(pgbenchScale);
+        if (templateFile != null) {
+            benchConfig.getTemplate().setFile(templateFile);
+        }
+        BenchmarkConfig.IngestConfig ingest = benchConfig.getIngest();
+        ingest.setRowWidth(ingestRowWidth);
+        ingest.setBatchSize(ingestBatchSize);
+        ingest.setKeyPattern(IngestKeyPattern.fromString(ingestKeyPattern).name().toLowerCase());
+        ingest.setTenants(ingestTenants);
+        ingest.setSecondaryIndexes(ingestSecondaryIndexes);
+        ingest.setReadFraction(ingestReadFraction);
+        ingest.setInitialRows(ingestInitialRows);
+        if (recordFile != null) {
+            benchConfig.getReplay().setRecord(recordFile);
+        }
+        if (replayFile != null) {
+            benchConfig.getReplay().setFile(replayFile);
+        }
+        benchConfig.getReplay().setPacing(ReplayPacing.fromString(replayPacing).name().toLowerCase());
+        if (scenarioFile != null) {
+            benchConfig.getScenario().setFile(scenarioFile);
+        }
+        if (agents > 0) {
+            int colon = listenAddress.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("--listen must be host:port: " + listenAddress);
+            }
+            benchConfig.getDistributed().setAgents(agents);
+            benchConfig.getDistributed().setHost(listenAddress.substring(0, colon));
+            benchConfig.getDistributed().setPort(Integer.parseInt(listenAddress.substring(colon + 1)));
+        }
+        benchConfig.getYcsb().setWorkload(YcsbCoreWorkload.fromString(ycsbWorkload).name().toLowerCase());
+        benchConfig.getYcsb().setRecordCount(ycsbRecordCount);
+        if (ycsbDistribution != null) {
+            benchConfig.getYcsb().setRequestDistribution(RequestDistribution.fromString(ycsbDistribution).name().toLowerCase());
+        }
+        benchConfig.getCh().setOlapStreams(olapStreams);
+        benchConfig.getCh().setReadOnly(olapReadOnly);
+        benchConfig.getAvailability().setEnabled(availability);
+        benchConfig.getAvailability().setOutageThresholdMs(outageThresholdMs);
+        if (shortConnections < 0) {
+            throw new IllegalArgumentException("--short-connections must not be negative: " + shortConnections);
+        }
+        benchConfig.getShortConnection().setEvery(shortConnections);
+        if (partitions < 0) {
+            throw new IllegalArgumentException("--partitions must not be negative: " + partitions);
+        }
+        benchConfig.getPartition().setCount(partitions);
+        benchConfig.getPartition().setMethod(PartitionMethod.fromString(partitionMethod).getLabel());
+        // Rejects profiles the database does not offer
+        DatabaseFactory.create(dbConfig).getSchemaStatements(PhysicalDesign.of(schemaProfile, Partitioning.NONE, 1));
+        benchConfig.getSchema().setProfile(schemaProfile.trim());
+        // Rejects statement profiles the database does not offer
+        StatementCatalog statements = StatementCatalog.of(DatabaseFactory.create(dbConfig), statementProfile);
+        benchConfig.getStatements().setProfile(statementProfile.trim());
+        BalancePolicy.fromString(balance);
+        benchConfig.getBalance().setPolicy(balance);
+        benchConfig.getBalance().setEjectAfter(ejectAfter);
+        benchConfig.getBalance().setEjectMs(ejectMs);
+        if (chQueries != null) {
+            ChQueries.parseSelection(chQueries);
+            benchConfig.getCh().setQueries(chQueries.trim());
+        }
 
         System.out.println("Configuration:");
         System.out.printf("  Database Type: %s%n", dbType.toUpperCase());
         System.out.printf("  JDBC URL:      %s%n", jdbcUrl);
         System.out.printf("  Username:      %s%n", username);
         System.out.printf("  Pool Size:     %d%n", poolSize);
+        for (int i = 0; i < dbConfig.getTargets().size(); i++) {
+            DatabaseConfig target = dbConfig.forTarget(dbConfig.getTargets().get(i), i + 2);
+            System.out.printf("  Target:        %s = %s%n", target.getName(), target.getJdbcUrl());
+        }
+        for (int i = 0; i < dbConfig.getReplicas().size(); i++) {
+            DatabaseConfig replica = dbConfig.forReplica(dbConfig.getReplicas().get(i), i + 1);
+            System.out.printf("  Replica:       %s = %s%n", replica.getName(), replica.getJdbcUrl());
+        }
+        if (!shards.isEmpty()) {
+            List<int[]> ranges = ShardRouter.ranges(warehouses, shards.size() + 1);
+            System.out.printf("  Shard:         %s = warehouses %d-%d%n", dbConfig.getShardName(), ranges.get(0)[0], ranges.get(0)[1]);
+            for (int i = 0; i < dbConfig.getShards().size(); i++) {
+                DatabaseConfig shard = dbConfig.forShard(dbConfig.getShards().get(i), i + 2);
+                System.out.printf("  Shard:         %s = warehouses %d-%d, %s%n", shard.getName(), ranges.get(i + 1)[0],
+                        ranges.get(i + 1)[1], shard.getJdbcUrl());
+            }
+        }
+        if (!endpoints.isEmpty()) {
+            System.out.printf("  Endpoint:      %s = %s%n", dbConfig.getEndpointName(), jdbcUrl);
+            for (int i = 0; i < dbConfig.getEndpoints().size(); i++) {
+                DatabaseConfig endpoint = dbConfig.forEndpoint(dbConfig.getEndpoints().get(i), i + 2);
+                System.out.printf("  Endpoint:      %s = %s%n", endpoint.getName(), endpoint.getJdbcUrl());
+            }
+            System.out.printf("  Balancing:     %s, out of rotation for %dms after %d connection errors%n",
+                    BalancePolicy.fromString(balance).getLabel(), ejectMs, ejectAfter);
+        }
+        if (!replicas.isEmpty()) {
+            System.out.printf("  Replica Reads: %s, fraction %.2f%s%n", replicaTypes == null ? "read-only types" : replicaTypes.trim(),
+                    replicaFraction, readYourWritesMs > 0 ? ", read-your-writes " + readYourWritesMs + "ms" : "");
+            if (lagIntervalMs > 0) {
+                System.out.printf("  Lag Probe:     heartbeat every %dms%n", lagIntervalMs);
+            }
+        }
         System.out.println();
+        System.out.printf("  Workload:      %s%n", benchConfig.getWorkload());
+        if (SysbenchWorkload.NAME.equals(benchConfig.getWorkload())) {
+            System.out.printf("  Sysbench:      %s, %d table(s) x %d rows, %s%n", benchConfig.getSysbench().getTest(),
+                    sysbenchTables, sysbenchTableSize, sysbenchRandType);
+        }
+        if (PgbenchWorkload.NAME.equals(benchConfig.getWorkload())) {
+            System.out.printf("  pgbench:       %s, scale %d%n", benchConfig.getPgbench().getScript(), pgbenchScale);
+        }
+        if (TemplateWorkload.NAME.equals(benchConfig.getWorkload())) {
+            System.out.printf("  Template:      %s%n", benchConfig.getTemplate().getFile());
+        }
+        if (IngestWorkload.NAME.equals(benchConfig.getWorkload())) {
+            System.out.printf("  Ingest:        %s%n", WorkloadRegistry.get(IngestWorkload.NAME).describeMix(benchConfig));
+        }
+        if (!benchConfig.getReplay().getRecord().isBlank()) {
+            System.out.printf("  Record:        %s%n", benchConfig.getReplay().getRecord());
+        }
+        if (!benchConfig.getReplay().getFile().isBlank()) {
+            System.out.printf("  Replay:        %s (%s pacing)%n", benchConfig.getReplay().getFile(), benchConfig.getReplay().getPacing());
+        }
+        if (YcsbWorkload.NAME.equals(benchConfig.getWorkload())) {
+            System.out.printf("  YCSB:          %s%n", WorkloadRegistry.get(YcsbWorkload.NAME).describeMix(benchConfig));
+        }
+        if (ChBenchmarkWorkload.NAME.equals(benchConfig.getWorkload())) {
+            System.out.printf("  OLAP Streams:  %d (%s)%n", olapStreams,
+                    chQueries == null || chQueries.isBlank() ? "Q1-Q22" : "queries " + chQueries.trim());
+        }
         System.out.printf("  Warehouses:    %d%n", warehouses);
         System.out.printf("  Terminals:     %d%n", terminals);
-        System.out.printf("  Duration:      %ds%n", duration);
+        if (scenarioFile != null) {
+            System.out.printf("  Scenario:      %s%n", scenarioFile);
+        } else {
+            System.out.printf("  Duration:      %ds%n", duration);
+        }
+        if (agents > 0) {
+            System.out.printf("  Agents:        %d on %s%n", agents, listenAddress);
+        }
         System.out.printf("  Load Threads:  %d%n", loadConcurrency);
+        if (partitions > 0) {
+            System.out.printf("  Partitions:    %d by warehouse (%s)%n", partitions, benchConfig.getPartition().getMethod());
+        }
+        if (!schemaProfile.isBlank()) {
+            System.out.printf("  Schema:        %s%n", schemaProfile.trim());
+        }
+        if (!statementProfile.isBlank()) {
+            System.out.printf("  Statements:    %s (%d replaced)%n", statements.getLabel(), statements.getOverridden().size());
+        }
+        System.out.printf("  Mode:          %s%n", executionMode);
+        System.out.printf("  Max Retries:   %d%n", maxRetries);
+        System.out.printf("  Isolation:     %s%s%s%n", isolation,
+                txIsolation.isEmpty() ? "" : " " + txIsolation, readOnly.isEmpty() ? "" : ", read-only " + readOnly);
+        if (availability) {
+            System.out.printf("  Availability:  outage after %dms without success, connection timeout %dms%n",
+                    outageThresholdMs, connectionTimeout);
+        }
+        if (shortConnections > 0) {
+            System.out.printf("  Connections:   new connection every %d transaction(s) of a terminal%n", shortConnections);
+        }
         System.out.println();
 
         MetricsRegistry metricsRegistry = new MetricsRegistry();
@@ -104,6 +504,10 @@ public class CLIRunner implements Callable<Integer> {
         osMetricsCollector.init();
         BenchmarkEngine engine = new BenchmarkEngine(dbConfig, benchConfig, metricsRegistry, osMetricsCollector);
 
+        if (agentAddress != null) {
+            return runAgent(engine, metricsRegistry);
+        }
+
         try {
             // Initialize
             System.out.println("Initializing database connection...");
@@ -121,7 +525,7 @@ public class CLIRunner implements Callable<Integer> {
 
             // Load data only if --load-only or --clean is specified
             if (loadOnly || clean) {
-                System.out.println("Loading TPC-C data...");
+                System.out.println("Loading " + benchConfig.getWorkload() + " data...");
                 long loadStart = System.currentTimeMillis();
                 engine.loadData(System.out::println);
                 long loadTime = (System.currentTimeMillis() - loadStart) / 1000;
@@ -143,18 +547,53 @@ public class CLIRunner implements Callable<Integer> {
             ScheduledExecutorService displayScheduler = Executors.newSingleThreadScheduledExecutor();
             displayScheduler.scheduleAtFixedRate(() -> {
                 Map<String, Object> metrics = metricsRegistry.getCurrentMetrics();
-                System.out.printf("\rTPS: %.2f | Total: %d | Success: %.1f%% | Avg Latency: %.2fms | Elapsed: %ds",
+                System.out.printf("\rTPS: %.2f | QPS: %.2f | Total: %d | Success: %.1f%% | Avg Latency: %.2fms | Elapsed: %ds%s",
                         metrics.get("tps"),
+                        metrics.get("qps"),
                         metrics.get("totalTransactions"),
                         metrics.get("overallSuccessRate"),
                         metrics.get("avgLatencyMs"),
-                        metrics.get("elapsedSeconds"));
+                        metrics.get("elapsedSeconds"),
+                        metrics.containsKey("phase") ? " | Phase: " + metrics.get("phase") : "");
+                List<Map<String, Object>> sample = engine.getTargetSample();
+                if (!sample.isEmpty()) {
+                    StringBuilder line = new StringBuilder("\n ");
+                    for (Map<String, Object> row : sample) {
+                        line.append(String.format(" %s %.1f tps %.2fms", row.get("name"), row.get("intervalTps"),
+                                row.get("intervalAvgLatencyMs")));
+                        if (row.containsKey("intervalTpsDelta")) {
+                            line.append(" (").append(formatDelta(row.get("intervalTpsDelta"))).append(")");
+                        }
+                        line.append(" |");
+                    }
+                    System.out.print(line);
+                }
+                Map<String, Object> avail = engine.getAvailabilitySample();
+                if (!avail.isEmpty() && !"UP".equals(avail.get("state"))) {
+                    System.out.printf("\n  %s: %s failed, %s blocked, %s waiting for a connection",
+                            avail.get("state"), avail.get("failed"), avail.get("blocked"), avail.get("poolWaiting"));
+                }
+                Map<String, Object> connects = engine.getConnectionSample();
+                if (!connects.isEmpty()) {
+                    System.out.printf("\n  Connects: %.1f/s, avg %.2fms, p95 %.2fms, %s failed", connects.get("connectsPerSecond"),
+                            connects.get("avgConnectMs"), connects.get("p95ConnectMs"), connects.get("failures"));
+                }
+                Map<String, Object> lag = engine.getLagSample();
+                if (!lag.isEmpty()) {
+                    StringBuilder line = new StringBuilder("\n  Lag:");
+                    lag.forEach((name, value) -> line.append(" ").append(name).append(" ")
+                            .append(formatLag(value)).append(" |"));
+                    System.out.print(line);
+                }
             }, 1, 1, TimeUnit.SECONDS);
 
             engine.start();
 
-            // Wait for completion
-            Thread.sleep(duration * 1000L + 2000);
+            // Wait for completion; scenarios and replays end on their own schedule
+            Thread.sleep(1000);
+            while (engine.isRunning() || "STOPPING".equals(engine.getStatus())) {
+                Thread.sleep(500);
+            }
 
             displayScheduler.shutdown();
             System.out.println();
@@ -162,6 +601,16 @@ public class CLIRunner implements Callable<Integer> {
 
             // Print final results
             printResults(metricsRegistry.getCurrentMetrics());
+            Map<String, Object> workloadMetrics = engine.getWorkload().getResultMetrics(metricsRegistry);
+            workloadMetrics.forEach((key, value) -> System.out.printf("%s: %s%n", key, value));
+            printPhases(engine.getResults());
+            printAgents(engine.getResults());
+            printTargets(engine.getResults());
+            printShards(engine.getResults());
+            printBalancer(engine.getResults());
+            printLag(engine.getResults());
+            printAvailability(engine.getResults());
+            printConnections(engine.getResults());
 
             return 0;
         } catch (Exception e) {
@@ -173,6 +622,44 @@ public class CLIRunner implements Callable<Integer> {
         }
     }
 
+    /**
+     * Run this process's share of a distributed benchmark as an agent.
+     */
+    private int runAgent(BenchmarkEngine engine, MetricsRegistry metricsRegistry) {
+        try {
+            System.out.println("Agent mode: waiting for the controller at " + agentAddress + "...");
+            new DistributedAgent(engine, agentAddress, 300).run();
+            System.out.println();
+            printResults(metricsRegistry.getCurrentMetrics());
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * Parse a --target, --replica, --shard or --endpoint value, [name=]jdbcUrl; null after reporting an unknown URL.
+     */
+    private DatabaseConfig.TargetConfig parseEndpoint(String value) {
+        DatabaseConfig.TargetConfig endpoint = new DatabaseConfig.TargetConfig();
+        int eq = value.indexOf('=');
+        if (eq > 0 && !value.substring(0, eq).startsWith("jdbc:")) {
+            endpoint.setName(value.substring(0, eq));
+            value = value.substring(eq + 1);
+        }
+        String type = detectDatabaseType(value);
+        if (type == null) {
+            System.err.println("Error: Unable to detect database type from JDBC URL: " + value);
+            return null;
+        }
+        endpoint.setType(type);
+        endpoint.setJdbcUrl(value);
+        return endpoint;
+    }
+
     /**
      * Auto-detect database type from JDBC URL
      */
@@ -230,12 +717,206 @@ public class CLIRunner implements Callable<Integer> {
         System.out.println("║                    BENCHMARK RESULTS                      ║");
         System.out.println("╠═══════════════════════════════════════════════════════════╣");
         System.out.printf("║  Throughput (TPS):        %10.2f                      ║%n", metrics.get("tps"));
+        System.out.printf("║  Queries/sec (QPS):       %10.2f                      ║%n", metrics.get("qps"));
         System.out.printf("║  Total Transactions:      %10d                      ║%n", metrics.get("totalTransactions"));
         System.out.printf("║  Successful:              %10d                      ║%n", metrics.get("totalSuccess"));
+        System.out.printf("║  Rolled Back (expected):  %10d                      ║%n", metrics.get("totalRollback"));
         System.out.printf("║  Failed:                  %10d                      ║%n", metrics.get("totalFailure"));
+        System.out.printf("║  Retries:                 %10d                      ║%n", metrics.get("totalRetries"));
         System.out.printf("║  Success Rate:            %10.2f%%                     ║%n", metrics.get("overallSuccessRate"));
         System.out.printf("║  Average Latency:         %10.2f ms                   ║%n", metrics.get("avgLatencyMs"));
+        System.out.printf("║  95th Percentile:         %10.2f ms                   ║%n", metrics.get("p95LatencyMs"));
+        System.out.printf("║  99th Percentile:         %10.2f ms                   ║%n", metrics.get("p99LatencyMs"));
+        System.out.printf("║  Round Trips / Txn:       %10.2f                      ║%n", metrics.get("avgRoundTrips"));
         System.out.printf("║  Duration:                %10d seconds               ║%n", metrics.get("elapsedSeconds"));
         System.out.println("╚═══════════════════════════════════════════════════════════╝");
+        @SuppressWarnings("unchecked")
+        Map<String, Long> errors = (Map<String, Long>) metrics.get("errorsByCategory");
+        if (errors != null && !errors.isEmpty()) {
+            System.out.println("Errors by category: " + errors);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, List<Map<String, Object>>> dimensions = (Map<String, List<Map<String, Object>>>) metrics.get("dimensions");
+        if (dimensions != null && dimensions.containsKey("isolation")) {
+            System.out.println("By isolation:");
+            for (Map<String, Object> row : dimensions.get("isolation")) {
+                System.out.printf("  %-26s count=%-8d abortRate=%6.2f%%  avgLatency=%8.2f ms%n",
+                        row.get("name"), row.get("count"), row.get("abortRate"), row.get("avgLatencyMs"));
+            }
+        }
+        if (dimensions != null && dimensions.containsKey("endpoint")) {
+            System.out.println("By endpoint:");
+            for (Map<String, Object> row : dimensions.get("endpoint")) {
+                System.out.printf("  %-26s count=%-8d tps=%10.2f  avgLatency=%8.2f ms  p95=%8.2f ms  failed=%d%n",
+                        row.get("name"), row.get("count"), row.get("tps"), row.get("avgLatencyMs"),
+                        row.get("p95LatencyMs"), row.get("failure"));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printPhases(Map<String, Object> results) {
+        Map<String, Object> scenario = (Map<String, Object>) results.get("scenario");
+        if (scenario == null) {
+            return;
+        }
+        System.out.println("Scenario " + scenario.get("name") + ":");
+        System.out.printf("  %-20s %6s %9s %10s %10s %10s %10s %8s%n",
+                "Phase", "Start", "Terminals", "TPS", "Avg ms", "P95 ms", "P99 ms", "Failed");
+        for (Map<String, Object> phase : (List<Map<String, Object>>) scenario.get("phases")) {
+            Map<String, Object> m = (Map<String, Object>) phase.get("metrics");
+            System.out.printf("  %-20s %5ds %9d %10.2f %10.2f %10.2f %10.2f %8d%n", phase.get("name"),
+                    phase.get("startSecond"), phase.get("terminals"), m.get("tps"), m.get("avgLatencyMs"),
+                    m.get("p95LatencyMs"), m.get("p99LatencyMs"), m.get("totalFailure"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printAgents(Map<String, Object> results) {
+        List<Map<String, Object>> agentSummaries = (List<Map<String, Object>>) results.get("agents");
+        if (agentSummaries == null) {
+            return;
+        }
+        System.out.println("Agents:");
+        System.out.printf("  %-5s %-28s %11s %9s %12s %6s%n", "Agent", "Name", "Warehouses", "Terminals", "Transactions", "State");
+        for (Map<String, Object> agent : agentSummaries) {
+            System.out.printf("  %-5s %-28s %5d-%-5d %9d %12d %6s%n", agent.get("agent"), agent.get("name"),
+                    agent.get("firstWarehouse"), agent.get("lastWarehouse"), agent.get("terminals"),
+                    agent.get("transactions"), agent.get("state"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printTargets(Map<String, Object> results) {
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) results.get("targets");
+        if (rows == null) {
+            return;
+        }
+        System.out.println("Targets (deltas vs " + rows.get(0).get("name") + "):");
+        System.out.printf("  %-16s %10s %8s %10s %8s %10s %8s %10s %8s%n",
+                "Target", "TPS", "Delta", "Avg ms", "Delta", "P95 ms", "Delta", "P99 ms", "Failed");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("  %-16s %10.2f %8s %10.2f %8s %10.2f %8s %10.2f %8d%n", row.get("name"),
+                    row.get("tps"), formatDelta(row.get("tpsDelta")), row.get("avgLatencyMs"),
+                    formatDelta(row.get("avgLatencyDelta")), row.get("p95LatencyMs"), formatDelta(row.get("p95Delta")),
+                    row.get("p99LatencyMs"), row.get("totalFailure"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printShards(Map<String, Object> results) {
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) results.get("shards");
+        if (rows == null) {
+            return;
+        }
+        System.out.println("Shards:");
+        System.out.printf("  %-16s %11s %12s %10s %10s %10s %8s%n",
+                "Shard", "Warehouses", "Transactions", "TPS", "Avg ms", "P95 ms", "Failed");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("  %-16s %5d-%-5d %12d %10.2f %10.2f %10.2f %8d%n", row.get("name"),
+                    row.get("firstWarehouse"), row.get("lastWarehouse"), row.get("count"), row.get("tps"),
+                    row.get("avgLatencyMs"), row.get("p95LatencyMs"), row.get("failure"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printBalancer(Map<String, Object> results) {
+        Map<String, Object> summary = (Map<String, Object>) results.get("balancer");
+        if (summary == null) {
+            return;
+        }
+        System.out.println("Endpoints (" + summary.get("policy") + "):");
+        System.out.printf("  %-16s %8s %12s %10s %10s %10s %8s %8s %10s%n",
+                "Endpoint", "State", "Transactions", "TPS", "Avg ms", "P95 ms", "Failed", "Error %", "Ejections");
+        for (Map<String, Object> row : (List<Map<String, Object>>) summary.get("endpoints")) {
+            System.out.printf("  %-16s %8s %12d %10.2f %10.2f %10.2f %8d %8.2f %10d%n", row.get("name"), row.get("state"),
+                    row.get("count"), row.get("tps"), row.get("avgLatencyMs"), row.get("p95LatencyMs"),
+                    row.get("failure"), row.get("errorRate"), row.get("ejections"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printLag(Map<String, Object> results) {
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) results.get("replicationLag");
+        if (rows == null) {
+            return;
+        }
+        System.out.println("Replication lag:");
+        System.out.printf("  %-16s %8s %10s %10s %10s %12s %12s%n",
+                "Replica", "Polls", "Last ms", "Avg ms", "Max ms", "Reported ms", "Max rep. ms");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("  %-16s %8d %10s %10s %10s %12s %12s%n", row.get("name"), row.get("polls"),
+                    formatMillis(row.get("heartbeatMs")), formatMillis(row.get("avgHeartbeatMs")),
+                    formatMillis(row.get("maxHeartbeatMs")), formatMillis(row.get("reportedMs")),
+                    formatMillis(row.get("maxReportedMs")));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printAvailability(Map<String, Object> results) {
+        Map<String, Object> summary = (Map<String, Object>) results.get("availability");
+        if (summary == null) {
+            return;
+        }
+        List<Map<String, Object>> outages = (List<Map<String, Object>>) summary.get("outages");
+        System.out.printf("Availability: %.2f%%, %d outage(s), %d ms down%n", summary.get("availabilityPercent"),
+                outages.size(), summary.get("downtimeMs"));
+        if (outages.isEmpty()) {
+            return;
+        }
+        System.out.printf("  %8s %14s %16s %10s %8s %8s %10s %9s%n",
+                "Start", "First success", "Full throughput", "Base TPS", "Failed", "Blocked", "Reconnects", "Timeouts");
+        for (Map<String, Object> outage : outages) {
+            System.out.printf("  %7.1fs %14s %16s %10.2f %8d %8d %10d %9d%n", outage.get("startSecond"),
+                    formatDuration(outage.get("timeToFirstSuccessMs")), formatDuration(outage.get("timeToFullThroughputMs")),
+                    outage.get("baselineTps"), outage.get("failed"), outage.get("peakBlocked"),
+                    outage.get("connectionsCreated"), outage.get("connectionTimeouts"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printConnections(Map<String, Object> results) {
+        Map<String, Object> summary = (Map<String, Object>) results.get("connections");
+        if (summary == null) {
+            return;
+        }
+        System.out.printf("Connections: %d new (%.2f/s), %d failed (%.2f%%)%n", summary.get("connects"),
+                summary.get("connectsPerSecond"), summary.get("failures"), summary.get("failureRate"));
+        System.out.printf("  Connect latency: avg %.2fms, p50 %.2fms, p95 %.2fms, p99 %.2fms, max %.2fms%n",
+                summary.get("avgConnectMs"), summary.get("p50ConnectMs"), summary.get("p95ConnectMs"),
+                summary.get("p99ConnectMs"), summary.get("maxConnectMs"));
+    }
+
+    private static String formatDuration(Object ms) {
+        return ms instanceof Number n ? n.longValue() + " ms" : "not reached";
+    }
+
+    /**
+     * Heartbeat lag, with the lag the database reports in brackets.
+     */
+    @SuppressWarnings("unchecked")
+    private static String formatLag(Object value) {
+        Map<String, Object> lag = (Map<String, Object>) value;
+        Object reported = lag.get("reportedMs");
+        return (lag.get("heartbeatMs") != null ? formatMillis(lag.get("heartbeatMs")) + "ms" : "-")
+                + (reported != null ? " [" + formatMillis(reported) + "ms]" : "");
+    }
+
+    private static String formatMillis(Object ms) {
+        return ms instanceof Number n ? String.format("%.1f", n.doubleValue()) : "-";
+    }
+
+    private static String formatDelta(Object delta) {
+        return delta instanceof Number n ? String.format("%+.1f%%", n.doubleValue()) : "-";
+    }
+
+    /**
+     * Workload names offered in --help.
+     */
+    static class WorkloadNames implements Iterable<String> {
+        @Override
+        public java.util.Iterator<String> iterator() {
+            return WorkloadRegistry.getAll().stream().map(Workload::getName).iterator();
+        }
     }
 }
@@ -8,13 +8,55 @@ import org.springframework.stereotype.Component;
 @Component
 @ConfigurationProperties(prefix = "benchmark")
 public class BenchmarkConfig {
+    /** Workload to load and run, see WorkloadRegistry */
+    private String workload = "tpcc";
     private int warehouses = 10;
+    /** Home warehouses of this process's terminals, firstWarehouse..lastWarehouse; 0 uses all. Set on distributed agents */
+    private int firstWarehouse = 0;
+    private int lastWarehouse = 0;
     private int terminals = 50;
     private int duration = 60;
     private int rampup = 10;
     private boolean thinkTime = true;
     private int loadConcurrency = 4;
+    private String executionMode = "interactive";
+    /** Seed of the terminals' input streams, terminal N draws from seed + N; 0 = unseeded (random per run with targets) */
+    private long seed = 0;
     private MixConfig mix = new MixConfig();
+    private RetryConfig retry = new RetryConfig();
+    private IsolationConfig isolation = new IsolationConfig();
+    private ReadOnlyConfig readOnly = new ReadOnlyConfig();
+    private ReplicaConfig replica = new ReplicaConfig();
+    private SysbenchConfig sysbench = new SysbenchConfig();
+    private YcsbConfig ycsb = new YcsbConfig();
+    private ChConfig ch = new ChConfig();
+    private PgbenchConfig pgbench = new PgbenchConfig();
+    private TemplateConfig template = new TemplateConfig();
+    private ReplayConfig replay = new ReplayConfig();
+    private IngestConfig ingest = new IngestConfig();
+    private ScenarioConfig scenario = new ScenarioConfig();
+    private DistributedConfig distributed = new DistributedConfig();
+    private AvailabilityConfig availability = new AvailabilityConfig();
+    private BalanceConfig balance = new BalanceConfig();
+    private ShortConnectionConfig shortConnection = new ShortConnectionConfig();
+    private PartitionConfig partition = new PartitionConfig();
+    private SchemaConfig schema = new SchemaConfig();
+    private StatementConfig statements = new StatementConfig();
+
+    /**
+     * Home warehouse (1-based) of a terminal: terminals cycle through the assigned range, or all warehouses.
+     */
+    public int homeWarehouse(int terminalIndex) {
+        if (firstWarehouse <= 0) {
+            return (terminalIndex % warehouses) + 1;
+        }
+        int last = lastWarehouse > 0 ? Math.min(lastWarehouse, warehouses) : warehouses;
+        if (firstWarehouse > last) {
+            throw new IllegalArgumentException("Invalid warehouse range " + firstWarehouse + "-" + lastWarehouse
+                    + " for " + warehouses + " warehouses");
+        }
+        return firstWarehouse + terminalIndex % (last - firstWarehouse + 1);
+    }
 
     @Data
     public static class MixConfig {
@@ -24,4 +66,294 @@ public class BenchmarkConfig {
         private int delivery = 4;
         private int stockLevel = 4;
     }
+
+    @Data
+    public static class RetryConfig {
+        /** Retries for deadlocks, serialization failures and lock timeouts; 0 disables retry */
+        private int maxRetries = 3;
+        private long backoffBaseMs = 10;
+        private long backoffMaxMs = 1000;
+    }
+
+    /**
+     * Isolation per transaction type: default, read-committed, repeatable-read, serializable or snapshot.
+     * A type left empty, or a type of another workload, uses {@code level}.
+     */
+    @Data
+    public static class IsolationConfig {
+        private String level = "default";
+        private String newOrder;
+        private String payment;
+        private String orderStatus;
+        private String delivery;
+        private String stockLevel;
+
+        public String getEffective(String type) {
+            String value = switch (normalizeType(type)) {
+                case "neworder" -> newOrder;
+                case "payment" -> payment;
+                case "orderstatus" -> orderStatus;
+                case "delivery" -> delivery;
+                case "stocklevel" -> stockLevel;
+                default -> null;
+            };
+            return value == null || value.isBlank() ? level : value;
+        }
+
+        public void setForType(String type, String value) {
+            switch (normalizeType(type)) {
+                case "neworder" -> newOrder = value;
+                case "payment" -> payment = value;
+                case "orderstatus" -> orderStatus = value;
+                case "delivery" -> delivery = value;
+                case "stocklevel" -> stockLevel = value;
+                default -> throw new IllegalArgumentException("Unknown transaction type: " + type);
+            }
+        }
+    }
+
+    /**
+     * Transaction types run with Connection.setReadOnly(true).
+     */
+    @Data
+    public static class ReadOnlyConfig {
+        private boolean newOrder;
+        private boolean payment;
+        private boolean orderStatus;
+        private boolean delivery;
+        private boolean stockLevel;
+
+        public boolean isReadOnly(String type) {
+            return switch (normalizeType(type)) {
+                case "neworder" -> newOrder;
+                case "payment" -> payment;
+                case "orderstatus" -> orderStatus;
+                case "delivery" -> delivery;
+                case "stocklevel" -> stockLevel;
+                default -> false;
+            };
+        }
+
+        public void setForType(String type, boolean value) {
+            switch (normalizeType(type)) {
+                case "neworder" -> newOrder = value;
+                case "payment" -> payment = value;
+                case "orderstatus" -> orderStatus = value;
+                case "delivery" -> delivery = value;
+                case "stocklevel" -> stockLevel = value;
+                default -> throw new IllegalArgumentException("Unknown transaction type: " + type);
+            }
+        }
+    }
+
+    /**
+     * Sysbench OLTP settings; names and defaults follow sysbench's oltp_common.lua options.
+     */
+    @Data
+    public static class SysbenchConfig {
+        /** oltp_point_select, oltp_read_only, oltp_read_write, oltp_update_index, ... */
+        private String test = "oltp_read_write";
+        private int tables = 4;
+        private int tableSize = 10000;
+        private int rangeSize = 100;
+        private int pointSelects = 10;
+        private int simpleRanges = 1;
+        private int sumRanges = 1;
+        private int orderRanges = 1;
+        private int distinctRanges = 1;
+        private int indexUpdates = 1;
+        private int nonIndexUpdates = 1;
+        private int deleteInserts = 1;
+        /** uniform, or special (sysbench's hot spot: 75% of requests hit 1% of the rows) */
+        private String randType = "uniform";
+    }
+
+    /**
+     * YCSB core workload settings; names follow the YCSB CoreWorkload properties.
+     */
+    @Data
+    public static class YcsbConfig {
+        /** Core workload a-f */
+        private String workload = "a";
+        private long recordCount = 100000;
+        private int fieldCount = 10;
+        private int fieldLength = 100;
+        /** uniform, zipfian or latest; empty uses the core workload's distribution */
+        private String requestDistribution = "";
+        private int maxScanLength = 100;
+        private boolean readAllFields = true;
+        private boolean writeAllFields = false;
+    }
+
+    /**
+     * CH-benCHmark analytical streams, run next to the TPC-C terminals.
+     */
+    @Data
+    public static class ChConfig {
+        /** Analytical streams in addition to benchmark.terminals; 0 runs plain TPC-C on the CH schema */
+        private int olapStreams = 1;
+        /** Queries each stream cycles through, e.g. "1,6,14" or "1-5"; empty runs all 22 */
+        private String queries = "";
+        /** Run the queries as read-only transactions, e.g. to let the engine route them to a columnar replica */
+        private boolean readOnly = false;
+    }
+
+    /**
+     * pgbench (TPC-B) settings, named after pgbench's -s and -b options.
+     */
+    @Data
+    public static class PgbenchConfig {
+        /** Built-in script(s): tpcb-like, simple-update, select-only; weighted as "tpcb-like@9,select-only@1" */
+        private String script = "tpcb-like";
+        /** Branches; each brings 10 tellers and 100,000 accounts */
+        private int scale = 1;
+    }
+
+    @Data
+    public static class TemplateConfig {
+        /** YAML or JSON file defining the template workload (benchmark.workload=template) */
+        private String file = "";
+    }
+
+    /**
+     * Append-heavy event ingest (benchmark.workload=ingest).
+     */
+    @Data
+    public static class IngestConfig {
+        /** Approximate bytes per row; the payload column fills what the fixed columns leave */
+        private int rowWidth = 256;
+        /** Rows per INSERT batch, each batch is one transaction */
+        private int batchSize = 10;
+        /** monotonic, uuid, or tenant (monotonic per tenant) */
+        private String keyPattern = "monotonic";
+        /** Tenants the events are spread over */
+        private int tenants = 100;
+        /** Secondary indexes, 0-6: event time, tenant+time, then attribute columns */
+        private int secondaryIndexes = 1;
+        /** Share of transactions that read the most recent events instead of inserting */
+        private double readFraction = 0.05;
+        /** Rows returned by a recent-events read */
+        private int scanRows = 100;
+        /** Rows loaded before the run */
+        private long initialRows = 0;
+        /** Seconds between table and index size samples */
+        private int sampleInterval = 10;
+    }
+
+    @Data
+    public static class ReplayConfig {
+        /** Write every terminal's transaction types and inputs to this file during the run */
+        private String record = "";
+        /** Replay the transaction stream recorded in this file instead of generating inputs */
+        private String file = "";
+        /** original: keep the recorded timing; fast: issue transactions back to back */
+        private String pacing = "original";
+    }
+
+    @Data
+    public static class ScenarioConfig {
+        /** YAML or JSON file of run phases; when set, phase durations replace benchmark.duration */
+        private String file = "";
+    }
+
+    /**
+     * Routing of read-only transactions to the replicas listed in db.replicas.
+     */
+    @Data
+    public static class ReplicaConfig {
+        /** Comma separated transaction types sent to replicas; empty = the workload's read-only types */
+        private String types = "";
+        /** Share of those transactions routed to replicas, 0-1; the rest stay on the primary */
+        private double fraction = 1.0;
+        /** After a terminal's write its reads stay on the primary this long, in ms; 0 = off */
+        private int readYourWritesMs = 0;
+        /** Heartbeat and poll interval of the replication lag probe, in ms; 0 = off */
+        private int lagIntervalMs = 0;
+    }
+
+    /**
+     * Controller side of a distributed run: agents drive the terminals, each on its own share of the warehouses.
+     */
+    @Data
+    public static class DistributedConfig {
+        /** Agents to wait for; 0 runs the terminals in this process */
+        private int agents = 0;
+        /** Address the controller listens on */
+        private String host = "127.0.0.1";
+        private int port = 7661;
+        /** Seconds to wait for all agents to connect and get ready */
+        private int connectTimeout = 60;
+    }
+
+    /**
+     * Outage detection and recovery timing for runs across a restart or failover.
+     */
+    @Data
+    public static class AvailabilityConfig {
+        private boolean enabled = false;
+        /** No successful transaction for this long, while terminals fail or hang, is an outage; in ms */
+        private int outageThresholdMs = 2000;
+        /** Share of the throughput before an outage that counts as full throughput again, 0-1 */
+        private double recoveryRatio = 0.9;
+        /** Pause of a terminal after a connection error, so it does not hammer a dead pool; in ms */
+        private int backoffMs = 100;
+    }
+
+    /**
+     * Balancing of terminals across the SQL endpoints listed in db.endpoints.
+     */
+    @Data
+    public static class BalanceConfig {
+        /** round-robin, least-latency or warehouse */
+        private String policy = "round-robin";
+        /** Consecutive connection errors that take an endpoint out of rotation */
+        private int ejectAfter = 3;
+        /** How long an endpoint stays out of rotation, in ms */
+        private int ejectMs = 5000;
+    }
+
+    /**
+     * Short-connection mode, for clients that connect per request instead of keeping a pool.
+     */
+    @Data
+    public static class ShortConnectionConfig {
+        /** Open a new physical connection for every this many transactions of a terminal; 1 = every one, 0 = off */
+        private int every = 0;
+    }
+
+    /**
+     * TPC-C schema with the warehouse-keyed tables partitioned by warehouse id, in the database's native syntax.
+     */
+    @Data
+    public static class PartitionConfig {
+        /** Partitions per table; 0 = unpartitioned */
+        private int count = 0;
+        /** hash, or range (contiguous warehouse ranges) */
+        private String method = "hash";
+    }
+
+    /**
+     * Physical design of the TPC-C schema, chosen at load time.
+     */
+    @Data
+    public static class SchemaConfig {
+        /** Comma separated schema profiles of the database adapter, e.g. "compressed,foreign-keys"; empty = default */
+        private String profile = "";
+    }
+
+    /**
+     * SQL of the TPC-C transactions: the adapter's statement profiles on top of its default statements.
+     */
+    @Data
+    public static class StatementConfig {
+        /** Comma separated statement profiles of the database adapter, e.g. "hints,skip-locked"; empty = default */
+        private String profile = "";
+    }
+
+    /**
+     * Accept NEW_ORDER, new-order and newOrder alike.
+     */
+    private static String normalizeType(String type) {
+        return type == null ? "" : type.replace("_", "").replace("-", "").toLowerCase();
+    }
 }
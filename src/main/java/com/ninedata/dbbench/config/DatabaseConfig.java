@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 @Component
 @ConfigurationProperties(prefix = "db")
@@ -14,11 +17,23 @@ public class DatabaseConfig {
     private String password = "sysbench";
     private PoolConfig pool = new PoolConfig();
     private SshConfig ssh = new SshConfig();
+    /** Label of this database when other targets run next to it */
+    private String name = "";
+    /** Databases run side by side with this one: same workload, same seeded inputs, separate pools */
+    private List<TargetConfig> targets = new ArrayList<>();
+    /** Read replicas of this database; read-only transaction types can be routed to them */
+    private List<TargetConfig> replicas = new ArrayList<>();
+    /** Further independent instances of the same type; warehouses are split across this database and them */
+    private List<TargetConfig> shards = new ArrayList<>();
+    /** Further SQL endpoints of this same database; terminals are balanced across this endpoint and them */
+    private List<TargetConfig> endpoints = new ArrayList<>();
 
     @Data
     public static class PoolConfig {
         private int size = 50;
         private int minIdle = 10;
+        /** How long a terminal waits for a connection before its transaction fails, in ms */
+        private int connectionTimeout = 30000;
     }
 
     @Data
@@ -32,6 +47,99 @@ public class DatabaseConfig {
         private String passphrase = "";
     }
 
+    /**
+     * A further database endpoint: a target compared against the main one, a read replica, a shard or
+     * another SQL endpoint of it.
+     * Unset type, credentials and pool size are taken from the main one.
+     */
+    @Data
+    public static class TargetConfig {
+        private String name = "";
+        private String type = "";
+        private String jdbcUrl = "";
+        private String username = "";
+        private String password = "";
+        private int poolSize = 0;
+    }
+
+    /**
+     * Label of the main database in multi-target runs.
+     */
+    public String getTargetName() {
+        return name == null || name.isBlank() ? "target1" : name;
+    }
+
+    /**
+     * Connection settings of an additional target, filled in from this config.
+     */
+    public DatabaseConfig forTarget(TargetConfig target, int number) {
+        return resolve(target, "target", number);
+    }
+
+    /**
+     * Connection settings of a read replica, filled in from this config; replicas are numbered from 1.
+     */
+    public DatabaseConfig forReplica(TargetConfig replica, int number) {
+        return resolve(replica, "replica", number);
+    }
+
+    /**
+     * Connection settings of a further shard, filled in from this config; this database is shard 1, so further
+     * shards are numbered from 2. Shards run the same SQL, so they must be of this database's type.
+     */
+    public DatabaseConfig forShard(TargetConfig shard, int number) {
+        DatabaseConfig config = resolve(shard, "shard", number);
+        if (!config.getType().equalsIgnoreCase(type)) {
+            throw new IllegalArgumentException("Shard " + config.getName() + " is " + config.getType()
+                    + ", but shards must be of the main database's type " + type);
+        }
+        return config;
+    }
+
+    /**
+     * Label of the main database as the first shard.
+     */
+    public String getShardName() {
+        return name == null || name.isBlank() ? "shard1" : name;
+    }
+
+    /**
+     * Connection settings of a further SQL endpoint of this same database (another tidb-server or obproxy),
+     * filled in from this config; this endpoint is endpoint 1, so further ones are numbered from 2.
+     */
+    public DatabaseConfig forEndpoint(TargetConfig endpoint, int number) {
+        DatabaseConfig config = resolve(endpoint, "endpoint", number);
+        if (!config.getType().equalsIgnoreCase(type)) {
+            throw new IllegalArgumentException("Endpoint " + config.getName() + " is " + config.getType()
+                    + ", but endpoints must be of the main database's type " + type);
+        }
+        return config;
+    }
+
+    /**
+     * Label of the main database as the first endpoint.
+     */
+    public String getEndpointName() {
+        return name == null || name.isBlank() ? "endpoint1" : name;
+    }
+
+    private DatabaseConfig resolve(TargetConfig target, String kind, int number) {
+        if (target.getJdbcUrl() == null || target.getJdbcUrl().isBlank()) {
+            throw new IllegalArgumentException(Character.toUpperCase(kind.charAt(0)) + kind.substring(1) + " " + number
+                    + " has no JDBC URL");
+        }
+        DatabaseConfig config = new DatabaseConfig();
+        config.setName(target.getName() == null || target.getName().isBlank() ? kind + number : target.getName());
+        config.setType(target.getType() == null || target.getType().isBlank() ? type : target.getType());
+        config.setJdbcUrl(target.getJdbcUrl());
+        config.setUsername(target.getUsername() == null || target.getUsername().isBlank() ? username : target.getUsername());
+        config.setPassword(target.getPassword() == null || target.getPassword().isEmpty() ? password : target.getPassword());
+        config.getPool().setSize(target.getPoolSize() > 0 ? target.getPoolSize() : pool.getSize());
+        config.getPool().setMinIdle(Math.min(pool.getMinIdle(), config.getPool().getSize()));
+        config.getPool().setConnectionTimeout(pool.getConnectionTimeout());
+        return config;
+    }
+
     /**
      * Get the effective SSH host - uses explicit SSH host if set, otherwise extracts from JDBC URL.
      */
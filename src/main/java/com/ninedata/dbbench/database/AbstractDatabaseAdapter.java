@@ -3,18 +3,48 @@ package com.ninedata.dbbench.database;
 import com.ninedata.dbbench.config.DatabaseConfig;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 public abstract class AbstractDatabaseAdapter implements DatabaseAdapter {
+    protected static final String[] PROCEDURE_NAMES = {
+        "tpcc_new_order", "tpcc_payment", "tpcc_order_status", "tpcc_delivery", "tpcc_stock_level"
+    };
+
+    /** Warehouse column of each table partitioned by {@link #createSchema(PhysicalDesign)} */
+    protected static final Map<String, String> WAREHOUSE_COLUMNS = Map.of(
+        "warehouse", "w_id", "district", "d_w_id", "customer", "c_w_id", "stock", "s_w_id", "history", "h_w_id",
+        "oorder", "o_w_id", "new_order", "no_w_id", "order_line", "ol_w_id");
+    private static final Pattern CREATE_TABLE =
+        Pattern.compile("CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?(\\w+)", Pattern.CASE_INSENSITIVE);
+
     protected final DatabaseConfig config;
     protected HikariDataSource dataSource;
+    private final PoolCounters poolCounters = new PoolCounters();
+    /** Driver properties of the pool's connections, for connections opened outside it */
+    private final Properties connectionProperties = new Properties();
+    /** Driver-side rewriting of JDBC batches, only wanted by the batched execution mode */
+    protected boolean rewriteBatches;
 
     public AbstractDatabaseAdapter(DatabaseConfig config) {
         this.config = config;
@@ -28,26 +58,95 @@ public abstract class AbstractDatabaseAdapter implements DatabaseAdapter {
         hikariConfig.setPassword(config.getPassword());
         hikariConfig.setMaximumPoolSize(config.getPool().getSize());
         hikariConfig.setMinimumIdle(config.getPool().getMinIdle());
-        hikariConfig.setConnectionTimeout(30000);
+        hikariConfig.setConnectionTimeout(config.getPool().getConnectionTimeout());
         hikariConfig.setIdleTimeout(600000);
         hikariConfig.setMaxLifetime(1800000);
         hikariConfig.setAutoCommit(false);
+        hikariConfig.setMetricsTrackerFactory(poolCounters);
 
         try {
             hikariConfig.setDriverClassName(config.getDriverClassName());
         } catch (Exception e) {
             log.warn("Could not set driver class: {}", e.getMessage());
         }
+        configureDataSource(hikariConfig);
+        connectionProperties.clear();
+        connectionProperties.putAll(hikariConfig.getDataSourceProperties());
 
         this.dataSource = new HikariDataSource(hikariConfig);
         log.info("Database connection pool initialized for {}", getDatabaseType());
     }
 
+    @Override
+    public void setRewriteBatches(boolean rewriteBatches) {
+        this.rewriteBatches = rewriteBatches;
+    }
+
+    /**
+     * Hook for driver-specific connection properties, e.g. statement caching, or batch rewriting when
+     * {@link #rewriteBatches} is set. Settings already present in the JDBC URL take precedence.
+     */
+    protected void configureDataSource(HikariConfig hikariConfig) {
+    }
+
+    /**
+     * Add a connection property unless the JDBC URL already sets it.
+     */
+    protected void addDefaultProperty(HikariConfig hikariConfig, String name, String value) {
+        String url = config.getJdbcUrl();
+        if (url == null || !url.contains(name)) {
+            hikariConfig.addDataSourceProperty(name, value);
+        }
+    }
+
     @Override
     public Connection getConnection() throws SQLException {
         return dataSource.getConnection();
     }
 
+    @Override
+    public Map<String, Long> getPoolStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        HikariPoolMXBean pool = dataSource != null ? dataSource.getHikariPoolMXBean() : null;
+        if (pool == null) {
+            return stats;
+        }
+        stats.put("active", (long) pool.getActiveConnections());
+        stats.put("idle", (long) pool.getIdleConnections());
+        stats.put("total", (long) pool.getTotalConnections());
+        stats.put("waiting", (long) pool.getThreadsAwaitingConnection());
+        stats.put("created", poolCounters.created.sum());
+        stats.put("timeouts", poolCounters.timeouts.sum());
+        return stats;
+    }
+
+    @Override
+    public Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.putAll(connectionProperties);
+        if (config.getUsername() != null) {
+            properties.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            properties.setProperty("password", config.getPassword());
+        }
+        Connection conn = DriverManager.getConnection(config.getJdbcUrl(), properties);
+        conn.setAutoCommit(false);
+        return conn;
+    }
+
+    @Override
+    public Connection openDedicatedConnection() throws SQLException {
+        try {
+            Class.forName(config.getDriverClassName());
+        } catch (Exception e) {
+            log.debug("Could not load driver class: {}", e.getMessage());
+        }
+        Connection conn = DriverManager.getConnection(config.getJdbcUrl(), config.getUsername(), config.getPassword());
+        conn.setAutoCommit(true);
+        return conn;
+    }
+
     @Override
     public void close() {
         if (dataSource != null && !dataSource.isClosed()) {
@@ -58,12 +157,215 @@ public abstract class AbstractDatabaseAdapter implements DatabaseAdapter {
 
     @Override
     public void createSchema() throws SQLException {
+        createSchema(PhysicalDesign.DEFAULT);
+    }
+
+    @Override
+    public void createSchema(PhysicalDesign design) throws SQLException {
+        if (design.partitioning().isEnabled() && !supportsPartitioning()) {
+            throw new SQLException(getDatabaseType() + " does not support a partitioned schema");
+        }
+        List<String> statements = getSchemaStatements(design);
+        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+            conn.commit();
+            if (design.isDefault()) {
+                log.info("TPC-C schema created successfully");
+            } else {
+                log.info("TPC-C schema created with profile {} and {} by warehouse", design.getLabel(),
+                        design.partitioning().describe());
+            }
+        }
+        if (supportsStoredProcedures()) {
+            try {
+                createProcedures();
+            } catch (SQLException e) {
+                log.warn("TPC-C stored procedures could not be installed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public List<String> getSchemaStatements(PhysicalDesign design) {
+        checkDesign(design);
+        List<String> statements = new ArrayList<>(getBeforeTableStatements(design));
+        for (String sql : getCreateTableStatements()) {
+            Matcher matcher = CREATE_TABLE.matcher(sql);
+            String table = matcher.find() ? matcher.group(1) : "";
+            String options = getTableOptions(table.toLowerCase(), design);
+            String column = WAREHOUSE_COLUMNS.get(table.toLowerCase());
+            if (design.partitioning().isEnabled() && column != null) {
+                statements.addAll(getPartitionedTableStatements(sql.strip(), table, column, options, design.partitioning()));
+            } else {
+                statements.add(options.isEmpty() ? sql : withOptions(sql.strip(), options));
+            }
+        }
+        statements.addAll(getAfterTableStatements(design));
+        return statements;
+    }
+
+    /**
+     * Profiles every adapter with ALTER TABLE ... ADD CONSTRAINT offers.
+     */
+    protected static Map<String, String> commonSchemaProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put(PhysicalDesign.FOREIGN_KEYS, "Foreign keys between the TPC-C tables, added after the load");
+        return profiles;
+    }
+
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        return commonSchemaProfiles();
+    }
+
+    /**
+     * Reject profiles this adapter does not offer, or that cannot be combined.
+     */
+    protected void checkDesign(PhysicalDesign design) {
+        Map<String, String> available = getSchemaProfiles();
+        for (String profile : design.profiles()) {
+            if (!available.containsKey(profile)) {
+                String choices = available.isEmpty() ? "none" : String.join(", ", available.keySet());
+                throw new IllegalArgumentException("Unknown schema profile for " + getDatabaseType() + ": " + profile
+                        + " (available: " + choices + ")");
+            }
+        }
+    }
+
+    @Override
+    public Map<String, String> getStatementOverrides(List<String> profiles) {
+        Map<String, String> available = getStatementProfiles();
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (String profile : profiles) {
+            if (!available.containsKey(profile)) {
+                String choices = available.isEmpty() ? "none" : String.join(", ", available.keySet());
+                throw new IllegalArgumentException("Unknown statement profile for " + getDatabaseType() + ": " + profile
+                        + " (available: " + choices + ")");
+            }
+            overrides.putAll(getProfileStatements(profile));
+        }
+        return overrides;
+    }
+
+    /**
+     * Statements one of the adapter's statement profiles replaces or adds, by statement id.
+     */
+    protected Map<String, String> getProfileStatements(String profile) {
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * UPDATE ... RETURNING in place of an update and the read next to it, in PostgreSQL and SQLite syntax.
+     */
+    protected static Map<String, String> returningStatements() {
+        Map<String, String> statements = new LinkedHashMap<>();
+        statements.put("new-order.district-returning",
+                "UPDATE district SET d_next_o_id = d_next_o_id + 1 WHERE d_w_id = ? AND d_id = ? RETURNING d_tax, d_next_o_id - 1");
+        statements.put("payment.warehouse-returning", "UPDATE warehouse SET w_ytd = w_ytd + ? WHERE w_id = ? "
+                + "RETURNING w_name, w_street_1, w_street_2, w_city, w_state, w_zip");
+        statements.put("payment.district-returning", "UPDATE district SET d_ytd = d_ytd + ? WHERE d_w_id = ? AND d_id = ? "
+                + "RETURNING d_name, d_street_1, d_street_2, d_city, d_state, d_zip");
+        statements.put("delivery.order-returning",
+                "UPDATE oorder SET o_carrier_id = ? WHERE o_w_id = ? AND o_d_id = ? AND o_id = ? RETURNING o_c_id");
+        return statements;
+    }
+
+    /**
+     * Options appended to the CREATE TABLE of a table, lower case, for the design's profiles; empty for none.
+     */
+    protected String getTableOptions(String table, PhysicalDesign design) {
+        return "";
+    }
+
+    /**
+     * Statements run before the tables are created, e.g. clusters the tables go into.
+     */
+    protected List<String> getBeforeTableStatements(PhysicalDesign design) {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Statements run after the tables are created, e.g. a columnstore index replacing a table's row store.
+     */
+    protected List<String> getAfterTableStatements(PhysicalDesign design) {
+        return new ArrayList<>();
+    }
+
+    @Override
+    public void createConstraints(PhysicalDesign design) throws SQLException {
+        List<String> statements = getConstraintStatements(design);
+        if (statements.isEmpty()) return;
         try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-            for (String sql : getCreateTableStatements()) {
+            for (String sql : statements) {
                 stmt.execute(sql);
             }
             conn.commit();
-            log.info("TPC-C schema created successfully");
+            log.info("TPC-C constraints created: {} statement(s)", statements.size());
+        }
+    }
+
+    /**
+     * The foreign keys of the TPC-C specification, each referencing a primary key.
+     */
+    @Override
+    public List<String> getConstraintStatements(PhysicalDesign design) {
+        checkDesign(design);
+        List<String> statements = new ArrayList<>();
+        if (design.has(PhysicalDesign.FOREIGN_KEYS)) {
+            statements.add(foreignKey("fk_district_warehouse", "district", "d_w_id", "warehouse", "w_id"));
+            statements.add(foreignKey("fk_customer_district", "customer", "c_w_id, c_d_id", "district", "d_w_id, d_id"));
+            statements.add(foreignKey("fk_history_customer", "history", "h_c_w_id, h_c_d_id, h_c_id", "customer",
+                    "c_w_id, c_d_id, c_id"));
+            statements.add(foreignKey("fk_history_district", "history", "h_w_id, h_d_id", "district", "d_w_id, d_id"));
+            statements.add(foreignKey("fk_oorder_customer", "oorder", "o_w_id, o_d_id, o_c_id", "customer",
+                    "c_w_id, c_d_id, c_id"));
+            statements.add(foreignKey("fk_new_order_oorder", "new_order", "no_w_id, no_d_id, no_o_id", "oorder",
+                    "o_w_id, o_d_id, o_id"));
+            statements.add(foreignKey("fk_order_line_oorder", "order_line", "ol_w_id, ol_d_id, ol_o_id", "oorder",
+                    "o_w_id, o_d_id, o_id"));
+            statements.add(foreignKey("fk_order_line_stock", "order_line", "ol_supply_w_id, ol_i_id", "stock",
+                    "s_w_id, s_i_id"));
+            statements.add(foreignKey("fk_stock_warehouse", "stock", "s_w_id", "warehouse", "w_id"));
+            statements.add(foreignKey("fk_stock_item", "stock", "s_i_id", "item", "i_id"));
+        }
+        return statements;
+    }
+
+    protected String foreignKey(String name, String table, String columns, String refTable, String refColumns) {
+        return "ALTER TABLE " + table + " ADD CONSTRAINT " + name + " FOREIGN KEY (" + columns + ") REFERENCES "
+                + refTable + " (" + refColumns + ")";
+    }
+
+    @Override
+    public boolean supportsStoredProcedures() {
+        return getCreateProcedureStatements().length > 0;
+    }
+
+    @Override
+    public void createProcedures() throws SQLException {
+        String[] procedureStatements = getCreateProcedureStatements();
+        if (procedureStatements.length == 0) {
+            throw new SQLException(getDatabaseType() + " does not support stored procedure mode");
+        }
+        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            dropProcedures(stmt);
+            for (String sql : procedureStatements) {
+                stmt.execute(sql);
+            }
+            conn.commit();
+            log.info("TPC-C stored procedures installed for {}", getDatabaseType());
+        }
+    }
+
+    protected void dropProcedures(Statement stmt) {
+        for (String name : PROCEDURE_NAMES) {
+            try {
+                stmt.execute(getDropProcedureStatement(name));
+            } catch (SQLException e) {
+                log.debug("Procedure {} does not exist or cannot be dropped: {}", name, e.getMessage());
+            }
         }
     }
 
@@ -88,6 +390,9 @@ public abstract class AbstractDatabaseAdapter implements DatabaseAdapter {
     public void dropSchema() throws SQLException {
         String[] tables = {"order_line", "new_order", "oorder", "history", "stock", "item", "customer", "district", "warehouse"};
         try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            if (supportsStoredProcedures()) {
+                dropProcedures(stmt);
+            }
             for (String table : tables) {
                 try {
                     stmt.execute(getDropTableStatement(table));
@@ -101,6 +406,20 @@ public abstract class AbstractDatabaseAdapter implements DatabaseAdapter {
         }
     }
 
+    @Override
+    public void dropTables(String... tableNames) throws SQLException {
+        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            for (String table : tableNames) {
+                try {
+                    stmt.execute(getDropTableStatement(table));
+                } catch (SQLException e) {
+                    log.debug("Table {} does not exist or cannot be dropped: {}", table, e.getMessage());
+                }
+            }
+            conn.commit();
+        }
+    }
+
     /**
      * Get the DROP TABLE statement for the specific database.
      * Override this method for databases that don't support IF EXISTS syntax.
@@ -109,14 +428,117 @@ public abstract class AbstractDatabaseAdapter implements DatabaseAdapter {
         return "DROP TABLE IF EXISTS " + tableName;
     }
 
+    /**
+     * Get the DROP statement for a TPC-C stored procedure.
+     */
+    protected String getDropProcedureStatement(String procedureName) {
+        return "DROP PROCEDURE IF EXISTS " + procedureName;
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         return new HashMap<>();
     }
 
+    /**
+     * Run a catalog query whose first row holds table bytes and index bytes, for {@link #collectTableSize}.
+     */
+    protected Map<String, Long> queryTableSize(Connection conn, String sql, Object... params) throws SQLException {
+        Map<String, Long> size = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    size.put("tableBytes", rs.getLong(1));
+                    size.put("indexBytes", rs.getLong(2));
+                }
+            }
+        }
+        return size;
+    }
+
     protected abstract String[] getCreateTableStatements();
 
+    /**
+     * Statements creating one warehouse-keyed table split by {@code column}, from its unpartitioned CREATE TABLE
+     * and the profiles' table options; adapters that override this also override {@link #supportsPartitioning}.
+     */
+    protected List<String> getPartitionedTableStatements(String createTable, String table, String column,
+                                                         String options, Partitioning partitioning) {
+        throw new IllegalStateException(getDatabaseType() + " does not support a partitioned schema");
+    }
+
+    /**
+     * A CREATE TABLE followed by table options, if any.
+     */
+    protected static String withOptions(String createTable, String options) {
+        return options.isEmpty() ? createTable : createTable + " " + options;
+    }
+
+    /**
+     * MySQL and Oracle style partition clause following the table definition. Range bounds are written as
+     * {@code VALUES LESS THAN (n)}, the last one as {@code maxValue}.
+     */
+    protected static String partitionClause(String column, Partitioning partitioning, String maxValue) {
+        StringBuilder sb = new StringBuilder("PARTITION BY ").append(partitioning.method().name())
+                .append(" (").append(column).append(')');
+        if (partitioning.method() == PartitionMethod.HASH) {
+            return sb.append(" PARTITIONS ").append(partitioning.count()).toString();
+        }
+        sb.append(" (");
+        for (int p = 0; p < partitioning.count(); p++) {
+            String bound = p < partitioning.count() - 1 ? "(" + partitioning.upperBound(p) + ")" : maxValue;
+            sb.append(p > 0 ? ", " : "").append("PARTITION p").append(p).append(" VALUES LESS THAN ").append(bound);
+        }
+        return sb.append(')').toString();
+    }
+
     protected String[] getCreateIndexStatements() {
         return new String[0];
     }
+
+    /**
+     * CREATE statements for the five TPC-C procedures used by the PROCEDURE execution mode.
+     * Each takes the transaction inputs as IN parameters and reports an INT status;
+     * an empty array means stored procedure mode is not supported.
+     */
+    protected String[] getCreateProcedureStatements() {
+        return new String[0];
+    }
+
+    /**
+     * CASE expression picking the s_dist_xx column for the district held in {@code districtParam}.
+     */
+    protected static String stockDistInfoCase(String districtParam) {
+        StringBuilder sb = new StringBuilder("CASE ").append(districtParam);
+        for (int d = 1; d <= 10; d++) {
+            sb.append(String.format(" WHEN %d THEN s_dist_%02d", d, d));
+        }
+        return sb.append(" END").toString();
+    }
+
+    /**
+     * Connections the pool has opened and connection requests that timed out, e.g. a reconnect storm after an outage.
+     */
+    private static final class PoolCounters implements MetricsTrackerFactory, IMetricsTracker {
+        final LongAdder created = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return this;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            created.increment();
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package com.ninedata.dbbench.database;
+
+/**
+ * How transactions are spread over the SQL endpoints of one database.
+ */
+public enum BalancePolicy {
+    /** Each terminal sticks to one endpoint, terminals assigned in turn */
+    ROUND_ROBIN,
+    /** Each transaction goes to the endpoint with the lowest recent latency weighted by its transactions in flight */
+    LEAST_LATENCY,
+    /** Each transaction goes to the endpoint its warehouse maps to, so a warehouse's rows stay on one node's cache */
+    WAREHOUSE;
+
+    /**
+     * Name as given in the config, e.g. round-robin.
+     */
+    public String getLabel() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    public static BalancePolicy fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return ROUND_ROBIN;
+        }
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown balance policy: " + value
+                    + " (available: round-robin, least-latency, warehouse)");
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Slf4j
@@ -22,6 +23,66 @@ public class DB2Adapter extends AbstractDatabaseAdapter {
         return "DB2";
     }
 
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        Map<String, String> profiles = commonSchemaProfiles();
+        profiles.put("compressed", "Row compression (COMPRESS YES) for every table");
+        return profiles;
+    }
+
+    @Override
+    protected String getTableOptions(String table, PhysicalDesign design) {
+        return design.has("compressed") ? "COMPRESS YES" : "";
+    }
+
+    @Override
+    public Map<String, String> getStatementProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put("returning", "SELECT FROM FINAL TABLE (UPDATE ...) in New-Order, Payment and Delivery, one round trip instead of two");
+        return profiles;
+    }
+
+    @Override
+    protected Map<String, String> getProfileStatements(String profile) {
+        Map<String, String> statements = new LinkedHashMap<>();
+        if (profile.equals("returning")) {
+            statements.put("new-order.district-returning", "SELECT d_tax, d_next_o_id - 1 FROM FINAL TABLE "
+                    + "(UPDATE district SET d_next_o_id = d_next_o_id + 1 WHERE d_w_id = ? AND d_id = ?)");
+            statements.put("payment.warehouse-returning", "SELECT w_name, w_street_1, w_street_2, w_city, w_state, w_zip "
+                    + "FROM FINAL TABLE (UPDATE warehouse SET w_ytd = w_ytd + ? WHERE w_id = ?)");
+            statements.put("payment.district-returning", "SELECT d_name, d_street_1, d_street_2, d_city, d_state, d_zip "
+                    + "FROM FINAL TABLE (UPDATE district SET d_ytd = d_ytd + ? WHERE d_w_id = ? AND d_id = ?)");
+            statements.put("delivery.order-returning", "SELECT o_c_id FROM FINAL TABLE "
+                    + "(UPDATE oorder SET o_carrier_id = ? WHERE o_w_id = ? AND o_d_id = ? AND o_id = ?)");
+        }
+        return statements;
+    }
+
+    @Override
+    public int resolveIsolationLevel(IsolationLevel level) {
+        // No snapshot isolation on DB2; cursor stability reads the currently committed version instead
+        return level == IsolationLevel.SNAPSHOT ? Connection.TRANSACTION_READ_COMMITTED : level.getJdbcLevel();
+    }
+
+    @Override
+    public ErrorCategory classifyError(SQLException e) {
+        int code = e.getErrorCode();
+        if (code == -911 || code == -913) {
+            // Reason code 68 is a lock timeout, 2 is a deadlock
+            String message = e.getMessage();
+            return message != null && message.contains("SQLERRMC=68")
+                    ? ErrorCategory.LOCK_TIMEOUT : ErrorCategory.DEADLOCK;
+        }
+        return super.classifyError(e);
+    }
+
+    @Override
+    public Map<String, Long> collectTableSize(Connection conn, String table) throws SQLException {
+        // ADMINTABINFO reports physical sizes in KB
+        return queryTableSize(conn, "SELECT DATA_OBJECT_P_SIZE * 1024, INDEX_OBJECT_P_SIZE * 1024 FROM SYSIBMADM.ADMINTABINFO "
+                + "WHERE TABSCHEMA = CURRENT SCHEMA AND TABNAME = ?", table.toUpperCase());
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
@@ -177,6 +238,11 @@ public class DB2Adapter extends AbstractDatabaseAdapter {
         return "DROP TABLE " + tableName;
     }
 
+    @Override
+    protected String getDropProcedureStatement(String procedureName) {
+        return "DROP PROCEDURE " + procedureName;
+    }
+
     @Override
     protected String[] getCreateTableStatements() {
         return new String[]{
@@ -326,4 +392,210 @@ public class DB2Adapter extends AbstractDatabaseAdapter {
             "CREATE INDEX idx_order_customer ON oorder (o_w_id, o_d_id, o_c_id, o_id)"
         };
     }
+
+    @Override
+    protected String[] getCreateProcedureStatements() {
+        // REGEXP_SUBSTR requires DB2 LUW 11.1 or later
+        return new String[]{
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_new_order(IN p_w_id INT, IN p_d_id INT, IN p_c_id INT, IN p_ol_cnt INT,
+                IN p_item_ids VARCHAR(1024), IN p_supply_w_ids VARCHAR(1024), IN p_quantities VARCHAR(1024),
+                OUT p_status INT)
+            LANGUAGE SQL
+            proc: BEGIN
+                DECLARE v_w_tax DECIMAL(4,4);
+                DECLARE v_d_tax DECIMAL(4,4);
+                DECLARE v_o_id INT;
+                DECLARE v_c_discount DECIMAL(4,4);
+                DECLARE v_i INT DEFAULT 1;
+                DECLARE v_i_id INT;
+                DECLARE v_supply_w_id INT;
+                DECLARE v_quantity INT;
+                DECLARE v_i_price DECIMAL(5,2);
+                DECLARE v_dist_info CHAR(24);
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_status = 0;
+                SELECT w_tax INTO v_w_tax FROM warehouse WHERE w_id = p_w_id;
+                -- Update first so the district row is locked before d_next_o_id is read
+                UPDATE district SET d_next_o_id = d_next_o_id + 1 WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                SELECT d_tax, d_next_o_id - 1 INTO v_d_tax, v_o_id FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                SELECT c_discount INTO v_c_discount FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = p_c_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                INSERT INTO oorder (o_id, o_d_id, o_w_id, o_c_id, o_entry_d, o_carrier_id, o_ol_cnt, o_all_local)
+                    VALUES (v_o_id, p_d_id, p_w_id, p_c_id, CURRENT TIMESTAMP, NULL, p_ol_cnt, 1);
+                INSERT INTO new_order (no_o_id, no_d_id, no_w_id) VALUES (v_o_id, p_d_id, p_w_id);
+
+                WHILE v_i <= p_ol_cnt DO
+                    SET v_i_id = INT(REGEXP_SUBSTR(p_item_ids, '[^,]+', 1, v_i));
+                    SET v_supply_w_id = INT(REGEXP_SUBSTR(p_supply_w_ids, '[^,]+', 1, v_i));
+                    SET v_quantity = INT(REGEXP_SUBSTR(p_quantities, '[^,]+', 1, v_i));
+
+                    SELECT i_price INTO v_i_price FROM item WHERE i_id = v_i_id;
+                    IF v_found = 0 THEN LEAVE proc; END IF;
+                    UPDATE stock SET s_quantity = CASE WHEN s_quantity - v_quantity < 10 THEN s_quantity - v_quantity + 91
+                                                       ELSE s_quantity - v_quantity END,
+                        s_ytd = s_ytd + v_quantity, s_order_cnt = s_order_cnt + 1
+                        WHERE s_w_id = v_supply_w_id AND s_i_id = v_i_id;
+                    SELECT %s INTO v_dist_info FROM stock WHERE s_w_id = v_supply_w_id AND s_i_id = v_i_id;
+                    IF v_found = 0 THEN LEAVE proc; END IF;
+                    INSERT INTO order_line (ol_o_id, ol_d_id, ol_w_id, ol_number, ol_i_id, ol_supply_w_id, ol_delivery_d, ol_quantity, ol_amount, ol_dist_info)
+                        VALUES (v_o_id, p_d_id, p_w_id, v_i, v_i_id, v_supply_w_id, NULL, v_quantity, v_quantity * v_i_price, v_dist_info);
+                    SET v_i = v_i + 1;
+                END WHILE;
+
+                SET p_status = 1;
+            END
+            """.formatted(stockDistInfoCase("p_d_id")),
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_payment(IN p_w_id INT, IN p_d_id INT, IN p_by_name INT, IN p_c_id INT,
+                IN p_c_last VARCHAR(16), IN p_amount DECIMAL(6,2), OUT p_status INT)
+            LANGUAGE SQL
+            proc: BEGIN
+                DECLARE v_w_name VARCHAR(10);
+                DECLARE v_d_name VARCHAR(10);
+                DECLARE v_c_id INT;
+                DECLARE v_c_credit CHAR(2);
+                DECLARE v_c_data VARCHAR(500);
+                DECLARE v_new_data VARCHAR(600);
+                DECLARE v_count INT;
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_status = 0;
+                UPDATE warehouse SET w_ytd = w_ytd + p_amount WHERE w_id = p_w_id;
+                SELECT w_name INTO v_w_name FROM warehouse WHERE w_id = p_w_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                UPDATE district SET d_ytd = d_ytd + p_amount WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                SELECT d_name INTO v_d_name FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+
+                IF p_by_name = 1 THEN
+                    SELECT LEAST(COUNT(*), 100) INTO v_count FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last;
+                    IF v_count = 0 THEN LEAVE proc; END IF;
+                    SELECT c_id INTO v_c_id FROM (
+                        SELECT c_id, ROW_NUMBER() OVER (ORDER BY c_first) AS rn FROM customer
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last
+                    ) AS t WHERE rn = (v_count + 1) / 2;
+                ELSE
+                    SET v_c_id = p_c_id;
+                END IF;
+
+                SELECT c_credit, c_data INTO v_c_credit, v_c_data FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                IF v_c_credit = 'BC' THEN
+                    SET v_new_data = VARCHAR(v_c_id) || ' ' || VARCHAR(p_d_id) || ' ' || VARCHAR(p_w_id) || ' ' || VARCHAR(p_d_id) || ' '
+                        || VARCHAR(p_w_id) || ' ' || VARCHAR(p_amount) || ' | ' || v_c_data;
+                    IF LENGTH(v_new_data) > 500 THEN SET v_new_data = SUBSTR(v_new_data, 1, 500); END IF;
+                    UPDATE customer SET c_balance = c_balance - p_amount, c_ytd_payment = c_ytd_payment + p_amount, c_payment_cnt = c_payment_cnt + 1,
+                        c_data = v_new_data
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                ELSE
+                    UPDATE customer SET c_balance = c_balance - p_amount, c_ytd_payment = c_ytd_payment + p_amount, c_payment_cnt = c_payment_cnt + 1
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                END IF;
+
+                INSERT INTO history (h_c_id, h_c_d_id, h_c_w_id, h_d_id, h_w_id, h_date, h_amount, h_data)
+                    VALUES (v_c_id, p_d_id, p_w_id, p_d_id, p_w_id, CURRENT TIMESTAMP, p_amount, v_w_name || '    ' || v_d_name);
+                SET p_status = 1;
+            END
+            """,
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_order_status(IN p_w_id INT, IN p_d_id INT, IN p_by_name INT, IN p_c_id INT,
+                IN p_c_last VARCHAR(16), OUT p_status INT)
+            LANGUAGE SQL
+            proc: BEGIN
+                DECLARE v_c_id INT;
+                DECLARE v_c_balance DECIMAL(12,2);
+                DECLARE v_c_first VARCHAR(16);
+                DECLARE v_c_middle CHAR(2);
+                DECLARE v_c_last VARCHAR(16);
+                DECLARE v_o_id INT;
+                DECLARE v_ol_count INT;
+                DECLARE v_ol_total DECIMAL(12,2);
+                DECLARE v_count INT;
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_status = 0;
+                IF p_by_name = 1 THEN
+                    SELECT LEAST(COUNT(*), 100) INTO v_count FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last;
+                    IF v_count = 0 THEN LEAVE proc; END IF;
+                    SELECT c_id INTO v_c_id FROM (
+                        SELECT c_id, ROW_NUMBER() OVER (ORDER BY c_first) AS rn FROM customer
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last
+                    ) AS t WHERE rn = (v_count + 1) / 2;
+                ELSE
+                    SET v_c_id = p_c_id;
+                END IF;
+
+                SELECT c_balance, c_first, c_middle, c_last INTO v_c_balance, v_c_first, v_c_middle, v_c_last
+                    FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                SELECT MAX(o_id) INTO v_o_id FROM oorder WHERE o_w_id = p_w_id AND o_d_id = p_d_id AND o_c_id = v_c_id;
+                IF v_o_id IS NULL THEN LEAVE proc; END IF;
+                SELECT COUNT(*), SUM(ol_amount) INTO v_ol_count, v_ol_total
+                    FROM order_line WHERE ol_w_id = p_w_id AND ol_d_id = p_d_id AND ol_o_id = v_o_id;
+                SET p_status = 1;
+            END
+            """,
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_delivery(IN p_w_id INT, IN p_carrier_id INT, OUT p_delivered INT)
+            LANGUAGE SQL
+            BEGIN
+                DECLARE v_d_id INT DEFAULT 1;
+                DECLARE v_o_id INT;
+                DECLARE v_c_id INT;
+                DECLARE v_amount DECIMAL(12,2);
+                DECLARE v_rows INT;
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_delivered = 0;
+                WHILE v_d_id <= 10 DO
+                    SELECT MIN(no_o_id) INTO v_o_id FROM new_order WHERE no_w_id = p_w_id AND no_d_id = v_d_id;
+                    IF v_o_id IS NOT NULL THEN
+                        DELETE FROM new_order WHERE no_w_id = p_w_id AND no_d_id = v_d_id AND no_o_id = v_o_id;
+                        GET DIAGNOSTICS v_rows = ROW_COUNT;
+                        -- Skip the district if another terminal delivered this order first
+                        IF v_rows > 0 THEN
+                            SET v_found = 1;
+                            SELECT o_c_id INTO v_c_id FROM oorder WHERE o_w_id = p_w_id AND o_d_id = v_d_id AND o_id = v_o_id;
+                            IF v_found = 1 THEN
+                                UPDATE oorder SET o_carrier_id = p_carrier_id WHERE o_w_id = p_w_id AND o_d_id = v_d_id AND o_id = v_o_id;
+                                UPDATE order_line SET ol_delivery_d = CURRENT TIMESTAMP WHERE ol_w_id = p_w_id AND ol_d_id = v_d_id AND ol_o_id = v_o_id;
+                                SELECT COALESCE(SUM(ol_amount), 0) INTO v_amount FROM order_line
+                                    WHERE ol_w_id = p_w_id AND ol_d_id = v_d_id AND ol_o_id = v_o_id;
+                                UPDATE customer SET c_balance = c_balance + v_amount, c_delivery_cnt = c_delivery_cnt + 1
+                                    WHERE c_w_id = p_w_id AND c_d_id = v_d_id AND c_id = v_c_id;
+                                SET p_delivered = p_delivered + 1;
+                            END IF;
+                        END IF;
+                    END IF;
+                    SET v_d_id = v_d_id + 1;
+                END WHILE;
+            END
+            """,
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_stock_level(IN p_w_id INT, IN p_d_id INT, IN p_threshold INT, OUT p_low_stock INT)
+            LANGUAGE SQL
+            BEGIN
+                DECLARE v_next_o_id INT;
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_low_stock = -1;
+                SELECT d_next_o_id INTO v_next_o_id FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                IF v_found = 1 THEN
+                    SELECT COUNT(DISTINCT s_i_id) INTO p_low_stock FROM stock, order_line
+                        WHERE s_w_id = p_w_id AND ol_w_id = p_w_id AND ol_d_id = p_d_id
+                        AND ol_o_id < v_next_o_id AND ol_o_id >= v_next_o_id - 20
+                        AND s_i_id = ol_i_id AND s_quantity < p_threshold;
+                END IF;
+            END
+            """
+        };
+    }
 }
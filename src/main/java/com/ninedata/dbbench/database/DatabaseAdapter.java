@@ -2,7 +2,10 @@ package com.ninedata.dbbench.database;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public interface DatabaseAdapter {
@@ -10,8 +13,81 @@ public interface DatabaseAdapter {
     Connection getConnection() throws SQLException;
     void close();
     void createSchema() throws SQLException;
+
+    /**
+     * Create the TPC-C schema in the given physical design: schema profiles and partitioning by warehouse id.
+     */
+    default void createSchema(PhysicalDesign design) throws SQLException {
+        if (design.partitioning().isEnabled()) {
+            throw new SQLException(getDatabaseType() + " does not support a partitioned schema");
+        }
+        if (!design.profiles().isEmpty()) {
+            throw new IllegalArgumentException(getDatabaseType() + " has no schema profiles: " + design.getLabel());
+        }
+        createSchema();
+    }
+
+    /**
+     * Check if the adapter can create the TPC-C schema partitioned by warehouse.
+     */
+    default boolean supportsPartitioning() {
+        return false;
+    }
+
+    /**
+     * Named physical-design profiles of the TPC-C schema this adapter offers, with a short description each.
+     */
+    default Map<String, String> getSchemaProfiles() {
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * DDL that {@link #createSchema(PhysicalDesign)} runs for the design, to record it with the results;
+     * empty if the adapter does not expose it.
+     */
+    default List<String> getSchemaStatements(PhysicalDesign design) {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Constraints of the design added once the data is loaded, such as foreign keys.
+     */
+    default void createConstraints(PhysicalDesign design) throws SQLException {
+    }
+
+    /**
+     * DDL that {@link #createConstraints} runs for the design.
+     */
+    default List<String> getConstraintStatements(PhysicalDesign design) {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Named statement profiles this adapter offers for the TPC-C transactions (optimizer and index hints,
+     * lock variants, RETURNING clauses), with a short description each.
+     */
+    default Map<String, String> getStatementProfiles() {
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * SQL the profiles put in place of TPC-C statements, keyed by statement id (see
+     * {@code tpcc.transaction.StatementCatalog}); a later profile wins.
+     */
+    default Map<String, String> getStatementOverrides(List<String> profiles) {
+        if (!profiles.isEmpty()) {
+            throw new IllegalArgumentException(getDatabaseType() + " has no statement profiles: " + String.join(",", profiles));
+        }
+        return new LinkedHashMap<>();
+    }
     default void createIndexes() throws SQLException {}
     void dropSchema() throws SQLException;
+
+    /**
+     * Drop the given tables, ignoring ones that don't exist. Used by workloads other than TPC-C.
+     */
+    void dropTables(String... tableNames) throws SQLException;
+
     Map<String, Object> collectMetrics() throws SQLException;
     String getDatabaseType();
 
@@ -23,6 +99,14 @@ public interface DatabaseAdapter {
         return true;
     }
 
+    /**
+     * {@code orderedQuery} cut to its first rows, LIMIT ? or FETCH FIRST ? ROWS ONLY; the row count is bound as
+     * the last parameter. The query must end in ORDER BY.
+     */
+    default String limitRows(String orderedQuery) {
+        return orderedQuery + (supportsLimitSyntax() ? " LIMIT ?" : " FETCH FIRST ? ROWS ONLY");
+    }
+
     /**
      * Check if database requires ROWID-based subquery for SELECT ... FOR UPDATE with row limit.
      * Oracle 11g and earlier require this approach since FETCH FIRST is not supported.
@@ -39,6 +123,112 @@ public interface DatabaseAdapter {
         return true;
     }
 
+    /**
+     * Check if the adapter ships TPC-C stored procedures for the PROCEDURE execution mode.
+     */
+    default boolean supportsStoredProcedures() {
+        return false;
+    }
+
+    /**
+     * Install (or replace) the TPC-C stored procedures.
+     */
+    default void createProcedures() throws SQLException {
+        throw new SQLException(getDatabaseType() + " does not support stored procedure mode");
+    }
+
+    /**
+     * Check if procedures return their status as a function result ({? = call ...})
+     * rather than through a trailing OUT parameter.
+     */
+    default boolean procedureReturnsStatus() {
+        return false;
+    }
+
+    /**
+     * Build the JDBC escape call for a procedure taking {@code argCount} IN parameters
+     * plus one INT status.
+     */
+    default String buildProcedureCall(String procedureName, int argCount) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(procedureReturnsStatus() ? "{? = call " : "{call ").append(procedureName).append('(');
+        for (int i = 0; i < argCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        if (!procedureReturnsStatus()) {
+            sb.append(argCount > 0 ? ", ?" : "?");
+        }
+        return sb.append(")}").toString();
+    }
+
+    /**
+     * Map a requested isolation level to the JDBC value passed to setTransactionIsolation.
+     * Only called for levels other than DEFAULT.
+     */
+    default int resolveIsolationLevel(IsolationLevel level) {
+        return level.getJdbcLevel();
+    }
+
+    /**
+     * Classify a failed transaction so retryable aborts (deadlocks, serialization failures,
+     * lock timeouts) can be told apart from real errors. Adapters add vendor error codes.
+     */
+    default ErrorCategory classifyError(SQLException e) {
+        return ErrorCategory.fromSqlState(e);
+    }
+
+    /**
+     * Column type for a date and time, used in workload DDL outside the adapter's own schema.
+     */
+    default String timestampType() {
+        return "TIMESTAMP";
+    }
+
+    /**
+     * Column type for a 64-bit integer, used in workload DDL outside the adapter's own schema.
+     */
+    default String bigintType() {
+        return "BIGINT";
+    }
+
+    /**
+     * Space used by a table ("tableBytes") and by its indexes ("indexBytes"), or an empty map if the
+     * database does not expose it. Values come from the catalog and may lag behind recent writes. Runs on the
+     * given connection, so samplers can keep catalog queries out of the pool.
+     */
+    default Map<String, Long> collectTableSize(Connection conn, String table) throws SQLException {
+        return new HashMap<>();
+    }
+
+    /**
+     * SQL for {@code dividend MOD divisor}. Used by the CH-benCHmark analytical queries.
+     */
+    default String modExpression(String dividend, String divisor) {
+        return "MOD(" + dividend + ", " + divisor + ")";
+    }
+
+    /**
+     * SQL for the substring of {@code expr} starting at the 1-based {@code start}.
+     */
+    default String substringExpression(String expr, int start, int length) {
+        return "SUBSTR(" + expr + ", " + start + ", " + length + ")";
+    }
+
+    /**
+     * SQL for the character code of the first character of {@code expr}.
+     */
+    default String charCodeExpression(String expr) {
+        return "ASCII(" + expr + ")";
+    }
+
+    /**
+     * SQL for the calendar year of a timestamp column.
+     */
+    default String yearExpression(String expr) {
+        return "EXTRACT(YEAR FROM " + expr + ")";
+    }
+
     /**
      * Collect database host OS metrics (CPU, Memory, Disk I/O, Network I/O)
      * This is collected from the database server side if supported
@@ -46,4 +236,49 @@ public interface DatabaseAdapter {
     default Map<String, Object> collectHostMetrics() throws SQLException {
         return new HashMap<>();
     }
+
+    /**
+     * Connection pool gauges (active, idle, total, waiting) and counters since initialize (created, timeouts);
+     * empty without a pool.
+     */
+    default Map<String, Long> getPoolStats() {
+        return new HashMap<>();
+    }
+
+    /**
+     * Let the driver rewrite JDBC batches into multi-row statements, for the batched execution mode;
+     * takes effect at the next initialize().
+     */
+    default void setRewriteBatches(boolean rewriteBatches) {
+    }
+
+    /**
+     * A new physical connection set up like the pool's, autocommit off, for short-connection runs;
+     * the caller closes it.
+     */
+    default Connection openConnection() throws SQLException {
+        throw new SQLException(getDatabaseType() + " cannot open connections outside its pool");
+    }
+
+    /**
+     * A connection outside the pool, in auto-commit mode, for probes that must never wait behind the terminals.
+     */
+    default Connection openDedicatedConnection() throws SQLException {
+        throw new SQLException(getDatabaseType() + " cannot open connections outside its pool");
+    }
+
+    /**
+     * Replication lag this server reports for itself as a replica, in milliseconds; null when it is not
+     * replicating or has no such view.
+     */
+    default Double queryReplicaLag(Connection conn) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Replication lag of each standby as the primary reports it, in milliseconds; empty when unknown.
+     */
+    default Map<String, Double> queryStandbyLags(Connection conn) throws SQLException {
+        return new HashMap<>();
+    }
 }
@@ -0,0 +1,203 @@
+package com.ninedata.dbbench.database;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Spreads transactions over several SQL endpoints of one database (tidb-server or obproxy nodes), each with
+ * its own pool. An endpoint that fails with connection errors several times in a row is taken out of rotation
+ * for a while; once back, one more connection error takes it out again, a success keeps it in.
+ */
+public class EndpointBalancer {
+    /** Weight of the newest latency in an endpoint's moving average */
+    private static final double LATENCY_WEIGHT = 0.2;
+    /** Under least latency, an endpoint without a latency sample for this long gets one transaction to measure it again */
+    static final long PROBE_NANOS = 1_000_000_000L;
+
+    private final List<Node> nodes;
+    private final BalancePolicy policy;
+    private final int ejectAfter;
+    private final long ejectNanos;
+    private final BiConsumer<String, String> logger;
+    private final AtomicInteger next = new AtomicInteger();
+    /** Endpoint index of the calling terminal thread under round robin, -1 until assigned */
+    private final ThreadLocal<int[]> assigned = ThreadLocal.withInitial(() -> new int[]{-1});
+
+    /**
+     * An endpoint with its health and latency, named for per-endpoint metrics.
+     */
+    public static final class Node {
+        private final String name;
+        private final DatabaseAdapter adapter;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger connectionErrors = new AtomicInteger();
+        private final LongAdder ejections = new LongAdder();
+        private volatile double latencyNanos;
+        private volatile long sampledAt;
+        private volatile long ejectedUntil;
+        private volatile boolean ejected;
+
+        public Node(String name, DatabaseAdapter adapter) {
+            this.name = name;
+            this.adapter = adapter;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DatabaseAdapter adapter() {
+            return adapter;
+        }
+
+        boolean isAvailable(long now) {
+            return !ejected || now - ejectedUntil >= 0;
+        }
+
+        boolean isStale(long now) {
+            return sampledAt == 0 || now - sampledAt >= PROBE_NANOS;
+        }
+    }
+
+    /**
+     * @param ejectAfter consecutive connection errors that take an endpoint out of rotation
+     * @param ejectMillis how long it stays out
+     */
+    public EndpointBalancer(List<Node> nodes, BalancePolicy policy, int ejectAfter, long ejectMillis,
+                            BiConsumer<String, String> logger) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("No endpoints");
+        }
+        if (ejectAfter <= 0) {
+            throw new IllegalArgumentException("Eject-after must be positive: " + ejectAfter);
+        }
+        this.nodes = List.copyOf(nodes);
+        this.policy = policy;
+        this.ejectAfter = ejectAfter;
+        this.ejectNanos = Math.max(0, ejectMillis) * 1_000_000;
+        this.logger = logger;
+    }
+
+    /**
+     * Pick the endpoint for the next attempt of a transaction on the given warehouse, run by the calling terminal.
+     * Call {@link #complete} once the attempt is over. With every endpoint out of rotation, the policy's choice is kept.
+     */
+    public Node route(int warehouseId) {
+        long now = System.nanoTime();
+        Node node = switch (policy) {
+            case LEAST_LATENCY -> leastLatency(now);
+            case WAREHOUSE -> firstAvailable(Math.floorMod(warehouseId - 1, nodes.size()), now);
+            default -> {
+                int[] slot = assigned.get();
+                if (slot[0] < 0) {
+                    slot[0] = Math.floorMod(next.getAndIncrement(), nodes.size());
+                }
+                yield firstAvailable(slot[0], now);
+            }
+        };
+        node.inFlight.incrementAndGet();
+        return node;
+    }
+
+    private Node firstAvailable(int preferred, long now) {
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get((preferred + i) % nodes.size());
+            if (node.isAvailable(now)) {
+                return node;
+            }
+        }
+        return nodes.get(preferred);
+    }
+
+    private Node leastLatency(long now) {
+        Node best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (Node node : nodes) {
+            if (!node.isAvailable(now)) {
+                continue;
+            }
+            int inFlight = node.inFlight.get();
+            // Unmeasured endpoints score next to nothing, so each gets tried; one slow once gets a probe now and then
+            double score = inFlight == 0 && node.isStale(now) ? 0
+                    : Math.max(node.latencyNanos, 1) * (inFlight + 1);
+            if (score < bestScore) {
+                best = node;
+                bestScore = score;
+            }
+        }
+        return best != null ? best : firstAvailable(Math.floorMod(next.getAndIncrement(), nodes.size()), now);
+    }
+
+    /**
+     * Report the outcome of an attempt on an endpoint.
+     *
+     * @param error category of the attempt's error, or null when it went through
+     */
+    public void complete(Node node, long latencyNanos, ErrorCategory error) {
+        node.inFlight.decrementAndGet();
+        if (error == ErrorCategory.CONNECTION) {
+            // Back from a break, a single connection error is enough
+            int errors = node.connectionErrors.incrementAndGet();
+            if (!node.ejected && errors >= ejectAfter || node.ejected && System.nanoTime() - node.ejectedUntil >= 0) {
+                synchronized (node) {
+                    node.ejectedUntil = System.nanoTime() + ejectNanos;
+                    node.ejected = true;
+                    node.connectionErrors.set(0);
+                    node.ejections.increment();
+                }
+                logger.accept("WARN", String.format("Endpoint %s taken out of rotation for %dms after %d connection error(s)",
+                        node.name, ejectNanos / 1_000_000, errors));
+            }
+            return;
+        }
+        node.connectionErrors.set(0);
+        if (node.ejected) {
+            synchronized (node) {
+                if (!node.ejected) {
+                    return;
+                }
+                node.ejected = false;
+            }
+            logger.accept("INFO", "Endpoint " + node.name + " back in rotation");
+        }
+        if (error == null) {
+            // A stale average says nothing about the endpoint now, so the probe replaces it
+            long now = System.nanoTime();
+            double last = node.latencyNanos;
+            node.latencyNanos = node.isStale(now) ? latencyNanos
+                    : last + LATENCY_WEIGHT * (latencyNanos - last);
+            node.sampledAt = now;
+        }
+    }
+
+    public BalancePolicy getPolicy() {
+        return policy;
+    }
+
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Per endpoint: whether it is in rotation, how often it was taken out, transactions in flight and recent latency.
+     */
+    public List<Map<String, Object>> summarize() {
+        long now = System.nanoTime();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Node node : nodes) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", node.name);
+            row.put("state", node.isAvailable(now) ? "UP" : "EJECTED");
+            row.put("ejections", node.ejections.sum());
+            row.put("inFlight", node.inFlight.get());
+            row.put("recentLatencyMs", Math.round(node.latencyNanos / 10_000.0) / 100.0);
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ninedata.dbbench.database;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Classification of a failed transaction, used to decide whether it is worth retrying.
+ */
+public enum ErrorCategory {
+    DEADLOCK(true),
+    SERIALIZATION(true),
+    LOCK_TIMEOUT(true),
+    CONNECTION(false),
+    CONSTRAINT(false),
+    OTHER(false);
+
+    private final boolean retryable;
+
+    ErrorCategory(boolean retryable) {
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+
+    /**
+     * Classify by standard SQLState class and JDBC exception subtype only.
+     * Adapters refine this with vendor error codes in {@link DatabaseAdapter#classifyError(SQLException)}.
+     */
+    public static ErrorCategory fromSqlState(SQLException e) {
+        String state = e.getSQLState();
+        if (state != null) {
+            if (state.equals("40001")) return SERIALIZATION;
+            if (state.equals("40P01")) return DEADLOCK;
+            if (state.startsWith("08")) return CONNECTION;
+            if (state.startsWith("23")) return CONSTRAINT;
+            // Other transaction-rollback states (40000, 40002, 40003) are not conflicts and are not retried
+            if (state.startsWith("40")) return OTHER;
+        }
+        if (e instanceof SQLTransactionRollbackException) return SERIALIZATION;
+        if (e instanceof SQLTimeoutException) return LOCK_TIMEOUT;
+        if (e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException
+                || e instanceof SQLRecoverableException) {
+            return CONNECTION;
+        }
+        if (e instanceof SQLIntegrityConstraintViolationException) return CONSTRAINT;
+        return OTHER;
+    }
+}
@@ -22,11 +22,28 @@ public class GBase8sAdapter extends AbstractDatabaseAdapter {
         return "GBase8s";
     }
 
+    @Override
+    protected String foreignKey(String name, String table, String columns, String refTable, String refColumns) {
+        // Informix syntax: the constraint name follows the definition
+        return "ALTER TABLE " + table + " ADD CONSTRAINT FOREIGN KEY (" + columns + ") REFERENCES " + refTable
+                + " (" + refColumns + ") CONSTRAINT " + name;
+    }
+
     @Override
     public boolean supportsLimitSyntax() {
         return false; // GBase 8s uses FIRST n / SKIP n syntax
     }
 
+    @Override
+    public String timestampType() {
+        return "DATETIME YEAR TO FRACTION(5)";
+    }
+
+    @Override
+    public String yearExpression(String expr) {
+        return "YEAR(" + expr + ")";
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
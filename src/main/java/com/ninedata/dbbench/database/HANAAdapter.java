@@ -22,6 +22,11 @@ public class HANAAdapter extends AbstractDatabaseAdapter {
         return "HANA";
     }
 
+    @Override
+    public String substringExpression(String expr, int start, int length) {
+        return "SUBSTRING(" + expr + ", " + start + ", " + length + ")";
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
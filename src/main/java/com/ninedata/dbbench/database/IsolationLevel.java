@@ -0,0 +1,46 @@
+package com.ninedata.dbbench.database;
+
+import java.sql.Connection;
+
+/**
+ * Transaction isolation requested for a transaction type.
+ * DEFAULT leaves the connection at the driver/server default;
+ * SNAPSHOT is mapped by each adapter to its snapshot-isolation equivalent.
+ */
+public enum IsolationLevel {
+    DEFAULT(-1),
+    READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE),
+    SNAPSHOT(Connection.TRANSACTION_REPEATABLE_READ);
+
+    private final int jdbcLevel;
+
+    IsolationLevel(int jdbcLevel) {
+        this.jdbcLevel = jdbcLevel;
+    }
+
+    /**
+     * The standard JDBC constant; SNAPSHOT defaults to REPEATABLE_READ, which is snapshot
+     * isolation on PostgreSQL, MySQL/InnoDB and TiDB.
+     */
+    public int getJdbcLevel() {
+        return jdbcLevel;
+    }
+
+    public static IsolationLevel fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        return switch (value.trim().toLowerCase().replace('_', '-').replace(' ', '-')) {
+            case "default" -> DEFAULT;
+            case "read-uncommitted", "ru" -> READ_UNCOMMITTED;
+            case "read-committed", "rc" -> READ_COMMITTED;
+            case "repeatable-read", "rr" -> REPEATABLE_READ;
+            case "serializable", "ser" -> SERIALIZABLE;
+            case "snapshot", "si" -> SNAPSHOT;
+            default -> throw new IllegalArgumentException("Unsupported isolation level: " + value);
+        };
+    }
+}
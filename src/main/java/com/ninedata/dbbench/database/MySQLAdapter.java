@@ -1,6 +1,7 @@
 package com.ninedata.dbbench.database;
 
 import com.ninedata.dbbench.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
@@ -8,6 +9,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -22,6 +25,63 @@ public class MySQLAdapter extends AbstractDatabaseAdapter {
         return "MySQL";
     }
 
+    @Override
+    public ErrorCategory classifyError(SQLException e) {
+        switch (e.getErrorCode()) {
+            case 1213: return ErrorCategory.DEADLOCK;           // ER_LOCK_DEADLOCK
+            case 1205: return ErrorCategory.LOCK_TIMEOUT;       // ER_LOCK_WAIT_TIMEOUT
+            case 3572: return ErrorCategory.LOCK_TIMEOUT;       // ER_LOCK_NOWAIT
+            default: return super.classifyError(e);
+        }
+    }
+
+    @Override
+    protected void configureDataSource(HikariConfig hikariConfig) {
+        // Transactions prepare their statements on every execution; the driver's cache makes that a lookup
+        addDefaultProperty(hikariConfig, "cachePrepStmts", "true");
+        addDefaultProperty(hikariConfig, "prepStmtCacheSize", "250");
+        addDefaultProperty(hikariConfig, "prepStmtCacheSqlLimit", "2048");
+        // Collapse JDBC batches into multi-row INSERTs and multi-statement packets
+        if (rewriteBatches) {
+            addDefaultProperty(hikariConfig, "rewriteBatchedStatements", "true");
+        }
+    }
+
+    @Override
+    public Map<String, Long> collectTableSize(Connection conn, String table) throws SQLException {
+        // InnoDB refreshes these statistics in the background, so they trail the inserts a little
+        return queryTableSize(conn, "SELECT DATA_LENGTH, INDEX_LENGTH FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", table);
+    }
+
+    @Override
+    public Double queryReplicaLag(Connection conn) throws SQLException {
+        // SHOW REPLICA STATUS needs 8.0.22+; older servers only know the SLAVE spelling
+        try (Statement stmt = conn.createStatement()) {
+            try {
+                return maxSecondsBehind(stmt.executeQuery("SHOW REPLICA STATUS"), "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                return maxSecondsBehind(stmt.executeQuery("SHOW SLAVE STATUS"), "Seconds_Behind_Master");
+            }
+        }
+    }
+
+    /**
+     * Largest lag over the replication channels, in ms; null when not replicating or the SQL thread is stopped.
+     */
+    private static Double maxSecondsBehind(ResultSet rs, String column) throws SQLException {
+        try (rs) {
+            Double max = null;
+            while (rs.next()) {
+                long seconds = rs.getLong(column);
+                if (!rs.wasNull() && (max == null || seconds * 1000.0 > max)) {
+                    max = seconds * 1000.0;
+                }
+            }
+            return max;
+        }
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
@@ -258,6 +318,71 @@ public class MySQLAdapter extends AbstractDatabaseAdapter {
         };
     }
 
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+
+    @Override
+    protected List<String> getPartitionedTableStatements(String createTable, String table, String column,
+                                                         String options, Partitioning partitioning) {
+        return List.of(withOptions(createTable, options) + " " + partitionClause(column, partitioning, "MAXVALUE"));
+    }
+
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        Map<String, String> profiles = commonSchemaProfiles();
+        profiles.put("compressed", "InnoDB ROW_FORMAT=COMPRESSED with 8 KB pages for every table");
+        return profiles;
+    }
+
+    @Override
+    protected void checkDesign(PhysicalDesign design) {
+        super.checkDesign(design);
+        if (design.has(PhysicalDesign.FOREIGN_KEYS) && design.partitioning().isEnabled()) {
+            throw new IllegalArgumentException(getDatabaseType() + " does not support foreign keys on partitioned tables");
+        }
+    }
+
+    @Override
+    protected String getTableOptions(String table, PhysicalDesign design) {
+        return design.has("compressed") ? "ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8" : "";
+    }
+
+    @Override
+    public Map<String, String> getStatementProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put("hints", "FORCE INDEX on the new_order, customer-by-name and last-order reads, JOIN_ORDER for Stock-Level");
+        profiles.put("skip-locked", "Delivery skips new orders another terminal holds (MySQL 8.0)");
+        profiles.put("nowait", "Delivery fails at once on a locked new order instead of waiting (MySQL 8.0)");
+        return profiles;
+    }
+
+    @Override
+    protected Map<String, String> getProfileStatements(String profile) {
+        Map<String, String> statements = new LinkedHashMap<>();
+        String oldestNewOrder = "SELECT no_o_id FROM new_order WHERE no_w_id = ? AND no_d_id = ? ORDER BY no_o_id LIMIT 1 FOR UPDATE";
+        switch (profile) {
+            case "hints" -> {
+                String byName = "SELECT c_id FROM customer FORCE INDEX (idx_customer_name) WHERE c_w_id = ? AND c_d_id = ? "
+                        + "AND c_last = ? ORDER BY c_first";
+                statements.put("payment.customer-by-name", byName);
+                statements.put("order-status.customer-by-name", byName);
+                statements.put("order-status.last-order", "SELECT o_id, o_entry_d, o_carrier_id FROM oorder FORCE INDEX "
+                        + "(idx_order_customer) WHERE o_w_id = ? AND o_d_id = ? AND o_c_id = ? ORDER BY o_id DESC LIMIT 1");
+                statements.put("delivery.oldest-new-order", "SELECT no_o_id FROM new_order FORCE INDEX (PRIMARY) "
+                        + "WHERE no_w_id = ? AND no_d_id = ? ORDER BY no_o_id LIMIT 1 FOR UPDATE");
+                statements.put("stock-level.low-stock", "SELECT /*+ JOIN_ORDER(order_line, stock) */ COUNT(DISTINCT s_i_id) "
+                        + "FROM stock, order_line WHERE s_w_id = ? AND ol_w_id = ? AND ol_d_id = ? AND ol_o_id < ? "
+                        + "AND ol_o_id >= ? AND s_i_id = ol_i_id AND s_quantity < ?");
+            }
+            case "skip-locked" -> statements.put("delivery.oldest-new-order", oldestNewOrder + " SKIP LOCKED");
+            case "nowait" -> statements.put("delivery.oldest-new-order", oldestNewOrder + " NOWAIT");
+            default -> { }
+        }
+        return statements;
+    }
+
     @Override
     protected String[] getCreateIndexStatements() {
         return new String[]{
@@ -265,4 +390,199 @@ public class MySQLAdapter extends AbstractDatabaseAdapter {
             "CREATE INDEX idx_order_customer ON oorder (o_w_id, o_d_id, o_c_id, o_id)"
         };
     }
+
+    @Override
+    protected String[] getCreateProcedureStatements() {
+        return new String[]{
+            """
+            CREATE PROCEDURE tpcc_new_order(IN p_w_id INT, IN p_d_id INT, IN p_c_id INT, IN p_ol_cnt INT,
+                IN p_item_ids VARCHAR(1024), IN p_supply_w_ids VARCHAR(1024), IN p_quantities VARCHAR(1024),
+                OUT p_status INT)
+            proc: BEGIN
+                DECLARE v_w_tax DECIMAL(4,4);
+                DECLARE v_d_tax DECIMAL(4,4);
+                DECLARE v_o_id INT;
+                DECLARE v_c_discount DECIMAL(4,4);
+                DECLARE v_i INT DEFAULT 1;
+                DECLARE v_i_id INT;
+                DECLARE v_supply_w_id INT;
+                DECLARE v_quantity INT;
+                DECLARE v_i_price DECIMAL(5,2);
+                DECLARE v_s_quantity INT;
+                DECLARE v_dist_info CHAR(24);
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_status = 0;
+                SELECT w_tax INTO v_w_tax FROM warehouse WHERE w_id = p_w_id;
+                SELECT d_tax, d_next_o_id INTO v_d_tax, v_o_id FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id FOR UPDATE;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                UPDATE district SET d_next_o_id = v_o_id + 1 WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                SELECT c_discount INTO v_c_discount FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = p_c_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                INSERT INTO oorder (o_id, o_d_id, o_w_id, o_c_id, o_entry_d, o_carrier_id, o_ol_cnt, o_all_local)
+                    VALUES (v_o_id, p_d_id, p_w_id, p_c_id, NOW(), NULL, p_ol_cnt, 1);
+                INSERT INTO new_order (no_o_id, no_d_id, no_w_id) VALUES (v_o_id, p_d_id, p_w_id);
+
+                WHILE v_i <= p_ol_cnt DO
+                    SET v_i_id = CAST(SUBSTRING_INDEX(SUBSTRING_INDEX(p_item_ids, ',', v_i), ',', -1) AS SIGNED);
+                    SET v_supply_w_id = CAST(SUBSTRING_INDEX(SUBSTRING_INDEX(p_supply_w_ids, ',', v_i), ',', -1) AS SIGNED);
+                    SET v_quantity = CAST(SUBSTRING_INDEX(SUBSTRING_INDEX(p_quantities, ',', v_i), ',', -1) AS SIGNED);
+
+                    SELECT i_price INTO v_i_price FROM item WHERE i_id = v_i_id;
+                    IF v_found = 0 THEN LEAVE proc; END IF;
+                    SELECT s_quantity, %s INTO v_s_quantity, v_dist_info
+                        FROM stock WHERE s_w_id = v_supply_w_id AND s_i_id = v_i_id FOR UPDATE;
+                    IF v_found = 0 THEN LEAVE proc; END IF;
+
+                    SET v_s_quantity = v_s_quantity - v_quantity;
+                    IF v_s_quantity < 10 THEN SET v_s_quantity = v_s_quantity + 91; END IF;
+                    UPDATE stock SET s_quantity = v_s_quantity, s_ytd = s_ytd + v_quantity, s_order_cnt = s_order_cnt + 1
+                        WHERE s_w_id = v_supply_w_id AND s_i_id = v_i_id;
+                    INSERT INTO order_line (ol_o_id, ol_d_id, ol_w_id, ol_number, ol_i_id, ol_supply_w_id, ol_delivery_d, ol_quantity, ol_amount, ol_dist_info)
+                        VALUES (v_o_id, p_d_id, p_w_id, v_i, v_i_id, v_supply_w_id, NULL, v_quantity, v_quantity * v_i_price, v_dist_info);
+                    SET v_i = v_i + 1;
+                END WHILE;
+
+                SET p_status = 1;
+            END
+            """.formatted(stockDistInfoCase("p_d_id")),
+            """
+            CREATE PROCEDURE tpcc_payment(IN p_w_id INT, IN p_d_id INT, IN p_by_name INT, IN p_c_id INT,
+                IN p_c_last VARCHAR(16), IN p_amount DECIMAL(6,2), OUT p_status INT)
+            proc: BEGIN
+                DECLARE v_w_name VARCHAR(10);
+                DECLARE v_d_name VARCHAR(10);
+                DECLARE v_c_id INT;
+                DECLARE v_c_credit CHAR(2);
+                DECLARE v_c_data VARCHAR(500);
+                DECLARE v_count INT;
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_status = 0;
+                UPDATE warehouse SET w_ytd = w_ytd + p_amount WHERE w_id = p_w_id;
+                SELECT w_name INTO v_w_name FROM warehouse WHERE w_id = p_w_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                UPDATE district SET d_ytd = d_ytd + p_amount WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                SELECT d_name INTO v_d_name FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+
+                IF p_by_name = 1 THEN
+                    SELECT LEAST(COUNT(*), 100) INTO v_count FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last;
+                    IF v_count = 0 THEN LEAVE proc; END IF;
+                    SET v_count = (v_count + 1) DIV 2 - 1;
+                    SELECT c_id INTO v_c_id FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last
+                        ORDER BY c_first LIMIT v_count, 1;
+                ELSE
+                    SET v_c_id = p_c_id;
+                END IF;
+
+                SELECT c_credit, c_data INTO v_c_credit, v_c_data FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                IF v_c_credit = 'BC' THEN
+                    UPDATE customer SET c_balance = c_balance - p_amount, c_ytd_payment = c_ytd_payment + p_amount, c_payment_cnt = c_payment_cnt + 1,
+                        c_data = LEFT(CONCAT(v_c_id, ' ', p_d_id, ' ', p_w_id, ' ', p_d_id, ' ', p_w_id, ' ', p_amount, ' | ', v_c_data), 500)
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                ELSE
+                    UPDATE customer SET c_balance = c_balance - p_amount, c_ytd_payment = c_ytd_payment + p_amount, c_payment_cnt = c_payment_cnt + 1
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                END IF;
+
+                INSERT INTO history (h_c_id, h_c_d_id, h_c_w_id, h_d_id, h_w_id, h_date, h_amount, h_data)
+                    VALUES (v_c_id, p_d_id, p_w_id, p_d_id, p_w_id, NOW(), p_amount, CONCAT(v_w_name, '    ', v_d_name));
+                SET p_status = 1;
+            END
+            """,
+            """
+            CREATE PROCEDURE tpcc_order_status(IN p_w_id INT, IN p_d_id INT, IN p_by_name INT, IN p_c_id INT,
+                IN p_c_last VARCHAR(16), OUT p_status INT)
+            proc: BEGIN
+                DECLARE v_c_id INT;
+                DECLARE v_c_balance DECIMAL(12,2);
+                DECLARE v_c_first VARCHAR(16);
+                DECLARE v_c_middle CHAR(2);
+                DECLARE v_c_last VARCHAR(16);
+                DECLARE v_o_id INT;
+                DECLARE v_o_entry_d DATETIME;
+                DECLARE v_o_carrier_id INT;
+                DECLARE v_ol_count INT;
+                DECLARE v_ol_total DECIMAL(12,2);
+                DECLARE v_count INT;
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_status = 0;
+                IF p_by_name = 1 THEN
+                    SELECT LEAST(COUNT(*), 100) INTO v_count FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last;
+                    IF v_count = 0 THEN LEAVE proc; END IF;
+                    SET v_count = (v_count + 1) DIV 2 - 1;
+                    SELECT c_id INTO v_c_id FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last
+                        ORDER BY c_first LIMIT v_count, 1;
+                ELSE
+                    SET v_c_id = p_c_id;
+                END IF;
+
+                SELECT c_balance, c_first, c_middle, c_last INTO v_c_balance, v_c_first, v_c_middle, v_c_last
+                    FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                SELECT o_id, o_entry_d, o_carrier_id INTO v_o_id, v_o_entry_d, v_o_carrier_id
+                    FROM oorder WHERE o_w_id = p_w_id AND o_d_id = p_d_id AND o_c_id = v_c_id ORDER BY o_id DESC LIMIT 1;
+                IF v_found = 0 THEN LEAVE proc; END IF;
+                SELECT COUNT(*), SUM(ol_amount) INTO v_ol_count, v_ol_total
+                    FROM order_line WHERE ol_w_id = p_w_id AND ol_d_id = p_d_id AND ol_o_id = v_o_id;
+                SET p_status = 1;
+            END
+            """,
+            """
+            CREATE PROCEDURE tpcc_delivery(IN p_w_id INT, IN p_carrier_id INT, OUT p_delivered INT)
+            BEGIN
+                DECLARE v_d_id INT DEFAULT 1;
+                DECLARE v_o_id INT;
+                DECLARE v_c_id INT;
+                DECLARE v_amount DECIMAL(12,2);
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_delivered = 0;
+                WHILE v_d_id <= 10 DO
+                    SET v_found = 1;
+                    SELECT no_o_id INTO v_o_id FROM new_order WHERE no_w_id = p_w_id AND no_d_id = v_d_id
+                        ORDER BY no_o_id LIMIT 1 FOR UPDATE;
+                    IF v_found = 1 THEN
+                        DELETE FROM new_order WHERE no_w_id = p_w_id AND no_d_id = v_d_id AND no_o_id = v_o_id;
+                        SELECT o_c_id INTO v_c_id FROM oorder WHERE o_w_id = p_w_id AND o_d_id = v_d_id AND o_id = v_o_id;
+                        IF v_found = 1 THEN
+                            UPDATE oorder SET o_carrier_id = p_carrier_id WHERE o_w_id = p_w_id AND o_d_id = v_d_id AND o_id = v_o_id;
+                            SELECT COALESCE(SUM(ol_amount), 0) INTO v_amount FROM order_line
+                                WHERE ol_w_id = p_w_id AND ol_d_id = v_d_id AND ol_o_id = v_o_id;
+                            UPDATE order_line SET ol_delivery_d = NOW() WHERE ol_w_id = p_w_id AND ol_d_id = v_d_id AND ol_o_id = v_o_id;
+                            UPDATE customer SET c_balance = c_balance + v_amount, c_delivery_cnt = c_delivery_cnt + 1
+                                WHERE c_w_id = p_w_id AND c_d_id = v_d_id AND c_id = v_c_id;
+                            SET p_delivered = p_delivered + 1;
+                        END IF;
+                    END IF;
+                    SET v_d_id = v_d_id + 1;
+                END WHILE;
+            END
+            """,
+            """
+            CREATE PROCEDURE tpcc_stock_level(IN p_w_id INT, IN p_d_id INT, IN p_threshold INT, OUT p_low_stock INT)
+            BEGIN
+                DECLARE v_next_o_id INT;
+                DECLARE v_found INT DEFAULT 1;
+                DECLARE CONTINUE HANDLER FOR NOT FOUND SET v_found = 0;
+
+                SET p_low_stock = -1;
+                SELECT d_next_o_id INTO v_next_o_id FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                IF v_found = 1 THEN
+                    SELECT COUNT(DISTINCT s_i_id) INTO p_low_stock FROM stock, order_line
+                        WHERE s_w_id = p_w_id AND ol_w_id = p_w_id AND ol_d_id = p_d_id
+                        AND ol_o_id < v_next_o_id AND ol_o_id >= v_next_o_id - 20
+                        AND s_i_id = ol_i_id AND s_quantity < p_threshold;
+                END IF;
+            END
+            """
+        };
+    }
 }
@@ -1,25 +1,73 @@
 package com.ninedata.dbbench.database;
 
 import com.ninedata.dbbench.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
 public class OracleAdapter extends AbstractDatabaseAdapter {
+    /** Rows of the item table, one hash key each */
+    private static final int ITEMS = 100000;
+    /** Tables of the hash-clusters profile */
+    private static final List<HashCluster> HASH_CLUSTERS = List.of(
+        new HashCluster("warehouse", "w_id", 1, 128),
+        new HashCluster("district", "d_w_id, d_id", 10, 128),
+        new HashCluster("customer", "c_w_id, c_d_id, c_id", 30000, 704),
+        new HashCluster("stock", "s_w_id, s_i_id", 100000, 320),
+        new HashCluster("item", "i_id", 0, 96));
+
     public OracleAdapter(DatabaseConfig config) { super(config); }
     @Override public String getDatabaseType() { return "Oracle"; }
 
+    @Override
+    protected void configureDataSource(HikariConfig hikariConfig) {
+        // Transactions prepare their statements on every execution; the implicit cache reuses the cursors.
+        // Dameng and YashanDB reuse this adapter with drivers of their own
+        if (config.getJdbcUrl() != null && config.getJdbcUrl().startsWith("jdbc:oracle:")) {
+            addDefaultProperty(hikariConfig, "oracle.jdbc.implicitStatementCacheSize", "250");
+        }
+    }
+
+    @Override
+    public int resolveIsolationLevel(IsolationLevel level) {
+        // Oracle only offers READ COMMITTED and SERIALIZABLE (which is snapshot isolation)
+        return switch (level) {
+            case READ_UNCOMMITTED, READ_COMMITTED -> Connection.TRANSACTION_READ_COMMITTED;
+            default -> Connection.TRANSACTION_SERIALIZABLE;
+        };
+    }
+
+    @Override
+    public ErrorCategory classifyError(SQLException e) {
+        switch (e.getErrorCode()) {
+            case 60: return ErrorCategory.DEADLOCK;             // ORA-00060
+            case 8177: return ErrorCategory.SERIALIZATION;      // ORA-08177 can't serialize access
+            case 54: return ErrorCategory.LOCK_TIMEOUT;         // ORA-00054 resource busy (NOWAIT)
+            case 30006: return ErrorCategory.LOCK_TIMEOUT;      // ORA-30006 resource busy (WAIT timeout)
+            default: return super.classifyError(e);
+        }
+    }
+
     @Override
     public boolean supportsLimitSyntax() {
         return false; // Oracle uses ROWNUM or FETCH FIRST (12c+)
     }
 
+    @Override
+    public String limitRows(String orderedQuery) {
+        return "SELECT * FROM (" + orderedQuery + ") WHERE ROWNUM <= ?"; // 11g has no FETCH FIRST
+    }
+
     @Override
     public boolean requiresRowIdForLimitForUpdate() {
         return true; // Oracle 11g requires ROWID-based subquery for SELECT ... FOR UPDATE with LIMIT
@@ -31,6 +79,51 @@ public class OracleAdapter extends AbstractDatabaseAdapter {
         return "DROP TABLE " + tableName + " CASCADE CONSTRAINTS";
     }
 
+    @Override
+    protected String getDropProcedureStatement(String procedureName) {
+        return "DROP PROCEDURE " + procedureName;
+    }
+
+    @Override
+    public String bigintType() {
+        return "NUMBER(19)";
+    }
+
+    @Override
+    public Map<String, Long> collectTableSize(Connection conn, String table) throws SQLException {
+        String name = table.toUpperCase();
+        return queryTableSize(conn, "SELECT (SELECT NVL(SUM(bytes), 0) FROM user_segments WHERE segment_name = ?), "
+                + "(SELECT NVL(SUM(s.bytes), 0) FROM user_segments s JOIN user_indexes i ON i.index_name = s.segment_name "
+                + "WHERE i.table_name = ?) FROM dual", name, name);
+    }
+
+    @Override
+    public Double queryReplicaLag(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(
+                "SELECT VALUE FROM V$DATAGUARD_STATS WHERE NAME = 'apply lag'")) {
+            return rs.next() ? parseIntervalMillis(rs.getString(1)) : null;
+        }
+    }
+
+    /**
+     * Parse a day-to-second interval as V$DATAGUARD_STATS shows it, e.g. +00 00:00:05, into ms.
+     */
+    static Double parseIntervalMillis(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String[] parts = value.trim().replace("+", "").split("[ :]");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            return ((Long.parseLong(parts[0]) * 24 + Long.parseLong(parts[1])) * 3600
+                    + Long.parseLong(parts[2]) * 60 + Double.parseDouble(parts[3])) * 1000;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
@@ -160,4 +253,292 @@ public class OracleAdapter extends AbstractDatabaseAdapter {
             "CREATE TABLE order_line (ol_o_id NUMBER NOT NULL, ol_d_id NUMBER NOT NULL, ol_w_id NUMBER NOT NULL, ol_number NUMBER NOT NULL, ol_i_id NUMBER, ol_supply_w_id NUMBER, ol_delivery_d DATE, ol_quantity NUMBER, ol_amount NUMBER(6,2), ol_dist_info CHAR(24), PRIMARY KEY (ol_w_id, ol_d_id, ol_o_id, ol_number))"
         };
     }
+
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+
+    @Override
+    protected List<String> getPartitionedTableStatements(String createTable, String table, String column,
+                                                         String options, Partitioning partitioning) {
+        return List.of(withOptions(createTable, options) + " " + partitionClause(column, partitioning, "(MAXVALUE)"));
+    }
+
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        Map<String, String> profiles = commonSchemaProfiles();
+        profiles.put("iot", "Index-organized new_order, oorder and order_line, stored in primary key order");
+        profiles.put("hash-clusters", "Single-table hash clusters for warehouse, district, customer, stock and item, "
+                + "sized for the warehouses, so a key lookup reads one block");
+        return profiles;
+    }
+
+    @Override
+    protected void checkDesign(PhysicalDesign design) {
+        super.checkDesign(design);
+        if (design.has("hash-clusters") && design.partitioning().isEnabled()) {
+            throw new IllegalArgumentException("Clustered tables cannot be partitioned: choose hash-clusters or partitions");
+        }
+    }
+
+    @Override
+    protected String getTableOptions(String table, PhysicalDesign design) {
+        if (design.has("iot") && (table.equals("new_order") || table.equals("oorder") || table.equals("order_line"))) {
+            return "ORGANIZATION INDEX";
+        }
+        if (design.has("hash-clusters")) {
+            for (HashCluster cluster : HASH_CLUSTERS) {
+                if (cluster.table().equals(table)) {
+                    return "CLUSTER " + cluster.name() + " (" + cluster.columns() + ")";
+                }
+            }
+        }
+        return "";
+    }
+
+    @Override
+    public Map<String, String> getStatementProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put("hints", "FIRST_ROWS and INDEX_ASC on the single-row reads, LEADING/USE_NL for Stock-Level");
+        profiles.put("nowait", "Delivery fails at once on a locked new order instead of waiting");
+        return profiles;
+    }
+
+    @Override
+    protected Map<String, String> getProfileStatements(String profile) {
+        Map<String, String> statements = new LinkedHashMap<>();
+        String oldestNewOrder = "SELECT no_o_id FROM new_order WHERE ROWID = (SELECT ROWID FROM (SELECT %sROWID FROM new_order "
+                + "WHERE no_w_id = ? AND no_d_id = ? ORDER BY no_o_id) WHERE ROWNUM = 1) FOR UPDATE";
+        switch (profile) {
+            case "hints" -> {
+                statements.put("order-status.last-order", "SELECT * FROM (SELECT /*+ FIRST_ROWS(1) */ o_id, o_entry_d, o_carrier_id "
+                        + "FROM oorder WHERE o_w_id = ? AND o_d_id = ? AND o_c_id = ? ORDER BY o_id DESC) WHERE ROWNUM = 1");
+                statements.put("delivery.oldest-new-order", String.format(oldestNewOrder, "/*+ INDEX_ASC(new_order) */ "));
+                statements.put("stock-level.low-stock", "SELECT /*+ LEADING(order_line) USE_NL(stock) */ COUNT(DISTINCT s_i_id) "
+                        + "FROM stock, order_line WHERE s_w_id = ? AND ol_w_id = ? AND ol_d_id = ? AND ol_o_id < ? "
+                        + "AND ol_o_id >= ? AND s_i_id = ol_i_id AND s_quantity < ?");
+            }
+            case "nowait" -> statements.put("delivery.oldest-new-order", String.format(oldestNewOrder, "") + " NOWAIT");
+            default -> { }
+        }
+        return statements;
+    }
+
+    @Override
+    protected List<String> getBeforeTableStatements(PhysicalDesign design) {
+        List<String> statements = new ArrayList<>();
+        if (design.has("hash-clusters")) {
+            int warehouses = Math.max(1, design.warehouses());
+            for (HashCluster cluster : HASH_CLUSTERS) {
+                long hashKeys = cluster.keysPerWarehouse() > 0 ? cluster.keysPerWarehouse() * warehouses : ITEMS;
+                String columns = cluster.columns().replace(",", " NUMBER,") + " NUMBER";
+                statements.add("CREATE CLUSTER " + cluster.name() + " (" + columns + ") SINGLE TABLE HASHKEYS "
+                        + hashKeys + " SIZE " + cluster.size());
+            }
+        }
+        return statements;
+    }
+
+    @Override
+    public void dropSchema() throws SQLException {
+        super.dropSchema();
+        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            for (HashCluster cluster : HASH_CLUSTERS) {
+                try {
+                    stmt.execute("DROP CLUSTER " + cluster.name());
+                } catch (SQLException e) {
+                    log.debug("Cluster {} does not exist or cannot be dropped: {}", cluster.name(), e.getMessage());
+                }
+            }
+            conn.commit();
+        }
+    }
+
+    /**
+     * Hash cluster of a table: its key columns, hash keys per warehouse (0 = one per item) and bytes per key.
+     */
+    private record HashCluster(String table, String columns, long keysPerWarehouse, int size) {
+        String name() {
+            return "tpcc_" + table + "_cluster";
+        }
+    }
+
+    @Override
+    protected String[] getCreateProcedureStatements() {
+        return new String[]{
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_new_order(p_w_id IN NUMBER, p_d_id IN NUMBER, p_c_id IN NUMBER, p_ol_cnt IN NUMBER,
+                p_item_ids IN VARCHAR2, p_supply_w_ids IN VARCHAR2, p_quantities IN VARCHAR2, p_status OUT NUMBER) AS
+                v_w_tax NUMBER(4,4);
+                v_d_tax NUMBER(4,4);
+                v_o_id NUMBER;
+                v_c_discount NUMBER(4,4);
+                v_i_id NUMBER;
+                v_supply_w_id NUMBER;
+                v_quantity NUMBER;
+                v_i_price NUMBER(5,2);
+                v_s_quantity NUMBER;
+                v_dist_info CHAR(24);
+            BEGIN
+                p_status := 0;
+                SELECT w_tax INTO v_w_tax FROM warehouse WHERE w_id = p_w_id;
+                SELECT d_tax, d_next_o_id INTO v_d_tax, v_o_id FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id FOR UPDATE;
+                UPDATE district SET d_next_o_id = v_o_id + 1 WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                SELECT c_discount INTO v_c_discount FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = p_c_id;
+                INSERT INTO oorder (o_id, o_d_id, o_w_id, o_c_id, o_entry_d, o_carrier_id, o_ol_cnt, o_all_local)
+                    VALUES (v_o_id, p_d_id, p_w_id, p_c_id, SYSDATE, NULL, p_ol_cnt, 1);
+                INSERT INTO new_order (no_o_id, no_d_id, no_w_id) VALUES (v_o_id, p_d_id, p_w_id);
+
+                FOR i IN 1 .. p_ol_cnt LOOP
+                    v_i_id := TO_NUMBER(REGEXP_SUBSTR(p_item_ids, '[^,]+', 1, i));
+                    v_supply_w_id := TO_NUMBER(REGEXP_SUBSTR(p_supply_w_ids, '[^,]+', 1, i));
+                    v_quantity := TO_NUMBER(REGEXP_SUBSTR(p_quantities, '[^,]+', 1, i));
+
+                    SELECT i_price INTO v_i_price FROM item WHERE i_id = v_i_id;
+                    SELECT s_quantity, %s INTO v_s_quantity, v_dist_info
+                        FROM stock WHERE s_w_id = v_supply_w_id AND s_i_id = v_i_id FOR UPDATE;
+
+                    v_s_quantity := v_s_quantity - v_quantity;
+                    IF v_s_quantity < 10 THEN v_s_quantity := v_s_quantity + 91; END IF;
+                    UPDATE stock SET s_quantity = v_s_quantity, s_ytd = s_ytd + v_quantity, s_order_cnt = s_order_cnt + 1
+                        WHERE s_w_id = v_supply_w_id AND s_i_id = v_i_id;
+                    INSERT INTO order_line (ol_o_id, ol_d_id, ol_w_id, ol_number, ol_i_id, ol_supply_w_id, ol_delivery_d, ol_quantity, ol_amount, ol_dist_info)
+                        VALUES (v_o_id, p_d_id, p_w_id, i, v_i_id, v_supply_w_id, NULL, v_quantity, v_quantity * v_i_price, v_dist_info);
+                END LOOP;
+
+                p_status := 1;
+            EXCEPTION
+                WHEN NO_DATA_FOUND THEN
+                    p_status := 0;
+            END;
+            """.formatted(stockDistInfoCase("p_d_id")),
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_payment(p_w_id IN NUMBER, p_d_id IN NUMBER, p_by_name IN NUMBER, p_c_id IN NUMBER,
+                p_c_last IN VARCHAR2, p_amount IN NUMBER, p_status OUT NUMBER) AS
+                v_amount NUMBER(6,2) := p_amount;
+                v_w_name VARCHAR2(10);
+                v_d_name VARCHAR2(10);
+                v_c_id NUMBER;
+                v_c_credit CHAR(2);
+                v_c_data VARCHAR2(500);
+                v_count NUMBER;
+            BEGIN
+                p_status := 0;
+                UPDATE warehouse SET w_ytd = w_ytd + v_amount WHERE w_id = p_w_id RETURNING w_name INTO v_w_name;
+                IF SQL%ROWCOUNT = 0 THEN RETURN; END IF;
+                UPDATE district SET d_ytd = d_ytd + v_amount WHERE d_w_id = p_w_id AND d_id = p_d_id RETURNING d_name INTO v_d_name;
+                IF SQL%ROWCOUNT = 0 THEN RETURN; END IF;
+
+                IF p_by_name = 1 THEN
+                    SELECT LEAST(COUNT(*), 100) INTO v_count FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last;
+                    IF v_count = 0 THEN RETURN; END IF;
+                    SELECT c_id INTO v_c_id FROM (
+                        SELECT c_id, ROW_NUMBER() OVER (ORDER BY c_first) AS rn FROM customer
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last
+                    ) WHERE rn = TRUNC((v_count + 1) / 2);
+                ELSE
+                    v_c_id := p_c_id;
+                END IF;
+
+                SELECT c_credit, c_data INTO v_c_credit, v_c_data FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                IF v_c_credit = 'BC' THEN
+                    UPDATE customer SET c_balance = c_balance - v_amount, c_ytd_payment = c_ytd_payment + v_amount, c_payment_cnt = c_payment_cnt + 1,
+                        c_data = SUBSTR(v_c_id || ' ' || p_d_id || ' ' || p_w_id || ' ' || p_d_id || ' ' || p_w_id || ' '
+                            || TO_CHAR(v_amount, 'FM9990.00') || ' | ' || v_c_data, 1, 500)
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                ELSE
+                    UPDATE customer SET c_balance = c_balance - v_amount, c_ytd_payment = c_ytd_payment + v_amount, c_payment_cnt = c_payment_cnt + 1
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                END IF;
+
+                INSERT INTO history (h_c_id, h_c_d_id, h_c_w_id, h_d_id, h_w_id, h_date, h_amount, h_data)
+                    VALUES (v_c_id, p_d_id, p_w_id, p_d_id, p_w_id, SYSDATE, v_amount, v_w_name || '    ' || v_d_name);
+                p_status := 1;
+            EXCEPTION
+                WHEN NO_DATA_FOUND THEN
+                    p_status := 0;
+            END;
+            """,
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_order_status(p_w_id IN NUMBER, p_d_id IN NUMBER, p_by_name IN NUMBER, p_c_id IN NUMBER,
+                p_c_last IN VARCHAR2, p_status OUT NUMBER) AS
+                v_c_id NUMBER;
+                v_c_balance NUMBER(12,2);
+                v_c_first VARCHAR2(16);
+                v_c_middle CHAR(2);
+                v_c_last VARCHAR2(16);
+                v_o_id NUMBER;
+                v_ol_count NUMBER;
+                v_ol_total NUMBER(12,2);
+                v_count NUMBER;
+            BEGIN
+                p_status := 0;
+                IF p_by_name = 1 THEN
+                    SELECT LEAST(COUNT(*), 100) INTO v_count FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last;
+                    IF v_count = 0 THEN RETURN; END IF;
+                    SELECT c_id INTO v_c_id FROM (
+                        SELECT c_id, ROW_NUMBER() OVER (ORDER BY c_first) AS rn FROM customer
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last
+                    ) WHERE rn = TRUNC((v_count + 1) / 2);
+                ELSE
+                    v_c_id := p_c_id;
+                END IF;
+
+                SELECT c_balance, c_first, c_middle, c_last INTO v_c_balance, v_c_first, v_c_middle, v_c_last
+                    FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                SELECT MAX(o_id) INTO v_o_id FROM oorder WHERE o_w_id = p_w_id AND o_d_id = p_d_id AND o_c_id = v_c_id;
+                IF v_o_id IS NULL THEN RETURN; END IF;
+                SELECT COUNT(*), SUM(ol_amount) INTO v_ol_count, v_ol_total
+                    FROM order_line WHERE ol_w_id = p_w_id AND ol_d_id = p_d_id AND ol_o_id = v_o_id;
+                p_status := 1;
+            EXCEPTION
+                WHEN NO_DATA_FOUND THEN
+                    p_status := 0;
+            END;
+            """,
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_delivery(p_w_id IN NUMBER, p_carrier_id IN NUMBER, p_delivered OUT NUMBER) AS
+                v_o_id NUMBER;
+                v_c_id NUMBER;
+                v_amount NUMBER(12,2);
+            BEGIN
+                p_delivered := 0;
+                FOR v_d_id IN 1 .. 10 LOOP
+                    SELECT MIN(no_o_id) INTO v_o_id FROM new_order WHERE no_w_id = p_w_id AND no_d_id = v_d_id;
+                    IF v_o_id IS NOT NULL THEN
+                        DELETE FROM new_order WHERE no_w_id = p_w_id AND no_d_id = v_d_id AND no_o_id = v_o_id;
+                        -- Skip the district if another terminal delivered this order first
+                        IF SQL%ROWCOUNT > 0 THEN
+                            UPDATE oorder SET o_carrier_id = p_carrier_id WHERE o_w_id = p_w_id AND o_d_id = v_d_id AND o_id = v_o_id
+                                RETURNING o_c_id INTO v_c_id;
+                            IF SQL%ROWCOUNT > 0 THEN
+                                UPDATE order_line SET ol_delivery_d = SYSDATE WHERE ol_w_id = p_w_id AND ol_d_id = v_d_id AND ol_o_id = v_o_id;
+                                SELECT NVL(SUM(ol_amount), 0) INTO v_amount FROM order_line
+                                    WHERE ol_w_id = p_w_id AND ol_d_id = v_d_id AND ol_o_id = v_o_id;
+                                UPDATE customer SET c_balance = c_balance + v_amount, c_delivery_cnt = c_delivery_cnt + 1
+                                    WHERE c_w_id = p_w_id AND c_d_id = v_d_id AND c_id = v_c_id;
+                                p_delivered := p_delivered + 1;
+                            END IF;
+                        END IF;
+                    END IF;
+                END LOOP;
+            END;
+            """,
+            """
+            CREATE OR REPLACE PROCEDURE tpcc_stock_level(p_w_id IN NUMBER, p_d_id IN NUMBER, p_threshold IN NUMBER, p_low_stock OUT NUMBER) AS
+                v_next_o_id NUMBER;
+            BEGIN
+                SELECT d_next_o_id INTO v_next_o_id FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                SELECT COUNT(DISTINCT s_i_id) INTO p_low_stock FROM stock, order_line
+                    WHERE s_w_id = p_w_id AND ol_w_id = p_w_id AND ol_d_id = p_d_id
+                    AND ol_o_id < v_next_o_id AND ol_o_id >= v_next_o_id - 20
+                    AND s_i_id = ol_i_id AND s_quantity < p_threshold;
+            EXCEPTION
+                WHEN NO_DATA_FOUND THEN
+                    p_low_stock := -1;
+            END;
+            """
+        };
+    }
 }
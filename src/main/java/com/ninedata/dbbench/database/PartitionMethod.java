@@ -0,0 +1,29 @@
+package com.ninedata.dbbench.database;
+
+/**
+ * How the warehouse-keyed TPC-C tables are split by warehouse id.
+ */
+public enum PartitionMethod {
+    /** Warehouses hashed over the partitions, so every partition gets a similar share */
+    HASH,
+    /** Contiguous warehouse ranges, the last partition open-ended so added warehouses still fit */
+    RANGE;
+
+    /**
+     * Name as given in the config, e.g. hash.
+     */
+    public String getLabel() {
+        return name().toLowerCase();
+    }
+
+    public static PartitionMethod fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return HASH;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown partition method: " + value + " (available: hash, range)");
+        }
+    }
+}
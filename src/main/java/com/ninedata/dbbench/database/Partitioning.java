@@ -0,0 +1,86 @@
+package com.ninedata.dbbench.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Partitioning of the warehouse-keyed TPC-C tables by warehouse id; item is read by every warehouse and stays whole.
+ *
+ * @param count      partitions per table; 0 leaves the tables unpartitioned
+ * @param warehouses warehouses the range bounds are spread over
+ */
+public record Partitioning(PartitionMethod method, int count, int warehouses) {
+    public static final Partitioning NONE = new Partitioning(PartitionMethod.HASH, 0, 0);
+
+    public Partitioning {
+        if (count < 0) {
+            throw new IllegalArgumentException("Partition count must not be negative: " + count);
+        }
+        if (method == PartitionMethod.RANGE && count > warehouses) {
+            throw new IllegalArgumentException("Range partitioning needs at least one warehouse per partition: "
+                    + count + " partitions for " + warehouses + " warehouses");
+        }
+    }
+
+    public boolean isEnabled() {
+        return count > 0;
+    }
+
+    /**
+     * Exclusive upper warehouse id of a range partition other than the last, which has no upper bound.
+     */
+    public int upperBound(int partition) {
+        if (partition < 0 || partition >= count - 1) {
+            throw new IllegalArgumentException("No upper bound for partition " + partition + " of " + count);
+        }
+        return 1 + (int) ((long) (partition + 1) * warehouses / count);
+    }
+
+    /**
+     * Range partition holding a warehouse.
+     */
+    int rangePartitionOf(int warehouseId) {
+        int partition = 0;
+        while (partition < count - 1 && warehouseId >= upperBound(partition)) {
+            partition++;
+        }
+        return partition;
+    }
+
+    /**
+     * Warehouses firstWarehouse..lastWarehouse in the order to load them: with range partitions they alternate
+     * between partitions, so parallel loader threads fill different partitions instead of queueing on one.
+     * Hash partitions already alternate in warehouse order.
+     */
+    public List<Integer> loadOrder(int firstWarehouse, int lastWarehouse) {
+        List<Integer> order = new ArrayList<>();
+        if (method != PartitionMethod.RANGE || count < 2) {
+            for (int w = firstWarehouse; w <= lastWarehouse; w++) {
+                order.add(w);
+            }
+            return order;
+        }
+        List<List<Integer>> byPartition = new ArrayList<>();
+        for (int p = 0; p < count; p++) {
+            byPartition.add(new ArrayList<>());
+        }
+        for (int w = firstWarehouse; w <= lastWarehouse; w++) {
+            byPartition.get(rangePartitionOf(w)).add(w);
+        }
+        for (int i = 0; order.size() < lastWarehouse - firstWarehouse + 1; i++) {
+            for (List<Integer> partition : byPartition) {
+                if (i < partition.size()) {
+                    order.add(partition.get(i));
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * e.g. "8 hash partitions", or "none".
+     */
+    public String describe() {
+        return isEnabled() ? count + " " + method.getLabel() + " partition" + (count == 1 ? "" : "s") : "none";
+    }
+}
@@ -0,0 +1,51 @@
+package com.ninedata.dbbench.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Physical design of the TPC-C schema: the adapter's named profiles (compression, fill factor, clustering,
+ * foreign keys, ...) on top of its default tables, and the partitioning by warehouse.
+ *
+ * @param profiles   profile names, see {@link DatabaseAdapter#getSchemaProfiles}; empty = the default design
+ * @param warehouses warehouses the schema is sized for, e.g. for hash cluster keys
+ */
+public record PhysicalDesign(List<String> profiles, Partitioning partitioning, int warehouses) {
+    public static final PhysicalDesign DEFAULT = new PhysicalDesign(List.of(), Partitioning.NONE, 0);
+    public static final String FOREIGN_KEYS = "foreign-keys";
+
+    public PhysicalDesign {
+        profiles = List.copyOf(profiles);
+    }
+
+    /**
+     * Profiles from a comma separated list such as "compressed,foreign-keys"; "default" and blanks are skipped.
+     */
+    public static PhysicalDesign of(String profiles, Partitioning partitioning, int warehouses) {
+        List<String> names = new ArrayList<>();
+        if (profiles != null) {
+            for (String name : profiles.split(",")) {
+                String profile = name.trim().toLowerCase();
+                if (!profile.isEmpty() && !profile.equals("default") && !names.contains(profile)) {
+                    names.add(profile);
+                }
+            }
+        }
+        return new PhysicalDesign(names, partitioning, warehouses);
+    }
+
+    public boolean has(String profile) {
+        return profiles.contains(profile);
+    }
+
+    public boolean isDefault() {
+        return profiles.isEmpty() && !partitioning.isEnabled();
+    }
+
+    /**
+     * e.g. "compressed,foreign-keys", or "default".
+     */
+    public String getLabel() {
+        return profiles.isEmpty() ? "default" : String.join(",", profiles);
+    }
+}
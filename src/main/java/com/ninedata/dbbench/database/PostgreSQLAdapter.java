@@ -1,13 +1,17 @@
 package com.ninedata.dbbench.database;
 
 import com.ninedata.dbbench.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -22,6 +26,63 @@ public class PostgreSQLAdapter extends AbstractDatabaseAdapter {
         return "PostgreSQL";
     }
 
+    @Override
+    public ErrorCategory classifyError(SQLException e) {
+        String state = e.getSQLState();
+        if ("40001".equals(state)) return ErrorCategory.SERIALIZATION;  // serialization_failure
+        if ("40P01".equals(state)) return ErrorCategory.DEADLOCK;       // deadlock_detected
+        if ("55P03".equals(state)) return ErrorCategory.LOCK_TIMEOUT;   // lock_not_available
+        return super.classifyError(e);
+    }
+
+    @Override
+    protected void configureDataSource(HikariConfig hikariConfig) {
+        // pgJDBC already caches prepared statements per connection (preparedStatementCacheQueries, prepareThreshold).
+        // Collapse batched INSERTs into multi-row statements; batches are already pipelined
+        if (rewriteBatches) {
+            addDefaultProperty(hikariConfig, "reWriteBatchedInserts", "true");
+        }
+    }
+
+    @Override
+    public Map<String, Long> collectTableSize(Connection conn, String table) throws SQLException {
+        // A partitioned table holds no data itself; its partitions do
+        return queryTableSize(conn, "SELECT COALESCE(SUM(pg_table_size(p.oid)), 0), COALESCE(SUM(pg_indexes_size(p.oid)), 0) "
+                + "FROM pg_class c JOIN pg_class p ON p.oid = c.oid "
+                + "OR p.oid IN (SELECT inhrelid FROM pg_inherits WHERE inhparent = c.oid) "
+                + "WHERE c.relname = ? AND c.relkind IN ('r', 'p') AND pg_table_is_visible(c.oid)", table.toLowerCase());
+    }
+
+    @Override
+    public Double queryReplicaLag(Connection conn) throws SQLException {
+        // Age of the last replayed transaction; the lag probe's heartbeat keeps the primary from going idle
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(
+                "SELECT pg_is_in_recovery(), EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000")) {
+            if (!rs.next() || !rs.getBoolean(1)) {
+                return null;
+            }
+            double lag = rs.getDouble(2);
+            return rs.wasNull() ? null : Math.max(0, lag);
+        }
+    }
+
+    @Override
+    public Map<String, Double> queryStandbyLags(Connection conn) throws SQLException {
+        Map<String, Double> lags = new HashMap<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(
+                "SELECT application_name, client_addr, EXTRACT(EPOCH FROM replay_lag) * 1000 FROM pg_stat_replication")) {
+            while (rs.next()) {
+                String name = rs.getString(1);
+                if (name == null || name.isBlank()) {
+                    name = rs.getString(2);
+                }
+                // replay_lag turns null once a standby has caught up with an idle primary
+                lags.put(name, rs.getDouble(3));
+            }
+        }
+        return lags;
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
@@ -237,6 +298,7 @@ public class PostgreSQLAdapter extends AbstractDatabaseAdapter {
     public void dropSchema() throws SQLException {
         String[] tables = {"order_line", "new_order", "oorder", "history", "stock", "item", "customer", "district", "warehouse"};
         try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
+            dropProcedures(stmt);
             for (String table : tables) {
                 try {
                     stmt.execute("DROP TABLE IF EXISTS " + table + " CASCADE");
@@ -249,6 +311,16 @@ public class PostgreSQLAdapter extends AbstractDatabaseAdapter {
         }
     }
 
+    @Override
+    public boolean procedureReturnsStatus() {
+        return true; // PL/pgSQL functions return the status, called as {? = call fn(...)}
+    }
+
+    @Override
+    protected String getDropProcedureStatement(String procedureName) {
+        return "DROP FUNCTION IF EXISTS " + procedureName;
+    }
+
     @Override
     protected String[] getCreateTableStatements() {
         return new String[]{
@@ -391,6 +463,68 @@ public class PostgreSQLAdapter extends AbstractDatabaseAdapter {
         };
     }
 
+    @Override
+    public boolean supportsPartitioning() {
+        return true;
+    }
+
+    /**
+     * Declarative partitioning: the parent table, then one child table per partition.
+     */
+    @Override
+    protected List<String> getPartitionedTableStatements(String createTable, String table, String column,
+                                                         String options, Partitioning partitioning) {
+        List<String> statements = new ArrayList<>();
+        statements.add(createTable + " PARTITION BY " + partitioning.method().name() + " (" + column + ")");
+        for (int p = 0; p < partitioning.count(); p++) {
+            String bounds;
+            if (partitioning.method() == PartitionMethod.HASH) {
+                bounds = "WITH (MODULUS " + partitioning.count() + ", REMAINDER " + p + ")";
+            } else {
+                String from = p == 0 ? "MINVALUE" : String.valueOf(partitioning.upperBound(p - 1));
+                String to = p < partitioning.count() - 1 ? String.valueOf(partitioning.upperBound(p)) : "MAXVALUE";
+                bounds = "FROM (" + from + ") TO (" + to + ")";
+            }
+            // Storage parameters belong to the partitions, a partitioned table stores nothing itself
+            statements.add(withOptions("CREATE TABLE IF NOT EXISTS " + table + "_p" + p + " PARTITION OF " + table
+                    + " FOR VALUES " + bounds, options));
+        }
+        return statements;
+    }
+
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        Map<String, String> profiles = commonSchemaProfiles();
+        profiles.put("fillfactor", "fillfactor=80 on district, customer and stock, leaving page space for HOT updates");
+        return profiles;
+    }
+
+    @Override
+    protected String getTableOptions(String table, PhysicalDesign design) {
+        boolean updated = table.equals("district") || table.equals("customer") || table.equals("stock");
+        return design.has("fillfactor") && updated ? "WITH (fillfactor = 80)" : "";
+    }
+
+    @Override
+    public Map<String, String> getStatementProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put("returning", "UPDATE ... RETURNING in New-Order, Payment and Delivery, one round trip instead of two");
+        profiles.put("skip-locked", "Delivery skips new orders another terminal holds");
+        profiles.put("nowait", "Delivery fails at once on a locked new order instead of waiting");
+        return profiles;
+    }
+
+    @Override
+    protected Map<String, String> getProfileStatements(String profile) {
+        String oldestNewOrder = "SELECT no_o_id FROM new_order WHERE no_w_id = ? AND no_d_id = ? ORDER BY no_o_id LIMIT 1 FOR UPDATE";
+        return switch (profile) {
+            case "returning" -> returningStatements();
+            case "skip-locked" -> Map.of("delivery.oldest-new-order", oldestNewOrder + " SKIP LOCKED");
+            case "nowait" -> Map.of("delivery.oldest-new-order", oldestNewOrder + " NOWAIT");
+            default -> new LinkedHashMap<>();
+        };
+    }
+
     @Override
     protected String[] getCreateIndexStatements() {
         return new String[]{
@@ -398,4 +532,178 @@ public class PostgreSQLAdapter extends AbstractDatabaseAdapter {
             "CREATE INDEX IF NOT EXISTS idx_order_customer ON oorder (o_w_id, o_d_id, o_c_id, o_id)"
         };
     }
+
+    @Override
+    protected String[] getCreateProcedureStatements() {
+        return new String[]{
+            """
+            CREATE OR REPLACE FUNCTION tpcc_new_order(p_w_id INT, p_d_id INT, p_c_id INT, p_ol_cnt INT,
+                p_item_ids TEXT, p_supply_w_ids TEXT, p_quantities TEXT) RETURNS INT AS $$
+            DECLARE
+                v_item_ids INT[] := string_to_array(p_item_ids, ',')::INT[];
+                v_supply_w_ids INT[] := string_to_array(p_supply_w_ids, ',')::INT[];
+                v_quantities INT[] := string_to_array(p_quantities, ',')::INT[];
+                v_w_tax DECIMAL(4,4);
+                v_d_tax DECIMAL(4,4);
+                v_o_id INT;
+                v_c_discount DECIMAL(4,4);
+                v_i_price DECIMAL(5,2);
+                v_s_quantity INT;
+                v_dist_info CHAR(24);
+            BEGIN
+                SELECT w_tax INTO v_w_tax FROM warehouse WHERE w_id = p_w_id;
+                IF NOT FOUND THEN RETURN 0; END IF;
+                SELECT d_tax, d_next_o_id INTO v_d_tax, v_o_id FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id FOR UPDATE;
+                IF NOT FOUND THEN RETURN 0; END IF;
+                UPDATE district SET d_next_o_id = v_o_id + 1 WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                SELECT c_discount INTO v_c_discount FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = p_c_id;
+                IF NOT FOUND THEN RETURN 0; END IF;
+                INSERT INTO oorder (o_id, o_d_id, o_w_id, o_c_id, o_entry_d, o_carrier_id, o_ol_cnt, o_all_local)
+                    VALUES (v_o_id, p_d_id, p_w_id, p_c_id, now(), NULL, p_ol_cnt, 1);
+                INSERT INTO new_order (no_o_id, no_d_id, no_w_id) VALUES (v_o_id, p_d_id, p_w_id);
+
+                FOR i IN 1 .. p_ol_cnt LOOP
+                    SELECT i_price INTO v_i_price FROM item WHERE i_id = v_item_ids[i];
+                    IF NOT FOUND THEN RETURN 0; END IF;
+                    SELECT s_quantity, %s INTO v_s_quantity, v_dist_info
+                        FROM stock WHERE s_w_id = v_supply_w_ids[i] AND s_i_id = v_item_ids[i] FOR UPDATE;
+                    IF NOT FOUND THEN RETURN 0; END IF;
+
+                    v_s_quantity := v_s_quantity - v_quantities[i];
+                    IF v_s_quantity < 10 THEN v_s_quantity := v_s_quantity + 91; END IF;
+                    UPDATE stock SET s_quantity = v_s_quantity, s_ytd = s_ytd + v_quantities[i], s_order_cnt = s_order_cnt + 1
+                        WHERE s_w_id = v_supply_w_ids[i] AND s_i_id = v_item_ids[i];
+                    INSERT INTO order_line (ol_o_id, ol_d_id, ol_w_id, ol_number, ol_i_id, ol_supply_w_id, ol_delivery_d, ol_quantity, ol_amount, ol_dist_info)
+                        VALUES (v_o_id, p_d_id, p_w_id, i, v_item_ids[i], v_supply_w_ids[i], NULL, v_quantities[i], v_quantities[i] * v_i_price, v_dist_info);
+                END LOOP;
+
+                RETURN 1;
+            END;
+            $$ LANGUAGE plpgsql
+            """.formatted(stockDistInfoCase("p_d_id")),
+            """
+            CREATE OR REPLACE FUNCTION tpcc_payment(p_w_id INT, p_d_id INT, p_by_name INT, p_c_id INT,
+                p_c_last TEXT, p_amount DOUBLE PRECISION) RETURNS INT AS $$
+            DECLARE
+                v_amount DECIMAL(6,2) := p_amount;
+                v_w_name VARCHAR(10);
+                v_d_name VARCHAR(10);
+                v_c_id INT;
+                v_c_credit CHAR(2);
+                v_c_data VARCHAR(500);
+                v_count INT;
+            BEGIN
+                UPDATE warehouse SET w_ytd = w_ytd + v_amount WHERE w_id = p_w_id RETURNING w_name INTO v_w_name;
+                IF NOT FOUND THEN RETURN 0; END IF;
+                UPDATE district SET d_ytd = d_ytd + v_amount WHERE d_w_id = p_w_id AND d_id = p_d_id RETURNING d_name INTO v_d_name;
+                IF NOT FOUND THEN RETURN 0; END IF;
+
+                IF p_by_name = 1 THEN
+                    SELECT LEAST(COUNT(*), 100) INTO v_count FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last;
+                    IF v_count = 0 THEN RETURN 0; END IF;
+                    SELECT c_id INTO v_c_id FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last
+                        ORDER BY c_first OFFSET (v_count + 1) / 2 - 1 LIMIT 1;
+                ELSE
+                    v_c_id := p_c_id;
+                END IF;
+
+                SELECT c_credit, c_data INTO v_c_credit, v_c_data FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                IF NOT FOUND THEN RETURN 0; END IF;
+                IF v_c_credit = 'BC' THEN
+                    UPDATE customer SET c_balance = c_balance - v_amount, c_ytd_payment = c_ytd_payment + v_amount, c_payment_cnt = c_payment_cnt + 1,
+                        c_data = left(concat_ws(' ', v_c_id, p_d_id, p_w_id, p_d_id, p_w_id, v_amount, '| ' || v_c_data), 500)
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                ELSE
+                    UPDATE customer SET c_balance = c_balance - v_amount, c_ytd_payment = c_ytd_payment + v_amount, c_payment_cnt = c_payment_cnt + 1
+                        WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                END IF;
+
+                INSERT INTO history (h_c_id, h_c_d_id, h_c_w_id, h_d_id, h_w_id, h_date, h_amount, h_data)
+                    VALUES (v_c_id, p_d_id, p_w_id, p_d_id, p_w_id, now(), v_amount, v_w_name || '    ' || v_d_name);
+                RETURN 1;
+            END;
+            $$ LANGUAGE plpgsql
+            """,
+            """
+            CREATE OR REPLACE FUNCTION tpcc_order_status(p_w_id INT, p_d_id INT, p_by_name INT, p_c_id INT,
+                p_c_last TEXT) RETURNS INT AS $$
+            DECLARE
+                v_c_id INT;
+                v_c_balance DECIMAL(12,2);
+                v_c_first VARCHAR(16);
+                v_c_middle CHAR(2);
+                v_c_last VARCHAR(16);
+                v_o_id INT;
+                v_o_entry_d TIMESTAMP;
+                v_o_carrier_id INT;
+                v_ol_count INT;
+                v_ol_total DECIMAL(12,2);
+                v_count INT;
+            BEGIN
+                IF p_by_name = 1 THEN
+                    SELECT LEAST(COUNT(*), 100) INTO v_count FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last;
+                    IF v_count = 0 THEN RETURN 0; END IF;
+                    SELECT c_id INTO v_c_id FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_last = p_c_last
+                        ORDER BY c_first OFFSET (v_count + 1) / 2 - 1 LIMIT 1;
+                ELSE
+                    v_c_id := p_c_id;
+                END IF;
+
+                SELECT c_balance, c_first, c_middle, c_last INTO v_c_balance, v_c_first, v_c_middle, v_c_last
+                    FROM customer WHERE c_w_id = p_w_id AND c_d_id = p_d_id AND c_id = v_c_id;
+                IF NOT FOUND THEN RETURN 0; END IF;
+                SELECT o_id, o_entry_d, o_carrier_id INTO v_o_id, v_o_entry_d, v_o_carrier_id
+                    FROM oorder WHERE o_w_id = p_w_id AND o_d_id = p_d_id AND o_c_id = v_c_id ORDER BY o_id DESC LIMIT 1;
+                IF NOT FOUND THEN RETURN 0; END IF;
+                SELECT COUNT(*), SUM(ol_amount) INTO v_ol_count, v_ol_total
+                    FROM order_line WHERE ol_w_id = p_w_id AND ol_d_id = p_d_id AND ol_o_id = v_o_id;
+                RETURN 1;
+            END;
+            $$ LANGUAGE plpgsql
+            """,
+            """
+            CREATE OR REPLACE FUNCTION tpcc_delivery(p_w_id INT, p_carrier_id INT) RETURNS INT AS $$
+            DECLARE
+                v_o_id INT;
+                v_c_id INT;
+                v_amount DECIMAL(12,2);
+                v_delivered INT := 0;
+            BEGIN
+                FOR v_d_id IN 1 .. 10 LOOP
+                    SELECT no_o_id INTO v_o_id FROM new_order WHERE no_w_id = p_w_id AND no_d_id = v_d_id
+                        ORDER BY no_o_id LIMIT 1 FOR UPDATE;
+                    CONTINUE WHEN NOT FOUND;
+                    DELETE FROM new_order WHERE no_w_id = p_w_id AND no_d_id = v_d_id AND no_o_id = v_o_id;
+                    UPDATE oorder SET o_carrier_id = p_carrier_id WHERE o_w_id = p_w_id AND o_d_id = v_d_id AND o_id = v_o_id
+                        RETURNING o_c_id INTO v_c_id;
+                    CONTINUE WHEN NOT FOUND;
+                    UPDATE order_line SET ol_delivery_d = now() WHERE ol_w_id = p_w_id AND ol_d_id = v_d_id AND ol_o_id = v_o_id;
+                    SELECT COALESCE(SUM(ol_amount), 0) INTO v_amount FROM order_line
+                        WHERE ol_w_id = p_w_id AND ol_d_id = v_d_id AND ol_o_id = v_o_id;
+                    UPDATE customer SET c_balance = c_balance + v_amount, c_delivery_cnt = c_delivery_cnt + 1
+                        WHERE c_w_id = p_w_id AND c_d_id = v_d_id AND c_id = v_c_id;
+                    v_delivered := v_delivered + 1;
+                END LOOP;
+                RETURN v_delivered;
+            END;
+            $$ LANGUAGE plpgsql
+            """,
+            """
+            CREATE OR REPLACE FUNCTION tpcc_stock_level(p_w_id INT, p_d_id INT, p_threshold INT) RETURNS INT AS $$
+            DECLARE
+                v_next_o_id INT;
+                v_low_stock INT;
+            BEGIN
+                SELECT d_next_o_id INTO v_next_o_id FROM district WHERE d_w_id = p_w_id AND d_id = p_d_id;
+                IF NOT FOUND THEN RETURN -1; END IF;
+                SELECT COUNT(DISTINCT s_i_id) INTO v_low_stock FROM stock, order_line
+                    WHERE s_w_id = p_w_id AND ol_w_id = p_w_id AND ol_d_id = p_d_id
+                    AND ol_o_id < v_next_o_id AND ol_o_id >= v_next_o_id - 20
+                    AND s_i_id = ol_i_id AND s_quantity < p_threshold;
+                RETURN v_low_stock;
+            END;
+            $$ LANGUAGE plpgsql
+            """
+        };
+    }
 }
@@ -0,0 +1,78 @@
+package com.ninedata.dbbench.database;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transaction types to replica endpoints, round robin, and everything else to the primary.
+ * With read-your-writes, a terminal's reads stay on the primary for a while after its own writes, so that
+ * they cannot miss rows a lagging replica has not applied yet.
+ */
+public class ReplicaRouter {
+    private final Endpoint primary;
+    private final List<Endpoint> replicas;
+    private final Set<String> readTypes;
+    private final double fraction;
+    private final long readYourWritesNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    /** When the calling terminal thread last started a write */
+    private final ThreadLocal<long[]> lastWrite = ThreadLocal.withInitial(() -> new long[]{0});
+
+    /**
+     * A database a transaction can run on, named for per-endpoint metrics.
+     */
+    public record Endpoint(String name, DatabaseAdapter adapter) {
+    }
+
+    /**
+     * @param readTypes transaction names that may run on a replica
+     * @param fraction share of those transactions sent to replicas, 0-1
+     * @param readYourWritesMillis how long a terminal's reads stay on the primary after its writes; 0 = never
+     */
+    public ReplicaRouter(Endpoint primary, List<Endpoint> replicas, Set<String> readTypes, double fraction,
+                         long readYourWritesMillis) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("No replica endpoints");
+        }
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("Replica fraction must be between 0 and 1: " + fraction);
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readTypes = Set.copyOf(readTypes);
+        this.fraction = fraction;
+        this.readYourWritesNanos = Math.max(0, readYourWritesMillis) * 1_000_000;
+    }
+
+    /**
+     * Pick the endpoint for the next attempt of a transaction run by the calling terminal.
+     */
+    public Endpoint route(String transactionName) {
+        if (!readTypes.contains(transactionName)) {
+            if (readYourWritesNanos > 0) {
+                lastWrite.get()[0] = System.nanoTime();
+            }
+            return primary;
+        }
+        if (readYourWritesNanos > 0) {
+            long last = lastWrite.get()[0];
+            if (last != 0 && System.nanoTime() - last < readYourWritesNanos) {
+                return primary;
+            }
+        }
+        if (fraction < 1 && ThreadLocalRandom.current().nextDouble() >= fraction) {
+            return primary;
+        }
+        return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+    }
+
+    public Set<String> getReadTypes() {
+        return readTypes;
+    }
+
+    public List<Endpoint> getReplicas() {
+        return replicas;
+    }
+}
@@ -1,13 +1,17 @@
 package com.ninedata.dbbench.database;
 
 import com.ninedata.dbbench.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -15,11 +19,131 @@ public class SQLServerAdapter extends AbstractDatabaseAdapter {
     public SQLServerAdapter(DatabaseConfig config) { super(config); }
     @Override public String getDatabaseType() { return "SQL Server"; }
 
+    @Override
+    protected void configureDataSource(HikariConfig hikariConfig) {
+        // Transactions prepare their statements on every execution; pooling reuses the server-side handles
+        addDefaultProperty(hikariConfig, "disableStatementPooling", "false");
+        addDefaultProperty(hikariConfig, "statementPoolingCacheSize", "250");
+    }
+
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        Map<String, String> profiles = commonSchemaProfiles();
+        profiles.put("page-compression", "DATA_COMPRESSION = PAGE for every table");
+        profiles.put("columnstore-history", "Clustered columnstore index as the storage of the insert-only history table");
+        return profiles;
+    }
+
+    @Override
+    protected String getTableOptions(String table, PhysicalDesign design) {
+        return design.has("page-compression") ? "WITH (DATA_COMPRESSION = PAGE)" : "";
+    }
+
+    @Override
+    protected List<String> getAfterTableStatements(PhysicalDesign design) {
+        List<String> statements = new ArrayList<>();
+        if (design.has("columnstore-history")) {
+            statements.add("IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name='cci_history') "
+                    + "CREATE CLUSTERED COLUMNSTORE INDEX cci_history ON history");
+        }
+        return statements;
+    }
+
+    @Override
+    public Map<String, String> getStatementProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put("hints", "Clustered index scan for Delivery's oldest new order, LOOP JOIN for Stock-Level");
+        profiles.put("returning", "UPDATE ... OUTPUT in New-Order, Payment and Delivery, one round trip instead of two");
+        profiles.put("skip-locked", "Delivery skips new orders another terminal holds (READPAST)");
+        profiles.put("nowait", "Delivery fails at once on a locked new order instead of waiting");
+        return profiles;
+    }
+
+    @Override
+    protected Map<String, String> getProfileStatements(String profile) {
+        Map<String, String> statements = new LinkedHashMap<>();
+        String oldestNewOrder = "SELECT TOP 1 no_o_id FROM new_order WITH (UPDLOCK, ROWLOCK%s) WHERE no_w_id = ? AND no_d_id = ? "
+                + "ORDER BY no_o_id";
+        switch (profile) {
+            case "hints" -> {
+                statements.put("delivery.oldest-new-order", String.format(oldestNewOrder, ", INDEX(1)"));
+                statements.put("stock-level.low-stock", "SELECT COUNT(DISTINCT s_i_id) FROM stock, order_line WHERE s_w_id = ? "
+                        + "AND ol_w_id = ? AND ol_d_id = ? AND ol_o_id < ? AND ol_o_id >= ? AND s_i_id = ol_i_id "
+                        + "AND s_quantity < ? OPTION (LOOP JOIN)");
+            }
+            case "returning" -> {
+                statements.put("new-order.district-returning", "UPDATE district SET d_next_o_id = d_next_o_id + 1 "
+                        + "OUTPUT inserted.d_tax, deleted.d_next_o_id WHERE d_w_id = ? AND d_id = ?");
+                statements.put("payment.warehouse-returning", "UPDATE warehouse SET w_ytd = w_ytd + ? OUTPUT inserted.w_name, "
+                        + "inserted.w_street_1, inserted.w_street_2, inserted.w_city, inserted.w_state, inserted.w_zip WHERE w_id = ?");
+                statements.put("payment.district-returning", "UPDATE district SET d_ytd = d_ytd + ? OUTPUT inserted.d_name, "
+                        + "inserted.d_street_1, inserted.d_street_2, inserted.d_city, inserted.d_state, inserted.d_zip "
+                        + "WHERE d_w_id = ? AND d_id = ?");
+                statements.put("delivery.order-returning",
+                        "UPDATE oorder SET o_carrier_id = ? OUTPUT inserted.o_c_id WHERE o_w_id = ? AND o_d_id = ? AND o_id = ?");
+            }
+            case "skip-locked" -> statements.put("delivery.oldest-new-order", String.format(oldestNewOrder, ", READPAST"));
+            case "nowait" -> statements.put("delivery.oldest-new-order", String.format(oldestNewOrder, ", NOWAIT"));
+            default -> { }
+        }
+        return statements;
+    }
+
+    @Override
+    public int resolveIsolationLevel(IsolationLevel level) {
+        // SQLServerConnection.TRANSACTION_SNAPSHOT; needs ALLOW_SNAPSHOT_ISOLATION ON
+        return level == IsolationLevel.SNAPSHOT ? 4096 : level.getJdbcLevel();
+    }
+
+    @Override
+    public ErrorCategory classifyError(SQLException e) {
+        switch (e.getErrorCode()) {
+            case 1205: return ErrorCategory.DEADLOCK;           // chosen as deadlock victim
+            case 1222: return ErrorCategory.LOCK_TIMEOUT;       // lock request time out period exceeded
+            case 3960: return ErrorCategory.SERIALIZATION;      // snapshot isolation update conflict
+            default: return super.classifyError(e);
+        }
+    }
+
     @Override
     public boolean supportsLimitSyntax() {
         return false; // SQL Server uses TOP instead of LIMIT
     }
 
+    @Override
+    public String limitRows(String orderedQuery) {
+        // OFFSET/FETCH takes a parameter at the end, where TOP would put it first
+        return orderedQuery + " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+    }
+
+    @Override
+    public String timestampType() {
+        return "DATETIME2"; // TIMESTAMP is a row version here
+    }
+
+    @Override
+    public String modExpression(String dividend, String divisor) {
+        return "(" + dividend + ") % " + divisor;
+    }
+
+    @Override
+    public String substringExpression(String expr, int start, int length) {
+        return "SUBSTRING(" + expr + ", " + start + ", " + length + ")";
+    }
+
+    @Override
+    public String yearExpression(String expr) {
+        return "YEAR(" + expr + ")";
+    }
+
+    @Override
+    public Map<String, Long> collectTableSize(Connection conn, String table) throws SQLException {
+        // index_id 0 is a heap and 1 the clustered index, i.e. the table itself
+        return queryTableSize(conn, "SELECT COALESCE(SUM(CASE WHEN index_id < 2 THEN used_page_count END), 0) * 8192, "
+                + "COALESCE(SUM(CASE WHEN index_id > 1 THEN used_page_count END), 0) * 8192 "
+                + "FROM sys.dm_db_partition_stats WHERE object_id = OBJECT_ID(?)", table);
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
@@ -253,4 +377,176 @@ public class SQLServerAdapter extends AbstractDatabaseAdapter {
             "IF NOT EXISTS (SELECT * FROM sysobjects WHERE name='order_line') CREATE TABLE order_line (ol_o_id INT NOT NULL, ol_d_id INT NOT NULL, ol_w_id INT NOT NULL, ol_number INT NOT NULL, ol_i_id INT, ol_supply_w_id INT, ol_delivery_d DATETIME, ol_quantity INT, ol_amount DECIMAL(6,2), ol_dist_info CHAR(24), PRIMARY KEY (ol_w_id, ol_d_id, ol_o_id, ol_number))"
         };
     }
+
+    @Override
+    protected String[] getCreateProcedureStatements() {
+        // CREATE OR ALTER requires SQL Server 2016 SP1 or later
+        return new String[]{
+            """
+            CREATE OR ALTER PROCEDURE tpcc_new_order @w_id INT, @d_id INT, @c_id INT, @ol_cnt INT,
+                @item_ids VARCHAR(1024), @supply_w_ids VARCHAR(1024), @quantities VARCHAR(1024), @status INT OUTPUT
+            AS
+            BEGIN
+                SET NOCOUNT ON;
+                DECLARE @w_tax DECIMAL(4,4), @d_tax DECIMAL(4,4), @o_id INT, @c_discount DECIMAL(4,4),
+                        @i INT = 1, @i_id INT, @supply_w_id INT, @quantity INT, @i_price DECIMAL(5,2),
+                        @s_quantity INT, @dist_info CHAR(24);
+
+                SET @status = 0;
+                SELECT @w_tax = w_tax FROM warehouse WHERE w_id = @w_id;
+                IF @@ROWCOUNT = 0 RETURN;
+                SELECT @d_tax = d_tax, @o_id = d_next_o_id FROM district WITH (UPDLOCK, ROWLOCK) WHERE d_w_id = @w_id AND d_id = @d_id;
+                IF @@ROWCOUNT = 0 RETURN;
+                UPDATE district SET d_next_o_id = @o_id + 1 WHERE d_w_id = @w_id AND d_id = @d_id;
+                SELECT @c_discount = c_discount FROM customer WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_id = @c_id;
+                IF @@ROWCOUNT = 0 RETURN;
+                INSERT INTO oorder (o_id, o_d_id, o_w_id, o_c_id, o_entry_d, o_carrier_id, o_ol_cnt, o_all_local)
+                    VALUES (@o_id, @d_id, @w_id, @c_id, GETDATE(), NULL, @ol_cnt, 1);
+                INSERT INTO new_order (no_o_id, no_d_id, no_w_id) VALUES (@o_id, @d_id, @w_id);
+
+                WHILE @i <= @ol_cnt
+                BEGIN
+                    SET @i_id = CAST(LEFT(@item_ids, CHARINDEX(',', @item_ids + ',') - 1) AS INT);
+                    SET @item_ids = STUFF(@item_ids, 1, CHARINDEX(',', @item_ids + ','), '');
+                    SET @supply_w_id = CAST(LEFT(@supply_w_ids, CHARINDEX(',', @supply_w_ids + ',') - 1) AS INT);
+                    SET @supply_w_ids = STUFF(@supply_w_ids, 1, CHARINDEX(',', @supply_w_ids + ','), '');
+                    SET @quantity = CAST(LEFT(@quantities, CHARINDEX(',', @quantities + ',') - 1) AS INT);
+                    SET @quantities = STUFF(@quantities, 1, CHARINDEX(',', @quantities + ','), '');
+
+                    SELECT @i_price = i_price FROM item WHERE i_id = @i_id;
+                    IF @@ROWCOUNT = 0 RETURN;
+                    SELECT @s_quantity = s_quantity, @dist_info = %s
+                        FROM stock WITH (UPDLOCK, ROWLOCK) WHERE s_w_id = @supply_w_id AND s_i_id = @i_id;
+                    IF @@ROWCOUNT = 0 RETURN;
+
+                    SET @s_quantity = @s_quantity - @quantity;
+                    IF @s_quantity < 10 SET @s_quantity = @s_quantity + 91;
+                    UPDATE stock SET s_quantity = @s_quantity, s_ytd = s_ytd + @quantity, s_order_cnt = s_order_cnt + 1
+                        WHERE s_w_id = @supply_w_id AND s_i_id = @i_id;
+                    INSERT INTO order_line (ol_o_id, ol_d_id, ol_w_id, ol_number, ol_i_id, ol_supply_w_id, ol_delivery_d, ol_quantity, ol_amount, ol_dist_info)
+                        VALUES (@o_id, @d_id, @w_id, @i, @i_id, @supply_w_id, NULL, @quantity, @quantity * @i_price, @dist_info);
+                    SET @i = @i + 1;
+                END;
+
+                SET @status = 1;
+            END
+            """.formatted(stockDistInfoCase("@d_id")),
+            """
+            CREATE OR ALTER PROCEDURE tpcc_payment @w_id INT, @d_id INT, @by_name INT, @c_id INT,
+                @c_last VARCHAR(16), @amount DECIMAL(6,2), @status INT OUTPUT
+            AS
+            BEGIN
+                SET NOCOUNT ON;
+                DECLARE @w_name VARCHAR(10), @d_name VARCHAR(10), @c_credit CHAR(2), @c_data VARCHAR(500), @count INT;
+
+                SET @status = 0;
+                UPDATE warehouse SET w_ytd = w_ytd + @amount, @w_name = w_name WHERE w_id = @w_id;
+                IF @@ROWCOUNT = 0 RETURN;
+                UPDATE district SET d_ytd = d_ytd + @amount, @d_name = d_name WHERE d_w_id = @w_id AND d_id = @d_id;
+                IF @@ROWCOUNT = 0 RETURN;
+
+                IF @by_name = 1
+                BEGIN
+                    SELECT @count = COUNT(*) FROM customer WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_last = @c_last;
+                    IF @count = 0 RETURN;
+                    IF @count > 100 SET @count = 100;
+                    SELECT @c_id = c_id FROM customer WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_last = @c_last
+                        ORDER BY c_first OFFSET (@count + 1) / 2 - 1 ROWS FETCH NEXT 1 ROWS ONLY;
+                END;
+
+                SELECT @c_credit = c_credit, @c_data = c_data FROM customer WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_id = @c_id;
+                IF @@ROWCOUNT = 0 RETURN;
+                IF @c_credit = 'BC'
+                    UPDATE customer SET c_balance = c_balance - @amount, c_ytd_payment = c_ytd_payment + @amount, c_payment_cnt = c_payment_cnt + 1,
+                        c_data = LEFT(CONCAT(@c_id, ' ', @d_id, ' ', @w_id, ' ', @d_id, ' ', @w_id, ' ', @amount, ' | ', @c_data), 500)
+                        WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_id = @c_id;
+                ELSE
+                    UPDATE customer SET c_balance = c_balance - @amount, c_ytd_payment = c_ytd_payment + @amount, c_payment_cnt = c_payment_cnt + 1
+                        WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_id = @c_id;
+
+                INSERT INTO history (h_c_id, h_c_d_id, h_c_w_id, h_d_id, h_w_id, h_date, h_amount, h_data)
+                    VALUES (@c_id, @d_id, @w_id, @d_id, @w_id, GETDATE(), @amount, @w_name + '    ' + @d_name);
+                SET @status = 1;
+            END
+            """,
+            """
+            CREATE OR ALTER PROCEDURE tpcc_order_status @w_id INT, @d_id INT, @by_name INT, @c_id INT,
+                @c_last VARCHAR(16), @status INT OUTPUT
+            AS
+            BEGIN
+                SET NOCOUNT ON;
+                DECLARE @c_balance DECIMAL(12,2), @c_first VARCHAR(16), @c_middle CHAR(2), @c_last_out VARCHAR(16),
+                        @o_id INT, @o_entry_d DATETIME, @o_carrier_id INT, @ol_count INT, @ol_total DECIMAL(12,2), @count INT;
+
+                SET @status = 0;
+                IF @by_name = 1
+                BEGIN
+                    SELECT @count = COUNT(*) FROM customer WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_last = @c_last;
+                    IF @count = 0 RETURN;
+                    IF @count > 100 SET @count = 100;
+                    SELECT @c_id = c_id FROM customer WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_last = @c_last
+                        ORDER BY c_first OFFSET (@count + 1) / 2 - 1 ROWS FETCH NEXT 1 ROWS ONLY;
+                END;
+
+                SELECT @c_balance = c_balance, @c_first = c_first, @c_middle = c_middle, @c_last_out = c_last
+                    FROM customer WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_id = @c_id;
+                IF @@ROWCOUNT = 0 RETURN;
+                SELECT TOP 1 @o_id = o_id, @o_entry_d = o_entry_d, @o_carrier_id = o_carrier_id
+                    FROM oorder WHERE o_w_id = @w_id AND o_d_id = @d_id AND o_c_id = @c_id ORDER BY o_id DESC;
+                IF @@ROWCOUNT = 0 RETURN;
+                SELECT @ol_count = COUNT(*), @ol_total = SUM(ol_amount)
+                    FROM order_line WHERE ol_w_id = @w_id AND ol_d_id = @d_id AND ol_o_id = @o_id;
+                SET @status = 1;
+            END
+            """,
+            """
+            CREATE OR ALTER PROCEDURE tpcc_delivery @w_id INT, @carrier_id INT, @delivered INT OUTPUT
+            AS
+            BEGIN
+                SET NOCOUNT ON;
+                DECLARE @d_id INT = 1, @o_id INT, @c_id INT, @amount DECIMAL(12,2);
+
+                SET @delivered = 0;
+                WHILE @d_id <= 10
+                BEGIN
+                    SET @o_id = NULL;
+                    SELECT TOP 1 @o_id = no_o_id FROM new_order WITH (UPDLOCK, ROWLOCK)
+                        WHERE no_w_id = @w_id AND no_d_id = @d_id ORDER BY no_o_id;
+                    IF @o_id IS NOT NULL
+                    BEGIN
+                        DELETE FROM new_order WHERE no_w_id = @w_id AND no_d_id = @d_id AND no_o_id = @o_id;
+                        SET @c_id = NULL;
+                        UPDATE oorder SET o_carrier_id = @carrier_id, @c_id = o_c_id WHERE o_w_id = @w_id AND o_d_id = @d_id AND o_id = @o_id;
+                        IF @c_id IS NOT NULL
+                        BEGIN
+                            UPDATE order_line SET ol_delivery_d = GETDATE() WHERE ol_w_id = @w_id AND ol_d_id = @d_id AND ol_o_id = @o_id;
+                            SELECT @amount = COALESCE(SUM(ol_amount), 0) FROM order_line
+                                WHERE ol_w_id = @w_id AND ol_d_id = @d_id AND ol_o_id = @o_id;
+                            UPDATE customer SET c_balance = c_balance + @amount, c_delivery_cnt = c_delivery_cnt + 1
+                                WHERE c_w_id = @w_id AND c_d_id = @d_id AND c_id = @c_id;
+                            SET @delivered = @delivered + 1;
+                        END;
+                    END;
+                    SET @d_id = @d_id + 1;
+                END;
+            END
+            """,
+            """
+            CREATE OR ALTER PROCEDURE tpcc_stock_level @w_id INT, @d_id INT, @threshold INT, @low_stock INT OUTPUT
+            AS
+            BEGIN
+                SET NOCOUNT ON;
+                DECLARE @next_o_id INT;
+
+                SET @low_stock = -1;
+                SELECT @next_o_id = d_next_o_id FROM district WHERE d_w_id = @w_id AND d_id = @d_id;
+                IF @@ROWCOUNT = 0 RETURN;
+                SELECT @low_stock = COUNT(DISTINCT s_i_id) FROM stock, order_line
+                    WHERE s_w_id = @w_id AND ol_w_id = @w_id AND ol_d_id = @d_id
+                    AND ol_o_id < @next_o_id AND ol_o_id >= @next_o_id - 20
+                    AND s_i_id = ol_i_id AND s_quantity < @threshold;
+            END
+            """
+        };
+    }
 }
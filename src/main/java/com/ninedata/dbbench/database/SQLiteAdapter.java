@@ -8,6 +8,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Slf4j
@@ -22,11 +23,61 @@ public class SQLiteAdapter extends AbstractDatabaseAdapter {
         return "SQLite";
     }
 
+    /**
+     * SQLite cannot add constraints to existing tables and has no storage options to choose from.
+     */
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        return new HashMap<>();
+    }
+
+    @Override
+    public Map<String, String> getStatementProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put("returning", "UPDATE ... RETURNING in New-Order, Payment and Delivery (SQLite 3.35)");
+        return profiles;
+    }
+
+    @Override
+    protected Map<String, String> getProfileStatements(String profile) {
+        return profile.equals("returning") ? returningStatements() : new LinkedHashMap<>();
+    }
+
+    @Override
+    public int resolveIsolationLevel(IsolationLevel level) {
+        // SQLite transactions are always serializable
+        return Connection.TRANSACTION_SERIALIZABLE;
+    }
+
+    @Override
+    public ErrorCategory classifyError(SQLException e) {
+        // SQLITE_BUSY (5) and SQLITE_LOCKED (6), including extended result codes
+        int primary = e.getErrorCode() & 0xff;
+        if (primary == 5 || primary == 6) return ErrorCategory.LOCK_TIMEOUT;
+        return super.classifyError(e);
+    }
+
     @Override
     public boolean supportsForUpdate() {
         return false;
     }
 
+    @Override
+    public String modExpression(String dividend, String divisor) {
+        return "(" + dividend + ") % " + divisor;
+    }
+
+    @Override
+    public String charCodeExpression(String expr) {
+        return "UNICODE(" + expr + ")";
+    }
+
+    @Override
+    public String yearExpression(String expr) {
+        // The driver stores timestamps as epoch milliseconds
+        return "CAST(strftime('%Y', CAST(" + expr + " AS INTEGER) / 1000, 'unixepoch') AS INTEGER)";
+    }
+
     @Override
     public void initialize() throws SQLException {
         super.initialize();
@@ -40,6 +91,13 @@ public class SQLiteAdapter extends AbstractDatabaseAdapter {
         log.info("SQLite WAL mode enabled");
     }
 
+    @Override
+    public Map<String, Long> collectTableSize(Connection conn, String table) throws SQLException {
+        return queryTableSize(conn, "SELECT (SELECT COALESCE(SUM(pgsize), 0) FROM dbstat WHERE name = ?), "
+                + "(SELECT COALESCE(SUM(d.pgsize), 0) FROM dbstat d JOIN sqlite_master m ON m.name = d.name "
+                + "WHERE m.type = 'index' AND m.tbl_name = ?)", table, table);
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
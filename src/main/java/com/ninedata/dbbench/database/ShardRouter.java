@@ -0,0 +1,77 @@
+package com.ninedata.dbbench.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client-side sharding: every warehouse lives on exactly one independent database instance, and a
+ * transaction runs on the shard of the warehouse it works on. Shards hold contiguous warehouse ranges.
+ */
+public class ShardRouter {
+    private final List<Shard> shards;
+
+    /**
+     * A database instance holding warehouses firstWarehouse..lastWarehouse, named for per-shard metrics.
+     */
+    public record Shard(String name, DatabaseAdapter adapter, int firstWarehouse, int lastWarehouse) {
+
+        public boolean contains(int warehouseId) {
+            return warehouseId >= firstWarehouse && warehouseId <= lastWarehouse;
+        }
+    }
+
+    public ShardRouter(List<Shard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("No shards");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    /**
+     * Split the adapters' instances over warehouses 1..warehouses in contiguous ranges as even as possible.
+     *
+     * @param names shard names, in warehouse order
+     */
+    public static ShardRouter split(List<String> names, List<DatabaseAdapter> adapters, int warehouses) {
+        List<int[]> ranges = ranges(warehouses, adapters.size());
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < adapters.size(); i++) {
+            shards.add(new Shard(names.get(i), adapters.get(i), ranges.get(i)[0], ranges.get(i)[1]));
+        }
+        return new ShardRouter(shards);
+    }
+
+    /**
+     * Contiguous warehouse ranges [first, last] for the given number of shards.
+     */
+    public static List<int[]> ranges(int warehouses, int shards) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shards must be positive: " + shards);
+        }
+        if (warehouses < shards) {
+            throw new IllegalArgumentException("Need at least one warehouse per shard: " + warehouses
+                    + " warehouses for " + shards + " shards");
+        }
+        List<int[]> ranges = new ArrayList<>();
+        for (int i = 0; i < shards; i++) {
+            ranges.add(new int[]{(int) ((long) i * warehouses / shards) + 1, (int) ((long) (i + 1) * warehouses / shards)});
+        }
+        return ranges;
+    }
+
+    /**
+     * The shard holding a warehouse.
+     */
+    public Shard route(int warehouseId) {
+        for (Shard shard : shards) {
+            if (shard.contains(warehouseId)) {
+                return shard;
+            }
+        }
+        throw new IllegalArgumentException("Warehouse " + warehouseId + " is on no shard");
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+}
@@ -27,6 +27,26 @@ public class SybaseAdapter extends AbstractDatabaseAdapter {
         return false; // Sybase ASE uses TOP n
     }
 
+    @Override
+    public String timestampType() {
+        return "DATETIME"; // TIMESTAMP is a row version here
+    }
+
+    @Override
+    public String modExpression(String dividend, String divisor) {
+        return "(" + dividend + ") % " + divisor;
+    }
+
+    @Override
+    public String substringExpression(String expr, int start, int length) {
+        return "SUBSTRING(" + expr + ", " + start + ", " + length + ")";
+    }
+
+    @Override
+    public String yearExpression(String expr) {
+        return "DATEPART(yy, " + expr + ")";
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
@@ -7,6 +7,7 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Slf4j
@@ -21,6 +22,44 @@ public class TiDBAdapter extends MySQLAdapter {
         return "TiDB";
     }
 
+    @Override
+    public ErrorCategory classifyError(SQLException e) {
+        switch (e.getErrorCode()) {
+            case 9007: return ErrorCategory.SERIALIZATION;      // write conflict (optimistic)
+            case 8002: return ErrorCategory.SERIALIZATION;      // SELECT FOR UPDATE write conflict
+            case 8022: return ErrorCategory.SERIALIZATION;      // transaction retry limit reached
+            default: return super.classifyError(e);
+        }
+    }
+
+    /**
+     * TiKV compresses its data itself and ignores InnoDB row formats.
+     */
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        return commonSchemaProfiles();
+    }
+
+    /**
+     * TiDB has no SKIP LOCKED and its own optimizer hints; of MySQL's statement profiles only NOWAIT applies.
+     */
+    @Override
+    public Map<String, String> getStatementProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put("nowait", super.getStatementProfiles().get("nowait"));
+        return profiles;
+    }
+
+    @Override
+    protected String[] getCreateProcedureStatements() {
+        return new String[0]; // TiDB does not support stored procedures
+    }
+
+    @Override
+    public Double queryReplicaLag(Connection conn) {
+        return null; // Followers are part of the cluster; there is no replica status to read
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         // Start with MySQL-compatible base metrics (SHOW GLOBAL STATUS works in TiDB)
@@ -8,6 +8,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Slf4j
@@ -22,6 +23,24 @@ public class YashanDBAdapter extends OracleAdapter {
         return "YashanDB";
     }
 
+    /**
+     * Oracle's index-organized tables and hash clusters are not offered here.
+     */
+    @Override
+    public Map<String, String> getSchemaProfiles() {
+        return commonSchemaProfiles();
+    }
+
+    /**
+     * Oracle's optimizer hints are not offered here; of its statement profiles only NOWAIT applies.
+     */
+    @Override
+    public Map<String, String> getStatementProfiles() {
+        Map<String, String> profiles = new LinkedHashMap<>();
+        profiles.put("nowait", super.getStatementProfiles().get("nowait"));
+        return profiles;
+    }
+
     @Override
     public Map<String, Object> collectMetrics() throws SQLException {
         Map<String, Object> metrics = new HashMap<>();
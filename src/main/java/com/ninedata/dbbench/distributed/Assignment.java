@@ -0,0 +1,35 @@
+package com.ninedata.dbbench.distributed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One agent's share of a distributed run: its home warehouses and terminal count.
+ */
+public record Assignment(int agent, int firstWarehouse, int lastWarehouse, int terminals) {
+
+    /**
+     * Split warehouses into contiguous, disjoint ranges and terminals as evenly as possible. With fewer
+     * warehouses than agents, ranges overlap one warehouse at a time.
+     */
+    public static List<Assignment> split(int warehouses, int terminals, int agents) {
+        if (agents <= 0) {
+            throw new IllegalArgumentException("Agents must be positive: " + agents);
+        }
+        if (warehouses <= 0) {
+            throw new IllegalArgumentException("Warehouses must be positive: " + warehouses);
+        }
+        if (terminals < agents) {
+            throw new IllegalArgumentException("Need at least one terminal per agent: " + terminals
+                    + " terminals for " + agents + " agents");
+        }
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < agents; i++) {
+            int first = (int) ((long) i * warehouses / agents) + 1;
+            int last = Math.max(first, (int) ((long) (i + 1) * warehouses / agents));
+            int share = terminals / agents + (i < terminals % agents ? 1 : 0);
+            assignments.add(new Assignment(i + 1, first, last, share));
+        }
+        return assignments;
+    }
+}
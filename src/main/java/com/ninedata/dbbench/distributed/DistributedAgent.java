@@ -0,0 +1,147 @@
+package com.ninedata.dbbench.distributed;
+
+import com.ninedata.dbbench.engine.BenchmarkEngine;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Runs one share of a distributed benchmark: connects to the controller, applies the settings and
+ * warehouse range it is given, starts at the common start instant and reports each second's counters.
+ * Each report covers the interval before last, so transactions finishing around an interval switch are
+ * never lost.
+ */
+@Slf4j
+public class DistributedAgent {
+    private final BenchmarkEngine engine;
+    private final String host;
+    private final int port;
+    private final int connectTimeout;
+    private MetricsRegistry pending;
+
+    /**
+     * @param address controller address as host:port
+     */
+    public DistributedAgent(BenchmarkEngine engine, String address, int connectTimeout) {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0 || colon == address.length() - 1) {
+            throw new IllegalArgumentException("Controller address must be host:port: " + address);
+        }
+        try {
+            this.port = Integer.parseInt(address.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid controller port: " + address);
+        }
+        this.engine = engine;
+        this.host = address.substring(0, colon);
+        this.connectTimeout = connectTimeout;
+    }
+
+    /**
+     * Take part in one run and return once it is over.
+     */
+    public void run() throws IOException, InterruptedException, SQLException {
+        try (MessageChannel channel = connect()) {
+            channel.send("hello", Map.of("name", name()));
+            Map<String, Object> assign = channel.expect("assign", 0);
+            log.info("Assigned as agent {} by {}", assign.get("agent"), channel.getRemoteAddress());
+            try {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> config = (Map<String, Object>) assign.get("config");
+                engine.updateConfig(config);
+                engine.initialize();
+            } catch (RuntimeException | SQLException e) {
+                channel.send("error", Map.of("message", String.valueOf(e.getMessage())));
+                throw e;
+            }
+            channel.send("ready", Map.of());
+
+            Map<String, Object> start = channel.expect("start", 0);
+            long startAt = ((Number) start.get("startAt")).longValue();
+            Thread.sleep(Math.max(0, startAt - System.currentTimeMillis()));
+            engine.nextInterval();
+            try {
+                engine.start();
+            } catch (RuntimeException | SQLException e) {
+                channel.send("error", Map.of("message", String.valueOf(e.getMessage())));
+                throw e;
+            }
+
+            Thread reporter = new Thread(() -> report(channel), "dbbench-agent-report");
+            reporter.setDaemon(true);
+            reporter.start();
+            Map<String, Object> message;
+            while ((message = channel.receive()) != null && !"stop".equals(message.get("type"))) {
+                // Nothing else is sent during a run
+            }
+            engine.stop();
+            while (engine.isRunning() || "STOPPING".equals(engine.getStatus())) {
+                Thread.sleep(100);
+            }
+            reporter.join();
+            if (message != null) {
+                flush(channel);
+                flush(channel);
+                channel.send("done", Map.of());
+            }
+        }
+    }
+
+    private MessageChannel connect() throws IOException, InterruptedException {
+        long deadline = System.currentTimeMillis() + connectTimeout * 1000L;
+        while (true) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(host, port), 1000);
+                return new MessageChannel(socket);
+            } catch (IOException e) {
+                socket.close();
+                if (System.currentTimeMillis() >= deadline) {
+                    throw new IOException("Cannot reach controller at " + host + ":" + port + ": " + e.getMessage(), e);
+                }
+                Thread.sleep(1000);
+            }
+        }
+    }
+
+    private void report(MessageChannel channel) {
+        try {
+            while (engine.isRunning()) {
+                Thread.sleep(1000);
+                flush(channel);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.warn("Lost controller connection: {}", e.getMessage());
+            engine.stop();
+        }
+    }
+
+    /**
+     * Start a new interval and send the one before it.
+     */
+    private synchronized void flush(MessageChannel channel) throws IOException {
+        MetricsRegistry ended = engine.nextInterval();
+        if (pending != null) {
+            channel.send("interval", Map.of("counts", pending.exportCounts()));
+        }
+        pending = ended;
+    }
+
+    private static String name() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "localhost";
+        }
+        return ProcessHandle.current().pid() + "@" + host;
+    }
+}
@@ -0,0 +1,279 @@
+package com.ninedata.dbbench.distributed;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Drives a run on agent processes: waits for them to connect, hands each a disjoint warehouse range and
+ * its share of the terminals, starts them all at the same wall-clock instant and adds the counters and
+ * latency histograms they report every second into one registry.
+ */
+public class DistributedController {
+    /** Lead time between the start message and the common start instant */
+    private static final long START_DELAY_MILLIS = 2000;
+    /** How long to wait for final reports after the stop message */
+    private static final long DONE_TIMEOUT_MILLIS = 15000;
+
+    private final BenchmarkConfig.DistributedConfig config;
+    private final Map<String, Object> runConfig;
+    private final int duration;
+    private final List<Assignment> assignments;
+    private final MetricsRegistry registry;
+    private final BiConsumer<String, String> log;
+    private final List<AgentHandle> agents = new CopyOnWriteArrayList<>();
+    private final CountDownLatch stopSignal = new CountDownLatch(1);
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile ServerSocket server;
+
+    /**
+     * @param runConfig settings every agent applies before its run, in BenchmarkEngine.updateConfig form
+     */
+    public DistributedController(BenchmarkConfig benchConfig, Map<String, Object> runConfig,
+                                 MetricsRegistry registry, BiConsumer<String, String> log) {
+        this.config = benchConfig.getDistributed();
+        this.runConfig = runConfig;
+        this.duration = benchConfig.getDuration();
+        this.assignments = Assignment.split(benchConfig.getWarehouses(), benchConfig.getTerminals(), config.getAgents());
+        this.registry = registry;
+        this.log = log;
+    }
+
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    /**
+     * Run to completion: connect, assign, start, collect until the duration is over or {@link #stop()} is called.
+     */
+    public void run() throws IOException, InterruptedException {
+        try {
+            long deadline = System.currentTimeMillis() + config.getConnectTimeout() * 1000L;
+            acceptAgents(deadline);
+            if (isStopRequested()) {
+                return;
+            }
+            for (AgentHandle agent : agents) {
+                agent.channel.send("assign", Map.of("agent", agent.assignment.agent(), "config", configFor(agent.assignment)));
+            }
+            for (AgentHandle agent : agents) {
+                try {
+                    agent.channel.expect("ready", (int) Math.max(1, deadline - System.currentTimeMillis()));
+                } catch (IOException e) {
+                    throw new IOException("Agent " + agent.name + ": " + e.getMessage(), e);
+                }
+            }
+
+            long startAt = System.currentTimeMillis() + START_DELAY_MILLIS;
+            for (AgentHandle agent : agents) {
+                agent.channel.send("start", Map.of("startAt", startAt));
+            }
+            Thread.sleep(Math.max(0, startAt - System.currentTimeMillis()));
+            registry.reset();
+            log.accept("INFO", String.format("%d agents started", agents.size()));
+
+            CountDownLatch done = new CountDownLatch(agents.size());
+            for (AgentHandle agent : agents) {
+                Thread reader = new Thread(() -> collect(agent, done), "dbbench-agent-" + agent.assignment.agent());
+                reader.setDaemon(true);
+                reader.start();
+            }
+            stopSignal.await(duration, TimeUnit.SECONDS);
+            for (AgentHandle agent : agents) {
+                try {
+                    agent.channel.send("stop", Map.of());
+                } catch (IOException e) {
+                    log.accept("WARN", "Agent " + agent.name + " unreachable: " + e.getMessage());
+                }
+            }
+            if (!done.await(DONE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                log.accept("WARN", "Not all agents reported their final counts");
+            }
+        } catch (SocketException e) {
+            // The server socket is closed by stop() while waiting for agents
+            if (!isStopRequested()) {
+                throw e;
+            }
+        } finally {
+            close();
+            finished.countDown();
+        }
+    }
+
+    /**
+     * End the run early and wait for the agents' final reports.
+     */
+    public void stop() {
+        stopSignal.countDown();
+        ServerSocket socket = server;
+        if (socket != null && agents.size() < assignments.size()) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+        }
+        try {
+            finished.await(DONE_TIMEOUT_MILLIS + 1000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Per-agent assignment and progress, for results and the CLI summary.
+     */
+    public List<Map<String, Object>> getAgentSummaries() {
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        for (AgentHandle agent : agents) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("agent", agent.assignment.agent());
+            summary.put("name", agent.name);
+            summary.put("address", agent.channel.getRemoteAddress());
+            summary.put("firstWarehouse", agent.assignment.firstWarehouse());
+            summary.put("lastWarehouse", agent.assignment.lastWarehouse());
+            summary.put("terminals", agent.assignment.terminals());
+            summary.put("intervals", agent.intervals);
+            summary.put("transactions", agent.transactions);
+            summary.put("state", agent.state);
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private boolean isStopRequested() {
+        return stopSignal.getCount() == 0;
+    }
+
+    private void acceptAgents(long deadline) throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        socket.bind(new InetSocketAddress(config.getHost(), config.getPort()));
+        server = socket;
+        log.accept("INFO", String.format("Waiting for %d agents on %s:%d", assignments.size(),
+                config.getHost(), config.getPort()));
+        while (agents.size() < assignments.size() && !isStopRequested()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new IOException(String.format("Only %d of %d agents connected within %d seconds",
+                        agents.size(), assignments.size(), config.getConnectTimeout()));
+            }
+            socket.setSoTimeout((int) remaining);
+            Socket connection;
+            try {
+                connection = socket.accept();
+            } catch (SocketTimeoutException e) {
+                continue;
+            }
+            MessageChannel channel = new MessageChannel(connection);
+            try {
+                Map<String, Object> hello = channel.expect("hello", (int) Math.max(1, deadline - System.currentTimeMillis()));
+                Assignment assignment = assignments.get(agents.size());
+                AgentHandle agent = new AgentHandle(String.valueOf(hello.get("name")), channel, assignment);
+                agents.add(agent);
+                log.accept("INFO", String.format("Agent %d (%s, %s) connected: warehouses %d-%d, %d terminals",
+                        assignment.agent(), agent.name, channel.getRemoteAddress(), assignment.firstWarehouse(),
+                        assignment.lastWarehouse(), assignment.terminals()));
+            } catch (IOException e) {
+                log.accept("WARN", "Rejected connection from " + channel.getRemoteAddress() + ": " + e.getMessage());
+                channel.close();
+            }
+        }
+    }
+
+    private Map<String, Object> configFor(Assignment assignment) {
+        Map<String, Object> config = new LinkedHashMap<>(runConfig);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> bench = new LinkedHashMap<>((Map<String, Object>) config.getOrDefault("benchmark", Map.of()));
+        bench.put("terminals", assignment.terminals());
+        bench.put("firstWarehouse", assignment.firstWarehouse());
+        bench.put("lastWarehouse", assignment.lastWarehouse());
+        bench.put("duration", duration);
+        config.put("benchmark", bench);
+        config.put("distributed", Map.of("agents", 0));
+        return config;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(AgentHandle agent, CountDownLatch done) {
+        try {
+            Map<String, Object> message;
+            while ((message = agent.channel.receive()) != null) {
+                String type = String.valueOf(message.get("type"));
+                if ("interval".equals(type)) {
+                    Map<String, Object> counts = (Map<String, Object>) message.get("counts");
+                    registry.importCounts(counts);
+                    agent.intervals++;
+                    agent.transactions += countTransactions(counts);
+                } else if ("error".equals(type)) {
+                    log.accept("ERROR", "Agent " + agent.name + ": " + message.get("message"));
+                } else if ("done".equals(type)) {
+                    agent.state = "DONE";
+                    return;
+                }
+            }
+            agent.state = "LOST";
+            log.accept("WARN", "Agent " + agent.name + " disconnected");
+        } catch (IOException e) {
+            agent.state = "LOST";
+            if (!isStopRequested()) {
+                log.accept("WARN", "Agent " + agent.name + " failed: " + e.getMessage());
+            }
+        } finally {
+            done.countDown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long countTransactions(Map<String, Object> counts) {
+        long total = 0;
+        if (counts.get("transactions") instanceof Map<?, ?> transactions) {
+            for (Object tx : transactions.values()) {
+                if (((Map<String, Object>) tx).get("count") instanceof Number n) {
+                    total += n.longValue();
+                }
+            }
+        }
+        return total;
+    }
+
+    private void close() {
+        for (AgentHandle agent : agents) {
+            agent.channel.close();
+        }
+        ServerSocket socket = server;
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+        }
+    }
+
+    private static final class AgentHandle {
+        final String name;
+        final MessageChannel channel;
+        final Assignment assignment;
+        volatile long intervals;
+        volatile long transactions;
+        volatile String state = "RUNNING";
+
+        AgentHandle(String name, MessageChannel channel, Assignment assignment) {
+            this.name = name;
+            this.channel = channel;
+            this.assignment = assignment;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ninedata.dbbench.distributed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One JSON object per line over a TCP socket, each with a "type" field: the wire protocol between
+ * a distributed controller and its agents.
+ */
+final class MessageChannel implements Closeable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final Writer writer;
+
+    MessageChannel(Socket socket) throws IOException {
+        this.socket = socket;
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    synchronized void send(String type, Map<String, ?> body) throws IOException {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        message.putAll(body);
+        writer.write(MAPPER.writeValueAsString(message));
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * Next message, or null once the other side closed the connection.
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> receive() throws IOException {
+        String line = reader.readLine();
+        return line == null ? null : MAPPER.readValue(line, Map.class);
+    }
+
+    /**
+     * Next message, which must be of the given type; an "error" message from the other side is thrown.
+     * A timeout of 0 waits indefinitely.
+     */
+    Map<String, Object> expect(String type, int timeoutMillis) throws IOException {
+        socket.setSoTimeout(Math.max(0, timeoutMillis));
+        try {
+            Map<String, Object> message = receive();
+            if (message == null) {
+                throw new EOFException("Connection closed while waiting for " + type);
+            }
+            if ("error".equals(message.get("type"))) {
+                throw new IOException(String.valueOf(message.get("message")));
+            }
+            if (!type.equals(message.get("type"))) {
+                throw new IOException("Expected " + type + " but got " + message.get("type"));
+            }
+            return message;
+        } catch (SocketTimeoutException e) {
+            throw new SocketTimeoutException("Timed out waiting for " + type);
+        } finally {
+            socket.setSoTimeout(0);
+        }
+    }
+
+    String getRemoteAddress() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Already gone
+        }
+    }
+}
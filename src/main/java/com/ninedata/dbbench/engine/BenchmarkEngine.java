@@ -2,25 +2,51 @@ package com.ninedata.dbbench.engine;
 
 import com.ninedata.dbbench.config.BenchmarkConfig;
 import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.BalancePolicy;
 import com.ninedata.dbbench.database.DatabaseAdapter;
 import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.database.EndpointBalancer;
+import com.ninedata.dbbench.database.ErrorCategory;
+import com.ninedata.dbbench.database.PartitionMethod;
+import com.ninedata.dbbench.database.Partitioning;
+import com.ninedata.dbbench.database.PhysicalDesign;
+import com.ninedata.dbbench.database.ReplicaRouter;
+import com.ninedata.dbbench.database.ShardRouter;
+import com.ninedata.dbbench.database.IsolationLevel;
+import com.ninedata.dbbench.distributed.DistributedController;
+import com.ninedata.dbbench.metrics.AvailabilityTracker;
+import com.ninedata.dbbench.metrics.ConnectionTracker;
 import com.ninedata.dbbench.metrics.MetricsRegistry;
 import com.ninedata.dbbench.metrics.OSMetricsCollector;
+import com.ninedata.dbbench.metrics.ReplicationLagMonitor;
 import com.ninedata.dbbench.metrics.SshMetricsCollector;
-import com.ninedata.dbbench.tpcc.TPCCUtil;
-import com.ninedata.dbbench.tpcc.loader.TPCCLoader;
+import com.ninedata.dbbench.metrics.TargetComparison;
+import com.ninedata.dbbench.replay.*;
+import com.ninedata.dbbench.scenario.RateLimiter;
+import com.ninedata.dbbench.scenario.Scenario;
+import com.ninedata.dbbench.scenario.ScenarioPhase;
 import com.ninedata.dbbench.tpcc.transaction.*;
+import com.ninedata.dbbench.workload.*;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.RetryPolicy;
+import com.ninedata.dbbench.workload.ExecutionMode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Slf4j
 @Component
@@ -31,6 +57,8 @@ public class BenchmarkEngine {
     private final OSMetricsCollector osMetricsCollector;
 
     private DatabaseAdapter adapter;
+    /** Whether the pools were set up for the batched execution mode */
+    private boolean poolsRewriteBatches;
     private SshMetricsCollector sshCollector;
     private ExecutorService executorService;
     private ScheduledExecutorService metricsScheduler;
@@ -44,13 +72,64 @@ public class BenchmarkEngine {
     // Log history
     private final List<Map<String, Object>> logHistory = Collections.synchronizedList(new ArrayList<>());
     private static final int MAX_LOG_HISTORY = 1000;
+    private static final Pattern LOAD_PROGRESS = Pattern.compile("\\((\\d+)/(\\d+)\\)");
 
     // Loading progress
     @Getter
     private volatile int loadProgress = 0;
     @Getter
     private volatile String loadMessage = "";
-    private volatile TPCCLoader currentLoader = null;
+    private volatile WorkloadLoader currentLoader = null;
+
+    // Record/replay of transaction inputs for the current run
+    private volatile ReplayRecorder recorder;
+    private volatile ReplayLog replayLog;
+    private final AtomicInteger activeTerminals = new AtomicInteger();
+
+    // Terminals of the current run; scenario phases add, retire and re-create them while it runs
+    private final List<TerminalSlot> slots = new ArrayList<>();
+    private volatile boolean thinkTime;
+    private volatile RateLimiter rateLimiter;
+    private volatile boolean paused;
+    private final Object pauseLock = new Object();
+
+    // Scenario state: the phase being measured and the summaries of finished phases
+    private volatile Scenario scenario;
+    private final AtomicReference<PhaseState> currentPhase = new AtomicReference<>();
+    private final List<Map<String, Object>> phaseResults = new CopyOnWriteArrayList<>();
+    /** Agents of a distributed run driven from here; null when terminals run in this process */
+    private volatile DistributedController controller;
+    /** Registry of the current reporting interval when this process is a distributed agent */
+    private final AtomicReference<MetricsRegistry> interval = new AtomicReference<>();
+    /** Databases run side by side with the main one, see DatabaseConfig.targets */
+    private final List<Target> targets = new ArrayList<>();
+    /** Read replicas of the main database, see DatabaseConfig.replicas */
+    private final List<ReplicaRouter.Endpoint> replicas = new ArrayList<>();
+    /** Shards after the main database by name, see DatabaseConfig.shards */
+    private final Map<String, DatabaseAdapter> shards = new LinkedHashMap<>();
+    /** Shard map of the current or last run, or null when it was not sharded */
+    private volatile ShardRouter shardRouter;
+    /** SQL endpoints after the main one by name, see DatabaseConfig.endpoints */
+    private final Map<String, DatabaseAdapter> endpoints = new LinkedHashMap<>();
+    /** Endpoint balancing of the current or last run, or null when it ran on one endpoint */
+    private volatile EndpointBalancer balancer;
+    private volatile TargetComparison comparison;
+    private volatile List<Map<String, Object>> targetSample = List.of();
+    /** Replication lag probe of the current or last run, or null */
+    private volatile ReplicationLagMonitor lagMonitor;
+    private volatile Map<String, Object> lagSample = Map.of();
+    /** Outage tracking of the current or last run in availability mode, or null */
+    private volatile AvailabilityTracker availability;
+    private volatile Map<String, Object> availabilitySample = Map.of();
+    /** Connect timing of the current or last run in short-connection mode, or null */
+    private volatile ConnectionTracker connections;
+    private volatile Map<String, Object> connectionSample = Map.of();
+    /** Physical design of the schema this engine last created, with its workload, or null */
+    private volatile LoadedSchema loadedSchema;
+    /** Seed of terminal 0's input stream in this run, or null for unseeded inputs */
+    private volatile Long runSeed;
+    /** Opened once every terminal of every target exists, so that targets start together */
+    private volatile CountDownLatch startGate;
 
     public BenchmarkEngine(DatabaseConfig dbConfig, BenchmarkConfig benchConfig,
                            MetricsRegistry metricsRegistry, OSMetricsCollector osMetricsCollector) {
@@ -116,28 +195,198 @@ public class BenchmarkEngine {
             if (db.containsKey("username")) dbConfig.setUsername((String) db.get("username"));
             if (db.containsKey("password")) dbConfig.setPassword((String) db.get("password"));
             if (db.containsKey("poolSize")) dbConfig.getPool().setSize(((Number) db.get("poolSize")).intValue());
+            if (db.containsKey("connectionTimeout")) dbConfig.getPool().setConnectionTimeout(((Number) db.get("connectionTimeout")).intValue());
+            if (db.containsKey("name")) dbConfig.setName((String) db.get("name"));
+            if (db.containsKey("targets")) {
+                List<DatabaseConfig.TargetConfig> configured = parseEndpoints(db.get("targets"));
+                for (int i = 0; i < configured.size(); i++) {
+                    dbConfig.forTarget(configured.get(i), i + 2);
+                }
+                dbConfig.setTargets(configured);
+            }
+            if (db.containsKey("replicas")) {
+                List<DatabaseConfig.TargetConfig> configured = parseEndpoints(db.get("replicas"));
+                for (int i = 0; i < configured.size(); i++) {
+                    dbConfig.forReplica(configured.get(i), i + 1);
+                }
+                dbConfig.setReplicas(configured);
+            }
+            if (db.containsKey("shards")) {
+                List<DatabaseConfig.TargetConfig> configured = parseEndpoints(db.get("shards"));
+                for (int i = 0; i < configured.size(); i++) {
+                    dbConfig.forShard(configured.get(i), i + 2);
+                }
+                dbConfig.setShards(configured);
+            }
+            if (db.containsKey("endpoints")) {
+                List<DatabaseConfig.TargetConfig> configured = parseEndpoints(db.get("endpoints"));
+                for (int i = 0; i < configured.size(); i++) {
+                    dbConfig.forEndpoint(configured.get(i), i + 2);
+                }
+                dbConfig.setEndpoints(configured);
+            }
         }
 
         // Update benchmark config
         if (newConfig.containsKey("benchmark")) {
             @SuppressWarnings("unchecked")
             Map<String, Object> bench = (Map<String, Object>) newConfig.get("benchmark");
+            if (bench.containsKey("workload")) {
+                benchConfig.setWorkload(WorkloadRegistry.get((String) bench.get("workload")).getName());
+            }
             if (bench.containsKey("warehouses")) benchConfig.setWarehouses(((Number) bench.get("warehouses")).intValue());
+            if (bench.containsKey("firstWarehouse")) benchConfig.setFirstWarehouse(((Number) bench.get("firstWarehouse")).intValue());
+            if (bench.containsKey("lastWarehouse")) benchConfig.setLastWarehouse(((Number) bench.get("lastWarehouse")).intValue());
             if (bench.containsKey("terminals")) benchConfig.setTerminals(((Number) bench.get("terminals")).intValue());
             if (bench.containsKey("duration")) benchConfig.setDuration(((Number) bench.get("duration")).intValue());
             if (bench.containsKey("thinkTime")) benchConfig.setThinkTime((Boolean) bench.get("thinkTime"));
             if (bench.containsKey("loadConcurrency")) benchConfig.setLoadConcurrency(((Number) bench.get("loadConcurrency")).intValue());
+            if (bench.containsKey("seed")) benchConfig.setSeed(((Number) bench.get("seed")).longValue());
+            if (bench.containsKey("executionMode")) {
+                ExecutionMode mode = ExecutionMode.fromString((String) bench.get("executionMode"));
+                benchConfig.setExecutionMode(mode.name().toLowerCase());
+            }
         }
 
-        // Update transaction mix
-        if (newConfig.containsKey("transactionMix")) {
+        applySettings(benchConfig, newConfig);
+
+        // Update record/replay settings
+        if (newConfig.containsKey("replay")) {
             @SuppressWarnings("unchecked")
-            Map<String, Object> mix = (Map<String, Object>) newConfig.get("transactionMix");
-            if (mix.containsKey("newOrder")) benchConfig.getMix().setNewOrder(((Number) mix.get("newOrder")).intValue());
-            if (mix.containsKey("payment")) benchConfig.getMix().setPayment(((Number) mix.get("payment")).intValue());
-            if (mix.containsKey("orderStatus")) benchConfig.getMix().setOrderStatus(((Number) mix.get("orderStatus")).intValue());
-            if (mix.containsKey("delivery")) benchConfig.getMix().setDelivery(((Number) mix.get("delivery")).intValue());
-            if (mix.containsKey("stockLevel")) benchConfig.getMix().setStockLevel(((Number) mix.get("stockLevel")).intValue());
+            Map<String, Object> replay = (Map<String, Object>) newConfig.get("replay");
+            if (replay.containsKey("record")) benchConfig.getReplay().setRecord((String) replay.get("record"));
+            if (replay.containsKey("file")) benchConfig.getReplay().setFile((String) replay.get("file"));
+            if (replay.containsKey("pacing")) {
+                benchConfig.getReplay().setPacing(ReplayPacing.fromString((String) replay.get("pacing")).name().toLowerCase());
+            }
+        }
+
+        // Update scenario file
+        if (newConfig.containsKey("scenario")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> scenarioConfig = (Map<String, Object>) newConfig.get("scenario");
+            if (scenarioConfig.containsKey("file")) benchConfig.getScenario().setFile((String) scenarioConfig.get("file"));
+        }
+
+        // Update distributed run settings
+        if (newConfig.containsKey("distributed")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> distributed = (Map<String, Object>) newConfig.get("distributed");
+            BenchmarkConfig.DistributedConfig dc = benchConfig.getDistributed();
+            if (distributed.containsKey("agents")) dc.setAgents(((Number) distributed.get("agents")).intValue());
+            if (distributed.containsKey("host")) dc.setHost((String) distributed.get("host"));
+            if (distributed.containsKey("port")) dc.setPort(((Number) distributed.get("port")).intValue());
+            if (distributed.containsKey("connectTimeout")) dc.setConnectTimeout(((Number) distributed.get("connectTimeout")).intValue());
+        }
+
+        // Update availability tracking
+        if (newConfig.containsKey("availability")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> avail = (Map<String, Object>) newConfig.get("availability");
+            BenchmarkConfig.AvailabilityConfig ac = benchConfig.getAvailability();
+            if (avail.containsKey("enabled")) ac.setEnabled((Boolean) avail.get("enabled"));
+            if (avail.containsKey("outageThresholdMs")) ac.setOutageThresholdMs(((Number) avail.get("outageThresholdMs")).intValue());
+            if (avail.containsKey("recoveryRatio")) {
+                double ratio = ((Number) avail.get("recoveryRatio")).doubleValue();
+                if (ratio < 0 || ratio > 1) {
+                    throw new IllegalArgumentException("Recovery ratio must be between 0 and 1: " + ratio);
+                }
+                ac.setRecoveryRatio(ratio);
+            }
+            if (avail.containsKey("backoffMs")) ac.setBackoffMs(((Number) avail.get("backoffMs")).intValue());
+        }
+
+        // Update short-connection mode
+        if (newConfig.containsKey("shortConnection")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> shortConnection = (Map<String, Object>) newConfig.get("shortConnection");
+            if (shortConnection.containsKey("every")) {
+                int every = ((Number) shortConnection.get("every")).intValue();
+                if (every < 0) {
+                    throw new IllegalArgumentException("Short connection interval must not be negative: " + every);
+                }
+                benchConfig.getShortConnection().setEvery(every);
+            }
+        }
+
+        // Update the schema profile, used by the next load
+        if (newConfig.containsKey("schema")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> schema = (Map<String, Object>) newConfig.get("schema");
+            if (schema.containsKey("profile")) {
+                String profile = (String) schema.get("profile");
+                // Rejects profiles the database does not offer
+                DatabaseFactory.create(dbConfig).getSchemaStatements(PhysicalDesign.of(profile, Partitioning.NONE, 1));
+                benchConfig.getSchema().setProfile(profile == null ? "" : profile.trim());
+            }
+        }
+
+        // Update the statement profile, used by the next run
+        if (newConfig.containsKey("statements")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> statements = (Map<String, Object>) newConfig.get("statements");
+            if (statements.containsKey("profile")) {
+                String profile = (String) statements.get("profile");
+                // Rejects profiles the database does not offer
+                StatementCatalog.of(DatabaseFactory.create(dbConfig), profile);
+                benchConfig.getStatements().setProfile(profile == null ? "" : profile.trim());
+            }
+        }
+
+        // Update schema partitioning, used by the next load
+        if (newConfig.containsKey("partition")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> partition = (Map<String, Object>) newConfig.get("partition");
+            BenchmarkConfig.PartitionConfig pc = benchConfig.getPartition();
+            if (partition.containsKey("count")) {
+                int count = ((Number) partition.get("count")).intValue();
+                if (count < 0) {
+                    throw new IllegalArgumentException("Partition count must not be negative: " + count);
+                }
+                pc.setCount(count);
+            }
+            if (partition.containsKey("method")) {
+                String method = (String) partition.get("method");
+                PartitionMethod.fromString(method);
+                pc.setMethod(method);
+            }
+        }
+
+        // Update endpoint balancing
+        if (newConfig.containsKey("balance")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> balance = (Map<String, Object>) newConfig.get("balance");
+            BenchmarkConfig.BalanceConfig bc = benchConfig.getBalance();
+            if (balance.containsKey("policy")) {
+                String policy = (String) balance.get("policy");
+                BalancePolicy.fromString(policy);
+                bc.setPolicy(policy);
+            }
+            if (balance.containsKey("ejectAfter")) {
+                int ejectAfter = ((Number) balance.get("ejectAfter")).intValue();
+                if (ejectAfter <= 0) {
+                    throw new IllegalArgumentException("Eject-after must be positive: " + ejectAfter);
+                }
+                bc.setEjectAfter(ejectAfter);
+            }
+            if (balance.containsKey("ejectMs")) bc.setEjectMs(((Number) balance.get("ejectMs")).intValue());
+        }
+
+        // Update replica routing
+        if (newConfig.containsKey("replica")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> replica = (Map<String, Object>) newConfig.get("replica");
+            BenchmarkConfig.ReplicaConfig rc = benchConfig.getReplica();
+            if (replica.containsKey("types")) rc.setTypes((String) replica.get("types"));
+            if (replica.containsKey("fraction")) {
+                double fraction = ((Number) replica.get("fraction")).doubleValue();
+                if (fraction < 0 || fraction > 1) {
+                    throw new IllegalArgumentException("Replica fraction must be between 0 and 1: " + fraction);
+                }
+                rc.setFraction(fraction);
+            }
+            if (replica.containsKey("readYourWritesMs")) rc.setReadYourWritesMs(((Number) replica.get("readYourWritesMs")).intValue());
+            if (replica.containsKey("lagIntervalMs")) rc.setLagIntervalMs(((Number) replica.get("lagIntervalMs")).intValue());
         }
 
         // Close existing adapter if config changed
@@ -146,6 +395,10 @@ public class BenchmarkEngine {
             adapter = null;
             status = "IDLE";
         }
+        closeTargets();
+        closeReplicas();
+        closeShards();
+        closeEndpoints();
 
         // Update SSH config
         if (newConfig.containsKey("ssh")) {
@@ -170,6 +423,61 @@ public class BenchmarkEngine {
         addLog("INFO", "Configuration updated");
     }
 
+    /**
+     * Apply the workload sections of a config update: mix, isolation, retry, and each workload's own section
+     * through {@link Workload#applySettings}. Scenario phases use the same sections to change settings during a run.
+     */
+    static void applySettings(BenchmarkConfig config, Map<String, Object> newConfig) {
+        // Update transaction mix
+        if (newConfig.containsKey("transactionMix")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> mix = (Map<String, Object>) newConfig.get("transactionMix");
+            if (mix.containsKey("newOrder")) config.getMix().setNewOrder(((Number) mix.get("newOrder")).intValue());
+            if (mix.containsKey("payment")) config.getMix().setPayment(((Number) mix.get("payment")).intValue());
+            if (mix.containsKey("orderStatus")) config.getMix().setOrderStatus(((Number) mix.get("orderStatus")).intValue());
+            if (mix.containsKey("delivery")) config.getMix().setDelivery(((Number) mix.get("delivery")).intValue());
+            if (mix.containsKey("stockLevel")) config.getMix().setStockLevel(((Number) mix.get("stockLevel")).intValue());
+        }
+
+        // Update per-type isolation and read-only flags
+        if (newConfig.containsKey("isolation")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> isolation = (Map<String, Object>) newConfig.get("isolation");
+            for (Map.Entry<String, Object> e : isolation.entrySet()) {
+                String value = e.getValue() == null ? null : IsolationLevel.fromString(e.getValue().toString()).name().toLowerCase();
+                if (e.getKey().equals("level")) {
+                    config.getIsolation().setLevel(value == null ? "default" : value);
+                } else {
+                    config.getIsolation().setForType(e.getKey(), value);
+                }
+            }
+        }
+        if (newConfig.containsKey("readOnly")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> readOnly = (Map<String, Object>) newConfig.get("readOnly");
+            readOnly.forEach((type, value) -> config.getReadOnly().setForType(type, (Boolean) value));
+        }
+
+        // Update retry policy
+        if (newConfig.containsKey("retry")) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> retry = (Map<String, Object>) newConfig.get("retry");
+            if (retry.containsKey("maxRetries")) config.getRetry().setMaxRetries(((Number) retry.get("maxRetries")).intValue());
+            if (retry.containsKey("backoffBaseMs")) config.getRetry().setBackoffBaseMs(((Number) retry.get("backoffBaseMs")).longValue());
+            if (retry.containsKey("backoffMaxMs")) config.getRetry().setBackoffMaxMs(((Number) retry.get("backoffMaxMs")).longValue());
+        }
+
+        // Update each workload's own section
+        for (Workload workload : WorkloadRegistry.getAll()) {
+            String key = workload.getSettingsKey();
+            if (key != null && newConfig.containsKey(key)) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> settings = (Map<String, Object>) newConfig.get(key);
+                workload.applySettings(config, settings);
+            }
+        }
+    }
+
     public void initialize() throws SQLException {
         status = "INITIALIZING";
         addLog("INFO", "Initializing database connection...");
@@ -180,8 +488,9 @@ public class BenchmarkEngine {
             adapter = null;
         }
 
+        poolsRewriteBatches = isBatched();
         try {
-            adapter = DatabaseFactory.create(dbConfig);
+            adapter = createAdapter(dbConfig);
             adapter.initialize();
             status = "INITIALIZED";
             addLog("INFO", "Database connection initialized successfully");
@@ -190,11 +499,262 @@ public class BenchmarkEngine {
             status = "ERROR";
             throw new SQLException("Failed to initialize database connection: " + e.getMessage(), e);
         }
+        initializeTargets();
+        initializeReplicas();
+        initializeShards();
+        initializeEndpoints();
 
         // Initialize SSH metrics collector if enabled
         connectSshCollector();
     }
 
+    /**
+     * An adapter whose pool suits the execution mode: only the batched mode lets the driver rewrite batches.
+     */
+    private DatabaseAdapter createAdapter(DatabaseConfig config) {
+        DatabaseAdapter created = DatabaseFactory.create(config);
+        created.setRewriteBatches(poolsRewriteBatches);
+        return created;
+    }
+
+    private boolean isBatched() {
+        return ExecutionMode.fromString(benchConfig.getExecutionMode()) == ExecutionMode.BATCHED;
+    }
+
+    /**
+     * Connect the databases compared against the main one, each with its own pool.
+     */
+    private void initializeTargets() throws SQLException {
+        closeTargets();
+        Set<String> names = new HashSet<>(List.of(dbConfig.getTargetName()));
+        List<DatabaseConfig.TargetConfig> configured = dbConfig.getTargets();
+        for (int i = 0; i < configured.size(); i++) {
+            DatabaseConfig config = dbConfig.forTarget(configured.get(i), i + 2);
+            if (!names.add(config.getName())) {
+                closeTargets();
+                throw new IllegalArgumentException("Duplicate target name: " + config.getName());
+            }
+            addLog("INFO", String.format("Target %s: %s, URL: %s", config.getName(), config.getType(), config.getJdbcUrl()));
+            DatabaseAdapter target = createAdapter(config);
+            try {
+                target.initialize();
+            } catch (Exception e) {
+                target.close();
+                closeTargets();
+                status = "ERROR";
+                throw new SQLException("Failed to initialize target " + config.getName() + ": " + e.getMessage(), e);
+            }
+            targets.add(new Target(config.getName(), target, new MetricsRegistry()));
+        }
+    }
+
+    /**
+     * Connect the read replicas of the main database, each with its own pool.
+     */
+    private void initializeReplicas() throws SQLException {
+        closeReplicas();
+        List<DatabaseConfig.TargetConfig> configured = dbConfig.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            DatabaseConfig config = dbConfig.forReplica(configured.get(i), i + 1);
+            addLog("INFO", String.format("Replica %s: %s, URL: %s", config.getName(), config.getType(), config.getJdbcUrl()));
+            DatabaseAdapter replica = createAdapter(config);
+            try {
+                replica.initialize();
+            } catch (Exception e) {
+                replica.close();
+                closeReplicas();
+                status = "ERROR";
+                throw new SQLException("Failed to initialize replica " + config.getName() + ": " + e.getMessage(), e);
+            }
+            replicas.add(new ReplicaRouter.Endpoint(config.getName(), replica));
+        }
+    }
+
+    /**
+     * Connect the further shards, each with its own pool.
+     */
+    private void initializeShards() throws SQLException {
+        closeShards();
+        List<DatabaseConfig.TargetConfig> configured = dbConfig.getShards();
+        if (!configured.isEmpty() && (!dbConfig.getTargets().isEmpty() || !dbConfig.getReplicas().isEmpty())) {
+            throw new IllegalArgumentException("Shards cannot be combined with multiple targets or read replicas");
+        }
+        Set<String> names = new HashSet<>(List.of(dbConfig.getShardName()));
+        for (int i = 0; i < configured.size(); i++) {
+            DatabaseConfig config = dbConfig.forShard(configured.get(i), i + 2);
+            if (!names.add(config.getName())) {
+                closeShards();
+                throw new IllegalArgumentException("Duplicate shard name: " + config.getName());
+            }
+            addLog("INFO", String.format("Shard %s: %s, URL: %s", config.getName(), config.getType(), config.getJdbcUrl()));
+            DatabaseAdapter shard = createAdapter(config);
+            try {
+                shard.initialize();
+            } catch (Exception e) {
+                shard.close();
+                closeShards();
+                status = "ERROR";
+                throw new SQLException("Failed to initialize shard " + config.getName() + ": " + e.getMessage(), e);
+            }
+            shards.put(config.getName(), shard);
+        }
+    }
+
+    private void closeShards() {
+        shards.values().forEach(DatabaseAdapter::close);
+        shards.clear();
+    }
+
+    /**
+     * Connect the further SQL endpoints of the main database, each with its own pool.
+     */
+    private void initializeEndpoints() throws SQLException {
+        closeEndpoints();
+        List<DatabaseConfig.TargetConfig> configured = dbConfig.getEndpoints();
+        if (!configured.isEmpty() && (!dbConfig.getTargets().isEmpty() || !dbConfig.getReplicas().isEmpty()
+                || !dbConfig.getShards().isEmpty())) {
+            throw new IllegalArgumentException("Endpoints cannot be combined with multiple targets, read replicas or shards");
+        }
+        Set<String> names = new HashSet<>(List.of(dbConfig.getEndpointName()));
+        for (int i = 0; i < configured.size(); i++) {
+            DatabaseConfig config = dbConfig.forEndpoint(configured.get(i), i + 2);
+            if (!names.add(config.getName())) {
+                closeEndpoints();
+                throw new IllegalArgumentException("Duplicate endpoint name: " + config.getName());
+            }
+            addLog("INFO", String.format("Endpoint %s: %s, URL: %s", config.getName(), config.getType(), config.getJdbcUrl()));
+            DatabaseAdapter endpoint = createAdapter(config);
+            try {
+                endpoint.initialize();
+            } catch (Exception e) {
+                endpoint.close();
+                closeEndpoints();
+                status = "ERROR";
+                throw new SQLException("Failed to initialize endpoint " + config.getName() + ": " + e.getMessage(), e);
+            }
+            endpoints.put(config.getName(), endpoint);
+        }
+    }
+
+    private void closeEndpoints() {
+        endpoints.values().forEach(DatabaseAdapter::close);
+        endpoints.clear();
+    }
+
+    /**
+     * A balancer over the main endpoint and the further ones, or null without further endpoints.
+     */
+    private EndpointBalancer createBalancer() {
+        if (endpoints.isEmpty()) {
+            return null;
+        }
+        List<EndpointBalancer.Node> nodes = new ArrayList<>(List.of(new EndpointBalancer.Node(dbConfig.getEndpointName(), adapter)));
+        endpoints.forEach((name, endpoint) -> nodes.add(new EndpointBalancer.Node(name, endpoint)));
+        BenchmarkConfig.BalanceConfig bc = benchConfig.getBalance();
+        return new EndpointBalancer(nodes, BalancePolicy.fromString(bc.getPolicy()), bc.getEjectAfter(), bc.getEjectMs(), this::addLog);
+    }
+
+    /**
+     * The main database and the further shards over all warehouses in contiguous ranges, or null without shards.
+     */
+    private ShardRouter createShardRouter() {
+        if (shards.isEmpty()) {
+            return null;
+        }
+        List<String> names = new ArrayList<>(List.of(dbConfig.getShardName()));
+        List<DatabaseAdapter> adapters = new ArrayList<>(List.of(adapter));
+        shards.forEach((name, shard) -> {
+            names.add(name);
+            adapters.add(shard);
+        });
+        return ShardRouter.split(names, adapters, benchConfig.getWarehouses());
+    }
+
+    /**
+     * Loader of one shard's warehouses; throws for a workload that cannot be sharded.
+     */
+    private static WorkloadLoader createShardLoader(Workload workload, BenchmarkConfig config, ShardRouter.Shard shard) {
+        WorkloadLoader loader = workload.createShardLoader(shard.adapter(), config, shard.firstWarehouse(), shard.lastWarehouse());
+        if (loader == null) {
+            throw new IllegalArgumentException("The " + workload.getName() + " workload cannot be sharded by warehouse");
+        }
+        return loader;
+    }
+
+    /**
+     * Loader of the main database: all of the data, or the first shard's warehouses in a sharded run.
+     */
+    private WorkloadLoader createMainLoader(Workload workload) {
+        ShardRouter router = createShardRouter();
+        return router == null ? workload.createLoader(adapter, benchConfig)
+                : createShardLoader(workload, benchConfig, router.getShards().get(0));
+    }
+
+    /**
+     * Probe the replicas' lag on connections of its own; a probe that cannot start is reported, not fatal.
+     */
+    private void startLagMonitor() {
+        int interval = benchConfig.getReplica().getLagIntervalMs();
+        if (interval <= 0 || replicas.isEmpty()) {
+            return;
+        }
+        Map<String, DatabaseAdapter> probed = new LinkedHashMap<>();
+        replicas.forEach(r -> probed.put(r.name(), r.adapter()));
+        ReplicationLagMonitor monitor = new ReplicationLagMonitor(adapter, probed, interval, this::addLog);
+        try {
+            monitor.start();
+            lagMonitor = monitor;
+            addLog("INFO", String.format("Replication lag probe: heartbeat every %dms on %d replica(s)", interval, probed.size()));
+        } catch (SQLException e) {
+            monitor.stop();
+            addLog("WARN", "Replication lag probe not started: " + e.getMessage());
+        }
+    }
+
+    private void closeReplicas() {
+        for (ReplicaRouter.Endpoint replica : replicas) {
+            replica.adapter().close();
+        }
+        replicas.clear();
+    }
+
+    /**
+     * Route the read-only types to the replicas, or null without replicas. Called after prepare(), which may
+     * add read-only types (e.g. template transactions flagged readOnly).
+     */
+    private ReplicaRouter createReplicaRouter(Workload workload, TransactionOptions options) {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        BenchmarkConfig.ReplicaConfig rc = benchConfig.getReplica();
+        Set<String> types = new TreeSet<>();
+        if (rc.getTypes() != null && !rc.getTypes().isBlank()) {
+            for (String type : rc.getTypes().split(",")) {
+                String wanted = type.trim().replace('-', '_');
+                String name = workload.getTransactionNames().stream()
+                        .filter(n -> n.replace('-', '_').equalsIgnoreCase(wanted))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown " + workload.getName()
+                                + " transaction type for replicas: " + type.trim()));
+                types.add(name);
+            }
+        } else {
+            types.addAll(workload.getReadOnlyTransactionNames());
+            types.addAll(options.getReadOnlyTransactions());
+        }
+        // Replicas cannot be combined with targets, so an unnamed database is simply the primary
+        String primary = dbConfig.getName() == null || dbConfig.getName().isBlank() ? "primary" : dbConfig.getName();
+        return new ReplicaRouter(new ReplicaRouter.Endpoint(primary, adapter), replicas, types,
+                rc.getFraction(), rc.getReadYourWritesMs());
+    }
+
+    private void closeTargets() {
+        for (Target target : targets) {
+            target.adapter().close();
+        }
+        targets.clear();
+    }
+
     private void connectSshCollector() {
         // Disconnect existing
         if (sshCollector != null) {
@@ -220,10 +780,10 @@ public class BenchmarkEngine {
     }
 
     /**
-     * Ensure database connection is initialized
+     * Ensure database connection is initialized, with pools set up for the current execution mode
      */
     private void ensureInitialized() throws SQLException {
-        if (adapter == null || !isAdapterReady()) {
+        if (adapter == null || !isAdapterReady() || poolsRewriteBatches != isBatched()) {
             initialize();
         }
     }
@@ -243,20 +803,12 @@ public class BenchmarkEngine {
     }
 
     /**
-     * Check if TPC-C data has been loaded
+     * The configured workload
      */
-    private boolean isDataLoaded() {
-        try (var conn = adapter.getConnection();
-             var stmt = conn.createStatement();
-             var rs = stmt.executeQuery("SELECT COUNT(*) FROM warehouse")) {
-            if (rs.next()) {
-                return rs.getInt(1) > 0;
-            }
-        } catch (Exception e) {
-            // Table doesn't exist or other error
-            return false;
-        }
-        return false;
+    public Workload getWorkload() {
+        Workload workload = WorkloadRegistry.get(benchConfig.getWorkload());
+        workload.configure(benchConfig);
+        return workload;
     }
 
     /**
@@ -273,20 +825,24 @@ public class BenchmarkEngine {
         status = "LOADING";
 
         try {
+            Workload workload = getWorkload();
+            WorkloadLoader loader = createMainLoader(workload);
             progressCallback.accept("Dropping existing schema...");
-            adapter.dropSchema();
+            workload.dropSchema(adapter, benchConfig);
 
             progressCallback.accept("Creating schema...");
-            adapter.createSchema();
+            workload.createSchema(adapter, benchConfig);
+            loadedSchema = new LoadedSchema(workload.getName(), workload.describeSchema(adapter, benchConfig));
 
-            TPCCLoader loader = new TPCCLoader(adapter, benchConfig.getWarehouses(), benchConfig.getLoadConcurrency());
             currentLoader = loader;
             loader.setProgressCallback(progressCallback);
             loader.load();
             currentLoader = null;
 
             progressCallback.accept("Creating indexes...");
-            adapter.createIndexes();
+            workload.createIndexes(adapter, benchConfig);
+            loadTargets(workload, progressCallback);
+            loadShards(workload, progressCallback);
 
             status = "LOADED";
             progressCallback.accept("Data load completed successfully");
@@ -315,36 +871,32 @@ public class BenchmarkEngine {
         CompletableFuture.runAsync(() -> {
             try {
                 status = "LOADING";
-                addLog("INFO", String.format("Starting TPC-C data load for %d warehouse(s) with %d threads",
-                        benchConfig.getWarehouses(), benchConfig.getLoadConcurrency()));
+                Workload workload = getWorkload();
+                addLog("INFO", String.format("Starting %s data load (%d warehouse(s)/scale, %d threads)",
+                        workload.getName(), benchConfig.getWarehouses(), benchConfig.getLoadConcurrency()));
 
+                WorkloadLoader loader = createMainLoader(workload);
                 broadcastLoadProgress(0, "Dropping existing schema...");
-                adapter.dropSchema();
+                workload.dropSchema(adapter, benchConfig);
 
                 broadcastLoadProgress(5, "Creating schema...");
-                adapter.createSchema();
+                workload.createSchema(adapter, benchConfig);
+                loadedSchema = new LoadedSchema(workload.getName(), workload.describeSchema(adapter, benchConfig));
                 addLog("INFO", "Schema created successfully");
 
-                TPCCLoader loader = new TPCCLoader(adapter, benchConfig.getWarehouses(), benchConfig.getLoadConcurrency());
                 currentLoader = loader;
                 loader.setProgressCallback(msg -> {
                     addLog("INFO", msg);
-                    // Parse progress from message
                     if (msg.contains("Items loaded")) {
                         broadcastLoadProgress(15, msg);
-                    } else if (msg.contains("Warehouse") && msg.contains("completed")) {
-                        // Extract progress from "Warehouse X completed (Y/Z)"
-                        try {
-                            int start = msg.indexOf("(") + 1;
-                            int mid = msg.indexOf("/");
-                            int end = msg.indexOf(")");
-                            int completed = Integer.parseInt(msg.substring(start, mid));
-                            int total = Integer.parseInt(msg.substring(mid + 1, end));
-                            int progress = 15 + (int) ((completed * 80.0) / total);
-                            broadcastLoadProgress(progress, msg);
-                        } catch (Exception e) {
-                            broadcastLoadProgress(loadProgress, msg);
-                        }
+                        return;
+                    }
+                    // Messages ending in "(done/total)" advance the bar from 15% to 95%
+                    Matcher m = LOAD_PROGRESS.matcher(msg);
+                    if (m.find() && Integer.parseInt(m.group(2)) > 0) {
+                        int completed = Integer.parseInt(m.group(1));
+                        int total = Integer.parseInt(m.group(2));
+                        broadcastLoadProgress(15 + (int) ((completed * 80.0) / total), msg);
                     } else {
                         broadcastLoadProgress(loadProgress, msg);
                     }
@@ -354,7 +906,15 @@ public class BenchmarkEngine {
 
                 broadcastLoadProgress(95, "Creating indexes...");
                 addLog("INFO", "Creating indexes...");
-                adapter.createIndexes();
+                workload.createIndexes(adapter, benchConfig);
+                loadTargets(workload, msg -> {
+                    addLog("INFO", msg);
+                    broadcastLoadProgress(95, msg);
+                });
+                loadShards(workload, msg -> {
+                    addLog("INFO", msg);
+                    broadcastLoadProgress(95, msg);
+                });
 
                 broadcastLoadProgress(100, "Data load completed");
                 status = "LOADED";
@@ -383,6 +943,45 @@ public class BenchmarkEngine {
         });
     }
 
+    /**
+     * Load the same data into every compared target, after the main database.
+     */
+    private void loadTargets(Workload workload, Consumer<String> progress) throws SQLException {
+        for (Target target : targets) {
+            progress.accept("Loading target " + target.name() + "...");
+            workload.dropSchema(target.adapter(), benchConfig);
+            workload.createSchema(target.adapter(), benchConfig);
+            WorkloadLoader loader = workload.createLoader(target.adapter(), benchConfig);
+            currentLoader = loader;
+            loader.setProgressCallback(msg -> progress.accept("[" + target.name() + "] " + msg));
+            loader.load();
+            currentLoader = null;
+            workload.createIndexes(target.adapter(), benchConfig);
+        }
+    }
+
+    /**
+     * Load every shard after the main one with its own warehouses; each gets the full item table.
+     */
+    private void loadShards(Workload workload, Consumer<String> progress) throws SQLException {
+        ShardRouter router = createShardRouter();
+        if (router == null) {
+            return;
+        }
+        for (ShardRouter.Shard shard : router.getShards().subList(1, router.getShards().size())) {
+            progress.accept(String.format("Loading shard %s (warehouses %d-%d)...", shard.name(),
+                    shard.firstWarehouse(), shard.lastWarehouse()));
+            workload.dropSchema(shard.adapter(), benchConfig);
+            workload.createSchema(shard.adapter(), benchConfig);
+            WorkloadLoader loader = createShardLoader(workload, benchConfig, shard);
+            currentLoader = loader;
+            loader.setProgressCallback(msg -> progress.accept("[" + shard.name() + "] " + msg));
+            loader.load();
+            currentLoader = null;
+            workload.createIndexes(shard.adapter(), benchConfig);
+        }
+    }
+
     /**
      * Cancel the current data loading process
      */
@@ -429,8 +1028,15 @@ public class BenchmarkEngine {
 
         ensureInitialized();
 
-        addLog("INFO", "Cleaning TPC-C data...");
-        adapter.dropSchema();
+        Workload workload = getWorkload();
+        addLog("INFO", "Cleaning " + workload.getName() + " data...");
+        workload.dropSchema(adapter, benchConfig);
+        for (Target target : targets) {
+            workload.dropSchema(target.adapter(), benchConfig);
+        }
+        for (DatabaseAdapter shard : shards.values()) {
+            workload.dropSchema(shard, benchConfig);
+        }
         status = "INITIALIZED";
         addLog("INFO", "Data cleaned successfully");
     }
@@ -443,114 +1049,1094 @@ public class BenchmarkEngine {
 
         ensureInitialized();
 
+        Scenario run = loadScenario();
+        if (run != null) {
+            validateScenario(run);
+            applyPhaseConfig(run.phases().get(0));
+        }
+
+        Workload workload = getWorkload();
+
         // Check if data is loaded
-        if (!isDataLoaded()) {
-            throw new IllegalStateException("No TPC-C data found. Please load data first.");
+        if (!workload.isLoaded(adapter)) {
+            throw new IllegalStateException("No " + workload.getName() + " data found. Please load data first.");
+        }
+        if (!targets.isEmpty()) {
+            if (!replicas.isEmpty()) {
+                throw new IllegalArgumentException("Read replicas cannot be combined with multiple targets");
+            }
+            if (benchConfig.getShortConnection().getEvery() > 0) {
+                throw new IllegalArgumentException("Short connections cannot be combined with multiple targets");
+            }
+            if (run != null || isSet(benchConfig.getReplay().getRecord()) || isSet(benchConfig.getReplay().getFile())
+                    || benchConfig.getDistributed().getAgents() > 0) {
+                throw new IllegalArgumentException("Scenarios, record/replay and distributed runs cannot be combined with multiple targets");
+            }
+            for (Target target : targets) {
+                if (!workload.isLoaded(target.adapter())) {
+                    throw new IllegalStateException("No " + workload.getName() + " data found on target " + target.name()
+                            + ". Please load data first.");
+                }
+            }
+        }
+
+        ShardRouter sharding = createShardRouter();
+        if (sharding != null) {
+            // Fails for a workload that cannot be sharded
+            createShardLoader(workload, benchConfig, sharding.getShards().get(0));
+            for (ShardRouter.Shard shard : sharding.getShards()) {
+                if (!workload.isLoaded(shard.adapter())) {
+                    throw new IllegalStateException("No " + workload.getName() + " data found on shard " + shard.name()
+                            + ". Please load data first.");
+                }
+            }
+        }
+
+        controller = null;
+        shardRouter = null;
+        balancer = null;
+        connections = null;
+        connectionSample = Map.of();
+        if (benchConfig.getDistributed().getAgents() > 0) {
+            startDistributed(workload, run);
+            return;
         }
 
+        int every = benchConfig.getShortConnection().getEvery();
+        connections = every > 0 ? new ConnectionTracker(every) : null;
+        TransactionOptions options = buildOptions(workload);
+        runSeed = benchConfig.getSeed() != 0 ? Long.valueOf(benchConfig.getSeed())
+                : targets.isEmpty() ? null : Long.valueOf(ThreadLocalRandom.current().nextLong());
+        // Terminals keep the run state (key sequences, growth tracking) of the prepare() before them, so every
+        // target gets its own; the main database is prepared last and the workload's results describe it
+        List<TerminalSlot> targetSlots = new ArrayList<>();
+        for (Target target : targets) {
+            workload.prepare(target.adapter(), benchConfig, options);
+            for (int i = 0; i < workload.getTerminalCount(benchConfig); i++) {
+                targetSlots.add(new TerminalSlot(i, workload.createTerminal(target.adapter(), benchConfig, options, i),
+                        target.registry(), seedOf(i)));
+            }
+        }
+        prepareWorkload(workload, sharding, options);
+        options.setReplicaRouter(createReplicaRouter(workload, options));
+        options.setShardRouter(sharding);
+        shardRouter = sharding;
+        EndpointBalancer balancing = createBalancer();
+        options.setEndpointBalancer(balancing);
+        balancer = balancing;
+        long startNanos = System.nanoTime();
+        ReplayCodec replayCodec = openReplay(workload, startNanos);
+
         running.set(true);
         status = "RUNNING";
         metricsRegistry.reset();
+        scenario = run;
+        currentPhase.set(null);
+        phaseResults.clear();
+        comparison = null;
+        targetSample = List.of();
+        lagMonitor = null;
+        lagSample = Map.of();
+        BenchmarkConfig.AvailabilityConfig ac = benchConfig.getAvailability();
+        availability = ac.isEnabled() ? new AvailabilityTracker(ac.getOutageThresholdMs(), ac.getRecoveryRatio(), this::addLog) : null;
+        availabilitySample = Map.of();
+        if (!targets.isEmpty()) {
+            Map<String, MetricsRegistry> registries = new LinkedHashMap<>();
+            registries.put(dbConfig.getTargetName(), metricsRegistry);
+            for (Target target : targets) {
+                target.registry().reset();
+                registries.put(target.name(), target.registry());
+            }
+            comparison = new TargetComparison(registries);
+        }
 
         // Set error callback for transactions
-        AbstractTransaction.setErrorCallback(this::addLog);
-
-        int terminals = benchConfig.getTerminals();
-        executorService = Executors.newFixedThreadPool(terminals);
-        metricsScheduler = Executors.newSingleThreadScheduledExecutor();
-
-        addLog("INFO", String.format("Starting benchmark with %d terminals for %d seconds", terminals, benchConfig.getDuration()));
-        addLog("INFO", String.format("Transaction mix: NewOrder=%d%%, Payment=%d%%, OrderStatus=%d%%, Delivery=%d%%, StockLevel=%d%%",
-                benchConfig.getMix().getNewOrder(), benchConfig.getMix().getPayment(),
-                benchConfig.getMix().getOrderStatus(), benchConfig.getMix().getDelivery(),
-                benchConfig.getMix().getStockLevel()));
+        JdbcTransaction.setErrorCallback(this::addLog);
+
+        int terminals = replayLog != null ? replayLog.getTerminalCount() : workload.getTerminalCount(benchConfig);
+        executorService = Executors.newCachedThreadPool();
+        // A second thread keeps availability tracking going while a metrics query waits on a dead database
+        metricsScheduler = availability != null ? Executors.newScheduledThreadPool(2) : Executors.newSingleThreadScheduledExecutor();
+
+        if (run != null) {
+            addLog("INFO", String.format("Starting scenario %s: %d phases, %d seconds (%s mode)", run.name(),
+                    run.phases().size(), run.getDuration(), options.getExecutionMode().name().toLowerCase()));
+        } else {
+            addLog("INFO", String.format("Starting %s benchmark with %d terminals for %d seconds (%s mode)",
+                    workload.getName(), terminals, benchConfig.getDuration(), options.getExecutionMode().name().toLowerCase()));
+        }
+        addLog("INFO", "Transaction mix: " + workload.describeMix(benchConfig));
+        if (!targets.isEmpty()) {
+            List<String> names = new ArrayList<>(List.of(dbConfig.getTargetName()));
+            targets.forEach(t -> names.add(t.name()));
+            addLog("INFO", "Targets: " + String.join(", ", names) + " (baseline " + names.get(0) + ")");
+        }
+        if (runSeed != null) {
+            addLog("INFO", "Input seed: " + runSeed);
+        }
+        addLog("INFO", "Isolation: " + describeIsolation(workload, options));
+        ReplicaRouter router = options.getReplicaRouter();
+        if (router != null) {
+            BenchmarkConfig.ReplicaConfig rc = benchConfig.getReplica();
+            addLog("INFO", String.format("Replica routing: %s to %d replica(s), fraction %.2f%s", router.getReadTypes(),
+                    router.getReplicas().size(), rc.getFraction(),
+                    rc.getReadYourWritesMs() > 0 ? ", read-your-writes " + rc.getReadYourWritesMs() + "ms" : ""));
+        }
+        if (sharding != null) {
+            StringBuilder map = new StringBuilder();
+            for (ShardRouter.Shard shard : sharding.getShards()) {
+                map.append(map.length() > 0 ? ", " : "").append(String.format("%s=%d-%d", shard.name(),
+                        shard.firstWarehouse(), shard.lastWarehouse()));
+            }
+            addLog("INFO", "Shards by warehouse: " + map);
+        }
+        if (balancing != null) {
+            BenchmarkConfig.BalanceConfig bc = benchConfig.getBalance();
+            addLog("INFO", String.format("Endpoints: %s over %s, out of rotation for %dms after %d connection errors",
+                    balancing.getPolicy().getLabel(),
+                    String.join(", ", balancing.getNodes().stream().map(EndpointBalancer.Node::name).toList()),
+                    bc.getEjectMs(), bc.getEjectAfter()));
+        }
+        if (connections != null) {
+            addLog("INFO", every == 1 ? "Short connections: a new connection for every transaction"
+                    : String.format("Short connections: a new connection for every %d transactions of a terminal", every));
+        }
+        startLagMonitor();
+        addLog("INFO", String.format("Retry policy: maxRetries=%d, backoff=%d-%dms",
+                options.getRetryPolicy().getMaxRetries(), options.getRetryPolicy().getBackoffBaseMs(),
+                options.getRetryPolicy().getBackoffMaxMs()));
 
         // Broadcast status change
         broadcastStatusChange("RUNNING");
 
         // Start metrics collection
         metricsScheduler.scheduleAtFixedRate(this::collectAndBroadcastMetrics, 1, 1, TimeUnit.SECONDS);
+        metricsScheduler.scheduleAtFixedRate(this::sampleWorkload, 1, 1, TimeUnit.SECONDS);
+        if (availability != null) {
+            addLog("INFO", String.format("Availability tracking: outage after %dms without success, recovered at %.0f%% of the throughput before it",
+                    ac.getOutageThresholdMs(), ac.getRecoveryRatio() * 100));
+            metricsScheduler.scheduleAtFixedRate(this::trackAvailability, 1, 1, TimeUnit.SECONDS);
+        }
 
         // Start terminal workers
-        for (int i = 0; i < terminals; i++) {
-            int terminalId = i + 1;
-            int warehouseId = (i % benchConfig.getWarehouses()) + 1;
-            int districtId = (i % TPCCUtil.DISTRICTS_PER_WAREHOUSE) + 1;
-            executorService.submit(() -> runTerminal(terminalId, warehouseId, districtId));
+        thinkTime = benchConfig.isThinkTime() && workload.usesThinkTime();
+        Double rate = run != null ? run.phases().get(0).rate() : null;
+        rateLimiter = rate != null && rate > 0 ? new RateLimiter(rate) : null;
+        activeTerminals.set(0);
+        paused = false;
+        startGate = targets.isEmpty() ? null : new CountDownLatch(1);
+        synchronized (slots) {
+            slots.clear();
+            for (int i = 0; i < terminals; i++) {
+                WorkloadTerminal terminal;
+                if (replayLog != null) {
+                    terminal = new ReplayTerminal(replayLog.stream(i), replayCodec, adapter, options,
+                            ReplayPacing.fromString(benchConfig.getReplay().getPacing()), startNanos);
+                } else {
+                    terminal = workload.createTerminal(adapter, benchConfig, options, i);
+                    if (recorder != null) {
+                        terminal = new RecordingTerminal(terminal, recorder, replayCodec, i);
+                    }
+                }
+                startTerminal(new TerminalSlot(i, terminal, metricsRegistry, seedOf(i)));
+            }
+            targetSlots.forEach(this::launch);
+        }
+        if (startGate != null) {
+            startGate.countDown();
         }
 
-        // Schedule stop
-        metricsScheduler.schedule(this::stop, benchConfig.getDuration(), TimeUnit.SECONDS);
+        if (run != null) {
+            beginPhase(1, run.phases().get(0), workload);
+            executorService.submit(() -> runScenario(run, startNanos));
+        } else {
+            // Schedule stop
+            metricsScheduler.schedule(this::stop, benchConfig.getDuration(), TimeUnit.SECONDS);
+        }
     }
 
-    private void runTerminal(int terminalId, int warehouseId, int districtId) {
-        Random random = new Random();
-        int[] weights = {
-            benchConfig.getMix().getNewOrder(),
-            benchConfig.getMix().getPayment(),
-            benchConfig.getMix().getOrderStatus(),
-            benchConfig.getMix().getDelivery(),
-            benchConfig.getMix().getStockLevel()
-        };
-        int totalWeight = Arrays.stream(weights).sum();
-
-        while (running.get()) {
-            // Select transaction based on mix
-            int r = random.nextInt(totalWeight);
-            int cumulative = 0;
-            int txType = 0;
-            for (int i = 0; i < weights.length; i++) {
-                cumulative += weights[i];
-                if (r < cumulative) {
-                    txType = i;
-                    break;
-                }
-            }
-
-            AbstractTransaction tx = switch (txType) {
-                case 0 -> new NewOrderTransaction(adapter, warehouseId, districtId);
-                case 1 -> new PaymentTransaction(adapter, warehouseId, districtId);
-                case 2 -> new OrderStatusTransaction(adapter, warehouseId, districtId);
-                case 3 -> new DeliveryTransaction(adapter, warehouseId, districtId);
-                case 4 -> new StockLevelTransaction(adapter, warehouseId, districtId);
-                default -> new NewOrderTransaction(adapter, warehouseId, districtId);
-            };
+    /**
+     * Run the terminals on agent processes and merge what they report into this registry.
+     */
+    private void startDistributed(Workload workload, Scenario run) {
+        BenchmarkConfig.ReplayConfig replay = benchConfig.getReplay();
+        if (run != null || (replay.getRecord() != null && !replay.getRecord().isBlank())
+                || (replay.getFile() != null && !replay.getFile().isBlank())) {
+            throw new IllegalArgumentException("Scenarios and record/replay cannot be combined with a distributed run");
+        }
+        DistributedController distributed = new DistributedController(benchConfig, getAgentConfig(), metricsRegistry, this::addLog);
 
-            long startTime = System.nanoTime();
-            boolean success = tx.execute();
-            long latency = System.nanoTime() - startTime;
+        running.set(true);
+        status = "RUNNING";
+        metricsRegistry.reset();
+        scenario = null;
+        currentPhase.set(null);
+        phaseResults.clear();
+        controller = distributed;
+        executorService = Executors.newCachedThreadPool();
+        metricsScheduler = Executors.newSingleThreadScheduledExecutor();
 
-            metricsRegistry.recordTransaction(tx.getName(), success, latency);
+        addLog("INFO", String.format("Starting distributed %s benchmark with %d terminals on %d agents for %d seconds",
+                workload.getName(), benchConfig.getTerminals(), benchConfig.getDistributed().getAgents(), benchConfig.getDuration()));
+        addLog("INFO", "Transaction mix: " + workload.describeMix(benchConfig));
+        if (benchConfig.getWarehouses() < benchConfig.getDistributed().getAgents()) {
+            addLog("WARN", "Fewer warehouses than agents: some agents share a warehouse");
+        }
+        broadcastStatusChange("RUNNING");
+        metricsScheduler.scheduleAtFixedRate(this::collectAndBroadcastMetrics, 1, 1, TimeUnit.SECONDS);
 
-            // Think time
-            if (benchConfig.isThinkTime()) {
-                try {
-                    Thread.sleep(random.nextInt(100) + 50);
+        executorService.submit(() -> {
+            try {
+                distributed.run();
+            } catch (Exception e) {
+                addLog("ERROR", "Distributed run failed: " + e.getMessage());
+            } finally {
+                try {
+                    metricsScheduler.execute(this::stop);
+                } catch (RejectedExecutionException e) {
+                    // Already stopping
+                }
+            }
+        });
+    }
+
+    /**
+     * Settings sent to every agent of a distributed run; the controller adds each agent's share.
+     */
+    private Map<String, Object> getAgentConfig() {
+        Map<String, Object> config = getConfig();
+        config.keySet().removeAll(List.of("database", "replay", "scenario", "distributed", "ssh"));
+        return config;
+    }
+
+    /**
+     * Start a new reporting interval and return the registry of the one that ended (null the first
+     * time). Transactions are recorded into it next to the run's own metrics; used by distributed agents.
+     */
+    public MetricsRegistry nextInterval() {
+        MetricsRegistry next = new MetricsRegistry();
+        next.reset();
+        return interval.getAndSet(next);
+    }
+
+    private TransactionOptions buildOptions(Workload workload) {
+        TransactionOptions options = new TransactionOptions();
+        options.setExecutionMode(ExecutionMode.fromString(benchConfig.getExecutionMode()));
+        options.setRetryPolicy(new RetryPolicy(benchConfig.getRetry().getMaxRetries(),
+                benchConfig.getRetry().getBackoffBaseMs(), benchConfig.getRetry().getBackoffMaxMs()));
+        for (String name : workload.getTransactionNames()) {
+            options.getIsolationLevels().put(name, IsolationLevel.fromString(benchConfig.getIsolation().getEffective(name)));
+            if (benchConfig.getReadOnly().isReadOnly(name)) {
+                options.getReadOnlyTransactions().add(name);
+            }
+        }
+        options.setShortConnections(connections);
+        workload.configureOptions(benchConfig, options);
+        return options;
+    }
+
+    private void startTerminal(TerminalSlot slot) {
+        slots.add(slot);
+        launch(slot);
+    }
+
+    private void launch(TerminalSlot slot) {
+        activeTerminals.incrementAndGet();
+        executorService.submit(() -> runTerminal(slot));
+    }
+
+    /**
+     * Per-target rows of the last interval in a multi-target run, baseline first; empty otherwise.
+     */
+    public List<Map<String, Object>> getTargetSample() {
+        return targetSample;
+    }
+
+    /**
+     * Replication lag by replica at the last metrics tick; empty without the lag probe.
+     */
+    public Map<String, Object> getLagSample() {
+        return lagSample;
+    }
+
+    /**
+     * Connects per second, failures and connect latency of the last second; empty outside short-connection mode.
+     */
+    public Map<String, Object> getConnectionSample() {
+        return connectionSample;
+    }
+
+    /**
+     * Availability state and the last second of its timeline; empty unless availability tracking is on.
+     */
+    public Map<String, Object> getAvailabilitySample() {
+        return availabilitySample;
+    }
+
+    /**
+     * Intervals compared so far in a multi-target run.
+     */
+    public List<Map<String, Object>> getTargetIntervals() {
+        TargetComparison compared = comparison;
+        return compared != null ? compared.getIntervals() : List.of();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DatabaseConfig.TargetConfig> parseEndpoints(Object value) {
+        List<DatabaseConfig.TargetConfig> configured = new ArrayList<>();
+        for (Map<String, Object> t : (List<Map<String, Object>>) value) {
+            DatabaseConfig.TargetConfig target = new DatabaseConfig.TargetConfig();
+            if (t.containsKey("name")) target.setName((String) t.get("name"));
+            if (t.containsKey("type")) target.setType((String) t.get("type"));
+            if (t.containsKey("jdbcUrl")) target.setJdbcUrl((String) t.get("jdbcUrl"));
+            if (t.containsKey("username")) target.setUsername((String) t.get("username"));
+            if (t.containsKey("password")) target.setPassword((String) t.get("password"));
+            if (t.containsKey("poolSize")) target.setPoolSize(((Number) t.get("poolSize")).intValue());
+            configured.add(target);
+        }
+        return configured;
+    }
+
+    private static List<Map<String, Object>> describeEndpoints(List<DatabaseConfig.TargetConfig> endpoints) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (DatabaseConfig.TargetConfig t : endpoints) {
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("name", t.getName());
+            endpoint.put("type", t.getType());
+            endpoint.put("jdbcUrl", t.getJdbcUrl());
+            endpoint.put("username", t.getUsername());
+            endpoint.put("poolSize", t.getPoolSize());
+            endpoint.put("hasPassword", t.getPassword() != null && !t.getPassword().isEmpty());
+            list.add(endpoint);
+        }
+        return list;
+    }
+
+    /**
+     * Warehouse range of every shard with the metrics of the transactions that ran on it.
+     */
+    private static List<Map<String, Object>> describeShards(ShardRouter router, Map<String, Object> metrics) {
+        Map<String, Map<String, Object>> byShard = byEndpoint(metrics);
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (ShardRouter.Shard shard : router.getShards()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", shard.name());
+            row.put("firstWarehouse", shard.firstWarehouse());
+            row.put("lastWarehouse", shard.lastWarehouse());
+            putEndpointMetrics(row, byShard.getOrDefault(shard.name(), Map.of()));
+            list.add(row);
+        }
+        return list;
+    }
+
+    /**
+     * Balancing policy and every endpoint's state with the metrics of the transactions that ran on it.
+     */
+    private static Map<String, Object> describeBalancer(EndpointBalancer balancer, Map<String, Object> metrics) {
+        Map<String, Map<String, Object>> byName = byEndpoint(metrics);
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Map<String, Object> row : balancer.summarize()) {
+            Map<String, Object> measured = byName.getOrDefault((String) row.get("name"), Map.of());
+            putEndpointMetrics(row, measured);
+            long count = ((Number) row.get("count")).longValue();
+            row.put("errorRate", count > 0 ? Math.round(((Number) row.get("failure")).longValue() * 10000.0 / count) / 100.0 : 0.0);
+            list.add(row);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("policy", balancer.getPolicy().getLabel());
+        summary.put("endpoints", list);
+        return summary;
+    }
+
+    /**
+     * Rows of the endpoint dimension by endpoint name.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, Object>> byEndpoint(Map<String, Object> metrics) {
+        Map<String, Map<String, Object>> byName = new HashMap<>();
+        if (metrics.get("dimensions") instanceof Map<?, ?> dimensions && dimensions.get("endpoint") instanceof List<?> rows) {
+            for (Map<String, Object> row : (List<Map<String, Object>>) rows) {
+                byName.put((String) row.get("name"), row);
+            }
+        }
+        return byName;
+    }
+
+    private static void putEndpointMetrics(Map<String, Object> row, Map<String, Object> measured) {
+        for (String key : List.of("count", "failure")) {
+            row.put(key, measured.getOrDefault(key, 0L));
+        }
+        for (String key : List.of("tps", "avgLatencyMs", "p95LatencyMs", "p99LatencyMs")) {
+            row.put(key, measured.getOrDefault(key, 0.0));
+        }
+    }
+
+    private Long seedOf(int terminalIndex) {
+        Long seed = runSeed;
+        return seed == null ? null : seed + terminalIndex;
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * The scenario configured for this run, or null for a single flat run.
+     */
+    private Scenario loadScenario() {
+        String file = benchConfig.getScenario().getFile();
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        BenchmarkConfig.ReplayConfig replay = benchConfig.getReplay();
+        if ((replay.getRecord() != null && !replay.getRecord().isBlank())
+                || (replay.getFile() != null && !replay.getFile().isBlank())) {
+            throw new IllegalArgumentException("benchmark.scenario.file cannot be combined with record/replay");
+        }
+        try {
+            return Scenario.load(Path.of(file.trim()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read scenario file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Check every phase before the run starts.
+     */
+    private void validateScenario(Scenario run) throws SQLException {
+        for (ScenarioPhase phase : run.phases()) {
+            validatePhase(phase, "Scenario phase '" + phase.name() + "'");
+        }
+    }
+
+    /**
+     * Check a phase or live change: settings are applied to a scratch config and a workload it
+     * switches to must be loaded.
+     */
+    private void validatePhase(ScenarioPhase phase, String where) throws SQLException {
+        try {
+            applySettings(new BenchmarkConfig(), phase.settings());
+        } catch (ClassCastException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(where + ": " + e.getMessage(), e);
+        }
+        if (phase.workload() != null) {
+            Workload workload = WorkloadRegistry.get(phase.workload());
+            if (!workload.isLoaded(adapter)) {
+                throw new IllegalStateException("No " + workload.getName() + " data found for " + where
+                        + ". Please load data first.");
+            }
+        }
+    }
+
+    /**
+     * Apply the configuration part of a phase. Like a config update, it stays in effect after the run.
+     */
+    private void applyPhaseConfig(ScenarioPhase phase) {
+        applySettings(benchConfig, phase.settings());
+        if (phase.workload() != null) {
+            benchConfig.setWorkload(WorkloadRegistry.get(phase.workload()).getName());
+        }
+        if (phase.terminals() != null) {
+            benchConfig.setTerminals(phase.terminals());
+        }
+        if (phase.thinkTime() != null) {
+            benchConfig.setThinkTime(phase.thinkTime());
+        }
+    }
+
+    /**
+     * Drive the phases of a scenario on their schedule, then stop the run.
+     */
+    private void runScenario(Scenario run, long startNanos) {
+        long phaseEnd = startNanos;
+        try {
+            List<ScenarioPhase> phases = run.phases();
+            for (int i = 0; i < phases.size(); i++) {
+                if (i > 0) {
+                    enterPhase(i + 1, phases.get(i));
+                }
+                phaseEnd += phases.get(i).duration() * 1_000_000_000L;
+                long wait = phaseEnd - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                if (!running.get()) {
+                    return;
+                }
+            }
+            addLog("INFO", "Scenario " + run.name() + " completed");
+        } catch (InterruptedException e) {
+            // Stopped
+            return;
+        } catch (Exception e) {
+            addLog("ERROR", "Scenario phase failed: " + e.getMessage());
+        }
+        try {
+            metricsScheduler.execute(this::stop);
+        } catch (RejectedExecutionException e) {
+            // Already stopping
+        }
+    }
+
+    /**
+     * Switch a running scenario to its next phase.
+     */
+    private void enterPhase(int number, ScenarioPhase phase) throws SQLException {
+        applyChange(phase);
+        beginPhase(number, phase, getWorkload());
+    }
+
+    /**
+     * Prepare the workload's run state (key sequences, MAX(id) reads, growth baselines) on every shard but the
+     * first, then on the main database, which is the first shard of a sharded run.
+     */
+    private void prepareWorkload(Workload workload, ShardRouter sharding, TransactionOptions options) throws SQLException {
+        if (sharding != null) {
+            for (ShardRouter.Shard shard : sharding.getShards().subList(1, sharding.getShards().size())) {
+                workload.prepare(shard.adapter(), benchConfig, options);
+            }
+        }
+        workload.prepare(adapter, benchConfig, options);
+    }
+
+    /**
+     * Apply a phase or live change to the running benchmark. Terminals are re-created in place and
+     * added or retired at the top; connections stay in the pool throughout.
+     */
+    private void applyChange(ScenarioPhase change) throws SQLException {
+        synchronized (slots) {
+            String previous = WorkloadRegistry.get(benchConfig.getWorkload()).getName();
+            applyPhaseConfig(change);
+            Workload workload = getWorkload();
+            if (change.changesTerminals()) {
+                TransactionOptions options = buildOptions(workload);
+                ShardRouter sharding = shardRouter;
+                if (sharding != null) {
+                    // Fails for a workload that cannot be sharded
+                    createShardLoader(workload, benchConfig, sharding.getShards().get(0));
+                    options.setShardRouter(sharding);
+                }
+                options.setEndpointBalancer(balancer);
+                // Key sequences and counters of the run live on in the workload; only a new workload starts them
+                if (!workload.getName().equals(previous)) {
+                    prepareWorkload(workload, sharding, options);
+                }
+                options.setReplicaRouter(createReplicaRouter(workload, options));
+                int target = workload.getTerminalCount(benchConfig);
+                for (TerminalSlot slot : slots) {
+                    if (slot.index < target) {
+                        slot.terminal = workload.createTerminal(adapter, benchConfig, options, slot.index);
+                    } else {
+                        // Finishes its current transaction, then exits
+                        slot.retired = true;
+                    }
+                }
+                slots.removeIf(slot -> slot.retired);
+                for (int i = slots.size(); i < target; i++) {
+                    startTerminal(new TerminalSlot(i, workload.createTerminal(adapter, benchConfig, options, i),
+                            metricsRegistry, seedOf(i)));
+                }
+                if (target > dbConfig.getPool().getSize()) {
+                    addLog("WARN", String.format("Running %d terminals on a pool of %d connections",
+                            target, dbConfig.getPool().getSize()));
+                }
+            }
+            thinkTime = benchConfig.isThinkTime() && workload.usesThinkTime();
+            if (change.rate() != null) {
+                rateLimiter = change.rate() > 0 ? new RateLimiter(change.rate()) : null;
+            }
+        }
+    }
+
+    /**
+     * Change a running benchmark with the keys of a scenario phase: terminals, rate, thinkTime, mix,
+     * workload or a workload settings section. A "note" is added to the annotation; a note alone only
+     * marks the timeline. Returns the state after the change.
+     */
+    public Map<String, Object> control(Map<String, Object> changes) throws SQLException {
+        if (!running.get()) {
+            throw new IllegalStateException("Benchmark is not running");
+        }
+        if (controller != null) {
+            throw new IllegalStateException("Live control is not available in distributed runs");
+        }
+        if (comparison != null) {
+            throw new IllegalStateException("Live control is not available with multiple targets");
+        }
+        ScenarioPhase change = Scenario.parseChange(changes);
+        String note = changes.get("note") == null ? null : changes.get("note").toString();
+        if (change.changesTerminals() && (replayLog != null || recorder != null)) {
+            throw new IllegalStateException("Terminals, mix and workload cannot be changed while recording or replaying");
+        }
+        validatePhase(change, "change");
+
+        Map<String, Object> before = getControlState();
+        applyChange(change);
+        Map<String, Object> after = getControlState();
+
+        List<String> parts = new ArrayList<>();
+        for (String key : List.of("workload", "terminals", "rate", "thinkTime")) {
+            if (!Objects.equals(before.get(key), after.get(key))) {
+                parts.add(key + " " + before.get(key) + " -> " + after.get(key));
+            }
+        }
+        if (!change.settings().isEmpty()) {
+            parts.add("settings " + String.join(", ", change.settings().keySet()) + " (mix: " + after.get("mix") + ")");
+        }
+        if (note != null && !note.isBlank()) {
+            parts.add(note.trim());
+        }
+        annotate(change.changesTerminals() || change.rate() != null || change.thinkTime() != null ? "change" : "note",
+                parts.isEmpty() ? "No change" : String.join("; ", parts));
+        return after;
+    }
+
+    /**
+     * Hold every terminal after its current transaction until {@link #resume()}.
+     */
+    public void pause() {
+        if (!running.get()) {
+            throw new IllegalStateException("Benchmark is not running");
+        }
+        if (controller != null) {
+            throw new IllegalStateException("Pause is not available in distributed runs");
+        }
+        if (!paused) {
+            paused = true;
+            annotate("pause", "Paused");
+        }
+    }
+
+    public void resume() {
+        if (paused) {
+            synchronized (pauseLock) {
+                paused = false;
+                pauseLock.notifyAll();
+            }
+            annotate("resume", "Resumed");
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * What a live change can act on, as it stands now.
+     */
+    public Map<String, Object> getControlState() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("running", running.get());
+        state.put("paused", paused);
+        state.put("workload", benchConfig.getWorkload());
+        synchronized (slots) {
+            state.put("terminals", slots.size());
+        }
+        RateLimiter limiter = rateLimiter;
+        state.put("rate", limiter != null ? limiter.getRate() : 0.0);
+        state.put("thinkTime", thinkTime);
+        state.put("mix", getWorkload().describeMix(benchConfig));
+        PhaseState phase = currentPhase.get();
+        if (phase != null) {
+            state.put("phase", phase.name());
+        }
+        return state;
+    }
+
+    /**
+     * Mark an event on the metrics timeline, log it and send it to the dashboard.
+     */
+    private void annotate(String type, String message) {
+        Map<String, Object> annotation = metricsRegistry.annotate(type, message);
+        addLog("INFO", "[" + type + "] " + message);
+        if (logCallback != null) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("type", "annotation");
+            data.put("annotation", annotation);
+            logCallback.accept(data);
+        }
+    }
+
+    /**
+     * Close the previous phase, if any, and start measuring a new one.
+     */
+    private void beginPhase(int number, ScenarioPhase phase, Workload workload) {
+        finishPhase();
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.reset();
+        RateLimiter limiter = rateLimiter;
+        int terminals;
+        synchronized (slots) {
+            terminals = slots.size();
+        }
+        PhaseState state = new PhaseState(number, phase.name(), metricsRegistry.getElapsedMillis() / 1000, registry,
+                workload.getName(), terminals, limiter != null ? limiter.getRate() : 0, thinkTime);
+        currentPhase.set(state);
+        metricsRegistry.setPhase(phase.name());
+        annotate("phase", String.format("Phase %d/%d %s: %s, %d terminals, %s, think time %s, %ds", number,
+                scenario.phases().size(), phase.name(), state.workload(), state.terminals(),
+                limiter != null ? limiter.getRate() + " tx/s" : "no rate limit", thinkTime ? "on" : "off",
+                phase.duration()));
+    }
+
+    /**
+     * Record the summary of the phase being measured, if any.
+     */
+    private void finishPhase() {
+        PhaseState phase = currentPhase.getAndSet(null);
+        if (phase == null) {
+            return;
+        }
+        phase.metrics().markEnd();
+        Map<String, Object> metrics = phase.metrics().getCurrentMetrics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("phase", phase.number());
+        result.put("name", phase.name());
+        result.put("startSecond", phase.startSecond());
+        result.put("durationSeconds", phase.metrics().getElapsedMillis() / 1000.0);
+        result.put("workload", phase.workload());
+        result.put("terminals", phase.terminals());
+        result.put("rate", phase.rate());
+        result.put("thinkTime", phase.thinkTime());
+        result.put("metrics", metrics);
+        phaseResults.add(result);
+        addLog("INFO", String.format("Phase %s finished: TPS=%.2f, Total=%d, Failures=%d, AvgLatency=%.2fms, P95=%.2fms, P99=%.2fms",
+                phase.name(), metrics.get("tps"), metrics.get("totalTransactions"), metrics.get("totalFailure"),
+                metrics.get("avgLatencyMs"), metrics.get("p95LatencyMs"), metrics.get("p99LatencyMs")));
+    }
+
+    /**
+     * Open the replay log or recording file configured for this run, if any, and return the workload's codec.
+     */
+    private ReplayCodec openReplay(Workload workload, long startNanos) {
+        BenchmarkConfig.ReplayConfig replay = benchConfig.getReplay();
+        boolean record = replay.getRecord() != null && !replay.getRecord().isBlank();
+        boolean play = replay.getFile() != null && !replay.getFile().isBlank();
+        if (!record && !play) {
+            return null;
+        }
+        if (record && play) {
+            throw new IllegalArgumentException("benchmark.replay.record and benchmark.replay.file cannot be used together");
+        }
+        ReplayCodec codec = workload.getReplayCodec();
+        if (codec == null) {
+            throw new IllegalStateException("The " + workload.getName() + " workload does not support record/replay");
+        }
+        ReplayPacing pacing = ReplayPacing.fromString(replay.getPacing());
+        try {
+            if (play) {
+                ReplayLog log = ReplayLog.open(Path.of(replay.getFile().trim()));
+                if (!log.getWorkload().equals(workload.getName())) {
+                    log.close();
+                    throw new IllegalStateException("Replay log " + replay.getFile() + " was recorded with the "
+                            + log.getWorkload() + " workload, not " + workload.getName());
+                }
+                replayLog = log;
+                addLog("INFO", String.format("Replaying %s: %d terminals recorded at %s, %s pacing", log.getPath(),
+                        log.getTerminalCount(), new Date(log.getStartEpochMillis()), pacing.name().toLowerCase()));
+            } else {
+                recorder = ReplayRecorder.create(Path.of(replay.getRecord().trim()), workload.getName(),
+                        workload.getTerminalCount(benchConfig), startNanos);
+                addLog("INFO", "Recording transaction inputs to " + recorder.getPath());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open " + (play ? "replay log " + replay.getFile()
+                    : "recording file " + replay.getRecord()) + ": " + e.getMessage(), e);
+        }
+        return codec;
+    }
+
+    private void closeReplay() {
+        ReplayRecorder r = recorder;
+        ReplayLog l = replayLog;
+        recorder = null;
+        replayLog = null;
+        closeReplay(r, l);
+    }
+
+    /**
+     * Close the replay files once the terminals that outlived the stop timeout exit, so the recording keeps
+     * their last transactions. After another minute they are closed anyway; the recorder then drops what the
+     * terminals still hand out, and the count is logged when they are gone.
+     */
+    private void closeReplayAfter(ExecutorService terminals) {
+        ReplayRecorder r = recorder;
+        ReplayLog l = replayLog;
+        recorder = null;
+        replayLog = null;
+        if (r == null && l == null) {
+            return;
+        }
+        addLog("WARN", "Terminals did not stop within 5 seconds, replay files are closed once they exit");
+        Thread closer = new Thread(() -> {
+            boolean exited = false;
+            try {
+                exited = terminals.awaitTermination(60, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            closeReplay(r, l);
+            if (exited || r == null) {
+                return;
+            }
+            try {
+                terminals.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+                if (r.getDroppedCount() > 0) {
+                    addLog("WARN", String.format("Recording %s dropped %d transactions handed out after it was closed",
+                            r.getPath(), r.getDroppedCount()));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "dbbench-replay-close");
+        closer.setDaemon(true);
+        closer.start();
+    }
+
+    private void closeReplay(ReplayRecorder r, ReplayLog l) {
+        if (r != null) {
+            try {
+                r.close();
+                addLog("INFO", String.format("Recorded %d transactions to %s", r.getRecordCount(), r.getPath()));
+            } catch (IOException e) {
+                addLog("ERROR", "Failed to finish recording " + r.getPath() + ": " + e.getMessage());
+            }
+        }
+        if (l != null) {
+            try {
+                l.close();
+            } catch (IOException e) {
+                log.warn("Failed to close replay log {}: {}", l.getPath(), e.getMessage());
+            }
+        }
+    }
+
+    private static String describeIsolation(Workload workload, TransactionOptions options) {
+        StringBuilder sb = new StringBuilder();
+        for (String name : workload.getTransactionNames()) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(name).append('=').append(options.getIsolationLevel(name));
+            if (options.isReadOnly(name)) sb.append(" (read only)");
+        }
+        return sb.toString();
+    }
+
+    private void runTerminal(TerminalSlot slot) {
+        Random random = new Random();
+        CountDownLatch gate = startGate;
+        if (gate != null) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (slot.seed != null) {
+            InputRandom.seed(slot.seed);
+        }
+
+        while (running.get() && !slot.retired) {
+            if (paused && !awaitResume(slot)) {
+                break;
+            }
+            WorkloadTerminal terminal = slot.terminal;
+            RateLimiter limiter = rateLimiter;
+            if (limiter != null) {
+                try {
+                    limiter.acquire();
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
                 }
             }
+            WorkloadTransaction tx = terminal.nextTransaction();
+            if (tx == null) {
+                break;
+            }
+
+            long startTime = System.nanoTime();
+            slot.busySince = startTime;
+            boolean success = tx.execute();
+            long latency = System.nanoTime() - startTime;
+            slot.busySince = 0;
+
+            recordTransaction(slot.registry, tx, success, latency);
+            if (slot.registry == metricsRegistry) {
+                PhaseState phase = currentPhase.get();
+                if (phase != null) {
+                    recordTransaction(phase.metrics(), tx, success, latency);
+                }
+                MetricsRegistry current = interval.get();
+                if (current != null) {
+                    recordTransaction(current, tx, success, latency);
+                }
+                AvailabilityTracker tracker = availability;
+                if (tracker != null) {
+                    tracker.record(success, tx.getErrorCategory());
+                    // Back off instead of spinning through a pool whose database is gone
+                    if (tx.getErrorCategory() == ErrorCategory.CONNECTION && !sleepQuietly(benchConfig.getAvailability().getBackoffMs())) {
+                        break;
+                    }
+                }
+            }
+
+            // Think time
+            if (thinkTime && terminal.usesThinkTime()) {
+                try {
+                    Thread.sleep(random.nextInt(100) + 50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        InputRandom.clear();
+        // A replayed run ends early once every recorded stream is exhausted
+        if (activeTerminals.decrementAndGet() == 0 && !slot.retired && running.get()) {
+            addLog("INFO", "Replay log exhausted");
+            try {
+                metricsScheduler.execute(this::stop);
+            } catch (RejectedExecutionException e) {
+                // Already stopping
+            }
+        }
+    }
+
+    /**
+     * Sleep, false when interrupted.
+     */
+    private static boolean sleepQuietly(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Wait while the run is paused; false when interrupted.
+     */
+    private boolean awaitResume(TerminalSlot slot) {
+        synchronized (pauseLock) {
+            while (paused && running.get() && !slot.retired) {
+                try {
+                    pauseLock.wait(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void recordTransaction(MetricsRegistry registry, WorkloadTransaction tx, boolean success, long latency) {
+        if (tx.isExpectedRollback()) {
+            registry.recordRollback(tx.getName(), latency, tx.getRoundTrips());
+        } else {
+            registry.recordTransaction(tx.getName(), success, latency, tx.getRoundTrips());
+        }
+        if (tx.getQueries() > 0) {
+            registry.recordQueries(tx.getName(), tx.getQueries());
+        }
+        if (tx.getRowCount() > 0) {
+            registry.recordRows(tx.getName(), tx.getRowCount());
+        }
+        if (tx.getRetries() > 0) {
+            registry.recordRetries(tx.getName(), tx.getRetries(), tx.getRetryLatencyNanos());
+        }
+        if (tx.getErrorCategory() != null) {
+            registry.recordError(tx.getName(), tx.getErrorCategory().name());
+        }
+        registry.recordDimension("isolation", tx.getIsolationLabel(), success,
+                tx.isExpectedRollback(), latency, tx.getRetries());
+        if (tx.getEndpoint() != null) {
+            registry.recordDimension("endpoint", tx.getEndpoint(), success, tx.isExpectedRollback(), latency, tx.getRetries());
+        }
+    }
+
+    /**
+     * Feed the availability timeline; runs next to the metrics collection, which hangs while the database is away.
+     */
+    private void trackAvailability() {
+        AvailabilityTracker tracker = availability;
+        if (tracker == null) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            long threshold = TimeUnit.MILLISECONDS.toNanos(tracker.getThresholdMillis());
+            int blocked = 0;
+            synchronized (slots) {
+                for (TerminalSlot slot : slots) {
+                    long since = slot.busySince;
+                    if (slot.registry == metricsRegistry && since != 0 && now - since > threshold) {
+                        blocked++;
+                    }
+                }
+            }
+            Map<String, Object> sample = new LinkedHashMap<>(tracker.tick(blocked, adapter.getPoolStats(), paused));
+            sample.putAll(tracker.summarize());
+            availabilitySample = sample;
+        } catch (Exception e) {
+            log.warn("Error tracking availability: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * The current workload's own sampling, e.g. ingest table growth, kept off the terminal threads.
+     */
+    private void sampleWorkload() {
+        try {
+            WorkloadRegistry.get(benchConfig.getWorkload()).sample();
+        } catch (RuntimeException e) {
+            // A failed sample must not cancel the schedule
+            log.debug("Workload sample failed: {}", e.getMessage());
         }
     }
 
     private void collectAndBroadcastMetrics() {
         try {
-            Map<String, Object> dbMetrics = adapter.collectMetrics();
             Map<String, Object> osMetrics = osMetricsCollector.collect();
-
-            // Use SSH metrics for dbHost if available, otherwise fall back to SQL-based
+            Map<String, Object> dbMetrics;
             Map<String, Object> hostMetrics;
-            if (sshCollector != null && sshCollector.isConnected()) {
-                hostMetrics = sshCollector.collect();
-            } else if (sshCollector != null) {
-                // SSH configured but disconnected - try reconnect, use SQL fallback for now
-                hostMetrics = adapter.collectHostMetrics();
-            } else {
-                hostMetrics = adapter.collectHostMetrics();
+            try {
+                dbMetrics = adapter.collectMetrics();
+                // Use SSH metrics for dbHost if available, otherwise fall back to SQL-based
+                if (sshCollector != null && sshCollector.isConnected()) {
+                    hostMetrics = sshCollector.collect();
+                } else if (sshCollector != null) {
+                    // SSH configured but disconnected - try reconnect, use SQL fallback for now
+                    hostMetrics = adapter.collectHostMetrics();
+                } else {
+                    hostMetrics = adapter.collectHostMetrics();
+                }
+            } catch (SQLException e) {
+                // Keep the transaction metrics flowing while the database is away
+                log.warn("Error collecting database metrics: {}", e.getMessage());
+                dbMetrics = new HashMap<>();
+                hostMetrics = new HashMap<>();
             }
 
-            metricsRegistry.takeSnapshot(dbMetrics, osMetrics);
+            ReplicationLagMonitor lag = lagMonitor;
+            Map<String, Object> lagNow = lag != null ? lag.sample() : null;
+            metricsRegistry.takeSnapshot(dbMetrics, osMetrics, lagNow);
+            if (lagNow != null) {
+                lagSample = lagNow;
+            }
+            TargetComparison compared = comparison;
+            if (compared != null) {
+                targetSample = compared.sample();
+            }
+            ConnectionTracker connecting = connections;
+            if (connecting != null) {
+                connectionSample = connecting.sample();
+            }
 
             if (metricsCallback != null) {
                 Map<String, Object> allMetrics = new LinkedHashMap<>();
@@ -559,6 +2145,22 @@ public class BenchmarkEngine {
                 allMetrics.put("os", osMetrics);
                 allMetrics.put("dbHost", hostMetrics);
                 allMetrics.put("status", status);
+                if (compared != null) {
+                    allMetrics.put("targets", targetSample);
+                }
+                if (lagNow != null) {
+                    allMetrics.put("replicationLag", lagNow);
+                }
+                if (availability != null) {
+                    allMetrics.put("availability", availabilitySample);
+                }
+                EndpointBalancer balancing = balancer;
+                if (balancing != null) {
+                    allMetrics.put("balancer", balancing.summarize());
+                }
+                if (connecting != null) {
+                    allMetrics.put("connections", connectionSample);
+                }
                 metricsCallback.accept(allMetrics);
             }
         } catch (Exception e) {
@@ -572,19 +2174,39 @@ public class BenchmarkEngine {
         }
         running.set(false);
         status = "STOPPING";
+        synchronized (pauseLock) {
+            paused = false;
+            pauseLock.notifyAll();
+        }
         metricsRegistry.markEnd();
+        for (Target target : targets) {
+            target.registry().markEnd();
+        }
 
         addLog("INFO", "Stopping benchmark...");
 
+        DistributedController distributed = controller;
+        if (distributed != null) {
+            distributed.stop();
+        }
+
+        boolean terminated = true;
         if (executorService != null) {
             executorService.shutdownNow();
             try {
-                executorService.awaitTermination(5, TimeUnit.SECONDS);
+                terminated = executorService.awaitTermination(5, TimeUnit.SECONDS);
             } catch (InterruptedException e) {
+                terminated = false;
                 Thread.currentThread().interrupt();
             }
         }
 
+        if (terminated) {
+            closeReplay();
+        } else {
+            closeReplayAfter(executorService);
+        }
+        finishPhase();
         if (metricsScheduler != null) {
             metricsScheduler.shutdownNow();
         }
@@ -594,12 +2216,17 @@ public class BenchmarkEngine {
 
         // Log final results
         Map<String, Object> metrics = metricsRegistry.getCurrentMetrics();
-        addLog("INFO", String.format("Final Results: TPS=%.2f, Total=%d, Success=%.2f%%, AvgLatency=%.2fms",
+        addLog("INFO", String.format("Final Results: TPS=%.2f, Total=%d, Success=%.2f%%, Rollbacks=%d, Retries=%d, Failures=%d, AvgLatency=%.2fms",
                 metrics.get("tps"), metrics.get("totalTransactions"),
-                metrics.get("overallSuccessRate"), metrics.get("avgLatencyMs")));
+                metrics.get("overallSuccessRate"), metrics.get("totalRollback"), metrics.get("totalRetries"),
+                metrics.get("totalFailure"), metrics.get("avgLatencyMs")));
 
         // Final metrics broadcast
         collectAndBroadcastMetrics();
+        ReplicationLagMonitor lag = lagMonitor;
+        if (lag != null) {
+            lag.stop();
+        }
 
         // Broadcast status change
         broadcastStatusChange("STOPPED");
@@ -614,6 +2241,10 @@ public class BenchmarkEngine {
         if (adapter != null) {
             adapter.close();
         }
+        closeTargets();
+        closeReplicas();
+        closeShards();
+        closeEndpoints();
         status = "SHUTDOWN";
     }
 
@@ -628,10 +2259,121 @@ public class BenchmarkEngine {
     public Map<String, Object> getResults() {
         Map<String, Object> results = new LinkedHashMap<>();
         results.put("status", status);
-        results.put("metrics", metricsRegistry.getCurrentMetrics());
+        results.put("workload", benchConfig.getWorkload());
+        results.put("executionMode", benchConfig.getExecutionMode());
+        Map<String, Object> metrics = metricsRegistry.getCurrentMetrics();
+        results.put("metrics", metrics);
+        results.put("workloadMetrics", getWorkload().getResultMetrics(metricsRegistry));
+        Scenario run = scenario;
+        if (run != null) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("name", run.name());
+            summary.put("phases", new ArrayList<>(phaseResults));
+            PhaseState phase = currentPhase.get();
+            if (phase != null) {
+                summary.put("currentPhase", phase.name());
+            }
+            results.put("scenario", summary);
+        }
+        if (!metricsRegistry.getAnnotations().isEmpty()) {
+            results.put("annotations", new ArrayList<>(metricsRegistry.getAnnotations()));
+        }
+        DistributedController distributed = controller;
+        if (distributed != null) {
+            results.put("agents", distributed.getAgentSummaries());
+        }
+        TargetComparison compared = comparison;
+        if (compared != null) {
+            results.put("targets", compared.summarize());
+            results.put("targetIntervals", new ArrayList<>(compared.getIntervals()));
+        }
+        AvailabilityTracker tracker = availability;
+        if (tracker != null) {
+            results.put("availability", tracker.summarize());
+            results.put("availabilityTimeline", tracker.getTimeline());
+        }
+        ShardRouter sharded = shardRouter;
+        if (sharded != null) {
+            results.put("shards", describeShards(sharded, metrics));
+        }
+        ConnectionTracker connected = connections;
+        if (connected != null) {
+            results.put("connections", connected.summarize());
+        }
+        EndpointBalancer balanced = balancer;
+        if (balanced != null) {
+            results.put("balancer", describeBalancer(balanced, metrics));
+        }
+        ReplicationLagMonitor lag = lagMonitor;
+        if (lag != null) {
+            results.put("replicationLag", lag.summarize());
+            results.put("replicationLagSamples", lag.getSamples());
+        }
+        Map<String, Object> schema = describeSchema(getWorkload());
+        if (!schema.isEmpty()) {
+            results.put("schema", schema);
+        }
+        Map<String, Object> statements = getStatements();
+        if (!statements.isEmpty()) {
+            results.put("statements", statements);
+        }
         return results;
     }
 
+    /**
+     * SQL the current workload's transactions run with the configured statement profile, by statement id;
+     * empty for workloads without a statement catalog or a profile the database does not offer.
+     */
+    public Map<String, Object> getStatements() {
+        try {
+            return getWorkload().describeStatements(adapter != null ? adapter : DatabaseFactory.create(dbConfig), benchConfig);
+        } catch (IllegalArgumentException e) {
+            log.debug("Configured statements cannot be described: {}", e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+
+    /**
+     * Physical design of the schema the run used: the one this engine created, or the configured one
+     * ("loaded" false) when the data was loaded elsewhere.
+     */
+    private Map<String, Object> describeSchema(Workload workload) {
+        LoadedSchema loaded = loadedSchema;
+        Map<String, Object> schema;
+        if (loaded != null && loaded.workload().equals(workload.getName())) {
+            schema = new LinkedHashMap<>(loaded.design());
+        } else {
+            try {
+                schema = workload.describeSchema(adapter != null ? adapter : DatabaseFactory.create(dbConfig), benchConfig);
+            } catch (IllegalArgumentException e) {
+                log.debug("Configured schema cannot be described: {}", e.getMessage());
+                return new LinkedHashMap<>();
+            }
+        }
+        if (!schema.isEmpty()) {
+            schema.put("loaded", loaded != null && loaded.workload().equals(workload.getName()));
+        }
+        return schema;
+    }
+
+    private record LoadedSchema(String workload, Map<String, Object> design) {
+    }
+
+    /**
+     * Available workloads for the UI and CLI.
+     */
+    public List<Map<String, Object>> getWorkloads() {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Workload workload : WorkloadRegistry.getAll()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", workload.getName());
+            entry.put("description", workload.getDescription());
+            entry.put("transactions", workload.getTransactionNames());
+            result.add(entry);
+        }
+        return result;
+    }
+
     public Map<String, Object> getConfig() {
         Map<String, Object> config = new LinkedHashMap<>();
 
@@ -641,16 +2383,27 @@ public class BenchmarkEngine {
         db.put("jdbcUrl", dbConfig.getJdbcUrl());
         db.put("username", dbConfig.getUsername());
         db.put("poolSize", dbConfig.getPool().getSize());
+        db.put("connectionTimeout", dbConfig.getPool().getConnectionTimeout());
+        db.put("name", dbConfig.getName());
+        db.put("targets", describeEndpoints(dbConfig.getTargets()));
+        db.put("replicas", describeEndpoints(dbConfig.getReplicas()));
+        db.put("shards", describeEndpoints(dbConfig.getShards()));
+        db.put("endpoints", describeEndpoints(dbConfig.getEndpoints()));
         config.put("database", db);
 
         // Benchmark config
         Map<String, Object> bench = new LinkedHashMap<>();
+        bench.put("workload", benchConfig.getWorkload());
         bench.put("warehouses", benchConfig.getWarehouses());
+        bench.put("firstWarehouse", benchConfig.getFirstWarehouse());
+        bench.put("lastWarehouse", benchConfig.getLastWarehouse());
         bench.put("terminals", benchConfig.getTerminals());
         bench.put("duration", benchConfig.getDuration());
         bench.put("rampup", benchConfig.getRampup());
         bench.put("thinkTime", benchConfig.isThinkTime());
         bench.put("loadConcurrency", benchConfig.getLoadConcurrency());
+        bench.put("seed", benchConfig.getSeed());
+        bench.put("executionMode", benchConfig.getExecutionMode());
         config.put("benchmark", bench);
 
         // Transaction mix
@@ -662,6 +2415,105 @@ public class BenchmarkEngine {
         mix.put("stockLevel", benchConfig.getMix().getStockLevel());
         config.put("transactionMix", mix);
 
+        // Isolation and read-only per transaction type
+        Map<String, Object> isolation = new LinkedHashMap<>();
+        isolation.put("level", benchConfig.getIsolation().getLevel());
+        Map<String, Object> readOnly = new LinkedHashMap<>();
+        for (String type : new String[]{"newOrder", "payment", "orderStatus", "delivery", "stockLevel"}) {
+            isolation.put(type, benchConfig.getIsolation().getEffective(type));
+            readOnly.put(type, benchConfig.getReadOnly().isReadOnly(type));
+        }
+        config.put("isolation", isolation);
+        config.put("readOnly", readOnly);
+
+        // Retry policy
+        Map<String, Object> retry = new LinkedHashMap<>();
+        retry.put("maxRetries", benchConfig.getRetry().getMaxRetries());
+        retry.put("backoffBaseMs", benchConfig.getRetry().getBackoffBaseMs());
+        retry.put("backoffMaxMs", benchConfig.getRetry().getBackoffMaxMs());
+        config.put("retry", retry);
+
+        // Each workload's own settings
+        for (Workload workload : WorkloadRegistry.getAll()) {
+            if (workload.getSettingsKey() != null) {
+                config.put(workload.getSettingsKey(), workload.describeSettings(benchConfig));
+            }
+        }
+
+        // Record/replay settings
+        Map<String, Object> replay = new LinkedHashMap<>();
+        replay.put("record", benchConfig.getReplay().getRecord());
+        replay.put("file", benchConfig.getReplay().getFile());
+        replay.put("pacing", benchConfig.getReplay().getPacing());
+        config.put("replay", replay);
+
+        // Scenario file
+        Map<String, Object> scenarioConfig = new LinkedHashMap<>();
+        scenarioConfig.put("file", benchConfig.getScenario().getFile());
+        config.put("scenario", scenarioConfig);
+
+        // Replica routing
+        Map<String, Object> replica = new LinkedHashMap<>();
+        replica.put("types", benchConfig.getReplica().getTypes());
+        replica.put("fraction", benchConfig.getReplica().getFraction());
+        replica.put("readYourWritesMs", benchConfig.getReplica().getReadYourWritesMs());
+        replica.put("lagIntervalMs", benchConfig.getReplica().getLagIntervalMs());
+        config.put("replica", replica);
+
+        // Distributed run settings
+        Map<String, Object> distributed = new LinkedHashMap<>();
+        distributed.put("agents", benchConfig.getDistributed().getAgents());
+        distributed.put("host", benchConfig.getDistributed().getHost());
+        distributed.put("port", benchConfig.getDistributed().getPort());
+        distributed.put("connectTimeout", benchConfig.getDistributed().getConnectTimeout());
+        config.put("distributed", distributed);
+
+        // Availability tracking
+        Map<String, Object> avail = new LinkedHashMap<>();
+        avail.put("enabled", benchConfig.getAvailability().isEnabled());
+        avail.put("outageThresholdMs", benchConfig.getAvailability().getOutageThresholdMs());
+        avail.put("recoveryRatio", benchConfig.getAvailability().getRecoveryRatio());
+        avail.put("backoffMs", benchConfig.getAvailability().getBackoffMs());
+        config.put("availability", avail);
+
+        // Endpoint balancing
+        Map<String, Object> balance = new LinkedHashMap<>();
+        balance.put("policy", benchConfig.getBalance().getPolicy());
+        balance.put("ejectAfter", benchConfig.getBalance().getEjectAfter());
+        balance.put("ejectMs", benchConfig.getBalance().getEjectMs());
+        config.put("balance", balance);
+
+        // Short-connection mode
+        Map<String, Object> shortConnection = new LinkedHashMap<>();
+        shortConnection.put("every", benchConfig.getShortConnection().getEvery());
+        config.put("shortConnection", shortConnection);
+
+        // Schema profile and the ones the database offers
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("profile", benchConfig.getSchema().getProfile());
+        try {
+            schema.put("available", DatabaseFactory.create(dbConfig).getSchemaProfiles());
+        } catch (IllegalArgumentException e) {
+            schema.put("available", new LinkedHashMap<>());
+        }
+        config.put("schema", schema);
+
+        // Statement profile and the ones the database offers
+        Map<String, Object> statements = new LinkedHashMap<>();
+        statements.put("profile", benchConfig.getStatements().getProfile());
+        try {
+            statements.put("available", DatabaseFactory.create(dbConfig).getStatementProfiles());
+        } catch (IllegalArgumentException e) {
+            statements.put("available", new LinkedHashMap<>());
+        }
+        config.put("statements", statements);
+
+        // Schema partitioning
+        Map<String, Object> partition = new LinkedHashMap<>();
+        partition.put("count", benchConfig.getPartition().getCount());
+        partition.put("method", benchConfig.getPartition().getMethod());
+        config.put("partition", partition);
+
         // SSH config (mask sensitive fields)
         Map<String, Object> ssh = new LinkedHashMap<>();
         ssh.put("enabled", dbConfig.getSsh().isEnabled());
@@ -675,4 +2527,39 @@ public class BenchmarkEngine {
 
         return config;
     }
+
+    /**
+     * One terminal thread. A scenario phase swaps its terminal in place or retires it.
+     */
+    private static final class TerminalSlot {
+        final int index;
+        /** Registry of the target this terminal drives */
+        final MetricsRegistry registry;
+        /** Input seed, or null for unseeded inputs */
+        final Long seed;
+        volatile WorkloadTerminal terminal;
+        volatile boolean retired;
+        /** Start of the transaction running now, System.nanoTime(); 0 between transactions */
+        volatile long busySince;
+
+        TerminalSlot(int index, WorkloadTerminal terminal, MetricsRegistry registry, Long seed) {
+            this.index = index;
+            this.terminal = terminal;
+            this.registry = registry;
+            this.seed = seed;
+        }
+    }
+
+    /**
+     * A database compared against the main one, with its own pool and metrics.
+     */
+    private record Target(String name, DatabaseAdapter adapter, MetricsRegistry registry) {
+    }
+
+    /**
+     * A scenario phase being measured, with its own registry for the per-phase summary.
+     */
+    private record PhaseState(int number, String name, long startSecond, MetricsRegistry metrics,
+                              String workload, int terminals, double rate, boolean thinkTime) {
+    }
 }
@@ -0,0 +1,100 @@
+package com.ninedata.dbbench.ingest;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.workload.JdbcTransaction;
+import com.ninedata.dbbench.workload.TransactionOptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * INSERT_BATCH: appends a batch of new events in one JDBC batch and one transaction.
+ */
+public class IngestInsert extends JdbcTransaction {
+    public static final String NAME = "INSERT_BATCH";
+    static final String SQL = "INSERT INTO " + IngestWorkload.TABLE
+            + " (TENANT_ID, EVENT_ID, EVENT_TIME, ATTR1, ATTR2, ATTR3, ATTR4, PAYLOAD) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final IngestKeys keys;
+    private final int batchSize;
+    private final int payloadLength;
+    private final String payloadSource;
+    private final LongAdder insertedRows;
+
+    public IngestInsert(DatabaseAdapter adapter, TransactionOptions options, IngestKeys keys, int batchSize,
+                        int payloadLength, LongAdder insertedRows) {
+        super(adapter, options);
+        this.keys = keys;
+        this.batchSize = batchSize;
+        this.payloadLength = payloadLength;
+        this.payloadSource = payloadSource(InputRandom.current(), payloadLength);
+        this.insertedRows = insertedRows;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean execute() {
+        boolean success = super.execute();
+        if (success) {
+            insertedRows.add(batchSize);
+        }
+        return success;
+    }
+
+    @Override
+    protected boolean doExecute(Connection conn) throws SQLException {
+        Random random = InputRandom.current();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement ps = conn.prepareStatement(SQL)) {
+            for (int i = 0; i < batchSize; i++) {
+                keys.bindNext(ps, random);
+                bindColumns(ps, random, now, payload(payloadSource, random, payloadLength));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        addBatch(batchSize);
+        addRows(batchSize);
+        return true;
+    }
+
+    /**
+     * Bind EVENT_TIME, the attribute columns and PAYLOAD (parameters 3-8).
+     * ATTR1 and ATTR3 have few distinct values, ATTR2 and ATTR4 are random across the int range.
+     */
+    static void bindColumns(PreparedStatement ps, Random random, Timestamp time, String payload)
+            throws SQLException {
+        ps.setTimestamp(3, time);
+        ps.setInt(4, random.nextInt(1000));
+        ps.setInt(5, random.nextInt());
+        ps.setInt(6, random.nextInt(100));
+        ps.setInt(7, random.nextInt());
+        ps.setString(8, payload);
+    }
+
+    /**
+     * Random printable text twice the payload length; payloads are slices of it at random offsets,
+     * which keeps them varied without generating every character per row.
+     */
+    static String payloadSource(Random random, int payloadLength) {
+        char[] buf = new char[payloadLength * 2];
+        for (int i = 0; i < buf.length; i++) {
+            buf[i] = (char) ('0' + random.nextInt(75));
+        }
+        return new String(buf);
+    }
+
+    static String payload(String source, Random random, int payloadLength) {
+        int offset = random.nextInt(payloadLength + 1);
+        return source.substring(offset, offset + payloadLength);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ninedata.dbbench.ingest;
+
+import lombok.Getter;
+
+/**
+ * How event rows are keyed, which decides where in the primary key the inserts land.
+ */
+@Getter
+public enum IngestKeyPattern {
+    MONOTONIC("increasing id: every insert goes to the right edge of the primary key"),
+    UUID("random UUID: inserts are spread over the whole primary key"),
+    TENANT("increasing id per tenant: one right edge per tenant");
+
+    private final String description;
+
+    IngestKeyPattern(String description) {
+        this.description = description;
+    }
+
+    public static IngestKeyPattern fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return MONOTONIC;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase().replace("-", "_"));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown ingest key pattern: " + value + " (monotonic, uuid or tenant)");
+        }
+    }
+}
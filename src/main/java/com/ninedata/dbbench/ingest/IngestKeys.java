@@ -0,0 +1,87 @@
+package com.ninedata.dbbench.ingest;
+
+import com.ninedata.dbbench.workload.InputRandom;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Key source of one run: a global id sequence, one sequence per tenant, or random UUIDs.
+ * Binds TENANT_ID and EVENT_ID to parameters 1 and 2 of the insert.
+ */
+public class IngestKeys {
+    private final IngestKeyPattern pattern;
+    private final int tenants;
+    private final AtomicLong sequence;
+    private final AtomicLongArray tenantSequences;
+
+    /**
+     * @param lastId        highest id in the table, where the global sequence continues
+     * @param tenantLastIds highest id per tenant (index 0 is tenant 1), where the tenant sequences continue
+     */
+    public IngestKeys(IngestKeyPattern pattern, int tenants, long lastId, long[] tenantLastIds) {
+        this.pattern = pattern;
+        this.tenants = Math.max(1, tenants);
+        this.sequence = new AtomicLong(lastId);
+        this.tenantSequences = new AtomicLongArray(this.tenants);
+        for (int t = 0; t < Math.min(this.tenants, tenantLastIds.length); t++) {
+            tenantSequences.set(t, tenantLastIds[t]);
+        }
+    }
+
+    public IngestKeyPattern getPattern() {
+        return pattern;
+    }
+
+    public int getTenants() {
+        return tenants;
+    }
+
+    public int randomTenant(Random random) {
+        return random.nextInt(tenants) + 1;
+    }
+
+    /**
+     * Highest id handed out so far: the global one, or the given tenant's for {@link IngestKeyPattern#TENANT}.
+     */
+    public long lastId(int tenant) {
+        return pattern == IngestKeyPattern.TENANT ? tenantSequences.get(tenant - 1) : sequence.get();
+    }
+
+    public void bindNext(PreparedStatement ps, Random random) throws SQLException {
+        int tenant = randomTenant(random);
+        ps.setInt(1, tenant);
+        switch (pattern) {
+            case MONOTONIC -> ps.setLong(2, sequence.incrementAndGet());
+            case TENANT -> ps.setLong(2, tenantSequences.incrementAndGet(tenant - 1));
+            case UUID -> ps.setString(2, randomUuid(random));
+        }
+    }
+
+    /**
+     * Bind the keys of preloaded row number {@code row} (0-based), so loader chunks need no shared state:
+     * row n gets id n + 1, or id n / tenants + 1 within tenant n % tenants + 1.
+     */
+    public static void bindLoaded(PreparedStatement ps, IngestKeyPattern pattern, int tenants, long row,
+                                  Random random) throws SQLException {
+        int tenant = (int) (row % tenants) + 1;
+        ps.setInt(1, tenant);
+        switch (pattern) {
+            case MONOTONIC -> ps.setLong(2, row + 1);
+            case TENANT -> ps.setLong(2, row / tenants + 1);
+            case UUID -> ps.setString(2, randomUuid(random));
+        }
+    }
+
+    /**
+     * Version 4 UUID text from the thread's random source; java.util.UUID.randomUUID() would use SecureRandom.
+     */
+    static String randomUuid(Random random) {
+        long msb = (random.nextLong() & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new java.util.UUID(msb, lsb).toString();
+    }
+}
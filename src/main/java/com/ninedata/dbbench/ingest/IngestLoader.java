@@ -0,0 +1,75 @@
+package com.ninedata.dbbench.ingest;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.ChunkedLoader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Preloads benchmark.ingest.initial-rows events in parallel chunks of {@link #CHUNK_ROWS}, keyed as
+ * the run's key pattern would have keyed them. Nothing is loaded by default: the run starts on an empty table.
+ */
+public class IngestLoader extends ChunkedLoader {
+    static final int CHUNK_ROWS = 50_000;
+    private static final int BATCH_SIZE = 500;
+
+    private final DatabaseAdapter adapter;
+    private final IngestKeyPattern pattern;
+    private final int tenants;
+    private final long rows;
+    private final int payloadLength;
+
+    public IngestLoader(DatabaseAdapter adapter, IngestKeyPattern pattern, int tenants, long rows, int payloadLength,
+                        int concurrency) {
+        super(concurrency);
+        this.adapter = adapter;
+        this.pattern = pattern;
+        this.tenants = tenants;
+        this.rows = rows;
+        this.payloadLength = payloadLength;
+    }
+
+    @Override
+    protected int getChunkCount() {
+        return (int) ((rows + CHUNK_ROWS - 1) / CHUNK_ROWS);
+    }
+
+    @Override
+    protected String describe() {
+        return String.format("ingest: %d rows, %s keys", rows, pattern.name().toLowerCase());
+    }
+
+    @Override
+    protected String loadChunk(int chunk) throws SQLException {
+        long first = (long) chunk * CHUNK_ROWS;
+        long last = Math.min(rows, first + CHUNK_ROWS) - 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String source = IngestInsert.payloadSource(random, payloadLength);
+        Timestamp time = new Timestamp(System.currentTimeMillis());
+        try (Connection conn = adapter.getConnection(); PreparedStatement ps = conn.prepareStatement(IngestInsert.SQL)) {
+            int pending = 0;
+            for (long row = first; row <= last; row++) {
+                if (isCancelled()) {
+                    conn.rollback();
+                    throw new SQLException("Data loading cancelled by user");
+                }
+                IngestKeys.bindLoaded(ps, pattern, tenants, row, random);
+                IngestInsert.bindColumns(ps, random, time, IngestInsert.payload(source, random, payloadLength));
+                ps.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+        return String.format("Rows %d-%d", first, last);
+    }
+}
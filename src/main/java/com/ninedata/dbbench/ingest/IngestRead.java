@@ -0,0 +1,80 @@
+package com.ninedata.dbbench.ingest;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.workload.JdbcTransaction;
+import com.ninedata.dbbench.workload.TransactionOptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * READ_RECENT: reads the newest events, by primary key range for increasing ids and by
+ * EVENT_TIME for UUID keys (which needs the event time index to stay cheap).
+ */
+public class IngestRead extends JdbcTransaction {
+    public static final String NAME = "READ_RECENT";
+    private static final String COLUMNS = "SELECT TENANT_ID, EVENT_ID, EVENT_TIME, PAYLOAD FROM " + IngestWorkload.TABLE;
+    /** How far back a UUID-keyed read looks for its rows */
+    static final long UUID_WINDOW_MS = 60_000;
+
+    private final IngestKeys keys;
+    private final int scanRows;
+    private final String sql;
+
+    public IngestRead(DatabaseAdapter adapter, TransactionOptions options, IngestKeys keys, int scanRows) {
+        super(adapter, options);
+        this.keys = keys;
+        this.scanRows = scanRows;
+        this.sql = adapter.limitRows(sql(keys.getPattern()));
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    static String sql(IngestKeyPattern pattern) {
+        return switch (pattern) {
+            case MONOTONIC -> COLUMNS + " WHERE EVENT_ID > ? ORDER BY EVENT_ID";
+            case TENANT -> COLUMNS + " WHERE TENANT_ID = ? AND EVENT_ID > ? ORDER BY EVENT_ID";
+            case UUID -> COLUMNS + " WHERE EVENT_TIME >= ? ORDER BY EVENT_TIME DESC";
+        };
+    }
+
+    @Override
+    protected boolean doExecute(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(scanRows);
+            int limitIndex = switch (keys.getPattern()) {
+                case MONOTONIC -> {
+                    ps.setLong(1, keys.lastId(0) - scanRows);
+                    yield 2;
+                }
+                case TENANT -> {
+                    int tenant = keys.randomTenant(InputRandom.current());
+                    ps.setInt(1, tenant);
+                    ps.setLong(2, keys.lastId(tenant) - scanRows);
+                    yield 3;
+                }
+                case UUID -> {
+                    ps.setTimestamp(1, new Timestamp(System.currentTimeMillis() - UUID_WINDOW_MS));
+                    yield 2;
+                }
+            };
+            ps.setInt(limitIndex, scanRows);
+            long rows = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                }
+            }
+            addRows(rows);
+        }
+        addStatements(1);
+        return true;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ninedata.dbbench.ingest;
+
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+/**
+ * Ingest client thread: inserts batches and reads recent events at the configured fraction.
+ */
+public class IngestTerminal implements WorkloadTerminal {
+    private final IngestInsert insert;
+    private final IngestRead read;
+    private final double readFraction;
+
+    public IngestTerminal(IngestInsert insert, IngestRead read, double readFraction) {
+        this.insert = insert;
+        this.read = read;
+        this.readFraction = readFraction;
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        return readFraction > 0 && InputRandom.current().nextDouble() < readFraction ? read : insert;
+    }
+
+    @Override
+    public boolean usesThinkTime() {
+        return false;
+    }
+}
@@ -0,0 +1,358 @@
+package com.ninedata.dbbench.ingest;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.metrics.TransactionMetrics;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.Workload;
+import com.ninedata.dbbench.workload.WorkloadLoader;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Append-heavy event ingest: wide rows inserted in small batches under a chosen key pattern, with
+ * occasional reads of the newest events. Reports rows/s, bytes/s, insert latency and table/index growth.
+ */
+@Slf4j
+public class IngestWorkload implements Workload {
+    public static final String NAME = "ingest";
+    public static final String TABLE = "ingest_events";
+    private static final List<String> TRANSACTION_NAMES = List.of(IngestInsert.NAME, IngestRead.NAME);
+    /** Secondary indexes in the order benchmark.ingest.secondary-indexes adds them: name, columns */
+    static final String[][] SECONDARY_INDEXES = {
+            {"ix_ingest_time", "EVENT_TIME"},
+            {"ix_ingest_tenant_time", "TENANT_ID, EVENT_TIME"},
+            {"ix_ingest_attr1", "ATTR1"},
+            {"ix_ingest_attr2", "ATTR2"},
+            {"ix_ingest_attr3", "ATTR3"},
+            {"ix_ingest_attr4", "ATTR4"}
+    };
+    /** VARCHAR length every supported database accepts */
+    static final int MAX_PAYLOAD = 4000;
+
+    /** Keys, counters and growth samples of the current run, set by prepare(). */
+    private volatile Run run;
+
+    private record Run(BenchmarkConfig.IngestConfig config, IngestKeys keys, int payloadLength, LongAdder insertedRows,
+                       TableGrowth growth) {
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Event ingest: batched appends with monotonic, UUID or per-tenant keys and recent-range reads";
+    }
+
+    @Override
+    public String getSettingsKey() {
+        return NAME;
+    }
+
+    @Override
+    public void applySettings(BenchmarkConfig config, Map<String, Object> settings) {
+        BenchmarkConfig.IngestConfig ic = config.getIngest();
+        if (settings.containsKey("rowWidth")) ic.setRowWidth(((Number) settings.get("rowWidth")).intValue());
+        if (settings.containsKey("batchSize")) ic.setBatchSize(((Number) settings.get("batchSize")).intValue());
+        if (settings.containsKey("keyPattern")) {
+            ic.setKeyPattern(IngestKeyPattern.fromString((String) settings.get("keyPattern")).name().toLowerCase());
+        }
+        if (settings.containsKey("tenants")) ic.setTenants(((Number) settings.get("tenants")).intValue());
+        if (settings.containsKey("secondaryIndexes")) ic.setSecondaryIndexes(((Number) settings.get("secondaryIndexes")).intValue());
+        if (settings.containsKey("readFraction")) ic.setReadFraction(((Number) settings.get("readFraction")).doubleValue());
+        if (settings.containsKey("scanRows")) ic.setScanRows(((Number) settings.get("scanRows")).intValue());
+        if (settings.containsKey("initialRows")) ic.setInitialRows(((Number) settings.get("initialRows")).longValue());
+        if (settings.containsKey("sampleInterval")) ic.setSampleInterval(((Number) settings.get("sampleInterval")).intValue());
+    }
+
+    @Override
+    public Map<String, Object> describeSettings(BenchmarkConfig config) {
+        BenchmarkConfig.IngestConfig ic = config.getIngest();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rowWidth", ic.getRowWidth());
+        settings.put("batchSize", ic.getBatchSize());
+        settings.put("keyPattern", ic.getKeyPattern());
+        settings.put("tenants", ic.getTenants());
+        settings.put("secondaryIndexes", ic.getSecondaryIndexes());
+        settings.put("readFraction", ic.getReadFraction());
+        settings.put("scanRows", ic.getScanRows());
+        settings.put("initialRows", ic.getInitialRows());
+        settings.put("sampleInterval", ic.getSampleInterval());
+        return settings;
+    }
+
+    /**
+     * Bytes of the columns other than PAYLOAD: TENANT_ID, EVENT_ID, EVENT_TIME and four INT attributes.
+     */
+    static int fixedBytes(IngestKeyPattern pattern) {
+        return 4 + (pattern == IngestKeyPattern.UUID ? 36 : 8) + 8 + 4 * 4;
+    }
+
+    /**
+     * Check the settings and return the PAYLOAD length that brings a row to benchmark.ingest.row-width.
+     */
+    static int validate(BenchmarkConfig.IngestConfig ingest) {
+        IngestKeyPattern pattern = IngestKeyPattern.fromString(ingest.getKeyPattern());
+        int payload = ingest.getRowWidth() - fixedBytes(pattern);
+        if (payload < 1 || payload > MAX_PAYLOAD) {
+            throw new IllegalArgumentException(String.format("benchmark.ingest.row-width must be between %d and %d for %s keys",
+                    fixedBytes(pattern) + 1, fixedBytes(pattern) + MAX_PAYLOAD, pattern.name().toLowerCase()));
+        }
+        if (ingest.getBatchSize() < 1) {
+            throw new IllegalArgumentException("benchmark.ingest.batch-size must be at least 1");
+        }
+        if (ingest.getSecondaryIndexes() < 0 || ingest.getSecondaryIndexes() > SECONDARY_INDEXES.length) {
+            throw new IllegalArgumentException("benchmark.ingest.secondary-indexes must be between 0 and " + SECONDARY_INDEXES.length);
+        }
+        if (ingest.getReadFraction() < 0 || ingest.getReadFraction() >= 1) {
+            throw new IllegalArgumentException("benchmark.ingest.read-fraction must be at least 0 and below 1");
+        }
+        if (ingest.getTenants() < 1 || ingest.getScanRows() < 1) {
+            throw new IllegalArgumentException("benchmark.ingest.tenants and scan-rows must be at least 1");
+        }
+        return payload;
+    }
+
+    @Override
+    public void createSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        BenchmarkConfig.IngestConfig ingest = config.getIngest();
+        int payload = validate(ingest);
+        IngestKeyPattern pattern = IngestKeyPattern.fromString(ingest.getKeyPattern());
+        String idType = pattern == IngestKeyPattern.UUID ? "CHAR(36)" : adapter.bigintType();
+        String primaryKey = pattern == IngestKeyPattern.TENANT ? "TENANT_ID, EVENT_ID" : "EVENT_ID";
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE " + TABLE + " (TENANT_ID INTEGER NOT NULL, EVENT_ID " + idType + " NOT NULL, "
+                    + "EVENT_TIME " + adapter.timestampType() + " NOT NULL, ATTR1 INTEGER, ATTR2 INTEGER, ATTR3 INTEGER, "
+                    + "ATTR4 INTEGER, PAYLOAD VARCHAR(" + payload + "), PRIMARY KEY (" + primaryKey + "))");
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void createIndexes(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            for (int i = 0; i < config.getIngest().getSecondaryIndexes(); i++) {
+                stmt.execute("CREATE INDEX " + SECONDARY_INDEXES[i][0] + " ON " + TABLE + " (" + SECONDARY_INDEXES[i][1] + ")");
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void dropSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        adapter.dropTables(TABLE);
+    }
+
+    /**
+     * The run starts from whatever is in the table, so an existing (even empty) table is enough.
+     */
+    @Override
+    public boolean isLoaded(DatabaseAdapter adapter) {
+        try (Connection conn = adapter.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT EVENT_ID FROM " + TABLE + " WHERE 1 = 0")) {
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public WorkloadLoader createLoader(DatabaseAdapter adapter, BenchmarkConfig config) {
+        BenchmarkConfig.IngestConfig ingest = config.getIngest();
+        return new IngestLoader(adapter, IngestKeyPattern.fromString(ingest.getKeyPattern()), Math.max(1, ingest.getTenants()),
+                Math.max(0, ingest.getInitialRows()), validate(ingest), config.getLoadConcurrency());
+    }
+
+    @Override
+    public List<String> getTransactionNames() {
+        return TRANSACTION_NAMES;
+    }
+
+    @Override
+    public Set<String> getReadOnlyTransactionNames() {
+        return Set.of(IngestRead.NAME);
+    }
+
+    @Override
+    public void configureOptions(BenchmarkConfig config, TransactionOptions options) {
+        options.setCountRoundTrips(false);
+    }
+
+    @Override
+    public void prepare(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options) throws SQLException {
+        BenchmarkConfig.IngestConfig ingest = config.getIngest();
+        int payload = validate(ingest);
+        IngestKeyPattern pattern = IngestKeyPattern.fromString(ingest.getKeyPattern());
+        int tenants = ingest.getTenants();
+        long lastId = 0;
+        long[] tenantLastIds = new long[tenants];
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            checkSchema(stmt, pattern, payload);
+            // New ids continue after the highest existing ones, including rows from earlier runs
+            if (pattern == IngestKeyPattern.MONOTONIC) {
+                try (ResultSet rs = stmt.executeQuery("SELECT MAX(EVENT_ID) FROM " + TABLE)) {
+                    lastId = rs.next() ? rs.getLong(1) : 0;
+                }
+            } else if (pattern == IngestKeyPattern.TENANT) {
+                try (ResultSet rs = stmt.executeQuery("SELECT TENANT_ID, MAX(EVENT_ID) FROM " + TABLE + " GROUP BY TENANT_ID")) {
+                    while (rs.next()) {
+                        int tenant = rs.getInt(1);
+                        if (tenant >= 1 && tenant <= tenants) {
+                            tenantLastIds[tenant - 1] = rs.getLong(2);
+                        }
+                    }
+                }
+            }
+            conn.commit();
+        }
+        LongAdder inserted = new LongAdder();
+        TableGrowth growth = new TableGrowth(adapter, TABLE, ingest.getSampleInterval(), inserted::sum);
+        growth.sampleIfDue();
+        run = new Run(ingest, new IngestKeys(pattern, tenants, lastId, tenantLastIds), payload, inserted, growth);
+        log.info("Ingest workload prepared: {}", describeMix(config));
+    }
+
+    /**
+     * The key type and payload width are fixed when the table is created; catch a changed setting before inserts fail.
+     */
+    private static void checkSchema(Statement stmt, IngestKeyPattern pattern, int payload) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT EVENT_ID, PAYLOAD FROM " + TABLE + " WHERE 1 = 0")) {
+            ResultSetMetaData md = rs.getMetaData();
+            int type = md.getColumnType(1);
+            boolean textKey = type == Types.CHAR || type == Types.VARCHAR || type == Types.NCHAR || type == Types.NVARCHAR
+                    || md.getColumnTypeName(1).toUpperCase().contains("CHAR");
+            if (textKey != (pattern == IngestKeyPattern.UUID)) {
+                throw new IllegalStateException(TABLE + " was created for " + (textKey ? "uuid" : "numeric")
+                        + " keys; reload the data after changing benchmark.ingest.key-pattern");
+            }
+            int width = md.getPrecision(2);
+            if (width > 0 && width < payload) {
+                throw new IllegalStateException(TABLE + " holds payloads up to " + width + " characters but row-width needs "
+                        + payload + "; reload the data after changing benchmark.ingest.row-width");
+            }
+        }
+    }
+
+    @Override
+    public WorkloadTerminal createTerminal(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options,
+                                           int terminalIndex) {
+        Run current = run;
+        if (current == null || current.config() != config.getIngest()) {
+            BenchmarkConfig.IngestConfig ingest = config.getIngest();
+            current = new Run(ingest, new IngestKeys(IngestKeyPattern.fromString(ingest.getKeyPattern()), ingest.getTenants(),
+                    0, new long[0]), validate(ingest), new LongAdder(), null);
+            run = current;
+        }
+        BenchmarkConfig.IngestConfig ingest = current.config();
+        return new IngestTerminal(
+                new IngestInsert(adapter, options, current.keys(), ingest.getBatchSize(), current.payloadLength(),
+                        current.insertedRows()),
+                new IngestRead(adapter, options, current.keys(), ingest.getScanRows()),
+                ingest.getReadFraction());
+    }
+
+    @Override
+    public void sample() {
+        Run current = run;
+        if (current != null && current.growth() != null) {
+            current.growth().sampleIfDue();
+        }
+    }
+
+    @Override
+    public boolean usesThinkTime() {
+        return false;
+    }
+
+    @Override
+    public String describeMix(BenchmarkConfig config) {
+        BenchmarkConfig.IngestConfig ingest = config.getIngest();
+        IngestKeyPattern pattern = IngestKeyPattern.fromString(ingest.getKeyPattern());
+        return String.format("%s keys (%s), batches of %d x %d-byte rows, %d secondary index(es), %.0f%% recent reads",
+                pattern.name().toLowerCase(), pattern.getDescription(), ingest.getBatchSize(), ingest.getRowWidth(),
+                ingest.getSecondaryIndexes(), ingest.getReadFraction() * 100);
+    }
+
+    /**
+     * Ingest rate, insert latency per batch and per row, and the table and index size samples.
+     */
+    @Override
+    public Map<String, Object> getResultMetrics(MetricsRegistry metricsRegistry) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Run current = run;
+        if (current == null) {
+            return result;
+        }
+        BenchmarkConfig.IngestConfig ingest = current.config();
+        int rowBytes = fixedBytes(current.keys().getPattern()) + current.payloadLength();
+        long rows = current.insertedRows().sum();
+        long elapsedMs = metricsRegistry.getElapsedMillis();
+        double rowsPerSecond = elapsedMs > 0 ? rows * 1000.0 / elapsedMs : 0;
+        result.put("keyPattern", current.keys().getPattern().name().toLowerCase());
+        result.put("batchSize", ingest.getBatchSize());
+        result.put("rowBytes", rowBytes);
+        result.put("secondaryIndexes", ingest.getSecondaryIndexes());
+        result.put("rowsInserted", rows);
+        result.put("rowsPerSecond", Math.round(rowsPerSecond * 100.0) / 100.0);
+        result.put("bytesPerSecond", Math.round(rowsPerSecond * rowBytes));
+
+        TransactionMetrics inserts = metricsRegistry.get(IngestInsert.NAME);
+        if (inserts != null && inserts.getCount() > 0) {
+            Map<String, Object> latency = new LinkedHashMap<>();
+            latency.put("avg", round(inserts.getAverageLatencyMs()));
+            latency.put("p50", round(inserts.getPercentileLatencyMs(50)));
+            latency.put("p95", round(inserts.getPercentileLatencyMs(95)));
+            latency.put("p99", round(inserts.getPercentileLatencyMs(99)));
+            latency.put("p99.9", round(inserts.getPercentileLatencyMs(99.9)));
+            latency.put("max", round(inserts.getMaxLatencyMs()));
+            result.put("insertBatchLatencyMs", latency);
+            result.put("avgLatencyPerRowMs", round(inserts.getAverageLatencyMs() / ingest.getBatchSize()));
+        }
+
+        if (current.growth() != null && current.growth().isSupported()) {
+            List<TableGrowth.Sample> samples = current.growth().getSamples();
+            List<Map<String, Object>> growth = new ArrayList<>();
+            for (TableGrowth.Sample s : samples) {
+                Map<String, Object> point = new LinkedHashMap<>();
+                point.put("elapsedSeconds", Math.round(s.elapsedSeconds() * 10) / 10.0);
+                point.put("rows", s.rows());
+                point.put("tableBytes", s.tableBytes());
+                point.put("indexBytes", s.indexBytes());
+                growth.add(point);
+            }
+            result.put("growth", growth);
+            if (samples.size() > 1) {
+                TableGrowth.Sample first = samples.get(0);
+                TableGrowth.Sample last = samples.get(samples.size() - 1);
+                long grownRows = last.rows() - first.rows();
+                if (grownRows > 0) {
+                    result.put("tableBytesPerRow", round((double) (last.tableBytes() - first.tableBytes()) / grownRows));
+                    result.put("indexBytesPerRow", round((double) (last.indexBytes() - first.indexBytes()) / grownRows));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
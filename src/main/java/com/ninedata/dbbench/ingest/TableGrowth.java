@@ -0,0 +1,97 @@
+package com.ninedata.dbbench.ingest;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Table and index size over a run, sampled through {@link DatabaseAdapter#collectTableSize} at a fixed
+ * interval. The engine's metrics thread drives it, and each sample runs on a connection of its own outside
+ * the pool, so terminals never wait on the catalog queries. Past {@link #MAX_SAMPLES} every other sample is
+ * dropped and the interval doubles, so long runs stay bounded.
+ */
+@Slf4j
+public class TableGrowth {
+    static final int MAX_SAMPLES = 500;
+
+    public record Sample(double elapsedSeconds, long rows, long tableBytes, long indexBytes) {
+    }
+
+    private final DatabaseAdapter adapter;
+    private final String table;
+    private final LongSupplier rows;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong nextSampleNanos;
+    private final List<Sample> samples = new ArrayList<>();
+    private volatile long intervalNanos;
+    private volatile boolean supported = true;
+
+    /**
+     * @param rows rows inserted since the start, reported with each sample
+     */
+    public TableGrowth(DatabaseAdapter adapter, String table, int intervalSeconds, LongSupplier rows) {
+        this.adapter = adapter;
+        this.table = table;
+        this.rows = rows;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(Math.max(1, intervalSeconds));
+        this.nextSampleNanos = new AtomicLong(startNanos);
+    }
+
+    /**
+     * Take a sample if the interval has passed and no other thread is taking it.
+     */
+    public void sampleIfDue() {
+        long now = System.nanoTime();
+        long due = nextSampleNanos.get();
+        if (supported && now - due >= 0 && nextSampleNanos.compareAndSet(due, now + intervalNanos)) {
+            sample(now);
+        }
+    }
+
+    private void sample(long now) {
+        Map<String, Long> size;
+        try (Connection conn = adapter.openDedicatedConnection()) {
+            size = adapter.collectTableSize(conn, table);
+        } catch (SQLException e) {
+            log.debug("Cannot read the size of {}: {}", table, e.getMessage());
+            return;
+        }
+        if (size.isEmpty()) {
+            supported = false;
+            log.info("{} does not report table sizes; table growth is not tracked", adapter.getDatabaseType());
+            return;
+        }
+        Sample sample = new Sample((now - startNanos) / 1e9, rows.getAsLong(),
+                size.getOrDefault("tableBytes", 0L), size.getOrDefault("indexBytes", 0L));
+        synchronized (samples) {
+            samples.add(sample);
+            if (samples.size() >= MAX_SAMPLES) {
+                List<Sample> kept = new ArrayList<>();
+                for (int i = 0; i < samples.size(); i += 2) {
+                    kept.add(samples.get(i));
+                }
+                samples.clear();
+                samples.addAll(kept);
+                intervalNanos *= 2;
+            }
+        }
+    }
+
+    public boolean isSupported() {
+        return supported;
+    }
+
+    public List<Sample> getSamples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+}
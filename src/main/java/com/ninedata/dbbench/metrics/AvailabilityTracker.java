@@ -0,0 +1,242 @@
+package com.ninedata.dbbench.metrics;
+
+import com.ninedata.dbbench.database.ErrorCategory;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Outages as the terminals see them. An outage starts once no transaction has succeeded for the outage
+ * threshold while terminals fail or hang, and is dated from the last success. It ends in two steps: the first
+ * success after it (time to first success) and the first second whose throughput is back to the recovery share
+ * of the throughput before it (time to full throughput). A per-second timeline keeps throughput, failures,
+ * blocked terminals and the pool's connection churn, which shows reconnect storms.
+ */
+public class AvailabilityTracker {
+    public enum State { UP, DOWN, RECOVERING }
+
+    /** Seconds of throughput before an outage averaged into its baseline */
+    static final int BASELINE_SECONDS = 10;
+    /** Timeline entries kept, one per second */
+    static final int MAX_TIMELINE = 3600;
+
+    private final long thresholdMillis;
+    private final double recoveryRatio;
+    private final BiConsumer<String, String> logger;
+    private final long startMillis;
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder connectionErrors = new LongAdder();
+    /** Successes per second while up, as [tick time, count] */
+    private final Deque<long[]> recent = new ArrayDeque<>();
+    private final List<Map<String, Object>> timeline = new ArrayList<>();
+    private final List<Outage> outages = new ArrayList<>();
+    private volatile State state = State.UP;
+    private volatile long lastSuccessMillis;
+    private Outage current;
+    private long lastTickMillis;
+    private Map<String, Long> lastPool = Map.of();
+
+    /**
+     * @param recoveryRatio share of the pre-outage throughput that counts as recovered, 0-1
+     */
+    public AvailabilityTracker(int outageThresholdMillis, double recoveryRatio, BiConsumer<String, String> logger) {
+        if (outageThresholdMillis <= 0) {
+            throw new IllegalArgumentException("Outage threshold must be positive: " + outageThresholdMillis);
+        }
+        if (recoveryRatio < 0 || recoveryRatio > 1) {
+            throw new IllegalArgumentException("Recovery ratio must be between 0 and 1: " + recoveryRatio);
+        }
+        this.thresholdMillis = outageThresholdMillis;
+        this.recoveryRatio = recoveryRatio;
+        this.logger = logger;
+        this.startMillis = System.currentTimeMillis();
+        this.lastTickMillis = startMillis;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Called by the terminals after every transaction.
+     */
+    public void record(boolean success, ErrorCategory category) {
+        record(success, category, System.currentTimeMillis());
+    }
+
+    void record(boolean success, ErrorCategory category, long now) {
+        if (success) {
+            successes.increment();
+            lastSuccessMillis = now;
+            if (state == State.DOWN) {
+                synchronized (this) {
+                    if (state == State.DOWN) {
+                        current.firstSuccessMillis = now;
+                        state = State.RECOVERING;
+                        logger.accept("INFO", String.format("First success %d ms after the outage began",
+                                now - current.startMillis));
+                    }
+                }
+            }
+        } else {
+            failures.increment();
+            if (category == ErrorCategory.CONNECTION) {
+                connectionErrors.increment();
+            }
+        }
+    }
+
+    /**
+     * Close the second into the timeline and move the outage state along; called once a second.
+     *
+     * @param blocked terminals whose transaction has been running longer than the outage threshold
+     * @param pool    the pool's gauges and counters, see DatabaseAdapter#getPoolStats
+     * @param idle    true while the run is paused; no outage is detected then
+     */
+    public Map<String, Object> tick(int blocked, Map<String, Long> pool, boolean idle) {
+        return tick(blocked, pool, idle, System.currentTimeMillis());
+    }
+
+    synchronized Map<String, Object> tick(int blocked, Map<String, Long> pool, boolean idle, long now) {
+        long ok = successes.sumThenReset();
+        long failed = failures.sumThenReset();
+        long connection = connectionErrors.sumThenReset();
+        long created = delta(pool, "created");
+        long timeouts = delta(pool, "timeouts");
+        lastPool = pool;
+        double tps = now > lastTickMillis ? ok * 1000.0 / (now - lastTickMillis) : 0;
+        lastTickMillis = now;
+
+        if (idle || lastSuccessMillis == 0) {
+            // Nothing to compare against before the first success, or while paused
+            if (idle && lastSuccessMillis != 0) {
+                lastSuccessMillis = now;
+            }
+        } else if (state == State.UP && now - lastSuccessMillis >= thresholdMillis && (failed > 0 || blocked > 0)) {
+            current = new Outage(lastSuccessMillis, baseline(lastSuccessMillis));
+            outages.add(current);
+            state = State.DOWN;
+            logger.accept("WARN", String.format("Outage: no successful transaction for %d ms (%d failed, %d blocked this second)",
+                    now - lastSuccessMillis, failed, blocked));
+        }
+        if (state != State.UP) {
+            current.failed += failed;
+            current.connectionErrors += connection;
+            current.peakBlocked = Math.max(current.peakBlocked, blocked);
+            current.connectionsCreated += created;
+            current.connectionTimeouts += timeouts;
+        }
+        if (state == State.RECOVERING && tps >= current.baselineTps * recoveryRatio) {
+            current.fullThroughputMillis = now;
+            state = State.UP;
+            logger.accept("INFO", String.format("Full throughput %d ms after the outage began (%.1f of %.1f tps)",
+                    now - current.startMillis, tps, current.baselineTps));
+        }
+        if (state == State.UP) {
+            recent.addLast(new long[]{now, ok});
+            while (recent.size() > BASELINE_SECONDS + 2) {
+                recent.removeFirst();
+            }
+        }
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("elapsedSeconds", (now - startMillis) / 1000);
+        entry.put("state", state.name());
+        entry.put("tps", Math.round(tps * 100.0) / 100.0);
+        entry.put("failed", failed);
+        entry.put("connectionErrors", connection);
+        entry.put("blocked", blocked);
+        entry.put("poolActive", pool.getOrDefault("active", 0L));
+        entry.put("poolWaiting", pool.getOrDefault("waiting", 0L));
+        entry.put("connectionsCreated", created);
+        entry.put("connectionTimeouts", timeouts);
+        timeline.add(entry);
+        if (timeline.size() > MAX_TIMELINE) {
+            timeline.remove(0);
+        }
+        return entry;
+    }
+
+    private long delta(Map<String, Long> pool, String key) {
+        Long now = pool.get(key);
+        Long before = lastPool.get(key);
+        return now != null && before != null ? Math.max(0, now - before) : 0;
+    }
+
+    /**
+     * Average throughput of the whole seconds before the outage began.
+     */
+    private double baseline(long outageStart) {
+        long total = 0;
+        int seconds = 0;
+        for (long[] second : recent) {
+            if (second[0] <= outageStart && seconds < BASELINE_SECONDS) {
+                total += second[1];
+                seconds++;
+            }
+        }
+        return seconds > 0 ? (double) total / seconds : 0;
+    }
+
+    public synchronized List<Map<String, Object>> getTimeline() {
+        return new ArrayList<>(timeline);
+    }
+
+    /**
+     * Outages with their recovery times, total downtime and the share of the run the database was available.
+     */
+    public synchronized Map<String, Object> summarize() {
+        long now = System.currentTimeMillis();
+        long downtime = 0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Outage outage : outages) {
+            downtime += (outage.firstSuccessMillis > 0 ? outage.firstSuccessMillis : now) - outage.startMillis;
+            rows.add(outage.describe(startMillis));
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("state", state.name());
+        summary.put("outageThresholdMs", thresholdMillis);
+        summary.put("outages", rows);
+        summary.put("downtimeMs", downtime);
+        long elapsed = now - startMillis;
+        summary.put("availabilityPercent", elapsed > 0 ? Math.round((1 - (double) downtime / elapsed) * 10000.0) / 100.0 : 100.0);
+        return summary;
+    }
+
+    private static final class Outage {
+        final long startMillis;
+        final double baselineTps;
+        long firstSuccessMillis;
+        long fullThroughputMillis;
+        long failed;
+        long connectionErrors;
+        long peakBlocked;
+        long connectionsCreated;
+        long connectionTimeouts;
+
+        Outage(long startMillis, double baselineTps) {
+            this.startMillis = startMillis;
+            this.baselineTps = baselineTps;
+        }
+
+        Map<String, Object> describe(long runStartMillis) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("startSecond", Math.round((startMillis - runStartMillis) / 100.0) / 10.0);
+            row.put("timeToFirstSuccessMs", firstSuccessMillis > 0 ? firstSuccessMillis - startMillis : null);
+            row.put("timeToFullThroughputMs", fullThroughputMillis > 0 ? fullThroughputMillis - startMillis : null);
+            row.put("baselineTps", Math.round(baselineTps * 100.0) / 100.0);
+            row.put("failed", failed);
+            row.put("connectionErrors", connectionErrors);
+            row.put("peakBlocked", peakBlocked);
+            row.put("connectionsCreated", connectionsCreated);
+            row.put("connectionTimeouts", connectionTimeouts);
+            return row;
+        }
+    }
+}
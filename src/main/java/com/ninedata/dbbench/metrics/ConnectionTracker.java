@@ -0,0 +1,130 @@
+package com.ninedata.dbbench.metrics;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-connection mode: every Nth transaction of a terminal opens a new physical connection, with its
+ * handshake, TLS and authentication, and closes it afterwards, as per-request clients (PHP, serverless) do.
+ * Times the connects and counts the ones that fail.
+ */
+public class ConnectionTracker {
+    private final int every;
+    private final long startNanos = System.nanoTime();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram intervalLatency = new LatencyHistogram();
+    private final LongAdder connects = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder intervalConnects = new LongAdder();
+    private final LongAdder intervalFailures = new LongAdder();
+    private final LongAdder intervalNanos = new LongAdder();
+    /** Transactions the calling terminal thread started since its last new connection */
+    private final ThreadLocal<int[]> sinceConnect = ThreadLocal.withInitial(() -> new int[1]);
+    private long lastSampleNanos = startNanos;
+
+    /**
+     * @param every open a new connection for every this many transactions of a terminal; 1 = every transaction
+     */
+    public ConnectionTracker(int every) {
+        if (every <= 0) {
+            throw new IllegalArgumentException("Short connection interval must be positive: " + every);
+        }
+        this.every = every;
+    }
+
+    public int getEvery() {
+        return every;
+    }
+
+    /**
+     * Whether the calling terminal's next transaction gets a new connection instead of a pooled one.
+     */
+    public boolean isDue() {
+        int[] count = sinceConnect.get();
+        if (++count[0] < every) {
+            return false;
+        }
+        count[0] = 0;
+        return true;
+    }
+
+    /**
+     * Open a new physical connection to the adapter's database, timing the connect.
+     */
+    public Connection open(DatabaseAdapter adapter) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Connection conn = adapter.openConnection();
+            record(System.nanoTime() - start);
+            return conn;
+        } catch (SQLException e) {
+            failures.increment();
+            intervalFailures.increment();
+            throw e;
+        }
+    }
+
+    void record(long nanos) {
+        latency.record(nanos);
+        intervalLatency.record(nanos);
+        connects.increment();
+        totalNanos.add(nanos);
+        intervalConnects.increment();
+        intervalNanos.add(nanos);
+    }
+
+    /**
+     * Connects per second, failures and connect latency since the last sample; called once a second.
+     */
+    public synchronized Map<String, Object> sample() {
+        long now = System.nanoTime();
+        long count = intervalConnects.sumThenReset();
+        long failed = intervalFailures.sumThenReset();
+        long nanos = intervalNanos.sumThenReset();
+        double seconds = (now - lastSampleNanos) / 1e9;
+        lastSampleNanos = now;
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("connectsPerSecond", seconds > 0 ? round(count / seconds) : 0.0);
+        sample.put("failures", failed);
+        sample.put("avgConnectMs", count > 0 ? round(nanos / 1e6 / count) : 0.0);
+        sample.put("p95ConnectMs", round(intervalLatency.getPercentileMs(95)));
+        intervalLatency.reset();
+        return sample;
+    }
+
+    /**
+     * Connects, failure rate, connects per second and connect latency percentiles over the run, up to the last sample.
+     */
+    public Map<String, Object> summarize() {
+        long count = connects.sum();
+        long failed = failures.sum();
+        // Up to the last sample, which is the end of the run once it stopped
+        long end;
+        synchronized (this) {
+            end = lastSampleNanos > startNanos ? lastSampleNanos : System.nanoTime();
+        }
+        double seconds = (end - startNanos) / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("every", every);
+        summary.put("connects", count);
+        summary.put("failures", failed);
+        summary.put("failureRate", count + failed > 0 ? round(failed * 100.0 / (count + failed)) : 0.0);
+        summary.put("connectsPerSecond", seconds > 0 ? round(count / seconds) : 0.0);
+        summary.put("avgConnectMs", count > 0 ? round(totalNanos.sum() / 1e6 / count) : 0.0);
+        summary.put("p50ConnectMs", round(latency.getPercentileMs(50)));
+        summary.put("p95ConnectMs", round(latency.getPercentileMs(95)));
+        summary.put("p99ConnectMs", round(latency.getPercentileMs(99)));
+        summary.put("maxConnectMs", round(latency.getPercentileMs(100)));
+        return summary;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,128 @@
+package com.ninedata.dbbench.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear latency histogram in nanoseconds.
+ * Each power of two is split into 64 linear sub-buckets, so recorded values are
+ * kept within about 1.6% of their true value. Histograms can be merged to build
+ * overall percentiles from per-transaction ones.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Largest tracked exponent: 2^40 ns is about 18 minutes; longer values land in the last bucket. */
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = SUB_BUCKETS * (MAX_EXPONENT - SUB_BUCKET_BITS + 2);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(long latencyNanos) {
+        counts.incrementAndGet(indexOf(latencyNanos));
+    }
+
+    /**
+     * Add all counts of another histogram into this one.
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+    }
+
+    /**
+     * Non-empty buckets as [index, count] pairs, a compact form for sending a histogram to another process.
+     */
+    public List<long[]> toSparse() {
+        List<long[]> buckets = new ArrayList<>();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                buckets.add(new long[]{i, c});
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Add counts to a bucket, as listed by {@link #toSparse()}.
+     */
+    public void add(int index, long count) {
+        if (index < 0 || index >= BUCKET_COUNT) {
+            throw new IllegalArgumentException("Histogram bucket out of range: " + index);
+        }
+        counts.addAndGet(index, count);
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Latency at the given percentile (0-100) in nanoseconds, or 0 when nothing was recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(BUCKET_COUNT - 1);
+    }
+
+    public double getPercentileMs(double percentile) {
+        return getPercentileNanos(percentile) / 1_000_000.0;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(0, value);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS * (shift + 1) + subBucket;
+    }
+
+    /**
+     * Representative value (bucket midpoint) for a bucket index.
+     */
+    static long valueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + ((1L << shift) >> 1);
+    }
+}
@@ -10,28 +10,81 @@ import java.util.concurrent.CopyOnWriteArrayList;
 @Component
 public class MetricsRegistry {
     private final Map<String, TransactionMetrics> transactionMetrics = new ConcurrentHashMap<>();
+    /** Transactions grouped along another dimension (e.g. isolation level), dimension -> value -> metrics */
+    private final Map<String, Map<String, TransactionMetrics>> dimensions = new ConcurrentHashMap<>();
     @Getter
     private final List<MetricsSnapshot> history = new CopyOnWriteArrayList<>();
+    /** Events marked on the timeline, e.g. live changes to terminals or rate */
+    @Getter
+    private final List<Map<String, Object>> annotations = new CopyOnWriteArrayList<>();
     private volatile long startTime;
     private volatile long endTime;
+    /** Scenario phase running now, tagged onto metrics and snapshots; null outside scenarios */
+    private volatile String phase;
 
     public void reset() {
         transactionMetrics.clear();
+        dimensions.clear();
         history.clear();
+        annotations.clear();
         startTime = System.currentTimeMillis();
         endTime = 0;
+        phase = null;
+    }
+
+    public void setPhase(String phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Mark an event on the metrics timeline and return it.
+     */
+    public Map<String, Object> annotate(String type, String message) {
+        Map<String, Object> annotation = new LinkedHashMap<>();
+        annotation.put("timestamp", System.currentTimeMillis());
+        annotation.put("elapsedSeconds", getElapsedMillis() / 1000.0);
+        annotation.put("type", type);
+        annotation.put("message", message);
+        if (phase != null) {
+            annotation.put("phase", phase);
+        }
+        annotations.add(annotation);
+        return annotation;
     }
 
     public void markEnd() {
         endTime = System.currentTimeMillis();
     }
 
+    /**
+     * Metrics for a transaction type, or null if none was recorded.
+     */
+    public TransactionMetrics get(String name) {
+        return transactionMetrics.get(name);
+    }
+
+    /**
+     * Run time so far, or the full run time once {@link #markEnd()} was called.
+     */
+    public long getElapsedMillis() {
+        return (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+    }
+
+    public Collection<TransactionMetrics> getTransactionMetrics() {
+        return transactionMetrics.values();
+    }
+
     public TransactionMetrics getOrCreate(String name) {
         return transactionMetrics.computeIfAbsent(name, TransactionMetrics::new);
     }
 
     public void recordTransaction(String name, boolean success, long latencyNanos) {
+        recordTransaction(name, success, latencyNanos, 0);
+    }
+
+    public void recordTransaction(String name, boolean success, long latencyNanos, int roundTrips) {
         TransactionMetrics metrics = getOrCreate(name);
+        metrics.recordRoundTrips(roundTrips);
         if (success) {
             metrics.recordSuccess(latencyNanos);
         } else {
@@ -39,12 +92,108 @@ public class MetricsRegistry {
         }
     }
 
+    public void recordRollback(String name, long latencyNanos, int roundTrips) {
+        TransactionMetrics metrics = getOrCreate(name);
+        metrics.recordRoundTrips(roundTrips);
+        metrics.recordRollback(latencyNanos);
+    }
+
+    /**
+     * Record statements run by a transaction, the basis of QPS.
+     */
+    public void recordQueries(String name, int queries) {
+        getOrCreate(name).recordQueries(queries);
+    }
+
+    /**
+     * Record rows returned or affected by a transaction, for workloads that count them.
+     */
+    public void recordRows(String name, long rows) {
+        getOrCreate(name).recordRows(rows);
+    }
+
+    public void recordRetries(String name, int retries, long retryLatencyNanos) {
+        getOrCreate(name).recordRetries(retries, retryLatencyNanos);
+    }
+
+    /**
+     * Record the category of a terminal (non-retried or retries exhausted) error.
+     */
+    public void recordError(String name, String category) {
+        getOrCreate(name).recordError(category);
+    }
+
+    public TransactionMetrics getOrCreateDimension(String dimension, String value) {
+        return dimensions.computeIfAbsent(dimension, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(value, TransactionMetrics::new);
+    }
+
+    /**
+     * Record a finished transaction under a dimension value, e.g. ("isolation", "SERIALIZABLE").
+     */
+    public void recordDimension(String dimension, String value, boolean success, boolean rollback,
+                                long latencyNanos, int retries) {
+        TransactionMetrics metrics = getOrCreateDimension(dimension, value);
+        if (rollback) {
+            metrics.recordRollback(latencyNanos);
+        } else if (success) {
+            metrics.recordSuccess(latencyNanos);
+        } else {
+            metrics.recordFailure(latencyNanos);
+        }
+        if (retries > 0) {
+            metrics.recordRetries(retries, 0);
+        }
+    }
+
+    /**
+     * Raw counters of every transaction type and dimension value, see {@link TransactionMetrics#exportCounts()}.
+     */
+    public Map<String, Object> exportCounts() {
+        Map<String, Object> txCounts = new LinkedHashMap<>();
+        transactionMetrics.forEach((name, m) -> txCounts.put(name, m.exportCounts()));
+        Map<String, Object> dimensionCounts = new LinkedHashMap<>();
+        dimensions.forEach((dimension, values) -> {
+            Map<String, Object> valueCounts = new LinkedHashMap<>();
+            values.forEach((value, m) -> valueCounts.put(value, m.exportCounts()));
+            dimensionCounts.put(dimension, valueCounts);
+        });
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("transactions", txCounts);
+        counts.put("dimensions", dimensionCounts);
+        return counts;
+    }
+
+    /**
+     * Add counters exported by another registry, e.g. one interval reported by a distributed agent.
+     */
+    @SuppressWarnings("unchecked")
+    public void importCounts(Map<String, ?> counts) {
+        if (counts.get("transactions") instanceof Map<?, ?> txCounts) {
+            txCounts.forEach((name, c) -> getOrCreate((String) name).importCounts((Map<String, ?>) c));
+        }
+        if (counts.get("dimensions") instanceof Map<?, ?> dimensionCounts) {
+            dimensionCounts.forEach((dimension, values) -> ((Map<?, ?>) values).forEach((value, c) ->
+                    getOrCreateDimension((String) dimension, (String) value).importCounts((Map<String, ?>) c)));
+        }
+    }
+
     public Map<String, Object> getCurrentMetrics() {
         Map<String, Object> result = new LinkedHashMap<>();
+        if (phase != null) {
+            result.put("phase", phase);
+        }
 
         long totalCount = 0;
         long totalSuccess = 0;
+        long totalRollback = 0;
+        long totalFailure = 0;
+        long totalRetries = 0;
+        Map<String, Long> errors = new TreeMap<>();
         double totalLatency = 0;
+        long totalRoundTrips = 0;
+        long totalQueries = 0;
+        LatencyHistogram overallLatency = new LatencyHistogram();
 
         List<Map<String, Object>> txMetrics = new ArrayList<>();
         for (TransactionMetrics m : transactionMetrics.values()) {
@@ -52,38 +201,97 @@ public class MetricsRegistry {
             tx.put("name", m.getName());
             tx.put("count", m.getCount());
             tx.put("success", m.getSuccessCount());
+            tx.put("rollback", m.getRollbackCount());
             tx.put("failure", m.getFailureCount());
             tx.put("successRate", Math.round(m.getSuccessRate() * 100.0) / 100.0);
             tx.put("avgLatencyMs", Math.round(m.getAverageLatencyMs() * 100.0) / 100.0);
             tx.put("minLatencyMs", Math.round(m.getMinLatencyMs() * 100.0) / 100.0);
             tx.put("maxLatencyMs", Math.round(m.getMaxLatencyMs() * 100.0) / 100.0);
+            tx.put("p50LatencyMs", Math.round(m.getPercentileLatencyMs(50) * 100.0) / 100.0);
+            tx.put("p95LatencyMs", Math.round(m.getPercentileLatencyMs(95) * 100.0) / 100.0);
+            tx.put("p99LatencyMs", Math.round(m.getPercentileLatencyMs(99) * 100.0) / 100.0);
+            tx.put("avgRoundTrips", Math.round(m.getAverageRoundTrips() * 100.0) / 100.0);
+            if (m.getTotalRows() > 0) {
+                tx.put("rows", m.getTotalRows());
+                tx.put("avgRows", Math.round(m.getAverageRows() * 100.0) / 100.0);
+            }
+            tx.put("retries", m.getRetryCount());
+            tx.put("avgRetryLatencyMs", Math.round(m.getAverageRetryLatencyMs() * 100.0) / 100.0);
+            tx.put("errors", m.getErrorCounts());
             txMetrics.add(tx);
 
             totalCount += m.getCount();
             totalSuccess += m.getSuccessCount();
+            totalRollback += m.getRollbackCount();
+            totalFailure += m.getFailureCount();
+            totalRetries += m.getRetryCount();
+            m.getErrorCounts().forEach((category, n) -> errors.merge(category, n, Long::sum));
             totalLatency += m.getAverageLatencyMs() * m.getCount();
+            totalRoundTrips += m.getTotalRoundTrips();
+            totalQueries += m.getTotalQueries();
+            overallLatency.merge(m.getLatencyHistogram());
         }
 
         result.put("transactions", txMetrics);
         result.put("totalTransactions", totalCount);
         result.put("totalSuccess", totalSuccess);
-        result.put("totalFailure", totalCount - totalSuccess);
-        result.put("overallSuccessRate", totalCount > 0 ? Math.round((totalSuccess * 100.0 / totalCount) * 100.0) / 100.0 : 0);
+        result.put("totalRollback", totalRollback);
+        result.put("totalFailure", totalFailure);
+        result.put("totalRetries", totalRetries);
+        result.put("errorsByCategory", errors);
+        result.put("overallSuccessRate", totalCount > 0 ? Math.round(((totalSuccess + totalRollback) * 100.0 / totalCount) * 100.0) / 100.0 : 0);
         result.put("avgLatencyMs", totalCount > 0 ? Math.round((totalLatency / totalCount) * 100.0) / 100.0 : 0);
+        result.put("p50LatencyMs", Math.round(overallLatency.getPercentileMs(50) * 100.0) / 100.0);
+        result.put("p95LatencyMs", Math.round(overallLatency.getPercentileMs(95) * 100.0) / 100.0);
+        result.put("p99LatencyMs", Math.round(overallLatency.getPercentileMs(99) * 100.0) / 100.0);
+        result.put("avgRoundTrips", totalCount > 0 ? Math.round(((double) totalRoundTrips / totalCount) * 100.0) / 100.0 : 0);
+        result.put("totalQueries", totalQueries);
+
+        long elapsedMillis = getElapsedMillis();
+        Map<String, Object> dimensionMetrics = new TreeMap<>();
+        dimensions.forEach((dimension, values) -> {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            new TreeMap<>(values).values().forEach(m -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("name", m.getName());
+                row.put("count", m.getCount());
+                row.put("success", m.getSuccessCount());
+                row.put("rollback", m.getRollbackCount());
+                row.put("failure", m.getFailureCount());
+                row.put("retries", m.getRetryCount());
+                row.put("abortRate", Math.round(m.getAbortRate() * 100.0) / 100.0);
+                row.put("tps", elapsedMillis > 0 ? Math.round(m.getCount() * 1000.0 / elapsedMillis * 100.0) / 100.0 : 0.0);
+                row.put("avgLatencyMs", Math.round(m.getAverageLatencyMs() * 100.0) / 100.0);
+                row.put("p95LatencyMs", Math.round(m.getPercentileLatencyMs(95) * 100.0) / 100.0);
+                row.put("p99LatencyMs", Math.round(m.getPercentileLatencyMs(99) * 100.0) / 100.0);
+                row.put("maxLatencyMs", Math.round(m.getMaxLatencyMs() * 100.0) / 100.0);
+                rows.add(row);
+            });
+            dimensionMetrics.put(dimension, rows);
+        });
+        result.put("dimensions", dimensionMetrics);
 
-        long elapsed = (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+        long elapsed = getElapsedMillis();
         result.put("elapsedSeconds", elapsed / 1000);
         result.put("tps", elapsed > 0 ? Math.round((totalCount * 1000.0 / elapsed) * 100.0) / 100.0 : 0);
+        // Statements only: commit and rollback are round trips but not queries
+        result.put("qps", elapsed > 0 ? Math.round((totalQueries * 1000.0 / elapsed) * 100.0) / 100.0 : 0);
 
         return result;
     }
 
     public void takeSnapshot(Map<String, Object> dbMetrics, Map<String, Object> osMetrics) {
+        takeSnapshot(dbMetrics, osMetrics, null);
+    }
+
+    public void takeSnapshot(Map<String, Object> dbMetrics, Map<String, Object> osMetrics, Map<String, Object> replicationLag) {
         MetricsSnapshot snapshot = new MetricsSnapshot();
         snapshot.setTimestamp(System.currentTimeMillis());
+        snapshot.setPhase(phase);
         snapshot.setTransactionMetrics(new HashMap<>(getCurrentMetrics()));
         snapshot.setDatabaseMetrics(dbMetrics != null ? new HashMap<>(dbMetrics) : new HashMap<>());
         snapshot.setOsMetrics(osMetrics != null ? new HashMap<>(osMetrics) : new HashMap<>());
+        snapshot.setReplicationLag(replicationLag);
         history.add(snapshot);
 
         // Keep only last hour of data (3600 snapshots at 1/sec)
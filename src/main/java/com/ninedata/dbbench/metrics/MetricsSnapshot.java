@@ -6,7 +6,11 @@ import java.util.Map;
 @Data
 public class MetricsSnapshot {
     private long timestamp;
+    /** Scenario phase the snapshot was taken in, or null */
+    private String phase;
     private Map<String, Object> transactionMetrics;
     private Map<String, Object> databaseMetrics;
     private Map<String, Object> osMetrics;
+    /** Replication lag by replica, see ReplicationLagMonitor#sample(); null without the lag probe */
+    private Map<String, Object> replicationLag;
 }
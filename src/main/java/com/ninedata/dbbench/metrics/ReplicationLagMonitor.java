@@ -0,0 +1,319 @@
+package com.ninedata.dbbench.metrics;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Replication lag of each replica during a run. A heartbeat row on the primary is updated every interval and
+ * polled on each replica at the same rate: a replica that has not shown the newest heartbeat yet lags by the
+ * time since the oldest one it is missing was committed, and one that has caught up by the time its last
+ * heartbeat took to show after its commit. Both ends are timed on this machine's clock, so the servers' clocks
+ * do not matter, and a slow commit on the busy primary does not count as lag. The engine's own lag views
+ * (SHOW REPLICA STATUS, pg_stat_replication, V$DATAGUARD_STATS) are read once a second alongside.
+ * Every probe has its own connection outside the pools, so it never waits behind the terminals.
+ */
+@Slf4j
+public class ReplicationLagMonitor {
+    static final String TABLE = "DBBENCH_HEARTBEAT";
+    /** Heartbeats remembered for lag lookups; a replica further behind is measured from the oldest kept */
+    static final int MAX_HEARTBEATS = 10000;
+    /** Samples kept for the results, one per second */
+    static final int MAX_SAMPLES = 3600;
+    private static final long VIEW_INTERVAL_MILLIS = 1000;
+
+    private final DatabaseAdapter primary;
+    private final List<Probe> probes = new ArrayList<>();
+    private final long intervalMillis;
+    private final BiConsumer<String, String> logger;
+    /** Commit time of each heartbeat by the value written */
+    private final NavigableMap<Long, Long> heartbeats = new ConcurrentSkipListMap<>();
+    private final List<Map<String, Object>> samples = new ArrayList<>();
+    private volatile Map<String, Double> standbyLags = Map.of();
+    private long startMillis;
+    private ScheduledExecutorService scheduler;
+    private Connection primaryConnection;
+    private PreparedStatement beat;
+    private boolean primaryViews = true;
+    private long lastPrimaryView;
+
+    /**
+     * @param replicas replica adapters by endpoint name; only used to open probe connections and read lag views
+     */
+    public ReplicationLagMonitor(DatabaseAdapter primary, Map<String, DatabaseAdapter> replicas, int intervalMillis,
+                                 BiConsumer<String, String> logger) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Replication lag monitoring needs at least one replica");
+        }
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("Lag probe interval must be positive: " + intervalMillis);
+        }
+        this.primary = primary;
+        replicas.forEach((name, adapter) -> probes.add(new Probe(name, adapter)));
+        this.intervalMillis = intervalMillis;
+        this.logger = logger;
+    }
+
+    /**
+     * Connect, set up the heartbeat row and start probing. Fails only when the primary cannot be reached;
+     * an unreachable replica is reported and left out.
+     */
+    public void start() throws SQLException {
+        startMillis = System.currentTimeMillis();
+        primaryConnection = primary.openDedicatedConnection();
+        boolean heartbeat = createHeartbeat();
+        for (Probe probe : probes) {
+            try {
+                probe.connection = probe.adapter.openDedicatedConnection();
+                probe.select = heartbeat ? probe.connection.prepareStatement("SELECT BEAT_MILLIS FROM " + TABLE + " WHERE ID = 1") : null;
+            } catch (SQLException e) {
+                logger.accept("WARN", "Lag probe cannot connect to replica " + probe.name + ": " + e.getMessage());
+                probe.close();
+            }
+        }
+        scheduler = Executors.newScheduledThreadPool(1 + probes.size(), r -> {
+            Thread thread = new Thread(r, "dbbench-lag");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::beat, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        for (Probe probe : probes) {
+            if (probe.connection != null) {
+                scheduler.scheduleWithFixedDelay(() -> poll(probe), 0, intervalMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                scheduler.awaitTermination(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (Probe probe : probes) {
+            probe.close();
+        }
+        closeQuietly(primaryConnection);
+        primaryConnection = null;
+    }
+
+    private boolean createHeartbeat() {
+        try (Statement stmt = primaryConnection.createStatement()) {
+            try {
+                stmt.execute("CREATE TABLE " + TABLE + " (ID INT NOT NULL PRIMARY KEY, BEAT_MILLIS "
+                        + primary.bigintType() + " NOT NULL)");
+            } catch (SQLException e) {
+                log.debug("Heartbeat table not created (may already exist): {}", e.getMessage());
+            }
+            if (stmt.executeUpdate("UPDATE " + TABLE + " SET BEAT_MILLIS = 0 WHERE ID = 1") == 0) {
+                stmt.executeUpdate("INSERT INTO " + TABLE + " (ID, BEAT_MILLIS) VALUES (1, 0)");
+            }
+            beat = primaryConnection.prepareStatement("UPDATE " + TABLE + " SET BEAT_MILLIS = ? WHERE ID = 1");
+            return true;
+        } catch (SQLException e) {
+            logger.accept("WARN", "Cannot write the heartbeat table " + TABLE + " on the primary, "
+                    + "lag is only read from the database's views: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void beat() {
+        long now = System.currentTimeMillis();
+        if (beat != null) {
+            try {
+                beat.setLong(1, now);
+                beat.executeUpdate();
+                heartbeats.put(now, System.currentTimeMillis());
+                while (heartbeats.size() > MAX_HEARTBEATS) {
+                    heartbeats.pollFirstEntry();
+                }
+            } catch (SQLException e) {
+                log.debug("Heartbeat failed: {}", e.getMessage());
+            }
+        }
+        if (primaryViews && now - lastPrimaryView >= VIEW_INTERVAL_MILLIS) {
+            lastPrimaryView = now;
+            try {
+                standbyLags = primary.queryStandbyLags(primaryConnection);
+            } catch (SQLException e) {
+                primaryViews = false;
+                log.info("Standby lag is not available from the primary: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void poll(Probe probe) {
+        if (probe.select != null) {
+            try (ResultSet rs = probe.select.executeQuery()) {
+                if (rs.next()) {
+                    long seen = rs.getLong(1);
+                    long now = System.currentTimeMillis();
+                    probe.observe(lagMillis(heartbeats, seen, probe.lastSeen, now, probe.heartbeatMs));
+                    probe.lastSeen = seen;
+                }
+            } catch (SQLException e) {
+                // The heartbeat table may not have reached the replica yet
+                log.debug("Heartbeat poll on {} failed: {}", probe.name, e.getMessage());
+            }
+        }
+        long now = System.currentTimeMillis();
+        if (probe.views && now - probe.lastView >= VIEW_INTERVAL_MILLIS) {
+            probe.lastView = now;
+            try {
+                probe.reported(probe.adapter.queryReplicaLag(probe.connection));
+            } catch (SQLException e) {
+                probe.views = false;
+                log.info("Replica {} does not report its lag: {}", probe.name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Lag of a replica that shows heartbeat {@code seen}: the time since the oldest heartbeat it is missing was
+     * committed; once it has caught up, how long its newest heartbeat took to show, or {@code current} when that
+     * was already measured. Null until the replica shows one of this run's heartbeats or misses one.
+     */
+    static Double lagMillis(NavigableMap<Long, Long> heartbeats, long seen, long lastSeen, long now, Double current) {
+        if (heartbeats.isEmpty()) {
+            return current;
+        }
+        Map.Entry<Long, Long> missing = seen < heartbeats.firstKey() ? heartbeats.firstEntry() : heartbeats.higherEntry(seen);
+        if (missing != null) {
+            return (double) Math.max(0, now - missing.getValue());
+        }
+        if (seen == lastSeen) {
+            return current;
+        }
+        // Seen before the writer recorded its commit: the commit has just happened
+        Long committed = heartbeats.get(seen);
+        return (double) Math.max(0, now - (committed != null ? committed : now));
+    }
+
+    /**
+     * Current lag of every replica, and of every standby the primary reports, recorded for the results.
+     */
+    public Map<String, Object> sample() {
+        Map<String, Object> sample = new LinkedHashMap<>();
+        for (Probe probe : probes) {
+            Map<String, Object> lag = new LinkedHashMap<>();
+            lag.put("heartbeatMs", round(probe.heartbeatMs));
+            lag.put("reportedMs", round(probe.reportedMs));
+            sample.put(probe.name, lag);
+        }
+        standbyLags.forEach((name, ms) -> {
+            Map<String, Object> lag = new LinkedHashMap<>();
+            lag.put("heartbeatMs", null);
+            lag.put("reportedMs", round(ms));
+            sample.put(name + "@primary", lag);
+        });
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("elapsedSeconds", (System.currentTimeMillis() - startMillis) / 1000);
+        entry.put("lag", sample);
+        synchronized (samples) {
+            samples.add(entry);
+            if (samples.size() > MAX_SAMPLES) {
+                samples.remove(0);
+            }
+        }
+        return sample;
+    }
+
+    public List<Map<String, Object>> getSamples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+
+    /**
+     * Per replica: heartbeat lag now, on average and at worst over every poll, and the lag the database reported.
+     */
+    public List<Map<String, Object>> summarize() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Probe probe : probes) {
+            synchronized (probe) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("name", probe.name);
+                row.put("polls", probe.polls);
+                row.put("heartbeatMs", round(probe.heartbeatMs));
+                row.put("avgHeartbeatMs", probe.polls > 0 ? round(probe.totalMs / probe.polls) : null);
+                row.put("maxHeartbeatMs", round(probe.maxMs));
+                row.put("reportedMs", round(probe.reportedMs));
+                row.put("maxReportedMs", round(probe.maxReportedMs));
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static Double round(Double ms) {
+        return ms == null ? null : Math.round(ms * 100.0) / 100.0;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                // Nothing to do
+            }
+        }
+    }
+
+    private static final class Probe {
+        final String name;
+        final DatabaseAdapter adapter;
+        Connection connection;
+        PreparedStatement select;
+        long lastSeen = -1;
+        long lastView;
+        volatile boolean views = true;
+        volatile Double heartbeatMs;
+        volatile Double reportedMs;
+        long polls;
+        double totalMs;
+        Double maxMs;
+        Double maxReportedMs;
+
+        Probe(String name, DatabaseAdapter adapter) {
+            this.name = name;
+            this.adapter = adapter;
+        }
+
+        synchronized void observe(Double lag) {
+            heartbeatMs = lag;
+            if (lag != null) {
+                polls++;
+                totalMs += lag;
+                maxMs = maxMs == null ? lag : Math.max(maxMs, lag);
+            }
+        }
+
+        synchronized void reported(Double lag) {
+            reportedMs = lag;
+            if (lag != null) {
+                maxReportedMs = maxReportedMs == null ? lag : Math.max(maxReportedMs, lag);
+            }
+        }
+
+        void close() {
+            closeQuietly(select);
+            closeQuietly(connection);
+            select = null;
+            connection = null;
+        }
+    }
+}
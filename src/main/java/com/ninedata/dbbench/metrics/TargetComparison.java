@@ -0,0 +1,135 @@
+package com.ninedata.dbbench.metrics;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Side-by-side view of databases run together: each target's throughput and latency over the last
+ * interval and in total, and the difference to the first target, which is the baseline.
+ */
+public class TargetComparison {
+    private final Map<String, MetricsRegistry> targets;
+    private final Map<String, long[]> previous = new HashMap<>();
+    private final List<Map<String, Object>> intervals = new CopyOnWriteArrayList<>();
+    private long previousNanos;
+
+    /**
+     * @param targets registries by target name, baseline first
+     */
+    public TargetComparison(Map<String, MetricsRegistry> targets) {
+        this.targets = new LinkedHashMap<>(targets);
+        this.previousNanos = System.nanoTime();
+    }
+
+    /**
+     * Close the current interval and return one row per target. The interval is kept for {@link #getIntervals()}.
+     */
+    public synchronized List<Map<String, Object>> sample() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - previousNanos) / 1e9);
+        previousNanos = now;
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<String, Object> baseline = null;
+        long elapsedSeconds = 0;
+        for (Map.Entry<String, MetricsRegistry> target : targets.entrySet()) {
+            long[] totals = totals(target.getValue());
+            long[] last = previous.getOrDefault(target.getKey(), new long[3]);
+            previous.put(target.getKey(), totals);
+            long count = totals[0] - last[0];
+            Map<String, Object> current = target.getValue().getCurrentMetrics();
+            elapsedSeconds = Math.max(elapsedSeconds, ((Number) current.get("elapsedSeconds")).longValue());
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", target.getKey());
+            row.put("intervalTps", round(count / seconds));
+            row.put("intervalAvgLatencyMs", count > 0 ? round((totals[1] - last[1]) / 1_000_000.0 / count) : 0.0);
+            row.put("intervalFailures", totals[2] - last[2]);
+            row.put("tps", current.get("tps"));
+            row.put("avgLatencyMs", current.get("avgLatencyMs"));
+            row.put("p95LatencyMs", current.get("p95LatencyMs"));
+            row.put("p99LatencyMs", current.get("p99LatencyMs"));
+            row.put("totalTransactions", current.get("totalTransactions"));
+            row.put("totalFailure", current.get("totalFailure"));
+            if (baseline == null) {
+                baseline = row;
+            } else {
+                row.put("intervalTpsDelta", delta(row.get("intervalTps"), baseline.get("intervalTps")));
+                row.put("intervalLatencyDelta", delta(row.get("intervalAvgLatencyMs"), baseline.get("intervalAvgLatencyMs")));
+                row.put("tpsDelta", delta(row.get("tps"), baseline.get("tps")));
+                row.put("p95Delta", delta(row.get("p95LatencyMs"), baseline.get("p95LatencyMs")));
+            }
+            rows.add(row);
+        }
+
+        Map<String, Object> interval = new LinkedHashMap<>();
+        interval.put("timestamp", System.currentTimeMillis());
+        interval.put("elapsedSeconds", elapsedSeconds);
+        interval.put("targets", rows);
+        intervals.add(interval);
+        // Keep the last hour, like the metrics history
+        while (intervals.size() > 3600) {
+            intervals.remove(0);
+        }
+        return rows;
+    }
+
+    public List<Map<String, Object>> getIntervals() {
+        return intervals;
+    }
+
+    /**
+     * Whole-run totals per target with their difference to the baseline.
+     */
+    public List<Map<String, Object>> summarize() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<String, Object> baseline = null;
+        for (Map.Entry<String, MetricsRegistry> target : targets.entrySet()) {
+            Map<String, Object> current = target.getValue().getCurrentMetrics();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("name", target.getKey());
+            for (String key : List.of("tps", "qps", "avgLatencyMs", "p50LatencyMs", "p95LatencyMs", "p99LatencyMs",
+                    "totalTransactions", "totalRollback", "totalFailure", "totalRetries", "overallSuccessRate")) {
+                row.put(key, current.get(key));
+            }
+            if (baseline == null) {
+                baseline = row;
+            } else {
+                row.put("tpsDelta", delta(row.get("tps"), baseline.get("tps")));
+                row.put("avgLatencyDelta", delta(row.get("avgLatencyMs"), baseline.get("avgLatencyMs")));
+                row.put("p95Delta", delta(row.get("p95LatencyMs"), baseline.get("p95LatencyMs")));
+                row.put("p99Delta", delta(row.get("p99LatencyMs"), baseline.get("p99LatencyMs")));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Transactions, latency sum and failures so far.
+     */
+    private static long[] totals(MetricsRegistry registry) {
+        long[] totals = new long[3];
+        for (TransactionMetrics m : registry.getTransactionMetrics()) {
+            totals[0] += m.getCount();
+            totals[1] += m.getTotalLatencyNanos().sum();
+            totals[2] += m.getFailureCount();
+        }
+        return totals;
+    }
+
+    /**
+     * Relative difference in percent, or null without a baseline value.
+     */
+    static Double delta(Object value, Object baseline) {
+        double b = ((Number) baseline).doubleValue();
+        if (b == 0) {
+            return null;
+        }
+        return round((((Number) value).doubleValue() - b) * 100.0 / b);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
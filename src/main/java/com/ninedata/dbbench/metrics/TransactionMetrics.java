@@ -1,6 +1,12 @@
 package com.ninedata.dbbench.metrics;
 
 import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.LongAdder;
 
@@ -13,6 +19,14 @@ public class TransactionMetrics {
     private final LongAdder totalLatencyNanos = new LongAdder();
     private final AtomicLong minLatencyNanos = new AtomicLong(Long.MAX_VALUE);
     private final AtomicLong maxLatencyNanos = new AtomicLong(0);
+    private final LongAdder totalRoundTrips = new LongAdder();
+    private final LongAdder totalQueries = new LongAdder();
+    private final LongAdder totalRows = new LongAdder();
+    private final LongAdder rollbackCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder totalRetryLatencyNanos = new LongAdder();
+    private final Map<String, LongAdder> errorsByCategory = new ConcurrentHashMap<>();
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
 
     public TransactionMetrics(String name) {
         this.name = name;
@@ -23,6 +37,7 @@ public class TransactionMetrics {
         successCount.increment();
         totalLatencyNanos.add(latencyNanos);
         updateMinMax(latencyNanos);
+        latencyHistogram.record(latencyNanos);
     }
 
     public void recordFailure(long latencyNanos) {
@@ -30,6 +45,103 @@ public class TransactionMetrics {
         failureCount.increment();
         totalLatencyNanos.add(latencyNanos);
         updateMinMax(latencyNanos);
+        latencyHistogram.record(latencyNanos);
+    }
+
+    /**
+     * An expected rollback (e.g. the TPC-C invalid item): the transaction did what it was asked to.
+     */
+    public void recordRollback(long latencyNanos) {
+        count.increment();
+        rollbackCount.increment();
+        totalLatencyNanos.add(latencyNanos);
+        updateMinMax(latencyNanos);
+        latencyHistogram.record(latencyNanos);
+    }
+
+    public void recordRetries(int retries, long retryLatencyNanos) {
+        retryCount.add(retries);
+        totalRetryLatencyNanos.add(retryLatencyNanos);
+    }
+
+    public void recordError(String category) {
+        errorsByCategory.computeIfAbsent(category, k -> new LongAdder()).increment();
+    }
+
+    public void recordRoundTrips(int roundTrips) {
+        totalRoundTrips.add(roundTrips);
+    }
+
+    public void recordQueries(int queries) {
+        totalQueries.add(queries);
+    }
+
+    public void recordRows(long rows) {
+        totalRows.add(rows);
+    }
+
+    /**
+     * Raw counters, with the latency histogram as [bucket, count] pairs, in a form that survives
+     * a JSON round trip. {@link #importCounts(Map)} adds them to another instance.
+     */
+    public Map<String, Object> exportCounts() {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("count", count.sum());
+        counts.put("success", successCount.sum());
+        counts.put("failure", failureCount.sum());
+        counts.put("rollback", rollbackCount.sum());
+        counts.put("latencyNanos", totalLatencyNanos.sum());
+        counts.put("minLatencyNanos", minLatencyNanos.get());
+        counts.put("maxLatencyNanos", maxLatencyNanos.get());
+        counts.put("roundTrips", totalRoundTrips.sum());
+        counts.put("queries", totalQueries.sum());
+        counts.put("rows", totalRows.sum());
+        counts.put("retries", retryCount.sum());
+        counts.put("retryLatencyNanos", totalRetryLatencyNanos.sum());
+        counts.put("errors", getErrorCounts());
+        counts.put("histogram", latencyHistogram.toSparse());
+        return counts;
+    }
+
+    /**
+     * Add counters produced by {@link #exportCounts()}; latencies merge bucket by bucket, so
+     * percentiles stay exact rather than averaged.
+     */
+    public void importCounts(Map<String, ?> counts) {
+        count.add(longValue(counts, "count"));
+        successCount.add(longValue(counts, "success"));
+        failureCount.add(longValue(counts, "failure"));
+        rollbackCount.add(longValue(counts, "rollback"));
+        totalLatencyNanos.add(longValue(counts, "latencyNanos"));
+        totalRoundTrips.add(longValue(counts, "roundTrips"));
+        totalQueries.add(longValue(counts, "queries"));
+        totalRows.add(longValue(counts, "rows"));
+        retryCount.add(longValue(counts, "retries"));
+        totalRetryLatencyNanos.add(longValue(counts, "retryLatencyNanos"));
+        if (counts.get("minLatencyNanos") instanceof Number min && min.longValue() != Long.MAX_VALUE) {
+            updateMinMax(min.longValue());
+        }
+        if (counts.get("maxLatencyNanos") instanceof Number max && max.longValue() > 0) {
+            updateMinMax(max.longValue());
+        }
+        if (counts.get("errors") instanceof Map<?, ?> errors) {
+            errors.forEach((category, n) -> errorsByCategory.computeIfAbsent(String.valueOf(category), k -> new LongAdder())
+                    .add(((Number) n).longValue()));
+        }
+        if (counts.get("histogram") instanceof List<?> buckets) {
+            for (Object bucket : buckets) {
+                if (bucket instanceof long[] pair) {
+                    latencyHistogram.add((int) pair[0], pair[1]);
+                } else {
+                    List<?> pair = (List<?>) bucket;
+                    latencyHistogram.add(((Number) pair.get(0)).intValue(), ((Number) pair.get(1)).longValue());
+                }
+            }
+        }
+    }
+
+    private static long longValue(Map<String, ?> counts, String key) {
+        return counts.get(key) instanceof Number n ? n.longValue() : 0;
     }
 
     private void updateMinMax(long latencyNanos) {
@@ -49,6 +161,30 @@ public class TransactionMetrics {
     public long getCount() { return count.sum(); }
     public long getSuccessCount() { return successCount.sum(); }
     public long getFailureCount() { return failureCount.sum(); }
+    public long getRollbackCount() { return rollbackCount.sum(); }
+    public long getRetryCount() { return retryCount.sum(); }
+
+    /**
+     * Average extra time spent per retry (failed attempts plus backoff).
+     */
+    public double getAverageRetryLatencyMs() {
+        long r = retryCount.sum();
+        return r > 0 ? (totalRetryLatencyNanos.sum() / 1_000_000.0) / r : 0;
+    }
+
+    /**
+     * Share of attempts that aborted, counting every retry as an aborted attempt.
+     */
+    public double getAbortRate() {
+        long attempts = count.sum() + retryCount.sum();
+        return attempts > 0 ? ((failureCount.sum() + retryCount.sum()) * 100.0) / attempts : 0;
+    }
+
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        errorsByCategory.forEach((category, adder) -> counts.put(category, adder.sum()));
+        return counts;
+    }
 
     public double getAverageLatencyMs() {
         long c = count.sum();
@@ -64,8 +200,31 @@ public class TransactionMetrics {
         return maxLatencyNanos.get() / 1_000_000.0;
     }
 
+    /**
+     * Latency at the given percentile (0-100) across successes, rollbacks and failures.
+     */
+    public double getPercentileLatencyMs(double percentile) {
+        return latencyHistogram.getPercentileMs(percentile);
+    }
+
+    public long getTotalRoundTrips() { return totalRoundTrips.sum(); }
+
+    public double getAverageRoundTrips() {
+        long c = count.sum();
+        return c > 0 ? (double) totalRoundTrips.sum() / c : 0;
+    }
+
+    public long getTotalQueries() { return totalQueries.sum(); }
+
+    public long getTotalRows() { return totalRows.sum(); }
+
+    public double getAverageRows() {
+        long c = count.sum();
+        return c > 0 ? (double) totalRows.sum() / c : 0;
+    }
+
     public double getSuccessRate() {
         long c = count.sum();
-        return c > 0 ? (successCount.sum() * 100.0) / c : 0;
+        return c > 0 ? ((successCount.sum() + rollbackCount.sum()) * 100.0) / c : 0;
     }
 }
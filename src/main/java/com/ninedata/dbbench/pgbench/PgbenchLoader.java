@@ -0,0 +1,81 @@
+package com.ninedata.dbbench.pgbench;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.ChunkedLoader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Fills the pgbench tables in parallel, one chunk per branch: the branch row, its 10 tellers and
+ * its 100,000 accounts, committed together. Balances start at 0 as with {@code pgbench -i}.
+ */
+public class PgbenchLoader extends ChunkedLoader {
+    private static final int BATCH_SIZE = 1000;
+
+    private final DatabaseAdapter adapter;
+    private final int scale;
+
+    public PgbenchLoader(DatabaseAdapter adapter, int scale, int concurrency) {
+        super(concurrency);
+        this.adapter = adapter;
+        this.scale = scale;
+    }
+
+    @Override
+    protected int getChunkCount() {
+        return scale;
+    }
+
+    @Override
+    protected String describe() {
+        return String.format("pgbench: scale %d (%d accounts)", scale, (long) scale * PgbenchWorkload.ACCOUNTS_PER_BRANCH);
+    }
+
+    @Override
+    protected String loadChunk(int chunk) throws SQLException {
+        int bid = chunk + 1;
+        try (Connection conn = adapter.getConnection()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO pgbench_branches (bid, bbalance) VALUES (?, 0)")) {
+                ps.setInt(1, bid);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO pgbench_tellers (tid, bid, tbalance) VALUES (?, ?, 0)")) {
+                for (int t = 1; t <= PgbenchWorkload.TELLERS_PER_BRANCH; t++) {
+                    ps.setInt(1, (bid - 1) * PgbenchWorkload.TELLERS_PER_BRANCH + t);
+                    ps.setInt(2, bid);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            long firstAid = (long) (bid - 1) * PgbenchWorkload.ACCOUNTS_PER_BRANCH + 1;
+            long lastAid = (long) bid * PgbenchWorkload.ACCOUNTS_PER_BRANCH;
+            // The filler is blank-padded to its full width, like the empty string pgbench copies in
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO pgbench_accounts (aid, bid, abalance, filler) VALUES (?, ?, 0, ' ')")) {
+                int pending = 0;
+                for (long aid = firstAid; aid <= lastAid; aid++) {
+                    if (isCancelled()) {
+                        conn.rollback();
+                        throw new SQLException("Data loading cancelled by user");
+                    }
+                    ps.setLong(1, aid);
+                    ps.setInt(2, bid);
+                    ps.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    ps.executeBatch();
+                }
+            }
+            conn.commit();
+        }
+        return "Branch " + bid;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ninedata.dbbench.pgbench;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The pgbench built-in scripts, named as for {@code pgbench -b}.
+ */
+public enum PgbenchScript {
+    /** TPC-B-like: update an account, read it back, update its teller and branch, append history */
+    TPCB_LIKE,
+    /** -N: tpcb-like without the teller and branch updates */
+    SIMPLE_UPDATE,
+    /** -S: read one account balance */
+    SELECT_ONLY;
+
+    public String getScriptName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     * Parse a script name; like pgbench, any unique prefix is accepted (e.g. "tpcb", "simple", "select").
+     */
+    public static PgbenchScript fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return TPCB_LIKE;
+        }
+        String normalized = value.trim().toLowerCase().replace('_', '-');
+        PgbenchScript match = null;
+        for (PgbenchScript script : values()) {
+            if (script.getScriptName().equals(normalized)) {
+                return script;
+            }
+            if (script.getScriptName().startsWith(normalized)) {
+                if (match != null) {
+                    throw new IllegalArgumentException("Ambiguous pgbench script: " + value);
+                }
+                match = script;
+            }
+        }
+        if (match == null) {
+            throw new IllegalArgumentException("Unknown pgbench script: " + value + " (available: "
+                    + Arrays.stream(values()).map(PgbenchScript::getScriptName).collect(Collectors.joining(", ")) + ")");
+        }
+        return match;
+    }
+
+    /**
+     * Parse a weighted script list as given to repeated {@code -b} options, e.g. "tpcb-like@9,select-only@1".
+     * A script without a weight gets weight 1.
+     */
+    public static Map<PgbenchScript, Integer> parseMix(String value) {
+        Map<PgbenchScript, Integer> mix = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) {
+            mix.put(TPCB_LIKE, 1);
+            return mix;
+        }
+        for (String part : value.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int at = part.indexOf('@');
+            PgbenchScript script = fromString(at < 0 ? part : part.substring(0, at));
+            int weight;
+            try {
+                weight = at < 0 ? 1 : Integer.parseInt(part.substring(at + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid pgbench script weight: " + part.trim());
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Invalid pgbench script weight: " + part.trim());
+            }
+            mix.merge(script, weight, Integer::sum);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("pgbench script weights must sum to more than 0: " + value);
+        }
+        return mix;
+    }
+
+    /**
+     * Format a mix back into the "name@weight" list form.
+     */
+    public static String formatMix(Map<PgbenchScript, Integer> mix) {
+        if (mix.size() == 1 && mix.values().iterator().next() == 1) {
+            return mix.keySet().iterator().next().getScriptName();
+        }
+        return mix.entrySet().stream()
+                .map(e -> e.getKey().getScriptName() + "@" + e.getValue())
+                .collect(Collectors.joining(","));
+    }
+}
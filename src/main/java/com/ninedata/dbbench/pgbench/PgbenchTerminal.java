@@ -0,0 +1,23 @@
+package com.ninedata.dbbench.pgbench;
+
+import com.ninedata.dbbench.workload.WeightedChoice;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+/**
+ * pgbench client: picks a script by weight for every transaction, reusing one transaction object per script.
+ */
+public class PgbenchTerminal implements WorkloadTerminal {
+    private final PgbenchTransaction[] transactions;
+    private final WeightedChoice choice;
+
+    public PgbenchTerminal(PgbenchTransaction[] transactions, int[] weights) {
+        this.transactions = transactions.clone();
+        this.choice = WeightedChoice.of("pgbench script weights", weights);
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        return transactions[choice.next()];
+    }
+}
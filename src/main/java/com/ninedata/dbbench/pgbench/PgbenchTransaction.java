@@ -0,0 +1,90 @@
+package com.ninedata.dbbench.pgbench;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.workload.JdbcTransaction;
+import com.ninedata.dbbench.workload.TransactionOptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Random;
+
+/**
+ * One execution of a pgbench built-in script. Like the sysbench transactions, a terminal reuses
+ * one instance per script and statement counts are reported directly.
+ */
+public class PgbenchTransaction extends JdbcTransaction {
+    static final String UPDATE_ACCOUNT = "UPDATE pgbench_accounts SET abalance = abalance + ? WHERE aid = ?";
+    static final String SELECT_ACCOUNT = "SELECT abalance FROM pgbench_accounts WHERE aid = ?";
+    static final String UPDATE_TELLER = "UPDATE pgbench_tellers SET tbalance = tbalance + ? WHERE tid = ?";
+    static final String UPDATE_BRANCH = "UPDATE pgbench_branches SET bbalance = bbalance + ? WHERE bid = ?";
+    static final String INSERT_HISTORY = "INSERT INTO pgbench_history (tid, bid, aid, delta, mtime) VALUES (?, ?, ?, ?, ?)";
+
+    private final PgbenchScript script;
+    private final int scale;
+
+    public PgbenchTransaction(DatabaseAdapter adapter, TransactionOptions options, PgbenchScript script, int scale) {
+        super(adapter, options);
+        this.script = script;
+        this.scale = scale;
+    }
+
+    @Override
+    public String getName() {
+        return script.name();
+    }
+
+    @Override
+    protected boolean doExecute(Connection conn) throws SQLException {
+        Random random = InputRandom.current();
+        // Same random ranges as pgbench's built-in scripts
+        long aid = random.nextLong(1, (long) PgbenchWorkload.ACCOUNTS_PER_BRANCH * scale + 1);
+        if (script == PgbenchScript.SELECT_ONLY) {
+            selectBalance(conn, aid);
+            addStatements(1);
+            return true;
+        }
+        int bid = random.nextInt(1, scale + 1);
+        int tid = random.nextInt(1, PgbenchWorkload.TELLERS_PER_BRANCH * scale + 1);
+        int delta = random.nextInt(-5000, 5001);
+
+        update(conn, UPDATE_ACCOUNT, delta, aid);
+        selectBalance(conn, aid);
+        int queries = 3;
+        if (script == PgbenchScript.TPCB_LIKE) {
+            update(conn, UPDATE_TELLER, delta, tid);
+            update(conn, UPDATE_BRANCH, delta, bid);
+            queries += 2;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_HISTORY)) {
+            ps.setInt(1, tid);
+            ps.setInt(2, bid);
+            ps.setLong(3, aid);
+            ps.setInt(4, delta);
+            ps.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+            ps.executeUpdate();
+        }
+        addStatements(queries);
+        return true;
+    }
+
+    private static void update(Connection conn, String sql, int delta, long id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, delta);
+            ps.setLong(2, id);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void selectBalance(Connection conn, long aid) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_ACCOUNT)) {
+            ps.setLong(1, aid);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+            }
+        }
+    }
+}
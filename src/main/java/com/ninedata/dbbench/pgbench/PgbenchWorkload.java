@@ -0,0 +1,182 @@
+package com.ninedata.dbbench.pgbench;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.Workload;
+import com.ninedata.dbbench.workload.WorkloadLoader;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * pgbench / TPC-B: branches, tellers, accounts and history, with the built-in scripts selected by
+ * benchmark.pgbench.script. Every tpcb-like transaction updates one of only {@code scale} branch rows,
+ * which makes it a row-lock contention and commit-throughput probe.
+ */
+@Slf4j
+public class PgbenchWorkload implements Workload {
+    public static final String NAME = "pgbench";
+    public static final int TELLERS_PER_BRANCH = 10;
+    public static final int ACCOUNTS_PER_BRANCH = 100_000;
+    /** pgbench switches aid to BIGINT from this scale on */
+    static final int BIGINT_SCALE = 20_000;
+    private static final List<String> TRANSACTION_NAMES =
+            Arrays.stream(PgbenchScript.values()).map(Enum::name).toList();
+
+    /** Scale found in pgbench_branches, set by prepare(). */
+    private volatile int loadedScale;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "pgbench TPC-B: tpcb-like, simple-update, select-only";
+    }
+
+    @Override
+    public String getSettingsKey() {
+        return NAME;
+    }
+
+    @Override
+    public void applySettings(BenchmarkConfig config, Map<String, Object> settings) {
+        BenchmarkConfig.PgbenchConfig pc = config.getPgbench();
+        if (settings.containsKey("script")) {
+            pc.setScript(PgbenchScript.formatMix(PgbenchScript.parseMix((String) settings.get("script"))));
+        }
+        if (settings.containsKey("scale")) pc.setScale(((Number) settings.get("scale")).intValue());
+    }
+
+    @Override
+    public Map<String, Object> describeSettings(BenchmarkConfig config) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("script", config.getPgbench().getScript());
+        settings.put("scale", config.getPgbench().getScale());
+        return settings;
+    }
+
+    @Override
+    public void createSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        String aidType = scale(config) >= BIGINT_SCALE ? "BIGINT" : "INTEGER";
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE pgbench_branches (bid INTEGER NOT NULL, bbalance INTEGER, "
+                    + "filler CHAR(88), PRIMARY KEY (bid))");
+            stmt.execute("CREATE TABLE pgbench_tellers (tid INTEGER NOT NULL, bid INTEGER, tbalance INTEGER, "
+                    + "filler CHAR(84), PRIMARY KEY (tid))");
+            stmt.execute("CREATE TABLE pgbench_accounts (aid " + aidType + " NOT NULL, bid INTEGER, abalance INTEGER, "
+                    + "filler CHAR(84), PRIMARY KEY (aid))");
+            stmt.execute("CREATE TABLE pgbench_history (tid INTEGER, bid INTEGER, aid " + aidType + ", delta INTEGER, "
+                    + "mtime " + adapter.timestampType() + ", filler CHAR(22))");
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void dropSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        adapter.dropTables("pgbench_history", "pgbench_accounts", "pgbench_tellers", "pgbench_branches");
+    }
+
+    @Override
+    public boolean isLoaded(DatabaseAdapter adapter) {
+        return countBranches(adapter) > 0;
+    }
+
+    private static int countBranches(DatabaseAdapter adapter) {
+        try (Connection conn = adapter.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM pgbench_branches")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public WorkloadLoader createLoader(DatabaseAdapter adapter, BenchmarkConfig config) {
+        return new PgbenchLoader(adapter, scale(config), config.getLoadConcurrency());
+    }
+
+    @Override
+    public List<String> getTransactionNames() {
+        return TRANSACTION_NAMES;
+    }
+
+    @Override
+    public Set<String> getReadOnlyTransactionNames() {
+        return Set.of(PgbenchScript.SELECT_ONLY.name());
+    }
+
+    @Override
+    public void configureOptions(BenchmarkConfig config, TransactionOptions options) {
+        options.setCountRoundTrips(false);
+    }
+
+    @Override
+    public void prepare(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options) throws SQLException {
+        PgbenchScript.parseMix(config.getPgbench().getScript());
+        // Like pgbench, the scale of a run is whatever was loaded
+        int branches = countBranches(adapter);
+        if (branches > 0 && branches != scale(config)) {
+            log.warn("Scale option ignored, using count from pgbench_branches table ({})", branches);
+        }
+        loadedScale = branches > 0 ? branches : scale(config);
+    }
+
+    @Override
+    public WorkloadTerminal createTerminal(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options,
+                                           int terminalIndex) {
+        int scale = loadedScale > 0 ? loadedScale : scale(config);
+        Map<PgbenchScript, Integer> mix = PgbenchScript.parseMix(config.getPgbench().getScript());
+        PgbenchTransaction[] transactions = new PgbenchTransaction[mix.size()];
+        int[] weights = new int[mix.size()];
+        int i = 0;
+        for (Map.Entry<PgbenchScript, Integer> entry : mix.entrySet()) {
+            transactions[i] = new PgbenchTransaction(adapter, options, entry.getKey(), scale);
+            weights[i++] = entry.getValue();
+        }
+        return new PgbenchTerminal(transactions, weights);
+    }
+
+    @Override
+    public boolean usesThinkTime() {
+        return false;
+    }
+
+    @Override
+    public String describeMix(BenchmarkConfig config) {
+        return String.format("%s, scale %d", PgbenchScript.formatMix(PgbenchScript.parseMix(config.getPgbench().getScript())),
+                loadedScale > 0 ? loadedScale : scale(config));
+    }
+
+    /**
+     * pgbench's summary figures: tps and average latency, plus the 95th percentile.
+     */
+    @Override
+    public Map<String, Object> getResultMetrics(MetricsRegistry metricsRegistry) {
+        Map<String, Object> metrics = metricsRegistry.getCurrentMetrics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("scale", loadedScale);
+        result.put("tps", metrics.get("tps"));
+        result.put("latencyAverageMs", metrics.get("avgLatencyMs"));
+        result.put("p95LatencyMs", metrics.get("p95LatencyMs"));
+        return result;
+    }
+
+    private static int scale(BenchmarkConfig config) {
+        return Math.max(1, config.getPgbench().getScale());
+    }
+}
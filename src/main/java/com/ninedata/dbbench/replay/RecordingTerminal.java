@@ -0,0 +1,71 @@
+package com.ninedata.dbbench.replay;
+
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Records the type and inputs of every transaction a terminal hands out, before it runs.
+ */
+public class RecordingTerminal implements WorkloadTerminal {
+    static final int BUFFER_BYTES = 64 * 1024;
+
+    private final WorkloadTerminal delegate;
+    private final ReplayRecorder recorder;
+    private final ReplayCodec codec;
+    private final int terminalIndex;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private long lastMicros;
+
+    public RecordingTerminal(WorkloadTerminal delegate, ReplayRecorder recorder, ReplayCodec codec, int terminalIndex) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+        this.codec = codec;
+        this.terminalIndex = terminalIndex;
+        recorder.register(this);
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        WorkloadTransaction transaction = delegate.nextTransaction();
+        if (transaction == null) {
+            return null;
+        }
+        record(transaction);
+        return transaction;
+    }
+
+    /**
+     * Locked against {@link #flush()} from {@link ReplayRecorder#close()}; uncontended while the run lasts.
+     */
+    private synchronized void record(WorkloadTransaction transaction) {
+        if (recorder.isClosed()) {
+            recorder.countDropped();
+            return;
+        }
+        if (buffer.remaining() < ReplayFormat.MAX_RECORD_BYTES + 10) {
+            flush();
+        }
+        long micros = (System.nanoTime() - recorder.getStartNanos()) / 1000;
+        int mark = buffer.position();
+        ReplayFormat.putVarLong(buffer, Math.max(0, micros - lastMicros));
+        if (codec.write(transaction, buffer)) {
+            lastMicros = Math.max(lastMicros, micros);
+            recorder.countRecord();
+        } else {
+            buffer.position(mark);
+        }
+    }
+
+    @Override
+    public boolean usesThinkTime() {
+        return delegate.usesThinkTime();
+    }
+
+    synchronized void flush() {
+        buffer.flip();
+        recorder.writeFrame(terminalIndex, buffer);
+        buffer.clear();
+    }
+}
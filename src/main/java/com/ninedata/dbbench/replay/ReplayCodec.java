@@ -0,0 +1,24 @@
+package com.ninedata.dbbench.replay;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes a workload's transaction type and generated inputs, and rebuilds the transaction from them.
+ */
+public interface ReplayCodec {
+
+    /**
+     * Write the transaction's type and inputs, at most {@link ReplayFormat#MAX_RECORD_BYTES};
+     * false if this transaction is not recorded (nothing may be written then).
+     */
+    boolean write(WorkloadTransaction transaction, ByteBuffer out);
+
+    /**
+     * Rebuild a transaction written by {@link #write}.
+     */
+    WorkloadTransaction read(ByteBuffer in, DatabaseAdapter adapter, TransactionOptions options);
+}
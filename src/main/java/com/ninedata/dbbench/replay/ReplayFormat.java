@@ -0,0 +1,64 @@
+package com.ninedata.dbbench.replay;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of a replay log and the varint helpers codecs use.
+ * <pre>
+ * header: "DBBR" (int), version (byte), workload (string), terminals (varint), start epoch millis (long)
+ * frames: terminal (varint), length (varint), records
+ * record: micros since the terminal's previous record (varlong), codec payload
+ * </pre>
+ * Each terminal buffers its records and writes them as one frame, so a terminal's stream is
+ * the concatenation of its frames in file order.
+ */
+public final class ReplayFormat {
+    public static final int MAGIC = 0x44424252;
+    public static final byte VERSION = 1;
+    /** Largest record a codec may write. */
+    public static final int MAX_RECORD_BYTES = 1024;
+
+    private ReplayFormat() {
+    }
+
+    public static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    public static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in replay log");
+    }
+
+    public static void putVarInt(ByteBuffer out, int value) {
+        putVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    public static int getVarInt(ByteBuffer in) {
+        return (int) getVarLong(in);
+    }
+
+    public static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarInt(out, bytes.length);
+        out.put(bytes);
+    }
+
+    public static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[getVarInt(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
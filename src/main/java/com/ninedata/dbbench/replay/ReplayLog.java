@@ -0,0 +1,149 @@
+package com.ninedata.dbbench.replay;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A replay log opened for reading. Opening indexes the frames of every terminal; each
+ * {@link Stream} then reads its own frames with positional reads, so terminals do not share a cursor.
+ */
+public class ReplayLog implements AutoCloseable {
+    private final Path path;
+    private final FileChannel channel;
+    private final String workload;
+    private final int terminalCount;
+    private final long startEpochMillis;
+    /** Per terminal: {payload position, payload length} of each frame, in file order */
+    private final Map<Integer, List<long[]>> frames;
+
+    private ReplayLog(Path path, FileChannel channel, String workload, int terminalCount, long startEpochMillis,
+                      Map<Integer, List<long[]>> frames) {
+        this.path = path;
+        this.channel = channel;
+        this.workload = workload;
+        this.terminalCount = terminalCount;
+        this.startEpochMillis = startEpochMillis;
+        this.frames = frames;
+    }
+
+    public static ReplayLog open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = read(channel, 0, (int) Math.min(channel.size(), ReplayFormat.MAX_RECORD_BYTES));
+            if (header.remaining() < 5 || header.getInt() != ReplayFormat.MAGIC) {
+                throw new IOException(path + " is not a replay log");
+            }
+            byte version = header.get();
+            if (version != ReplayFormat.VERSION) {
+                throw new IOException("Unsupported replay log version " + version + " in " + path);
+            }
+            String workload = ReplayFormat.getString(header);
+            int terminals = ReplayFormat.getVarInt(header);
+            long startEpochMillis = header.getLong();
+
+            Map<Integer, List<long[]>> frames = new HashMap<>();
+            long position = header.position();
+            long size = channel.size();
+            while (position < size) {
+                ByteBuffer frameHeader = read(channel, position, (int) Math.min(10, size - position));
+                int terminal = ReplayFormat.getVarInt(frameHeader);
+                int length = ReplayFormat.getVarInt(frameHeader);
+                long payload = position + frameHeader.position();
+                if (payload + length > size) {
+                    throw new EOFException("Truncated frame at offset " + position + " in " + path);
+                }
+                frames.computeIfAbsent(terminal, k -> new ArrayList<>()).add(new long[]{payload, length});
+                position = payload + length;
+            }
+            return new ReplayLog(path, channel, workload, terminals, startEpochMillis, frames);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (e instanceof BufferUnderflowException) {
+                throw new EOFException("Truncated replay log " + path);
+            }
+            throw e;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of replay log");
+            }
+        }
+        return buffer.flip();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public String getWorkload() {
+        return workload;
+    }
+
+    /**
+     * Terminals of the recorded run; replay starts the same number.
+     */
+    public int getTerminalCount() {
+        return terminalCount;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * The recorded stream of one terminal; empty if that terminal recorded nothing.
+     */
+    public Stream stream(int terminal) {
+        return new Stream(frames.getOrDefault(terminal, List.of()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Sequential reader over one terminal's records. Not thread-safe: owned by one terminal.
+     */
+    public class Stream {
+        private final List<long[]> frameList;
+        private int nextFrame;
+        private ByteBuffer current = ByteBuffer.allocate(0);
+
+        private Stream(List<long[]> frameList) {
+            this.frameList = frameList;
+        }
+
+        /**
+         * The buffer positioned at the next record, or null at the end of the stream.
+         */
+        public ByteBuffer next() {
+            while (!current.hasRemaining()) {
+                if (nextFrame >= frameList.size()) {
+                    return null;
+                }
+                long[] frame = frameList.get(nextFrame++);
+                try {
+                    current = read(channel, frame[0], (int) frame[1]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read replay log " + path, e);
+                }
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ninedata.dbbench.replay;
+
+/**
+ * How a replayed stream is timed.
+ */
+public enum ReplayPacing {
+    /** Issue each transaction at the offset it was recorded at, think time included */
+    ORIGINAL,
+    /** Issue transactions back to back */
+    FAST;
+
+    public static ReplayPacing fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return ORIGINAL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown replay pacing: " + value + " (available: original, fast)");
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ninedata.dbbench.replay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes a replay log. Terminals buffer their records in {@link RecordingTerminal}s and hand
+ * full buffers over as frames, so terminal threads only meet on a lock once per 64 KB.
+ * Frames are written with positional writes on an {@link AsynchronousFileChannel}: unlike a
+ * {@code FileChannel}, it is not closed when the engine interrupts a terminal in the middle of a write.
+ */
+public class ReplayRecorder implements AutoCloseable {
+    private final Path path;
+    private final AsynchronousFileChannel channel;
+    private long position;
+    private final ByteBuffer frameHeader = ByteBuffer.allocate(10);
+    private final List<RecordingTerminal> terminals = new CopyOnWriteArrayList<>();
+    private final LongAdder records = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean closed;
+    private final long startNanos;
+
+    private ReplayRecorder(Path path, AsynchronousFileChannel channel, long startNanos) {
+        this.path = path;
+        this.channel = channel;
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Create (or truncate) the log and write its header.
+     *
+     * @param startNanos run start on the {@link System#nanoTime()} clock; record offsets count from here
+     */
+    public static ReplayRecorder create(Path path, String workload, int terminals, long startNanos) throws IOException {
+        AsynchronousFileChannel channel = AsynchronousFileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(ReplayFormat.MAX_RECORD_BYTES);
+        header.putInt(ReplayFormat.MAGIC);
+        header.put(ReplayFormat.VERSION);
+        ReplayFormat.putString(header, workload);
+        ReplayFormat.putVarInt(header, terminals);
+        header.putLong(System.currentTimeMillis());
+        header.flip();
+        ReplayRecorder recorder = new ReplayRecorder(path, channel, startNanos);
+        try {
+            recorder.write(header);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return recorder;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getRecordCount() {
+        return records.sum();
+    }
+
+    void register(RecordingTerminal terminal) {
+        terminals.add(terminal);
+    }
+
+    void countRecord() {
+        records.increment();
+    }
+
+    /**
+     * Transactions terminals handed out after the recorder was closed, which the log does not hold.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void countDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Append the buffer's contents as one frame of the given terminal's stream.
+     */
+    synchronized void writeFrame(int terminal, ByteBuffer payload) {
+        if (!payload.hasRemaining()) {
+            return;
+        }
+        try {
+            frameHeader.clear();
+            ReplayFormat.putVarInt(frameHeader, terminal);
+            ReplayFormat.putVarInt(frameHeader, payload.remaining());
+            frameHeader.flip();
+            write(frameHeader);
+            write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write replay log " + path, e);
+        }
+    }
+
+    /**
+     * Append the buffer at the end of the log, waiting for the write even if the thread is interrupted.
+     */
+    private void write(ByteBuffer buffer) throws IOException {
+        boolean interrupted = false;
+        try {
+            while (buffer.hasRemaining()) {
+                Future<Integer> pending = channel.write(buffer, position);
+                while (true) {
+                    try {
+                        position += pending.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Flush every terminal's pending records and close the file. Call after the terminals stopped;
+     * a terminal still running afterwards has its records dropped and counted.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        for (RecordingTerminal terminal : terminals) {
+            terminal.flush();
+        }
+        synchronized (this) {
+            channel.close();
+        }
+    }
+}
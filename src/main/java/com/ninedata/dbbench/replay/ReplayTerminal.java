@@ -0,0 +1,63 @@
+package com.ninedata.dbbench.replay;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds one recorded terminal stream back, at the recorded pacing or back to back.
+ * Returns null once the stream is exhausted, which ends the terminal.
+ */
+public class ReplayTerminal implements WorkloadTerminal {
+    private final ReplayLog.Stream stream;
+    private final ReplayCodec codec;
+    private final DatabaseAdapter adapter;
+    private final TransactionOptions options;
+    private final ReplayPacing pacing;
+    private final long startNanos;
+    private long offsetMicros;
+
+    public ReplayTerminal(ReplayLog.Stream stream, ReplayCodec codec, DatabaseAdapter adapter,
+                          TransactionOptions options, ReplayPacing pacing, long startNanos) {
+        this.stream = stream;
+        this.codec = codec;
+        this.adapter = adapter;
+        this.options = options;
+        this.pacing = pacing;
+        this.startNanos = startNanos;
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        ByteBuffer in = stream.next();
+        if (in == null) {
+            return null;
+        }
+        offsetMicros += ReplayFormat.getVarLong(in);
+        WorkloadTransaction transaction = codec.read(in, adapter, options);
+        if (pacing == ReplayPacing.ORIGINAL) {
+            long waitNanos = startNanos + TimeUnit.MICROSECONDS.toNanos(offsetMicros) - System.nanoTime();
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+        return transaction;
+    }
+
+    /**
+     * The recorded offsets already include the think time of the recorded run.
+     */
+    @Override
+    public boolean usesThinkTime() {
+        return false;
+    }
+}
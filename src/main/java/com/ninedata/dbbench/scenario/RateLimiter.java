@@ -0,0 +1,46 @@
+package com.ninedata.dbbench.scenario;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spaces transaction starts evenly across all terminals to hold a target rate. Time lost while the
+ * database falls behind is not made up with a burst afterwards.
+ */
+public class RateLimiter {
+    private final double rate;
+    private final long intervalNanos;
+    private final AtomicLong nextSlot;
+
+    public RateLimiter(double transactionsPerSecond) {
+        if (transactionsPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + transactionsPerSecond);
+        }
+        this.rate = transactionsPerSecond;
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / transactionsPerSecond));
+        this.nextSlot = new AtomicLong(System.nanoTime());
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Wait for the next start slot.
+     */
+    public void acquire() throws InterruptedException {
+        long slot;
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextSlot.get();
+            slot = Math.max(next, now);
+            if (nextSlot.compareAndSet(next, slot + intervalNanos)) {
+                break;
+            }
+        }
+        long wait = slot - System.nanoTime();
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
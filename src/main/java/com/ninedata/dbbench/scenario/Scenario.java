@@ -0,0 +1,232 @@
+package com.ninedata.dbbench.scenario;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ninedata.dbbench.workload.WorkloadRegistry;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A multi-phase run read from a YAML or JSON file. Phases run back to back in one session; each may
+ * change terminals, rate, think time, workload and workload settings. See the README for the format.
+ */
+public record Scenario(String name, List<ScenarioPhase> phases) {
+    /**
+     * Config update sections a phase may carry besides each workload's own; "mix" is accepted as a short
+     * form of transactionMix
+     */
+    static final Set<String> SETTINGS = Set.of("transactionMix", "isolation", "readOnly", "retry");
+    private static final Set<String> PHASE_KEYS = Set.of("name", "duration", "terminals", "rate", "thinkTime",
+            "workload", "mix");
+    /** Keys of a live change besides the phase settings, see {@link #parseChange} */
+    private static final Set<String> CHANGE_KEYS = Set.of("note");
+    private static final Pattern DURATION = Pattern.compile("(\\d+)\\s*([smh]?)");
+
+    public static Scenario load(Path file) throws IOException {
+        String text = Files.readString(file);
+        Object root;
+        try {
+            root = file.getFileName().toString().toLowerCase().endsWith(".json")
+                    ? new ObjectMapper().readValue(text, Map.class)
+                    : new Yaml(new SafeConstructor(new LoaderOptions())).load(text);
+        } catch (RuntimeException | IOException e) {
+            throw new IllegalArgumentException("Cannot parse scenario file " + file + ": " + e.getMessage(), e);
+        }
+        if (!(root instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Scenario file " + file + " must contain a map at the top level");
+        }
+        String defaultName = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        return parse(map, defaultName);
+    }
+
+    public static Scenario parse(Map<?, ?> root, String defaultName) {
+        Object name = root.get("name");
+        if (!(root.get("phases") instanceof List<?> specs) || specs.isEmpty()) {
+            throw new IllegalArgumentException("Scenario: 'phases' must be a non-empty list");
+        }
+        List<ScenarioPhase> phases = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < specs.size(); i++) {
+            for (ScenarioPhase phase : parsePhase(specs.get(i), i + 1)) {
+                if (!names.add(phase.name())) {
+                    throw new IllegalArgumentException("Scenario: duplicate phase name '" + phase.name() + "'");
+                }
+                phases.add(phase);
+            }
+        }
+        return new Scenario(name == null ? defaultName : name.toString(), phases);
+    }
+
+    /**
+     * Total run time in seconds.
+     */
+    public int getDuration() {
+        return phases.stream().mapToInt(ScenarioPhase::duration).sum();
+    }
+
+    /**
+     * Parse a change to apply to a running benchmark, with the keys of a phase but no name or duration.
+     * A "note" key is allowed and ignored here; the engine puts it on the timeline.
+     */
+    public static ScenarioPhase parseChange(Map<?, ?> spec) {
+        String where = "Change: ";
+        for (Object key : spec.keySet()) {
+            if ("name".equals(key) || "duration".equals(key)) {
+                throw new IllegalArgumentException(where + "'" + key + "' only applies to scenario phases");
+            }
+        }
+        Map<String, Object> settings = settings(spec, where, CHANGE_KEYS);
+        Object terminals = spec.get("terminals");
+        Integer count = terminals == null ? null : terminalCount(terminals, where);
+        return new ScenarioPhase("change", 0, count, rate(spec, where), thinkTime(spec),
+                workload(spec), settings);
+    }
+
+    /**
+     * Parse one phase entry. A list of terminal counts is a shorthand for consecutive steps of the
+     * same length, named after the phase and the count (e.g. step-64, step-128).
+     */
+    private static List<ScenarioPhase> parsePhase(Object spec, int number) {
+        if (!(spec instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Scenario phase " + number + ": expected a map");
+        }
+        String name = map.get("name") == null ? "phase-" + number : map.get("name").toString();
+        String where = "Scenario phase '" + name + "': ";
+        Map<String, Object> settings = settings(map, where, Set.of());
+
+        if (map.get("duration") == null) {
+            throw new IllegalArgumentException(where + "'duration' is required");
+        }
+        int duration = parseDuration(map.get("duration"), where);
+        Double rate = rate(map, where);
+        Boolean thinkTime = thinkTime(map);
+        String workload = workload(map);
+
+        List<Integer> steps = new ArrayList<>();
+        Object terminals = map.get("terminals");
+        if (terminals instanceof List<?> list) {
+            if (list.isEmpty()) {
+                throw new IllegalArgumentException(where + "terminals must not be an empty list");
+            }
+            list.forEach(t -> steps.add(terminalCount(t, where)));
+        } else if (terminals != null) {
+            steps.add(terminalCount(terminals, where));
+        }
+
+        if (steps.size() <= 1) {
+            Integer count = steps.isEmpty() ? null : steps.get(0);
+            return List.of(new ScenarioPhase(name, duration, count, rate, thinkTime, workload, settings));
+        }
+        List<ScenarioPhase> expanded = new ArrayList<>();
+        for (int i = 0; i < steps.size(); i++) {
+            // Settings and workload apply once, at the first step
+            expanded.add(new ScenarioPhase(name + "-" + steps.get(i), duration, steps.get(i), rate, thinkTime,
+                    i == 0 ? workload : null, i == 0 ? settings : Map.of()));
+        }
+        return expanded;
+    }
+
+    /**
+     * The settings sections of a phase or change; other keys must be phase keys or in {@code extraKeys}.
+     */
+    private static Map<String, Object> settings(Map<?, ?> map, String where, Set<String> extraKeys) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> e : map.entrySet()) {
+            String key = String.valueOf(e.getKey());
+            if (PHASE_KEYS.contains(key) || extraKeys.contains(key)) {
+                continue;
+            }
+            if (!SETTINGS.contains(key) && !isWorkloadSettings(key)) {
+                throw new IllegalArgumentException(where + "unknown setting '" + key + "'");
+            }
+            settings.put(key, section(e.getValue(), key, where));
+        }
+        if (map.get("mix") != null) {
+            settings.put("transactionMix", section(map.get("mix"), "mix", where));
+        }
+        return settings;
+    }
+
+    private static boolean isWorkloadSettings(String key) {
+        return WorkloadRegistry.getAll().stream().anyMatch(workload -> key.equals(workload.getSettingsKey()));
+    }
+
+    private static Double rate(Map<?, ?> map, String where) {
+        Double rate = map.get("rate") == null ? null : number(map.get("rate"), "rate", where);
+        if (rate != null && rate < 0) {
+            throw new IllegalArgumentException(where + "rate must not be negative");
+        }
+        return rate;
+    }
+
+    private static Boolean thinkTime(Map<?, ?> map) {
+        return map.get("thinkTime") == null ? null : Boolean.parseBoolean(map.get("thinkTime").toString().trim());
+    }
+
+    private static String workload(Map<?, ?> map) {
+        return map.get("workload") == null ? null : map.get("workload").toString().trim();
+    }
+
+    /**
+     * Seconds from a number or a string such as 90, 90s, 5m or 1h.
+     */
+    static int parseDuration(Object value, String where) {
+        if (value instanceof Number n) {
+            return positive(n.intValue(), "duration", where);
+        }
+        Matcher m = DURATION.matcher(value.toString().trim().toLowerCase());
+        if (!m.matches()) {
+            throw new IllegalArgumentException(where + "invalid duration: " + value);
+        }
+        int amount = Integer.parseInt(m.group(1));
+        int seconds = switch (m.group(2)) {
+            case "m" -> amount * 60;
+            case "h" -> amount * 3600;
+            default -> amount;
+        };
+        return positive(seconds, "duration", where);
+    }
+
+    private static int terminalCount(Object value, String where) {
+        return positive((int) number(value, "terminals", where).doubleValue(), "terminals", where);
+    }
+
+    private static int positive(int value, String key, String where) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(where + key + " must be positive");
+        }
+        return value;
+    }
+
+    private static Double number(Object value, String key, String where) {
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(where + "'" + key + "' must be a number: " + value);
+        }
+    }
+
+    private static Map<String, Object> section(Object value, String key, String where) {
+        if (!(value instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException(where + "'" + key + "' must be a map");
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        map.forEach((k, v) -> result.put(String.valueOf(k), v));
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ninedata.dbbench.scenario;
+
+import java.util.Map;
+
+/**
+ * One phase of a scenario, or a change applied to a running benchmark. Terminals, rate, think time,
+ * workload and settings left out (null) keep the value of the previous phase, or the configured one
+ * for the first phase.
+ *
+ * @param duration  phase length in seconds
+ * @param rate      transactions per second across all terminals; 0 removes the limit
+ * @param settings  config sections applied when the phase starts, as in a config update (e.g. transactionMix)
+ */
+public record ScenarioPhase(String name, int duration, Integer terminals, Double rate, Boolean thinkTime,
+                            String workload, Map<String, Object> settings) {
+
+    /**
+     * Whether entering this phase needs new terminals, rather than only a new rate or think time.
+     */
+    public boolean changesTerminals() {
+        return terminals != null || workload != null || !settings.isEmpty();
+    }
+}
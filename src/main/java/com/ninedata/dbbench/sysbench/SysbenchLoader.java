@@ -0,0 +1,77 @@
+package com.ninedata.dbbench.sysbench;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.ChunkedLoader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fills sbtest1..N in parallel. Every table is split into chunks of {@link #CHUNK_ROWS} rows,
+ * each inserted with JDBC batches and committed on its own, so large tables load on all threads.
+ */
+public class SysbenchLoader extends ChunkedLoader {
+    static final int CHUNK_ROWS = 50_000;
+    private static final int BATCH_SIZE = 1000;
+
+    private final DatabaseAdapter adapter;
+    private final int tables;
+    private final int tableSize;
+    private final int chunksPerTable;
+
+    public SysbenchLoader(DatabaseAdapter adapter, int tables, int tableSize, int concurrency) {
+        super(concurrency);
+        this.adapter = adapter;
+        this.tables = tables;
+        this.tableSize = tableSize;
+        this.chunksPerTable = chunksPerTable(tableSize);
+    }
+
+    static int chunksPerTable(int tableSize) {
+        return Math.max(1, (tableSize + CHUNK_ROWS - 1) / CHUNK_ROWS);
+    }
+
+    @Override
+    protected int getChunkCount() {
+        return tables * chunksPerTable;
+    }
+
+    @Override
+    protected String describe() {
+        return String.format("sysbench: %d table(s) x %d rows", tables, tableSize);
+    }
+
+    @Override
+    protected String loadChunk(int chunk) throws SQLException {
+        int table = chunk / chunksPerTable + 1;
+        long firstId = (long) (chunk % chunksPerTable) * CHUNK_ROWS + 1;
+        long lastId = Math.min(tableSize, firstId + CHUNK_ROWS - 1);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String sql = "INSERT INTO " + SysbenchWorkload.tableName(table) + " (id, k, c, pad) VALUES (?, ?, ?, ?)";
+        try (Connection conn = adapter.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            int pending = 0;
+            for (long id = firstId; id <= lastId; id++) {
+                if (isCancelled()) {
+                    conn.rollback();
+                    throw new SQLException("Data loading cancelled by user");
+                }
+                ps.setLong(1, id);
+                ps.setInt(2, random.nextInt(tableSize) + 1);
+                ps.setString(3, SysbenchTransaction.randomC(random));
+                ps.setString(4, SysbenchTransaction.randomPad(random));
+                ps.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+        return String.format("%s rows %d-%d", SysbenchWorkload.tableName(table), firstId, lastId);
+    }
+}
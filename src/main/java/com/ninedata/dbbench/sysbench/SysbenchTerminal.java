@@ -0,0 +1,20 @@
+package com.ninedata.dbbench.sysbench;
+
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+/**
+ * Sysbench terminal: runs the same script event over and over, reusing one transaction object.
+ */
+public class SysbenchTerminal implements WorkloadTerminal {
+    private final SysbenchTransaction transaction;
+
+    public SysbenchTerminal(SysbenchTransaction transaction) {
+        this.transaction = transaction;
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        return transaction;
+    }
+}
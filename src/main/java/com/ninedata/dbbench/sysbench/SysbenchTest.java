@@ -0,0 +1,41 @@
+package com.ninedata.dbbench.sysbench;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The sysbench OLTP scripts, named as on the sysbench command line.
+ */
+public enum SysbenchTest {
+    OLTP_POINT_SELECT,
+    OLTP_READ_ONLY,
+    OLTP_READ_WRITE,
+    OLTP_UPDATE_INDEX,
+    OLTP_UPDATE_NON_INDEX,
+    OLTP_INSERT,
+    OLTP_DELETE;
+
+    public String getScriptName() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Parse a script name such as oltp_read_write, read_write or oltp-point-select.
+     */
+    public static SysbenchTest fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return OLTP_READ_WRITE;
+        }
+        String normalized = value.trim().toUpperCase().replace('-', '_').replace(".LUA", "");
+        if (!normalized.startsWith("OLTP_")) {
+            normalized = "OLTP_" + normalized;
+        }
+        for (SysbenchTest test : values()) {
+            if (test.name().equals(normalized)) {
+                return test;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sysbench test: " + value + " (available: "
+                + Arrays.stream(values()).map(SysbenchTest::getScriptName).collect(Collectors.joining(", ")) + ")");
+    }
+}
@@ -0,0 +1,218 @@
+package com.ninedata.dbbench.sysbench;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.workload.JdbcTransaction;
+import com.ninedata.dbbench.workload.TransactionOptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One event of a sysbench OLTP script. A terminal reuses a single instance. Statements are prepared on
+ * each event's pooled connection and served from the driver's statement cache, which the adapters enable;
+ * statement counts are reported directly instead of through the round-trip proxy.
+ */
+public class SysbenchTransaction extends JdbcTransaction {
+    private final SysbenchTest test;
+    private final BenchmarkConfig.SysbenchConfig config;
+    private final Statements sql;
+    private final AtomicLong[] nextInsertIds;
+    private final boolean special;
+
+    public SysbenchTransaction(DatabaseAdapter adapter, TransactionOptions options, SysbenchTest test,
+                               BenchmarkConfig.SysbenchConfig config, Statements sql, AtomicLong[] nextInsertIds) {
+        super(adapter, options);
+        this.test = test;
+        this.config = config;
+        this.sql = sql;
+        this.nextInsertIds = nextInsertIds;
+        this.special = "special".equalsIgnoreCase(config.getRandType());
+    }
+
+    @Override
+    public String getName() {
+        return test.name();
+    }
+
+    @Override
+    protected boolean doExecute(Connection conn) throws SQLException {
+        Random random = InputRandom.current();
+        int table = random.nextInt(sql.tables());
+        int queries = switch (test) {
+            case OLTP_POINT_SELECT -> pointSelects(conn, random, table, 1);
+            case OLTP_READ_ONLY -> readOnly(conn, random, table);
+            case OLTP_READ_WRITE -> readOnly(conn, random, table) + writes(conn, random, table);
+            case OLTP_UPDATE_INDEX -> indexUpdates(conn, random, table, 1);
+            case OLTP_UPDATE_NON_INDEX -> nonIndexUpdates(conn, random, table, 1);
+            case OLTP_INSERT -> insert(conn, random, table, nextInsertIds[table].incrementAndGet());
+            case OLTP_DELETE -> delete(conn, random, table);
+        };
+        addStatements(queries);
+        return true;
+    }
+
+    private int readOnly(Connection conn, Random random, int table) throws SQLException {
+        return pointSelects(conn, random, table, config.getPointSelects())
+                + ranges(conn, random, sql.simpleRange()[table], config.getSimpleRanges())
+                + ranges(conn, random, sql.sumRange()[table], config.getSumRanges())
+                + ranges(conn, random, sql.orderRange()[table], config.getOrderRanges())
+                + ranges(conn, random, sql.distinctRange()[table], config.getDistinctRanges());
+    }
+
+    private int writes(Connection conn, Random random, int table) throws SQLException {
+        int queries = indexUpdates(conn, random, table, config.getIndexUpdates())
+                + nonIndexUpdates(conn, random, table, config.getNonIndexUpdates());
+        for (int i = 0; i < config.getDeleteInserts(); i++) {
+            long id = randomId(random);
+            try (PreparedStatement ps = conn.prepareStatement(sql.delete()[table])) {
+                ps.setLong(1, id);
+                ps.executeUpdate();
+            }
+            queries += 1 + insert(conn, random, table, id);
+        }
+        return queries;
+    }
+
+    private int pointSelects(Connection conn, Random random, int table, int count) throws SQLException {
+        if (count <= 0) return 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql.pointSelect()[table])) {
+            for (int i = 0; i < count; i++) {
+                ps.setLong(1, randomId(random));
+                drain(ps);
+            }
+        }
+        return count;
+    }
+
+    private int ranges(Connection conn, Random random, String query, int count) throws SQLException {
+        if (count <= 0) return 0;
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            for (int i = 0; i < count; i++) {
+                long start = randomId(random);
+                ps.setLong(1, start);
+                ps.setLong(2, start + config.getRangeSize() - 1);
+                drain(ps);
+            }
+        }
+        return count;
+    }
+
+    private int indexUpdates(Connection conn, Random random, int table, int count) throws SQLException {
+        if (count <= 0) return 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql.updateIndex()[table])) {
+            for (int i = 0; i < count; i++) {
+                ps.setLong(1, randomId(random));
+                ps.executeUpdate();
+            }
+        }
+        return count;
+    }
+
+    private int nonIndexUpdates(Connection conn, Random random, int table, int count) throws SQLException {
+        if (count <= 0) return 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql.updateNonIndex()[table])) {
+            for (int i = 0; i < count; i++) {
+                ps.setString(1, randomC(random));
+                ps.setLong(2, randomId(random));
+                ps.executeUpdate();
+            }
+        }
+        return count;
+    }
+
+    private int insert(Connection conn, Random random, int table, long id) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql.insert()[table])) {
+            ps.setLong(1, id);
+            ps.setInt(2, random.nextInt(config.getTableSize()) + 1);
+            ps.setString(3, randomC(random));
+            ps.setString(4, randomPad(random));
+            ps.executeUpdate();
+        }
+        return 1;
+    }
+
+    private int delete(Connection conn, Random random, int table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql.delete()[table])) {
+            ps.setLong(1, randomId(random));
+            ps.executeUpdate();
+        }
+        return 1;
+    }
+
+    private static void drain(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                // sysbench fetches and discards the rows
+            }
+        }
+    }
+
+    private long randomId(Random random) {
+        return randomId(random, config.getTableSize(), special);
+    }
+
+    /**
+     * Row id in [1, tableSize]. The special distribution sends 75% of requests to the first 1% of rows.
+     */
+    static long randomId(Random random, int tableSize, boolean special) {
+        int size = Math.max(1, tableSize);
+        if (special) {
+            int hot = Math.max(1, size / 100);
+            if (random.nextInt(100) < 75) {
+                return random.nextInt(hot) + 1;
+            }
+        }
+        return random.nextInt(size) + 1;
+    }
+
+    /** 10 groups of 11 digits joined by '-', as sysbench fills column c. */
+    static String randomC(Random random) {
+        return digitGroups(random, 10);
+    }
+
+    /** 5 groups of 11 digits joined by '-', as sysbench fills column pad. */
+    static String randomPad(Random random) {
+        return digitGroups(random, 5);
+    }
+
+    private static String digitGroups(Random random, int groups) {
+        char[] buf = new char[groups * 12 - 1];
+        for (int i = 0; i < buf.length; i++) {
+            buf[i] = i % 12 == 11 ? '-' : (char) ('0' + random.nextInt(10));
+        }
+        return new String(buf);
+    }
+
+    /**
+     * SQL text per table, built once per run. Index i holds the statement for sbtest(i + 1).
+     */
+    public record Statements(int tables, String[] pointSelect, String[] simpleRange, String[] sumRange,
+                             String[] orderRange, String[] distinctRange, String[] updateIndex,
+                             String[] updateNonIndex, String[] delete, String[] insert) {
+
+        public static Statements forTables(int tables) {
+            Statements s = new Statements(tables, new String[tables], new String[tables], new String[tables],
+                    new String[tables], new String[tables], new String[tables], new String[tables],
+                    new String[tables], new String[tables]);
+            for (int i = 0; i < tables; i++) {
+                String t = SysbenchWorkload.tableName(i + 1);
+                s.pointSelect[i] = "SELECT c FROM " + t + " WHERE id = ?";
+                s.simpleRange[i] = "SELECT c FROM " + t + " WHERE id BETWEEN ? AND ?";
+                s.sumRange[i] = "SELECT SUM(k) FROM " + t + " WHERE id BETWEEN ? AND ?";
+                s.orderRange[i] = "SELECT c FROM " + t + " WHERE id BETWEEN ? AND ? ORDER BY c";
+                s.distinctRange[i] = "SELECT DISTINCT c FROM " + t + " WHERE id BETWEEN ? AND ? ORDER BY c";
+                s.updateIndex[i] = "UPDATE " + t + " SET k = k + 1 WHERE id = ?";
+                s.updateNonIndex[i] = "UPDATE " + t + " SET c = ? WHERE id = ?";
+                s.delete[i] = "DELETE FROM " + t + " WHERE id = ?";
+                s.insert[i] = "INSERT INTO " + t + " (id, k, c, pad) VALUES (?, ?, ?, ?)";
+            }
+            return s;
+        }
+    }
+}
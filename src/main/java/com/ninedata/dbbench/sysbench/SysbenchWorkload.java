@@ -0,0 +1,206 @@
+package com.ninedata.dbbench.sysbench;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.Workload;
+import com.ninedata.dbbench.workload.WorkloadLoader;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sysbench-compatible OLTP: sbtest1..N tables and the oltp_* scripts, selected by benchmark.sysbench.test.
+ */
+@Slf4j
+public class SysbenchWorkload implements Workload {
+    public static final String NAME = "sysbench";
+    private static final List<String> TRANSACTION_NAMES =
+            Arrays.stream(SysbenchTest.values()).map(Enum::name).toList();
+
+    /** Statements and insert id sequences of the current run, set by prepare(). */
+    private volatile Run run;
+
+    private record Run(BenchmarkConfig.SysbenchConfig config, SysbenchTransaction.Statements statements,
+                       AtomicLong[] nextInsertIds) {
+    }
+
+    public static String tableName(int table) {
+        return "sbtest" + table;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Sysbench OLTP: point_select, read_only, read_write, update_index, update_non_index, insert, delete";
+    }
+
+    @Override
+    public String getSettingsKey() {
+        return NAME;
+    }
+
+    @Override
+    public void applySettings(BenchmarkConfig config, Map<String, Object> settings) {
+        BenchmarkConfig.SysbenchConfig sb = config.getSysbench();
+        if (settings.containsKey("test")) sb.setTest(SysbenchTest.fromString((String) settings.get("test")).getScriptName());
+        if (settings.containsKey("tables")) sb.setTables(((Number) settings.get("tables")).intValue());
+        if (settings.containsKey("tableSize")) sb.setTableSize(((Number) settings.get("tableSize")).intValue());
+        if (settings.containsKey("rangeSize")) sb.setRangeSize(((Number) settings.get("rangeSize")).intValue());
+        if (settings.containsKey("pointSelects")) sb.setPointSelects(((Number) settings.get("pointSelects")).intValue());
+        if (settings.containsKey("randType")) sb.setRandType((String) settings.get("randType"));
+    }
+
+    @Override
+    public Map<String, Object> describeSettings(BenchmarkConfig config) {
+        BenchmarkConfig.SysbenchConfig sb = config.getSysbench();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("test", sb.getTest());
+        settings.put("tables", sb.getTables());
+        settings.put("tableSize", sb.getTableSize());
+        settings.put("rangeSize", sb.getRangeSize());
+        settings.put("pointSelects", sb.getPointSelects());
+        settings.put("randType", sb.getRandType());
+        return settings;
+    }
+
+    @Override
+    public void createSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            for (int t = 1; t <= tables(config); t++) {
+                stmt.execute("CREATE TABLE " + tableName(t) + " (id INTEGER NOT NULL, k INTEGER NOT NULL, "
+                        + "c CHAR(120) NOT NULL, pad CHAR(60) NOT NULL, PRIMARY KEY (id))");
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void createIndexes(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        // Secondary index is built after the load, like sysbench's --create_secondary=on
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            for (int t = 1; t <= tables(config); t++) {
+                stmt.execute("CREATE INDEX k_" + t + " ON " + tableName(t) + " (k)");
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void dropSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        String[] names = new String[tables(config)];
+        for (int t = 1; t <= names.length; t++) {
+            names[t - 1] = tableName(t);
+        }
+        adapter.dropTables(names);
+    }
+
+    @Override
+    public boolean isLoaded(DatabaseAdapter adapter) {
+        try (Connection conn = adapter.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM " + tableName(1) + " WHERE id = 1")) {
+            return rs.next();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public WorkloadLoader createLoader(DatabaseAdapter adapter, BenchmarkConfig config) {
+        BenchmarkConfig.SysbenchConfig sb = config.getSysbench();
+        return new SysbenchLoader(adapter, tables(config), Math.max(1, sb.getTableSize()), config.getLoadConcurrency());
+    }
+
+    @Override
+    public List<String> getTransactionNames() {
+        return TRANSACTION_NAMES;
+    }
+
+    @Override
+    public Set<String> getReadOnlyTransactionNames() {
+        return Set.of(SysbenchTest.OLTP_POINT_SELECT.name(), SysbenchTest.OLTP_READ_ONLY.name());
+    }
+
+    @Override
+    public void configureOptions(BenchmarkConfig config, TransactionOptions options) {
+        options.setCountRoundTrips(false);
+    }
+
+    @Override
+    public void prepare(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options) throws SQLException {
+        BenchmarkConfig.SysbenchConfig sb = config.getSysbench();
+        SysbenchTest test = SysbenchTest.fromString(sb.getTest());
+        int tables = tables(config);
+        AtomicLong[] nextIds = new AtomicLong[tables];
+        // oltp_insert appends after the highest existing id so rows from earlier runs don't collide
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            for (int t = 1; t <= tables; t++) {
+                try (ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM " + tableName(t))) {
+                    nextIds[t - 1] = new AtomicLong(rs.next() ? rs.getLong(1) : 0);
+                }
+            }
+            conn.commit();
+        }
+        run = new Run(sb, SysbenchTransaction.Statements.forTables(tables), nextIds);
+        log.info("Sysbench {} prepared on {} table(s)", test.getScriptName(), tables);
+    }
+
+    @Override
+    public WorkloadTerminal createTerminal(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options,
+                                           int terminalIndex) {
+        Run current = run;
+        if (current == null) {
+            throw new IllegalStateException("Sysbench workload is not prepared");
+        }
+        if (current.config() != config.getSysbench()) {
+            // A phase replaced the settings, e.g. to switch scripts; inserts keep the run's id sequences
+            current = new Run(config.getSysbench(), current.statements(), current.nextInsertIds());
+            run = current;
+        }
+        return new SysbenchTerminal(new SysbenchTransaction(adapter, options, SysbenchTest.fromString(current.config().getTest()),
+                current.config(), current.statements(), current.nextInsertIds()));
+    }
+
+    @Override
+    public boolean usesThinkTime() {
+        return false;
+    }
+
+    @Override
+    public String describeMix(BenchmarkConfig config) {
+        BenchmarkConfig.SysbenchConfig sb = config.getSysbench();
+        return String.format("%s on %d table(s) x %d rows, range_size=%d, rand_type=%s",
+                SysbenchTest.fromString(sb.getTest()).getScriptName(), tables(config), sb.getTableSize(),
+                sb.getRangeSize(), sb.getRandType());
+    }
+
+    @Override
+    public Map<String, Object> getResultMetrics(MetricsRegistry metricsRegistry) {
+        Map<String, Object> metrics = metricsRegistry.getCurrentMetrics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tps", metrics.get("tps"));
+        result.put("qps", metrics.get("qps"));
+        result.put("p95LatencyMs", metrics.get("p95LatencyMs"));
+        return result;
+    }
+
+    private static int tables(BenchmarkConfig config) {
+        return Math.max(1, config.getSysbench().getTables());
+    }
+}
@@ -0,0 +1,43 @@
+package com.ninedata.dbbench.template;
+
+import com.ninedata.dbbench.workload.InputRandom;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Values captured from result sets by one terminal, kept as a small ring per variable so
+ * {@code captured} parameters draw from recent results. Not thread-safe: owned by one terminal.
+ */
+public class CapturedValues {
+    static final int CAPACITY = 64;
+
+    private final Map<String, Ring> rings = new HashMap<>();
+
+    private static final class Ring {
+        private final Object[] values = new Object[CAPACITY];
+        private int size;
+        private int next;
+    }
+
+    public void add(String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        Ring ring = rings.computeIfAbsent(name, k -> new Ring());
+        ring.values[ring.next] = value;
+        ring.next = (ring.next + 1) % CAPACITY;
+        ring.size = Math.min(ring.size + 1, CAPACITY);
+    }
+
+    /**
+     * A random recently captured value, or null if none was captured yet.
+     */
+    public Object pick(String name) {
+        Ring ring = rings.get(name);
+        if (ring == null || ring.size == 0) {
+            return null;
+        }
+        return ring.values[InputRandom.current().nextInt(ring.size)];
+    }
+}
@@ -0,0 +1,156 @@
+package com.ninedata.dbbench.template;
+
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.ycsb.ScrambledZipfianGenerator;
+import com.ninedata.dbbench.ycsb.ZipfianGenerator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Produces the value of one template parameter. Generators are built once per template file and
+ * shared by all terminals, so implementations must be thread-safe.
+ */
+public interface ParameterGenerator {
+    String ALPHANUMERIC = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    /**
+     * Next value; {@code row} is the 1-based row number while loading and 0 in transactions.
+     */
+    Object next(long row, CapturedValues captured);
+
+    /**
+     * Build a generator from its spec: a map with a {@code type} key, or a plain value used as a constant.
+     */
+    static ParameterGenerator parse(String name, Object spec, String where) {
+        if (!(spec instanceof Map<?, ?> map)) {
+            Object value = spec;
+            return (row, captured) -> value;
+        }
+        TemplateSpec s = new TemplateSpec(map, where + ", parameter '" + name + "'");
+        String type = s.requireString("type").toLowerCase();
+        return switch (type) {
+            case "constant" -> {
+                Object value = s.get("value");
+                yield (row, captured) -> value;
+            }
+            case "uniform" -> {
+                long min = s.getLong("min", 1);
+                long max = s.requireLong("max");
+                checkRange(s, min, max);
+                yield (row, captured) -> InputRandom.current().nextLong(min, max + 1);
+            }
+            case "zipfian" -> {
+                long min = s.getLong("min", 1);
+                long max = s.requireLong("max");
+                checkRange(s, min, max);
+                // Scrambled by default, as YCSB: hot keys are spread over the range instead of clustered at min
+                if (s.getBoolean("scrambled", true)) {
+                    ScrambledZipfianGenerator zipfian = new ScrambledZipfianGenerator(min, max);
+                    yield (row, captured) -> zipfian.nextValue();
+                }
+                ZipfianGenerator zipfian = new ZipfianGenerator(min, max,
+                        s.getDouble("theta", ZipfianGenerator.ZIPFIAN_CONSTANT));
+                yield (row, captured) -> zipfian.nextValue();
+            }
+            case "range" -> {
+                long min = s.getLong("min", 1);
+                long max = s.requireLong("max");
+                long size = s.getLong("size", 100);
+                if (size < 1 || max - min + 1 < size) {
+                    throw s.error("size must be between 1 and max - min + 1");
+                }
+                yield (row, captured) -> {
+                    long start = InputRandom.current().nextLong(min, max - size + 2);
+                    return new Range(start, start + size - 1);
+                };
+            }
+            case "sequence" -> {
+                AtomicLong next = new AtomicLong(s.getLong("start", 1));
+                yield (row, captured) -> next.getAndIncrement();
+            }
+            case "row" -> (row, captured) -> row;
+            case "decimal" -> {
+                double min = s.getDouble("min", 0);
+                double max = s.requireDouble("max");
+                int scale = (int) s.getLong("scale", 2);
+                if (max < min) {
+                    throw s.error("max is below min");
+                }
+                yield (row, captured) -> BigDecimal.valueOf(min + InputRandom.current().nextDouble() * (max - min))
+                        .setScale(scale, RoundingMode.HALF_UP);
+            }
+            case "string" -> {
+                int length = (int) s.getLong("length", 10);
+                int minLength = (int) s.getLong("minLength", length);
+                int maxLength = (int) s.getLong("maxLength", length);
+                if (minLength < 0 || maxLength < minLength) {
+                    throw s.error("invalid string length");
+                }
+                yield (row, captured) -> randomString(minLength, maxLength);
+            }
+            case "choice" -> {
+                List<Object> values = s.requireList("values");
+                if (values.isEmpty()) {
+                    throw s.error("values is empty");
+                }
+                Object[] array = values.toArray();
+                yield (row, captured) -> array[InputRandom.current().nextInt(array.length)];
+            }
+            case "now" -> (row, captured) -> new Timestamp(System.currentTimeMillis());
+            case "captured" -> {
+                String from = s.requireString("from");
+                ParameterGenerator fallback = s.has("default") ? parse(name, s.get("default"), where) : (row, captured) -> null;
+                yield (row, captured) -> {
+                    Object value = captured.pick(from);
+                    return value != null ? value : fallback.next(row, captured);
+                };
+            }
+            default -> throw s.error("unknown type '" + type
+                    + "' (available: constant, uniform, zipfian, range, sequence, row, decimal, string, choice, now, captured)");
+        };
+    }
+
+    /**
+     * Generate every parameter into {@code values}; a range also sets {@code name.end}.
+     */
+    static void generateAll(Map<String, ParameterGenerator> generators, Map<String, Object> values, long row,
+                            CapturedValues captured) {
+        for (Map.Entry<String, ParameterGenerator> e : generators.entrySet()) {
+            Object value = e.getValue().next(row, captured);
+            if (value instanceof Range range) {
+                values.put(e.getKey(), range.start());
+                values.put(e.getKey() + ".end", range.end());
+            } else {
+                values.put(e.getKey(), value);
+            }
+        }
+    }
+
+    private static void checkRange(TemplateSpec s, long min, long max) {
+        if (max < min) {
+            throw s.error("range is empty: " + min + ".." + max);
+        }
+    }
+
+    static String randomString(int minLength, int maxLength) {
+        Random random = InputRandom.current();
+        int length = minLength == maxLength ? minLength : random.nextInt(minLength, maxLength + 1);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length()));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Value of a {@code range} parameter: {@code :name} binds the start and {@code :name.end} the end.
+     */
+    record Range(long start, long end) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.ninedata.dbbench.template;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL with named parameters ({@code :name}, or {@code :name.end} for the end of a range) compiled to
+ * JDBC placeholders. Quoted strings, quoted identifiers, comments and PostgreSQL {@code ::} casts are left alone.
+ */
+public record SqlTemplate(String sql, String[] parameters) {
+
+    public static SqlTemplate parse(String template) {
+        StringBuilder sql = new StringBuilder(template.length());
+        List<String> parameters = new ArrayList<>();
+        int n = template.length();
+        int i = 0;
+        while (i < n) {
+            char c = template.charAt(i);
+            if (c == '\'' || c == '"') {
+                int end = template.indexOf(c, i + 1);
+                // A doubled quote inside a literal is an escaped quote: keep scanning
+                while (end >= 0 && end + 1 < n && template.charAt(end + 1) == c) {
+                    end = template.indexOf(c, end + 2);
+                }
+                end = end < 0 ? n : end + 1;
+                sql.append(template, i, end);
+                i = end;
+            } else if (c == '-' && i + 1 < n && template.charAt(i + 1) == '-') {
+                int end = template.indexOf('\n', i);
+                end = end < 0 ? n : end;
+                sql.append(template, i, end);
+                i = end;
+            } else if (c == '/' && i + 1 < n && template.charAt(i + 1) == '*') {
+                int end = template.indexOf("*/", i + 2);
+                end = end < 0 ? n : end + 2;
+                sql.append(template, i, end);
+                i = end;
+            } else if (c == ':' && i + 1 < n && template.charAt(i + 1) == ':') {
+                sql.append("::");
+                i += 2;
+            } else if (c == ':' && i + 1 < n && isIdentifierStart(template.charAt(i + 1))) {
+                int end = identifierEnd(template, i + 1);
+                if (end + 1 < n && template.charAt(end) == '.' && isIdentifierStart(template.charAt(end + 1))) {
+                    end = identifierEnd(template, end + 1);
+                }
+                parameters.add(template.substring(i + 1, end));
+                sql.append('?');
+                i = end;
+            } else {
+                sql.append(c);
+                i++;
+            }
+        }
+        return new SqlTemplate(sql.toString(), parameters.toArray(new String[0]));
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static int identifierEnd(String s, int from) {
+        int i = from;
+        while (i < s.length() && (Character.isLetterOrDigit(s.charAt(i)) || s.charAt(i) == '_')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Bind the named values to the statement's placeholders.
+     */
+    public void bind(PreparedStatement ps, Map<String, Object> values) throws SQLException {
+        for (int i = 0; i < parameters.length; i++) {
+            Object value = values.get(parameters[i]);
+            int index = i + 1;
+            if (value == null) {
+                ps.setNull(index, Types.VARCHAR);
+            } else if (value instanceof Long l) {
+                ps.setLong(index, l);
+            } else if (value instanceof Integer v) {
+                ps.setInt(index, v);
+            } else if (value instanceof String v) {
+                ps.setString(index, v);
+            } else if (value instanceof BigDecimal v) {
+                ps.setBigDecimal(index, v);
+            } else if (value instanceof Double v) {
+                ps.setDouble(index, v);
+            } else if (value instanceof Timestamp v) {
+                ps.setTimestamp(index, v);
+            } else {
+                ps.setObject(index, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.ninedata.dbbench.template;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ninedata.dbbench.database.IsolationLevel;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A user-defined workload read from a YAML or JSON file: optional schema and load steps, and
+ * weighted transactions made of SQL templates with generated parameters. See the README for the format.
+ */
+public record TemplateDefinition(String name, String description, boolean thinkTime,
+                                 List<TemplateStatement> schema, List<TemplateStatement> indexes,
+                                 List<String> tables, TemplateStatement check, List<LoadStep> load,
+                                 List<TransactionTemplate> transactions) {
+
+    /**
+     * Rows inserted by one statement, e.g. the initial contents of a table.
+     */
+    public record LoadStep(String label, TemplateStatement statement, long rows,
+                           Map<String, ParameterGenerator> params) {
+    }
+
+    /**
+     * One weighted transaction type; its statements run in order in a single database transaction.
+     *
+     * @param isolation isolation level for this type, or null to keep the configured one
+     */
+    public record TransactionTemplate(String name, int weight, List<TemplateStatement> statements,
+                                      Map<String, ParameterGenerator> params, boolean readOnly,
+                                      IsolationLevel isolation) {
+    }
+
+    public static TemplateDefinition load(Path file) throws IOException {
+        String text = Files.readString(file);
+        Object root;
+        try {
+            root = file.getFileName().toString().toLowerCase().endsWith(".json")
+                    ? new ObjectMapper().readValue(text, Map.class)
+                    : new Yaml(new SafeConstructor(new LoaderOptions())).load(text);
+        } catch (RuntimeException | IOException e) {
+            throw new IllegalArgumentException("Cannot parse template file " + file + ": " + e.getMessage(), e);
+        }
+        if (!(root instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Template file " + file + " must contain a map at the top level");
+        }
+        return parse(map);
+    }
+
+    public static TemplateDefinition parse(Map<?, ?> root) {
+        TemplateSpec s = new TemplateSpec(root, "file");
+        String name = s.getString("name", "template");
+
+        List<TemplateStatement> schema = statements(s.getList("schema"), "schema");
+        List<TemplateStatement> indexes = statements(s.getList("indexes"), "indexes");
+        List<String> tables = s.getList("tables").stream().map(Object::toString).toList();
+        TemplateStatement check = s.has("check") ? TemplateStatement.parse(s.get("check"), "check") : null;
+        for (TemplateStatement statement : concat(schema, indexes, check)) {
+            checkParameters(statement, Set.of(), "schema statement");
+        }
+
+        List<LoadStep> load = new ArrayList<>();
+        List<Object> loadSpecs = s.getList("load");
+        for (int i = 0; i < loadSpecs.size(); i++) {
+            TemplateSpec step = spec(loadSpecs.get(i), "load step " + (i + 1));
+            TemplateStatement statement = TemplateStatement.parse(loadSpecs.get(i), step.where());
+            Map<String, ParameterGenerator> params = parameters(step);
+            checkParameters(statement, parameterNames(step), step.where());
+            long rows = step.requireLong("rows");
+            if (rows < 0) {
+                throw step.error("rows must not be negative");
+            }
+            load.add(new LoadStep(step.getString("name", "load step " + (i + 1)), statement, rows, params));
+        }
+
+        List<TransactionTemplate> transactions = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        int totalWeight = 0;
+        for (Object txSpec : s.requireList("transactions")) {
+            TemplateSpec tx = spec(txSpec, "transaction");
+            String txName = tx.requireString("name");
+            tx = spec(txSpec, "transaction '" + txName + "'");
+            if (!names.add(txName)) {
+                throw tx.error("duplicate transaction name");
+            }
+            int weight = (int) tx.getLong("weight", 1);
+            if (weight < 0) {
+                throw tx.error("weight must not be negative");
+            }
+            totalWeight += weight;
+            Map<String, ParameterGenerator> params = parameters(tx);
+            // Later statements may use values captured by earlier ones
+            Set<String> known = parameterNames(tx);
+            List<TemplateStatement> statements = statements(tx.requireList("statements"), tx.where());
+            if (statements.isEmpty()) {
+                throw tx.error("no statements");
+            }
+            for (TemplateStatement statement : statements) {
+                checkParameters(statement, known, tx.where());
+                known.addAll(statement.captures().keySet());
+            }
+            IsolationLevel isolation = tx.has("isolation") ? IsolationLevel.fromString(tx.getString("isolation", null)) : null;
+            transactions.add(new TransactionTemplate(txName, weight, statements, params,
+                    tx.getBoolean("readOnly", false), isolation));
+        }
+        if (transactions.isEmpty() || totalWeight <= 0) {
+            throw s.error("at least one transaction with a weight above 0 is required");
+        }
+
+        return new TemplateDefinition(name, s.getString("description", name), s.getBoolean("thinkTime", false),
+                schema, indexes, tables, check, load, transactions);
+    }
+
+    public List<String> getTransactionNames() {
+        return transactions.stream().map(TransactionTemplate::name).toList();
+    }
+
+    private static TemplateSpec spec(Object value, String where) {
+        if (!(value instanceof Map<?, ?> map)) {
+            throw new IllegalArgumentException("Template " + where + ": expected a map");
+        }
+        return new TemplateSpec(map, where);
+    }
+
+    private static List<TemplateStatement> statements(List<Object> specs, String where) {
+        List<TemplateStatement> result = new ArrayList<>();
+        for (Object spec : specs) {
+            result.add(TemplateStatement.parse(spec, where));
+        }
+        return result;
+    }
+
+    private static Map<String, ParameterGenerator> parameters(TemplateSpec owner) {
+        Map<String, ParameterGenerator> params = new LinkedHashMap<>();
+        owner.getMap("params").forEach((k, v) ->
+                params.put(k.toString(), ParameterGenerator.parse(k.toString(), v, owner.where())));
+        return params;
+    }
+
+    private static Set<String> parameterNames(TemplateSpec owner) {
+        Set<String> names = new HashSet<>();
+        owner.getMap("params").forEach((k, v) -> {
+            names.add(k.toString());
+            if (v instanceof Map<?, ?> m && "range".equalsIgnoreCase(String.valueOf(m.get("type")))) {
+                names.add(k + ".end");
+            }
+        });
+        return names;
+    }
+
+    private static void checkParameters(TemplateStatement statement, Set<String> known, String where) {
+        for (String variant : statement.variants()) {
+            for (String parameter : SqlTemplate.parse(variant).parameters()) {
+                if (!known.contains(parameter)) {
+                    throw new IllegalArgumentException("Template " + where + ": unknown parameter :" + parameter
+                            + " in " + variant);
+                }
+            }
+        }
+    }
+
+    private static List<TemplateStatement> concat(List<TemplateStatement> a, List<TemplateStatement> b,
+                                                  TemplateStatement c) {
+        List<TemplateStatement> all = new ArrayList<>(a);
+        all.addAll(b);
+        if (c != null) {
+            all.add(c);
+        }
+        return all;
+    }
+}
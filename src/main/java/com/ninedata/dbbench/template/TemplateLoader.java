@@ -0,0 +1,80 @@
+package com.ninedata.dbbench.template;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.ChunkedLoader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the load steps of a template file in parallel chunks of up to 10,000 rows.
+ * Steps are independent: a step must not rely on rows inserted by another one.
+ */
+public class TemplateLoader extends ChunkedLoader {
+    static final long CHUNK_ROWS = 10_000;
+    private static final int BATCH_SIZE = 1000;
+
+    private final DatabaseAdapter adapter;
+    private final List<TemplateDefinition.LoadStep> steps;
+    private final List<long[]> chunks = new ArrayList<>();
+
+    public TemplateLoader(DatabaseAdapter adapter, List<TemplateDefinition.LoadStep> steps, int concurrency) {
+        super(concurrency);
+        this.adapter = adapter;
+        this.steps = steps;
+        // Each chunk is {step index, first row, last row}, rows numbered from 1
+        for (int s = 0; s < steps.size(); s++) {
+            long rows = steps.get(s).rows();
+            for (long first = 1; first <= rows; first += CHUNK_ROWS) {
+                chunks.add(new long[]{s, first, Math.min(rows, first + CHUNK_ROWS - 1)});
+            }
+        }
+    }
+
+    @Override
+    protected int getChunkCount() {
+        return chunks.size();
+    }
+
+    @Override
+    protected String describe() {
+        long rows = steps.stream().mapToLong(TemplateDefinition.LoadStep::rows).sum();
+        return String.format("template: %d step(s), %d rows", steps.size(), rows);
+    }
+
+    @Override
+    protected String loadChunk(int chunk) throws SQLException {
+        long[] c = chunks.get(chunk);
+        TemplateDefinition.LoadStep step = steps.get((int) c[0]);
+        SqlTemplate sql = step.statement().compile(adapter);
+        Map<String, Object> values = new HashMap<>();
+        CapturedValues captured = new CapturedValues();
+        try (Connection conn = adapter.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.sql())) {
+            int pending = 0;
+            for (long row = c[1]; row <= c[2]; row++) {
+                if (isCancelled()) {
+                    conn.rollback();
+                    throw new SQLException("Data loading cancelled by user");
+                }
+                ParameterGenerator.generateAll(step.params(), values, row, captured);
+                sql.bind(ps, values);
+                ps.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+        return String.format("%s rows %d-%d", step.label(), c[1], c[2]);
+    }
+}
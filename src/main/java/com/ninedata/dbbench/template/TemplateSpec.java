@@ -0,0 +1,131 @@
+package com.ninedata.dbbench.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed access to one map of a parsed template file, with errors that say where the problem is.
+ */
+class TemplateSpec {
+    private final Map<?, ?> map;
+    private final String where;
+
+    TemplateSpec(Map<?, ?> map, String where) {
+        this.map = map;
+        this.where = where;
+    }
+
+    String where() {
+        return where;
+    }
+
+    boolean has(String key) {
+        return map.get(key) != null;
+    }
+
+    Object get(String key) {
+        return map.get(key);
+    }
+
+    String getString(String key, String defaultValue) {
+        Object value = map.get(key);
+        return value == null ? defaultValue : value.toString();
+    }
+
+    String requireString(String key) {
+        String value = getString(key, null);
+        if (value == null || value.isBlank()) {
+            throw error("'" + key + "' is required");
+        }
+        return value;
+    }
+
+    long getLong(String key, long defaultValue) {
+        Object value = map.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number n) {
+            return n.longValue();
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw error("'" + key + "' must be an integer: " + value);
+        }
+    }
+
+    long requireLong(String key) {
+        if (!has(key)) {
+            throw error("'" + key + "' is required");
+        }
+        return getLong(key, 0);
+    }
+
+    double getDouble(String key, double defaultValue) {
+        Object value = map.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Number n) {
+            return n.doubleValue();
+        }
+        try {
+            return Double.parseDouble(value.toString().trim());
+        } catch (NumberFormatException e) {
+            throw error("'" + key + "' must be a number: " + value);
+        }
+    }
+
+    double requireDouble(String key) {
+        if (!has(key)) {
+            throw error("'" + key + "' is required");
+        }
+        return getDouble(key, 0);
+    }
+
+    boolean getBoolean(String key, boolean defaultValue) {
+        Object value = map.get(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.toString().trim());
+    }
+
+    /**
+     * A list value; a single non-list value is treated as a one-element list.
+     */
+    @SuppressWarnings("unchecked")
+    List<Object> getList(String key) {
+        Object value = map.get(key);
+        if (value == null) {
+            return new ArrayList<>();
+        }
+        if (value instanceof List<?> list) {
+            return (List<Object>) list;
+        }
+        List<Object> single = new ArrayList<>();
+        single.add(value);
+        return single;
+    }
+
+    List<Object> requireList(String key) {
+        if (!has(key)) {
+            throw error("'" + key + "' is required");
+        }
+        return getList(key);
+    }
+
+    Map<?, ?> getMap(String key) {
+        Object value = map.get(key);
+        if (value == null) {
+            return Map.of();
+        }
+        if (!(value instanceof Map<?, ?> m)) {
+            throw error("'" + key + "' must be a map");
+        }
+        return m;
+    }
+
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Template " + where + ": " + message);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ninedata.dbbench.template;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One SQL statement of a template file, with optional per-database variants and the columns
+ * to capture from the first row it returns.
+ *
+ * @param sql       default SQL
+ * @param dialects  SQL per database type (e.g. "sqlserver", "oracle"), used instead of the default
+ * @param captures  variable name to result column
+ */
+public record TemplateStatement(String sql, Map<String, String> dialects, Map<String, String> captures) {
+
+    /**
+     * Parse a plain SQL string or a map with {@code sql}, {@code dialects} and {@code capture}.
+     * {@code capture} is a list of column names, or a map of variable name to column name.
+     */
+    static TemplateStatement parse(Object spec, String where) {
+        if (!(spec instanceof Map<?, ?> map)) {
+            if (spec == null || spec.toString().isBlank()) {
+                throw new IllegalArgumentException("Template " + where + ": empty statement");
+            }
+            return new TemplateStatement(spec.toString(), Map.of(), Map.of());
+        }
+        TemplateSpec s = new TemplateSpec(map, where);
+        Map<String, String> dialects = new LinkedHashMap<>();
+        s.getMap("dialects").forEach((k, v) -> dialects.put(dialectKey(k.toString()), v.toString()));
+        Map<String, String> captures = new LinkedHashMap<>();
+        if (s.get("capture") instanceof Map<?, ?> m) {
+            m.forEach((k, v) -> captures.put(k.toString(), v.toString()));
+        } else {
+            for (Object column : s.getList("capture")) {
+                captures.put(column.toString(), column.toString());
+            }
+        }
+        return new TemplateStatement(s.requireString("sql"), dialects, captures);
+    }
+
+    /**
+     * The SQL to run on the given database: its dialect variant if there is one, otherwise the default.
+     */
+    public String sqlFor(DatabaseAdapter adapter) {
+        return dialects.getOrDefault(dialectKey(adapter.getDatabaseType()), sql);
+    }
+
+    public SqlTemplate compile(DatabaseAdapter adapter) {
+        return SqlTemplate.parse(sqlFor(adapter));
+    }
+
+    /**
+     * Every variant, for validating parameter names up front.
+     */
+    List<String> variants() {
+        List<String> all = new ArrayList<>(dialects.values());
+        all.add(0, sql);
+        return all;
+    }
+
+    /**
+     * Dialect keys match the database type without spaces, case-insensitively: "SQL Server" is "sqlserver".
+     */
+    static String dialectKey(String databaseType) {
+        return databaseType.toLowerCase().replace(" ", "");
+    }
+}
@@ -0,0 +1,30 @@
+package com.ninedata.dbbench.template;
+
+import com.ninedata.dbbench.workload.WeightedChoice;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+/**
+ * Template workload client: picks a transaction type by weight, reusing one transaction object per type.
+ */
+public class TemplateTerminal implements WorkloadTerminal {
+    private final TemplateTransaction[] transactions;
+    private final WeightedChoice choice;
+    private final boolean thinkTime;
+
+    public TemplateTerminal(TemplateTransaction[] transactions, int[] weights, boolean thinkTime) {
+        this.transactions = transactions.clone();
+        this.choice = WeightedChoice.of("Template transaction weights", weights);
+        this.thinkTime = thinkTime;
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        return transactions[choice.next()];
+    }
+
+    @Override
+    public boolean usesThinkTime() {
+        return thinkTime;
+    }
+}
@@ -0,0 +1,100 @@
+package com.ninedata.dbbench.template;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.JdbcTransaction;
+import com.ninedata.dbbench.workload.TransactionOptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One transaction type of a template file. The SQL is compiled for the terminal's database once,
+ * when the terminal is created; each execution generates fresh parameters and runs the statements in order,
+ * prepared on its pooled connection and served from the driver's statement cache.
+ */
+public class TemplateTransaction extends JdbcTransaction {
+    private final TemplateDefinition.TransactionTemplate template;
+    private final SqlTemplate[] statements;
+    private final List<Map.Entry<String, String>>[] captures;
+    private final CapturedValues captured;
+    private final Map<String, Object> values = new HashMap<>();
+    /** Values captured by the current attempt, handed to {@link #captured} once it commits */
+    private final List<Map.Entry<String, Object>> pending = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    public TemplateTransaction(DatabaseAdapter adapter, TransactionOptions options,
+                               TemplateDefinition.TransactionTemplate template, CapturedValues captured) {
+        super(adapter, options);
+        this.template = template;
+        this.captured = captured;
+        List<TemplateStatement> list = template.statements();
+        this.statements = new SqlTemplate[list.size()];
+        this.captures = new List[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            statements[i] = list.get(i).compile(adapter);
+            captures[i] = List.copyOf(list.get(i).captures().entrySet());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return template.name();
+    }
+
+    @Override
+    protected boolean doExecute(Connection conn) throws SQLException {
+        values.clear();
+        pending.clear();
+        ParameterGenerator.generateAll(template.params(), values, 0, captured);
+        long rows = 0;
+        for (int i = 0; i < statements.length; i++) {
+            try (PreparedStatement ps = conn.prepareStatement(statements[i].sql())) {
+                statements[i].bind(ps, values);
+                if (ps.execute()) {
+                    try (ResultSet rs = ps.getResultSet()) {
+                        rows += readRows(rs, captures[i]);
+                    }
+                } else {
+                    rows += Math.max(0, ps.getUpdateCount());
+                }
+            }
+        }
+        addStatements(statements.length);
+        addRows(rows);
+        return true;
+    }
+
+    /**
+     * Drain the result set, capturing the requested columns of the first row.
+     */
+    private long readRows(ResultSet rs, List<Map.Entry<String, String>> capture) throws SQLException {
+        long rows = 0;
+        while (rs.next()) {
+            if (rows == 0) {
+                for (Map.Entry<String, String> c : capture) {
+                    Object value = rs.getObject(c.getValue());
+                    values.put(c.getKey(), value);
+                    if (value != null) {
+                        pending.add(Map.entry(c.getKey(), value));
+                    }
+                }
+            }
+            rows++;
+        }
+        return rows;
+    }
+
+    @Override
+    protected void afterCommit() {
+        for (Map.Entry<String, Object> value : pending) {
+            captured.add(value.getKey(), value.getValue());
+        }
+        pending.clear();
+    }
+}
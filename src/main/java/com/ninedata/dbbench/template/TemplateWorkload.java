@@ -0,0 +1,232 @@
+package com.ninedata.dbbench.template;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.metrics.TransactionMetrics;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.Workload;
+import com.ninedata.dbbench.workload.WorkloadLoader;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Workload defined by a YAML or JSON template file (benchmark.template.file), for benchmarking
+ * an application's own query patterns with the same terminals, metrics and dashboard.
+ */
+@Slf4j
+public class TemplateWorkload implements Workload {
+    public static final String NAME = "template";
+
+    /** Parsed file, with the path and modification time it was read at. */
+    private volatile Loaded loaded;
+
+    private record Loaded(Path path, long lastModified, TemplateDefinition definition) {
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        Loaded current = loaded;
+        return current != null
+                ? "SQL templates from " + current.path().getFileName() + ": " + current.definition().description()
+                : "User-defined SQL templates with parameter generators (benchmark.template.file)";
+    }
+
+    @Override
+    public String getSettingsKey() {
+        return NAME;
+    }
+
+    @Override
+    public void applySettings(BenchmarkConfig config, Map<String, Object> settings) {
+        if (settings.containsKey("file")) config.getTemplate().setFile((String) settings.get("file"));
+    }
+
+    @Override
+    public Map<String, Object> describeSettings(BenchmarkConfig config) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("file", config.getTemplate().getFile());
+        return settings;
+    }
+
+    /**
+     * (Re)read the template file when its path or modification time changed.
+     */
+    @Override
+    public void configure(BenchmarkConfig config) {
+        String file = config.getTemplate().getFile();
+        if (file == null || file.isBlank()) {
+            loaded = null;
+            return;
+        }
+        Path path = Path.of(file.trim());
+        try {
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            Loaded current = loaded;
+            if (current == null || !current.path().equals(path) || current.lastModified() != lastModified) {
+                loaded = new Loaded(path, lastModified, TemplateDefinition.load(path));
+                log.info("Template workload '{}' read from {}", loaded.definition().name(), path);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read template file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    TemplateDefinition definition() {
+        Loaded current = loaded;
+        if (current == null) {
+            throw new IllegalStateException("No template file configured (benchmark.template.file or --template-file)");
+        }
+        return current.definition();
+    }
+
+    @Override
+    public void createSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        execute(adapter, definition().schema());
+    }
+
+    @Override
+    public void createIndexes(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        execute(adapter, definition().indexes());
+    }
+
+    private static void execute(DatabaseAdapter adapter, List<TemplateStatement> statements) throws SQLException {
+        if (statements.isEmpty()) {
+            return;
+        }
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            for (TemplateStatement statement : statements) {
+                stmt.execute(statement.sqlFor(adapter));
+            }
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void dropSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        List<String> tables = definition().tables();
+        if (!tables.isEmpty()) {
+            adapter.dropTables(tables.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * Loaded if the file's check query returns a row; without a check query the data is assumed present.
+     */
+    @Override
+    public boolean isLoaded(DatabaseAdapter adapter) {
+        TemplateStatement check = definition().check();
+        if (check == null) {
+            return true;
+        }
+        try (Connection conn = adapter.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(check.sqlFor(adapter))) {
+            return rs.next();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public WorkloadLoader createLoader(DatabaseAdapter adapter, BenchmarkConfig config) {
+        return new TemplateLoader(adapter, definition().load(), config.getLoadConcurrency());
+    }
+
+    @Override
+    public List<String> getTransactionNames() {
+        Loaded current = loaded;
+        return current != null ? current.definition().getTransactionNames() : List.of();
+    }
+
+    /**
+     * Apply the read-only and isolation settings given in the file; they override benchmark.isolation.
+     */
+    @Override
+    public void configureOptions(BenchmarkConfig config, TransactionOptions options) {
+        for (TemplateDefinition.TransactionTemplate tx : definition().transactions()) {
+            if (tx.readOnly()) {
+                options.getReadOnlyTransactions().add(tx.name());
+            }
+            if (tx.isolation() != null) {
+                options.getIsolationLevels().put(tx.name(), tx.isolation());
+            }
+        }
+        options.setCountRoundTrips(false);
+    }
+
+    @Override
+    public WorkloadTerminal createTerminal(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options,
+                                           int terminalIndex) {
+        TemplateDefinition definition = definition();
+        List<TemplateDefinition.TransactionTemplate> templates = definition.transactions();
+        CapturedValues captured = new CapturedValues();
+        TemplateTransaction[] transactions = new TemplateTransaction[templates.size()];
+        int[] weights = new int[templates.size()];
+        for (int i = 0; i < templates.size(); i++) {
+            transactions[i] = new TemplateTransaction(adapter, options, templates.get(i), captured);
+            weights[i] = templates.get(i).weight();
+        }
+        return new TemplateTerminal(transactions, weights, definition.thinkTime());
+    }
+
+    /**
+     * Think time is opted into per file with {@code thinkTime: true}; see {@link TemplateTerminal#usesThinkTime()}.
+     */
+    @Override
+    public boolean usesThinkTime() {
+        return true;
+    }
+
+    @Override
+    public String describeMix(BenchmarkConfig config) {
+        TemplateDefinition definition = definition();
+        int total = definition.transactions().stream().mapToInt(TemplateDefinition.TransactionTemplate::weight).sum();
+        return definition.name() + ": " + definition.transactions().stream()
+                .map(tx -> tx.name() + "=" + Math.round(tx.weight() * 100.0 / total) + "%")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Throughput, latency percentiles and rows per execution for each template.
+     */
+    @Override
+    public Map<String, Object> getResultMetrics(MetricsRegistry metricsRegistry) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long elapsedMs = metricsRegistry.getElapsedMillis();
+        Map<String, Object> templates = new LinkedHashMap<>();
+        for (String name : getTransactionNames()) {
+            TransactionMetrics m = metricsRegistry.get(name);
+            if (m == null || m.getCount() == 0) {
+                continue;
+            }
+            Map<String, Object> t = new LinkedHashMap<>();
+            t.put("count", m.getCount());
+            t.put("tps", elapsedMs > 0 ? Math.round(m.getCount() * 1000.0 / elapsedMs * 100.0) / 100.0 : 0.0);
+            t.put("avgLatencyMs", Math.round(m.getAverageLatencyMs() * 100.0) / 100.0);
+            t.put("p95LatencyMs", Math.round(m.getPercentileLatencyMs(95) * 100.0) / 100.0);
+            t.put("p99LatencyMs", Math.round(m.getPercentileLatencyMs(99) * 100.0) / 100.0);
+            t.put("avgRows", Math.round(m.getAverageRows() * 100.0) / 100.0);
+            templates.put(name, t);
+        }
+        result.put("templates", templates);
+        return result;
+    }
+}
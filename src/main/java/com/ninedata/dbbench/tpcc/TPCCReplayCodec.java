@@ -0,0 +1,126 @@
+package com.ninedata.dbbench.tpcc;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.replay.ReplayCodec;
+import com.ninedata.dbbench.tpcc.transaction.*;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+import static com.ninedata.dbbench.replay.ReplayFormat.*;
+
+/**
+ * Replay records for the five TPC-C transactions: type, home warehouse and district, then the
+ * inputs drawn from {@link TPCCUtil}. Other transactions (e.g. CH-benCHmark queries) are not recorded.
+ */
+public class TPCCReplayCodec implements ReplayCodec {
+    static final byte NEW_ORDER = 0;
+    static final byte PAYMENT = 1;
+    static final byte ORDER_STATUS = 2;
+    static final byte DELIVERY = 3;
+    static final byte STOCK_LEVEL = 4;
+
+    private final Function<DatabaseAdapter, StatementCatalog> statements;
+
+    public TPCCReplayCodec() {
+        this(StatementCatalog::of);
+    }
+
+    /**
+     * @param statements the run's statements of each adapter, see {@link AbstractTransaction}
+     */
+    public TPCCReplayCodec(Function<DatabaseAdapter, StatementCatalog> statements) {
+        this.statements = statements;
+    }
+
+    @Override
+    public boolean write(WorkloadTransaction transaction, ByteBuffer out) {
+        if (transaction instanceof NewOrderTransaction t) {
+            header(out, NEW_ORDER, t);
+            putVarInt(out, t.getCustomerId());
+            putVarInt(out, t.getOrderLineCount());
+            for (int i = 0; i < t.getOrderLineCount(); i++) {
+                putVarInt(out, t.getItemIds()[i]);
+                putVarInt(out, t.getSupplyWIds()[i]);
+                putVarInt(out, t.getQuantities()[i]);
+            }
+        } else if (transaction instanceof PaymentTransaction t) {
+            header(out, PAYMENT, t);
+            out.putDouble(t.getAmount());
+            customer(out, t.getCustomerId(), t.getCustomerLastName());
+        } else if (transaction instanceof OrderStatusTransaction t) {
+            header(out, ORDER_STATUS, t);
+            customer(out, t.getCustomerId(), t.getCustomerLastName());
+        } else if (transaction instanceof DeliveryTransaction t) {
+            header(out, DELIVERY, t);
+            putVarInt(out, t.getCarrierId());
+        } else if (transaction instanceof StockLevelTransaction t) {
+            header(out, STOCK_LEVEL, t);
+            putVarInt(out, t.getThreshold());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public WorkloadTransaction read(ByteBuffer in, DatabaseAdapter adapter, TransactionOptions options) {
+        byte type = in.get();
+        int w = getVarInt(in);
+        int d = getVarInt(in);
+        StatementCatalog catalog = statements.apply(adapter);
+        switch (type) {
+            case NEW_ORDER -> {
+                int customerId = getVarInt(in);
+                int lines = getVarInt(in);
+                int[] itemIds = new int[lines];
+                int[] supplyWIds = new int[lines];
+                int[] quantities = new int[lines];
+                for (int i = 0; i < lines; i++) {
+                    itemIds[i] = getVarInt(in);
+                    supplyWIds[i] = getVarInt(in);
+                    quantities[i] = getVarInt(in);
+                }
+                return new NewOrderTransaction(adapter, w, d, options, catalog, customerId, itemIds, supplyWIds, quantities);
+            }
+            case PAYMENT -> {
+                double amount = in.getDouble();
+                boolean byName = in.get() != 0;
+                return byName
+                        ? new PaymentTransaction(adapter, w, d, options, catalog, amount, 0, getString(in))
+                        : new PaymentTransaction(adapter, w, d, options, catalog, amount, getVarInt(in), null);
+            }
+            case ORDER_STATUS -> {
+                boolean byName = in.get() != 0;
+                return byName
+                        ? new OrderStatusTransaction(adapter, w, d, options, catalog, 0, getString(in))
+                        : new OrderStatusTransaction(adapter, w, d, options, catalog, getVarInt(in), null);
+            }
+            case DELIVERY -> {
+                return new DeliveryTransaction(adapter, w, d, options, catalog, getVarInt(in));
+            }
+            case STOCK_LEVEL -> {
+                return new StockLevelTransaction(adapter, w, d, options, catalog, getVarInt(in));
+            }
+            default -> throw new IllegalStateException("Unknown TPC-C replay record type " + type);
+        }
+    }
+
+    private static void header(ByteBuffer out, byte type, AbstractTransaction t) {
+        out.put(type);
+        putVarInt(out, t.getWarehouseId());
+        putVarInt(out, t.getDistrictId());
+    }
+
+    private static void customer(ByteBuffer out, int customerId, String lastName) {
+        if (lastName != null) {
+            out.put((byte) 1);
+            putString(out, lastName);
+        } else {
+            out.put((byte) 0);
+            putVarInt(out, customerId);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.ninedata.dbbench.tpcc;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.tpcc.transaction.*;
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.TransactionOptions;
+
+/**
+ * TPC-C terminal bound to one home warehouse and district, choosing transactions by the configured mix.
+ */
+public class TPCCTerminal implements WorkloadTerminal {
+    private final DatabaseAdapter adapter;
+    private final TransactionOptions options;
+    private final StatementCatalog statements;
+    private final int warehouseId;
+    private final int districtId;
+    private final int[] weights;
+    private final int totalWeight;
+
+    public TPCCTerminal(DatabaseAdapter adapter, TransactionOptions options, StatementCatalog statements,
+                        int warehouseId, int districtId, int[] weights) {
+        this.adapter = adapter;
+        this.options = options;
+        this.statements = statements;
+        this.warehouseId = warehouseId;
+        this.districtId = districtId;
+        this.weights = weights.clone();
+        int sum = 0;
+        for (int w : weights) sum += w;
+        if (sum <= 0) {
+            throw new IllegalArgumentException("Transaction mix weights must sum to more than 0");
+        }
+        this.totalWeight = sum;
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        // Select transaction based on mix
+        int r = InputRandom.current().nextInt(totalWeight);
+        int cumulative = 0;
+        int txType = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulative += weights[i];
+            if (r < cumulative) {
+                txType = i;
+                break;
+            }
+        }
+
+        return switch (txType) {
+            case 1 -> new PaymentTransaction(adapter, warehouseId, districtId, options, statements);
+            case 2 -> new OrderStatusTransaction(adapter, warehouseId, districtId, options, statements);
+            case 3 -> new DeliveryTransaction(adapter, warehouseId, districtId, options, statements);
+            case 4 -> new StockLevelTransaction(adapter, warehouseId, districtId, options, statements);
+            default -> new NewOrderTransaction(adapter, warehouseId, districtId, options, statements);
+        };
+    }
+
+    public int getWarehouseId() {
+        return warehouseId;
+    }
+
+    public int getDistrictId() {
+        return districtId;
+    }
+}
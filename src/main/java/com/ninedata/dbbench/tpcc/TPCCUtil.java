@@ -1,6 +1,8 @@
 package com.ninedata.dbbench.tpcc;
 
-import java.util.concurrent.ThreadLocalRandom;
+import com.ninedata.dbbench.workload.InputRandom;
+
+import java.util.Random;
 
 public class TPCCUtil {
     public static final int ITEMS = 100000;
@@ -17,7 +19,7 @@ public class TPCCUtil {
     }
 
     public static int NURand(int A, int x, int y) {
-        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Random rnd = InputRandom.current();
         int C;
         switch (A) {
             case 255 -> C = rnd.nextInt(256);
@@ -29,7 +31,7 @@ public class TPCCUtil {
     }
 
     public static String randomString(int minLen, int maxLen) {
-        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Random rnd = InputRandom.current();
         int len = minLen + rnd.nextInt(maxLen - minLen + 1);
         byte[] bytes = new byte[len];
         rnd.nextBytes(bytes);
@@ -40,7 +42,7 @@ public class TPCCUtil {
     }
 
     public static String randomNumericString(int len) {
-        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        Random rnd = InputRandom.current();
         byte[] bytes = new byte[len];
         rnd.nextBytes(bytes);
         for (int i = 0; i < len; i++) {
@@ -50,11 +52,11 @@ public class TPCCUtil {
     }
 
     public static double randomDouble(double min, double max) {
-        return min + (max - min) * ThreadLocalRandom.current().nextDouble();
+        return min + (max - min) * InputRandom.current().nextDouble();
     }
 
     public static int randomInt(int min, int max) {
-        return min + ThreadLocalRandom.current().nextInt(max - min + 1);
+        return min + InputRandom.current().nextInt(max - min + 1);
     }
 
     public static String randomZip() {
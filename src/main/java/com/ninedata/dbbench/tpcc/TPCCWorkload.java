@@ -0,0 +1,219 @@
+package com.ninedata.dbbench.tpcc;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.PartitionMethod;
+import com.ninedata.dbbench.database.Partitioning;
+import com.ninedata.dbbench.database.PhysicalDesign;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.metrics.TransactionMetrics;
+import com.ninedata.dbbench.replay.ReplayCodec;
+import com.ninedata.dbbench.tpcc.loader.TPCCLoader;
+import com.ninedata.dbbench.tpcc.transaction.StatementCatalog;
+import com.ninedata.dbbench.workload.ExecutionMode;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.Workload;
+import com.ninedata.dbbench.workload.WorkloadLoader;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TPC-C: the schema and procedures live in the database adapters, transactions in tpcc.transaction.
+ */
+public class TPCCWorkload implements Workload {
+    public static final String NAME = "tpcc";
+    public static final List<String> TRANSACTION_NAMES =
+            List.of("NEW_ORDER", "PAYMENT", "ORDER_STATUS", "DELIVERY", "STOCK_LEVEL");
+
+    /** Statements of each terminal adapter with the run's statement profiles, rebuilt when the profiles change */
+    private volatile Catalogs catalogs;
+
+    private record Catalogs(String profile, Map<DatabaseAdapter, StatementCatalog> byAdapter) {
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "TPC-C OLTP: New-Order, Payment, Order-Status, Delivery, Stock-Level";
+    }
+
+    @Override
+    public void createSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        adapter.createSchema(physicalDesign(config));
+    }
+
+    /**
+     * Schema profiles and partitioning set by benchmark.schema and benchmark.partition.
+     */
+    public static PhysicalDesign physicalDesign(BenchmarkConfig config) {
+        return PhysicalDesign.of(config.getSchema().getProfile(), partitioning(config), config.getWarehouses());
+    }
+
+    /**
+     * Partitioning of the warehouse-keyed tables set by benchmark.partition.
+     */
+    public static Partitioning partitioning(BenchmarkConfig config) {
+        BenchmarkConfig.PartitionConfig partition = config.getPartition();
+        if (partition.getCount() == 0) {
+            return Partitioning.NONE;
+        }
+        return new Partitioning(PartitionMethod.fromString(partition.getMethod()), partition.getCount(),
+                config.getWarehouses());
+    }
+
+    @Override
+    public void createIndexes(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        adapter.createIndexes();
+        adapter.createConstraints(physicalDesign(config));
+    }
+
+    @Override
+    public Map<String, Object> describeSchema(DatabaseAdapter adapter, BenchmarkConfig config) {
+        PhysicalDesign design = physicalDesign(config);
+        Map<String, Object> schema = new LinkedHashMap<>();
+        schema.put("profile", design.getLabel());
+        schema.put("partitioning", design.partitioning().describe());
+        schema.put("tables", adapter.getSchemaStatements(design));
+        schema.put("constraints", adapter.getConstraintStatements(design));
+        return schema;
+    }
+
+    @Override
+    public Map<String, Object> describeStatements(DatabaseAdapter adapter, BenchmarkConfig config) {
+        StatementCatalog catalog = StatementCatalog.of(adapter, config.getStatements().getProfile());
+        Map<String, Object> statements = new LinkedHashMap<>();
+        statements.put("profile", catalog.getLabel());
+        statements.put("overridden", List.copyOf(catalog.getOverridden()));
+        statements.put("statements", catalog.getStatements());
+        return statements;
+    }
+
+    @Override
+    public void dropSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        adapter.dropSchema();
+    }
+
+    @Override
+    public boolean isLoaded(DatabaseAdapter adapter) {
+        try (Connection conn = adapter.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM warehouse")) {
+            return rs.next() && rs.getInt(1) > 0;
+        } catch (Exception e) {
+            // Table doesn't exist or other error
+            return false;
+        }
+    }
+
+    @Override
+    public WorkloadLoader createLoader(DatabaseAdapter adapter, BenchmarkConfig config) {
+        return new TPCCLoader(adapter, 1, config.getWarehouses(), config.getLoadConcurrency(), partitioning(config));
+    }
+
+    @Override
+    public WorkloadLoader createShardLoader(DatabaseAdapter adapter, BenchmarkConfig config, int firstWarehouse,
+                                            int lastWarehouse) {
+        return new TPCCLoader(adapter, firstWarehouse, lastWarehouse, config.getLoadConcurrency(), partitioning(config));
+    }
+
+    @Override
+    public List<String> getTransactionNames() {
+        return TRANSACTION_NAMES;
+    }
+
+    @Override
+    public Set<String> getReadOnlyTransactionNames() {
+        return Set.of("ORDER_STATUS", "STOCK_LEVEL");
+    }
+
+    @Override
+    public void prepare(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options) throws SQLException {
+        // Built up front, so an unknown profile fails before the run and transactions only look their SQL up
+        String profile = config.getStatements().getProfile();
+        StatementCatalog statements = statements(adapter, profile);
+        if (options.getExecutionMode() == ExecutionMode.BATCHED) {
+            Set<String> unused = new TreeSet<>(statements.getOverridden());
+            unused.retainAll(StatementCatalog.INTERACTIVE_ONLY);
+            if (!unused.isEmpty()) {
+                throw new IllegalArgumentException("Statement profiles [" + profile + "] override " + unused
+                        + ", which batched mode does not run; use interactive mode with these profiles");
+            }
+        }
+        if (options.getExecutionMode() == ExecutionMode.PROCEDURE) {
+            if (profile != null && !profile.isBlank()) {
+                throw new IllegalArgumentException("Statement profiles [" + profile
+                        + "] do not apply to stored procedure mode, which runs no client SQL");
+            }
+            if (!adapter.supportsStoredProcedures()) {
+                throw new IllegalStateException("Stored procedure mode is not supported for " + adapter.getDatabaseType());
+            }
+            // Reinstall so the procedures always match this build
+            adapter.createProcedures();
+        }
+    }
+
+    /**
+     * Statements of the adapter's transactions with the statement profiles, built on first use.
+     */
+    StatementCatalog statements(DatabaseAdapter adapter, String profile) {
+        String key = profile == null ? "" : profile;
+        Catalogs current = catalogs;
+        if (current == null || !current.profile().equals(key)) {
+            current = new Catalogs(key, new ConcurrentHashMap<>());
+            catalogs = current;
+        }
+        return current.byAdapter().computeIfAbsent(adapter, a -> StatementCatalog.of(a, key));
+    }
+
+    @Override
+    public WorkloadTerminal createTerminal(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options,
+                                           int terminalIndex) {
+        int warehouseId = config.homeWarehouse(terminalIndex);
+        int districtId = (terminalIndex % TPCCUtil.DISTRICTS_PER_WAREHOUSE) + 1;
+        BenchmarkConfig.MixConfig mix = config.getMix();
+        int[] weights = {mix.getNewOrder(), mix.getPayment(), mix.getOrderStatus(), mix.getDelivery(), mix.getStockLevel()};
+        return new TPCCTerminal(adapter, options, statements(adapter, config.getStatements().getProfile()),
+                warehouseId, districtId, weights);
+    }
+
+    @Override
+    public ReplayCodec getReplayCodec() {
+        // Replayed transactions use the profiles of the prepared run
+        return new TPCCReplayCodec(adapter -> {
+            Catalogs current = catalogs;
+            return statements(adapter, current == null ? "" : current.profile());
+        });
+    }
+
+    @Override
+    public String describeMix(BenchmarkConfig config) {
+        BenchmarkConfig.MixConfig mix = config.getMix();
+        return String.format("NewOrder=%d%%, Payment=%d%%, OrderStatus=%d%%, Delivery=%d%%, StockLevel=%d%%",
+                mix.getNewOrder(), mix.getPayment(), mix.getOrderStatus(), mix.getDelivery(), mix.getStockLevel());
+    }
+
+    @Override
+    public Map<String, Object> getResultMetrics(MetricsRegistry metricsRegistry) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        // tpmC: committed New-Order transactions per minute
+        TransactionMetrics newOrder = metricsRegistry.get("NEW_ORDER");
+        long newOrders = newOrder != null ? newOrder.getSuccessCount() : 0;
+        long elapsedMs = metricsRegistry.getElapsedMillis();
+        result.put("tpmC", elapsedMs > 0 ? Math.round(newOrders * 60_000.0 / elapsedMs * 100.0) / 100.0 : 0.0);
+        return result;
+    }
+}
@@ -1,7 +1,9 @@
 package com.ninedata.dbbench.tpcc.loader;
 
 import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.Partitioning;
 import com.ninedata.dbbench.tpcc.TPCCUtil;
+import com.ninedata.dbbench.workload.WorkloadLoader;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.*;
@@ -12,10 +14,12 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 @Slf4j
-public class TPCCLoader {
+public class TPCCLoader implements WorkloadLoader {
     private final DatabaseAdapter adapter;
+    private final int firstWarehouse;
     private final int warehouses;
     private final int concurrency;
+    private final Partitioning partitioning;
     private Consumer<String> progressCallback;
     private final AtomicInteger completedWarehouses = new AtomicInteger(0);
     private volatile boolean cancelled = false;
@@ -26,11 +30,29 @@ public class TPCCLoader {
     }
 
     public TPCCLoader(DatabaseAdapter adapter, int warehouses, int concurrency) {
+        this(adapter, 1, warehouses, concurrency);
+    }
+
+    /**
+     * Load warehouses firstWarehouse..lastWarehouse only, e.g. one shard's; the item table is always loaded in full.
+     */
+    public TPCCLoader(DatabaseAdapter adapter, int firstWarehouse, int lastWarehouse, int concurrency) {
+        this(adapter, firstWarehouse, lastWarehouse, concurrency, Partitioning.NONE);
+    }
+
+    /**
+     * Load into tables partitioned as given, spreading the parallel threads over the partitions.
+     */
+    public TPCCLoader(DatabaseAdapter adapter, int firstWarehouse, int lastWarehouse, int concurrency,
+                      Partitioning partitioning) {
         this.adapter = adapter;
-        this.warehouses = warehouses;
+        this.firstWarehouse = firstWarehouse;
+        this.warehouses = lastWarehouse - firstWarehouse + 1;
         this.concurrency = Math.max(1, Math.min(concurrency, warehouses));
+        this.partitioning = partitioning;
     }
 
+    @Override
     public void setProgressCallback(Consumer<String> callback) {
         this.progressCallback = callback;
     }
@@ -38,6 +60,7 @@ public class TPCCLoader {
     /**
      * Cancel the data loading process
      */
+    @Override
     public void cancel() {
         cancelled = true;
         if (executor != null) {
@@ -66,6 +89,7 @@ public class TPCCLoader {
         }
     }
 
+    @Override
     public void load() throws SQLException {
         cancelled = false;
         long start = System.currentTimeMillis();
@@ -90,8 +114,7 @@ public class TPCCLoader {
 
         reportProgress(String.format("Loading %d warehouses with %d parallel threads...", warehouses, concurrency));
 
-        for (int w = 1; w <= warehouses; w++) {
-            final int warehouseId = w;
+        for (int warehouseId : partitioning.loadOrder(firstWarehouse, firstWarehouse + warehouses - 1)) {
             futures.add(executor.submit(() -> {
                 try {
                     if (cancelled) return null;
@@ -2,13 +2,36 @@ package com.ninedata.dbbench.tpcc.transaction;
 
 import com.ninedata.dbbench.database.DatabaseAdapter;
 import com.ninedata.dbbench.tpcc.TPCCUtil;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import lombok.Getter;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
+@Getter
 public class DeliveryTransaction extends AbstractTransaction {
 
+    private final int carrierId;
+
     public DeliveryTransaction(DatabaseAdapter adapter, int warehouseId, int districtId) {
-        super(adapter, warehouseId, districtId);
+        this(adapter, warehouseId, districtId, new TransactionOptions());
+    }
+
+    public DeliveryTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options) {
+        this(adapter, warehouseId, districtId, options, null);
+    }
+
+    public DeliveryTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                               StatementCatalog statements) {
+        super(adapter, warehouseId, districtId, options, statements);
+        carrierId = TPCCUtil.randomInt(1, 10);
+    }
+
+    public DeliveryTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                               StatementCatalog statements, int carrierId) {
+        super(adapter, warehouseId, districtId, options, statements);
+        this.carrierId = carrierId;
     }
 
     @Override
@@ -18,16 +41,16 @@ public class DeliveryTransaction extends AbstractTransaction {
 
     @Override
     protected boolean doExecute(Connection conn) throws SQLException {
-        int carrierId = TPCCUtil.randomInt(1, 10);
         Timestamp deliveryDate = new Timestamp(System.currentTimeMillis());
         int delivered = 0;
+        StatementCatalog statements = statements();
+        // Setting the carrier returns the customer id, saving its read
+        String orderReturning = statements.find(StatementCatalog.DELIVERY_ORDER_RETURNING);
 
         for (int d = 1; d <= TPCCUtil.DISTRICTS_PER_WAREHOUSE; d++) {
             // Get oldest undelivered order
             int orderId;
-            String sql = buildSelectFirstRowForUpdateQuery(
-                "SELECT no_o_id FROM new_order WHERE no_w_id = ? AND no_d_id = ? ORDER BY no_o_id");
-            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_OLDEST_NEW_ORDER))) {
                 ps.setInt(1, warehouseId);
                 ps.setInt(2, d);
                 ResultSet rs = ps.executeQuery();
@@ -36,36 +59,49 @@ public class DeliveryTransaction extends AbstractTransaction {
             }
 
             // Delete from new_order
-            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM new_order WHERE no_w_id = ? AND no_d_id = ? AND no_o_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_NEW_ORDER_DELETE))) {
                 ps.setInt(1, warehouseId);
                 ps.setInt(2, d);
                 ps.setInt(3, orderId);
                 ps.executeUpdate();
             }
 
-            // Get customer ID
             int customerId;
-            try (PreparedStatement ps = conn.prepareStatement("SELECT o_c_id FROM oorder WHERE o_w_id = ? AND o_d_id = ? AND o_id = ?")) {
-                ps.setInt(1, warehouseId);
-                ps.setInt(2, d);
-                ps.setInt(3, orderId);
-                ResultSet rs = ps.executeQuery();
-                if (!rs.next()) continue;
-                customerId = rs.getInt(1);
-            }
+            if (orderReturning != null) {
+                // Update order carrier, returning the customer ID
+                try (PreparedStatement ps = conn.prepareStatement(orderReturning)) {
+                    ps.setInt(1, carrierId);
+                    ps.setInt(2, warehouseId);
+                    ps.setInt(3, d);
+                    ps.setInt(4, orderId);
+                    ResultSet rs = ps.executeQuery();
+                    if (!rs.next()) continue;
+                    customerId = rs.getInt(1);
+                }
+            } else {
+                // Get customer ID
+                try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_ORDER_CUSTOMER))) {
+                    ps.setInt(1, warehouseId);
+                    ps.setInt(2, d);
+                    ps.setInt(3, orderId);
+                    ResultSet rs = ps.executeQuery();
+                    if (!rs.next()) continue;
+                    customerId = rs.getInt(1);
+                }
 
-            // Update order carrier
-            try (PreparedStatement ps = conn.prepareStatement("UPDATE oorder SET o_carrier_id = ? WHERE o_w_id = ? AND o_d_id = ? AND o_id = ?")) {
-                ps.setInt(1, carrierId);
-                ps.setInt(2, warehouseId);
-                ps.setInt(3, d);
-                ps.setInt(4, orderId);
-                ps.executeUpdate();
+                // Update order carrier
+                try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_ORDER_UPDATE))) {
+                    ps.setInt(1, carrierId);
+                    ps.setInt(2, warehouseId);
+                    ps.setInt(3, d);
+                    ps.setInt(4, orderId);
+                    ps.executeUpdate();
+                }
             }
 
             // Update order lines and get total amount
             double totalAmount = 0;
-            try (PreparedStatement ps = conn.prepareStatement("SELECT SUM(ol_amount) FROM order_line WHERE ol_w_id = ? AND ol_d_id = ? AND ol_o_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_ORDER_LINE_TOTAL))) {
                 ps.setInt(1, warehouseId);
                 ps.setInt(2, d);
                 ps.setInt(3, orderId);
@@ -75,7 +111,7 @@ public class DeliveryTransaction extends AbstractTransaction {
                 }
             }
 
-            try (PreparedStatement ps = conn.prepareStatement("UPDATE order_line SET ol_delivery_d = ? WHERE ol_w_id = ? AND ol_d_id = ? AND ol_o_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_ORDER_LINE_UPDATE))) {
                 ps.setTimestamp(1, deliveryDate);
                 ps.setInt(2, warehouseId);
                 ps.setInt(3, d);
@@ -84,7 +120,7 @@ public class DeliveryTransaction extends AbstractTransaction {
             }
 
             // Update customer balance
-            try (PreparedStatement ps = conn.prepareStatement("UPDATE customer SET c_balance = c_balance + ?, c_delivery_cnt = c_delivery_cnt + 1 WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_CUSTOMER_UPDATE))) {
                 ps.setDouble(1, totalAmount);
                 ps.setInt(2, warehouseId);
                 ps.setInt(3, d);
@@ -97,4 +133,121 @@ public class DeliveryTransaction extends AbstractTransaction {
 
         return delivered > 0;
     }
+
+    @Override
+    protected boolean doExecuteBatched(Connection conn) throws SQLException {
+        StatementCatalog statements = statements();
+        Timestamp deliveryDate = new Timestamp(System.currentTimeMillis());
+        int districts = TPCCUtil.DISTRICTS_PER_WAREHOUSE;
+
+        // Oldest undelivered order of every district in one read
+        int[] orderIds = new int[districts + 1];
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_BATCHED_OLDEST_NEW_ORDERS))) {
+            ps.setInt(1, warehouseId);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                int d = rs.getInt(1);
+                if (d >= 1 && d <= districts) orderIds[d] = rs.getInt(2);
+            }
+        }
+
+        // Claim the orders; a zero update count means another terminal delivered it first
+        List<Integer> claimed = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_NEW_ORDER_DELETE))) {
+            List<Integer> batched = new ArrayList<>();
+            for (int d = 1; d <= districts; d++) {
+                if (orderIds[d] == 0) continue;
+                ps.setInt(1, warehouseId);
+                ps.setInt(2, d);
+                ps.setInt(3, orderIds[d]);
+                ps.addBatch();
+                batched.add(d);
+            }
+            if (batched.isEmpty()) return false;
+            int[] counts = ps.executeBatch();
+            for (int i = 0; i < batched.size(); i++) {
+                if (i >= counts.length || counts[i] != 0) claimed.add(batched.get(i));
+            }
+        }
+        if (claimed.isEmpty()) return false;
+
+        // Customer ids and order totals for all claimed orders
+        int[] customerIds = new int[districts + 1];
+        try (PreparedStatement ps = conn.prepareStatement(
+                statements.forInList(StatementCatalog.DELIVERY_BATCHED_ORDER_CUSTOMERS, districtId, claimed.size()))) {
+            bindOrderKeys(ps, claimed, orderIds);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                int d = rs.getInt(1);
+                if (orderIds[d] == rs.getInt(2)) {
+                    customerIds[d] = rs.getInt(3);
+                }
+            }
+        }
+
+        double[] totals = new double[districts + 1];
+        try (PreparedStatement ps = conn.prepareStatement(
+                statements.forInList(StatementCatalog.DELIVERY_BATCHED_ORDER_LINE_TOTALS, districtId, claimed.size()))) {
+            bindOrderKeys(ps, claimed, orderIds);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                int d = rs.getInt(1);
+                if (orderIds[d] == rs.getInt(2)) {
+                    totals[d] = rs.getDouble(3);
+                }
+            }
+        }
+
+        try (PreparedStatement orderPs = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_ORDER_UPDATE));
+             PreparedStatement linePs = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_ORDER_LINE_UPDATE));
+             PreparedStatement customerPs = conn.prepareStatement(statements.get(StatementCatalog.DELIVERY_CUSTOMER_UPDATE))) {
+            for (int d : claimed) {
+                orderPs.setInt(1, carrierId);
+                orderPs.setInt(2, warehouseId);
+                orderPs.setInt(3, d);
+                orderPs.setInt(4, orderIds[d]);
+                orderPs.addBatch();
+
+                linePs.setTimestamp(1, deliveryDate);
+                linePs.setInt(2, warehouseId);
+                linePs.setInt(3, d);
+                linePs.setInt(4, orderIds[d]);
+                linePs.addBatch();
+
+                if (customerIds[d] != 0) {
+                    customerPs.setDouble(1, totals[d]);
+                    customerPs.setInt(2, warehouseId);
+                    customerPs.setInt(3, d);
+                    customerPs.setInt(4, customerIds[d]);
+                    customerPs.addBatch();
+                }
+            }
+            orderPs.executeBatch();
+            linePs.executeBatch();
+            customerPs.executeBatch();
+        }
+
+        return true;
+    }
+
+    /**
+     * Bind the warehouse, then the claimed districts, then their order ids, to the two IN lists.
+     */
+    private void bindOrderKeys(PreparedStatement ps, List<Integer> districts, int[] orderIds) throws SQLException {
+        ps.setInt(1, warehouseId);
+        int idx = 2;
+        for (int d : districts) {
+            ps.setInt(idx++, d);
+        }
+        for (int d : districts) {
+            ps.setInt(idx++, orderIds[d]);
+        }
+    }
+
+    @Override
+    protected boolean doExecuteProcedure(Connection conn) throws SQLException {
+        // The procedure returns the number of districts delivered
+        int delivered = callProcedure(conn, "tpcc_delivery", warehouseId, carrierId);
+        return delivered > 0;
+    }
 }
@@ -2,27 +2,38 @@ package com.ninedata.dbbench.tpcc.transaction;
 
 import com.ninedata.dbbench.database.DatabaseAdapter;
 import com.ninedata.dbbench.tpcc.TPCCUtil;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import lombok.Getter;
 
 import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
 
+@Getter
 public class NewOrderTransaction extends AbstractTransaction {
+    private final int customerId;
+    private final int orderLineCount;
+    private final int[] itemIds;
+    private final int[] supplyWIds;
+    private final int[] quantities;
 
     public NewOrderTransaction(DatabaseAdapter adapter, int warehouseId, int districtId) {
-        super(adapter, warehouseId, districtId);
+        this(adapter, warehouseId, districtId, new TransactionOptions());
     }
 
-    @Override
-    public String getName() {
-        return "NEW_ORDER";
+    public NewOrderTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options) {
+        this(adapter, warehouseId, districtId, options, null);
     }
 
-    @Override
-    protected boolean doExecute(Connection conn) throws SQLException {
-        int customerId = TPCCUtil.NURand(1023, 1, TPCCUtil.CUSTOMERS_PER_DISTRICT);
-        int orderLineCount = TPCCUtil.randomInt(5, 15);
-        int[] itemIds = new int[orderLineCount];
-        int[] supplyWIds = new int[orderLineCount];
-        int[] quantities = new int[orderLineCount];
+    public NewOrderTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                               StatementCatalog statements) {
+        super(adapter, warehouseId, districtId, options, statements);
+        customerId = TPCCUtil.NURand(1023, 1, TPCCUtil.CUSTOMERS_PER_DISTRICT);
+        orderLineCount = TPCCUtil.randomInt(5, 15);
+        itemIds = new int[orderLineCount];
+        supplyWIds = new int[orderLineCount];
+        quantities = new int[orderLineCount];
 
         for (int i = 0; i < orderLineCount; i++) {
             itemIds[i] = TPCCUtil.NURand(8191, 1, TPCCUtil.ITEMS);
@@ -34,10 +45,32 @@ public class NewOrderTransaction extends AbstractTransaction {
         if (TPCCUtil.randomInt(1, 100) == 1) {
             itemIds[orderLineCount - 1] = TPCCUtil.ITEMS + 1;
         }
+    }
+
+    /**
+     * A New-Order with given inputs, e.g. replayed from a recorded run.
+     */
+    public NewOrderTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                               StatementCatalog statements, int customerId, int[] itemIds, int[] supplyWIds, int[] quantities) {
+        super(adapter, warehouseId, districtId, options, statements);
+        this.customerId = customerId;
+        this.orderLineCount = itemIds.length;
+        this.itemIds = itemIds;
+        this.supplyWIds = supplyWIds;
+        this.quantities = quantities;
+    }
+
+    @Override
+    public String getName() {
+        return "NEW_ORDER";
+    }
 
+    @Override
+    protected boolean doExecute(Connection conn) throws SQLException {
+        StatementCatalog statements = statements();
         // Get warehouse tax
         double wTax;
-        try (PreparedStatement ps = conn.prepareStatement("SELECT w_tax FROM warehouse WHERE w_id = ?")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_WAREHOUSE))) {
             ps.setInt(1, warehouseId);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) return false;
@@ -47,26 +80,38 @@ public class NewOrderTransaction extends AbstractTransaction {
         // Get district info and update next order ID
         double dTax;
         int orderId;
-        String districtSql = buildSelectForUpdateQuery("SELECT d_tax, d_next_o_id FROM district WHERE d_w_id = ? AND d_id = ?");
-        try (PreparedStatement ps = conn.prepareStatement(districtSql)) {
-            ps.setInt(1, warehouseId);
-            ps.setInt(2, districtId);
-            ResultSet rs = ps.executeQuery();
-            if (!rs.next()) return false;
-            dTax = rs.getDouble(1);
-            orderId = rs.getInt(2);
-        }
+        String districtReturning = statements.find(StatementCatalog.NEW_ORDER_DISTRICT_RETURNING);
+        if (districtReturning != null) {
+            // One statement takes the order ID and returns the district tax
+            try (PreparedStatement ps = conn.prepareStatement(districtReturning)) {
+                ps.setInt(1, warehouseId);
+                ps.setInt(2, districtId);
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) return false;
+                dTax = rs.getDouble(1);
+                orderId = rs.getInt(2);
+            }
+        } else {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_DISTRICT))) {
+                ps.setInt(1, warehouseId);
+                ps.setInt(2, districtId);
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) return false;
+                dTax = rs.getDouble(1);
+                orderId = rs.getInt(2);
+            }
 
-        try (PreparedStatement ps = conn.prepareStatement("UPDATE district SET d_next_o_id = ? WHERE d_w_id = ? AND d_id = ?")) {
-            ps.setInt(1, orderId + 1);
-            ps.setInt(2, warehouseId);
-            ps.setInt(3, districtId);
-            ps.executeUpdate();
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_DISTRICT_UPDATE))) {
+                ps.setInt(1, orderId + 1);
+                ps.setInt(2, warehouseId);
+                ps.setInt(3, districtId);
+                ps.executeUpdate();
+            }
         }
 
         // Get customer discount
         double cDiscount;
-        try (PreparedStatement ps = conn.prepareStatement("SELECT c_discount FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_CUSTOMER))) {
             ps.setInt(1, warehouseId);
             ps.setInt(2, districtId);
             ps.setInt(3, customerId);
@@ -76,7 +121,7 @@ public class NewOrderTransaction extends AbstractTransaction {
         }
 
         // Insert order
-        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO oorder (o_id, o_d_id, o_w_id, o_c_id, o_entry_d, o_carrier_id, o_ol_cnt, o_all_local) VALUES (?, ?, ?, ?, ?, NULL, ?, 1)")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_ORDER_INSERT))) {
             ps.setInt(1, orderId);
             ps.setInt(2, districtId);
             ps.setInt(3, warehouseId);
@@ -87,7 +132,7 @@ public class NewOrderTransaction extends AbstractTransaction {
         }
 
         // Insert new_order
-        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO new_order (no_o_id, no_d_id, no_w_id) VALUES (?, ?, ?)")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_NEW_ORDER_INSERT))) {
             ps.setInt(1, orderId);
             ps.setInt(2, districtId);
             ps.setInt(3, warehouseId);
@@ -95,13 +140,15 @@ public class NewOrderTransaction extends AbstractTransaction {
         }
 
         // Process order lines
+        String stockSql = statements.forDistrict(StatementCatalog.NEW_ORDER_STOCK, districtId);
         for (int i = 0; i < orderLineCount; i++) {
             // Get item
             double iPrice;
-            try (PreparedStatement ps = conn.prepareStatement("SELECT i_price, i_name, i_data FROM item WHERE i_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_ITEM))) {
                 ps.setInt(1, itemIds[i]);
                 ResultSet rs = ps.executeQuery();
                 if (!rs.next()) {
+                    markExpectedRollback();
                     conn.rollback();
                     return false; // Invalid item - rollback
                 }
@@ -111,7 +158,6 @@ public class NewOrderTransaction extends AbstractTransaction {
             // Get and update stock
             int sQuantity;
             String sDistInfo;
-            String stockSql = buildSelectForUpdateQuery("SELECT s_quantity, s_dist_" + String.format("%02d", districtId) + ", s_data FROM stock WHERE s_w_id = ? AND s_i_id = ?");
             try (PreparedStatement ps = conn.prepareStatement(stockSql)) {
                 ps.setInt(1, supplyWIds[i]);
                 ps.setInt(2, itemIds[i]);
@@ -124,7 +170,7 @@ public class NewOrderTransaction extends AbstractTransaction {
             int newQuantity = sQuantity - quantities[i];
             if (newQuantity < 10) newQuantity += 91;
 
-            try (PreparedStatement ps = conn.prepareStatement("UPDATE stock SET s_quantity = ?, s_ytd = s_ytd + ?, s_order_cnt = s_order_cnt + 1 WHERE s_w_id = ? AND s_i_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_STOCK_UPDATE))) {
                 ps.setInt(1, newQuantity);
                 ps.setInt(2, quantities[i]);
                 ps.setInt(3, supplyWIds[i]);
@@ -134,7 +180,7 @@ public class NewOrderTransaction extends AbstractTransaction {
 
             // Insert order line
             double olAmount = quantities[i] * iPrice;
-            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO order_line (ol_o_id, ol_d_id, ol_w_id, ol_number, ol_i_id, ol_supply_w_id, ol_delivery_d, ol_quantity, ol_amount, ol_dist_info) VALUES (?, ?, ?, ?, ?, ?, NULL, ?, ?, ?)")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_ORDER_LINE_INSERT))) {
                 ps.setInt(1, orderId);
                 ps.setInt(2, districtId);
                 ps.setInt(3, warehouseId);
@@ -150,4 +196,150 @@ public class NewOrderTransaction extends AbstractTransaction {
 
         return true;
     }
+
+    @Override
+    protected boolean doExecuteBatched(Connection conn) throws SQLException {
+        StatementCatalog statements = statements();
+        // Warehouse tax and customer discount in one read
+        double wTax;
+        double cDiscount;
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_BATCHED_WAREHOUSE_CUSTOMER))) {
+            ps.setInt(1, warehouseId);
+            ps.setInt(2, districtId);
+            ps.setInt(3, customerId);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) return false;
+            wTax = rs.getDouble(1);
+            cDiscount = rs.getDouble(2);
+        }
+
+        double dTax;
+        int orderId;
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_DISTRICT))) {
+            ps.setInt(1, warehouseId);
+            ps.setInt(2, districtId);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) return false;
+            dTax = rs.getDouble(1);
+            orderId = rs.getInt(2);
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_DISTRICT_UPDATE))) {
+            ps.setInt(1, orderId + 1);
+            ps.setInt(2, warehouseId);
+            ps.setInt(3, districtId);
+            ps.executeUpdate();
+        }
+
+        // All item prices with one IN-list read; a missing item means the 1% invalid-item rollback
+        TreeSet<Integer> distinctItems = new TreeSet<>();
+        for (int itemId : itemIds) distinctItems.add(itemId);
+        Map<Integer, Double> prices = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(
+                statements.forInList(StatementCatalog.NEW_ORDER_BATCHED_ITEMS, districtId, distinctItems.size()))) {
+            int idx = 1;
+            for (int itemId : distinctItems) ps.setInt(idx++, itemId);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                prices.put(rs.getInt(1), rs.getDouble(2));
+            }
+        }
+        if (prices.size() < distinctItems.size()) {
+            markExpectedRollback();
+            conn.rollback();
+            return false;
+        }
+
+        // Lock all stock rows of each supplying warehouse with one statement
+        Map<Long, Integer> stockQuantity = new HashMap<>();
+        Map<Long, String> stockDistInfo = new HashMap<>();
+        TreeSet<Integer> supplyWarehouses = new TreeSet<>();
+        for (int w : supplyWIds) supplyWarehouses.add(w);
+        for (int supplyWId : supplyWarehouses) {
+            TreeSet<Integer> items = new TreeSet<>();
+            for (int i = 0; i < orderLineCount; i++) {
+                if (supplyWIds[i] == supplyWId) items.add(itemIds[i]);
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    statements.forInList(StatementCatalog.NEW_ORDER_BATCHED_STOCK, districtId, items.size()))) {
+                ps.setInt(1, supplyWId);
+                int idx = 2;
+                for (int itemId : items) ps.setInt(idx++, itemId);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    long key = stockKey(supplyWId, rs.getInt(1));
+                    stockQuantity.put(key, rs.getInt(2));
+                    stockDistInfo.put(key, rs.getString(3));
+                }
+            }
+        }
+
+        try (PreparedStatement stockPs = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_STOCK_UPDATE));
+             PreparedStatement linePs = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_ORDER_LINE_INSERT))) {
+            for (int i = 0; i < orderLineCount; i++) {
+                long key = stockKey(supplyWIds[i], itemIds[i]);
+                Integer sQuantity = stockQuantity.get(key);
+                if (sQuantity == null) return false;
+
+                // Track the running quantity so repeated items in one order see earlier lines
+                int newQuantity = sQuantity - quantities[i];
+                if (newQuantity < 10) newQuantity += 91;
+                stockQuantity.put(key, newQuantity);
+
+                stockPs.setInt(1, newQuantity);
+                stockPs.setInt(2, quantities[i]);
+                stockPs.setInt(3, supplyWIds[i]);
+                stockPs.setInt(4, itemIds[i]);
+                stockPs.addBatch();
+
+                linePs.setInt(1, orderId);
+                linePs.setInt(2, districtId);
+                linePs.setInt(3, warehouseId);
+                linePs.setInt(4, i + 1);
+                linePs.setInt(5, itemIds[i]);
+                linePs.setInt(6, supplyWIds[i]);
+                linePs.setInt(7, quantities[i]);
+                linePs.setDouble(8, quantities[i] * prices.get(itemIds[i]));
+                linePs.setString(9, stockDistInfo.get(key));
+                linePs.addBatch();
+            }
+            stockPs.executeBatch();
+
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_ORDER_INSERT))) {
+                ps.setInt(1, orderId);
+                ps.setInt(2, districtId);
+                ps.setInt(3, warehouseId);
+                ps.setInt(4, customerId);
+                ps.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                ps.setInt(6, orderLineCount);
+                ps.executeUpdate();
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.NEW_ORDER_NEW_ORDER_INSERT))) {
+                ps.setInt(1, orderId);
+                ps.setInt(2, districtId);
+                ps.setInt(3, warehouseId);
+                ps.executeUpdate();
+            }
+
+            linePs.executeBatch();
+        }
+
+        return true;
+    }
+
+    private static long stockKey(int warehouseId, int itemId) {
+        return ((long) warehouseId << 32) | itemId;
+    }
+
+    @Override
+    protected boolean doExecuteProcedure(Connection conn) throws SQLException {
+        // Status 0 means an invalid item was hit; the caller rolls back like the interactive path
+        int status = callProcedure(conn, "tpcc_new_order", warehouseId, districtId, customerId,
+                orderLineCount, joinIds(itemIds), joinIds(supplyWIds), joinIds(quantities));
+        if (status == 0 && itemIds[orderLineCount - 1] > TPCCUtil.ITEMS) {
+            markExpectedRollback();
+        }
+        return status > 0;
+    }
 }
@@ -2,13 +2,43 @@ package com.ninedata.dbbench.tpcc.transaction;
 
 import com.ninedata.dbbench.database.DatabaseAdapter;
 import com.ninedata.dbbench.tpcc.TPCCUtil;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import lombok.Getter;
 
 import java.sql.*;
 
+@Getter
 public class OrderStatusTransaction extends AbstractTransaction {
 
+    private final boolean byName;
+    private final int customerId;
+    private final String customerLastName;
+
     public OrderStatusTransaction(DatabaseAdapter adapter, int warehouseId, int districtId) {
-        super(adapter, warehouseId, districtId);
+        this(adapter, warehouseId, districtId, new TransactionOptions());
+    }
+
+    public OrderStatusTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options) {
+        this(adapter, warehouseId, districtId, options, null);
+    }
+
+    public OrderStatusTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                                  StatementCatalog statements) {
+        super(adapter, warehouseId, districtId, options, statements);
+        byName = TPCCUtil.randomInt(1, 100) <= 60;
+        customerLastName = byName ? TPCCUtil.generateLastName(TPCCUtil.NURand(255, 0, 999)) : null;
+        customerId = byName ? 0 : TPCCUtil.NURand(1023, 1, TPCCUtil.CUSTOMERS_PER_DISTRICT);
+    }
+
+    /**
+     * An Order-Status with given inputs; customerLastName selects by name when not null.
+     */
+    public OrderStatusTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                                  StatementCatalog statements, int customerId, String customerLastName) {
+        super(adapter, warehouseId, districtId, options, statements);
+        this.byName = customerLastName != null;
+        this.customerLastName = customerLastName;
+        this.customerId = byName ? 0 : customerId;
     }
 
     @Override
@@ -18,15 +48,13 @@ public class OrderStatusTransaction extends AbstractTransaction {
 
     @Override
     protected boolean doExecute(Connection conn) throws SQLException {
-        int customerId;
-        boolean byName = TPCCUtil.randomInt(1, 100) <= 60;
-
+        StatementCatalog statements = statements();
+        int cId;
         if (byName) {
-            String lastName = TPCCUtil.generateLastName(TPCCUtil.NURand(255, 0, 999));
-            try (PreparedStatement ps = conn.prepareStatement("SELECT c_id FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_last = ? ORDER BY c_first")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.ORDER_STATUS_CUSTOMER_BY_NAME))) {
                 ps.setInt(1, warehouseId);
                 ps.setInt(2, districtId);
-                ps.setString(3, lastName);
+                ps.setString(3, customerLastName);
                 ResultSet rs = ps.executeQuery();
                 int count = 0;
                 int[] ids = new int[100];
@@ -34,36 +62,34 @@ public class OrderStatusTransaction extends AbstractTransaction {
                     ids[count++] = rs.getInt(1);
                 }
                 if (count == 0) return false;
-                customerId = ids[(count + 1) / 2 - 1];
+                cId = ids[(count + 1) / 2 - 1];
             }
         } else {
-            customerId = TPCCUtil.NURand(1023, 1, TPCCUtil.CUSTOMERS_PER_DISTRICT);
+            cId = customerId;
         }
 
         // Get customer info
-        try (PreparedStatement ps = conn.prepareStatement("SELECT c_balance, c_first, c_middle, c_last FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.ORDER_STATUS_CUSTOMER))) {
             ps.setInt(1, warehouseId);
             ps.setInt(2, districtId);
-            ps.setInt(3, customerId);
+            ps.setInt(3, cId);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) return false;
         }
 
         // Get last order
         int orderId;
-        String sql = buildSelectFirstRowQuery(
-            "SELECT o_id, o_entry_d, o_carrier_id FROM oorder WHERE o_w_id = ? AND o_d_id = ? AND o_c_id = ? ORDER BY o_id DESC");
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.ORDER_STATUS_LAST_ORDER))) {
             ps.setInt(1, warehouseId);
             ps.setInt(2, districtId);
-            ps.setInt(3, customerId);
+            ps.setInt(3, cId);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) return false;
             orderId = rs.getInt(1);
         }
 
         // Get order lines
-        try (PreparedStatement ps = conn.prepareStatement("SELECT ol_i_id, ol_supply_w_id, ol_quantity, ol_amount, ol_delivery_d FROM order_line WHERE ol_w_id = ? AND ol_d_id = ? AND ol_o_id = ?")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.ORDER_STATUS_ORDER_LINES))) {
             ps.setInt(1, warehouseId);
             ps.setInt(2, districtId);
             ps.setInt(3, orderId);
@@ -75,4 +101,65 @@ public class OrderStatusTransaction extends AbstractTransaction {
 
         return true;
     }
+
+    @Override
+    protected boolean doExecuteBatched(Connection conn) throws SQLException {
+        // Customer lookup and customer info in one read
+        int cId;
+        String customerQuery = "SELECT c_id, c_balance, c_first, c_middle, c_last FROM customer WHERE c_w_id = ? AND c_d_id = ? AND ";
+        if (byName) {
+            try (PreparedStatement ps = conn.prepareStatement(customerQuery + "c_last = ? ORDER BY c_first")) {
+                ps.setInt(1, warehouseId);
+                ps.setInt(2, districtId);
+                ps.setString(3, customerLastName);
+                ResultSet rs = ps.executeQuery();
+                int count = 0;
+                int[] ids = new int[100];
+                while (rs.next() && count < 100) {
+                    ids[count++] = rs.getInt(1);
+                }
+                if (count == 0) return false;
+                cId = ids[(count + 1) / 2 - 1];
+            }
+        } else {
+            try (PreparedStatement ps = conn.prepareStatement(customerQuery + "c_id = ?")) {
+                ps.setInt(1, warehouseId);
+                ps.setInt(2, districtId);
+                ps.setInt(3, customerId);
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) return false;
+                cId = rs.getInt(1);
+            }
+        }
+
+        // Last order and its lines in one read
+        try (PreparedStatement ps = conn.prepareStatement("""
+            SELECT o_id, o_entry_d, o_carrier_id, ol_i_id, ol_supply_w_id, ol_quantity, ol_amount, ol_delivery_d
+            FROM oorder, order_line
+            WHERE o_w_id = ? AND o_d_id = ? AND o_c_id = ?
+            AND o_id = (SELECT MAX(o_id) FROM oorder WHERE o_w_id = ? AND o_d_id = ? AND o_c_id = ?)
+            AND ol_w_id = o_w_id AND ol_d_id = o_d_id AND ol_o_id = o_id
+        """)) {
+            ps.setInt(1, warehouseId);
+            ps.setInt(2, districtId);
+            ps.setInt(3, cId);
+            ps.setInt(4, warehouseId);
+            ps.setInt(5, districtId);
+            ps.setInt(6, cId);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) return false;
+            while (rs.next()) {
+                // Read order line data
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    protected boolean doExecuteProcedure(Connection conn) throws SQLException {
+        int status = callProcedure(conn, "tpcc_order_status", warehouseId, districtId, byName ? 1 : 0,
+                customerId, customerLastName);
+        return status > 0;
+    }
 }
@@ -2,13 +2,48 @@ package com.ninedata.dbbench.tpcc.transaction;
 
 import com.ninedata.dbbench.database.DatabaseAdapter;
 import com.ninedata.dbbench.tpcc.TPCCUtil;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import lombok.Getter;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 
+@Getter
 public class PaymentTransaction extends AbstractTransaction {
 
+    private final double amount;
+    private final boolean byName;
+    private final int customerId;
+    private final String customerLastName;
+
     public PaymentTransaction(DatabaseAdapter adapter, int warehouseId, int districtId) {
-        super(adapter, warehouseId, districtId);
+        this(adapter, warehouseId, districtId, new TransactionOptions());
+    }
+
+    public PaymentTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options) {
+        this(adapter, warehouseId, districtId, options, null);
+    }
+
+    public PaymentTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                              StatementCatalog statements) {
+        super(adapter, warehouseId, districtId, options, statements);
+        amount = TPCCUtil.randomDouble(1.00, 5000.00);
+        byName = TPCCUtil.randomInt(1, 100) <= 60;
+        customerLastName = byName ? TPCCUtil.generateLastName(TPCCUtil.NURand(255, 0, 999)) : null;
+        customerId = byName ? 0 : TPCCUtil.NURand(1023, 1, TPCCUtil.CUSTOMERS_PER_DISTRICT);
+    }
+
+    /**
+     * A Payment with given inputs; customerLastName selects by name when not null.
+     */
+    public PaymentTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                              StatementCatalog statements, double amount, int customerId, String customerLastName) {
+        super(adapter, warehouseId, districtId, options, statements);
+        this.amount = amount;
+        this.byName = customerLastName != null;
+        this.customerLastName = customerLastName;
+        this.customerId = byName ? 0 : customerId;
     }
 
     @Override
@@ -18,56 +53,71 @@ public class PaymentTransaction extends AbstractTransaction {
 
     @Override
     protected boolean doExecute(Connection conn) throws SQLException {
-        double amount = TPCCUtil.randomDouble(1.00, 5000.00);
-        int customerId;
-        String customerLastName = null;
-        boolean byName = TPCCUtil.randomInt(1, 100) <= 60;
-
-        if (byName) {
-            customerLastName = TPCCUtil.generateLastName(TPCCUtil.NURand(255, 0, 999));
-        } else {
-            customerId = TPCCUtil.NURand(1023, 1, TPCCUtil.CUSTOMERS_PER_DISTRICT);
-        }
-
-        // Update warehouse YTD
-        try (PreparedStatement ps = conn.prepareStatement("UPDATE warehouse SET w_ytd = w_ytd + ? WHERE w_id = ?")) {
-            ps.setDouble(1, amount);
-            ps.setInt(2, warehouseId);
-            ps.executeUpdate();
-        }
-
-        // Get warehouse info
+        StatementCatalog statements = statements();
         String wName;
-        try (PreparedStatement ps = conn.prepareStatement("SELECT w_name, w_street_1, w_street_2, w_city, w_state, w_zip FROM warehouse WHERE w_id = ?")) {
-            ps.setInt(1, warehouseId);
-            ResultSet rs = ps.executeQuery();
-            if (!rs.next()) return false;
-            wName = rs.getString(1);
-        }
+        String warehouseReturning = statements.find(StatementCatalog.PAYMENT_WAREHOUSE_RETURNING);
+        if (warehouseReturning != null) {
+            // Update warehouse YTD, returning the warehouse info
+            try (PreparedStatement ps = conn.prepareStatement(warehouseReturning)) {
+                ps.setDouble(1, amount);
+                ps.setInt(2, warehouseId);
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) return false;
+                wName = rs.getString(1);
+            }
+        } else {
+            // Update warehouse YTD
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_WAREHOUSE_UPDATE))) {
+                ps.setDouble(1, amount);
+                ps.setInt(2, warehouseId);
+                ps.executeUpdate();
+            }
 
-        // Update district YTD
-        try (PreparedStatement ps = conn.prepareStatement("UPDATE district SET d_ytd = d_ytd + ? WHERE d_w_id = ? AND d_id = ?")) {
-            ps.setDouble(1, amount);
-            ps.setInt(2, warehouseId);
-            ps.setInt(3, districtId);
-            ps.executeUpdate();
+            // Get warehouse info
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_WAREHOUSE))) {
+                ps.setInt(1, warehouseId);
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) return false;
+                wName = rs.getString(1);
+            }
         }
 
-        // Get district info
         String dName;
-        try (PreparedStatement ps = conn.prepareStatement("SELECT d_name, d_street_1, d_street_2, d_city, d_state, d_zip FROM district WHERE d_w_id = ? AND d_id = ?")) {
-            ps.setInt(1, warehouseId);
-            ps.setInt(2, districtId);
-            ResultSet rs = ps.executeQuery();
-            if (!rs.next()) return false;
-            dName = rs.getString(1);
+        String districtReturning = statements.find(StatementCatalog.PAYMENT_DISTRICT_RETURNING);
+        if (districtReturning != null) {
+            // Update district YTD, returning the district info
+            try (PreparedStatement ps = conn.prepareStatement(districtReturning)) {
+                ps.setDouble(1, amount);
+                ps.setInt(2, warehouseId);
+                ps.setInt(3, districtId);
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) return false;
+                dName = rs.getString(1);
+            }
+        } else {
+            // Update district YTD
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_DISTRICT_UPDATE))) {
+                ps.setDouble(1, amount);
+                ps.setInt(2, warehouseId);
+                ps.setInt(3, districtId);
+                ps.executeUpdate();
+            }
+
+            // Get district info
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_DISTRICT))) {
+                ps.setInt(1, warehouseId);
+                ps.setInt(2, districtId);
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) return false;
+                dName = rs.getString(1);
+            }
         }
 
         // Find customer
         int cId;
         String cCredit;
         if (byName) {
-            try (PreparedStatement ps = conn.prepareStatement("SELECT c_id FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_last = ? ORDER BY c_first")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_CUSTOMER_BY_NAME))) {
                 ps.setInt(1, warehouseId);
                 ps.setInt(2, districtId);
                 ps.setString(3, customerLastName);
@@ -81,11 +131,11 @@ public class PaymentTransaction extends AbstractTransaction {
                 cId = ids[(count + 1) / 2 - 1];
             }
         } else {
-            cId = TPCCUtil.NURand(1023, 1, TPCCUtil.CUSTOMERS_PER_DISTRICT);
+            cId = customerId;
         }
 
         // Get customer info
-        try (PreparedStatement ps = conn.prepareStatement("SELECT c_first, c_middle, c_last, c_street_1, c_street_2, c_city, c_state, c_zip, c_phone, c_since, c_credit, c_credit_lim, c_discount, c_balance FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_CUSTOMER))) {
             ps.setInt(1, warehouseId);
             ps.setInt(2, districtId);
             ps.setInt(3, cId);
@@ -97,7 +147,7 @@ public class PaymentTransaction extends AbstractTransaction {
         // Update customer
         if ("BC".equals(cCredit)) {
             String cData;
-            try (PreparedStatement ps = conn.prepareStatement("SELECT c_data FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_CUSTOMER_DATA))) {
                 ps.setInt(1, warehouseId);
                 ps.setInt(2, districtId);
                 ps.setInt(3, cId);
@@ -109,7 +159,7 @@ public class PaymentTransaction extends AbstractTransaction {
             String newData = String.format("%d %d %d %d %d %.2f | %s", cId, districtId, warehouseId, districtId, warehouseId, amount, cData);
             if (newData.length() > 500) newData = newData.substring(0, 500);
 
-            try (PreparedStatement ps = conn.prepareStatement("UPDATE customer SET c_balance = c_balance - ?, c_ytd_payment = c_ytd_payment + ?, c_payment_cnt = c_payment_cnt + 1, c_data = ? WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_CUSTOMER_UPDATE_DATA))) {
                 ps.setDouble(1, amount);
                 ps.setDouble(2, amount);
                 ps.setString(3, newData);
@@ -119,7 +169,7 @@ public class PaymentTransaction extends AbstractTransaction {
                 ps.executeUpdate();
             }
         } else {
-            try (PreparedStatement ps = conn.prepareStatement("UPDATE customer SET c_balance = c_balance - ?, c_ytd_payment = c_ytd_payment + ?, c_payment_cnt = c_payment_cnt + 1 WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?")) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_CUSTOMER_UPDATE))) {
                 ps.setDouble(1, amount);
                 ps.setDouble(2, amount);
                 ps.setInt(3, warehouseId);
@@ -130,7 +180,107 @@ public class PaymentTransaction extends AbstractTransaction {
         }
 
         // Insert history
-        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO history (h_c_id, h_c_d_id, h_c_w_id, h_d_id, h_w_id, h_date, h_amount, h_data) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_HISTORY_INSERT))) {
+            ps.setInt(1, cId);
+            ps.setInt(2, districtId);
+            ps.setInt(3, warehouseId);
+            ps.setInt(4, districtId);
+            ps.setInt(5, warehouseId);
+            ps.setTimestamp(6, new Timestamp(System.currentTimeMillis()));
+            ps.setDouble(7, amount);
+            ps.setString(8, wName + "    " + dName);
+            ps.executeUpdate();
+        }
+
+        return true;
+    }
+
+    @Override
+    protected boolean doExecuteBatched(Connection conn) throws SQLException {
+        StatementCatalog statements = statements();
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_WAREHOUSE_UPDATE))) {
+            ps.setDouble(1, amount);
+            ps.setInt(2, warehouseId);
+            ps.executeUpdate();
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_DISTRICT_UPDATE))) {
+            ps.setDouble(1, amount);
+            ps.setInt(2, warehouseId);
+            ps.setInt(3, districtId);
+            ps.executeUpdate();
+        }
+
+        // Warehouse and district info in one read
+        String wName;
+        String dName;
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_BATCHED_WAREHOUSE_DISTRICT))) {
+            ps.setInt(1, warehouseId);
+            ps.setInt(2, districtId);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) return false;
+            wName = rs.getString(1);
+            dName = rs.getString(2);
+        }
+
+        // Customer lookup returns credit and c_data directly, by name or by id
+        int cId;
+        String cCredit;
+        String cData;
+        if (byName) {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_BATCHED_CUSTOMER_BY_NAME))) {
+                ps.setInt(1, warehouseId);
+                ps.setInt(2, districtId);
+                ps.setString(3, customerLastName);
+                ResultSet rs = ps.executeQuery();
+                List<Object[]> rows = new ArrayList<>();
+                while (rs.next() && rows.size() < 100) {
+                    rows.add(new Object[]{rs.getInt(1), rs.getString(2), rs.getString(3)});
+                }
+                if (rows.isEmpty()) return false;
+                Object[] row = rows.get((rows.size() + 1) / 2 - 1);
+                cId = (Integer) row[0];
+                cCredit = (String) row[1];
+                cData = (String) row[2];
+            }
+        } else {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_BATCHED_CUSTOMER))) {
+                ps.setInt(1, warehouseId);
+                ps.setInt(2, districtId);
+                ps.setInt(3, customerId);
+                ResultSet rs = ps.executeQuery();
+                if (!rs.next()) return false;
+                cId = rs.getInt(1);
+                cCredit = rs.getString(2);
+                cData = rs.getString(3);
+            }
+        }
+
+        if ("BC".equals(cCredit)) {
+            String newData = String.format("%d %d %d %d %d %.2f | %s", cId, districtId, warehouseId, districtId, warehouseId, amount, cData);
+            if (newData.length() > 500) newData = newData.substring(0, 500);
+
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_CUSTOMER_UPDATE_DATA))) {
+                ps.setDouble(1, amount);
+                ps.setDouble(2, amount);
+                ps.setString(3, newData);
+                ps.setInt(4, warehouseId);
+                ps.setInt(5, districtId);
+                ps.setInt(6, cId);
+                ps.executeUpdate();
+            }
+        } else {
+            try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_CUSTOMER_UPDATE))) {
+                ps.setDouble(1, amount);
+                ps.setDouble(2, amount);
+                ps.setInt(3, warehouseId);
+                ps.setInt(4, districtId);
+                ps.setInt(5, cId);
+                ps.executeUpdate();
+            }
+        }
+
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.PAYMENT_HISTORY_INSERT))) {
             ps.setInt(1, cId);
             ps.setInt(2, districtId);
             ps.setInt(3, warehouseId);
@@ -144,4 +294,11 @@ public class PaymentTransaction extends AbstractTransaction {
 
         return true;
     }
+
+    @Override
+    protected boolean doExecuteProcedure(Connection conn) throws SQLException {
+        int status = callProcedure(conn, "tpcc_payment", warehouseId, districtId, byName ? 1 : 0,
+                customerId, customerLastName, amount);
+        return status > 0;
+    }
 }
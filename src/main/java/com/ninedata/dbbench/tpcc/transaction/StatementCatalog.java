@@ -0,0 +1,407 @@
+package com.ninedata.dbbench.tpcc.transaction;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL of the interactive and batched TPC-C transactions by logical statement id, built once per adapter: each
+ * statement in the adapter's dialect, then replaced by the adapter's statement profiles (optimizer and index
+ * hints, SKIP LOCKED or NOWAIT for Delivery, RETURNING clauses that save a round trip).
+ * The RETURNING statements have no default; a transaction uses them only when a profile supplies them.
+ */
+public final class StatementCatalog {
+    /** Placeholder for the district's s_dist_NN column in {@link #NEW_ORDER_STOCK}, see {@link #forDistrict} */
+    public static final String DISTRICT_INFO = "s_dist_##";
+    /** Placeholder for the ?, ?, ... list of an IN predicate in the batched statements, see {@link #forInList} */
+    public static final String IN_LIST = "?##";
+
+    public static final String NEW_ORDER_WAREHOUSE = "new-order.warehouse";
+    public static final String NEW_ORDER_DISTRICT = "new-order.district";
+    public static final String NEW_ORDER_DISTRICT_UPDATE = "new-order.district-update";
+    /** Increment d_next_o_id, returning d_tax and the order id taken, in place of the two above */
+    public static final String NEW_ORDER_DISTRICT_RETURNING = "new-order.district-returning";
+    public static final String NEW_ORDER_CUSTOMER = "new-order.customer";
+    public static final String NEW_ORDER_ORDER_INSERT = "new-order.order-insert";
+    public static final String NEW_ORDER_NEW_ORDER_INSERT = "new-order.new-order-insert";
+    public static final String NEW_ORDER_ITEM = "new-order.item";
+    public static final String NEW_ORDER_STOCK = "new-order.stock";
+    public static final String NEW_ORDER_STOCK_UPDATE = "new-order.stock-update";
+    public static final String NEW_ORDER_ORDER_LINE_INSERT = "new-order.order-line-insert";
+
+    public static final String PAYMENT_WAREHOUSE_UPDATE = "payment.warehouse-update";
+    public static final String PAYMENT_WAREHOUSE = "payment.warehouse";
+    /** Add to w_ytd, returning w_name and the address, in place of the two above */
+    public static final String PAYMENT_WAREHOUSE_RETURNING = "payment.warehouse-returning";
+    public static final String PAYMENT_DISTRICT_UPDATE = "payment.district-update";
+    public static final String PAYMENT_DISTRICT = "payment.district";
+    /** Add to d_ytd, returning d_name and the address, in place of the two above */
+    public static final String PAYMENT_DISTRICT_RETURNING = "payment.district-returning";
+    public static final String PAYMENT_CUSTOMER_BY_NAME = "payment.customer-by-name";
+    public static final String PAYMENT_CUSTOMER = "payment.customer";
+    public static final String PAYMENT_CUSTOMER_DATA = "payment.customer-data";
+    public static final String PAYMENT_CUSTOMER_UPDATE = "payment.customer-update";
+    public static final String PAYMENT_CUSTOMER_UPDATE_DATA = "payment.customer-update-data";
+    public static final String PAYMENT_HISTORY_INSERT = "payment.history-insert";
+
+    public static final String ORDER_STATUS_CUSTOMER_BY_NAME = "order-status.customer-by-name";
+    public static final String ORDER_STATUS_CUSTOMER = "order-status.customer";
+    public static final String ORDER_STATUS_LAST_ORDER = "order-status.last-order";
+    public static final String ORDER_STATUS_ORDER_LINES = "order-status.order-lines";
+
+    public static final String DELIVERY_OLDEST_NEW_ORDER = "delivery.oldest-new-order";
+    public static final String DELIVERY_NEW_ORDER_DELETE = "delivery.new-order-delete";
+    public static final String DELIVERY_ORDER_CUSTOMER = "delivery.order-customer";
+    public static final String DELIVERY_ORDER_UPDATE = "delivery.order-update";
+    /** Set the carrier, returning o_c_id, in place of the two above */
+    public static final String DELIVERY_ORDER_RETURNING = "delivery.order-returning";
+    public static final String DELIVERY_ORDER_LINE_TOTAL = "delivery.order-line-total";
+    public static final String DELIVERY_ORDER_LINE_UPDATE = "delivery.order-line-update";
+    public static final String DELIVERY_CUSTOMER_UPDATE = "delivery.customer-update";
+
+    public static final String STOCK_LEVEL_DISTRICT = "stock-level.district";
+    public static final String STOCK_LEVEL_LOW_STOCK = "stock-level.low-stock";
+
+    // The batched path reads with joins and IN lists; its single-row writes are the interactive statements above
+    public static final String NEW_ORDER_BATCHED_WAREHOUSE_CUSTOMER = "new-order.batched-warehouse-customer";
+    public static final String NEW_ORDER_BATCHED_ITEMS = "new-order.batched-items";
+    public static final String NEW_ORDER_BATCHED_STOCK = "new-order.batched-stock";
+    public static final String PAYMENT_BATCHED_WAREHOUSE_DISTRICT = "payment.batched-warehouse-district";
+    public static final String PAYMENT_BATCHED_CUSTOMER_BY_NAME = "payment.batched-customer-by-name";
+    public static final String PAYMENT_BATCHED_CUSTOMER = "payment.batched-customer";
+    public static final String DELIVERY_BATCHED_OLDEST_NEW_ORDERS = "delivery.batched-oldest-new-orders";
+    public static final String DELIVERY_BATCHED_ORDER_CUSTOMERS = "delivery.batched-order-customers";
+    public static final String DELIVERY_BATCHED_ORDER_LINE_TOTALS = "delivery.batched-order-line-totals";
+
+    /** Statements without a default, used only when a profile supplies them */
+    public static final Set<String> OPTIONAL = Set.of(NEW_ORDER_DISTRICT_RETURNING, PAYMENT_WAREHOUSE_RETURNING,
+            PAYMENT_DISTRICT_RETURNING, DELIVERY_ORDER_RETURNING);
+
+    /** Statements of New-Order, Payment and Delivery that the batched path does not run */
+    public static final Set<String> INTERACTIVE_ONLY = Set.of(NEW_ORDER_WAREHOUSE, NEW_ORDER_DISTRICT_RETURNING,
+            NEW_ORDER_CUSTOMER, NEW_ORDER_ITEM, NEW_ORDER_STOCK, PAYMENT_WAREHOUSE, PAYMENT_WAREHOUSE_RETURNING,
+            PAYMENT_DISTRICT, PAYMENT_DISTRICT_RETURNING, PAYMENT_CUSTOMER_BY_NAME, PAYMENT_CUSTOMER,
+            PAYMENT_CUSTOMER_DATA, DELIVERY_OLDEST_NEW_ORDER, DELIVERY_ORDER_CUSTOMER, DELIVERY_ORDER_RETURNING,
+            DELIVERY_ORDER_LINE_TOTAL);
+
+    private static final Pattern ROWID_QUERY =
+            Pattern.compile("(?i)SELECT\\s+.+?\\s+FROM\\s+(\\w+)\\s+(WHERE\\s+.+?)?(ORDER\\s+BY\\s+.+)?$");
+    private static final Pattern SELECT_COLUMNS = Pattern.compile("(?i)SELECT\\s+(.+?)\\s+FROM");
+
+    private final List<String> profiles;
+    private final Map<String, String> statements;
+    private final Set<String> overridden;
+
+    private StatementCatalog(List<String> profiles, Map<String, String> statements, Set<String> overridden) {
+        this.profiles = List.copyOf(profiles);
+        this.statements = Collections.unmodifiableMap(statements);
+        this.overridden = Collections.unmodifiableSet(overridden);
+    }
+
+    /**
+     * The adapter's default statements.
+     */
+    public static StatementCatalog of(DatabaseAdapter adapter) {
+        return of(adapter, "");
+    }
+
+    /**
+     * The adapter's statements with a comma separated list of its statement profiles applied, later profiles
+     * winning; "default" and blanks are skipped.
+     *
+     * @throws IllegalArgumentException for a profile the adapter does not offer
+     */
+    public static StatementCatalog of(DatabaseAdapter adapter, String profiles) {
+        List<String> names = new ArrayList<>();
+        if (profiles != null) {
+            for (String name : profiles.split(",")) {
+                String profile = name.trim().toLowerCase();
+                if (!profile.isEmpty() && !profile.equals("default") && !names.contains(profile)) {
+                    names.add(profile);
+                }
+            }
+        }
+        Map<String, String> statements = defaults(adapter);
+        Set<String> overridden = new LinkedHashSet<>();
+        for (Map.Entry<String, String> override : adapter.getStatementOverrides(names).entrySet()) {
+            if (!statements.containsKey(override.getKey()) && !OPTIONAL.contains(override.getKey())) {
+                throw new IllegalStateException(adapter.getDatabaseType() + " statement profile replaces unknown statement "
+                        + override.getKey());
+            }
+            statements.put(override.getKey(), override.getValue());
+            overridden.add(override.getKey());
+        }
+        return new StatementCatalog(names, statements, overridden);
+    }
+
+    private static Map<String, String> defaults(DatabaseAdapter adapter) {
+        Map<String, String> sql = new LinkedHashMap<>();
+        sql.put(NEW_ORDER_WAREHOUSE, "SELECT w_tax FROM warehouse WHERE w_id = ?");
+        sql.put(NEW_ORDER_DISTRICT, selectForUpdate(adapter, "SELECT d_tax, d_next_o_id FROM district WHERE d_w_id = ? AND d_id = ?"));
+        sql.put(NEW_ORDER_DISTRICT_UPDATE, "UPDATE district SET d_next_o_id = ? WHERE d_w_id = ? AND d_id = ?");
+        sql.put(NEW_ORDER_CUSTOMER, "SELECT c_discount FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?");
+        sql.put(NEW_ORDER_ORDER_INSERT, "INSERT INTO oorder (o_id, o_d_id, o_w_id, o_c_id, o_entry_d, o_carrier_id, o_ol_cnt, o_all_local) VALUES (?, ?, ?, ?, ?, NULL, ?, 1)");
+        sql.put(NEW_ORDER_NEW_ORDER_INSERT, "INSERT INTO new_order (no_o_id, no_d_id, no_w_id) VALUES (?, ?, ?)");
+        sql.put(NEW_ORDER_ITEM, "SELECT i_price, i_name, i_data FROM item WHERE i_id = ?");
+        sql.put(NEW_ORDER_STOCK, selectForUpdate(adapter, "SELECT s_quantity, " + DISTRICT_INFO + ", s_data FROM stock WHERE s_w_id = ? AND s_i_id = ?"));
+        sql.put(NEW_ORDER_STOCK_UPDATE, "UPDATE stock SET s_quantity = ?, s_ytd = s_ytd + ?, s_order_cnt = s_order_cnt + 1 WHERE s_w_id = ? AND s_i_id = ?");
+        sql.put(NEW_ORDER_ORDER_LINE_INSERT, "INSERT INTO order_line (ol_o_id, ol_d_id, ol_w_id, ol_number, ol_i_id, ol_supply_w_id, ol_delivery_d, ol_quantity, ol_amount, ol_dist_info) VALUES (?, ?, ?, ?, ?, ?, NULL, ?, ?, ?)");
+
+        sql.put(PAYMENT_WAREHOUSE_UPDATE, "UPDATE warehouse SET w_ytd = w_ytd + ? WHERE w_id = ?");
+        sql.put(PAYMENT_WAREHOUSE, "SELECT w_name, w_street_1, w_street_2, w_city, w_state, w_zip FROM warehouse WHERE w_id = ?");
+        sql.put(PAYMENT_DISTRICT_UPDATE, "UPDATE district SET d_ytd = d_ytd + ? WHERE d_w_id = ? AND d_id = ?");
+        sql.put(PAYMENT_DISTRICT, "SELECT d_name, d_street_1, d_street_2, d_city, d_state, d_zip FROM district WHERE d_w_id = ? AND d_id = ?");
+        sql.put(PAYMENT_CUSTOMER_BY_NAME, "SELECT c_id FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_last = ? ORDER BY c_first");
+        sql.put(PAYMENT_CUSTOMER, "SELECT c_first, c_middle, c_last, c_street_1, c_street_2, c_city, c_state, c_zip, c_phone, c_since, c_credit, c_credit_lim, c_discount, c_balance FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?");
+        sql.put(PAYMENT_CUSTOMER_DATA, "SELECT c_data FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?");
+        sql.put(PAYMENT_CUSTOMER_UPDATE, "UPDATE customer SET c_balance = c_balance - ?, c_ytd_payment = c_ytd_payment + ?, c_payment_cnt = c_payment_cnt + 1 WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?");
+        sql.put(PAYMENT_CUSTOMER_UPDATE_DATA, "UPDATE customer SET c_balance = c_balance - ?, c_ytd_payment = c_ytd_payment + ?, c_payment_cnt = c_payment_cnt + 1, c_data = ? WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?");
+        sql.put(PAYMENT_HISTORY_INSERT, "INSERT INTO history (h_c_id, h_c_d_id, h_c_w_id, h_d_id, h_w_id, h_date, h_amount, h_data) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+
+        sql.put(ORDER_STATUS_CUSTOMER_BY_NAME, "SELECT c_id FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_last = ? ORDER BY c_first");
+        sql.put(ORDER_STATUS_CUSTOMER, "SELECT c_balance, c_first, c_middle, c_last FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?");
+        sql.put(ORDER_STATUS_LAST_ORDER, selectFirstRow(adapter,
+                "SELECT o_id, o_entry_d, o_carrier_id FROM oorder WHERE o_w_id = ? AND o_d_id = ? AND o_c_id = ? ORDER BY o_id DESC"));
+        sql.put(ORDER_STATUS_ORDER_LINES, "SELECT ol_i_id, ol_supply_w_id, ol_quantity, ol_amount, ol_delivery_d FROM order_line WHERE ol_w_id = ? AND ol_d_id = ? AND ol_o_id = ?");
+
+        sql.put(DELIVERY_OLDEST_NEW_ORDER, selectFirstRowForUpdate(adapter,
+                "SELECT no_o_id FROM new_order WHERE no_w_id = ? AND no_d_id = ? ORDER BY no_o_id"));
+        sql.put(DELIVERY_NEW_ORDER_DELETE, "DELETE FROM new_order WHERE no_w_id = ? AND no_d_id = ? AND no_o_id = ?");
+        sql.put(DELIVERY_ORDER_CUSTOMER, "SELECT o_c_id FROM oorder WHERE o_w_id = ? AND o_d_id = ? AND o_id = ?");
+        sql.put(DELIVERY_ORDER_UPDATE, "UPDATE oorder SET o_carrier_id = ? WHERE o_w_id = ? AND o_d_id = ? AND o_id = ?");
+        sql.put(DELIVERY_ORDER_LINE_TOTAL, "SELECT SUM(ol_amount) FROM order_line WHERE ol_w_id = ? AND ol_d_id = ? AND ol_o_id = ?");
+        sql.put(DELIVERY_ORDER_LINE_UPDATE, "UPDATE order_line SET ol_delivery_d = ? WHERE ol_w_id = ? AND ol_d_id = ? AND ol_o_id = ?");
+        sql.put(DELIVERY_CUSTOMER_UPDATE, "UPDATE customer SET c_balance = c_balance + ?, c_delivery_cnt = c_delivery_cnt + 1 WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?");
+
+        sql.put(STOCK_LEVEL_DISTRICT, "SELECT d_next_o_id FROM district WHERE d_w_id = ? AND d_id = ?");
+        sql.put(STOCK_LEVEL_LOW_STOCK, "SELECT COUNT(DISTINCT s_i_id) FROM stock, order_line WHERE s_w_id = ? AND ol_w_id = ? AND ol_d_id = ? "
+                + "AND ol_o_id < ? AND ol_o_id >= ? AND s_i_id = ol_i_id AND s_quantity < ?");
+
+        sql.put(NEW_ORDER_BATCHED_WAREHOUSE_CUSTOMER,
+                "SELECT w_tax, c_discount FROM warehouse, customer WHERE w_id = ? AND c_w_id = w_id AND c_d_id = ? AND c_id = ?");
+        sql.put(NEW_ORDER_BATCHED_ITEMS, "SELECT i_id, i_price FROM item WHERE i_id IN (" + IN_LIST + ")");
+        sql.put(NEW_ORDER_BATCHED_STOCK, selectForUpdate(adapter,
+                "SELECT s_i_id, s_quantity, " + DISTRICT_INFO + " FROM stock WHERE s_w_id = ? AND s_i_id IN (" + IN_LIST + ")"));
+        sql.put(PAYMENT_BATCHED_WAREHOUSE_DISTRICT,
+                "SELECT w_name, d_name FROM warehouse, district WHERE w_id = ? AND d_w_id = w_id AND d_id = ?");
+        sql.put(PAYMENT_BATCHED_CUSTOMER_BY_NAME,
+                "SELECT c_id, c_credit, c_data FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_last = ? ORDER BY c_first");
+        sql.put(PAYMENT_BATCHED_CUSTOMER, "SELECT c_id, c_credit, c_data FROM customer WHERE c_w_id = ? AND c_d_id = ? AND c_id = ?");
+        sql.put(DELIVERY_BATCHED_OLDEST_NEW_ORDERS, "SELECT no_d_id, MIN(no_o_id) FROM new_order WHERE no_w_id = ? GROUP BY no_d_id");
+        // Districts and orders as two IN lists; rows of another district's order id are skipped by the caller
+        sql.put(DELIVERY_BATCHED_ORDER_CUSTOMERS, "SELECT o_d_id, o_id, o_c_id FROM oorder WHERE o_w_id = ? "
+                + "AND o_d_id IN (" + IN_LIST + ") AND o_id IN (" + IN_LIST + ")");
+        sql.put(DELIVERY_BATCHED_ORDER_LINE_TOTALS, "SELECT ol_d_id, ol_o_id, SUM(ol_amount) FROM order_line WHERE ol_w_id = ? "
+                + "AND ol_d_id IN (" + IN_LIST + ") AND ol_o_id IN (" + IN_LIST + ") GROUP BY ol_d_id, ol_o_id");
+        return sql;
+    }
+
+    /**
+     * SQL of a statement.
+     *
+     * @throws IllegalStateException for an optional statement no profile supplied, or an unknown id
+     */
+    public String get(String id) {
+        String sql = statements.get(id);
+        if (sql == null) {
+            throw new IllegalStateException("No statement " + id + " in the catalog");
+        }
+        return sql;
+    }
+
+    /**
+     * SQL of an optional statement, or null when no profile supplied it.
+     */
+    public String find(String id) {
+        return statements.get(id);
+    }
+
+    /**
+     * SQL of a statement with {@link #DISTRICT_INFO} replaced by the district's s_dist_NN column.
+     */
+    public String forDistrict(String id, int districtId) {
+        return get(id).replace(DISTRICT_INFO, String.format("s_dist_%02d", districtId));
+    }
+
+    /**
+     * SQL of a batched statement with every {@link #IN_LIST} replaced by {@code count} placeholders and
+     * {@link #DISTRICT_INFO}, if any, by the district's s_dist_NN column.
+     */
+    public String forInList(String id, int districtId, int count) {
+        return forDistrict(id, districtId).replace(IN_LIST, placeholders(count));
+    }
+
+    /**
+     * Comma separated list of {@code count} JDBC placeholders for IN lists.
+     */
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    public List<String> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * e.g. "hints,skip-locked", or "default".
+     */
+    public String getLabel() {
+        return profiles.isEmpty() ? "default" : String.join(",", profiles);
+    }
+
+    /**
+     * Every statement by id, in transaction order, the optional ones included only when supplied.
+     */
+    public Map<String, String> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Ids of the statements the profiles replaced or supplied.
+     */
+    public Set<String> getOverridden() {
+        return overridden;
+    }
+
+    /**
+     * Build a SELECT query with LIMIT 1 that works across databases.
+     * For Oracle: uses ROWNUM subquery
+     * For DB2: uses FETCH FIRST 1 ROWS ONLY
+     * For SQL Server: uses TOP 1
+     * For MySQL/PostgreSQL/etc: uses LIMIT 1
+     */
+    static String selectFirstRow(DatabaseAdapter adapter, String baseQuery) {
+        String dbType = adapter.getDatabaseType().toLowerCase();
+        if (dbType.contains("sql server")) {
+            // SQL Server: SELECT TOP 1 ... - need to insert TOP after SELECT
+            return baseQuery.replaceFirst("(?i)SELECT\\s+", "SELECT TOP 1 ");
+        } else if (adapter.supportsLimitSyntax()) {
+            return baseQuery + " LIMIT 1";
+        } else if (dbType.contains("oracle")) {
+            // Oracle: use ROWNUM subquery for compatibility with 11g and earlier
+            return "SELECT * FROM (" + baseQuery + ") WHERE ROWNUM = 1";
+        } else {
+            // DB2: uses FETCH FIRST syntax
+            return baseQuery + " FETCH FIRST 1 ROWS ONLY";
+        }
+    }
+
+    /**
+     * Build a SELECT FOR UPDATE query with LIMIT 1 that works across databases.
+     * For Oracle 11g: uses ROWID-based subquery since FETCH FIRST is not supported
+     * For DB2: uses FETCH FIRST 1 ROWS ONLY FOR UPDATE
+     * For SQL Server: uses TOP 1 with lock hints
+     * For MySQL/PostgreSQL/etc: uses LIMIT 1 FOR UPDATE
+     */
+    static String selectFirstRowForUpdate(DatabaseAdapter adapter, String baseQuery) {
+        if (!adapter.supportsForUpdate()) {
+            // SQLite: no FOR UPDATE support, rely on file-level locking
+            return selectFirstRow(adapter, baseQuery);
+        }
+        String dbType = adapter.getDatabaseType().toLowerCase();
+        if (dbType.contains("sql server")) {
+            // SQL Server: uses TOP 1 and WITH (UPDLOCK, ROWLOCK) instead of FOR UPDATE
+            String query = baseQuery.replaceFirst("(?i)SELECT\\s+", "SELECT TOP 1 ");
+            // Add WITH (UPDLOCK, ROWLOCK) hint after table name
+            return addSqlServerLockHint(query);
+        } else if (adapter.supportsLimitSyntax()) {
+            return baseQuery + " LIMIT 1 FOR UPDATE";
+        } else if (adapter.requiresRowIdForLimitForUpdate()) {
+            // Oracle 11g: use ROWID-based subquery for SELECT ... FOR UPDATE with LIMIT
+            return buildOracleRowIdForUpdateQuery(baseQuery);
+        } else {
+            // DB2: FOR UPDATE comes after FETCH FIRST
+            return baseQuery + " FETCH FIRST 1 ROWS ONLY FOR UPDATE";
+        }
+    }
+
+    /**
+     * Build Oracle ROWID-based query for SELECT ... FOR UPDATE with LIMIT 1.
+     * This is required for Oracle 11g and earlier which don't support FETCH FIRST syntax.
+     *
+     * Transforms: SELECT col FROM table WHERE cond ORDER BY col
+     * Into: SELECT col FROM table WHERE ROWID = (SELECT ROWID FROM (SELECT ROWID FROM table WHERE cond ORDER BY col) WHERE ROWNUM = 1) FOR UPDATE
+     */
+    private static String buildOracleRowIdForUpdateQuery(String baseQuery) {
+        // Extract table name and WHERE/ORDER BY clauses from base query
+        // Pattern: SELECT ... FROM table_name WHERE ... ORDER BY ...
+        Matcher matcher = ROWID_QUERY.matcher(baseQuery.trim());
+
+        if (matcher.find()) {
+            String tableName = matcher.group(1);
+            String whereClause = matcher.group(2) != null ? matcher.group(2).trim() : "";
+            String orderByClause = matcher.group(3) != null ? matcher.group(3).trim() : "";
+
+            // Build the ROWID subquery
+            StringBuilder innerQuery = new StringBuilder("SELECT ROWID FROM ");
+            innerQuery.append(tableName);
+            if (!whereClause.isEmpty()) {
+                innerQuery.append(" ").append(whereClause);
+            }
+            if (!orderByClause.isEmpty()) {
+                innerQuery.append(" ").append(orderByClause);
+            }
+
+            // Extract the SELECT columns from original query
+            Matcher selectMatcher = SELECT_COLUMNS.matcher(baseQuery);
+            String selectColumns = selectMatcher.find() ? selectMatcher.group(1) : "*";
+
+            // Build final query: SELECT cols FROM table WHERE ROWID = (SELECT ROWID FROM (...) WHERE ROWNUM = 1) FOR UPDATE
+            StringBuilder result = new StringBuilder("SELECT ");
+            result.append(selectColumns);
+            result.append(" FROM ").append(tableName);
+            result.append(" WHERE ROWID = (SELECT ROWID FROM (");
+            result.append(innerQuery);
+            result.append(") WHERE ROWNUM = 1) FOR UPDATE");
+
+            return result.toString();
+        }
+
+        // Fallback: if pattern doesn't match, return original with FOR UPDATE (may fail but provides debug info)
+        return baseQuery + " FOR UPDATE";
+    }
+
+    /**
+     * Build a SELECT FOR UPDATE query (without LIMIT) that works across databases.
+     * For SQL Server: uses WITH (UPDLOCK, ROWLOCK) hint
+     * For other databases: appends FOR UPDATE
+     */
+    static String selectForUpdate(DatabaseAdapter adapter, String baseQuery) {
+        if (!adapter.supportsForUpdate()) {
+            // SQLite: no FOR UPDATE support, rely on file-level locking
+            return baseQuery;
+        }
+        String dbType = adapter.getDatabaseType().toLowerCase();
+        if (dbType.contains("sql server")) {
+            // SQL Server: uses WITH (UPDLOCK, ROWLOCK) instead of FOR UPDATE
+            return addSqlServerLockHint(baseQuery);
+        } else {
+            return baseQuery + " FOR UPDATE";
+        }
+    }
+
+    /**
+     * Add SQL Server lock hint WITH (UPDLOCK, ROWLOCK) after table name in FROM clause
+     */
+    private static String addSqlServerLockHint(String query) {
+        // Match FROM table_name and add hint after it
+        // Handles: FROM table_name WHERE, FROM table_name ORDER BY, etc.
+        return query.replaceFirst(
+            "(?i)(FROM\\s+)(\\w+)(\\s+(?:WHERE|ORDER|GROUP|HAVING|$))",
+            "$1$2 WITH (UPDLOCK, ROWLOCK)$3"
+        );
+    }
+}
@@ -2,13 +2,34 @@ package com.ninedata.dbbench.tpcc.transaction;
 
 import com.ninedata.dbbench.database.DatabaseAdapter;
 import com.ninedata.dbbench.tpcc.TPCCUtil;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import lombok.Getter;
 
 import java.sql.*;
 
+@Getter
 public class StockLevelTransaction extends AbstractTransaction {
 
+    private final int threshold;
+
     public StockLevelTransaction(DatabaseAdapter adapter, int warehouseId, int districtId) {
-        super(adapter, warehouseId, districtId);
+        this(adapter, warehouseId, districtId, new TransactionOptions());
+    }
+
+    public StockLevelTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options) {
+        this(adapter, warehouseId, districtId, options, null);
+    }
+
+    public StockLevelTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                                 StatementCatalog statements) {
+        super(adapter, warehouseId, districtId, options, statements);
+        threshold = TPCCUtil.randomInt(10, 20);
+    }
+
+    public StockLevelTransaction(DatabaseAdapter adapter, int warehouseId, int districtId, TransactionOptions options,
+                                 StatementCatalog statements, int threshold) {
+        super(adapter, warehouseId, districtId, options, statements);
+        this.threshold = threshold;
     }
 
     @Override
@@ -18,11 +39,10 @@ public class StockLevelTransaction extends AbstractTransaction {
 
     @Override
     protected boolean doExecute(Connection conn) throws SQLException {
-        int threshold = TPCCUtil.randomInt(10, 20);
-
+        StatementCatalog statements = statements();
         // Get next order ID
         int nextOrderId;
-        try (PreparedStatement ps = conn.prepareStatement("SELECT d_next_o_id FROM district WHERE d_w_id = ? AND d_id = ?")) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.STOCK_LEVEL_DISTRICT))) {
             ps.setInt(1, warehouseId);
             ps.setInt(2, districtId);
             ResultSet rs = ps.executeQuery();
@@ -31,12 +51,7 @@ public class StockLevelTransaction extends AbstractTransaction {
         }
 
         // Count items below threshold
-        try (PreparedStatement ps = conn.prepareStatement("""
-            SELECT COUNT(DISTINCT s_i_id) FROM stock, order_line
-            WHERE s_w_id = ? AND ol_w_id = ? AND ol_d_id = ?
-            AND ol_o_id < ? AND ol_o_id >= ?
-            AND s_i_id = ol_i_id AND s_quantity < ?
-        """)) {
+        try (PreparedStatement ps = conn.prepareStatement(statements.get(StatementCatalog.STOCK_LEVEL_LOW_STOCK))) {
             ps.setInt(1, warehouseId);
             ps.setInt(2, warehouseId);
             ps.setInt(3, districtId);
@@ -51,4 +66,33 @@ public class StockLevelTransaction extends AbstractTransaction {
 
         return true;
     }
+
+    @Override
+    protected boolean doExecuteBatched(Connection conn) throws SQLException {
+        // District next order id joined into the stock count
+        try (PreparedStatement ps = conn.prepareStatement("""
+            SELECT COUNT(DISTINCT s_i_id) FROM district, order_line, stock
+            WHERE d_w_id = ? AND d_id = ?
+            AND ol_w_id = d_w_id AND ol_d_id = d_id
+            AND ol_o_id < d_next_o_id AND ol_o_id >= d_next_o_id - 20
+            AND s_w_id = ol_w_id AND s_i_id = ol_i_id AND s_quantity < ?
+        """)) {
+            ps.setInt(1, warehouseId);
+            ps.setInt(2, districtId);
+            ps.setInt(3, threshold);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                int lowStock = rs.getInt(1);
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    protected boolean doExecuteProcedure(Connection conn) throws SQLException {
+        // The procedure returns the low-stock count, or -1 when the district is missing
+        int lowStock = callProcedure(conn, "tpcc_stock_level", warehouseId, districtId, threshold);
+        return lowStock >= 0;
+    }
 }
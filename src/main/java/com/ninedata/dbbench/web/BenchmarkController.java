@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.sql.Connection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -140,11 +141,66 @@ public class BenchmarkController {
         }
     }
 
+    /**
+     * Change terminals, rate, think time, mix or workload settings of the running benchmark.
+     */
+    @PostMapping("/control")
+    public ResponseEntity<Map<String, Object>> control(@RequestBody Map<String, Object> changes) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            response.put("state", engine.control(changes));
+            response.put("success", true);
+            response.put("message", "Change applied");
+            response.put("status", engine.getStatus());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Failed to apply change", e);
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("status", engine.getStatus());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping("/control")
+    public ResponseEntity<Map<String, Object>> controlState() {
+        return ResponseEntity.ok(engine.getControlState());
+    }
+
+    @PostMapping("/pause")
+    public ResponseEntity<Map<String, Object>> pause() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        try {
+            engine.pause();
+            response.put("success", true);
+            response.put("message", "Benchmark paused");
+            response.put("status", engine.getStatus());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Failed to pause", e);
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            response.put("status", engine.getStatus());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping("/resume")
+    public ResponseEntity<Map<String, Object>> resume() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        engine.resume();
+        response.put("success", true);
+        response.put("message", "Benchmark resumed");
+        response.put("status", engine.getStatus());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> status() {
         Map<String, Object> response = new LinkedHashMap<>();
         response.put("status", engine.getStatus());
         response.put("running", engine.isRunning());
+        response.put("paused", engine.isPaused());
         response.put("loading", engine.isLoading());
         if (engine.isLoading()) {
             response.put("loadProgress", engine.getLoadProgress());
@@ -158,6 +214,19 @@ public class BenchmarkController {
         return ResponseEntity.ok(engine.getResults());
     }
 
+    /**
+     * SQL of the current workload's transactions by statement id, with the configured statement profile
+     */
+    @GetMapping("/statements")
+    public ResponseEntity<Map<String, Object>> statements() {
+        return ResponseEntity.ok(engine.getStatements());
+    }
+
+    @GetMapping("/workloads")
+    public ResponseEntity<List<Map<String, Object>>> workloads() {
+        return ResponseEntity.ok(engine.getWorkloads());
+    }
+
     @GetMapping("/config")
     public ResponseEntity<Map<String, Object>> config() {
         return ResponseEntity.ok(engine.getConfig());
@@ -9,6 +9,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +48,24 @@ public class MetricsController {
         return ResponseEntity.ok(history.subList(start, history.size()));
     }
 
+    /**
+     * Events marked on the timeline of the current run, e.g. live changes and scenario phases
+     */
+    @GetMapping("/annotations")
+    public ResponseEntity<?> annotations() {
+        return ResponseEntity.ok(metricsRegistry.getAnnotations());
+    }
+
+    /**
+     * Per-interval side-by-side rows of a multi-target run
+     */
+    @GetMapping("/targets")
+    public ResponseEntity<?> targets(@RequestParam(defaultValue = "60") int limit) {
+        List<Map<String, Object>> intervals = new ArrayList<>(engine.getTargetIntervals());
+        int start = Math.max(0, intervals.size() - limit);
+        return ResponseEntity.ok(intervals.subList(start, intervals.size()));
+    }
+
     /**
      * Get TPS history for chart restoration after page refresh
      */
@@ -59,6 +78,9 @@ public class MetricsController {
                 .map(snapshot -> {
                     Map<String, Object> point = new LinkedHashMap<>();
                     point.put("timestamp", snapshot.getTimestamp());
+                    if (snapshot.getPhase() != null) {
+                        point.put("phase", snapshot.getPhase());
+                    }
                     Map<String, Object> txMetrics = snapshot.getTransactionMetrics();
                     point.put("tps", txMetrics != null ? txMetrics.getOrDefault("tps", 0) : 0);
                     return point;
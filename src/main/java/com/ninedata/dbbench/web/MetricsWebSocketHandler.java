@@ -12,6 +12,7 @@ import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArraySet;
 
@@ -41,6 +42,43 @@ public class MetricsWebSocketHandler extends TextWebSocketHandler {
         log.info("WebSocket disconnected: {}", session.getId());
     }
 
+    /**
+     * Control commands from the dashboard: {"command": "control", "terminals": 64, ...}, "pause",
+     * "resume" or "state". The reply goes to the sending session only.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Map<String, Object> reply = new LinkedHashMap<>();
+        reply.put("type", "control");
+        try {
+            Map<String, Object> command = objectMapper.readValue(message.getPayload(), Map.class);
+            Object name = command.remove("command");
+            reply.put("command", name);
+            switch (String.valueOf(name)) {
+                case "control" -> reply.put("state", engine.control(command));
+                case "pause" -> engine.pause();
+                case "resume" -> engine.resume();
+                case "state" -> { }
+                default -> throw new IllegalArgumentException("Unknown command: " + name);
+            }
+            if (!reply.containsKey("state")) {
+                reply.put("state", engine.getControlState());
+            }
+            reply.put("success", true);
+        } catch (Exception e) {
+            reply.put("success", false);
+            reply.put("error", e.getMessage());
+        }
+        try {
+            synchronized (session) {
+                session.sendMessage(new TextMessage(objectMapper.writeValueAsString(reply)));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to send to session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
     public void broadcast(Map<String, Object> data) {
         if (sessions.isEmpty()) return;
 
@@ -0,0 +1,119 @@
+package com.ninedata.dbbench.workload;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Loader that splits the data into independent chunks and loads them on a thread pool.
+ * Each finished chunk reports "label loaded (done/total)" for the progress bar.
+ */
+@Slf4j
+public abstract class ChunkedLoader implements WorkloadLoader {
+    private final int concurrency;
+    private Consumer<String> progressCallback;
+    private volatile boolean cancelled = false;
+    private ExecutorService executor;
+
+    protected ChunkedLoader(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+    }
+
+    /** Number of chunks to load. */
+    protected abstract int getChunkCount();
+
+    /** What is being loaded, for the start message, e.g. "sysbench: 4 table(s) x 10000 rows". */
+    protected abstract String describe();
+
+    /**
+     * Load one chunk on the calling thread and return a label for the progress message.
+     * Implementations should poll {@link #isCancelled()} between batches.
+     */
+    protected abstract String loadChunk(int chunk) throws SQLException;
+
+    @Override
+    public void setProgressCallback(Consumer<String> callback) {
+        this.progressCallback = callback;
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        reportProgress("Data loading cancelled by user");
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    protected void reportProgress(String message) {
+        log.info(message);
+        if (progressCallback != null) {
+            progressCallback.accept(message);
+        }
+    }
+
+    @Override
+    public void load() throws SQLException {
+        cancelled = false;
+        long start = System.currentTimeMillis();
+        int totalChunks = getChunkCount();
+        int threads = Math.min(concurrency, Math.max(1, totalChunks));
+        reportProgress(String.format("Starting %s data load with %d concurrent threads...", describe(), threads));
+
+        executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger completed = new AtomicInteger();
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int c = 0; c < totalChunks && !cancelled; c++) {
+            final int chunk = c;
+            try {
+                futures.add(executor.submit(() -> {
+                    if (cancelled) return null;
+                    String label = loadChunk(chunk);
+                    if (!cancelled) {
+                        reportProgress(String.format("%s loaded (%d/%d)", label, completed.incrementAndGet(), totalChunks));
+                    }
+                    return null;
+                }));
+            } catch (RejectedExecutionException e) {
+                // cancel() shut the pool down while chunks were still being queued
+                break;
+            }
+        }
+
+        executor.shutdown();
+        try {
+            for (Future<Void> future : futures) {
+                if (cancelled) break;
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            if (!cancelled) {
+                executor.shutdownNow();
+                throw new SQLException("Data load failed: " + rootMessage(e), e);
+            }
+        }
+        if (cancelled) {
+            throw new SQLException("Data loading cancelled by user");
+        }
+
+        long elapsed = (System.currentTimeMillis() - start) / 1000;
+        reportProgress("Data load completed in " + elapsed + " seconds");
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable t = e;
+        while (t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t.getMessage();
+    }
+}
@@ -0,0 +1,25 @@
+package com.ninedata.dbbench.workload;
+
+/**
+ * How a workload's transactions are sent to the database.
+ * INTERACTIVE issues every statement from the client;
+ * BATCHED is an optimized client that collapses statements with IN lists and JDBC batches;
+ * PROCEDURE runs the whole transaction body in a server-side stored procedure.
+ */
+public enum ExecutionMode {
+    INTERACTIVE,
+    BATCHED,
+    PROCEDURE;
+
+    public static ExecutionMode fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return INTERACTIVE;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "interactive" -> INTERACTIVE;
+            case "batched", "batch", "optimized" -> BATCHED;
+            case "procedure", "proc", "stored-procedure" -> PROCEDURE;
+            default -> throw new IllegalArgumentException("Unsupported execution mode: " + value);
+        };
+    }
+}
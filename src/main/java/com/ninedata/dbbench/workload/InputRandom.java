@@ -0,0 +1,31 @@
+package com.ninedata.dbbench.workload;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random source for transaction inputs. A terminal thread can be seeded, so that terminal N of every
+ * target in a multi-target run draws the same input stream; unseeded threads use ThreadLocalRandom.
+ */
+public final class InputRandom {
+    private static final ThreadLocal<Random> SEEDED = new ThreadLocal<>();
+
+    private InputRandom() {
+    }
+
+    public static Random current() {
+        Random random = SEEDED.get();
+        return random != null ? random : ThreadLocalRandom.current();
+    }
+
+    /**
+     * Make the calling thread's inputs reproducible from this seed.
+     */
+    public static void seed(long seed) {
+        SEEDED.set(new Random(seed));
+    }
+
+    public static void clear() {
+        SEEDED.remove();
+    }
+}
@@ -0,0 +1,256 @@
+package com.ninedata.dbbench.workload;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.EndpointBalancer;
+import com.ninedata.dbbench.database.ErrorCategory;
+import com.ninedata.dbbench.database.IsolationLevel;
+import com.ninedata.dbbench.database.ReplicaRouter;
+import com.ninedata.dbbench.database.ShardRouter;
+import com.ninedata.dbbench.metrics.ConnectionTracker;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link WorkloadTransaction} run over JDBC, the base of every workload's transactions: retries, routing to
+ * replicas, shards and endpoints, isolation and read-only settings, the execution mode, and round-trip,
+ * query and row counts. Subclasses implement the body in {@link #doExecute(Connection)}.
+ */
+@Slf4j
+@Getter
+public abstract class JdbcTransaction implements WorkloadTransaction {
+    protected final DatabaseAdapter adapter;
+    protected final TransactionOptions options;
+    private final RoundTripCounter roundTripCounter = new RoundTripCounter();
+    /** Outcome of the last execute(): expected rollback, retries taken and the terminal error, if any. */
+    private boolean expectedRollback;
+    private int retries;
+    private long retryLatencyNanos;
+    private ErrorCategory errorCategory;
+    /** Rows returned or affected by the last successful attempt, as reported through addRows(). */
+    private long rowCount;
+    /** Endpoint of the last attempt when reads go to replicas or endpoints are balanced, or its shard in a sharded run */
+    private String endpoint;
+
+    @Setter
+    private static BiConsumer<String, String> errorCallback;
+
+    protected JdbcTransaction(DatabaseAdapter adapter, TransactionOptions options) {
+        this.adapter = adapter;
+        this.options = options;
+    }
+
+    @Override
+    public abstract String getName();
+
+    /**
+     * Warehouse that shard routing and the warehouse balancing policy go by; 0 for workloads without warehouses.
+     */
+    protected int getRoutingWarehouse() {
+        return 0;
+    }
+
+    @Override
+    public boolean execute() {
+        roundTripCounter.reset();
+        expectedRollback = false;
+        retries = 0;
+        retryLatencyNanos = 0;
+        errorCategory = null;
+        RetryPolicy retryPolicy = options.getRetryPolicy();
+        // Retry latency runs from the start of the first attempt to the start of the last one: the failed
+        // attempts and their backoff, not the attempt that finally completes
+        long firstAttemptStart = System.nanoTime();
+        for (int attempt = 0; ; attempt++) {
+            if (attempt > 0) {
+                retryLatencyNanos = System.nanoTime() - firstAttemptStart;
+            }
+            try {
+                return executeOnce() || expectedRollback;
+            } catch (SQLException e) {
+                ErrorCategory category = adapter.classifyError(e);
+                if (retryPolicy.shouldRetry(category, attempt)) {
+                    retries++;
+                    log.debug("[{}] {} on attempt {}, retrying: {}", getName(), category, attempt + 1, e.getMessage());
+                    try {
+                        Thread.sleep(retryPolicy.backoffMillis(attempt));
+                        continue;
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                errorCategory = category;
+                String errorMsg = String.format("[%s] %s: %s", getName(), category, e.getMessage());
+                log.error(errorMsg);
+                if (errorCallback != null) {
+                    errorCallback.accept("ERROR", errorMsg);
+                }
+                return false;
+            }
+        }
+    }
+
+    private boolean executeOnce() throws SQLException {
+        expectedRollback = false;
+        rowCount = 0;
+        boolean proxied = options.isCountRoundTrips();
+        ReplicaRouter router = options.getReplicaRouter();
+        ShardRouter shards = options.getShardRouter();
+        EndpointBalancer balancer = options.getEndpointBalancer();
+        Connection raw;
+        if (balancer != null) {
+            EndpointBalancer.Node node = balancer.route(getRoutingWarehouse());
+            endpoint = node.name();
+            long start = System.nanoTime();
+            ErrorCategory failure = null;
+            try {
+                return runOn(connect(node.adapter()), proxied);
+            } catch (SQLException e) {
+                failure = adapter.classifyError(e);
+                throw e;
+            } finally {
+                balancer.complete(node, System.nanoTime() - start, failure);
+            }
+        } else if (router != null) {
+            ReplicaRouter.Endpoint target = router.route(getName());
+            endpoint = target.name();
+            raw = connect(target.adapter());
+        } else if (shards != null) {
+            ShardRouter.Shard shard = shards.route(getRoutingWarehouse());
+            endpoint = shard.name();
+            raw = connect(shard.adapter());
+        } else {
+            raw = connect(adapter);
+        }
+        return runOn(raw, proxied);
+    }
+
+    /**
+     * A pooled connection, or a new physical one when short-connection mode makes this transaction connect.
+     */
+    private Connection connect(DatabaseAdapter target) throws SQLException {
+        ConnectionTracker shortConnections = options.getShortConnections();
+        return shortConnections != null && shortConnections.isDue() ? shortConnections.open(target) : target.getConnection();
+    }
+
+    private boolean runOn(Connection raw, boolean proxied) throws SQLException {
+        try (Connection conn = proxied ? roundTripCounter.wrap(raw) : raw) {
+            // The pool resets isolation and read-only when the connection is returned
+            IsolationLevel isolation = options.getIsolationLevel(getName());
+            if (isolation != IsolationLevel.DEFAULT) {
+                conn.setTransactionIsolation(adapter.resolveIsolationLevel(isolation));
+            }
+            if (options.isReadOnly(getName())) {
+                conn.setReadOnly(true);
+            }
+            boolean success = switch (options.getExecutionMode()) {
+                case PROCEDURE -> doExecuteProcedure(conn);
+                case BATCHED -> doExecuteBatched(conn);
+                default -> doExecute(conn);
+            };
+            if (success) {
+                conn.commit();
+                afterCommit();
+            } else {
+                conn.rollback();
+            }
+            if (!proxied) {
+                // The commit or rollback: a round trip, not a query
+                roundTripCounter.add(1);
+            }
+            return success;
+        }
+    }
+
+    /**
+     * Isolation label used to group metrics, e.g. "SERIALIZABLE" or "SNAPSHOT READ ONLY".
+     */
+    @Override
+    public String getIsolationLabel() {
+        String label = options.getIsolationLevel(getName()).name();
+        return options.isReadOnly(getName()) ? label + " READ ONLY" : label;
+    }
+
+    /**
+     * Mark the current attempt as a rollback required by the workload (e.g. the TPC-C 1%
+     * invalid item in New-Order), so it is counted as a rollback rather than a failure.
+     */
+    protected void markExpectedRollback() {
+        expectedRollback = true;
+    }
+
+    /**
+     * Number of round trips (statement executions, batches, commit/rollback) made by the last execute(),
+     * including any retried attempts.
+     */
+    @Override
+    public int getRoundTrips() {
+        return roundTripCounter.getCount();
+    }
+
+    /**
+     * Number of statements run by the last execute(), including any retried attempts; commit and rollback
+     * are round trips but not queries.
+     */
+    @Override
+    public int getQueries() {
+        return roundTripCounter.getQueries();
+    }
+
+    /**
+     * Report statements run by the transaction body, one round trip each, when connections are not proxied
+     * (see {@link TransactionOptions#isCountRoundTrips()}); ignored otherwise.
+     */
+    protected void addStatements(int count) {
+        if (!options.isCountRoundTrips()) {
+            roundTripCounter.add(count);
+            roundTripCounter.addQueries(count);
+        }
+    }
+
+    /**
+     * Report a JDBC batch of {@code statements} sent in one round trip, when connections are not proxied;
+     * ignored otherwise.
+     */
+    protected void addBatch(int statements) {
+        if (!options.isCountRoundTrips()) {
+            roundTripCounter.add(1);
+            roundTripCounter.addQueries(statements);
+        }
+    }
+
+    /**
+     * Report rows returned or affected by the transaction body, recorded per transaction type.
+     */
+    protected void addRows(long count) {
+        rowCount += count;
+    }
+
+    protected abstract boolean doExecute(Connection conn) throws SQLException;
+
+    /**
+     * Called once the attempt committed; state later transactions may see is published here, not in the body.
+     */
+    protected void afterCommit() {
+    }
+
+    /**
+     * Execute the transaction with as few round trips as possible (IN-list reads, JDBC batches).
+     * Transactions without a batched variant fall back to the interactive path.
+     */
+    protected boolean doExecuteBatched(Connection conn) throws SQLException {
+        return doExecute(conn);
+    }
+
+    /**
+     * Execute the transaction body through the adapter's stored procedure.
+     * Transactions without a procedure variant fall back to the interactive path.
+     */
+    protected boolean doExecuteProcedure(Connection conn) throws SQLException {
+        return doExecute(conn);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ninedata.dbbench.workload;
+
+import com.ninedata.dbbench.database.ErrorCategory;
+import lombok.Getter;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy for aborted transactions: retryable categories are re-run up to
+ * {@code maxRetries} times with full-jitter exponential backoff.
+ */
+@Getter
+public class RetryPolicy {
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0, 0);
+
+    private final int maxRetries;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    public RetryPolicy(int maxRetries, long backoffBaseMs, long backoffMaxMs) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.backoffBaseMs = Math.max(0, backoffBaseMs);
+        this.backoffMaxMs = Math.max(this.backoffBaseMs, backoffMaxMs);
+    }
+
+    /**
+     * Whether a failure of the given category on the given (zero-based) attempt should be retried.
+     */
+    public boolean shouldRetry(ErrorCategory category, int attempt) {
+        return category != null && category.isRetryable() && attempt < maxRetries;
+    }
+
+    /**
+     * Sleep before retry number {@code attempt + 1}: uniform in [0, min(max, base * 2^attempt)].
+     */
+    public long backoffMillis(int attempt) {
+        if (backoffBaseMs == 0) {
+            return 0;
+        }
+        long ceiling = backoffBaseMs << Math.min(attempt, 20);
+        ceiling = Math.min(backoffMaxMs, ceiling);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
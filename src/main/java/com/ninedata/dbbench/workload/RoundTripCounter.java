@@ -0,0 +1,102 @@
+package com.ninedata.dbbench.workload;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Counts client/server round trips made through a connection, and the statements (queries) they carry.
+ * Every execute call, executeBatch, commit and rollback counts as one round trip; extra fetches for large
+ * result sets are not counted. Each execute call is one query and a batch counts the statements added to
+ * it; commit and rollback are not queries.
+ */
+public class RoundTripCounter {
+    private static final Set<String> STATEMENT_ROUND_TRIPS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> CONNECTION_ROUND_TRIPS = Set.of("commit", "rollback");
+
+    private int count;
+    private int queries;
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+
+    public void add(int n) {
+        count += n;
+    }
+
+    public void addQueries(int n) {
+        queries += n;
+    }
+
+    public void reset() {
+        count = 0;
+        queries = 0;
+    }
+
+    /**
+     * Wrap a connection so statements created from it report to this counter.
+     */
+    public Connection wrap(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Handler(conn, CONNECTION_ROUND_TRIPS));
+    }
+
+    private Object wrapStatement(Statement stmt) {
+        Class<?> type = stmt instanceof CallableStatement ? CallableStatement.class
+                : stmt instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{type}, new Handler(stmt, STATEMENT_ROUND_TRIPS));
+    }
+
+    private class Handler implements InvocationHandler {
+        private final Object target;
+        private final Set<String> countedMethods;
+        /** Statements added to the pending batch of a statement */
+        private int batched;
+
+        Handler(Object target, Set<String> countedMethods) {
+            this.target = target;
+            this.countedMethods = countedMethods;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (countedMethods.contains(name)) {
+                count++;
+                if (countedMethods == STATEMENT_ROUND_TRIPS) {
+                    boolean batch = name.equals("executeBatch") || name.equals("executeLargeBatch");
+                    queries += batch ? batched : 1;
+                    batched = batch ? 0 : batched;
+                }
+            } else if (name.equals("addBatch")) {
+                batched++;
+            } else if (name.equals("clearBatch")) {
+                batched = 0;
+            }
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement stmt && method.getDeclaringClass() == Connection.class) {
+                return wrapStatement(stmt);
+            }
+            return result;
+        }
+    }
+}
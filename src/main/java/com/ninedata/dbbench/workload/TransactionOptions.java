@@ -0,0 +1,47 @@
+package com.ninedata.dbbench.workload;
+
+import com.ninedata.dbbench.database.EndpointBalancer;
+import com.ninedata.dbbench.database.IsolationLevel;
+import com.ninedata.dbbench.database.ReplicaRouter;
+import com.ninedata.dbbench.database.ShardRouter;
+import com.ninedata.dbbench.metrics.ConnectionTracker;
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-run settings applied to every transaction created by a terminal.
+ * Isolation and read-only settings are keyed by transaction name (e.g. ORDER_STATUS).
+ */
+@Data
+public class TransactionOptions {
+    private ExecutionMode executionMode = ExecutionMode.INTERACTIVE;
+    private RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private Map<String, IsolationLevel> isolationLevels = new HashMap<>();
+    private Set<String> readOnlyTransactions = new HashSet<>();
+    /**
+     * Count round trips and queries through a proxied connection. Workloads whose transactions report their
+     * own counts (JdbcTransaction.addStatements and addBatch) turn this off in Workload.configureOptions, so
+     * the reflective proxy stays off the hot path.
+     */
+    private boolean countRoundTrips = true;
+    /** Sends read-only types to replicas; null runs everything on the terminal's adapter */
+    private ReplicaRouter replicaRouter;
+    /** Runs each transaction on the shard of its warehouse; null runs everything on the terminal's adapter */
+    private ShardRouter shardRouter;
+    /** Spreads transactions over SQL endpoints of the database; null runs everything on the terminal's adapter */
+    private EndpointBalancer endpointBalancer;
+    /** Opens a new physical connection for every Nth transaction of a terminal; null keeps every transaction pooled */
+    private ConnectionTracker shortConnections;
+
+    public IsolationLevel getIsolationLevel(String transactionName) {
+        return isolationLevels.getOrDefault(transactionName, IsolationLevel.DEFAULT);
+    }
+
+    public boolean isReadOnly(String transactionName) {
+        return readOnlyTransactions.contains(transactionName);
+    }
+}
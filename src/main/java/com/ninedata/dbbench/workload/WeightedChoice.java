@@ -0,0 +1,49 @@
+package com.ninedata.dbbench.workload;
+
+/**
+ * Picks an index with probability proportional to its weight, from the terminal's {@link InputRandom} stream.
+ * Terminals use it to choose the next transaction type of a weighted mix.
+ */
+public final class WeightedChoice {
+    private final double[] cumulative;
+
+    /**
+     * @param what    names the weights in the error, e.g. "pgbench script weights"
+     * @param weights one weight per choice; negative weights count as 0
+     */
+    public WeightedChoice(String what, double... weights) {
+        this.cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += Math.max(0, weights[i]);
+            cumulative[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException(what + " must sum to more than 0");
+        }
+    }
+
+    public static WeightedChoice of(String what, int... weights) {
+        double[] values = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            values[i] = weights[i];
+        }
+        return new WeightedChoice(what, values);
+    }
+
+    /**
+     * Index of the next choice; a single choice is returned without drawing.
+     */
+    public int next() {
+        if (cumulative.length == 1) {
+            return 0;
+        }
+        double r = InputRandom.current().nextDouble() * cumulative[cumulative.length - 1];
+        for (int i = 0; i < cumulative.length; i++) {
+            if (r < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+}
@@ -0,0 +1,171 @@
+package com.ninedata.dbbench.workload;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.replay.ReplayCodec;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A benchmark workload: schema, loader, transaction set and mix, and result metrics.
+ * The engine provides connections, terminals, retries, metrics and the dashboard.
+ * Implementations are discovered with {@link java.util.ServiceLoader}, see {@link WorkloadRegistry}.
+ */
+public interface Workload {
+
+    /**
+     * Short identifier used in configuration, e.g. "tpcc".
+     */
+    String getName();
+
+    default String getDescription() {
+        return getName();
+    }
+
+    /**
+     * Apply settings that define the workload itself, such as a template file.
+     * Called by the engine before every other use, so implementations should cache.
+     */
+    default void configure(BenchmarkConfig config) {
+    }
+
+    /**
+     * Key of this workload's own section in config updates, scenario phases and the reported config,
+     * e.g. "sysbench"; null when it has none.
+     */
+    default String getSettingsKey() {
+        return null;
+    }
+
+    /**
+     * Apply this workload's section of a config update or scenario phase; bad values are rejected with
+     * IllegalArgumentException. Workloads are shared, so this only writes to the given config.
+     */
+    default void applySettings(BenchmarkConfig config, Map<String, Object> settings) {
+    }
+
+    /**
+     * Current values of this workload's section, as the engine reports its config.
+     */
+    default Map<String, Object> describeSettings(BenchmarkConfig config) {
+        return new LinkedHashMap<>();
+    }
+
+    void createSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException;
+
+    default void createIndexes(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+    }
+
+    void dropSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException;
+
+    /**
+     * Physical design createSchema uses for these settings, recorded with the results; empty when the workload
+     * has a single fixed schema.
+     */
+    default Map<String, Object> describeSchema(DatabaseAdapter adapter, BenchmarkConfig config) {
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * SQL the transactions run on the adapter, for workloads with a statement catalog; empty otherwise.
+     */
+    default Map<String, Object> describeStatements(DatabaseAdapter adapter, BenchmarkConfig config) {
+        return new LinkedHashMap<>();
+    }
+
+    /**
+     * Check whether the workload's data is present, so a run can start.
+     */
+    boolean isLoaded(DatabaseAdapter adapter);
+
+    WorkloadLoader createLoader(DatabaseAdapter adapter, BenchmarkConfig config);
+
+    /**
+     * Loader for one shard of a client-side sharded run: warehouses first..last plus whatever every shard
+     * needs. Null when the workload cannot be sharded by warehouse.
+     */
+    default WorkloadLoader createShardLoader(DatabaseAdapter adapter, BenchmarkConfig config, int firstWarehouse,
+                                             int lastWarehouse) {
+        return null;
+    }
+
+    /**
+     * Transaction type names, in reporting order; used for per-type isolation and read-only settings.
+     */
+    List<String> getTransactionNames();
+
+    /**
+     * Transaction types that never write, which can run on a read replica.
+     */
+    default Set<String> getReadOnlyTransactionNames() {
+        return Set.of();
+    }
+
+    /**
+     * Workload-specific transaction options, e.g. read-only or isolation settings from a template file. Called for
+     * every set of options the engine builds: at the start of a run and on every phase or live change.
+     */
+    default void configureOptions(BenchmarkConfig config, TransactionOptions options) {
+    }
+
+    /**
+     * Validate settings, prepare the database (e.g. install procedures) and set up the run's state, such as key
+     * sequences and counters, before a run starts. Phases and live changes that keep the workload do not call it
+     * again, so that state lasts the whole run; createTerminal() takes up changed settings.
+     */
+    default void prepare(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options) throws SQLException {
+    }
+
+    /**
+     * Create the terminal with the given zero-based index; each terminal runs on its own thread.
+     */
+    WorkloadTerminal createTerminal(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options,
+                                    int terminalIndex);
+
+    /**
+     * Periodic measurements of the database during a run, e.g. table sizes. The engine calls this every second
+     * from its metrics thread, never from a terminal; implementations query on a connection of their own.
+     */
+    default void sample() {
+    }
+
+    /**
+     * Number of terminals to start; workloads that add their own streams (e.g. CH-benCHmark) add them here.
+     */
+    default int getTerminalCount(BenchmarkConfig config) {
+        return config.getTerminals();
+    }
+
+    /**
+     * Whether benchmark.think-time applies. Closed-loop microbenchmarks such as sysbench run flat out.
+     */
+    default boolean usesThinkTime() {
+        return true;
+    }
+
+    /**
+     * Codec for recording and replaying this workload's transaction inputs, or null if it cannot be replayed.
+     */
+    default ReplayCodec getReplayCodec() {
+        return null;
+    }
+
+    /**
+     * One-line description of the mix for the run log.
+     */
+    default String describeMix(BenchmarkConfig config) {
+        return String.join(", ", getTransactionNames());
+    }
+
+    /**
+     * Workload-specific figures added to the results (e.g. tpmC).
+     */
+    default Map<String, Object> getResultMetrics(MetricsRegistry metricsRegistry) {
+        return new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,15 @@
+package com.ninedata.dbbench.workload;
+
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Populates a workload's tables. Progress messages containing "(done/total)" drive the load progress bar.
+ */
+public interface WorkloadLoader {
+    void setProgressCallback(Consumer<String> callback);
+
+    void load() throws SQLException;
+
+    void cancel();
+}
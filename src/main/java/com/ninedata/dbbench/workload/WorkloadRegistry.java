@@ -0,0 +1,49 @@
+package com.ninedata.dbbench.workload;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Workloads discovered through META-INF/services/com.ninedata.dbbench.workload.Workload.
+ */
+public final class WorkloadRegistry {
+    public static final String DEFAULT_WORKLOAD = "tpcc";
+
+    private static volatile Map<String, Workload> workloads;
+
+    private WorkloadRegistry() {
+    }
+
+    public static Workload get(String name) {
+        String key = name == null || name.isBlank() ? DEFAULT_WORKLOAD : name.trim().toLowerCase();
+        Workload workload = discover().get(key);
+        if (workload == null) {
+            throw new IllegalArgumentException("Unknown workload: " + name + " (available: " + discover().keySet() + ")");
+        }
+        return workload;
+    }
+
+    public static Collection<Workload> getAll() {
+        return Collections.unmodifiableCollection(discover().values());
+    }
+
+    private static Map<String, Workload> discover() {
+        Map<String, Workload> result = workloads;
+        if (result == null) {
+            synchronized (WorkloadRegistry.class) {
+                result = workloads;
+                if (result == null) {
+                    result = new LinkedHashMap<>();
+                    for (Workload workload : ServiceLoader.load(Workload.class, WorkloadRegistry.class.getClassLoader())) {
+                        result.putIfAbsent(workload.getName().toLowerCase(), workload);
+                    }
+                    workloads = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ninedata.dbbench.workload;
+
+/**
+ * A simulated client. Called repeatedly from a single engine thread.
+ */
+public interface WorkloadTerminal {
+
+    /**
+     * Pick the next transaction according to the workload's mix.
+     */
+    WorkloadTransaction nextTransaction();
+
+    /**
+     * Whether think time applies to this terminal; analytical streams run back to back.
+     */
+    default boolean usesThinkTime() {
+        return true;
+    }
+}
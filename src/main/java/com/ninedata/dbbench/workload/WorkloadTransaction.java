@@ -0,0 +1,52 @@
+package com.ninedata.dbbench.workload;
+
+import com.ninedata.dbbench.database.ErrorCategory;
+
+/**
+ * One unit of work executed by a terminal, with the outcome details the engine records.
+ * {@link JdbcTransaction} implements this for JDBC transactions.
+ */
+public interface WorkloadTransaction {
+    String getName();
+
+    /**
+     * Run the transaction, including retries; true if it committed or rolled back as intended.
+     */
+    boolean execute();
+
+    int getRoundTrips();
+
+    /**
+     * Statements run by the last execute(), counted into QPS; 0 for workloads that do not count them.
+     */
+    default int getQueries() {
+        return 0;
+    }
+
+    /**
+     * Rows returned or affected by the last execute(); 0 for workloads that do not count them.
+     */
+    default long getRowCount() {
+        return 0;
+    }
+
+    boolean isExpectedRollback();
+
+    int getRetries();
+
+    long getRetryLatencyNanos();
+
+    /**
+     * Category of the terminal error, or null if the transaction did not fail.
+     */
+    ErrorCategory getErrorCategory();
+
+    String getIsolationLabel();
+
+    /**
+     * Name of the endpoint that ran the last execute() when reads are routed to replicas, otherwise null.
+     */
+    default String getEndpoint() {
+        return null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ninedata.dbbench.ycsb;
+
+/**
+ * How YCSB picks the record an operation touches.
+ */
+public enum RequestDistribution {
+    UNIFORM,
+    ZIPFIAN,
+    LATEST;
+
+    public static RequestDistribution fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unknown request distribution: " + value + " (uniform, zipfian or latest)");
+        }
+    }
+}
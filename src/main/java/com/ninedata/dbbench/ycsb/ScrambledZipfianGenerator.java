@@ -0,0 +1,33 @@
+package com.ninedata.dbbench.ycsb;
+
+/**
+ * Zipfian popularity with the popular items scattered over the key space, as YCSB's
+ * requestdistribution=zipfian. Draws from a fixed 10^10-item Zipfian whose zeta is precomputed
+ * and hashes the result into [min, min + items).
+ */
+public class ScrambledZipfianGenerator {
+    static final long ITEM_COUNT = 10_000_000_000L;
+    /** zeta(10^10, 0.99) */
+    static final double ZETAN = 26.46902820178302;
+
+    private final ZipfianGenerator generator =
+            new ZipfianGenerator(0, ITEM_COUNT - 1, ZipfianGenerator.ZIPFIAN_CONSTANT, ZETAN);
+    private final long min;
+    private final long items;
+
+    public ScrambledZipfianGenerator(long items) {
+        this(0, items - 1);
+    }
+
+    public ScrambledZipfianGenerator(long min, long max) {
+        if (max < min) {
+            throw new IllegalArgumentException("Zipfian range is empty: " + min + ".." + max);
+        }
+        this.min = min;
+        this.items = max - min + 1;
+    }
+
+    public long nextValue() {
+        return min + YcsbKeys.fnvhash64(generator.nextValue()) % items;
+    }
+}
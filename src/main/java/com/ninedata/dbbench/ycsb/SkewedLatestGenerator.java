@@ -0,0 +1,25 @@
+package com.ninedata.dbbench.ycsb;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * YCSB's requestdistribution=latest: Zipfian over insertion order, so the most recently
+ * inserted records are the most popular.
+ */
+public class SkewedLatestGenerator {
+    private final AtomicLong insertSequence;
+    private final ZipfianGenerator zipfian;
+
+    /**
+     * @param insertSequence next key number to insert; keys below it exist
+     */
+    public SkewedLatestGenerator(AtomicLong insertSequence) {
+        this.insertSequence = insertSequence;
+        this.zipfian = new ZipfianGenerator(Math.max(1, insertSequence.get()));
+    }
+
+    public long nextValue() {
+        long items = Math.max(1, insertSequence.get());
+        return items - 1 - zipfian.nextValue(items);
+    }
+}
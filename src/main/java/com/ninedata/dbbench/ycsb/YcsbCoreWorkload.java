@@ -0,0 +1,57 @@
+package com.ninedata.dbbench.ycsb;
+
+import lombok.Getter;
+
+/**
+ * The YCSB core workloads A-F with the operation proportions of workloads/workloada..f.
+ */
+@Getter
+public enum YcsbCoreWorkload {
+    A("Update heavy", 0.5, 0.5, 0, 0, 0, RequestDistribution.ZIPFIAN),
+    B("Read mostly", 0.95, 0.05, 0, 0, 0, RequestDistribution.ZIPFIAN),
+    C("Read only", 1.0, 0, 0, 0, 0, RequestDistribution.ZIPFIAN),
+    D("Read latest", 0.95, 0, 0, 0.05, 0, RequestDistribution.LATEST),
+    E("Short ranges", 0, 0, 0.95, 0.05, 0, RequestDistribution.ZIPFIAN),
+    F("Read-modify-write", 0.5, 0, 0, 0, 0.5, RequestDistribution.ZIPFIAN);
+
+    private final String description;
+    private final double readProportion;
+    private final double updateProportion;
+    private final double scanProportion;
+    private final double insertProportion;
+    private final double readModifyWriteProportion;
+    private final RequestDistribution defaultDistribution;
+
+    YcsbCoreWorkload(String description, double read, double update, double scan, double insert,
+                     double readModifyWrite, RequestDistribution defaultDistribution) {
+        this.description = description;
+        this.readProportion = read;
+        this.updateProportion = update;
+        this.scanProportion = scan;
+        this.insertProportion = insert;
+        this.readModifyWriteProportion = readModifyWrite;
+        this.defaultDistribution = defaultDistribution;
+    }
+
+    /**
+     * Proportions indexed like {@link YcsbOperation.Type}.
+     */
+    public double[] getProportions() {
+        return new double[]{readProportion, updateProportion, insertProportion, scanProportion, readModifyWriteProportion};
+    }
+
+    /**
+     * Accepts a, A, workloada or workload-a.
+     */
+    public static YcsbCoreWorkload fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return A;
+        }
+        String v = value.trim().toUpperCase().replace("WORKLOAD", "").replace("-", "").replace("_", "");
+        try {
+            return valueOf(v);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown YCSB workload: " + value + " (a, b, c, d, e or f)");
+        }
+    }
+}
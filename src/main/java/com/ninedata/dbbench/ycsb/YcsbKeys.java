@@ -0,0 +1,30 @@
+package com.ninedata.dbbench.ycsb;
+
+/**
+ * YCSB key naming: "user" followed by the FNV-1a hash of the key number, so inserts are not ordered.
+ */
+public final class YcsbKeys {
+    private static final long FNV_OFFSET_BASIS_64 = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME_64 = 1099511628211L;
+
+    private YcsbKeys() {
+    }
+
+    public static String buildKey(long keyNum) {
+        return "user" + fnvhash64(keyNum);
+    }
+
+    /**
+     * 64-bit FNV-1a over the 8 bytes of the value, made non-negative.
+     */
+    public static long fnvhash64(long value) {
+        long hash = FNV_OFFSET_BASIS_64;
+        for (int i = 0; i < 8; i++) {
+            long octet = value & 0xff;
+            value >>= 8;
+            hash ^= octet;
+            hash *= FNV_PRIME_64;
+        }
+        return Math.abs(hash == Long.MIN_VALUE ? 0 : hash);
+    }
+}
@@ -0,0 +1,68 @@
+package com.ninedata.dbbench.ycsb;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.ChunkedLoader;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * YCSB load phase: inserts key numbers [0, recordCount) in parallel chunks of {@link #CHUNK_RECORDS}.
+ */
+public class YcsbLoader extends ChunkedLoader {
+    static final int CHUNK_RECORDS = 50_000;
+    private static final int BATCH_SIZE = 500;
+
+    private final DatabaseAdapter adapter;
+    private final long recordCount;
+    private final int fieldCount;
+    private final int fieldLength;
+
+    public YcsbLoader(DatabaseAdapter adapter, long recordCount, int fieldCount, int fieldLength, int concurrency) {
+        super(concurrency);
+        this.adapter = adapter;
+        this.recordCount = recordCount;
+        this.fieldCount = fieldCount;
+        this.fieldLength = fieldLength;
+    }
+
+    @Override
+    protected int getChunkCount() {
+        return (int) Math.max(1, (recordCount + CHUNK_RECORDS - 1) / CHUNK_RECORDS);
+    }
+
+    @Override
+    protected String describe() {
+        return String.format("YCSB: %d records x %d fields of %d bytes", recordCount, fieldCount, fieldLength);
+    }
+
+    @Override
+    protected String loadChunk(int chunk) throws SQLException {
+        long first = (long) chunk * CHUNK_RECORDS;
+        long last = Math.min(recordCount, first + CHUNK_RECORDS) - 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String sql = YcsbOperation.Statements.forFields(adapter, fieldCount).insert();
+        try (Connection conn = adapter.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            int pending = 0;
+            for (long keyNum = first; keyNum <= last; keyNum++) {
+                if (isCancelled()) {
+                    conn.rollback();
+                    throw new SQLException("Data loading cancelled by user");
+                }
+                YcsbOperation.bindRecord(ps, random, YcsbKeys.buildKey(keyNum), fieldCount, fieldLength);
+                ps.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+        return String.format("Records %d-%d", first, last);
+    }
+}
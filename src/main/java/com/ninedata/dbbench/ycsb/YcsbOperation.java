@@ -0,0 +1,183 @@
+package com.ninedata.dbbench.ycsb;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.workload.JdbcTransaction;
+import com.ninedata.dbbench.workload.TransactionOptions;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * One YCSB operation. Like the JDBC binding each operation is its own transaction;
+ * READ_MODIFY_WRITE reads and updates the same record in one transaction.
+ */
+public class YcsbOperation extends JdbcTransaction {
+
+    /** Operation types, named as YCSB reports them (READ_MODIFY_WRITE is READ-MODIFY-WRITE). */
+    public enum Type {
+        READ, UPDATE, INSERT, SCAN, READ_MODIFY_WRITE;
+
+        public String getYcsbName() {
+            return name().replace('_', '-');
+        }
+    }
+
+    private final Type type;
+    private final BenchmarkConfig.YcsbConfig config;
+    private final Statements sql;
+    private final LongSupplier keyChooser;
+    private final AtomicLong insertSequence;
+
+    public YcsbOperation(DatabaseAdapter adapter, TransactionOptions options, Type type, BenchmarkConfig.YcsbConfig config,
+                         Statements sql, LongSupplier keyChooser, AtomicLong insertSequence) {
+        super(adapter, options);
+        this.type = type;
+        this.config = config;
+        this.sql = sql;
+        this.keyChooser = keyChooser;
+        this.insertSequence = insertSequence;
+    }
+
+    @Override
+    public String getName() {
+        return type.name();
+    }
+
+    @Override
+    protected boolean doExecute(Connection conn) throws SQLException {
+        Random random = InputRandom.current();
+        switch (type) {
+            case READ -> read(conn, random, YcsbKeys.buildKey(keyChooser.getAsLong()));
+            case UPDATE -> update(conn, random, YcsbKeys.buildKey(keyChooser.getAsLong()));
+            case INSERT -> insert(conn, random, YcsbKeys.buildKey(insertSequence.getAndIncrement()));
+            case SCAN -> scan(conn, random, YcsbKeys.buildKey(keyChooser.getAsLong()));
+            case READ_MODIFY_WRITE -> {
+                String key = YcsbKeys.buildKey(keyChooser.getAsLong());
+                read(conn, random, key);
+                update(conn, random, key);
+                addStatements(1);
+            }
+        }
+        addStatements(1);
+        return true;
+    }
+
+    private void read(Connection conn, Random random, String key) throws SQLException {
+        String query = config.isReadAllFields() ? sql.readAll() : sql.readField()[random.nextInt(sql.fieldCount())];
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                // A missing record is a NOT_FOUND in YCSB; it still costs a round trip, so count it as done
+                rs.next();
+            }
+        }
+    }
+
+    private void update(Connection conn, Random random, String key) throws SQLException {
+        if (config.isWriteAllFields()) {
+            try (PreparedStatement ps = conn.prepareStatement(sql.updateAll())) {
+                int i = 1;
+                for (; i <= sql.fieldCount(); i++) {
+                    ps.setString(i, randomValue(random, config.getFieldLength()));
+                }
+                ps.setString(i, key);
+                ps.executeUpdate();
+            }
+        } else {
+            try (PreparedStatement ps = conn.prepareStatement(sql.updateField()[random.nextInt(sql.fieldCount())])) {
+                ps.setString(1, randomValue(random, config.getFieldLength()));
+                ps.setString(2, key);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private void insert(Connection conn, Random random, String key) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql.insert())) {
+            bindRecord(ps, random, key, sql.fieldCount(), config.getFieldLength());
+            ps.executeUpdate();
+        }
+    }
+
+    private void scan(Connection conn, Random random, String startKey) throws SQLException {
+        int length = random.nextInt(Math.max(1, config.getMaxScanLength())) + 1;
+        String query = config.isReadAllFields() ? sql.scanAll() : sql.scanField()[random.nextInt(sql.fieldCount())];
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
+            ps.setFetchSize(length);
+            ps.setString(1, startKey);
+            ps.setInt(2, length);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // fetch and discard, like the YCSB client
+                }
+            }
+        }
+    }
+
+    /**
+     * Bind key and random field values to an INSERT built by {@link Statements#insert()}.
+     */
+    static void bindRecord(PreparedStatement ps, Random random, String key, int fieldCount, int fieldLength)
+            throws SQLException {
+        ps.setString(1, key);
+        for (int i = 0; i < fieldCount; i++) {
+            ps.setString(i + 2, randomValue(random, fieldLength));
+        }
+    }
+
+    static String randomValue(Random random, int length) {
+        char[] buf = new char[length];
+        for (int i = 0; i < length; i++) {
+            // printable ASCII without quotes and backslash, like YCSB's RandomByteIterator range
+            char c = (char) (' ' + 1 + random.nextInt(94));
+            buf[i] = c == '\'' || c == '\\' || c == '"' ? 'x' : c;
+        }
+        return new String(buf);
+    }
+
+    /**
+     * SQL text for usertable, built once per run; scans end in the adapter's row limit, bound after the start key.
+     * Operations prepare per execution and rely on the driver's statement cache.
+     */
+    public record Statements(int fieldCount, String readAll, String[] readField, String updateAll, String[] updateField,
+                             String insert, String scanAll, String[] scanField) {
+
+        public static Statements forFields(DatabaseAdapter adapter, int fieldCount) {
+            String[] fields = new String[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                fields[i] = YcsbWorkload.fieldName(i);
+            }
+            String allFields = String.join(", ", fields);
+            String[] readField = new String[fieldCount];
+            String[] updateField = new String[fieldCount];
+            String[] scanField = new String[fieldCount];
+            StringBuilder setAll = new StringBuilder();
+            StringBuilder params = new StringBuilder("?");
+            for (int i = 0; i < fieldCount; i++) {
+                readField[i] = "SELECT YCSB_KEY, " + fields[i] + " FROM " + YcsbWorkload.TABLE + " WHERE YCSB_KEY = ?";
+                updateField[i] = "UPDATE " + YcsbWorkload.TABLE + " SET " + fields[i] + " = ? WHERE YCSB_KEY = ?";
+                scanField[i] = adapter.limitRows("SELECT YCSB_KEY, " + fields[i] + " FROM " + YcsbWorkload.TABLE
+                        + " WHERE YCSB_KEY >= ? ORDER BY YCSB_KEY");
+                if (i > 0) setAll.append(", ");
+                setAll.append(fields[i]).append(" = ?");
+                params.append(", ?");
+            }
+            return new Statements(fieldCount,
+                    "SELECT YCSB_KEY, " + allFields + " FROM " + YcsbWorkload.TABLE + " WHERE YCSB_KEY = ?",
+                    readField,
+                    "UPDATE " + YcsbWorkload.TABLE + " SET " + setAll + " WHERE YCSB_KEY = ?",
+                    updateField,
+                    "INSERT INTO " + YcsbWorkload.TABLE + " (YCSB_KEY, " + allFields + ") VALUES (" + params + ")",
+                    adapter.limitRows("SELECT YCSB_KEY, " + allFields + " FROM " + YcsbWorkload.TABLE
+                            + " WHERE YCSB_KEY >= ? ORDER BY YCSB_KEY"),
+                    scanField);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.ninedata.dbbench.ycsb;
+
+import com.ninedata.dbbench.workload.WeightedChoice;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+
+/**
+ * YCSB client thread: picks an operation by the workload's proportions, reusing one object per type.
+ */
+public class YcsbTerminal implements WorkloadTerminal {
+    private final YcsbOperation[] operations;
+    private final WeightedChoice choice;
+
+    /**
+     * @param operations  one operation per {@link YcsbOperation.Type}, in enum order
+     * @param proportions proportions in the same order; need not sum to 1
+     */
+    public YcsbTerminal(YcsbOperation[] operations, double[] proportions) {
+        this.operations = operations.clone();
+        this.choice = new WeightedChoice("YCSB operation proportions", proportions);
+    }
+
+    @Override
+    public WorkloadTransaction nextTransaction() {
+        return operations[choice.next()];
+    }
+}
@@ -0,0 +1,267 @@
+package com.ninedata.dbbench.ycsb;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.metrics.TransactionMetrics;
+import com.ninedata.dbbench.workload.InputRandom;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.Workload;
+import com.ninedata.dbbench.workload.WorkloadLoader;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * YCSB core workloads A-F on a single usertable, selected by benchmark.ycsb.workload.
+ */
+@Slf4j
+public class YcsbWorkload implements Workload {
+    public static final String NAME = "ycsb";
+    public static final String TABLE = "usertable";
+    private static final List<String> TRANSACTION_NAMES =
+            Arrays.stream(YcsbOperation.Type.values()).map(Enum::name).toList();
+
+    /** Key chooser, insert sequence and statements of the current run, set by prepare(). */
+    private volatile Run run;
+
+    private record Run(BenchmarkConfig.YcsbConfig config, YcsbCoreWorkload core, RequestDistribution distribution,
+                       long loaded, YcsbOperation.Statements statements, LongSupplier keyChooser,
+                       AtomicLong insertSequence) {
+    }
+
+    public static String fieldName(int field) {
+        return "FIELD" + field;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String getDescription() {
+        return "YCSB core workloads A-F: read, update, insert, scan, read-modify-write";
+    }
+
+    @Override
+    public String getSettingsKey() {
+        return NAME;
+    }
+
+    @Override
+    public void applySettings(BenchmarkConfig config, Map<String, Object> settings) {
+        BenchmarkConfig.YcsbConfig yc = config.getYcsb();
+        if (settings.containsKey("workload")) yc.setWorkload(YcsbCoreWorkload.fromString((String) settings.get("workload")).name().toLowerCase());
+        if (settings.containsKey("recordCount")) yc.setRecordCount(((Number) settings.get("recordCount")).longValue());
+        if (settings.containsKey("fieldCount")) yc.setFieldCount(((Number) settings.get("fieldCount")).intValue());
+        if (settings.containsKey("fieldLength")) yc.setFieldLength(((Number) settings.get("fieldLength")).intValue());
+        if (settings.containsKey("requestDistribution")) {
+            String distribution = (String) settings.get("requestDistribution");
+            yc.setRequestDistribution(distribution == null || distribution.isBlank() ? ""
+                    : RequestDistribution.fromString(distribution).name().toLowerCase());
+        }
+        if (settings.containsKey("maxScanLength")) yc.setMaxScanLength(((Number) settings.get("maxScanLength")).intValue());
+    }
+
+    @Override
+    public Map<String, Object> describeSettings(BenchmarkConfig config) {
+        BenchmarkConfig.YcsbConfig yc = config.getYcsb();
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("workload", yc.getWorkload());
+        settings.put("recordCount", yc.getRecordCount());
+        settings.put("fieldCount", yc.getFieldCount());
+        settings.put("fieldLength", yc.getFieldLength());
+        settings.put("requestDistribution", yc.getRequestDistribution());
+        settings.put("maxScanLength", yc.getMaxScanLength());
+        return settings;
+    }
+
+    @Override
+    public void createSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        BenchmarkConfig.YcsbConfig ycsb = config.getYcsb();
+        StringBuilder ddl = new StringBuilder("CREATE TABLE " + TABLE + " (YCSB_KEY VARCHAR(255) NOT NULL");
+        for (int i = 0; i < fieldCount(ycsb); i++) {
+            ddl.append(", ").append(fieldName(i)).append(" VARCHAR(").append(Math.max(1, ycsb.getFieldLength())).append(')');
+        }
+        ddl.append(", PRIMARY KEY (YCSB_KEY))");
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl.toString());
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void dropSchema(DatabaseAdapter adapter, BenchmarkConfig config) throws SQLException {
+        adapter.dropTables(TABLE);
+    }
+
+    @Override
+    public boolean isLoaded(DatabaseAdapter adapter) {
+        try (Connection conn = adapter.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT YCSB_KEY FROM " + TABLE + " WHERE YCSB_KEY = '"
+                     + YcsbKeys.buildKey(0) + "'")) {
+            return rs.next();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    @Override
+    public WorkloadLoader createLoader(DatabaseAdapter adapter, BenchmarkConfig config) {
+        BenchmarkConfig.YcsbConfig ycsb = config.getYcsb();
+        return new YcsbLoader(adapter, Math.max(1, ycsb.getRecordCount()), fieldCount(ycsb),
+                Math.max(1, ycsb.getFieldLength()), config.getLoadConcurrency());
+    }
+
+    @Override
+    public List<String> getTransactionNames() {
+        return TRANSACTION_NAMES;
+    }
+
+    @Override
+    public Set<String> getReadOnlyTransactionNames() {
+        return Set.of(YcsbOperation.Type.READ.name(), YcsbOperation.Type.SCAN.name());
+    }
+
+    @Override
+    public void configureOptions(BenchmarkConfig config, TransactionOptions options) {
+        options.setCountRoundTrips(false);
+    }
+
+    @Override
+    public void prepare(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options) throws SQLException {
+        BenchmarkConfig.YcsbConfig ycsb = config.getYcsb();
+        long records;
+        // Inserts continue after every record already in the table, including earlier runs' inserts
+        try (Connection conn = adapter.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + TABLE)) {
+            records = rs.next() ? rs.getLong(1) : 0;
+            conn.commit();
+        }
+        run = newRun(adapter, ycsb, records);
+        log.info("YCSB workload {} prepared: {} records, {} distribution", run.core(), records, distribution(ycsb));
+    }
+
+    @Override
+    public WorkloadTerminal createTerminal(DatabaseAdapter adapter, BenchmarkConfig config, TransactionOptions options,
+                                           int terminalIndex) {
+        Run current = run;
+        if (current == null) {
+            throw new IllegalStateException("YCSB workload is not prepared");
+        }
+        BenchmarkConfig.YcsbConfig ycsb = config.getYcsb();
+        if (current.config() != ycsb || current.core() != YcsbCoreWorkload.fromString(ycsb.getWorkload())
+                || current.distribution() != distribution(ycsb)) {
+            // A phase replaced the settings or switched the core workload; inserts continue the run's key sequence
+            current = newRun(adapter, ycsb, current.loaded(), current.insertSequence());
+            run = current;
+        }
+        YcsbOperation.Type[] types = YcsbOperation.Type.values();
+        YcsbOperation[] operations = new YcsbOperation[types.length];
+        for (int i = 0; i < types.length; i++) {
+            operations[i] = new YcsbOperation(adapter, options, types[i], current.config(), current.statements(),
+                    current.keyChooser(), current.insertSequence());
+        }
+        return new YcsbTerminal(operations, current.core().getProportions());
+    }
+
+    private static Run newRun(DatabaseAdapter adapter, BenchmarkConfig.YcsbConfig ycsb, long records) {
+        long loaded = Math.max(1, records);
+        return newRun(adapter, ycsb, loaded, new AtomicLong(loaded));
+    }
+
+    private static Run newRun(DatabaseAdapter adapter, BenchmarkConfig.YcsbConfig ycsb, long loaded,
+                              AtomicLong insertSequence) {
+        YcsbCoreWorkload core = YcsbCoreWorkload.fromString(ycsb.getWorkload());
+        RequestDistribution distribution = distribution(ycsb);
+        LongSupplier keyChooser = switch (distribution) {
+            case UNIFORM -> () -> InputRandom.current().nextLong(loaded);
+            case ZIPFIAN -> new ScrambledZipfianGenerator(loaded)::nextValue;
+            case LATEST -> new SkewedLatestGenerator(insertSequence)::nextValue;
+        };
+        return new Run(ycsb, core, distribution, loaded, YcsbOperation.Statements.forFields(adapter, fieldCount(ycsb)), keyChooser,
+                insertSequence);
+    }
+
+    static RequestDistribution distribution(BenchmarkConfig.YcsbConfig ycsb) {
+        String value = ycsb.getRequestDistribution();
+        return value == null || value.isBlank()
+                ? YcsbCoreWorkload.fromString(ycsb.getWorkload()).getDefaultDistribution()
+                : RequestDistribution.fromString(value);
+    }
+
+    @Override
+    public boolean usesThinkTime() {
+        return false;
+    }
+
+    @Override
+    public String describeMix(BenchmarkConfig config) {
+        BenchmarkConfig.YcsbConfig ycsb = config.getYcsb();
+        YcsbCoreWorkload core = YcsbCoreWorkload.fromString(ycsb.getWorkload());
+        StringBuilder sb = new StringBuilder("workload" + core.name().toLowerCase() + " (" + core.getDescription() + "):");
+        double[] proportions = core.getProportions();
+        YcsbOperation.Type[] types = YcsbOperation.Type.values();
+        for (int i = 0; i < types.length; i++) {
+            if (proportions[i] > 0) {
+                sb.append(' ').append(types[i].getYcsbName()).append('=').append(Math.round(proportions[i] * 100)).append('%');
+            }
+        }
+        return sb.append(", ").append(distribution(ycsb).name().toLowerCase())
+                .append(", ").append(ycsb.getRecordCount()).append(" records").toString();
+    }
+
+    /**
+     * Figures named as in YCSB's text output, e.g. "[READ], 95thPercentileLatency(us)".
+     */
+    @Override
+    public Map<String, Object> getResultMetrics(MetricsRegistry metricsRegistry) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long elapsedMs = metricsRegistry.getElapsedMillis();
+        long operations = 0;
+        for (YcsbOperation.Type type : YcsbOperation.Type.values()) {
+            TransactionMetrics m = metricsRegistry.get(type.name());
+            if (m != null) {
+                operations += m.getCount();
+            }
+        }
+        result.put("[OVERALL], RunTime(ms)", elapsedMs);
+        result.put("[OVERALL], Throughput(ops/sec)", elapsedMs > 0 ? Math.round(operations * 1000.0 / elapsedMs * 100.0) / 100.0 : 0.0);
+        for (YcsbOperation.Type type : YcsbOperation.Type.values()) {
+            TransactionMetrics m = metricsRegistry.get(type.name());
+            if (m == null || m.getCount() == 0) {
+                continue;
+            }
+            String prefix = "[" + type.getYcsbName() + "], ";
+            result.put(prefix + "Operations", m.getCount());
+            result.put(prefix + "AverageLatency(us)", Math.round(m.getAverageLatencyMs() * 1000.0 * 100.0) / 100.0);
+            result.put(prefix + "MinLatency(us)", Math.round(m.getMinLatencyMs() * 1000.0));
+            result.put(prefix + "MaxLatency(us)", Math.round(m.getMaxLatencyMs() * 1000.0));
+            result.put(prefix + "95thPercentileLatency(us)", Math.round(m.getPercentileLatencyMs(95) * 1000.0));
+            result.put(prefix + "99thPercentileLatency(us)", Math.round(m.getPercentileLatencyMs(99) * 1000.0));
+            result.put(prefix + "Return=OK", m.getSuccessCount());
+            if (m.getFailureCount() > 0) {
+                result.put(prefix + "Return=ERROR", m.getFailureCount());
+            }
+        }
+        return result;
+    }
+
+    private static int fieldCount(BenchmarkConfig.YcsbConfig ycsb) {
+        return Math.max(1, ycsb.getFieldCount());
+    }
+}
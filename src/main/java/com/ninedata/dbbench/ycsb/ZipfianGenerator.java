@@ -0,0 +1,96 @@
+package com.ninedata.dbbench.ycsb;
+
+import com.ninedata.dbbench.workload.InputRandom;
+
+/**
+ * Zipfian generator over [min, min + items), after Gray et al., "Quickly Generating Billion-Record
+ * Synthetic Databases", as used by YCSB. Item 0 is the most popular. Safe to share between threads;
+ * the item count can grow (for the latest distribution), which extends zeta incrementally.
+ */
+public class ZipfianGenerator {
+    public static final double ZIPFIAN_CONSTANT = 0.99;
+
+    private final long base;
+    private final double theta;
+    private final double alpha;
+    private final double zeta2theta;
+    private final double halfPowTheta;
+    private volatile State state;
+
+    private record State(long items, double zetan, double eta) {
+    }
+
+    public ZipfianGenerator(long items) {
+        this(0, items - 1, ZIPFIAN_CONSTANT);
+    }
+
+    public ZipfianGenerator(long min, long max, double theta) {
+        this(min, max, theta, zeta(0, max - min + 1, theta, 0));
+    }
+
+    /**
+     * Use a precomputed zeta(items, theta), which is expensive for large item counts.
+     */
+    public ZipfianGenerator(long min, long max, double theta, double zetan) {
+        if (max < min) {
+            throw new IllegalArgumentException("Zipfian range is empty: " + min + ".." + max);
+        }
+        this.base = min;
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zeta2theta = zeta(0, 2, theta, 0);
+        this.halfPowTheta = 1.0 + Math.pow(0.5, theta);
+        long items = max - min + 1;
+        this.state = new State(items, zetan, eta(items, zetan));
+    }
+
+    public long nextValue() {
+        return nextValue(state.items());
+    }
+
+    /**
+     * Next value for a (possibly grown) item count. Counts below the largest seen so far
+     * reuse its zeta rather than recomputing from scratch.
+     */
+    public long nextValue(long items) {
+        State s = state;
+        if (items > s.items()) {
+            s = grow(items);
+        }
+        double u = InputRandom.current().nextDouble();
+        double uz = u * s.zetan();
+        if (uz < 1.0) {
+            return base;
+        }
+        if (uz < halfPowTheta) {
+            return base + 1;
+        }
+        long value = (long) (items * Math.pow(s.eta() * u - s.eta() + 1, alpha));
+        return base + Math.min(value, items - 1);
+    }
+
+    private synchronized State grow(long items) {
+        State s = state;
+        if (items > s.items()) {
+            double zetan = zeta(s.items(), items, theta, s.zetan());
+            s = new State(items, zetan, eta(items, zetan));
+            state = s;
+        }
+        return s;
+    }
+
+    private double eta(long items, double zetan) {
+        return (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2theta / zetan);
+    }
+
+    /**
+     * zeta(to, theta), continuing from zeta(from, theta) = initial.
+     */
+    static double zeta(long from, long to, double theta, double initial) {
+        double sum = initial;
+        for (long i = from; i < to; i++) {
+            sum += 1 / Math.pow(i + 1, theta);
+        }
+        return sum;
+    }
+}
@@ -5,6 +5,7 @@
 
 // Global state
 let ws = null;
+let pendingMarker = false;
 let tpsChart = null;
 let cpuChart = null;
 let networkChart = null;
@@ -529,6 +530,15 @@ function handleWebSocketMessage(data) {
         return;
     }
 
+    // Live changes, pauses and scenario phases are marked on the TPS chart
+    if (data.type === 'annotation') {
+        pendingMarker = true;
+        if (data.annotation.type === 'pause' || data.annotation.type === 'resume') {
+            updatePauseButton(data.annotation.type === 'pause');
+        }
+        return;
+    }
+
     // Handle status change notifications
     if (data.type === 'status') {
         console.log('Status change received:', data.status);
@@ -543,6 +553,30 @@ function handleWebSocketMessage(data) {
 
 // ==================== Metrics Update ====================
 
+function formatDelta(delta) {
+    if (delta === undefined) return '';
+    if (delta === null) return '-';
+    return (delta > 0 ? '+' : '') + delta.toFixed(1) + '%';
+}
+
+function updateTargets(rows) {
+    document.getElementById('targetsCard').style.display = '';
+    document.getElementById('targetsTable').innerHTML = rows.map((t, i) => `
+        <tr>
+            <td>${t.name}${i === 0 ? ' (baseline)' : ''}</td>
+            <td>${t.intervalTps?.toFixed(2) || 0}</td>
+            <td>${formatDelta(t.intervalTpsDelta)}</td>
+            <td>${t.intervalAvgLatencyMs?.toFixed(2) || 0} ms</td>
+            <td>${formatDelta(t.intervalLatencyDelta)}</td>
+            <td>${t.tps?.toFixed(2) || 0}</td>
+            <td>${t.p95LatencyMs?.toFixed(2) || 0} ms</td>
+            <td>${formatDelta(t.p95Delta)}</td>
+            <td>${t.totalTransactions || 0}</td>
+            <td style="color: #ff4757">${t.totalFailure || 0}</td>
+        </tr>
+    `).join('');
+}
+
 function updateMetrics(data) {
     if (data.transaction) {
         const tx = data.transaction;
@@ -550,12 +584,16 @@ function updateMetrics(data) {
         document.getElementById('totalTx').textContent = tx.totalTransactions || 0;
         document.getElementById('successRate').textContent = (tx.overallSuccessRate || 0).toFixed(1) + '%';
         document.getElementById('avgLatency').textContent = (tx.avgLatencyMs?.toFixed(2) || '0.00') + ' ms';
-        document.getElementById('elapsed').textContent = (tx.elapsedSeconds || 0) + 's';
+        document.getElementById('qps').textContent = tx.qps?.toFixed(2) || '0.00';
+        document.getElementById('pctLatency').textContent =
+            (tx.p95LatencyMs?.toFixed(2) || '0.00') + ' / ' + (tx.p99LatencyMs?.toFixed(2) || '0.00') + ' ms';
+        document.getElementById('elapsed').textContent = (tx.elapsedSeconds || 0) + 's' + (tx.phase ? ' (' + tx.phase + ')' : '');
 
         // Update chart - only when benchmark is running
         if (data.status === 'RUNNING' && tx.tps !== undefined) {
             const now = new Date().toLocaleTimeString();
-            tpsChart.data.labels.push(now);
+            tpsChart.data.labels.push(pendingMarker ? now + ' \u2691' : now);
+            pendingMarker = false;
             tpsChart.data.datasets[0].data.push(tx.tps || 0);
 
             // Keep max 60 data points
@@ -567,6 +605,23 @@ function updateMetrics(data) {
             tpsChart.update();
         }
 
+        const endpoints = tx.dimensions?.endpoint;
+        if (endpoints && endpoints.length > 0) {
+            const ejected = new Set((data.balancer || []).filter(b => b.state === 'EJECTED').map(b => b.name));
+            document.getElementById('endpointsCard').style.display = '';
+            document.getElementById('endpointsTable').innerHTML = endpoints.map(e => `
+                <tr>
+                    <td>${e.name}${ejected.has(e.name) ? ' <span style="color: #ff4757">(out of rotation)</span>' : ''}</td>
+                    <td>${e.count}</td>
+                    <td>${e.tps?.toFixed(2) || 0}</td>
+                    <td style="color: #ff4757">${e.failure}</td>
+                    <td>${e.avgLatencyMs?.toFixed(2) || 0} ms</td>
+                    <td>${e.p95LatencyMs?.toFixed(2) || 0} ms</td>
+                    <td>${e.p99LatencyMs?.toFixed(2) || 0} ms</td>
+                </tr>
+            `).join('');
+        }
+
         // Update transaction table
         if (tx.transactions && tx.transactions.length > 0) {
             const tbody = document.getElementById('txTable');
@@ -575,14 +630,66 @@ function updateMetrics(data) {
                     <td>${t.name}</td>
                     <td>${t.count}</td>
                     <td style="color: #00ff88">${t.success}</td>
-                    <td style="color: #ff4757">${t.failure}</td>
+                    <td>${t.rollback || 0}</td>
+                    <td style="color: #ff4757" title="${Object.entries(t.errors || {}).map(([k, v]) => k + ': ' + v).join(', ')}">${t.failure}</td>
+                    <td>${t.retries || 0}</td>
                     <td>${t.successRate?.toFixed(1) || 0}%</td>
                     <td>${t.avgLatencyMs?.toFixed(2) || 0} ms</td>
+                    <td>${t.p95LatencyMs?.toFixed(2) || 0} ms</td>
+                    <td>${t.p99LatencyMs?.toFixed(2) || 0} ms</td>
+                    <td>${t.avgRoundTrips?.toFixed(1) || 0}</td>
                 </tr>
             `).join('');
         }
     }
 
+    if (data.targets) {
+        updateTargets(data.targets);
+    }
+
+    if (data.availability && data.availability.state) {
+        const a = data.availability;
+        const ms = v => v != null ? v + ' ms' : '-';
+        document.getElementById('availabilityCard').style.display = '';
+        document.getElementById('availabilityState').textContent =
+            `(${a.state}, ${a.availabilityPercent?.toFixed(2)}% available, ${a.blocked || 0} blocked, ${a.poolWaiting || 0} waiting)`;
+        document.getElementById('availabilityTable').innerHTML = (a.outages || []).map(o => `
+            <tr>
+                <td>${o.startSecond}s</td>
+                <td>${ms(o.timeToFirstSuccessMs)}</td>
+                <td>${ms(o.timeToFullThroughputMs)}</td>
+                <td style="color: #ff4757">${o.failed}</td>
+                <td>${o.peakBlocked}</td>
+                <td>${o.connectionsCreated}</td>
+                <td>${o.connectionTimeouts}</td>
+            </tr>
+        `).join('');
+    }
+
+    if (data.connections) {
+        const c = data.connections;
+        document.getElementById('connectionsCard').style.display = '';
+        document.getElementById('connectionsTable').innerHTML = `
+            <tr>
+                <td>${c.connectsPerSecond?.toFixed(1) || 0}</td>
+                <td>${c.avgConnectMs?.toFixed(2) || 0} ms</td>
+                <td>${c.p95ConnectMs?.toFixed(2) || 0} ms</td>
+                <td style="color: #ff4757">${c.failures || 0}</td>
+            </tr>
+        `;
+    }
+
+    if (data.replicationLag) {
+        document.getElementById('lagCard').style.display = '';
+        document.getElementById('lagTable').innerHTML = Object.entries(data.replicationLag).map(([name, lag]) => `
+            <tr>
+                <td>${escapeHtml(name)}</td>
+                <td>${lag.heartbeatMs != null ? lag.heartbeatMs.toFixed(1) + ' ms' : '-'}</td>
+                <td>${lag.reportedMs != null ? lag.reportedMs.toFixed(1) + ' ms' : '-'}</td>
+            </tr>
+        `).join('');
+    }
+
     if (data.os) {
         const os = data.os;
         document.getElementById('cpuUsage').textContent = (os.cpuUsage || 0).toFixed(1) + '%';
@@ -745,6 +852,9 @@ function updateStatus(status) {
 
     document.getElementById('btnStart').disabled = isRunning || isLoading;
     document.getElementById('btnStop').disabled = !isRunning;
+    document.getElementById('btnPause').disabled = !isRunning;
+    document.getElementById('liveControls').style.display = isRunning ? 'flex' : 'none';
+    if (!isRunning) updatePauseButton(false);
     document.getElementById('btnLoad').disabled = isRunning || isLoading;
     document.getElementById('btnClean').disabled = isRunning || isLoading;
     document.getElementById('btnConfig').disabled = !canConfig;
@@ -775,10 +885,12 @@ function displayConfig(cfg) {
     }
 
     if (cfg.benchmark) {
+        document.getElementById('cfgWorkload').textContent = cfg.benchmark.workload || '-';
         document.getElementById('cfgWarehouses').textContent = cfg.benchmark.warehouses || '-';
         document.getElementById('cfgTerminals').textContent = cfg.benchmark.terminals || '-';
         document.getElementById('cfgDuration').textContent = (cfg.benchmark.duration || '-') + 's';
         document.getElementById('cfgLoadConcurrency').textContent = cfg.benchmark.loadConcurrency || '-';
+        document.getElementById('cfgExecutionMode').textContent = cfg.benchmark.executionMode || '-';
     }
 
     if (cfg.transactionMix) {
@@ -819,13 +931,60 @@ function openConfigModal() {
     document.getElementById('cfgFormDbUser').value = cfg.database?.username || '';
     document.getElementById('cfgFormDbPass').value = '';  // Don't show password
     document.getElementById('cfgFormPoolSize').value = cfg.database?.poolSize || 50;
+    document.getElementById('cfgFormDbName').value = cfg.database?.name || '';
+    document.getElementById('cfgFormTargets').value = formatEndpoints(cfg.database?.targets);
+    document.getElementById('cfgFormReplicas').value = formatEndpoints(cfg.database?.replicas);
+    document.getElementById('cfgFormShards').value = formatEndpoints(cfg.database?.shards);
+    document.getElementById('cfgFormEndpoints').value = formatEndpoints(cfg.database?.endpoints);
+    document.getElementById('cfgFormBalance').value = cfg.balance?.policy || 'round-robin';
+    document.getElementById('cfgFormReplicaFraction').value = cfg.replica?.fraction ?? 1;
+    document.getElementById('cfgFormReadYourWrites').value = cfg.replica?.readYourWritesMs ?? 0;
+    document.getElementById('cfgFormLagInterval').value = cfg.replica?.lagIntervalMs ?? 0;
+    document.getElementById('cfgFormSeed').value = cfg.benchmark?.seed ?? 0;
 
     // Benchmark config
+    loadWorkloadOptions(cfg.benchmark?.workload || 'tpcc');
     document.getElementById('cfgFormWarehouses').value = cfg.benchmark?.warehouses || 10;
     document.getElementById('cfgFormTerminals').value = cfg.benchmark?.terminals || 50;
     document.getElementById('cfgFormDuration').value = cfg.benchmark?.duration || 60;
     document.getElementById('cfgFormLoadConcurrency').value = cfg.benchmark?.loadConcurrency || 4;
+    document.getElementById('cfgFormExecutionMode').value = cfg.benchmark?.executionMode || 'interactive';
+    document.getElementById('cfgFormSysbenchTest').value = cfg.sysbench?.test || 'oltp_read_write';
+    document.getElementById('cfgFormSysbenchTables').value = cfg.sysbench?.tables || 4;
+    document.getElementById('cfgFormSysbenchTableSize').value = cfg.sysbench?.tableSize || 10000;
+    document.getElementById('cfgFormYcsbWorkload').value = cfg.ycsb?.workload || 'a';
+    document.getElementById('cfgFormYcsbDistribution').value = cfg.ycsb?.requestDistribution || '';
+    document.getElementById('cfgFormYcsbRecordCount').value = cfg.ycsb?.recordCount || 100000;
+    document.getElementById('cfgFormPgbenchScript').value = cfg.pgbench?.script || 'tpcb-like';
+    document.getElementById('cfgFormPgbenchScale').value = cfg.pgbench?.scale || 1;
+    document.getElementById('cfgFormTemplateFile').value = cfg.template?.file || '';
+    document.getElementById('cfgFormIngestKeyPattern').value = cfg.ingest?.keyPattern || 'monotonic';
+    document.getElementById('cfgFormIngestRowWidth').value = cfg.ingest?.rowWidth || 256;
+    document.getElementById('cfgFormIngestBatchSize').value = cfg.ingest?.batchSize || 10;
+    document.getElementById('cfgFormIngestSecondaryIndexes').value = cfg.ingest?.secondaryIndexes ?? 1;
+    document.getElementById('cfgFormIngestReadFraction').value = cfg.ingest?.readFraction ?? 0.05;
+    document.getElementById('cfgFormReplayRecord').value = cfg.replay?.record || '';
+    document.getElementById('cfgFormReplayFile').value = cfg.replay?.file || '';
+    document.getElementById('cfgFormReplayPacing').value = cfg.replay?.pacing || 'original';
+    document.getElementById('cfgFormScenarioFile').value = cfg.scenario?.file || '';
+    document.getElementById('cfgFormDistributedAgents').value = cfg.distributed?.agents ?? 0;
+    document.getElementById('cfgFormDistributedPort').value = cfg.distributed?.port ?? 7661;
+    document.getElementById('cfgFormChOlapStreams').value = cfg.ch?.olapStreams ?? 1;
+    document.getElementById('cfgFormChQueries').value = cfg.ch?.queries || '';
     document.getElementById('cfgFormThinkTime').checked = cfg.benchmark?.thinkTime || false;
+    document.getElementById('cfgFormAvailability').checked = cfg.availability?.enabled || false;
+    document.getElementById('cfgFormOutageThreshold').value = cfg.availability?.outageThresholdMs ?? 2000;
+    document.getElementById('cfgFormShortConnections').value = cfg.shortConnection?.every ?? 0;
+    document.getElementById('cfgFormPartitions').value = cfg.partition?.count ?? 0;
+    document.getElementById('cfgFormPartitionMethod').value = cfg.partition?.method || 'hash';
+    document.getElementById('cfgFormSchemaProfile').value = cfg.schema?.profile || '';
+    const profiles = Object.keys(cfg.schema?.available || {});
+    document.getElementById('cfgFormSchemaProfileHint').textContent =
+        profiles.length ? 'Available for this database: ' + profiles.join(', ') : 'No profiles for this database';
+    document.getElementById('cfgFormStatementProfile').value = cfg.statements?.profile || '';
+    const statementProfiles = Object.keys(cfg.statements?.available || {});
+    document.getElementById('cfgFormStatementProfileHint').textContent =
+        statementProfiles.length ? 'Available for this database: ' + statementProfiles.join(', ') : 'No profiles for this database';
 
     // Transaction mix
     document.getElementById('cfgFormMixNewOrder').value = cfg.transactionMix?.newOrder || 45;
@@ -849,20 +1008,120 @@ function openConfigModal() {
     openModal('configModal');
 }
 
+async function loadWorkloadOptions(selected) {
+    const select = document.getElementById('cfgFormWorkload');
+    try {
+        const res = await fetch('/api/benchmark/workloads');
+        const workloads = await res.json();
+        select.innerHTML = workloads.map(w =>
+            `<option value="${w.name}" title="${w.description}">${w.name}</option>`).join('');
+    } catch (e) {
+        console.error('Failed to load workloads:', e);
+    }
+    select.value = selected;
+}
+
+// Lines of name=jdbcUrl or a bare jdbcUrl
+function formatEndpoints(endpoints) {
+    return (endpoints || []).map(e => (e.name ? e.name + '=' : '') + e.jdbcUrl).join('\n');
+}
+
+function parseEndpoints(text) {
+    return text.split('\n').map(line => line.trim()).filter(line => line).map(line => {
+        const eq = line.indexOf('=');
+        return eq > 0 && !line.startsWith('jdbc:')
+            ? { name: line.substring(0, eq).trim(), jdbcUrl: line.substring(eq + 1).trim() }
+            : { jdbcUrl: line };
+    });
+}
+
 async function saveConfig() {
     const newConfig = {
         database: {
             type: document.getElementById('cfgFormDbType').value,
             jdbcUrl: document.getElementById('cfgFormJdbcUrl').value,
             username: document.getElementById('cfgFormDbUser').value,
-            poolSize: parseInt(document.getElementById('cfgFormPoolSize').value)
+            poolSize: parseInt(document.getElementById('cfgFormPoolSize').value),
+            name: document.getElementById('cfgFormDbName').value,
+            targets: parseEndpoints(document.getElementById('cfgFormTargets').value),
+            replicas: parseEndpoints(document.getElementById('cfgFormReplicas').value),
+            shards: parseEndpoints(document.getElementById('cfgFormShards').value),
+            endpoints: parseEndpoints(document.getElementById('cfgFormEndpoints').value)
+        },
+        balance: {
+            policy: document.getElementById('cfgFormBalance').value
+        },
+        availability: {
+            enabled: document.getElementById('cfgFormAvailability').checked,
+            outageThresholdMs: parseInt(document.getElementById('cfgFormOutageThreshold').value) || 2000
+        },
+        shortConnection: {
+            every: parseInt(document.getElementById('cfgFormShortConnections').value) || 0
+        },
+        partition: {
+            count: parseInt(document.getElementById('cfgFormPartitions').value) || 0,
+            method: document.getElementById('cfgFormPartitionMethod').value
+        },
+        schema: {
+            profile: document.getElementById('cfgFormSchemaProfile').value.trim()
+        },
+        statements: {
+            profile: document.getElementById('cfgFormStatementProfile').value.trim()
+        },
+        replica: {
+            fraction: parseFloat(document.getElementById('cfgFormReplicaFraction').value) || 0,
+            readYourWritesMs: parseInt(document.getElementById('cfgFormReadYourWrites').value) || 0,
+            lagIntervalMs: parseInt(document.getElementById('cfgFormLagInterval').value) || 0
         },
         benchmark: {
             warehouses: parseInt(document.getElementById('cfgFormWarehouses').value),
             terminals: parseInt(document.getElementById('cfgFormTerminals').value),
             duration: parseInt(document.getElementById('cfgFormDuration').value),
             loadConcurrency: parseInt(document.getElementById('cfgFormLoadConcurrency').value),
-            thinkTime: document.getElementById('cfgFormThinkTime').checked
+            workload: document.getElementById('cfgFormWorkload').value,
+            executionMode: document.getElementById('cfgFormExecutionMode').value,
+            thinkTime: document.getElementById('cfgFormThinkTime').checked,
+            seed: parseInt(document.getElementById('cfgFormSeed').value) || 0
+        },
+        sysbench: {
+            test: document.getElementById('cfgFormSysbenchTest').value,
+            tables: parseInt(document.getElementById('cfgFormSysbenchTables').value),
+            tableSize: parseInt(document.getElementById('cfgFormSysbenchTableSize').value)
+        },
+        ycsb: {
+            workload: document.getElementById('cfgFormYcsbWorkload').value,
+            requestDistribution: document.getElementById('cfgFormYcsbDistribution').value,
+            recordCount: parseInt(document.getElementById('cfgFormYcsbRecordCount').value)
+        },
+        pgbench: {
+            script: document.getElementById('cfgFormPgbenchScript').value,
+            scale: parseInt(document.getElementById('cfgFormPgbenchScale').value)
+        },
+        template: {
+            file: document.getElementById('cfgFormTemplateFile').value
+        },
+        ingest: {
+            keyPattern: document.getElementById('cfgFormIngestKeyPattern').value,
+            rowWidth: parseInt(document.getElementById('cfgFormIngestRowWidth').value),
+            batchSize: parseInt(document.getElementById('cfgFormIngestBatchSize').value),
+            secondaryIndexes: parseInt(document.getElementById('cfgFormIngestSecondaryIndexes').value),
+            readFraction: parseFloat(document.getElementById('cfgFormIngestReadFraction').value)
+        },
+        replay: {
+            record: document.getElementById('cfgFormReplayRecord').value,
+            file: document.getElementById('cfgFormReplayFile').value,
+            pacing: document.getElementById('cfgFormReplayPacing').value
+        },
+        scenario: {
+            file: document.getElementById('cfgFormScenarioFile').value
+        },
+        distributed: {
+            agents: parseInt(document.getElementById('cfgFormDistributedAgents').value) || 0,
+            port: parseInt(document.getElementById('cfgFormDistributedPort').value) || 7661
+        },
+        ch: {
+            olapStreams: parseInt(document.getElementById('cfgFormChOlapStreams').value),
+            queries: document.getElementById('cfgFormChQueries').value
         },
         transactionMix: {
             newOrder: parseInt(document.getElementById('cfgFormMixNewOrder').value),
@@ -1166,6 +1425,49 @@ async function stopBenchmark() {
     }
 }
 
+// ==================== Live Control ====================
+
+async function applyLiveChange() {
+    const change = {};
+    const terminals = document.getElementById('liveTerminals').value;
+    const rate = document.getElementById('liveRate').value;
+    const thinkTime = document.getElementById('liveThinkTime').value;
+    const mix = document.getElementById('liveMix').value.trim();
+    const note = document.getElementById('liveNote').value.trim();
+    if (terminals) change.terminals = parseInt(terminals);
+    if (rate) change.rate = parseFloat(rate);
+    if (thinkTime) change.thinkTime = thinkTime === 'true';
+    if (mix) {
+        change.mix = {};
+        mix.split(',').forEach(pair => {
+            const [type, weight] = pair.split('=').map(v => v.trim());
+            if (type) change.mix[type] = parseInt(weight);
+        });
+    }
+    if (note) change.note = note;
+    if (Object.keys(change).length === 0) {
+        showToast('info', 'Live Control', 'Nothing to change');
+        return;
+    }
+    const result = await apiCall('control', 'POST', change);
+    if (result.success) {
+        ['liveTerminals', 'liveRate', 'liveMix', 'liveNote'].forEach(id => document.getElementById(id).value = '');
+        document.getElementById('liveThinkTime').value = '';
+    }
+}
+
+async function togglePause() {
+    const pause = document.getElementById('btnPause').textContent === 'Pause';
+    const result = await apiCall(pause ? 'pause' : 'resume');
+    if (result.success) {
+        updatePauseButton(pause);
+    }
+}
+
+function updatePauseButton(paused) {
+    document.getElementById('btnPause').textContent = paused ? 'Resume' : 'Pause';
+}
+
 // ==================== SSH Config Toggle ====================
 
 function toggleSshFields() {
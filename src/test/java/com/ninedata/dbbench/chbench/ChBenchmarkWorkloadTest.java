@@ -0,0 +1,202 @@
+package com.ninedata.dbbench.chbench;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.tpcc.TPCCTerminal;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChBenchmarkWorkload Tests")
+class ChBenchmarkWorkloadTest {
+
+    private ChBenchmarkWorkload workload;
+    private BenchmarkConfig config;
+    private DatabaseAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        workload = new ChBenchmarkWorkload();
+        config = new BenchmarkConfig();
+        config.setWarehouses(2);
+        config.setTerminals(4);
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("mysql");
+        adapter = DatabaseFactory.create(dbConfig);
+    }
+
+    @Test
+    @DisplayName("Should report TPC-C transactions and the 22 queries")
+    void testTransactionNames() {
+        assertEquals("chbenchmark", workload.getName());
+        assertEquals(27, workload.getTransactionNames().size());
+        assertEquals("NEW_ORDER", workload.getTransactionNames().get(0));
+        assertEquals("Q22", workload.getTransactionNames().get(26));
+        assertInstanceOf(ChLoader.class, workload.createLoader(adapter, config));
+    }
+
+    @Test
+    @DisplayName("Should run OLAP streams after the TPC-C terminals")
+    void testTerminals() {
+        config.getCh().setOlapStreams(2);
+        assertEquals(6, workload.getTerminalCount(config));
+
+        WorkloadTerminal oltp = workload.createTerminal(adapter, config, new TransactionOptions(), 3);
+        WorkloadTerminal olap = workload.createTerminal(adapter, config, new TransactionOptions(), 5);
+
+        assertInstanceOf(TPCCTerminal.class, oltp);
+        assertTrue(oltp.usesThinkTime());
+        assertInstanceOf(ChStreamTerminal.class, olap);
+        assertFalse(olap.usesThinkTime());
+        // Second stream starts one query later
+        assertEquals("Q2", olap.nextTransaction().getName());
+        assertEquals("Q3", olap.nextTransaction().getName());
+    }
+
+    @Test
+    @DisplayName("Zero streams should run plain TPC-C")
+    void testNoStreams() {
+        config.getCh().setOlapStreams(0);
+        assertEquals(4, workload.getTerminalCount(config));
+    }
+
+    @Test
+    @DisplayName("Stream should cycle through the selected queries")
+    void testQuerySelection() {
+        config.getCh().setOlapStreams(1);
+        config.getCh().setQueries("6, 14");
+        WorkloadTerminal olap = workload.createTerminal(adapter, config, new TransactionOptions(), 4);
+
+        assertEquals("Q6", olap.nextTransaction().getName());
+        assertEquals("Q14", olap.nextTransaction().getName());
+        assertEquals("Q6", olap.nextTransaction().getName());
+        assertTrue(workload.describeMix(config).endsWith("1 OLAP stream(s) running queries 6, 14"));
+    }
+
+    @Test
+    @DisplayName("Queries should run read-only only when configured")
+    void testReadOnly() throws Exception {
+        config.getCh().setQueries("1,2");
+        TransactionOptions options = new TransactionOptions();
+        workload.configureOptions(config, options);
+        assertFalse(options.isReadOnly("Q1"));
+
+        config.getCh().setReadOnly(true);
+        workload.configureOptions(config, options);
+        assertTrue(options.isReadOnly("Q1"));
+        assertTrue(options.isReadOnly("Q2"));
+        assertFalse(options.isReadOnly("Q3"));
+        assertFalse(options.isReadOnly("NEW_ORDER"));
+    }
+
+    @Test
+    @DisplayName("Should parse query selections")
+    void testParseSelection() {
+        assertEquals(22, ChQueries.parseSelection("").size());
+        assertEquals(List.of(1, 2, 3, 22), ChQueries.parseSelection("1-3,Q22"));
+        assertEquals(List.of(6), ChQueries.parseSelection(" q6 "));
+        assertThrows(IllegalArgumentException.class, () -> ChQueries.parseSelection("23"));
+        assertThrows(IllegalArgumentException.class, () -> ChQueries.parseSelection("x"));
+        assertThrows(IllegalArgumentException.class, () -> ChQueries.parseSelection(","));
+    }
+
+    @Test
+    @DisplayName("Queries should bind one date per placeholder and use the adapter's dialect")
+    void testQueries() {
+        List<ChQuery> queries = ChQueries.forAdapter(adapter);
+        assertEquals(22, queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            ChQuery q = queries.get(i);
+            assertEquals(i + 1, q.number());
+            long placeholders = q.sql().chars().filter(c -> c == '?').count();
+            assertEquals(q.parameters().size() + (q.maxRows() > 0 ? 1 : 0), placeholders, q.getName());
+        }
+        assertTrue(queries.get(4).sql().contains("MOD(s_w_id * s_i_id, 10000) = su_suppkey"));
+        assertTrue(queries.get(4).sql().contains("ASCII(SUBSTR(c_state, 1, 1)) = su_nationkey"));
+        assertEquals(10, queries.get(2).maxRows());
+        assertTrue(queries.get(2).sql().endsWith(adapter.limitRows("")));
+
+        DatabaseConfig sqlServer = new DatabaseConfig();
+        sqlServer.setType("sqlserver");
+        List<ChQuery> sqlServerQueries = ChQueries.forAdapter(DatabaseFactory.create(sqlServer));
+        String q7 = sqlServerQueries.get(6).sql();
+        assertTrue(q7.contains("YEAR(o_entry_d) AS l_year"));
+        assertTrue(q7.contains("(s_w_id * s_i_id) % 10000"));
+        assertTrue(sqlServerQueries.get(17).sql().endsWith("ORDER BY amount_sum DESC, o_entry_d OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY"));
+    }
+
+    @Test
+    @DisplayName("Top-N queries should bind their row limit after the dates")
+    void testTopNQueries(@TempDir Path dir) throws Exception {
+        DatabaseConfig sqlite = new DatabaseConfig();
+        sqlite.setType("sqlite");
+        sqlite.setJdbcUrl("jdbc:sqlite:" + dir.resolve("ch.db"));
+        DatabaseAdapter db = DatabaseFactory.create(sqlite);
+        db.initialize();
+        try {
+            workload.createSchema(db, config);
+            for (ChQuery query : ChQueries.forAdapter(db)) {
+                if (query.maxRows() > 0) {
+                    assertTrue(new ChQueryTransaction(db, new TransactionOptions(), query).execute(), query.getName());
+                }
+            }
+        } finally {
+            db.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Nation keys should be unique character codes covering customer states")
+    void testNations() {
+        assertEquals(62, ChLoader.NATION_NAMES.length);
+        assertEquals(ChLoader.NATION_NAMES.length, ChLoader.NATION_REGIONS.length);
+        Set<Integer> keys = new HashSet<>();
+        for (int n = 0; n < ChLoader.NATION_NAMES.length; n++) {
+            keys.add(ChLoader.nationKey(n));
+            assertTrue(ChLoader.NATION_REGIONS[n] >= 0 && ChLoader.NATION_REGIONS[n] < ChLoader.REGIONS.length);
+        }
+        assertEquals(62, keys.size());
+        for (char c = 'A'; c <= 'Z'; c++) {
+            assertTrue(keys.contains((int) c));
+        }
+        assertEquals('G', ChLoader.nationKey(List.of(ChLoader.NATION_NAMES).indexOf("Germany")));
+        assertEquals('C', ChLoader.nationKey(List.of(ChLoader.NATION_NAMES).indexOf("Cambodia")));
+    }
+
+    @Test
+    @DisplayName("Should report QphH and per-query latency next to tpmC")
+    void testResultMetrics() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.reset();
+        registry.recordTransaction("NEW_ORDER", true, 1_000_000);
+        registry.recordTransaction("Q1", true, 200_000_000);
+        registry.recordTransaction("Q1", true, 400_000_000);
+        registry.recordTransaction("Q6", false, 100_000_000);
+        Thread.sleep(5);
+        registry.markEnd();
+
+        Map<String, Object> result = workload.getResultMetrics(registry);
+
+        assertTrue(result.containsKey("tpmC"));
+        assertEquals(2L, result.get("analyticalQueries"));
+        assertTrue((Double) result.get("QphH") > 0);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> latency = (Map<String, Object>) result.get("queryAvgLatencyMs");
+        assertEquals(300.0, latency.get("Q1"));
+        assertEquals(100.0, latency.get("Q6"));
+    }
+}
@@ -40,6 +40,42 @@ class BenchmarkConfigTest {
         assertEquals(4, mix.getStockLevel());
     }
 
+    @Test
+    @DisplayName("Should have correct default retry policy")
+    void testDefaultRetry() {
+        BenchmarkConfig.RetryConfig retry = config.getRetry();
+
+        assertNotNull(retry);
+        assertEquals(3, retry.getMaxRetries());
+        assertEquals(10, retry.getBackoffBaseMs());
+        assertEquals(1000, retry.getBackoffMaxMs());
+    }
+
+    @Test
+    @DisplayName("Per-type isolation should fall back to the default level")
+    void testIsolationPerType() {
+        BenchmarkConfig.IsolationConfig isolation = config.getIsolation();
+        assertEquals("default", isolation.getEffective("NEW_ORDER"));
+
+        isolation.setLevel("read-committed");
+        isolation.setForType("ORDER_STATUS", "snapshot");
+        assertEquals("read-committed", isolation.getEffective("newOrder"));
+        assertEquals("snapshot", isolation.getEffective("order-status"));
+        assertEquals("read-committed", isolation.getEffective("POINT_SELECT"));
+        assertThrows(IllegalArgumentException.class, () -> isolation.setForType("BOGUS", "serializable"));
+    }
+
+    @Test
+    @DisplayName("Read-only flags should be settable per type")
+    void testReadOnlyPerType() {
+        BenchmarkConfig.ReadOnlyConfig readOnly = config.getReadOnly();
+        assertFalse(readOnly.isReadOnly("STOCK_LEVEL"));
+
+        readOnly.setForType("STOCK_LEVEL", true);
+        assertTrue(readOnly.isStockLevel());
+        assertTrue(readOnly.isReadOnly("stockLevel"));
+    }
+
     @Test
     @DisplayName("Transaction mix should sum to 100")
     void testTransactionMixSum() {
@@ -135,4 +171,21 @@ class BenchmarkConfigTest {
         config.setTerminals(500);
         assertEquals(500, config.getTerminals());
     }
+
+    @Test
+    @DisplayName("Terminals should cycle through the assigned warehouse range")
+    void testHomeWarehouse() {
+        config.setWarehouses(10);
+        assertEquals(1, config.homeWarehouse(0));
+        assertEquals(1, config.homeWarehouse(10));
+
+        config.setFirstWarehouse(4);
+        config.setLastWarehouse(6);
+        assertEquals(4, config.homeWarehouse(0));
+        assertEquals(6, config.homeWarehouse(2));
+        assertEquals(4, config.homeWarehouse(3));
+
+        config.setFirstWarehouse(11);
+        assertThrows(IllegalArgumentException.class, () -> config.homeWarehouse(0));
+    }
 }
@@ -25,6 +25,7 @@ class DatabaseConfigTest {
         assertEquals("sysbench", config.getPassword());
         assertEquals(50, config.getPool().getSize());
         assertEquals(10, config.getPool().getMinIdle());
+        assertEquals(30000, config.getPool().getConnectionTimeout());
     }
 
     @Test
@@ -118,6 +119,85 @@ class DatabaseConfigTest {
         assertEquals(20, config.getPool().getMinIdle());
     }
 
+    @Test
+    @DisplayName("Should fill an additional target's unset settings from the main database")
+    void testForTarget() {
+        config.setType("postgresql");
+        config.setUsername("bench");
+        config.setPassword("secret");
+        config.getPool().setSize(8);
+        assertEquals("target1", config.getTargetName());
+
+        DatabaseConfig.TargetConfig target = new DatabaseConfig.TargetConfig();
+        target.setJdbcUrl("jdbc:postgresql://other:5432/test");
+        DatabaseConfig resolved = config.forTarget(target, 2);
+        assertEquals("target2", resolved.getName());
+        assertEquals("postgresql", resolved.getType());
+        assertEquals("bench", resolved.getUsername());
+        assertEquals("secret", resolved.getPassword());
+        assertEquals(8, resolved.getPool().getSize());
+        assertEquals(8, resolved.getPool().getMinIdle());
+
+        target.setName("pg17");
+        target.setUsername("other");
+        target.setPoolSize(20);
+        resolved = config.forTarget(target, 2);
+        assertEquals("pg17", resolved.getName());
+        assertEquals("other", resolved.getUsername());
+        assertEquals(20, resolved.getPool().getSize());
+
+        target.setJdbcUrl("");
+        assertThrows(IllegalArgumentException.class, () -> config.forTarget(target, 2));
+    }
+
+    @Test
+    @DisplayName("Should name replicas from 1 and fill their settings from the main database")
+    void testForReplica() {
+        config.setUsername("bench");
+        DatabaseConfig.TargetConfig replica = new DatabaseConfig.TargetConfig();
+        replica.setJdbcUrl("jdbc:mysql://replica:3306/tpcc");
+        DatabaseConfig resolved = config.forReplica(replica, 1);
+        assertEquals("replica1", resolved.getName());
+        assertEquals("mysql", resolved.getType());
+        assertEquals("bench", resolved.getUsername());
+        config.getPool().setConnectionTimeout(2000);
+        assertEquals(2000, config.forReplica(replica, 1).getPool().getConnectionTimeout());
+
+        replica.setJdbcUrl(" ");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> config.forReplica(replica, 3));
+        assertTrue(e.getMessage().startsWith("Replica 3"));
+    }
+
+    @Test
+    @DisplayName("Should number shards after the main database and require its type")
+    void testForShard() {
+        assertEquals("shard1", config.getShardName());
+        DatabaseConfig.TargetConfig shard = new DatabaseConfig.TargetConfig();
+        shard.setJdbcUrl("jdbc:mysql://shard:3306/tpcc");
+        DatabaseConfig resolved = config.forShard(shard, 2);
+        assertEquals("shard2", resolved.getName());
+        assertEquals("mysql", resolved.getType());
+
+        shard.setType("postgresql");
+        assertThrows(IllegalArgumentException.class, () -> config.forShard(shard, 2));
+    }
+
+    @Test
+    @DisplayName("Should resolve a further SQL endpoint of the main database's type")
+    void testForEndpoint() {
+        assertEquals("endpoint1", config.getEndpointName());
+        DatabaseConfig.TargetConfig endpoint = new DatabaseConfig.TargetConfig();
+        endpoint.setJdbcUrl("jdbc:mysql://tidb2:4000/tpcc");
+        endpoint.setPoolSize(8);
+        DatabaseConfig resolved = config.forEndpoint(endpoint, 2);
+        assertEquals("endpoint2", resolved.getName());
+        assertEquals("mysql", resolved.getType());
+        assertEquals(8, resolved.getPool().getSize());
+
+        endpoint.setType("postgresql");
+        assertThrows(IllegalArgumentException.class, () -> config.forEndpoint(endpoint, 2));
+    }
+
     @Test
     @DisplayName("Should have non-null pool config by default")
     void testPoolConfigNotNull() {
@@ -1,10 +1,15 @@
 package com.ninedata.dbbench.database;
 
 import com.ninedata.dbbench.config.DatabaseConfig;
+import com.zaxxer.hikari.HikariConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @DisplayName("DatabaseAdapter Interface Tests")
@@ -138,6 +143,7 @@ class DatabaseAdapterTest {
             @Override public void close() {}
             @Override public void createSchema() {}
             @Override public void dropSchema() {}
+            @Override public void dropTables(String... tableNames) {}
             @Override public java.util.Map<String, Object> collectMetrics() { return new java.util.HashMap<>(); }
             @Override public String getDatabaseType() { return "Mock"; }
         };
@@ -145,4 +151,268 @@ class DatabaseAdapterTest {
         // Default implementation should return empty map
         assertTrue(mockAdapter.collectHostMetrics().isEmpty());
     }
+
+    @Test
+    @DisplayName("Adapters with procedure DDL should support stored procedure mode")
+    void testStoredProcedureSupport() {
+        DatabaseConfig config = new DatabaseConfig();
+        for (String type : new String[]{"mysql", "oceanbase", "postgresql", "oracle", "sqlserver", "db2"}) {
+            config.setType(type);
+            assertTrue(DatabaseFactory.create(config).supportsStoredProcedures(), type);
+        }
+        for (String type : new String[]{"tidb", "dameng", "sqlite"}) {
+            config.setType(type);
+            assertFalse(DatabaseFactory.create(config).supportsStoredProcedures(), type);
+        }
+    }
+
+    @Test
+    @DisplayName("Procedure call should use OUT status or function return depending on adapter")
+    void testBuildProcedureCall() {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setType("mysql");
+        assertEquals("{call tpcc_delivery(?, ?, ?)}", DatabaseFactory.create(config).buildProcedureCall("tpcc_delivery", 2));
+
+        config.setType("postgresql");
+        DatabaseAdapter pg = DatabaseFactory.create(config);
+        assertTrue(pg.procedureReturnsStatus());
+        assertEquals("{? = call tpcc_delivery(?, ?)}", pg.buildProcedureCall("tpcc_delivery", 2));
+    }
+
+    private static DatabaseAdapter adapter(String type) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setType(type);
+        return DatabaseFactory.create(config);
+    }
+
+    private static AbstractDatabaseAdapter adapter(String type, String jdbcUrl) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setType(type);
+        config.setJdbcUrl(jdbcUrl);
+        return (AbstractDatabaseAdapter) DatabaseFactory.create(config);
+    }
+
+    @Test
+    @DisplayName("Adapters should classify vendor deadlock and lock timeout codes")
+    void testClassifyError() {
+        assertEquals(ErrorCategory.DEADLOCK, adapter("mysql").classifyError(new SQLException("x", "40001", 1213)));
+        assertEquals(ErrorCategory.LOCK_TIMEOUT, adapter("mysql").classifyError(new SQLException("x", "HY000", 1205)));
+        assertEquals(ErrorCategory.SERIALIZATION, adapter("tidb").classifyError(new SQLException("x", "HY000", 9007)));
+        assertEquals(ErrorCategory.DEADLOCK, adapter("tidb").classifyError(new SQLException("x", "40001", 1213)));
+        assertEquals(ErrorCategory.SERIALIZATION, adapter("postgresql").classifyError(new SQLException("x", "40001")));
+        assertEquals(ErrorCategory.DEADLOCK, adapter("postgresql").classifyError(new SQLException("x", "40P01")));
+        assertEquals(ErrorCategory.LOCK_TIMEOUT, adapter("postgresql").classifyError(new SQLException("x", "55P03")));
+        assertEquals(ErrorCategory.DEADLOCK, adapter("oracle").classifyError(new SQLException("x", "61000", 60)));
+        assertEquals(ErrorCategory.SERIALIZATION, adapter("oracle").classifyError(new SQLException("x", "72000", 8177)));
+        assertEquals(ErrorCategory.LOCK_TIMEOUT, adapter("oracle").classifyError(new SQLException("x", "61000", 30006)));
+        assertEquals(ErrorCategory.DEADLOCK, adapter("sqlserver").classifyError(new SQLException("x", "40001", 1205)));
+        assertEquals(ErrorCategory.LOCK_TIMEOUT, adapter("sqlserver").classifyError(new SQLException("x", "S00051", 1222)));
+        assertEquals(ErrorCategory.DEADLOCK, adapter("db2").classifyError(new SQLException("SQLERRMC=2", "40001", -911)));
+        assertEquals(ErrorCategory.LOCK_TIMEOUT, adapter("db2").classifyError(new SQLException("SQLERRMC=68", "40001", -911)));
+        assertEquals(ErrorCategory.CONSTRAINT, adapter("mysql").classifyError(new SQLException("x", "23000", 1062)));
+    }
+
+    @Test
+    @DisplayName("Adapters should map snapshot isolation to their native level")
+    void testResolveIsolationLevel() {
+        assertEquals(Connection.TRANSACTION_REPEATABLE_READ, adapter("postgresql").resolveIsolationLevel(IsolationLevel.SNAPSHOT));
+        assertEquals(Connection.TRANSACTION_REPEATABLE_READ, adapter("mysql").resolveIsolationLevel(IsolationLevel.SNAPSHOT));
+        assertEquals(Connection.TRANSACTION_SERIALIZABLE, adapter("oracle").resolveIsolationLevel(IsolationLevel.SNAPSHOT));
+        assertEquals(Connection.TRANSACTION_SERIALIZABLE, adapter("oracle").resolveIsolationLevel(IsolationLevel.REPEATABLE_READ));
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, adapter("oracle").resolveIsolationLevel(IsolationLevel.READ_UNCOMMITTED));
+        assertEquals(4096, adapter("sqlserver").resolveIsolationLevel(IsolationLevel.SNAPSHOT));
+        assertEquals(Connection.TRANSACTION_SERIALIZABLE, adapter("sqlserver").resolveIsolationLevel(IsolationLevel.SERIALIZABLE));
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, adapter("db2").resolveIsolationLevel(IsolationLevel.SNAPSHOT));
+    }
+
+    @Test
+    @DisplayName("Adapters should render analytical SQL expressions in their dialect")
+    void testAnalyticalExpressions() {
+        assertEquals("MOD(a, 10)", adapter("mysql").modExpression("a", "10"));
+        assertEquals("(a) % 10", adapter("sqlserver").modExpression("a", "10"));
+        assertEquals("SUBSTR(c, 1, 1)", adapter("oracle").substringExpression("c", 1, 1));
+        assertEquals("SUBSTRING(c, 1, 1)", adapter("sqlserver").substringExpression("c", 1, 1));
+        assertEquals("ASCII(c)", adapter("postgresql").charCodeExpression("c"));
+        assertEquals("EXTRACT(YEAR FROM d)", adapter("postgresql").yearExpression("d"));
+        assertEquals("YEAR(d)", adapter("sqlserver").yearExpression("d"));
+    }
+
+    @Test
+    @DisplayName("Should map timestamp columns per dialect")
+    void testTimestampType() {
+        assertEquals("TIMESTAMP", adapter("postgresql").timestampType());
+        assertEquals("DATETIME2", adapter("sqlserver").timestampType());
+        assertEquals("DATETIME", adapter("sybase").timestampType());
+    }
+
+    @Test
+    @DisplayName("Should map 64-bit integers and report no table size by default")
+    void testBigintTypeAndTableSize() throws SQLException {
+        assertEquals("BIGINT", adapter("mysql").bigintType());
+        assertEquals("NUMBER(19)", adapter("oracle").bigintType());
+        assertEquals("NUMBER(19)", adapter("dameng").bigintType());
+        assertTrue(adapter("hana").collectTableSize(null, "ingest_events").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should read replication lag only where the database reports it")
+    void testReplicationLag() throws SQLException {
+        assertNull(adapter("hana").queryReplicaLag(null));
+        assertNull(adapter("tidb").queryReplicaLag(null));
+        assertTrue(adapter("db2").queryStandbyLags(null).isEmpty());
+
+        assertEquals(5000.0, OracleAdapter.parseIntervalMillis("+00 00:00:05"));
+        assertEquals(90061500.0, OracleAdapter.parseIntervalMillis("+01 01:01:01.500"));
+        assertNull(OracleAdapter.parseIntervalMillis(null));
+        assertNull(OracleAdapter.parseIntervalMillis("unknown"));
+    }
+
+    @Test
+    @DisplayName("Should partition warehouse-keyed tables in each database's native syntax")
+    void testPartitionedTableStatements() {
+        Partitioning hash = new Partitioning(PartitionMethod.HASH, 4, 10);
+        Partitioning range = new Partitioning(PartitionMethod.RANGE, 3, 10);
+
+        AbstractDatabaseAdapter mysql = (AbstractDatabaseAdapter) adapter("tidb");
+        assertTrue(mysql.supportsPartitioning());
+        assertEquals(List.of("CREATE TABLE stock (s_w_id INT) ENGINE=InnoDB PARTITION BY HASH (s_w_id) PARTITIONS 4"),
+                mysql.getPartitionedTableStatements("CREATE TABLE stock (s_w_id INT) ENGINE=InnoDB", "stock", "s_w_id", "", hash));
+        assertEquals("CREATE TABLE t (w_id INT) PARTITION BY RANGE (w_id) (PARTITION p0 VALUES LESS THAN (4), "
+                        + "PARTITION p1 VALUES LESS THAN (7), PARTITION p2 VALUES LESS THAN MAXVALUE)",
+                mysql.getPartitionedTableStatements("CREATE TABLE t (w_id INT)", "t", "w_id", "", range).get(0));
+
+        AbstractDatabaseAdapter oracle = (AbstractDatabaseAdapter) adapter("dameng");
+        assertTrue(oracle.getPartitionedTableStatements("CREATE TABLE t (w_id NUMBER)", "t", "w_id", "", range).get(0)
+                .endsWith("PARTITION p2 VALUES LESS THAN (MAXVALUE))"));
+
+        AbstractDatabaseAdapter postgres = (AbstractDatabaseAdapter) adapter("postgresql");
+        List<String> statements = postgres.getPartitionedTableStatements("CREATE TABLE t (w_id INT)", "t", "w_id", "", hash);
+        assertEquals(5, statements.size());
+        assertEquals("CREATE TABLE t (w_id INT) PARTITION BY HASH (w_id)", statements.get(0));
+        assertEquals("CREATE TABLE IF NOT EXISTS t_p3 PARTITION OF t FOR VALUES WITH (MODULUS 4, REMAINDER 3)",
+                statements.get(4));
+        statements = postgres.getPartitionedTableStatements("CREATE TABLE t (w_id INT)", "t", "w_id", "", range);
+        assertEquals("CREATE TABLE IF NOT EXISTS t_p0 PARTITION OF t FOR VALUES FROM (MINVALUE) TO (4)", statements.get(1));
+        assertEquals("CREATE TABLE IF NOT EXISTS t_p2 PARTITION OF t FOR VALUES FROM (7) TO (MAXVALUE)", statements.get(3));
+    }
+
+    @Test
+    @DisplayName("Should reject a partitioned schema where the adapter has no partition syntax")
+    void testPartitioningUnsupported() {
+        DatabaseAdapter sqlite = adapter("sqlite");
+        assertFalse(sqlite.supportsPartitioning());
+        SQLException e = assertThrows(SQLException.class,
+                () -> sqlite.createSchema(PhysicalDesign.of("", new Partitioning(PartitionMethod.HASH, 4, 10), 10)));
+        assertTrue(e.getMessage().contains("does not support a partitioned schema"));
+    }
+
+    @Test
+    @DisplayName("Should apply schema profiles to the CREATE TABLE statements")
+    void testSchemaProfiles() {
+        List<String> mysql = adapter("mysql").getSchemaStatements(PhysicalDesign.of("compressed", Partitioning.NONE, 10));
+        assertEquals(9, mysql.size());
+        assertTrue(mysql.stream().allMatch(sql -> sql.endsWith("ENGINE=InnoDB ROW_FORMAT=COMPRESSED KEY_BLOCK_SIZE=8")));
+
+        List<String> postgres = adapter("postgresql").getSchemaStatements(
+                PhysicalDesign.of("fillfactor", new Partitioning(PartitionMethod.HASH, 2, 10), 10));
+        assertTrue(postgres.contains("CREATE TABLE IF NOT EXISTS stock_p1 PARTITION OF stock "
+                + "FOR VALUES WITH (MODULUS 2, REMAINDER 1) WITH (fillfactor = 80)"));
+        assertTrue(postgres.contains("CREATE TABLE IF NOT EXISTS warehouse_p1 PARTITION OF warehouse "
+                + "FOR VALUES WITH (MODULUS 2, REMAINDER 1)"));
+
+        List<String> oracle = adapter("oracle").getSchemaStatements(PhysicalDesign.of("iot,hash-clusters", Partitioning.NONE, 2));
+        assertEquals(14, oracle.size());
+        assertEquals("CREATE CLUSTER tpcc_customer_cluster (c_w_id NUMBER, c_d_id NUMBER, c_id NUMBER) "
+                + "SINGLE TABLE HASHKEYS 60000 SIZE 704", oracle.get(2));
+        assertTrue(oracle.stream().anyMatch(sql -> sql.startsWith("CREATE TABLE item") && sql.endsWith("CLUSTER tpcc_item_cluster (i_id)")));
+        assertTrue(oracle.stream().anyMatch(sql -> sql.startsWith("CREATE TABLE new_order") && sql.endsWith("ORGANIZATION INDEX")));
+
+        List<String> sqlServer = adapter("sqlserver").getSchemaStatements(PhysicalDesign.of("columnstore-history", Partitioning.NONE, 1));
+        assertTrue(sqlServer.get(9).endsWith("CREATE CLUSTERED COLUMNSTORE INDEX cci_history ON history"));
+        assertEquals(adapter("sqlserver").getSchemaStatements(PhysicalDesign.DEFAULT).subList(0, 9), sqlServer.subList(0, 9));
+    }
+
+    @Test
+    @DisplayName("Should add foreign keys after the load in each dialect")
+    void testForeignKeys() {
+        PhysicalDesign design = PhysicalDesign.of("foreign-keys", Partitioning.NONE, 1);
+        List<String> postgres = adapter("postgresql").getConstraintStatements(design);
+        assertEquals(10, postgres.size());
+        assertEquals("ALTER TABLE stock ADD CONSTRAINT fk_stock_item FOREIGN KEY (s_i_id) REFERENCES item (i_id)", postgres.get(9));
+        assertTrue(adapter("gbase8s").getConstraintStatements(design).get(0).endsWith("REFERENCES warehouse (w_id) CONSTRAINT fk_district_warehouse"));
+        assertTrue(adapter("mysql").getConstraintStatements(PhysicalDesign.DEFAULT).isEmpty());
+        assertTrue(adapter("postgresql").getSchemaStatements(design).stream().noneMatch(sql -> sql.contains("FOREIGN KEY")));
+    }
+
+    @Test
+    @DisplayName("Should reject profiles the database does not offer or cannot combine")
+    void testSchemaProfileValidation() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> adapter("tidb").getSchemaStatements(PhysicalDesign.of("compressed", Partitioning.NONE, 1)));
+        assertEquals("Unknown schema profile for TiDB: compressed (available: foreign-keys)", e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> adapter("dameng").getSchemaStatements(PhysicalDesign.of("iot", Partitioning.NONE, 1)));
+        assertTrue(adapter("sqlite").getSchemaProfiles().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> adapter("mysql").getConstraintStatements(
+                PhysicalDesign.of("foreign-keys", new Partitioning(PartitionMethod.HASH, 4, 10), 10)));
+        assertThrows(IllegalArgumentException.class, () -> adapter("oracle").getSchemaStatements(
+                PhysicalDesign.of("hash-clusters", new Partitioning(PartitionMethod.HASH, 4, 10), 10)));
+        assertEquals(List.of("foreign-keys", "iot", "hash-clusters"), List.copyOf(adapter("oracle").getSchemaProfiles().keySet()));
+    }
+
+    @Test
+    @DisplayName("Should rewrite batches only when asked to")
+    void testBatchRewriteProperties() {
+        AbstractDatabaseAdapter mysql = adapter("mysql", "jdbc:mysql://127.0.0.1:3306/tpcc");
+        HikariConfig plain = new HikariConfig();
+        mysql.configureDataSource(plain);
+        assertFalse(plain.getDataSourceProperties().containsKey("rewriteBatchedStatements"));
+
+        mysql.setRewriteBatches(true);
+        HikariConfig batched = new HikariConfig();
+        mysql.configureDataSource(batched);
+        assertEquals("true", batched.getDataSourceProperties().get("rewriteBatchedStatements"));
+
+        AbstractDatabaseAdapter postgres = adapter("postgresql", "jdbc:postgresql://127.0.0.1:5432/tpcc?reWriteBatchedInserts=false");
+        postgres.setRewriteBatches(true);
+        HikariConfig fromUrl = new HikariConfig();
+        postgres.configureDataSource(fromUrl);
+        assertFalse(fromUrl.getDataSourceProperties().containsKey("reWriteBatchedInserts"));
+    }
+
+    @Test
+    @DisplayName("Should enable driver statement caching unless the URL configures it")
+    void testStatementCacheProperties() {
+        HikariConfig mysql = new HikariConfig();
+        adapter("mysql", "jdbc:mysql://127.0.0.1:3306/tpcc?prepStmtCacheSize=50").configureDataSource(mysql);
+        assertEquals("true", mysql.getDataSourceProperties().get("cachePrepStmts"));
+        assertFalse(mysql.getDataSourceProperties().containsKey("prepStmtCacheSize"));
+
+        HikariConfig sqlserver = new HikariConfig();
+        adapter("sqlserver", "jdbc:sqlserver://127.0.0.1:1433;databaseName=tpcc").configureDataSource(sqlserver);
+        assertEquals("false", sqlserver.getDataSourceProperties().get("disableStatementPooling"));
+
+        HikariConfig oracle = new HikariConfig();
+        adapter("oracle", "jdbc:oracle:thin:@127.0.0.1:1521/tpcc").configureDataSource(oracle);
+        assertEquals("250", oracle.getDataSourceProperties().get("oracle.jdbc.implicitStatementCacheSize"));
+        HikariConfig dameng = new HikariConfig();
+        adapter("dameng", "jdbc:dm://127.0.0.1:5236").configureDataSource(dameng);
+        assertTrue(dameng.getDataSourceProperties().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should limit ordered queries in each database's syntax")
+    void testLimitRows() {
+        String query = "SELECT a FROM t ORDER BY a";
+        assertEquals(query + " LIMIT ?", adapter("mysql").limitRows(query));
+        assertEquals(query + " FETCH FIRST ? ROWS ONLY", adapter("db2").limitRows(query));
+        assertEquals(query + " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY", adapter("sqlserver").limitRows(query));
+        assertEquals("SELECT * FROM (" + query + ") WHERE ROWNUM <= ?", adapter("oracle").limitRows(query));
+    }
+
+    @Test
+    @DisplayName("Should report no pool stats before the pool is created")
+    void testPoolStatsBeforeInitialize() {
+        assertTrue(adapter("mysql").getPoolStats().isEmpty());
+    }
 }
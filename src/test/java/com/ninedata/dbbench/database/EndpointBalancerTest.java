@@ -0,0 +1,169 @@
+package com.ninedata.dbbench.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EndpointBalancer Tests")
+class EndpointBalancerTest {
+
+    private final List<String> messages = new ArrayList<>();
+
+    private EndpointBalancer balancer(BalancePolicy policy, long ejectMillis) {
+        List<EndpointBalancer.Node> nodes = new ArrayList<>();
+        for (String name : List.of("tidb1", "tidb2", "tidb3")) {
+            nodes.add(new EndpointBalancer.Node(name, null));
+        }
+        return new EndpointBalancer(nodes, policy, 2, ejectMillis, (level, message) -> messages.add(level + " " + message));
+    }
+
+    private static String route(EndpointBalancer balancer, int warehouseId) {
+        EndpointBalancer.Node node = balancer.route(warehouseId);
+        balancer.complete(node, 1_000_000, null);
+        return node.name();
+    }
+
+    @Test
+    @DisplayName("Should parse balance policies")
+    void testPolicy() {
+        assertEquals(BalancePolicy.ROUND_ROBIN, BalancePolicy.fromString(""));
+        assertEquals(BalancePolicy.LEAST_LATENCY, BalancePolicy.fromString("least-latency"));
+        assertEquals(BalancePolicy.WAREHOUSE, BalancePolicy.fromString("WAREHOUSE"));
+        assertEquals("least-latency", BalancePolicy.LEAST_LATENCY.getLabel());
+        assertThrows(IllegalArgumentException.class, () -> BalancePolicy.fromString("random"));
+    }
+
+    @Test
+    @DisplayName("Should keep each terminal on one endpoint and assign terminals in turn")
+    void testRoundRobin() throws Exception {
+        EndpointBalancer balancer = balancer(BalancePolicy.ROUND_ROBIN, 1000);
+        String first = route(balancer, 1);
+        assertEquals(first, route(balancer, 7));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Set<String> others = new HashSet<>();
+            for (Future<String> terminal : executor.invokeAll(List.<Callable<String>>of(() -> route(balancer, 1), () -> route(balancer, 1)))) {
+                others.add(terminal.get());
+            }
+            others.add(first);
+            assertEquals(Set.of("tidb1", "tidb2", "tidb3"), others);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should map warehouses to endpoints")
+    void testWarehouse() {
+        EndpointBalancer balancer = balancer(BalancePolicy.WAREHOUSE, 1000);
+        assertEquals("tidb1", route(balancer, 1));
+        assertEquals("tidb2", route(balancer, 2));
+        assertEquals("tidb3", route(balancer, 3));
+        assertEquals("tidb1", route(balancer, 4));
+    }
+
+    @Test
+    @DisplayName("Should prefer the endpoint with the lowest latency and fewest transactions in flight")
+    void testLeastLatency() {
+        EndpointBalancer balancer = balancer(BalancePolicy.LEAST_LATENCY, 1000);
+        // Unmeasured endpoints are tried first, spread by transactions in flight
+        EndpointBalancer.Node first = balancer.route(1);
+        EndpointBalancer.Node second = balancer.route(1);
+        EndpointBalancer.Node third = balancer.route(1);
+        assertEquals(List.of("tidb1", "tidb2", "tidb3"), List.of(first.name(), second.name(), third.name()));
+        balancer.complete(first, 9_000_000, null);
+        balancer.complete(second, 1_000_000, null);
+        balancer.complete(third, 3_000_000, null);
+        assertEquals("tidb2", route(balancer, 1));
+
+        // Transactions in flight on tidb2 outweigh tidb3's higher latency
+        List<EndpointBalancer.Node> held = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            held.add(balancer.route(1));
+            assertEquals("tidb2", held.get(i).name());
+        }
+        assertEquals("tidb3", route(balancer, 1));
+        held.forEach(node -> balancer.complete(node, 1_000_000, null));
+        assertEquals("tidb2", route(balancer, 1));
+        // A failed transaction does not count as a latency sample
+        balancer.complete(balancer.route(1), 50_000_000, ErrorCategory.DEADLOCK);
+        assertEquals(1.0, balancer.summarize().get(1).get("recentLatencyMs"));
+    }
+
+    @Test
+    @DisplayName("Should measure a slow endpoint again once its latency is stale")
+    void testLatencyProbe() throws Exception {
+        EndpointBalancer balancer = balancer(BalancePolicy.LEAST_LATENCY, 1000);
+        List<EndpointBalancer.Node> nodes = List.of(balancer.route(1), balancer.route(1), balancer.route(1));
+        balancer.complete(nodes.get(0), 500_000_000, null);
+        balancer.complete(nodes.get(1), 1_000_000, null);
+        balancer.complete(nodes.get(2), 2_000_000, null);
+        assertEquals("tidb2", route(balancer, 1));
+
+        Thread.sleep(EndpointBalancer.PROBE_NANOS / 1_000_000 + 100);
+        // Every endpoint is stale now; the first one probed gets a fresh sample instead of an average
+        assertEquals("tidb1", route(balancer, 1));
+        assertEquals(1.0, balancer.summarize().get(0).get("recentLatencyMs"));
+    }
+
+    @Test
+    @DisplayName("Should take an endpoint out of rotation after consecutive connection errors and bring it back")
+    void testEjection() throws Exception {
+        EndpointBalancer balancer = balancer(BalancePolicy.WAREHOUSE, 100);
+
+        balancer.complete(balancer.route(2), 1_000_000, ErrorCategory.CONNECTION);
+        balancer.complete(balancer.route(2), 1_000_000, ErrorCategory.DEADLOCK);
+        balancer.complete(balancer.route(2), 1_000_000, ErrorCategory.CONNECTION);
+        assertEquals("tidb2", route(balancer, 2));
+
+        balancer.complete(balancer.route(2), 1_000_000, ErrorCategory.CONNECTION);
+        balancer.complete(balancer.route(2), 1_000_000, ErrorCategory.CONNECTION);
+        // Out of rotation: its warehouses go to the next endpoint
+        assertEquals("tidb3", route(balancer, 2));
+        assertEquals("EJECTED", balancer.summarize().get(1).get("state"));
+        assertEquals(1L, balancer.summarize().get(1).get("ejections"));
+        assertTrue(messages.stream().anyMatch(m -> m.startsWith("WARN Endpoint tidb2 taken out of rotation")));
+
+        Thread.sleep(150);
+        assertEquals("UP", balancer.summarize().get(1).get("state"));
+        // Back from the break, one connection error takes it out again
+        balancer.complete(balancer.route(2), 1_000_000, ErrorCategory.CONNECTION);
+        assertEquals("tidb3", route(balancer, 2));
+        assertEquals(2L, balancer.summarize().get(1).get("ejections"));
+
+        Thread.sleep(150);
+        assertEquals("tidb2", route(balancer, 2));
+        assertTrue(messages.contains("INFO Endpoint tidb2 back in rotation"));
+        assertEquals("UP", balancer.summarize().get(1).get("state"));
+    }
+
+    @Test
+    @DisplayName("Should keep routing when every endpoint is out of rotation")
+    void testAllEjected() {
+        EndpointBalancer balancer = balancer(BalancePolicy.WAREHOUSE, 60_000);
+        for (int warehouse = 1; warehouse <= 3; warehouse++) {
+            for (int i = 0; i < 2; i++) {
+                balancer.complete(balancer.route(warehouse), 1_000_000, ErrorCategory.CONNECTION);
+            }
+        }
+        assertTrue(balancer.summarize().stream().allMatch(row -> "EJECTED".equals(row.get("state"))));
+        assertEquals("tidb2", route(balancer, 2));
+        // A success puts it back
+        assertEquals("UP", balancer.summarize().get(1).get("state"));
+        assertEquals(0, balancer.summarize().get(1).get("inFlight"));
+    }
+
+    @Test
+    @DisplayName("Should reject an empty endpoint list or a non-positive error count")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EndpointBalancer(List.of(), BalancePolicy.ROUND_ROBIN, 3, 1000, (l, m) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new EndpointBalancer(
+                List.of(new EndpointBalancer.Node("a", null)), BalancePolicy.ROUND_ROBIN, 0, 1000, (l, m) -> { }));
+    }
+}
@@ -0,0 +1,43 @@
+package com.ninedata.dbbench.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ErrorCategory Tests")
+class ErrorCategoryTest {
+
+    @Test
+    @DisplayName("Only concurrency aborts should be retryable")
+    void testRetryable() {
+        assertTrue(ErrorCategory.DEADLOCK.isRetryable());
+        assertTrue(ErrorCategory.SERIALIZATION.isRetryable());
+        assertTrue(ErrorCategory.LOCK_TIMEOUT.isRetryable());
+        assertFalse(ErrorCategory.CONNECTION.isRetryable());
+        assertFalse(ErrorCategory.CONSTRAINT.isRetryable());
+        assertFalse(ErrorCategory.OTHER.isRetryable());
+    }
+
+    @Test
+    @DisplayName("Should classify standard SQLState classes")
+    void testFromSqlState() {
+        assertEquals(ErrorCategory.SERIALIZATION, ErrorCategory.fromSqlState(new SQLException("x", "40001")));
+        assertEquals(ErrorCategory.DEADLOCK, ErrorCategory.fromSqlState(new SQLException("x", "40P01")));
+        assertEquals(ErrorCategory.CONNECTION, ErrorCategory.fromSqlState(new SQLException("x", "08006")));
+        assertEquals(ErrorCategory.CONSTRAINT, ErrorCategory.fromSqlState(new SQLException("x", "23505")));
+        assertEquals(ErrorCategory.OTHER, ErrorCategory.fromSqlState(new SQLException("x", "42000")));
+        assertEquals(ErrorCategory.OTHER, ErrorCategory.fromSqlState(new SQLException("x", "40002")));
+        assertEquals(ErrorCategory.OTHER, ErrorCategory.fromSqlState(new SQLException("x", "40003")));
+        assertEquals(ErrorCategory.OTHER, ErrorCategory.fromSqlState(new SQLException("x")));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the JDBC exception subtype")
+    void testFromExceptionType() {
+        assertEquals(ErrorCategory.SERIALIZATION, ErrorCategory.fromSqlState(new SQLTransactionRollbackException("x")));
+    }
+}
@@ -0,0 +1,39 @@
+package com.ninedata.dbbench.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IsolationLevel Tests")
+class IsolationLevelTest {
+
+    @Test
+    @DisplayName("Should parse names and abbreviations")
+    void testFromString() {
+        assertEquals(IsolationLevel.DEFAULT, IsolationLevel.fromString(null));
+        assertEquals(IsolationLevel.DEFAULT, IsolationLevel.fromString(" "));
+        assertEquals(IsolationLevel.READ_COMMITTED, IsolationLevel.fromString("read-committed"));
+        assertEquals(IsolationLevel.READ_COMMITTED, IsolationLevel.fromString("READ_COMMITTED"));
+        assertEquals(IsolationLevel.READ_COMMITTED, IsolationLevel.fromString("rc"));
+        assertEquals(IsolationLevel.REPEATABLE_READ, IsolationLevel.fromString("Repeatable Read"));
+        assertEquals(IsolationLevel.SERIALIZABLE, IsolationLevel.fromString("serializable"));
+        assertEquals(IsolationLevel.SNAPSHOT, IsolationLevel.fromString("si"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown levels")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> IsolationLevel.fromString("chaos"));
+    }
+
+    @Test
+    @DisplayName("Should map to JDBC constants")
+    void testJdbcLevels() {
+        assertEquals(Connection.TRANSACTION_READ_COMMITTED, IsolationLevel.READ_COMMITTED.getJdbcLevel());
+        assertEquals(Connection.TRANSACTION_SERIALIZABLE, IsolationLevel.SERIALIZABLE.getJdbcLevel());
+        assertEquals(Connection.TRANSACTION_REPEATABLE_READ, IsolationLevel.SNAPSHOT.getJdbcLevel());
+    }
+}
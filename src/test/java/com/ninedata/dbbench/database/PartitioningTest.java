@@ -0,0 +1,56 @@
+package com.ninedata.dbbench.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Partitioning Tests")
+class PartitioningTest {
+
+    @Test
+    @DisplayName("Should parse partition methods")
+    void testMethod() {
+        assertEquals(PartitionMethod.HASH, PartitionMethod.fromString(null));
+        assertEquals(PartitionMethod.RANGE, PartitionMethod.fromString(" Range "));
+        assertEquals("hash", PartitionMethod.HASH.getLabel());
+        assertThrows(IllegalArgumentException.class, () -> PartitionMethod.fromString("list"));
+    }
+
+    @Test
+    @DisplayName("Should split the warehouses into contiguous ranges")
+    void testUpperBound() {
+        Partitioning partitioning = new Partitioning(PartitionMethod.RANGE, 4, 10);
+        assertEquals(List.of(3, 6, 8), List.of(partitioning.upperBound(0), partitioning.upperBound(1),
+                partitioning.upperBound(2)));
+        // The last partition is open-ended
+        assertThrows(IllegalArgumentException.class, () -> partitioning.upperBound(3));
+        assertEquals(0, partitioning.rangePartitionOf(1));
+        assertEquals(1, partitioning.rangePartitionOf(3));
+        assertEquals(3, partitioning.rangePartitionOf(10));
+        assertEquals(3, partitioning.rangePartitionOf(50));
+    }
+
+    @Test
+    @DisplayName("Should alternate the load order between range partitions")
+    void testLoadOrder() {
+        assertEquals(List.of(1, 3, 6, 8, 2, 4, 7, 9, 5, 10),
+                new Partitioning(PartitionMethod.RANGE, 4, 10).loadOrder(1, 10));
+        assertEquals(List.of(4, 6, 5), new Partitioning(PartitionMethod.RANGE, 2, 10).loadOrder(4, 6));
+        assertEquals(List.of(1, 2, 3, 4), new Partitioning(PartitionMethod.HASH, 2, 4).loadOrder(1, 4));
+        assertEquals(List.of(1, 2, 3), Partitioning.NONE.loadOrder(1, 3));
+    }
+
+    @Test
+    @DisplayName("Should validate and describe the partitioning")
+    void testValidation() {
+        assertFalse(Partitioning.NONE.isEnabled());
+        assertEquals("none", Partitioning.NONE.describe());
+        assertEquals("8 hash partitions", new Partitioning(PartitionMethod.HASH, 8, 2).describe());
+        assertEquals("1 range partition", new Partitioning(PartitionMethod.RANGE, 1, 2).describe());
+        assertThrows(IllegalArgumentException.class, () -> new Partitioning(PartitionMethod.HASH, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new Partitioning(PartitionMethod.RANGE, 4, 3));
+    }
+}
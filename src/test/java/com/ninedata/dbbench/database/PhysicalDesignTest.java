@@ -0,0 +1,32 @@
+package com.ninedata.dbbench.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PhysicalDesign Tests")
+class PhysicalDesignTest {
+
+    @Test
+    @DisplayName("Should parse a comma separated profile list")
+    void testOf() {
+        PhysicalDesign design = PhysicalDesign.of(" Compressed, foreign-keys,,compressed ", Partitioning.NONE, 10);
+        assertEquals(List.of("compressed", "foreign-keys"), design.profiles());
+        assertTrue(design.has(PhysicalDesign.FOREIGN_KEYS));
+        assertEquals("compressed,foreign-keys", design.getLabel());
+        assertEquals(10, design.warehouses());
+        assertFalse(design.isDefault());
+    }
+
+    @Test
+    @DisplayName("Should treat no profiles and no partitions as the default design")
+    void testDefault() {
+        assertTrue(PhysicalDesign.of("default", Partitioning.NONE, 10).isDefault());
+        assertTrue(PhysicalDesign.of(null, Partitioning.NONE, 10).isDefault());
+        assertEquals("default", PhysicalDesign.DEFAULT.getLabel());
+        assertFalse(PhysicalDesign.of("", new Partitioning(PartitionMethod.HASH, 4, 10), 10).isDefault());
+    }
+}
@@ -0,0 +1,79 @@
+package com.ninedata.dbbench.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReplicaRouter Tests")
+class ReplicaRouterTest {
+
+    private static final ReplicaRouter.Endpoint PRIMARY = new ReplicaRouter.Endpoint("primary", null);
+    private static final List<ReplicaRouter.Endpoint> REPLICAS = List.of(
+            new ReplicaRouter.Endpoint("replica1", null), new ReplicaRouter.Endpoint("replica2", null));
+    private static final Set<String> READS = Set.of("ORDER_STATUS", "STOCK_LEVEL");
+
+    @Test
+    @DisplayName("Should send writes to the primary and spread reads over the replicas")
+    void testRoute() {
+        ReplicaRouter router = new ReplicaRouter(PRIMARY, REPLICAS, READS, 1.0, 0);
+        assertSame(PRIMARY, router.route("NEW_ORDER"));
+        assertSame(PRIMARY, router.route("PAYMENT"));
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            counts.merge(router.route(i % 2 == 0 ? "ORDER_STATUS" : "STOCK_LEVEL").name(), 1, Integer::sum);
+        }
+        assertEquals(Map.of("replica1", 5, "replica2", 5), counts);
+    }
+
+    @Test
+    @DisplayName("Should keep the configured share of reads on the primary")
+    void testFraction() {
+        ReplicaRouter none = new ReplicaRouter(PRIMARY, REPLICAS, READS, 0.0, 0);
+        for (int i = 0; i < 100; i++) {
+            assertSame(PRIMARY, none.route("ORDER_STATUS"));
+        }
+
+        ReplicaRouter half = new ReplicaRouter(PRIMARY, REPLICAS, READS, 0.5, 0);
+        int onReplicas = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (half.route("STOCK_LEVEL") != PRIMARY) {
+                onReplicas++;
+            }
+        }
+        assertTrue(onReplicas > 4500 && onReplicas < 5500, "reads on replicas: " + onReplicas);
+    }
+
+    @Test
+    @DisplayName("Should keep a terminal's reads on the primary right after its writes")
+    void testReadYourWrites() throws InterruptedException {
+        ReplicaRouter router = new ReplicaRouter(PRIMARY, REPLICAS, READS, 1.0, 200);
+        assertNotSame(PRIMARY, router.route("ORDER_STATUS"));
+        router.route("NEW_ORDER");
+        assertSame(PRIMARY, router.route("ORDER_STATUS"));
+
+        // Another terminal has not written anything
+        ReplicaRouter.Endpoint[] other = new ReplicaRouter.Endpoint[1];
+        Thread thread = new Thread(() -> other[0] = router.route("ORDER_STATUS"));
+        thread.start();
+        thread.join();
+        assertNotSame(PRIMARY, other[0]);
+
+        Thread.sleep(250);
+        assertNotSame(PRIMARY, router.route("ORDER_STATUS"));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid fraction or a missing replica")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplicaRouter(PRIMARY, REPLICAS, READS, 1.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ReplicaRouter(PRIMARY, REPLICAS, READS, -0.1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ReplicaRouter(PRIMARY, List.of(), READS, 1.0, 0));
+    }
+}
@@ -0,0 +1,43 @@
+package com.ninedata.dbbench.database;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardRouter Tests")
+class ShardRouterTest {
+
+    @Test
+    @DisplayName("Should split warehouses into contiguous ranges as even as possible")
+    void testRanges() {
+        assertEquals("[[1, 5], [6, 10]]", describe(ShardRouter.ranges(10, 2)));
+        assertEquals("[[1, 3], [4, 6], [7, 10]]", describe(ShardRouter.ranges(10, 3)));
+        assertEquals("[[1, 1], [2, 2]]", describe(ShardRouter.ranges(2, 2)));
+
+        assertThrows(IllegalArgumentException.class, () -> ShardRouter.ranges(2, 3));
+        assertThrows(IllegalArgumentException.class, () -> ShardRouter.ranges(10, 0));
+    }
+
+    @Test
+    @DisplayName("Should route every warehouse to the shard holding it")
+    void testRoute() {
+        ShardRouter router = ShardRouter.split(List.of("shard1", "shard2", "shard3"), Arrays.asList(null, null, null), 10);
+        assertEquals(3, router.getShards().size());
+        assertEquals("shard1", router.route(1).name());
+        assertEquals("shard1", router.route(3).name());
+        assertEquals("shard2", router.route(4).name());
+        assertEquals("shard3", router.route(10).name());
+        assertEquals(7, router.route(8).firstWarehouse());
+
+        assertThrows(IllegalArgumentException.class, () -> router.route(11));
+        assertThrows(IllegalArgumentException.class, () -> new ShardRouter(List.of()));
+    }
+
+    private static String describe(List<int[]> ranges) {
+        return ranges.stream().map(Arrays::toString).toList().toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.ninedata.dbbench.distributed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Assignment Tests")
+class AssignmentTest {
+
+    @Test
+    @DisplayName("Should split warehouses into disjoint ranges and terminals evenly")
+    void testSplit() {
+        List<Assignment> assignments = Assignment.split(10, 50, 3);
+
+        assertEquals(List.of(new Assignment(1, 1, 3, 17), new Assignment(2, 4, 6, 17), new Assignment(3, 7, 10, 16)),
+                assignments);
+        assertEquals(50, assignments.stream().mapToInt(Assignment::terminals).sum());
+    }
+
+    @Test
+    @DisplayName("Should share warehouses when there are fewer than agents")
+    void testFewerWarehouses() {
+        List<Assignment> assignments = Assignment.split(1, 4, 2);
+
+        assertEquals(1, assignments.get(0).firstWarehouse());
+        assertEquals(1, assignments.get(1).lastWarehouse());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid splits")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> Assignment.split(10, 50, 0));
+        assertThrows(IllegalArgumentException.class, () -> Assignment.split(0, 50, 2));
+        assertThrows(IllegalArgumentException.class, () -> Assignment.split(10, 1, 2));
+    }
+}
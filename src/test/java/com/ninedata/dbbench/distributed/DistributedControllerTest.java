@@ -0,0 +1,118 @@
+package com.ninedata.dbbench.distributed;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DistributedController Tests")
+class DistributedControllerTest {
+
+    @Test
+    @DisplayName("Should assign, start in lockstep and merge interval reports")
+    void testRun() throws Exception {
+        BenchmarkConfig config = new BenchmarkConfig();
+        config.setWarehouses(4);
+        config.setTerminals(4);
+        config.setDuration(1);
+        config.getDistributed().setAgents(2);
+        config.getDistributed().setPort(freePort());
+        config.getDistributed().setConnectTimeout(10);
+        MetricsRegistry registry = new MetricsRegistry();
+        List<String> logs = Collections.synchronizedList(new ArrayList<>());
+        DistributedController controller = new DistributedController(config,
+                Map.of("benchmark", Map.of("workload", "tpcc")), registry, (level, message) -> logs.add(message));
+
+        CompletableFuture<Void> run = CompletableFuture.runAsync(() -> {
+            try {
+                controller.run();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        CompletableFuture<Map<String, Object>> first = fakeAgent(config, 2_000_000);
+        CompletableFuture<Map<String, Object>> second = fakeAgent(config, 8_000_000);
+        run.get(30, TimeUnit.SECONDS);
+
+        Set<Object> ranges = new HashSet<>();
+        for (Map<String, Object> assign : List.of(first.get(), second.get())) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> bench = (Map<String, Object>) ((Map<String, Object>) assign.get("config")).get("benchmark");
+            assertEquals("tpcc", bench.get("workload"));
+            assertEquals(2, bench.get("terminals"));
+            ranges.add(bench.get("firstWarehouse") + "-" + bench.get("lastWarehouse"));
+        }
+        assertEquals(Set.of("1-2", "3-4"), ranges);
+        assertEquals(2, registry.get("NEW_ORDER").getCount());
+        assertEquals(8.0, registry.get("NEW_ORDER").getMaxLatencyMs(), 0.2);
+        assertEquals(2.0, registry.get("NEW_ORDER").getPercentileLatencyMs(50), 0.1);
+        List<Map<String, Object>> summaries = controller.getAgentSummaries();
+        assertEquals(2, summaries.size());
+        assertEquals("DONE", summaries.get(0).get("state"));
+        assertEquals(1L, summaries.get(0).get("transactions"));
+    }
+
+    @Test
+    @DisplayName("Should give up when agents do not connect in time")
+    void testConnectTimeout() throws Exception {
+        BenchmarkConfig config = new BenchmarkConfig();
+        config.getDistributed().setAgents(1);
+        config.getDistributed().setPort(freePort());
+        config.getDistributed().setConnectTimeout(1);
+        DistributedController controller = new DistributedController(config, Map.of(), new MetricsRegistry(), (l, m) -> { });
+
+        Exception e = assertThrows(java.io.IOException.class, controller::run);
+        assertTrue(e.getMessage().contains("0 of 1 agents"));
+    }
+
+    /**
+     * Speak the agent side of the protocol, reporting one NEW_ORDER of the given latency.
+     */
+    private static CompletableFuture<Map<String, Object>> fakeAgent(BenchmarkConfig config, long latencyNanos) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                MessageChannel channel = connect(config.getDistributed().getPort());
+                channel.send("hello", Map.of("name", "fake"));
+                Map<String, Object> assign = channel.expect("assign", 10000);
+                channel.send("ready", Map.of());
+                channel.expect("start", 10000);
+                MetricsRegistry interval = new MetricsRegistry();
+                interval.recordTransaction("NEW_ORDER", true, latencyNanos, 4);
+                channel.send("interval", Map.of("counts", interval.exportCounts()));
+                channel.expect("stop", 10000);
+                channel.send("done", Map.of());
+                channel.close();
+                return assign;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static MessageChannel connect(int port) throws Exception {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return new MessageChannel(new Socket("127.0.0.1", port));
+            } catch (java.io.IOException e) {
+                if (attempt == 50) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
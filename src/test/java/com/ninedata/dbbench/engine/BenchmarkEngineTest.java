@@ -7,8 +7,11 @@ import com.ninedata.dbbench.metrics.OSMetricsCollector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -112,6 +115,233 @@ class BenchmarkEngineTest {
         assertEquals(40, updatedMix.get("payment"));
     }
 
+    @Test
+    @DisplayName("Should update the scenario file and apply phase settings to any config")
+    void testScenarioSettings() {
+        engine.updateConfig(Map.of("scenario", Map.of("file", "/tmp/capacity.yaml")));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> scenario = (Map<String, Object>) engine.getConfig().get("scenario");
+        assertEquals("/tmp/capacity.yaml", scenario.get("file"));
+
+        BenchmarkConfig other = new BenchmarkConfig();
+        BenchmarkEngine.applySettings(other, Map.of("transactionMix", Map.of("newOrder", 10),
+                "ycsb", Map.of("workload", "C")));
+        assertEquals(10, other.getMix().getNewOrder());
+        assertEquals("c", other.getYcsb().getWorkload());
+        assertEquals(45, benchConfig.getMix().getNewOrder());
+        assertThrows(IllegalArgumentException.class, () -> BenchmarkEngine.applySettings(other,
+                Map.of("ycsb", Map.of("workload", "z"))));
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should still go to the replicas after a live change")
+    void testReplicaRoutingAfterChange(@TempDir Path dir) throws Exception {
+        String url = "jdbc:sqlite:" + dir.resolve("primary.db");
+        engine.updateConfig(Map.of(
+                "database", Map.of("type", "sqlite", "jdbcUrl", url, "poolSize", 4,
+                        "replicas", List.of(Map.of("name", "replica1", "jdbcUrl", url))),
+                "benchmark", Map.of("workload", "sysbench", "terminals", 1, "duration", 60),
+                "sysbench", Map.of("test", "oltp_point_select", "tables", 1, "tableSize", 100)));
+        engine.loadData(message -> { });
+        engine.start();
+        try {
+            engine.control(Map.of("terminals", 2));
+            long before = metricsRegistry.getOrCreateDimension("endpoint", "replica1").getSuccessCount();
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (metricsRegistry.getOrCreateDimension("endpoint", "replica1").getSuccessCount() < before + 20
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertTrue(metricsRegistry.getOrCreateDimension("endpoint", "replica1").getSuccessCount() >= before + 20);
+        } finally {
+            engine.stop();
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should update the compared targets and the input seed")
+    @SuppressWarnings("unchecked")
+    void testTargetSettings() {
+        Map<String, Object> newConfig = new HashMap<>();
+        newConfig.put("database", Map.of("name", "mysql80", "targets",
+                List.of(Map.of("name", "mysql84", "jdbcUrl", "jdbc:mysql://other:3306/tpcc", "password", "secret"))));
+        newConfig.put("benchmark", Map.of("seed", 42));
+        engine.updateConfig(newConfig);
+
+        assertEquals(42, benchConfig.getSeed());
+        Map<String, Object> db = (Map<String, Object>) engine.getConfig().get("database");
+        assertEquals("mysql80", db.get("name"));
+        List<Map<String, Object>> targets = (List<Map<String, Object>>) db.get("targets");
+        assertEquals(1, targets.size());
+        assertEquals("mysql84", targets.get(0).get("name"));
+        assertEquals(true, targets.get(0).get("hasPassword"));
+        assertFalse(targets.get(0).containsKey("password"));
+        assertTrue(engine.getTargetSample().isEmpty());
+
+        newConfig.put("database", Map.of("targets", List.of(Map.of("name", "broken"))));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(newConfig));
+    }
+
+    @Test
+    @DisplayName("Should update the read replicas and their routing")
+    @SuppressWarnings("unchecked")
+    void testReplicaSettings() {
+        Map<String, Object> newConfig = new HashMap<>();
+        newConfig.put("database", Map.of("replicas", List.of(Map.of("jdbcUrl", "jdbc:mysql://replica:3306/tpcc"))));
+        newConfig.put("replica", Map.of("types", "ORDER_STATUS", "fraction", 0.5, "readYourWritesMs", 200, "lagIntervalMs", 100));
+        engine.updateConfig(newConfig);
+
+        assertEquals(1, dbConfig.getReplicas().size());
+        assertEquals("ORDER_STATUS", benchConfig.getReplica().getTypes());
+        assertEquals(0.5, benchConfig.getReplica().getFraction());
+        assertEquals(200, benchConfig.getReplica().getReadYourWritesMs());
+        Map<String, Object> db = (Map<String, Object>) engine.getConfig().get("database");
+        assertEquals(1, ((List<?>) db.get("replicas")).size());
+        Map<String, Object> replica = (Map<String, Object>) engine.getConfig().get("replica");
+        assertEquals(0.5, replica.get("fraction"));
+        assertEquals(100, replica.get("lagIntervalMs"));
+        assertTrue(engine.getLagSample().isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("replica", Map.of("fraction", 2))));
+    }
+
+    @Test
+    @DisplayName("Should apply and validate shard settings")
+    @SuppressWarnings("unchecked")
+    void testShardSettings() {
+        engine.updateConfig(Map.of("database", Map.of("shards", List.of(
+                Map.of("name", "east", "jdbcUrl", "jdbc:mysql://east:3306/tpcc"),
+                Map.of("jdbcUrl", "jdbc:mysql://west:3306/tpcc")))));
+
+        assertEquals(2, dbConfig.getShards().size());
+        List<Map<String, Object>> shards = (List<Map<String, Object>>) ((Map<String, Object>) engine.getConfig().get("database")).get("shards");
+        assertEquals("east", shards.get(0).get("name"));
+        assertEquals("jdbc:mysql://west:3306/tpcc", shards.get(1).get("jdbcUrl"));
+
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("database",
+                Map.of("shards", List.of(Map.of("type", "oracle", "jdbcUrl", "jdbc:oracle:thin:@east:1521/tpcc"))))));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("database",
+                Map.of("shards", List.of(Map.of("name", "nourl"))))));
+    }
+
+    @Test
+    @DisplayName("Should apply and validate endpoint balancing settings")
+    @SuppressWarnings("unchecked")
+    void testBalanceSettings() {
+        engine.updateConfig(Map.of("database", Map.of("endpoints", List.of(Map.of("name", "tidb2", "jdbcUrl", "jdbc:mysql://tidb2:4000/tpcc"))),
+                "balance", Map.of("policy", "least-latency", "ejectAfter", 5, "ejectMs", 1000)));
+
+        assertEquals(1, dbConfig.getEndpoints().size());
+        assertEquals("least-latency", benchConfig.getBalance().getPolicy());
+        assertEquals(5, benchConfig.getBalance().getEjectAfter());
+        assertEquals(1000, benchConfig.getBalance().getEjectMs());
+        List<Map<String, Object>> endpoints = (List<Map<String, Object>>) ((Map<String, Object>) engine.getConfig().get("database")).get("endpoints");
+        assertEquals("tidb2", endpoints.get(0).get("name"));
+        assertEquals(5, ((Map<String, Object>) engine.getConfig().get("balance")).get("ejectAfter"));
+
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("balance", Map.of("policy", "random"))));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("balance", Map.of("ejectAfter", 0))));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("database",
+                Map.of("endpoints", List.of(Map.of("type", "oracle", "jdbcUrl", "jdbc:oracle:thin:@east:1521/tpcc"))))));
+    }
+
+    @Test
+    @DisplayName("Should apply and validate short-connection settings")
+    @SuppressWarnings("unchecked")
+    void testShortConnectionSettings() {
+        engine.updateConfig(Map.of("shortConnection", Map.of("every", 10)));
+
+        assertEquals(10, benchConfig.getShortConnection().getEvery());
+        assertEquals(10, ((Map<String, Object>) engine.getConfig().get("shortConnection")).get("every"));
+        assertTrue(engine.getConnectionSample().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("shortConnection", Map.of("every", -1))));
+    }
+
+    @Test
+    @DisplayName("Should apply schema partitioning settings")
+    @SuppressWarnings("unchecked")
+    void testPartitionSettings() {
+        engine.updateConfig(Map.of("partition", Map.of("count", 8, "method", "range")));
+
+        assertEquals(8, benchConfig.getPartition().getCount());
+        Map<String, Object> partition = (Map<String, Object>) engine.getConfig().get("partition");
+        assertEquals(8, partition.get("count"));
+        assertEquals("range", partition.get("method"));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("partition", Map.of("count", -1))));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("partition", Map.of("method", "list"))));
+        assertEquals("range", benchConfig.getPartition().getMethod());
+    }
+
+    @Test
+    @DisplayName("Should apply and validate the schema profile")
+    @SuppressWarnings("unchecked")
+    void testSchemaSettings() {
+        engine.updateConfig(Map.of("database", Map.of("type", "postgresql"), "schema", Map.of("profile", "fillfactor")));
+
+        assertEquals("fillfactor", benchConfig.getSchema().getProfile());
+        Map<String, Object> schema = (Map<String, Object>) engine.getConfig().get("schema");
+        assertEquals("fillfactor", schema.get("profile"));
+        assertTrue(((Map<String, String>) schema.get("available")).containsKey("foreign-keys"));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("schema", Map.of("profile", "iot"))));
+        assertEquals("fillfactor", benchConfig.getSchema().getProfile());
+
+        // Not loaded by this engine: the results show the configured design
+        Map<String, Object> results = (Map<String, Object>) engine.getResults().get("schema");
+        assertEquals("fillfactor", results.get("profile"));
+        assertEquals(false, results.get("loaded"));
+    }
+
+    @Test
+    @DisplayName("Should apply and validate the statement profile")
+    @SuppressWarnings("unchecked")
+    void testStatementSettings() {
+        engine.updateConfig(Map.of("database", Map.of("type", "postgresql"), "statements", Map.of("profile", "returning")));
+
+        assertEquals("returning", benchConfig.getStatements().getProfile());
+        Map<String, Object> statements = (Map<String, Object>) engine.getConfig().get("statements");
+        assertEquals("returning", statements.get("profile"));
+        assertTrue(((Map<String, String>) statements.get("available")).containsKey("skip-locked"));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(Map.of("statements", Map.of("profile", "hints"))));
+        assertEquals("returning", benchConfig.getStatements().getProfile());
+
+        Map<String, Object> results = (Map<String, Object>) engine.getResults().get("statements");
+        assertEquals("returning", results.get("profile"));
+        assertEquals(4, ((List<String>) results.get("overridden")).size());
+    }
+
+    @Test
+    @DisplayName("Should apply availability settings and connection timeout")
+    @SuppressWarnings("unchecked")
+    void testAvailabilitySettings() {
+        engine.updateConfig(Map.of("database", Map.of("connectionTimeout", 2000),
+                "availability", Map.of("enabled", true, "outageThresholdMs", 1500, "recoveryRatio", 0.8, "backoffMs", 50)));
+
+        assertEquals(2000, dbConfig.getPool().getConnectionTimeout());
+        assertTrue(benchConfig.getAvailability().isEnabled());
+        assertEquals(1500, benchConfig.getAvailability().getOutageThresholdMs());
+        assertEquals(0.8, benchConfig.getAvailability().getRecoveryRatio());
+        assertEquals(50, benchConfig.getAvailability().getBackoffMs());
+        Map<String, Object> availability = (Map<String, Object>) engine.getConfig().get("availability");
+        assertEquals(1500, availability.get("outageThresholdMs"));
+        assertEquals(2000, ((Map<String, Object>) engine.getConfig().get("database")).get("connectionTimeout"));
+        assertTrue(engine.getAvailabilitySample().isEmpty());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.updateConfig(Map.of("availability", Map.of("recoveryRatio", 2))));
+    }
+
+    @Test
+    @DisplayName("Should list workloads and validate the selected one")
+    void testWorkloads() {
+        assertTrue(engine.getWorkloads().stream().anyMatch(w -> "tpcc".equals(w.get("name"))));
+        assertEquals("tpcc", engine.getWorkload().getName());
+
+        Map<String, Object> newConfig = new HashMap<>();
+        newConfig.put("benchmark", Map.of("workload", "unknown"));
+        assertThrows(IllegalArgumentException.class, () -> engine.updateConfig(newConfig));
+    }
+
     @Test
     @DisplayName("Should return results with status and metrics")
     void testGetResults() {
@@ -120,6 +350,8 @@ class BenchmarkEngineTest {
         assertNotNull(results);
         assertTrue(results.containsKey("status"));
         assertTrue(results.containsKey("metrics"));
+        assertTrue(results.containsKey("workloadMetrics"));
+        assertEquals("tpcc", results.get("workload"));
         assertEquals("IDLE", results.get("status"));
     }
 
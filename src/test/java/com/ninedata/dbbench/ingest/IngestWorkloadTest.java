@@ -0,0 +1,201 @@
+package com.ninedata.dbbench.ingest;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IngestWorkload Tests")
+class IngestWorkloadTest {
+
+    private IngestWorkload workload;
+    private BenchmarkConfig config;
+    private DatabaseAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        workload = new IngestWorkload();
+        config = new BenchmarkConfig();
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("mysql");
+        adapter = DatabaseFactory.create(dbConfig);
+    }
+
+    /** A PreparedStatement that only remembers its bound parameters. */
+    private static PreparedStatement capture(Map<Integer, Object> params) {
+        return (PreparedStatement) Proxy.newProxyInstance(IngestWorkloadTest.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("set") && args != null && args.length == 2) {
+                        params.put((Integer) args[0], args[1]);
+                    }
+                    return null;
+                });
+    }
+
+    @Test
+    @DisplayName("Should parse key patterns")
+    void testKeyPatterns() {
+        assertEquals(IngestKeyPattern.MONOTONIC, IngestKeyPattern.fromString(null));
+        assertEquals(IngestKeyPattern.UUID, IngestKeyPattern.fromString("uuid"));
+        assertEquals(IngestKeyPattern.TENANT, IngestKeyPattern.fromString(" Tenant "));
+        assertThrows(IllegalArgumentException.class, () -> IngestKeyPattern.fromString("snowflake"));
+    }
+
+    @Test
+    @DisplayName("Should size the payload to the row width and reject bad settings")
+    void testValidate() {
+        BenchmarkConfig.IngestConfig ingest = config.getIngest();
+        assertEquals(256 - 36, IngestWorkload.validate(ingest));
+        ingest.setKeyPattern("uuid");
+        assertEquals(256 - 64, IngestWorkload.validate(ingest));
+
+        ingest.setRowWidth(64);
+        assertThrows(IllegalArgumentException.class, () -> IngestWorkload.validate(ingest));
+        ingest.setRowWidth(256);
+        ingest.setSecondaryIndexes(7);
+        assertThrows(IllegalArgumentException.class, () -> IngestWorkload.validate(ingest));
+        ingest.setSecondaryIndexes(6);
+        ingest.setReadFraction(1.0);
+        assertThrows(IllegalArgumentException.class, () -> IngestWorkload.validate(ingest));
+        ingest.setReadFraction(0.5);
+        ingest.setBatchSize(0);
+        assertThrows(IllegalArgumentException.class, () -> IngestWorkload.validate(ingest));
+    }
+
+    @Test
+    @DisplayName("Should expose insert and read transactions without think time")
+    void testTransactionNames() {
+        assertEquals("ingest", workload.getName());
+        assertEquals(List.of("INSERT_BATCH", "READ_RECENT"), workload.getTransactionNames());
+        assertFalse(workload.usesThinkTime());
+        assertTrue(workload.describeMix(config).startsWith("monotonic keys"));
+        assertInstanceOf(IngestLoader.class, workload.createLoader(adapter, config));
+    }
+
+    @Test
+    @DisplayName("Monotonic keys should continue after the highest existing id")
+    void testMonotonicKeys() throws Exception {
+        IngestKeys keys = new IngestKeys(IngestKeyPattern.MONOTONIC, 10, 500, new long[0]);
+        Map<Integer, Object> params = new HashMap<>();
+        PreparedStatement ps = capture(params);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long expected = 501; expected <= 600; expected++) {
+            keys.bindNext(ps, random);
+            assertEquals(expected, params.get(2));
+            int tenant = (Integer) params.get(1);
+            assertTrue(tenant >= 1 && tenant <= 10);
+        }
+        assertEquals(600, keys.lastId(1));
+    }
+
+    @Test
+    @DisplayName("Tenant keys should increase within each tenant")
+    void testTenantKeys() throws Exception {
+        IngestKeys keys = new IngestKeys(IngestKeyPattern.TENANT, 3, 0, new long[]{10, 20, 30});
+        Map<Integer, Object> params = new HashMap<>();
+        PreparedStatement ps = capture(params);
+        Map<Integer, Long> last = new HashMap<>(Map.of(1, 10L, 2, 20L, 3, 30L));
+        for (int i = 0; i < 300; i++) {
+            keys.bindNext(ps, ThreadLocalRandom.current());
+            int tenant = (Integer) params.get(1);
+            long id = (Long) params.get(2);
+            assertEquals(last.get(tenant) + 1, id);
+            last.put(tenant, id);
+        }
+        for (int t = 1; t <= 3; t++) {
+            assertEquals(last.get(t), keys.lastId(t));
+        }
+
+        // Preloaded rows are spread round-robin over the tenants
+        IngestKeys.bindLoaded(ps, IngestKeyPattern.TENANT, 3, 7, ThreadLocalRandom.current());
+        assertEquals(2, params.get(1));
+        assertEquals(3L, params.get(2));
+        IngestKeys.bindLoaded(ps, IngestKeyPattern.MONOTONIC, 3, 7, ThreadLocalRandom.current());
+        assertEquals(8L, params.get(2));
+    }
+
+    @Test
+    @DisplayName("UUID keys should be distinct version 4 UUIDs")
+    void testUuidKeys() {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String uuid = IngestKeys.randomUuid(ThreadLocalRandom.current());
+            assertEquals(36, uuid.length());
+            assertEquals(4, java.util.UUID.fromString(uuid).version());
+            assertTrue(seen.add(uuid));
+        }
+    }
+
+    @Test
+    @DisplayName("Terminals should read at the configured fraction")
+    void testReadFraction() {
+        TransactionOptions options = new TransactionOptions();
+        config.getIngest().setReadFraction(0);
+        WorkloadTerminal terminal = workload.createTerminal(adapter, config, options, 0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("INSERT_BATCH", terminal.nextTransaction().getName());
+        }
+
+        config.setIngest(new BenchmarkConfig.IngestConfig());
+        config.getIngest().setReadFraction(0.5);
+        terminal = workload.createTerminal(adapter, config, options, 0);
+        int reads = 0;
+        for (int i = 0; i < 2000; i++) {
+            reads += "READ_RECENT".equals(terminal.nextTransaction().getName()) ? 1 : 0;
+        }
+        assertTrue(reads > 800 && reads < 1200, "reads: " + reads);
+    }
+
+    @Test
+    @DisplayName("Table growth should sample once per interval and stop when sizes are unavailable")
+    void testTableGrowth() {
+        AtomicLong sizeCalls = new AtomicLong();
+        DatabaseAdapter sized = (DatabaseAdapter) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DatabaseAdapter.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "collectTableSize" -> {
+                        long n = sizeCalls.incrementAndGet();
+                        yield Map.of("tableBytes", n * 1000, "indexBytes", n * 100);
+                    }
+                    case "getDatabaseType" -> "Stub";
+                    default -> null;
+                });
+        TableGrowth growth = new TableGrowth(sized, IngestWorkload.TABLE, 60, () -> 42);
+        growth.sampleIfDue();
+        growth.sampleIfDue();
+        assertEquals(1, sizeCalls.get(), "Second call is within the interval");
+        List<TableGrowth.Sample> samples = growth.getSamples();
+        assertEquals(1, samples.size());
+        assertEquals(42, samples.get(0).rows());
+        assertEquals(1000, samples.get(0).tableBytes());
+        assertEquals(100, samples.get(0).indexBytes());
+
+        // An adapter that reports nothing, like the default implementation
+        DatabaseAdapter unsized = (DatabaseAdapter) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{DatabaseAdapter.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "collectTableSize" -> Map.of();
+                    case "getDatabaseType" -> "Stub";
+                    default -> null;
+                });
+        TableGrowth unsupported = new TableGrowth(unsized, IngestWorkload.TABLE, 1, () -> 0);
+        unsupported.sampleIfDue();
+        assertFalse(unsupported.isSupported());
+        assertTrue(unsupported.getSamples().isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+package com.ninedata.dbbench.metrics;
+
+import com.ninedata.dbbench.database.ErrorCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AvailabilityTracker Tests")
+class AvailabilityTrackerTest {
+
+    private final List<String> messages = new ArrayList<>();
+    private AvailabilityTracker tracker;
+    private long base;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new AvailabilityTracker(2000, 0.9, (level, message) -> messages.add(level + " " + message));
+        base = System.currentTimeMillis();
+    }
+
+    private void succeed(int count, long at) {
+        for (int i = 0; i < count; i++) {
+            tracker.record(true, null, base + at);
+        }
+    }
+
+    private void fail(int count, long at) {
+        for (int i = 0; i < count; i++) {
+            tracker.record(false, ErrorCategory.CONNECTION, base + at);
+        }
+    }
+
+    private Map<String, Object> tick(int blocked, long at) {
+        return tracker.tick(blocked, Map.of(), false, base + at);
+    }
+
+    @Test
+    @DisplayName("Should time an outage from the last success to the first success and to full throughput")
+    void testOutageAndRecovery() {
+        for (int second = 1; second <= 5; second++) {
+            succeed(100, second * 1000L - 500);
+            tick(0, second * 1000L);
+        }
+        // Last success at 4500; still within the threshold at 6000
+        fail(10, 5500);
+        tick(0, 6000);
+        assertEquals(AvailabilityTracker.State.UP, tracker.getState());
+        fail(10, 6500);
+        Map<String, Object> down = tick(0, 7000);
+        assertEquals(AvailabilityTracker.State.DOWN, tracker.getState());
+        assertEquals("DOWN", down.get("state"));
+        assertEquals(10L, down.get("connectionErrors"));
+
+        succeed(50, 7500);
+        assertEquals(AvailabilityTracker.State.RECOVERING, tracker.getState());
+        tick(0, 8000);
+        assertEquals(AvailabilityTracker.State.RECOVERING, tracker.getState());
+        succeed(95, 8500);
+        tick(0, 9000);
+        assertEquals(AvailabilityTracker.State.UP, tracker.getState());
+
+        Map<String, Object> summary = tracker.summarize();
+        assertEquals("UP", summary.get("state"));
+        assertEquals(3000L, summary.get("downtimeMs"));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> outages = (List<Map<String, Object>>) summary.get("outages");
+        assertEquals(1, outages.size());
+        Map<String, Object> outage = outages.get(0);
+        assertEquals(3000L, outage.get("timeToFirstSuccessMs"));
+        assertEquals(4500L, outage.get("timeToFullThroughputMs"));
+        assertEquals(100.0, outage.get("baselineTps"));
+        assertEquals(10L, outage.get("failed"));
+        assertEquals(9, tracker.getTimeline().size());
+        assertTrue(messages.stream().anyMatch(m -> m.startsWith("WARN Outage")));
+    }
+
+    @Test
+    @DisplayName("Should detect an outage from blocked terminals alone")
+    void testBlockedOutage() {
+        succeed(10, 500);
+        tick(0, 1000);
+        tick(0, 2000);
+        assertEquals(AvailabilityTracker.State.UP, tracker.getState());
+        tick(4, 3000);
+        assertEquals(AvailabilityTracker.State.DOWN, tracker.getState());
+        tick(6, 4000);
+
+        Map<String, Object> outage = outages().get(0);
+        assertEquals(6L, outage.get("peakBlocked"));
+        assertNull(outage.get("timeToFirstSuccessMs"));
+        assertNull(outage.get("timeToFullThroughputMs"));
+    }
+
+    @Test
+    @DisplayName("Should not detect an outage while paused or before the first success")
+    void testIdle() {
+        fail(5, 500);
+        tick(3, 5000);
+        assertEquals(AvailabilityTracker.State.UP, tracker.getState());
+
+        succeed(10, 5500);
+        tracker.tick(3, Map.of(), true, base + 9000);
+        assertEquals(AvailabilityTracker.State.UP, tracker.getState());
+        // Resumed: the pause does not count against the threshold
+        fail(5, 9500);
+        tick(3, 10000);
+        assertEquals(AvailabilityTracker.State.UP, tracker.getState());
+        assertTrue(outages().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should record the pool's new connections and timeouts per second")
+    void testPoolChurn() {
+        tracker.tick(0, Map.of("active", 3L, "created", 5L, "timeouts", 0L), false, base + 1000);
+        Map<String, Object> entry = tracker.tick(0, Map.of("active", 8L, "waiting", 2L, "created", 12L, "timeouts", 1L),
+                false, base + 2000);
+        assertEquals(8L, entry.get("poolActive"));
+        assertEquals(2L, entry.get("poolWaiting"));
+        assertEquals(7L, entry.get("connectionsCreated"));
+        assertEquals(1L, entry.get("connectionTimeouts"));
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid threshold or recovery ratio")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new AvailabilityTracker(0, 0.9, (l, m) -> { }));
+        assertThrows(IllegalArgumentException.class, () -> new AvailabilityTracker(1000, 1.5, (l, m) -> { }));
+        assertEquals(1000, new AvailabilityTracker(1000, 1.0, (l, m) -> { }).getThresholdMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> outages() {
+        return (List<Map<String, Object>>) tracker.summarize().get("outages");
+    }
+}
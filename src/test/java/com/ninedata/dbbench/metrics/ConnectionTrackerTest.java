@@ -0,0 +1,86 @@
+package com.ninedata.dbbench.metrics;
+
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ConnectionTracker Tests")
+class ConnectionTrackerTest {
+
+    @Test
+    @DisplayName("Should make every Nth transaction of each terminal connect")
+    void testIsDue() throws Exception {
+        ConnectionTracker tracker = new ConnectionTracker(3);
+        List<Boolean> due = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            due.add(tracker.isDue());
+        }
+        assertEquals(List.of(false, false, true, false, false, true), due);
+
+        // Another terminal counts its own transactions
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertFalse(executor.submit(tracker::isDue).get());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(new ConnectionTracker(1).isDue());
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionTracker(0));
+    }
+
+    @Test
+    @DisplayName("Should open new connections with autocommit off and time them")
+    void testOpen(@TempDir Path dir) throws Exception {
+        DatabaseAdapter adapter = sqlite("jdbc:sqlite:" + dir.resolve("connect.db"));
+        ConnectionTracker tracker = new ConnectionTracker(1);
+        for (int i = 0; i < 3; i++) {
+            try (Connection conn = tracker.open(adapter)) {
+                assertFalse(conn.getAutoCommit());
+            }
+        }
+        Map<String, Object> sample = tracker.sample();
+        assertTrue((Double) sample.get("connectsPerSecond") > 0);
+        assertEquals(0L, sample.get("failures"));
+        assertEquals(0.0, tracker.sample().get("connectsPerSecond"));
+
+        Map<String, Object> summary = tracker.summarize();
+        assertEquals(1, summary.get("every"));
+        assertEquals(3L, summary.get("connects"));
+        assertEquals(0.0, summary.get("failureRate"));
+        assertTrue((Double) summary.get("maxConnectMs") >= (Double) summary.get("p50ConnectMs"));
+    }
+
+    @Test
+    @DisplayName("Should count failed connects")
+    void testFailure(@TempDir Path dir) {
+        DatabaseAdapter adapter = sqlite("jdbc:sqlite:" + dir.resolve("missing").resolve("connect.db"));
+        ConnectionTracker tracker = new ConnectionTracker(1);
+        assertThrows(SQLException.class, () -> tracker.open(adapter));
+        tracker.record(2_000_000);
+
+        assertEquals(1L, tracker.sample().get("failures"));
+        Map<String, Object> summary = tracker.summarize();
+        assertEquals(1L, summary.get("connects"));
+        assertEquals(1L, summary.get("failures"));
+        assertEquals(50.0, summary.get("failureRate"));
+        assertEquals(2.0, summary.get("avgConnectMs"));
+    }
+
+    private static DatabaseAdapter sqlite(String jdbcUrl) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setType("sqlite");
+        config.setJdbcUrl(jdbcUrl);
+        return DatabaseFactory.create(config);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ninedata.dbbench.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("Should return 0 when empty")
+    void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+
+    @Test
+    @DisplayName("Should keep values within the bucket precision")
+    void testPrecision() {
+        for (long value : new long[]{0, 1, 63, 64, 127, 1_000, 123_456, 5_000_000, 987_654_321L}) {
+            long bucketValue = LatencyHistogram.valueOf(LatencyHistogram.indexOf(value));
+            assertEquals(value, bucketValue, Math.max(1, value * 0.016), "value " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Bucket indexes should be monotonic and bounded")
+    void testIndexesMonotonic() {
+        int previous = -1;
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 / 2 + 1) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(index >= previous);
+            assertTrue(index < LatencyHistogram.BUCKET_COUNT);
+            previous = index;
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+        assertEquals(0, LatencyHistogram.indexOf(-5));
+    }
+
+    @Test
+    @DisplayName("Should compute percentiles")
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.0, histogram.getPercentileMs(50), 8.0);
+        assertEquals(990.0, histogram.getPercentileMs(99), 16.0);
+        assertEquals(1.0, histogram.getPercentileMs(0), 0.02);
+        assertEquals(1000.0, histogram.getPercentileMs(100), 16.0);
+    }
+
+    @Test
+    @DisplayName("Should merge counts and reset")
+    void testMergeAndReset() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        a.record(1_000);
+        b.record(2_000);
+        b.record(3_000);
+
+        a.merge(b);
+
+        assertEquals(3, a.getCount());
+        assertEquals(2, b.getCount());
+        a.reset();
+        assertEquals(0, a.getCount());
+    }
+
+    @Test
+    @DisplayName("Sparse buckets should rebuild the same histogram")
+    void testSparseRoundTrip() {
+        LatencyHistogram source = new LatencyHistogram();
+        for (long value : new long[]{500, 1_000_000, 1_000_000, 40_000_000}) {
+            source.record(value);
+        }
+        LatencyHistogram copy = new LatencyHistogram();
+        for (long[] bucket : source.toSparse()) {
+            copy.add((int) bucket[0], bucket[1]);
+        }
+
+        assertEquals(3, source.toSparse().size());
+        assertEquals(4, copy.getCount());
+        assertEquals(source.getPercentileNanos(50), copy.getPercentileNanos(50));
+        assertEquals(source.getPercentileNanos(99), copy.getPercentileNanos(99));
+        assertThrows(IllegalArgumentException.class, () -> copy.add(-1, 1));
+    }
+}
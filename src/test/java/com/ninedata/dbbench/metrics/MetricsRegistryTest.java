@@ -117,6 +117,10 @@ class MetricsRegistryTest {
         assertNotNull(snapshot.getTransactionMetrics());
         assertEquals(10, snapshot.getDatabaseMetrics().get("connections"));
         assertEquals(50.0, snapshot.getOsMetrics().get("cpuUsage"));
+        assertNull(snapshot.getReplicationLag());
+
+        registry.takeSnapshot(dbMetrics, osMetrics, Map.of("replica1", Map.of("heartbeatMs", 12.5)));
+        assertEquals(Map.of("heartbeatMs", 12.5), registry.getHistory().get(1).getReplicationLag().get("replica1"));
     }
 
     @Test
@@ -184,6 +188,85 @@ class MetricsRegistryTest {
         assertEquals(metrics1.get("elapsedSeconds"), metrics2.get("elapsedSeconds"));
     }
 
+    @Test
+    @DisplayName("Should average round trips per transaction")
+    void testRoundTrips() {
+        registry.reset();
+        registry.recordTransaction("NEW_ORDER", true, 1_000_000, 40);
+        registry.recordTransaction("NEW_ORDER", true, 1_000_000, 10);
+        registry.recordTransaction("PAYMENT", true, 1_000_000, 7);
+
+        Map<String, Object> metrics = registry.getCurrentMetrics();
+        assertEquals(19.0, metrics.get("avgRoundTrips"));
+        assertEquals(25.0, registry.getOrCreate("NEW_ORDER").getAverageRoundTrips());
+    }
+
+    @Test
+    @DisplayName("Should report rows only for transactions that count them")
+    @SuppressWarnings("unchecked")
+    void testRows() {
+        registry.reset();
+        registry.recordTransaction("GET_ORDER", true, 1_000_000, 2);
+        registry.recordRows("GET_ORDER", 10);
+        registry.recordTransaction("GET_ORDER", true, 1_000_000, 2);
+        registry.recordRows("GET_ORDER", 5);
+        registry.recordTransaction("PAYMENT", true, 1_000_000, 7);
+
+        List<Map<String, Object>> txs = (List<Map<String, Object>>) registry.getCurrentMetrics().get("transactions");
+        Map<String, Object> getOrder = txs.stream().filter(t -> "GET_ORDER".equals(t.get("name"))).findFirst().orElseThrow();
+        Map<String, Object> payment = txs.stream().filter(t -> "PAYMENT".equals(t.get("name"))).findFirst().orElseThrow();
+        assertEquals(15L, getOrder.get("rows"));
+        assertEquals(7.5, getOrder.get("avgRows"));
+        assertFalse(payment.containsKey("rows"));
+    }
+
+    @Test
+    @DisplayName("Should count expected rollbacks, retries and errors separately")
+    void testRollbackRetryAndErrors() {
+        registry.reset();
+        registry.recordTransaction("NEW_ORDER", true, 1_000_000, 10);
+        registry.recordRollback("NEW_ORDER", 1_000_000, 5);
+        registry.recordTransaction("NEW_ORDER", false, 1_000_000, 3);
+        registry.recordError("NEW_ORDER", "DEADLOCK");
+        registry.recordRetries("PAYMENT", 2, 4_000_000);
+        registry.recordTransaction("PAYMENT", true, 1_000_000, 7);
+
+        Map<String, Object> metrics = registry.getCurrentMetrics();
+        assertEquals(4L, metrics.get("totalTransactions"));
+        assertEquals(2L, metrics.get("totalSuccess"));
+        assertEquals(1L, metrics.get("totalRollback"));
+        assertEquals(1L, metrics.get("totalFailure"));
+        assertEquals(2L, metrics.get("totalRetries"));
+        assertEquals(75.0, metrics.get("overallSuccessRate"));
+        assertEquals(Map.of("DEADLOCK", 1L), metrics.get("errorsByCategory"));
+
+        TransactionMetrics newOrder = registry.getOrCreate("NEW_ORDER");
+        assertEquals(1, newOrder.getRollbackCount());
+        assertEquals(66.67, newOrder.getSuccessRate(), 0.01);
+        assertEquals(2.0, registry.getOrCreate("PAYMENT").getAverageRetryLatencyMs(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Should group transactions by dimension value")
+    @SuppressWarnings("unchecked")
+    void testDimensions() {
+        registry.reset();
+        registry.recordDimension("isolation", "SERIALIZABLE", true, false, 2_000_000, 1);
+        registry.recordDimension("isolation", "SERIALIZABLE", false, false, 4_000_000, 2);
+        registry.recordDimension("isolation", "SNAPSHOT READ ONLY", true, false, 1_000_000, 0);
+
+        Map<String, Object> dimensions = (Map<String, Object>) registry.getCurrentMetrics().get("dimensions");
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) dimensions.get("isolation");
+        assertEquals(2, rows.size());
+        Map<String, Object> serializable = rows.get(0);
+        assertEquals("SERIALIZABLE", serializable.get("name"));
+        assertEquals(2L, serializable.get("count"));
+        assertEquals(3L, serializable.get("retries"));
+        // 3 retries + 1 failure out of 5 attempts
+        assertEquals(80.0, serializable.get("abortRate"));
+        assertEquals(3.0, serializable.get("avgLatencyMs"));
+    }
+
     @Test
     @DisplayName("Should return zero metrics when empty")
     void testEmptyMetrics() {
@@ -214,4 +297,82 @@ class MetricsRegistryTest {
         List<Map<String, Object>> txMetrics = (List<Map<String, Object>>) metrics.get("transactions");
         assertEquals(5, txMetrics.size());
     }
+
+    @Test
+    @DisplayName("Should report latency percentiles and QPS")
+    void testPercentilesAndQps() {
+        for (int i = 1; i <= 100; i++) {
+            // two statements and the commit
+            registry.recordTransaction("POINT_SELECT", true, i * 1_000_000L, 3);
+            registry.recordQueries("POINT_SELECT", 2);
+        }
+
+        Map<String, Object> metrics = registry.getCurrentMetrics();
+
+        assertEquals(200L, metrics.get("totalQueries"));
+        assertEquals(3.0, metrics.get("avgRoundTrips"));
+        assertEquals(50.0, (Double) metrics.get("p50LatencyMs"), 1.0);
+        assertEquals(95.0, (Double) metrics.get("p95LatencyMs"), 1.5);
+        assertEquals(99.0, (Double) metrics.get("p99LatencyMs"), 1.5);
+        assertTrue((Double) metrics.get("qps") >= (Double) metrics.get("tps"));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> txMetrics = (List<Map<String, Object>>) metrics.get("transactions");
+        assertEquals(95.0, (Double) txMetrics.get(0).get("p95LatencyMs"), 1.5);
+    }
+
+    @Test
+    @DisplayName("Should tag metrics and snapshots with the scenario phase")
+    void testPhaseTag() {
+        registry.takeSnapshot(null, null);
+        assertFalse(registry.getCurrentMetrics().containsKey("phase"));
+        assertNull(registry.getHistory().get(0).getPhase());
+
+        registry.setPhase("warmup");
+        registry.takeSnapshot(null, null);
+        assertEquals("warmup", registry.getCurrentMetrics().get("phase"));
+        assertEquals("warmup", registry.getHistory().get(1).getPhase());
+
+        registry.reset();
+        assertFalse(registry.getCurrentMetrics().containsKey("phase"));
+    }
+
+    @Test
+    @DisplayName("Should keep annotations until reset")
+    void testAnnotations() {
+        registry.setPhase("spike");
+        Map<String, Object> annotation = registry.annotate("change", "terminals 32 -> 64");
+
+        assertEquals("change", annotation.get("type"));
+        assertEquals("terminals 32 -> 64", annotation.get("message"));
+        assertEquals("spike", annotation.get("phase"));
+        assertTrue(annotation.containsKey("elapsedSeconds"));
+        assertEquals(List.of(annotation), registry.getAnnotations());
+
+        registry.reset();
+        assertTrue(registry.getAnnotations().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should add exported counts of another registry, dimensions included")
+    void testExportImport() {
+        MetricsRegistry agent = new MetricsRegistry();
+        agent.reset();
+        agent.recordTransaction("NEW_ORDER", true, 2_000_000, 5);
+        agent.recordRollback("NEW_ORDER", 1_000_000, 3);
+        agent.recordQueries("NEW_ORDER", 6);
+        agent.recordDimension("isolation", "SERIALIZABLE", true, false, 2_000_000, 0);
+        registry.recordTransaction("NEW_ORDER", true, 4_000_000, 5);
+        registry.recordTransaction("PAYMENT", false, 1_000_000, 2);
+
+        registry.importCounts(agent.exportCounts());
+
+        assertEquals(3, registry.get("NEW_ORDER").getCount());
+        assertEquals(1, registry.get("NEW_ORDER").getRollbackCount());
+        assertEquals(13, registry.get("NEW_ORDER").getTotalRoundTrips());
+        assertEquals(6, registry.get("NEW_ORDER").getTotalQueries());
+        assertEquals(1, registry.get("PAYMENT").getCount());
+        assertEquals(1, registry.getOrCreateDimension("isolation", "SERIALIZABLE").getCount());
+        assertEquals(4L, registry.getCurrentMetrics().get("totalTransactions"));
+    }
 }
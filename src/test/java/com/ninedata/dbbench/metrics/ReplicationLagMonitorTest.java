@@ -0,0 +1,84 @@
+package com.ninedata.dbbench.metrics;
+
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ReplicationLagMonitor Tests")
+class ReplicationLagMonitorTest {
+
+    @Test
+    @DisplayName("Should measure lag from the oldest missing commit, or the last one's delay once caught up")
+    void testLagMillis() {
+        // Heartbeat value -> commit time; the one written at 1100 took 50 ms to commit
+        NavigableMap<Long, Long> beats = new ConcurrentSkipListMap<>(Map.of(1000L, 1010L, 1100L, 1150L, 1200L, 1205L));
+        // Behind: 1100 is the oldest heartbeat the replica has not shown
+        assertEquals(100.0, ReplicationLagMonitor.lagMillis(beats, 1000, -1, 1250, null));
+        // A value from before this run counts as missing every heartbeat
+        assertEquals(240.0, ReplicationLagMonitor.lagMillis(beats, 0, -1, 1250, null));
+        // Caught up: the newest heartbeat took 25 ms to show after its commit
+        assertEquals(25.0, ReplicationLagMonitor.lagMillis(beats, 1200, 1100, 1230, null));
+        // Still caught up on the next poll: the lag stays as measured
+        assertEquals(25.0, ReplicationLagMonitor.lagMillis(beats, 1200, 1200, 1290, 25.0));
+        // Seen before the writer recorded the commit
+        assertEquals(0.0, ReplicationLagMonitor.lagMillis(beats, 1300, 1200, 1310, 25.0));
+        // No heartbeat written yet
+        assertNull(ReplicationLagMonitor.lagMillis(new ConcurrentSkipListMap<>(), 0, -1, 1000, null));
+    }
+
+    @Test
+    @DisplayName("Should reject a monitor without replicas or interval")
+    void testValidation() {
+        DatabaseAdapter primary = sqlite(Path.of("unused.db"));
+        assertThrows(IllegalArgumentException.class, () -> new ReplicationLagMonitor(primary, Map.of(), 100, (l, m) -> {}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplicationLagMonitor(primary, Map.of("replica1", primary), 0, (l, m) -> {}));
+    }
+
+    @Test
+    @DisplayName("Should probe a replica through its own connections and summarize the lag")
+    @SuppressWarnings("unchecked")
+    void testProbe(@TempDir Path dir) throws Exception {
+        // The same SQLite file as primary and replica: every heartbeat shows up on the next poll
+        Path file = dir.resolve("lag.db");
+        DatabaseAdapter primary = sqlite(file);
+        DatabaseAdapter replica = sqlite(file);
+        List<String> logs = new ArrayList<>();
+        ReplicationLagMonitor monitor = new ReplicationLagMonitor(primary, Map.of("replica1", replica), 20,
+                (level, message) -> logs.add(level + " " + message));
+        monitor.start();
+        try {
+            Thread.sleep(400);
+            Map<String, Object> lag = (Map<String, Object>) monitor.sample().get("replica1");
+            assertNotNull(lag.get("heartbeatMs"));
+            assertTrue((Double) lag.get("heartbeatMs") < 1000);
+            assertNull(lag.get("reportedMs"));
+        } finally {
+            monitor.stop();
+        }
+        assertTrue(logs.isEmpty(), logs.toString());
+
+        Map<String, Object> summary = monitor.summarize().get(0);
+        assertEquals("replica1", summary.get("name"));
+        assertTrue((Long) summary.get("polls") > 0);
+        assertNotNull(summary.get("maxHeartbeatMs"));
+        assertEquals(1, monitor.getSamples().size());
+        assertTrue(monitor.getSamples().get(0).containsKey("elapsedSeconds"));
+    }
+
+    private static DatabaseAdapter sqlite(Path file) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setType("sqlite");
+        config.setJdbcUrl("jdbc:sqlite:" + file);
+        return DatabaseFactory.create(config);
+    }
+}
@@ -0,0 +1,88 @@
+package com.ninedata.dbbench.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TargetComparison Tests")
+class TargetComparisonTest {
+
+    private static TargetComparison comparison(MetricsRegistry baseline, MetricsRegistry candidate) {
+        Map<String, MetricsRegistry> targets = new LinkedHashMap<>();
+        targets.put("base", baseline);
+        targets.put("cand", candidate);
+        return new TargetComparison(targets);
+    }
+
+    @Test
+    @DisplayName("Should compute relative differences to the baseline")
+    void testDelta() {
+        assertEquals(50.0, TargetComparison.delta(150.0, 100.0));
+        assertEquals(-25.0, TargetComparison.delta(3L, 4L));
+        assertEquals(0.0, TargetComparison.delta(2.5, 2.5));
+        assertNull(TargetComparison.delta(10.0, 0.0));
+    }
+
+    @Test
+    @DisplayName("Should sample interval rows per target with deltas only for non-baseline targets")
+    void testSample() {
+        MetricsRegistry baseline = new MetricsRegistry();
+        MetricsRegistry candidate = new MetricsRegistry();
+        baseline.reset();
+        candidate.reset();
+        TargetComparison comparison = comparison(baseline, candidate);
+
+        for (int i = 0; i < 10; i++) {
+            baseline.recordTransaction("NEW_ORDER", true, 2_000_000, 1);
+        }
+        for (int i = 0; i < 20; i++) {
+            candidate.recordTransaction("NEW_ORDER", true, 1_000_000, 1);
+        }
+        candidate.recordTransaction("NEW_ORDER", false, 1_000_000, 1);
+
+        List<Map<String, Object>> rows = comparison.sample();
+        assertEquals(2, rows.size());
+        assertEquals("base", rows.get(0).get("name"));
+        assertFalse(rows.get(0).containsKey("intervalTpsDelta"));
+        assertEquals(2.0, rows.get(0).get("intervalAvgLatencyMs"));
+        assertEquals(0L, rows.get(0).get("intervalFailures"));
+        assertEquals("cand", rows.get(1).get("name"));
+        assertEquals(1.0, rows.get(1).get("intervalAvgLatencyMs"));
+        assertEquals(1L, rows.get(1).get("intervalFailures"));
+        assertEquals(110.0, (Double) rows.get(1).get("intervalTpsDelta"), 0.1);
+        assertEquals(-50.0, rows.get(1).get("intervalLatencyDelta"));
+
+        // The next interval only counts what happened since the last sample
+        candidate.recordTransaction("NEW_ORDER", true, 4_000_000, 1);
+        rows = comparison.sample();
+        assertEquals(0.0, rows.get(0).get("intervalAvgLatencyMs"));
+        assertEquals(4.0, rows.get(1).get("intervalAvgLatencyMs"));
+        assertNull(rows.get(1).get("intervalTpsDelta"));
+        assertEquals(2, comparison.getIntervals().size());
+        assertEquals(rows, comparison.getIntervals().get(1).get("targets"));
+    }
+
+    @Test
+    @DisplayName("Should summarize whole-run totals against the baseline")
+    void testSummarize() {
+        MetricsRegistry baseline = new MetricsRegistry();
+        MetricsRegistry candidate = new MetricsRegistry();
+        baseline.reset();
+        candidate.reset();
+        baseline.recordTransaction("PAYMENT", true, 2_000_000, 1);
+        candidate.recordTransaction("PAYMENT", true, 3_000_000, 1);
+
+        List<Map<String, Object>> rows = comparison(baseline, candidate).summarize();
+        assertEquals(2, rows.size());
+        assertEquals(1L, rows.get(0).get("totalTransactions"));
+        assertFalse(rows.get(0).containsKey("avgLatencyDelta"));
+        assertEquals(50.0, rows.get(1).get("avgLatencyDelta"));
+        assertTrue(rows.get(1).containsKey("tpsDelta"));
+        assertTrue(rows.get(1).containsKey("p99Delta"));
+    }
+}
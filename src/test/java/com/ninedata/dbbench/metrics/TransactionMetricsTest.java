@@ -1,9 +1,11 @@
 package com.ninedata.dbbench.metrics;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -186,4 +188,47 @@ class TransactionMetricsTest {
         metrics.recordSuccess(5_000_000); // 5ms - should not change max
         assertEquals(15.0, metrics.getMaxLatencyMs(), 0.01);
     }
+
+    @Test
+    @DisplayName("Imported counts should merge with local ones, histograms bucket by bucket")
+    void testExportImport() throws Exception {
+        metrics.recordSuccess(1_000_000);
+        metrics.recordRollback(2_000_000);
+        metrics.recordRetries(2, 500_000);
+        metrics.recordError("DEADLOCK");
+        TransactionMetrics remote = new TransactionMetrics("TEST_TX");
+        for (int i = 0; i < 98; i++) {
+            remote.recordSuccess(100_000_000);
+        }
+        remote.recordFailure(500_000);
+        remote.recordError("DEADLOCK");
+
+        // Through JSON, as an agent sends them
+        ObjectMapper mapper = new ObjectMapper();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> counts = mapper.readValue(mapper.writeValueAsString(remote.exportCounts()), Map.class);
+        metrics.importCounts(counts);
+
+        assertEquals(101, metrics.getCount());
+        assertEquals(99, metrics.getSuccessCount());
+        assertEquals(1, metrics.getRollbackCount());
+        assertEquals(1, metrics.getFailureCount());
+        assertEquals(2, metrics.getRetryCount());
+        assertEquals(2L, metrics.getErrorCounts().get("DEADLOCK"));
+        assertEquals(0.5, metrics.getMinLatencyMs(), 0.01);
+        assertEquals(100.0, metrics.getMaxLatencyMs(), 0.01);
+        assertEquals(100.0, metrics.getPercentileLatencyMs(50), 2.0);
+        assertEquals(1.0, metrics.getPercentileLatencyMs(1), 0.05);
+    }
+
+    @Test
+    @DisplayName("Importing empty counts should leave min and max untouched")
+    void testImportEmpty() {
+        metrics.recordSuccess(5_000_000);
+        metrics.importCounts(new TransactionMetrics("TEST_TX").exportCounts());
+
+        assertEquals(1, metrics.getCount());
+        assertEquals(5.0, metrics.getMinLatencyMs(), 0.01);
+        assertEquals(5.0, metrics.getMaxLatencyMs(), 0.01);
+    }
 }
@@ -0,0 +1,100 @@
+package com.ninedata.dbbench.pgbench;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PgbenchWorkload Tests")
+class PgbenchWorkloadTest {
+
+    private PgbenchWorkload workload;
+    private BenchmarkConfig config;
+    private DatabaseAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        workload = new PgbenchWorkload();
+        config = new BenchmarkConfig();
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("mysql");
+        adapter = DatabaseFactory.create(dbConfig);
+    }
+
+    @Test
+    @DisplayName("Should accept script names and unique prefixes")
+    void testScriptNames() {
+        assertEquals(PgbenchScript.TPCB_LIKE, PgbenchScript.fromString("tpcb-like"));
+        assertEquals(PgbenchScript.TPCB_LIKE, PgbenchScript.fromString("tpcb"));
+        assertEquals(PgbenchScript.SIMPLE_UPDATE, PgbenchScript.fromString("simple"));
+        assertEquals(PgbenchScript.SELECT_ONLY, PgbenchScript.fromString("SELECT_ONLY"));
+        assertEquals(PgbenchScript.TPCB_LIKE, PgbenchScript.fromString(null));
+        assertEquals("simple-update", PgbenchScript.SIMPLE_UPDATE.getScriptName());
+        assertThrows(IllegalArgumentException.class, () -> PgbenchScript.fromString("s"));
+        assertThrows(IllegalArgumentException.class, () -> PgbenchScript.fromString("tpcc"));
+    }
+
+    @Test
+    @DisplayName("Should parse weighted script lists")
+    void testParseMix() {
+        Map<PgbenchScript, Integer> mix = PgbenchScript.parseMix("tpcb-like@9, select@1");
+        assertEquals(List.of(PgbenchScript.TPCB_LIKE, PgbenchScript.SELECT_ONLY), List.copyOf(mix.keySet()));
+        assertEquals(9, mix.get(PgbenchScript.TPCB_LIKE));
+        assertEquals("tpcb-like@9,select-only@1", PgbenchScript.formatMix(mix));
+
+        assertEquals(Map.of(PgbenchScript.SIMPLE_UPDATE, 1), PgbenchScript.parseMix("simple-update"));
+        assertEquals("simple-update", PgbenchScript.formatMix(PgbenchScript.parseMix("simple-update")));
+        assertEquals(Map.of(PgbenchScript.TPCB_LIKE, 1), PgbenchScript.parseMix(""));
+
+        assertThrows(IllegalArgumentException.class, () -> PgbenchScript.parseMix("tpcb-like@x"));
+        assertThrows(IllegalArgumentException.class, () -> PgbenchScript.parseMix("tpcb-like@-1"));
+        assertThrows(IllegalArgumentException.class, () -> PgbenchScript.parseMix("tpcb-like@0"));
+    }
+
+    @Test
+    @DisplayName("Should report one transaction per built-in script")
+    void testTransactionNames() {
+        assertEquals("pgbench", workload.getName());
+        assertEquals(List.of("TPCB_LIKE", "SIMPLE_UPDATE", "SELECT_ONLY"), workload.getTransactionNames());
+        assertFalse(workload.usesThinkTime());
+        assertEquals("tpcb-like, scale 1", workload.describeMix(config));
+    }
+
+    @Test
+    @DisplayName("Should pick scripts by weight")
+    void testTerminalMix() {
+        config.getPgbench().setScript("select-only@3,simple-update@1");
+        WorkloadTerminal terminal = workload.createTerminal(adapter, config, new TransactionOptions(), 0);
+
+        Set<String> seen = new HashSet<>();
+        int selects = 0;
+        for (int i = 0; i < 4000; i++) {
+            String name = terminal.nextTransaction().getName();
+            seen.add(name);
+            if ("SELECT_ONLY".equals(name)) selects++;
+        }
+        assertEquals(Set.of("SELECT_ONLY", "SIMPLE_UPDATE"), seen);
+        assertTrue(selects > 2700 && selects < 3300, "select-only share: " + selects);
+    }
+
+    @Test
+    @DisplayName("Should load one branch per chunk")
+    void testLoader() {
+        config.getPgbench().setScale(3);
+        PgbenchLoader loader = (PgbenchLoader) workload.createLoader(adapter, config);
+        assertEquals(3, loader.getChunkCount());
+        assertEquals("pgbench: scale 3 (300000 accounts)", loader.describe());
+    }
+}
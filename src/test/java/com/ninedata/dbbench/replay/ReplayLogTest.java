@@ -0,0 +1,222 @@
+package com.ninedata.dbbench.replay;
+
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.ErrorCategory;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Replay Log Tests")
+class ReplayLogTest {
+
+    @TempDir
+    Path dir;
+
+    /** A transaction that only carries the value it was created with. */
+    record ValueTransaction(long value) implements WorkloadTransaction {
+        @Override
+        public String getName() {
+            return "VALUE";
+        }
+
+        @Override
+        public boolean execute() {
+            return true;
+        }
+
+        @Override
+        public int getRoundTrips() {
+            return 0;
+        }
+
+        @Override
+        public boolean isExpectedRollback() {
+            return false;
+        }
+
+        @Override
+        public int getRetries() {
+            return 0;
+        }
+
+        @Override
+        public long getRetryLatencyNanos() {
+            return 0;
+        }
+
+        @Override
+        public ErrorCategory getErrorCategory() {
+            return null;
+        }
+
+        @Override
+        public String getIsolationLabel() {
+            return "";
+        }
+    }
+
+    static class ValueCodec implements ReplayCodec {
+        @Override
+        public boolean write(WorkloadTransaction transaction, ByteBuffer out) {
+            if (((ValueTransaction) transaction).value() < 0) {
+                return false;
+            }
+            ReplayFormat.putVarLong(out, ((ValueTransaction) transaction).value());
+            return true;
+        }
+
+        @Override
+        public WorkloadTransaction read(ByteBuffer in, DatabaseAdapter adapter, TransactionOptions options) {
+            return new ValueTransaction(ReplayFormat.getVarLong(in));
+        }
+    }
+
+    static class CountingTerminal implements WorkloadTerminal {
+        private long next;
+
+        CountingTerminal(long first) {
+            this.next = first;
+        }
+
+        @Override
+        public WorkloadTransaction nextTransaction() {
+            return new ValueTransaction(next++);
+        }
+    }
+
+    private static List<Long> drain(ReplayTerminal terminal) {
+        List<Long> values = new ArrayList<>();
+        WorkloadTransaction tx;
+        while ((tx = terminal.nextTransaction()) != null) {
+            values.add(((ValueTransaction) tx).value());
+        }
+        return values;
+    }
+
+    @Test
+    @DisplayName("Variable-length integers and strings should round trip")
+    void testVarints() {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE};
+        for (long v : values) {
+            ReplayFormat.putVarLong(buffer, v);
+        }
+        ReplayFormat.putString(buffer, "BARBARBAR");
+        buffer.flip();
+        for (long v : values) {
+            assertEquals(v, ReplayFormat.getVarLong(buffer));
+        }
+        assertEquals("BARBARBAR", ReplayFormat.getString(buffer));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Each terminal should replay exactly its own recorded stream")
+    void testRoundTrip() throws IOException {
+        Path file = dir.resolve("run.replay");
+        ValueCodec codec = new ValueCodec();
+        // Enough records to span several 64 KB frames per terminal
+        int perTerminal = 50_000;
+        try (ReplayRecorder recorder = ReplayRecorder.create(file, "values", 2, System.nanoTime())) {
+            RecordingTerminal first = new RecordingTerminal(new CountingTerminal(0), recorder, codec, 0);
+            RecordingTerminal second = new RecordingTerminal(new CountingTerminal(1_000_000), recorder, codec, 1);
+            for (int i = 0; i < perTerminal; i++) {
+                first.nextTransaction();
+                second.nextTransaction();
+            }
+            assertEquals(2L * perTerminal, recorder.getRecordCount());
+        }
+
+        try (ReplayLog log = ReplayLog.open(file)) {
+            assertEquals("values", log.getWorkload());
+            assertEquals(2, log.getTerminalCount());
+            for (int t = 0; t < 2; t++) {
+                List<Long> values = drain(new ReplayTerminal(log.stream(t), codec, null, new TransactionOptions(),
+                        ReplayPacing.FAST, System.nanoTime()));
+                assertEquals(perTerminal, values.size());
+                assertEquals(t * 1_000_000L, values.get(0));
+                assertEquals(t * 1_000_000L + perTerminal - 1, values.get(perTerminal - 1));
+            }
+            assertNull(log.stream(5).next(), "Unknown terminals replay nothing");
+        }
+    }
+
+    @Test
+    @DisplayName("Transactions the codec does not handle should be skipped")
+    void testSkippedTransactions() throws IOException {
+        Path file = dir.resolve("skip.replay");
+        ValueCodec codec = new ValueCodec();
+        try (ReplayRecorder recorder = ReplayRecorder.create(file, "values", 1, System.nanoTime())) {
+            RecordingTerminal terminal = new RecordingTerminal(new CountingTerminal(-2), recorder, codec, 0);
+            for (int i = 0; i < 5; i++) {
+                assertNotNull(terminal.nextTransaction());
+            }
+            assertEquals(3, recorder.getRecordCount());
+        }
+        try (ReplayLog log = ReplayLog.open(file)) {
+            assertEquals(List.of(0L, 1L, 2L), drain(new ReplayTerminal(log.stream(0), codec, null,
+                    new TransactionOptions(), ReplayPacing.FAST, System.nanoTime())));
+        }
+    }
+
+    @Test
+    @DisplayName("Transactions handed out after close should be dropped and counted")
+    void testRecordAfterClose() throws IOException {
+        Path file = dir.resolve("late.replay");
+        ValueCodec codec = new ValueCodec();
+        ReplayRecorder recorder = ReplayRecorder.create(file, "values", 1, System.nanoTime());
+        RecordingTerminal terminal = new RecordingTerminal(new CountingTerminal(0), recorder, codec, 0);
+        terminal.nextTransaction();
+        recorder.close();
+        assertNotNull(terminal.nextTransaction(), "The terminal keeps running");
+        assertNotNull(terminal.nextTransaction());
+        assertEquals(1, recorder.getRecordCount());
+        assertEquals(2, recorder.getDroppedCount());
+        try (ReplayLog log = ReplayLog.open(file)) {
+            assertEquals(List.of(0L), drain(new ReplayTerminal(log.stream(0), codec, null,
+                    new TransactionOptions(), ReplayPacing.FAST, System.nanoTime())));
+        }
+    }
+
+    @Test
+    @DisplayName("Original pacing should keep the recorded offsets")
+    void testOriginalPacing() throws Exception {
+        Path file = dir.resolve("paced.replay");
+        ValueCodec codec = new ValueCodec();
+        try (ReplayRecorder recorder = ReplayRecorder.create(file, "values", 1, System.nanoTime())) {
+            RecordingTerminal terminal = new RecordingTerminal(new CountingTerminal(0), recorder, codec, 0);
+            terminal.nextTransaction();
+            Thread.sleep(150);
+            terminal.nextTransaction();
+        }
+        try (ReplayLog log = ReplayLog.open(file)) {
+            long start = System.nanoTime();
+            assertEquals(2, drain(new ReplayTerminal(log.stream(0), codec, null, new TransactionOptions(),
+                    ReplayPacing.ORIGINAL, start)).size());
+            assertTrue(System.nanoTime() - start >= 140_000_000L, "Second transaction waits for its offset");
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject files that are not replay logs")
+    void testBadFile() throws IOException {
+        Path file = dir.resolve("bogus.replay");
+        Files.writeString(file, "not a replay log");
+        assertThrows(IOException.class, () -> ReplayLog.open(file));
+        assertEquals(ReplayPacing.FAST, ReplayPacing.fromString("Fast"));
+        assertEquals(ReplayPacing.ORIGINAL, ReplayPacing.fromString(""));
+        assertThrows(IllegalArgumentException.class, () -> ReplayPacing.fromString("slow"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.ninedata.dbbench.scenario;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    @Test
+    @DisplayName("Should space starts across threads to the target rate")
+    void testRate() throws Exception {
+        RateLimiter limiter = new RateLimiter(200);
+        AtomicInteger acquired = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 25; i++) {
+                        limiter.acquire();
+                        acquired.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(100, acquired.get());
+        // 100 starts at 200/s take just under half a second
+        assertTrue(seconds >= 0.45, "took " + seconds + "s");
+        assertEquals(200.0, limiter.getRate());
+    }
+
+    @Test
+    @DisplayName("Should not burst after falling behind")
+    void testNoBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(100);
+        limiter.acquire();
+        Thread.sleep(200);
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            limiter.acquire();
+        }
+        // The first start is immediate, the other five 10 ms apart
+        assertTrue(System.nanoTime() - start >= 45_000_000L);
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive rate")
+    void testInvalidRate() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(-5));
+    }
+}
@@ -0,0 +1,118 @@
+package com.ninedata.dbbench.scenario;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Scenario Tests")
+class ScenarioTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Should load phases from YAML and expand terminal steps")
+    void testLoadYaml() throws Exception {
+        Path file = dir.resolve("capacity.yaml");
+        Files.writeString(file, """
+                phases:
+                  - name: warmup
+                    duration: 5m
+                    terminals: 32
+                  - name: step
+                    duration: 30s
+                    terminals: [64, 128]
+                    mix: {newOrder: 10, payment: 90}
+                  - name: cooldown
+                    duration: 1h
+                    rate: 200
+                    thinkTime: false
+                """);
+        Scenario scenario = Scenario.load(file);
+
+        assertEquals("capacity", scenario.name());
+        List<ScenarioPhase> phases = scenario.phases();
+        assertEquals(List.of("warmup", "step-64", "step-128", "cooldown"),
+                phases.stream().map(ScenarioPhase::name).toList());
+        assertEquals(300, phases.get(0).duration());
+        assertEquals(32, phases.get(0).terminals());
+        assertNull(phases.get(0).rate());
+        assertEquals(Map.of("transactionMix", Map.of("newOrder", 10, "payment", 90)), phases.get(1).settings());
+        assertTrue(phases.get(2).settings().isEmpty(), "settings apply at the first step only");
+        assertEquals(128, phases.get(2).terminals());
+        assertNull(phases.get(3).terminals());
+        assertEquals(200.0, phases.get(3).rate());
+        assertFalse(phases.get(3).thinkTime());
+        assertFalse(phases.get(3).changesTerminals());
+        assertEquals(300 + 30 + 30 + 3600, scenario.getDuration());
+    }
+
+    @Test
+    @DisplayName("Should load JSON with workload settings")
+    void testLoadJson() throws Exception {
+        Path file = dir.resolve("switch.json");
+        Files.writeString(file, """
+                {"name": "switch", "phases": [
+                  {"duration": 10, "workload": "ycsb", "ycsb": {"workload": "c"}},
+                  {"duration": "2m", "terminals": 8}
+                ]}
+                """);
+        Scenario scenario = Scenario.load(file);
+
+        assertEquals("switch", scenario.name());
+        ScenarioPhase first = scenario.phases().get(0);
+        assertEquals("phase-1", first.name());
+        assertEquals("ycsb", first.workload());
+        assertEquals(Map.of("workload", "c"), first.settings().get("ycsb"));
+        assertTrue(first.changesTerminals());
+        assertEquals(120, scenario.phases().get(1).duration());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid phases")
+    void testInvalidPhases() {
+        assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases", List.of())));
+        assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases", List.of(Map.of("terminals", 4)))));
+        assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases", List.of(Map.of("duration", "5 minutes")))));
+        assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases", List.of(Map.of("duration", 0)))));
+        assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases", List.of(Map.of("duration", 5, "terminals", 0)))));
+        assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases", List.of(Map.of("duration", 5, "rate", -1)))));
+        assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases", List.of(Map.of("duration", 5, "database", Map.of())))));
+        assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases", List.of(Map.of("duration", 5, "mix", 45)))));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> parse(Map.of("phases",
+                List.of(Map.of("name", "a", "duration", 5), Map.of("name", "a", "duration", 5)))));
+        assertTrue(e.getMessage().contains("duplicate"));
+    }
+
+    @Test
+    @DisplayName("Should parse a live change with the keys of a phase")
+    void testParseChange() {
+        ScenarioPhase change = Scenario.parseChange(Map.of("terminals", 64, "rate", 0, "note", "more load",
+                "mix", Map.of("newOrder", 60, "payment", 40)));
+
+        assertEquals(64, change.terminals());
+        assertEquals(0.0, change.rate());
+        assertNull(change.thinkTime());
+        assertEquals(Map.of("newOrder", 60, "payment", 40), change.settings().get("transactionMix"));
+        assertTrue(change.changesTerminals());
+
+        ScenarioPhase note = Scenario.parseChange(Map.of("note", "index rebuild started"));
+        assertFalse(note.changesTerminals());
+        assertNull(note.rate());
+
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parseChange(Map.of("duration", 10)));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parseChange(Map.of("terminals", List.of(1, 2))));
+        assertThrows(IllegalArgumentException.class, () -> Scenario.parseChange(Map.of("warehouses", 5)));
+    }
+
+    private static Scenario parse(Map<?, ?> root) {
+        return Scenario.parse(root, "test");
+    }
+}
@@ -0,0 +1,194 @@
+package com.ninedata.dbbench.sysbench;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SysbenchWorkload Tests")
+class SysbenchWorkloadTest {
+
+    private SysbenchWorkload workload;
+    private BenchmarkConfig config;
+    private DatabaseAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        workload = new SysbenchWorkload();
+        config = new BenchmarkConfig();
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("mysql");
+        adapter = DatabaseFactory.create(dbConfig);
+    }
+
+    @Test
+    @DisplayName("Should parse sysbench script names")
+    void testParseTest() {
+        assertEquals(SysbenchTest.OLTP_POINT_SELECT, SysbenchTest.fromString("oltp_point_select"));
+        assertEquals(SysbenchTest.OLTP_POINT_SELECT, SysbenchTest.fromString("point_select"));
+        assertEquals(SysbenchTest.OLTP_UPDATE_NON_INDEX, SysbenchTest.fromString("oltp-update-non-index.lua"));
+        assertEquals(SysbenchTest.OLTP_READ_WRITE, SysbenchTest.fromString(null));
+        assertEquals("oltp_read_only", SysbenchTest.OLTP_READ_ONLY.getScriptName());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> SysbenchTest.fromString("tpcc"));
+        assertTrue(e.getMessage().contains("oltp_insert"));
+    }
+
+    @Test
+    @DisplayName("Should apply and describe its settings section")
+    void testSettings() {
+        assertEquals("sysbench", workload.getSettingsKey());
+        workload.applySettings(config, Map.of("test", "point_select", "tables", 8));
+        Map<String, Object> settings = workload.describeSettings(config);
+        assertEquals("oltp_point_select", settings.get("test"));
+        assertEquals(8, settings.get("tables"));
+        assertEquals(10000, settings.get("tableSize"));
+        assertThrows(IllegalArgumentException.class, () -> workload.applySettings(config, Map.of("test", "tpcc")));
+    }
+
+    @Test
+    @DisplayName("Should expose every script as a transaction type")
+    void testTransactionNames() {
+        assertEquals("sysbench", workload.getName());
+        assertEquals(7, workload.getTransactionNames().size());
+        assertTrue(workload.getTransactionNames().contains("OLTP_POINT_SELECT"));
+        assertFalse(workload.usesThinkTime());
+        assertInstanceOf(SysbenchLoader.class, workload.createLoader(adapter, config));
+    }
+
+    @Test
+    @DisplayName("Should build statements for every table")
+    void testStatements() {
+        SysbenchTransaction.Statements sql = SysbenchTransaction.Statements.forTables(3);
+
+        assertEquals(3, sql.tables());
+        assertEquals("SELECT c FROM sbtest1 WHERE id = ?", sql.pointSelect()[0]);
+        assertEquals("SELECT DISTINCT c FROM sbtest3 WHERE id BETWEEN ? AND ? ORDER BY c", sql.distinctRange()[2]);
+        assertEquals("UPDATE sbtest2 SET k = k + 1 WHERE id = ?", sql.updateIndex()[1]);
+        assertEquals("INSERT INTO sbtest2 (id, k, c, pad) VALUES (?, ?, ?, ?)", sql.insert()[1]);
+    }
+
+    @Test
+    @DisplayName("Terminal should reuse one transaction for the configured script")
+    void testTerminalReusesTransaction(@TempDir Path dir) throws Exception {
+        DatabaseAdapter sqlite = sqlite(dir);
+        try {
+            config.getSysbench().setTables(1);
+            config.getSysbench().setTest("oltp_point_select");
+            workload.createSchema(sqlite, config);
+            workload.prepare(sqlite, config, new TransactionOptions());
+            WorkloadTerminal terminal = workload.createTerminal(sqlite, config, new TransactionOptions(), 0);
+
+            assertSame(terminal.nextTransaction(), terminal.nextTransaction());
+            assertEquals("OLTP_POINT_SELECT", terminal.nextTransaction().getName());
+        } finally {
+            sqlite.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not create terminals before the run is prepared")
+    void testTerminalNeedsPrepare() {
+        assertThrows(IllegalStateException.class,
+                () -> workload.createTerminal(adapter, config, new TransactionOptions(), 0));
+    }
+
+    @Test
+    @DisplayName("Replaced settings should keep the prepared insert ids")
+    void testReplacedSettingsKeepInsertIds(@TempDir Path dir) throws Exception {
+        DatabaseAdapter sqlite = sqlite(dir);
+        try {
+            config.getSysbench().setTables(1);
+            workload.createSchema(sqlite, config);
+            try (Connection conn = sqlite.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("INSERT INTO sbtest1 VALUES (20000, 1, 'c', 'pad')");
+                conn.commit();
+            }
+            TransactionOptions options = new TransactionOptions();
+            workload.configureOptions(config, options);
+            workload.prepare(sqlite, config, options);
+
+            BenchmarkConfig.SysbenchConfig phase = new BenchmarkConfig.SysbenchConfig();
+            phase.setTest("oltp_insert");
+            config.setSysbench(phase);
+            assertTrue(workload.createTerminal(sqlite, config, options, 0).nextTransaction().execute());
+            try (Connection conn = sqlite.getConnection(); Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT MAX(id) FROM sbtest1")) {
+                assertTrue(rs.next());
+                assertEquals(20001, rs.getLong(1));
+                conn.commit();
+            }
+        } finally {
+            sqlite.close();
+        }
+    }
+
+    private static DatabaseAdapter sqlite(Path dir) throws Exception {
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("sqlite");
+        dbConfig.setJdbcUrl("jdbc:sqlite:" + dir.resolve("sysbench.db"));
+        DatabaseAdapter sqlite = DatabaseFactory.create(dbConfig);
+        sqlite.initialize();
+        return sqlite;
+    }
+
+    @Test
+    @DisplayName("Should describe the script and table layout")
+    void testDescribeMix() {
+        config.getSysbench().setTables(8);
+        config.getSysbench().setTableSize(1000000);
+
+        assertEquals("oltp_read_write on 8 table(s) x 1000000 rows, range_size=100, rand_type=uniform",
+                workload.describeMix(config));
+    }
+
+    @Test
+    @DisplayName("Should split tables into load chunks")
+    void testLoaderChunks() {
+        assertEquals(1, SysbenchLoader.chunksPerTable(1));
+        assertEquals(1, SysbenchLoader.chunksPerTable(SysbenchLoader.CHUNK_ROWS));
+        assertEquals(3, SysbenchLoader.chunksPerTable(SysbenchLoader.CHUNK_ROWS * 2 + 1));
+    }
+
+    @Test
+    @DisplayName("Generated values should match sysbench's column formats")
+    void testRandomValues() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String c = SysbenchTransaction.randomC(random);
+        String pad = SysbenchTransaction.randomPad(random);
+
+        assertEquals(119, c.length());
+        assertEquals(59, pad.length());
+        assertTrue(c.matches("(\\d{11}-){9}\\d{11}"));
+        assertTrue(pad.matches("(\\d{11}-){4}\\d{11}"));
+    }
+
+    @Test
+    @DisplayName("Ids should stay in range and the special distribution should favour hot rows")
+    void testRandomIds() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int hot = 0;
+        for (int i = 0; i < 10000; i++) {
+            long uniform = SysbenchTransaction.randomId(random, 1000, false);
+            long special = SysbenchTransaction.randomId(random, 1000, true);
+            assertTrue(uniform >= 1 && uniform <= 1000);
+            assertTrue(special >= 1 && special <= 1000);
+            if (special <= 10) hot++;
+        }
+        assertTrue(hot > 6000, "hot rows drawn " + hot);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ninedata.dbbench.template;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SqlTemplate Tests")
+class SqlTemplateTest {
+
+    @Test
+    @DisplayName("Should replace named parameters with placeholders in order")
+    void testNamedParameters() {
+        SqlTemplate t = SqlTemplate.parse("SELECT * FROM orders WHERE id BETWEEN :r AND :r.end AND customer_id = :customer");
+        assertEquals("SELECT * FROM orders WHERE id BETWEEN ? AND ? AND customer_id = ?", t.sql());
+        assertArrayEquals(new String[]{"r", "r.end", "customer"}, t.parameters());
+    }
+
+    @Test
+    @DisplayName("Should leave literals, comments and casts alone")
+    void testLiteralsAndCasts() {
+        SqlTemplate t = SqlTemplate.parse(
+                "SELECT ':a', 'it''s :b', \"c:d\", x::text /* :e */ FROM t -- :f\nWHERE id = :id");
+        assertEquals("SELECT ':a', 'it''s :b', \"c:d\", x::text /* :e */ FROM t -- :f\nWHERE id = ?", t.sql());
+        assertArrayEquals(new String[]{"id"}, t.parameters());
+    }
+
+    @Test
+    @DisplayName("Should keep SQL without parameters unchanged")
+    void testNoParameters() {
+        SqlTemplate t = SqlTemplate.parse("SELECT COUNT(*) FROM orders");
+        assertEquals("SELECT COUNT(*) FROM orders", t.sql());
+        assertEquals(0, t.parameters().length);
+    }
+}
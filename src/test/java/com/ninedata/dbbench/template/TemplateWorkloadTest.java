@@ -0,0 +1,250 @@
+package com.ninedata.dbbench.template;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.database.IsolationLevel;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TemplateWorkload Tests")
+class TemplateWorkloadTest {
+
+    private static final String YAML = """
+            name: orders
+            tables: [orders]
+            schema:
+              - CREATE TABLE orders (id BIGINT PRIMARY KEY, customer_id INT)
+            load:
+              - sql: INSERT INTO orders (id, customer_id) VALUES (:id, :customer)
+                rows: 25000
+                params:
+                  id: {type: row}
+                  customer: {type: uniform, min: 1, max: 100}
+            transactions:
+              - name: GET_ORDER
+                weight: 3
+                readOnly: true
+                params:
+                  id: {type: zipfian, min: 1, max: 25000}
+                statements:
+                  - sql: SELECT customer_id FROM orders WHERE id = :id
+                    capture: [customer_id]
+                    dialects:
+                      SQL Server: SELECT TOP 1 customer_id FROM orders WHERE id = :id
+                  - SELECT COUNT(*) FROM orders WHERE customer_id = :customer_id
+              - name: SCAN
+                weight: 1
+                isolation: serializable
+                params:
+                  r: {type: range, min: 1, max: 25000, size: 10}
+                statements:
+                  - SELECT id FROM orders WHERE id BETWEEN :r AND :r.end
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private TemplateWorkload workload;
+    private BenchmarkConfig config;
+    private DatabaseAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = tempDir.resolve("orders.yaml");
+        Files.writeString(file, YAML);
+        workload = new TemplateWorkload();
+        config = new BenchmarkConfig();
+        config.getTemplate().setFile(file.toString());
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("mysql");
+        adapter = DatabaseFactory.create(dbConfig);
+    }
+
+    @Test
+    @DisplayName("Should read transactions and mix from the template file")
+    void testConfigure() {
+        assertEquals(List.of(), workload.getTransactionNames());
+        workload.configure(config);
+        assertEquals("template", workload.getName());
+        assertEquals(List.of("GET_ORDER", "SCAN"), workload.getTransactionNames());
+        assertEquals("orders: GET_ORDER=75%, SCAN=25%", workload.describeMix(config));
+        assertTrue(workload.getDescription().contains("orders.yaml"));
+    }
+
+    @Test
+    @DisplayName("Should read JSON template files")
+    void testJson() throws IOException {
+        Path file = tempDir.resolve("simple.json");
+        Files.writeString(file, "{\"name\": \"simple\", \"transactions\": [{\"name\": \"PING\", \"statements\": [\"SELECT 1\"]}]}");
+        config.getTemplate().setFile(file.toString());
+        workload.configure(config);
+        assertEquals(List.of("PING"), workload.getTransactionNames());
+    }
+
+    @Test
+    @DisplayName("Should require a template file")
+    void testNoFile() {
+        config.getTemplate().setFile("");
+        workload.configure(config);
+        assertThrows(IllegalStateException.class, () -> workload.describeMix(config));
+        config.getTemplate().setFile(tempDir.resolve("missing.yaml").toString());
+        assertThrows(IllegalArgumentException.class, () -> workload.configure(config));
+    }
+
+    @Test
+    @DisplayName("Should apply read-only and isolation settings from the file")
+    void testConfigureOptions() {
+        workload.configure(config);
+        TransactionOptions options = new TransactionOptions();
+        workload.configureOptions(config, options);
+        assertTrue(options.isReadOnly("GET_ORDER"));
+        assertFalse(options.isReadOnly("SCAN"));
+        assertEquals(IsolationLevel.SERIALIZABLE, options.getIsolationLevel("SCAN"));
+        assertFalse(options.isCountRoundTrips());
+    }
+
+    @Test
+    @DisplayName("Should pick transactions by weight")
+    void testTerminalMix() {
+        workload.configure(config);
+        WorkloadTerminal terminal = workload.createTerminal(adapter, config, new TransactionOptions(), 0);
+        assertFalse(terminal.usesThinkTime());
+        Set<String> seen = new HashSet<>();
+        int gets = 0;
+        for (int i = 0; i < 4000; i++) {
+            String name = terminal.nextTransaction().getName();
+            seen.add(name);
+            if ("GET_ORDER".equals(name)) gets++;
+        }
+        assertEquals(Set.of("GET_ORDER", "SCAN"), seen);
+        assertTrue(gets > 2700 && gets < 3300, "GET_ORDER share: " + gets);
+    }
+
+    @Test
+    @DisplayName("Should split load steps into chunks")
+    void testLoader() {
+        workload.configure(config);
+        TemplateLoader loader = (TemplateLoader) workload.createLoader(adapter, config);
+        assertEquals(3, loader.getChunkCount());
+        assertEquals("template: 1 step(s), 25000 rows", loader.describe());
+    }
+
+    @Test
+    @DisplayName("Should pick dialect variants by database type")
+    void testDialects() {
+        workload.configure(config);
+        TemplateStatement statement = workload.definition().transactions().get(0).statements().get(0);
+        DatabaseConfig sqlServer = new DatabaseConfig();
+        sqlServer.setType("sqlserver");
+        assertEquals("SELECT TOP 1 customer_id FROM orders WHERE id = ?",
+                statement.compile(DatabaseFactory.create(sqlServer)).sql());
+        assertEquals("SELECT customer_id FROM orders WHERE id = ?", statement.compile(adapter).sql());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown parameters, types and weights")
+    void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> TemplateDefinition.parse(Map.of(
+                "transactions", List.of(Map.of("name", "A", "statements", List.of("SELECT :x"))))));
+        assertThrows(IllegalArgumentException.class, () -> TemplateDefinition.parse(Map.of(
+                "transactions", List.of(Map.of("name", "A", "statements", List.of("SELECT :x"),
+                        "params", Map.of("x", Map.of("type", "gaussian")))))));
+        assertThrows(IllegalArgumentException.class, () -> TemplateDefinition.parse(Map.of(
+                "transactions", List.of(Map.of("name", "A", "weight", 0, "statements", List.of("SELECT 1"))))));
+        assertThrows(IllegalArgumentException.class, () -> TemplateDefinition.parse(Map.of(
+                "transactions", List.of(Map.of("name", "A", "statements", List.of("SELECT 1")),
+                        Map.of("name", "A", "statements", List.of("SELECT 2"))))));
+        // A captured column is only known to the statements after the capturing one
+        assertThrows(IllegalArgumentException.class, () -> TemplateDefinition.parse(Map.of(
+                "transactions", List.of(Map.of("name", "A", "statements", List.of(
+                        "SELECT :c", Map.of("sql", "SELECT c FROM t", "capture", List.of("c"))))))));
+    }
+
+    @Test
+    @DisplayName("Should keep captured values only from committed transactions")
+    void testCapturesAfterCommit() throws Exception {
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("sqlite");
+        dbConfig.setJdbcUrl("jdbc:sqlite:" + tempDir.resolve("captures.db"));
+        DatabaseAdapter sqlite = DatabaseFactory.create(dbConfig);
+        sqlite.initialize();
+        try {
+            try (Connection conn = sqlite.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE TABLE t (c INT)");
+                stmt.execute("INSERT INTO t VALUES (7)");
+                conn.commit();
+            }
+            TemplateDefinition definition = TemplateDefinition.parse(Map.of("transactions", List.of(
+                    Map.of("name", "FAILS", "statements", List.of(
+                            Map.of("sql", "SELECT c FROM t", "capture", List.of("c")), "INSERT INTO missing VALUES (:c)")),
+                    Map.of("name", "COMMITS", "statements", List.of(
+                            Map.of("sql", "SELECT c FROM t", "capture", List.of("c")))))));
+            CapturedValues captured = new CapturedValues();
+            TransactionOptions options = new TransactionOptions();
+
+            assertFalse(new TemplateTransaction(sqlite, options, definition.transactions().get(0), captured).execute());
+            assertNull(captured.pick("c"), "A rolled back attempt publishes nothing");
+            assertTrue(new TemplateTransaction(sqlite, options, definition.transactions().get(1), captured).execute());
+            assertEquals(7, ((Number) captured.pick("c")).intValue());
+        } finally {
+            sqlite.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate values of every parameter type")
+    void testGenerators() {
+        Map<String, ParameterGenerator> params = new LinkedHashMap<>();
+        params.put("u", ParameterGenerator.parse("u", Map.of("type", "uniform", "min", 5, "max", 7), "test"));
+        params.put("z", ParameterGenerator.parse("z", Map.of("type", "zipfian", "min", 1, "max", 10, "scrambled", false), "test"));
+        params.put("r", ParameterGenerator.parse("r", Map.of("type", "range", "min", 1, "max", 100, "size", 10), "test"));
+        params.put("s", ParameterGenerator.parse("s", Map.of("type", "string", "minLength", 3, "maxLength", 5), "test"));
+        params.put("d", ParameterGenerator.parse("d", Map.of("type", "decimal", "min", 1, "max", 2, "scale", 3), "test"));
+        params.put("c", ParameterGenerator.parse("c", Map.of("type", "choice", "values", List.of("A", "B")), "test"));
+        params.put("row", ParameterGenerator.parse("row", Map.of("type", "row"), "test"));
+        params.put("k", ParameterGenerator.parse("k", "fixed", "test"));
+        params.put("cap", ParameterGenerator.parse("cap", Map.of("type", "captured", "from", "id",
+                "default", Map.of("type", "constant", "value", -1)), "test"));
+
+        CapturedValues captured = new CapturedValues();
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            ParameterGenerator.generateAll(params, values, 42, captured);
+            assertTrue((Long) values.get("u") >= 5 && (Long) values.get("u") <= 7);
+            assertTrue((Long) values.get("z") >= 1 && (Long) values.get("z") <= 10);
+            assertEquals((Long) values.get("r") + 9, values.get("r.end"));
+            assertTrue((Long) values.get("r.end") <= 100);
+            int length = ((String) values.get("s")).length();
+            assertTrue(length >= 3 && length <= 5);
+            assertEquals(3, ((BigDecimal) values.get("d")).scale());
+            assertTrue(Set.of("A", "B").contains(values.get("c")));
+            assertEquals(42L, values.get("row"));
+            assertEquals("fixed", values.get("k"));
+            assertEquals(-1, values.get("cap"));
+        }
+        captured.add("id", 99L);
+        ParameterGenerator.generateAll(params, values, 0, captured);
+        assertEquals(99L, values.get("cap"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ninedata.dbbench.tpcc;
+
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.tpcc.transaction.*;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TPCCReplayCodec Tests")
+class TPCCReplayCodecTest {
+
+    private final TPCCReplayCodec codec = new TPCCReplayCodec();
+    private final TransactionOptions options = new TransactionOptions();
+    private DatabaseAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("mysql");
+        adapter = DatabaseFactory.create(dbConfig);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends WorkloadTransaction> T roundTrip(T transaction) {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        assertTrue(codec.write(transaction, buffer));
+        buffer.flip();
+        WorkloadTransaction copy = codec.read(buffer, adapter, options);
+        assertFalse(buffer.hasRemaining(), "Record should be consumed exactly");
+        assertEquals(transaction.getClass(), copy.getClass());
+        assertEquals(((AbstractTransaction) transaction).getWarehouseId(), ((AbstractTransaction) copy).getWarehouseId());
+        assertEquals(((AbstractTransaction) transaction).getDistrictId(), ((AbstractTransaction) copy).getDistrictId());
+        return (T) copy;
+    }
+
+    @Test
+    @DisplayName("New-Order inputs should round trip")
+    void testNewOrder() {
+        for (int i = 0; i < 50; i++) {
+            NewOrderTransaction tx = new NewOrderTransaction(adapter, 7, 3, options);
+            NewOrderTransaction copy = roundTrip(tx);
+            assertEquals(tx.getCustomerId(), copy.getCustomerId());
+            assertEquals(tx.getOrderLineCount(), copy.getOrderLineCount());
+            assertArrayEquals(tx.getItemIds(), copy.getItemIds());
+            assertArrayEquals(tx.getSupplyWIds(), copy.getSupplyWIds());
+            assertArrayEquals(tx.getQuantities(), copy.getQuantities());
+        }
+    }
+
+    @Test
+    @DisplayName("Payment and Order-Status should keep customer selection by id or last name")
+    void testCustomerSelection() {
+        boolean byName = false;
+        boolean byId = false;
+        for (int i = 0; i < 200; i++) {
+            PaymentTransaction payment = new PaymentTransaction(adapter, 2, 9, options);
+            PaymentTransaction paymentCopy = roundTrip(payment);
+            assertEquals(payment.getAmount(), paymentCopy.getAmount());
+            assertEquals(payment.getCustomerId(), paymentCopy.getCustomerId());
+            assertEquals(payment.getCustomerLastName(), paymentCopy.getCustomerLastName());
+            OrderStatusTransaction status = new OrderStatusTransaction(adapter, 2, 9, options);
+            OrderStatusTransaction statusCopy = roundTrip(status);
+            assertEquals(status.getCustomerId(), statusCopy.getCustomerId());
+            assertEquals(status.getCustomerLastName(), statusCopy.getCustomerLastName());
+            byName |= status.getCustomerLastName() != null;
+            byId |= status.getCustomerLastName() == null;
+        }
+        assertTrue(byName && byId, "Both selection modes should occur");
+
+        PaymentTransaction tx = new PaymentTransaction(adapter, 1, 1, options, StatementCatalog.of(adapter), 1234.56, 0, "OUGHTPRICALLY");
+        PaymentTransaction copy = roundTrip(tx);
+        assertEquals(1234.56, copy.getAmount());
+        assertEquals("OUGHTPRICALLY", copy.getCustomerLastName());
+        copy = roundTrip(new PaymentTransaction(adapter, 1, 1, options, StatementCatalog.of(adapter), 10.0, 2999, null));
+        assertEquals(2999, copy.getCustomerId());
+        assertNull(copy.getCustomerLastName());
+    }
+
+    @Test
+    @DisplayName("Delivery and Stock-Level inputs should round trip")
+    void testDeliveryAndStockLevel() {
+        DeliveryTransaction delivery = new DeliveryTransaction(adapter, 4, 1, options);
+        assertEquals(delivery.getCarrierId(), roundTrip(delivery).getCarrierId());
+        StockLevelTransaction stockLevel = new StockLevelTransaction(adapter, 4, 10, options);
+        assertEquals(stockLevel.getThreshold(), roundTrip(stockLevel).getThreshold());
+    }
+}
@@ -0,0 +1,194 @@
+package com.ninedata.dbbench.tpcc;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.database.PartitionMethod;
+import com.ninedata.dbbench.database.Partitioning;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.sysbench.SysbenchWorkload;
+import com.ninedata.dbbench.tpcc.loader.TPCCLoader;
+import com.ninedata.dbbench.tpcc.transaction.StatementCatalog;
+import com.ninedata.dbbench.workload.ExecutionMode;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TPCCWorkload Tests")
+class TPCCWorkloadTest {
+
+    private TPCCWorkload workload;
+    private BenchmarkConfig config;
+    private DatabaseAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        workload = new TPCCWorkload();
+        config = new BenchmarkConfig();
+        config.setWarehouses(2);
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("mysql");
+        adapter = DatabaseFactory.create(dbConfig);
+    }
+
+    @Test
+    @DisplayName("Should expose the five TPC-C transactions")
+    void testTransactionNames() {
+        assertEquals("tpcc", workload.getName());
+        assertEquals(List.of("NEW_ORDER", "PAYMENT", "ORDER_STATUS", "DELIVERY", "STOCK_LEVEL"), workload.getTransactionNames());
+        assertEquals(Set.of("ORDER_STATUS", "STOCK_LEVEL"), workload.getReadOnlyTransactionNames());
+        assertInstanceOf(TPCCLoader.class, workload.createLoader(adapter, config));
+        assertInstanceOf(TPCCLoader.class, workload.createShardLoader(adapter, config, 2, 2));
+        assertNull(new SysbenchWorkload().createShardLoader(adapter, config, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Terminals should be spread over warehouses and districts")
+    void testTerminalAssignment() {
+        TransactionOptions options = new TransactionOptions();
+        TPCCTerminal first = (TPCCTerminal) workload.createTerminal(adapter, config, options, 0);
+        TPCCTerminal third = (TPCCTerminal) workload.createTerminal(adapter, config, options, 2);
+        TPCCTerminal twelfth = (TPCCTerminal) workload.createTerminal(adapter, config, options, 11);
+
+        assertEquals(1, first.getWarehouseId());
+        assertEquals(1, first.getDistrictId());
+        assertEquals(1, third.getWarehouseId());
+        assertEquals(3, third.getDistrictId());
+        assertEquals(2, twelfth.getWarehouseId());
+        assertEquals(2, twelfth.getDistrictId());
+    }
+
+    @Test
+    @DisplayName("Terminal should follow the configured mix")
+    void testTerminalMix() {
+        config.getMix().setNewOrder(0);
+        config.getMix().setPayment(0);
+        config.getMix().setOrderStatus(50);
+        config.getMix().setDelivery(0);
+        config.getMix().setStockLevel(50);
+        TPCCTerminal terminal = (TPCCTerminal) workload.createTerminal(adapter, config, new TransactionOptions(), 0);
+
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            WorkloadTransaction tx = terminal.nextTransaction();
+            names.add(tx.getName());
+        }
+        assertEquals(Set.of("ORDER_STATUS", "STOCK_LEVEL"), names);
+    }
+
+    @Test
+    @DisplayName("Should reject a mix without weight")
+    void testEmptyMix() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TPCCTerminal(adapter, new TransactionOptions(), StatementCatalog.of(adapter), 1, 1, new int[]{0, 0, 0, 0, 0}));
+    }
+
+    @Test
+    @DisplayName("Should partition the schema as configured")
+    void testPartitioning() {
+        assertSame(Partitioning.NONE, TPCCWorkload.partitioning(config));
+        config.getPartition().setCount(2);
+        config.getPartition().setMethod("range");
+        assertEquals(new Partitioning(PartitionMethod.RANGE, 2, 2), TPCCWorkload.partitioning(config));
+        config.getPartition().setCount(3);
+        assertThrows(IllegalArgumentException.class, () -> TPCCWorkload.partitioning(config));
+    }
+
+    @Test
+    @DisplayName("Should describe the schema's physical design")
+    @SuppressWarnings("unchecked")
+    void testDescribeSchema() {
+        config.getSchema().setProfile("compressed, foreign-keys");
+        Map<String, Object> schema = workload.describeSchema(adapter, config);
+        assertEquals("compressed,foreign-keys", schema.get("profile"));
+        assertEquals("none", schema.get("partitioning"));
+        assertEquals(9, ((List<String>) schema.get("tables")).size());
+        assertEquals(10, ((List<String>) schema.get("constraints")).size());
+        assertEquals(2, TPCCWorkload.physicalDesign(config).warehouses());
+    }
+
+    @Test
+    @DisplayName("Should describe the statements a profile puts in place")
+    @SuppressWarnings("unchecked")
+    void testDescribeStatements() {
+        config.getStatements().setProfile("hints");
+        Map<String, Object> statements = workload.describeStatements(adapter, config);
+        assertEquals("hints", statements.get("profile"));
+        assertTrue(((List<String>) statements.get("overridden")).contains(StatementCatalog.PAYMENT_CUSTOMER_BY_NAME));
+        assertTrue(((Map<String, String>) statements.get("statements")).get(StatementCatalog.PAYMENT_CUSTOMER_BY_NAME)
+                .contains("FORCE INDEX (idx_customer_name)"));
+
+        config.getStatements().setProfile("returning");
+        assertThrows(IllegalArgumentException.class, () -> workload.describeStatements(adapter, config));
+    }
+
+    @Test
+    @DisplayName("Should keep one statement catalog per adapter until the profile changes")
+    void testStatementCatalogs() {
+        StatementCatalog hints = workload.statements(adapter, "hints");
+        assertSame(hints, workload.statements(adapter, "hints"));
+        assertTrue(hints.getOverridden().contains(StatementCatalog.PAYMENT_CUSTOMER_BY_NAME));
+        assertTrue(workload.statements(adapter, "").getOverridden().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Procedure mode should fail fast without procedure support")
+    void testPrepareProcedureUnsupported() {
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("tidb");
+        TransactionOptions options = new TransactionOptions();
+        options.setExecutionMode(ExecutionMode.PROCEDURE);
+
+        assertThrows(IllegalStateException.class,
+                () -> workload.prepare(DatabaseFactory.create(dbConfig), config, options));
+    }
+
+    @Test
+    @DisplayName("Should reject profiles the execution mode does not run")
+    void testPrepareRejectsProfiles() throws Exception {
+        TransactionOptions options = new TransactionOptions();
+        options.setExecutionMode(ExecutionMode.BATCHED);
+        config.getStatements().setProfile("hints");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> workload.prepare(adapter, config, options));
+        assertTrue(e.getMessage().contains(StatementCatalog.PAYMENT_CUSTOMER_BY_NAME));
+
+        options.setExecutionMode(ExecutionMode.PROCEDURE);
+        assertThrows(IllegalArgumentException.class, () -> workload.prepare(adapter, config, options));
+
+        config.getStatements().setProfile("");
+        options.setExecutionMode(ExecutionMode.BATCHED);
+        workload.prepare(adapter, config, options);
+    }
+
+    @Test
+    @DisplayName("Should report tpmC from committed New-Orders")
+    void testTpmC() throws InterruptedException {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.reset();
+        assertEquals(0.0, workload.getResultMetrics(registry).get("tpmC"));
+
+        registry.recordTransaction("NEW_ORDER", true, 1_000_000);
+        registry.recordRollback("NEW_ORDER", 1_000_000, 0);
+        Thread.sleep(5);
+        registry.markEnd();
+        Map<String, Object> result = workload.getResultMetrics(registry);
+        assertTrue(((Double) result.get("tpmC")) > 0);
+    }
+
+    @Test
+    @DisplayName("Should describe the mix")
+    void testDescribeMix() {
+        assertEquals("NewOrder=45%, Payment=43%, OrderStatus=4%, Delivery=4%, StockLevel=4%", workload.describeMix(config));
+    }
+}
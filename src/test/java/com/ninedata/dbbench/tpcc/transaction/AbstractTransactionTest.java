@@ -1,6 +1,11 @@
 package com.ninedata.dbbench.tpcc.transaction;
 
 import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.ErrorCategory;
+import com.ninedata.dbbench.database.IsolationLevel;
+import com.ninedata.dbbench.workload.JdbcTransaction;
+import com.ninedata.dbbench.workload.RetryPolicy;
+import com.ninedata.dbbench.workload.TransactionOptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
@@ -21,6 +26,7 @@ class AbstractTransactionTest {
         @Override public void close() {}
         @Override public void createSchema() {}
         @Override public void dropSchema() {}
+        @Override public void dropTables(String... tableNames) {}
         @Override public Map<String, Object> collectMetrics() { return new HashMap<>(); }
         @Override public String getDatabaseType() { return "MySQL"; }
         @Override public boolean supportsLimitSyntax() { return true; }
@@ -34,6 +40,7 @@ class AbstractTransactionTest {
         @Override public void close() {}
         @Override public void createSchema() {}
         @Override public void dropSchema() {}
+        @Override public void dropTables(String... tableNames) {}
         @Override public Map<String, Object> collectMetrics() { return new HashMap<>(); }
         @Override public String getDatabaseType() { return "PostgreSQL"; }
         @Override public boolean supportsLimitSyntax() { return true; }
@@ -47,6 +54,7 @@ class AbstractTransactionTest {
         @Override public void close() {}
         @Override public void createSchema() {}
         @Override public void dropSchema() {}
+        @Override public void dropTables(String... tableNames) {}
         @Override public Map<String, Object> collectMetrics() { return new HashMap<>(); }
         @Override public String getDatabaseType() { return "Oracle"; }
         @Override public boolean supportsLimitSyntax() { return false; }
@@ -60,6 +68,7 @@ class AbstractTransactionTest {
         @Override public void close() {}
         @Override public void createSchema() {}
         @Override public void dropSchema() {}
+        @Override public void dropTables(String... tableNames) {}
         @Override public Map<String, Object> collectMetrics() { return new HashMap<>(); }
         @Override public String getDatabaseType() { return "DB2"; }
         @Override public boolean supportsLimitSyntax() { return false; }
@@ -73,6 +82,7 @@ class AbstractTransactionTest {
         @Override public void close() {}
         @Override public void createSchema() {}
         @Override public void dropSchema() {}
+        @Override public void dropTables(String... tableNames) {}
         @Override public Map<String, Object> collectMetrics() { return new HashMap<>(); }
         @Override public String getDatabaseType() { return "SQL Server"; }
         @Override public boolean supportsLimitSyntax() { return false; }
@@ -86,6 +96,7 @@ class AbstractTransactionTest {
         @Override public void close() {}
         @Override public void createSchema() {}
         @Override public void dropSchema() {}
+        @Override public void dropTables(String... tableNames) {}
         @Override public Map<String, Object> collectMetrics() { return new HashMap<>(); }
         @Override public String getDatabaseType() { return "SQLite"; }
         @Override public boolean supportsLimitSyntax() { return true; }
@@ -354,4 +365,181 @@ class AbstractTransactionTest {
         assertFalse(mysqlTx.isUseRowIdForLimitForUpdate());
         assertTrue(oracleTx.isUseRowIdForLimitForUpdate());
     }
+
+    // Adapter handing out no-op connections, classified like MySQL
+    static class MockConnectionAdapter extends MockMySQLAdapter {
+        @Override
+        public Connection getConnection() {
+            return (Connection) java.lang.reflect.Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> null);
+        }
+
+        @Override
+        public ErrorCategory classifyError(SQLException e) {
+            return e.getErrorCode() == 1213 ? ErrorCategory.DEADLOCK : ErrorCategory.OTHER;
+        }
+    }
+
+    // Fails with the given error code on the first N attempts
+    static class FlakyTransaction extends AbstractTransaction {
+        private final int failures;
+        private final int errorCode;
+        private int attempts;
+
+        FlakyTransaction(int failures, int errorCode, RetryPolicy retryPolicy) {
+            super(new MockConnectionAdapter(), 1, 1, options(retryPolicy));
+            this.failures = failures;
+            this.errorCode = errorCode;
+        }
+
+        private static TransactionOptions options(RetryPolicy retryPolicy) {
+            TransactionOptions options = new TransactionOptions();
+            options.setRetryPolicy(retryPolicy);
+            return options;
+        }
+
+        @Override
+        public String getName() { return "FLAKY"; }
+
+        @Override
+        protected boolean doExecute(Connection conn) throws SQLException {
+            if (attempts++ < failures) {
+                throw new SQLException("boom", "40001", errorCode);
+            }
+            return true;
+        }
+    }
+
+    @Test
+    @DisplayName("Should retry retryable errors and succeed")
+    void testRetriesDeadlock() {
+        FlakyTransaction tx = new FlakyTransaction(2, 1213, new RetryPolicy(3, 0, 0));
+
+        assertTrue(tx.execute());
+        assertEquals(2, tx.getRetries());
+        assertNull(tx.getErrorCategory());
+        assertTrue(tx.getRetryLatencyNanos() > 0);
+        // two failed attempts without statements, then one commit
+        assertEquals(1, tx.getRoundTrips());
+    }
+
+    @Test
+    @DisplayName("Retry latency should stop when the final attempt starts")
+    void testRetryLatencyExcludesFinalAttempt() {
+        FlakyTransaction tx = new FlakyTransaction(1, 1213, new RetryPolicy(3, 0, 0)) {
+            @Override
+            protected boolean doExecute(Connection conn) throws SQLException {
+                boolean success = super.doExecute(conn);
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return success;
+            }
+        };
+
+        assertTrue(tx.execute());
+        assertEquals(1, tx.getRetries());
+        assertTrue(tx.getRetryLatencyNanos() > 0);
+        assertTrue(tx.getRetryLatencyNanos() < 200_000_000L, "final attempt counted: " + tx.getRetryLatencyNanos());
+    }
+
+    @Test
+    @DisplayName("Should fail with the category once retries are exhausted")
+    void testRetriesExhausted() {
+        FlakyTransaction tx = new FlakyTransaction(5, 1213, new RetryPolicy(2, 0, 0));
+
+        assertFalse(tx.execute());
+        assertEquals(2, tx.getRetries());
+        assertEquals(ErrorCategory.DEADLOCK, tx.getErrorCategory());
+    }
+
+    @Test
+    @DisplayName("Should not retry non-retryable errors")
+    void testNoRetryForOtherErrors() {
+        FlakyTransaction tx = new FlakyTransaction(1, 1064, new RetryPolicy(3, 0, 0));
+
+        assertFalse(tx.execute());
+        assertEquals(0, tx.getRetries());
+        assertEquals(ErrorCategory.OTHER, tx.getErrorCategory());
+    }
+
+    @Test
+    @DisplayName("Expected rollback should complete without an error")
+    void testExpectedRollback() {
+        AbstractTransaction tx = new AbstractTransaction(new MockConnectionAdapter(), 1, 1) {
+            @Override
+            public String getName() { return "ROLLBACK"; }
+
+            @Override
+            protected boolean doExecute(Connection conn) {
+                markExpectedRollback();
+                return false;
+            }
+        };
+
+        assertTrue(tx.execute());
+        assertTrue(tx.isExpectedRollback());
+        assertNull(tx.getErrorCategory());
+    }
+
+    @Test
+    @DisplayName("Should apply per-type isolation and read-only before running")
+    void testAppliesIsolationAndReadOnly() {
+        java.util.List<String> calls = new java.util.ArrayList<>();
+        MockConnectionAdapter adapter = new MockConnectionAdapter() {
+            @Override
+            public Connection getConnection() {
+                return (Connection) java.lang.reflect.Proxy.newProxyInstance(getClass().getClassLoader(),
+                        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                            if (method.getName().startsWith("set")) {
+                                calls.add(method.getName() + "=" + args[0]);
+                            }
+                            return null;
+                        });
+            }
+        };
+        TransactionOptions options = new TransactionOptions();
+        options.getIsolationLevels().put("TEST", IsolationLevel.SERIALIZABLE);
+        options.getReadOnlyTransactions().add("TEST");
+        AbstractTransaction tx = new AbstractTransaction(adapter, 1, 1, options) {
+            @Override
+            public String getName() { return "TEST"; }
+
+            @Override
+            protected boolean doExecute(Connection conn) { return true; }
+        };
+
+        assertTrue(tx.execute());
+        assertEquals(java.util.List.of("setTransactionIsolation=" + Connection.TRANSACTION_SERIALIZABLE, "setReadOnly=true"), calls);
+        assertEquals("SERIALIZABLE READ ONLY", tx.getIsolationLabel());
+        assertEquals("DEFAULT", new TestableTransaction(adapter).getIsolationLabel());
+    }
+
+    @Test
+    @DisplayName("Should use self-reported round trips when the proxy is off")
+    void testSelfReportedRoundTrips() {
+        TransactionOptions options = new TransactionOptions();
+        options.setCountRoundTrips(false);
+        JdbcTransaction tx = new JdbcTransaction(new MockConnectionAdapter(), options) {
+            @Override
+            public String getName() { return "SELF"; }
+
+            @Override
+            protected boolean doExecute(Connection conn) {
+                addStatements(3);
+                addBatch(10);
+                return true;
+            }
+        };
+
+        assertTrue(tx.execute());
+        // three statements, the batch and the commit; the commit is not a query
+        assertEquals(5, tx.getRoundTrips());
+        assertEquals(13, tx.getQueries());
+        assertTrue(tx.execute());
+        assertEquals(5, tx.getRoundTrips());
+        assertEquals(13, tx.getQueries());
+    }
 }
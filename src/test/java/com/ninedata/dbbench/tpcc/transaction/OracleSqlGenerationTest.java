@@ -18,6 +18,7 @@ class OracleSqlGenerationTest {
         @Override public void close() {}
         @Override public void createSchema() {}
         @Override public void dropSchema() {}
+        @Override public void dropTables(String... tableNames) {}
         @Override public Map<String, Object> collectMetrics() { return new HashMap<>(); }
         @Override public String getDatabaseType() { return "Oracle"; }
         @Override public boolean supportsLimitSyntax() { return false; }
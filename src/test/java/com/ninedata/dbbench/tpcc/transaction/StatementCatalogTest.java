@@ -0,0 +1,224 @@
+package com.ninedata.dbbench.tpcc.transaction;
+
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.workload.ExecutionMode;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StatementCatalog Tests")
+class StatementCatalogTest {
+
+    private static DatabaseAdapter adapter(String type) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setType(type);
+        return DatabaseFactory.create(config);
+    }
+
+    @Test
+    @DisplayName("Should hold every statement in the adapter's dialect")
+    void testDefaults() {
+        StatementCatalog mysql = StatementCatalog.of(adapter("mysql"));
+        assertEquals("default", mysql.getLabel());
+        assertTrue(mysql.getOverridden().isEmpty());
+        assertEquals("SELECT no_o_id FROM new_order WHERE no_w_id = ? AND no_d_id = ? ORDER BY no_o_id LIMIT 1 FOR UPDATE",
+                mysql.get(StatementCatalog.DELIVERY_OLDEST_NEW_ORDER));
+        assertEquals("SELECT s_quantity, s_dist_03, s_data FROM stock WHERE s_w_id = ? AND s_i_id = ? FOR UPDATE",
+                mysql.forDistrict(StatementCatalog.NEW_ORDER_STOCK, 3));
+
+        assertTrue(StatementCatalog.of(adapter("oracle")).get(StatementCatalog.DELIVERY_OLDEST_NEW_ORDER).contains("ROWNUM = 1) FOR UPDATE"));
+        assertEquals("SELECT d_tax, d_next_o_id FROM district WITH (UPDLOCK, ROWLOCK) WHERE d_w_id = ? AND d_id = ?",
+                StatementCatalog.of(adapter("sqlserver")).get(StatementCatalog.NEW_ORDER_DISTRICT));
+        assertFalse(StatementCatalog.of(adapter("sqlite")).get(StatementCatalog.NEW_ORDER_DISTRICT).contains("FOR UPDATE"));
+    }
+
+    @Test
+    @DisplayName("Should leave the RETURNING statements out unless a profile supplies them")
+    void testOptionalStatements() {
+        StatementCatalog catalog = StatementCatalog.of(adapter("postgresql"));
+        for (String id : StatementCatalog.OPTIONAL) {
+            assertNull(catalog.find(id));
+            assertThrows(IllegalStateException.class, () -> catalog.get(id));
+            assertFalse(catalog.getStatements().containsKey(id));
+        }
+        StatementCatalog returning = StatementCatalog.of(adapter("postgresql"), "returning");
+        assertEquals(StatementCatalog.OPTIONAL, returning.getOverridden());
+        assertTrue(returning.find(StatementCatalog.DELIVERY_ORDER_RETURNING).endsWith("RETURNING o_c_id"));
+    }
+
+    @Test
+    @DisplayName("Should apply profiles in order, a later one winning")
+    void testProfiles() {
+        StatementCatalog catalog = StatementCatalog.of(adapter("mysql"), " Hints, nowait,,hints ");
+        assertEquals(List.of("hints", "nowait"), catalog.getProfiles());
+        assertEquals("hints,nowait", catalog.getLabel());
+        assertTrue(catalog.get(StatementCatalog.DELIVERY_OLDEST_NEW_ORDER).endsWith("FOR UPDATE NOWAIT"));
+        assertFalse(catalog.get(StatementCatalog.DELIVERY_OLDEST_NEW_ORDER).contains("FORCE INDEX"));
+        assertTrue(catalog.get(StatementCatalog.STOCK_LEVEL_LOW_STOCK).startsWith("SELECT /*+ JOIN_ORDER(order_line, stock) */"));
+        assertTrue(catalog.getOverridden().contains(StatementCatalog.ORDER_STATUS_LAST_ORDER));
+
+        assertTrue(StatementCatalog.of(adapter("postgresql"), "skip-locked").get(StatementCatalog.DELIVERY_OLDEST_NEW_ORDER)
+                .endsWith("LIMIT 1 FOR UPDATE SKIP LOCKED"));
+        assertTrue(StatementCatalog.of(adapter("sqlserver"), "skip-locked").get(StatementCatalog.DELIVERY_OLDEST_NEW_ORDER)
+                .contains("WITH (UPDLOCK, ROWLOCK, READPAST)"));
+        assertTrue(StatementCatalog.of(adapter("db2"), "returning").find(StatementCatalog.NEW_ORDER_DISTRICT_RETURNING)
+                .contains("FROM FINAL TABLE (UPDATE district"));
+    }
+
+    @Test
+    @DisplayName("Should build every profile of every adapter")
+    void testEveryProfile() {
+        for (String type : List.of("mysql", "postgresql", "oracle", "sqlserver", "db2", "dameng", "oceanbase", "tidb",
+                "sqlite", "yashandb", "gbase8s", "sybase", "hana")) {
+            DatabaseAdapter adapter = adapter(type);
+            for (String profile : adapter.getStatementProfiles().keySet()) {
+                StatementCatalog catalog = StatementCatalog.of(adapter, profile);
+                assertFalse(catalog.getOverridden().isEmpty(), type + " " + profile);
+                for (String id : catalog.getOverridden()) {
+                    assertNotEquals(StatementCatalog.of(adapter).find(id), catalog.get(id), type + " " + id);
+                }
+            }
+        }
+        assertEquals(Set.of("nowait"), adapter("tidb").getStatementProfiles().keySet());
+        assertEquals(Set.of("nowait"), adapter("dameng").getStatementProfiles().keySet());
+        assertTrue(adapter("gbase8s").getStatementProfiles().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject a profile the adapter does not offer")
+    void testUnknownProfile() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> StatementCatalog.of(adapter("mysql"), "returning"));
+        assertTrue(e.getMessage().contains("available: hints, skip-locked, nowait"));
+        assertThrows(IllegalArgumentException.class, () -> StatementCatalog.of(adapter("gbase8s"), "hints"));
+        assertEquals("default", StatementCatalog.of(adapter("gbase8s"), "default").getLabel());
+    }
+
+    @Test
+    @DisplayName("Should expand the IN lists of the batched statements")
+    void testBatchedStatements() {
+        StatementCatalog mysql = StatementCatalog.of(adapter("mysql"));
+        assertEquals("SELECT s_i_id, s_quantity, s_dist_04 FROM stock WHERE s_w_id = ? AND s_i_id IN (?, ?, ?) FOR UPDATE",
+                mysql.forInList(StatementCatalog.NEW_ORDER_BATCHED_STOCK, 4, 3));
+        assertEquals("SELECT o_d_id, o_id, o_c_id FROM oorder WHERE o_w_id = ? AND o_d_id IN (?, ?) AND o_id IN (?, ?)",
+                mysql.forInList(StatementCatalog.DELIVERY_BATCHED_ORDER_CUSTOMERS, 1, 2));
+        assertEquals("SELECT i_id, i_price FROM item WHERE i_id IN (?)",
+                mysql.forInList(StatementCatalog.NEW_ORDER_BATCHED_ITEMS, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Should run New-Order, Payment and Delivery batched from the catalog")
+    void testBatched(@TempDir Path dir) throws Exception {
+        DatabaseAdapter adapter = seeded(dir.resolve("batched.db"));
+        try {
+            TransactionOptions options = new TransactionOptions();
+            options.setExecutionMode(ExecutionMode.BATCHED);
+            StatementCatalog statements = StatementCatalog.of(adapter);
+
+            assertTrue(newOrder(adapter, options, statements).execute());
+            assertEquals(3002, queryInt(adapter, "SELECT d_next_o_id FROM district WHERE d_w_id = 1 AND d_id = 1"));
+            assertEquals(45, queryInt(adapter, "SELECT s_quantity FROM stock WHERE s_w_id = 1 AND s_i_id = 1"));
+
+            assertTrue(new PaymentTransaction(adapter, 1, 1, options, statements, 10.0, 0, "BARBARBAR").execute());
+            assertEquals(300010, queryInt(adapter, "SELECT w_ytd FROM warehouse WHERE w_id = 1"));
+            assertEquals(2, queryInt(adapter, "SELECT c_payment_cnt FROM customer WHERE c_w_id = 1 AND c_d_id = 1 AND c_id = 1"));
+
+            assertTrue(new DeliveryTransaction(adapter, 1, 1, options, statements, 7).execute());
+            assertEquals(7, queryInt(adapter, "SELECT o_carrier_id FROM oorder WHERE o_id = 3001"));
+            assertEquals(1, queryInt(adapter, "SELECT c_delivery_cnt FROM customer WHERE c_w_id = 1 AND c_d_id = 1 AND c_id = 1"));
+        } finally {
+            adapter.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run New-Order, Payment and Delivery with RETURNING in fewer round trips")
+    void testReturning(@TempDir Path dir) throws Exception {
+        DatabaseAdapter adapter = seeded(dir.resolve("returning.db"));
+        try {
+            TransactionOptions options = new TransactionOptions();
+            StatementCatalog plain = StatementCatalog.of(adapter);
+            StatementCatalog returning = StatementCatalog.of(adapter, "returning");
+
+            NewOrderTransaction firstOrder = newOrder(adapter, options, plain);
+            NewOrderTransaction secondOrder = newOrder(adapter, options, returning);
+            assertTrue(firstOrder.execute());
+            assertTrue(secondOrder.execute());
+            assertEquals(firstOrder.getRoundTrips() - 1, secondOrder.getRoundTrips());
+            assertEquals(3003, queryInt(adapter, "SELECT d_next_o_id FROM district WHERE d_w_id = 1 AND d_id = 1"));
+            assertEquals(1, queryInt(adapter, "SELECT COUNT(*) FROM oorder WHERE o_id = 3002"));
+
+            PaymentTransaction payment = new PaymentTransaction(adapter, 1, 1, options, plain, 10.0, 1, null);
+            PaymentTransaction paymentReturning = new PaymentTransaction(adapter, 1, 1, options, returning, 10.0, 1, null);
+            assertTrue(payment.execute());
+            assertTrue(paymentReturning.execute());
+            assertEquals(payment.getRoundTrips() - 2, paymentReturning.getRoundTrips());
+            assertEquals(300020, queryInt(adapter, "SELECT w_ytd FROM warehouse WHERE w_id = 1"));
+            assertEquals(2, queryInt(adapter, "SELECT COUNT(*) FROM history WHERE h_data = 'W1    D1'"));
+
+            DeliveryTransaction delivery = new DeliveryTransaction(adapter, 1, 1, options, plain, 7);
+            DeliveryTransaction deliveryReturning = new DeliveryTransaction(adapter, 1, 1, options, returning, 8);
+            assertTrue(delivery.execute());
+            assertTrue(deliveryReturning.execute());
+            assertEquals(delivery.getRoundTrips() - 1, deliveryReturning.getRoundTrips());
+            assertEquals(7, queryInt(adapter, "SELECT o_carrier_id FROM oorder WHERE o_id = 3001"));
+            assertEquals(8, queryInt(adapter, "SELECT o_carrier_id FROM oorder WHERE o_id = 3002"));
+            assertEquals(2, queryInt(adapter, "SELECT c_delivery_cnt FROM customer WHERE c_w_id = 1 AND c_d_id = 1 AND c_id = 1"));
+        } finally {
+            adapter.close();
+        }
+    }
+
+    /** SQLite database with one warehouse, district, customer and stock item */
+    private static DatabaseAdapter seeded(Path file) throws SQLException {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setType("sqlite");
+        config.setJdbcUrl("jdbc:sqlite:" + file);
+        DatabaseAdapter adapter = DatabaseFactory.create(config);
+        adapter.initialize();
+        adapter.createSchema();
+        execute(adapter,
+                "INSERT INTO warehouse VALUES (1, 'W1', 's1', 's2', 'city', 'ST', '123451111', 0.1, 300000)",
+                "INSERT INTO district VALUES (1, 1, 'D1', 's1', 's2', 'city', 'ST', '123451111', 0.05, 30000, 3001)",
+                "INSERT INTO customer VALUES (1, 1, 1, 'first', 'OE', 'BARBARBAR', 's1', 's2', 'city', 'ST', '123451111', "
+                        + "'0123456789', '2024-01-01', 'GC', 50000, 0.1, -10, 10, 1, 0, 'data')",
+                "INSERT INTO item VALUES (1, 1, 'item', 2.5, 'data')",
+                "INSERT INTO stock VALUES (1, 1, 50, 'dist01', 'd2', 'd3', 'd4', 'd5', 'd6', 'd7', 'd8', 'd9', 'd10', 0, 0, 0, 'data')");
+        return adapter;
+    }
+
+    private static NewOrderTransaction newOrder(DatabaseAdapter adapter, TransactionOptions options,
+                                                StatementCatalog statements) {
+        return new NewOrderTransaction(adapter, 1, 1, options, statements, 1, new int[]{1}, new int[]{1}, new int[]{5});
+    }
+
+    private static void execute(DatabaseAdapter adapter, String... statements) throws SQLException {
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+            conn.commit();
+        }
+    }
+
+    private static int queryInt(DatabaseAdapter adapter, String sql) throws SQLException {
+        try (Connection conn = adapter.getConnection(); Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+}
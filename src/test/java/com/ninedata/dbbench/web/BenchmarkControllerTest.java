@@ -123,4 +123,20 @@ class BenchmarkControllerTest {
         assertEquals(false, response.getBody().get("success"));
         assertTrue(response.getBody().get("error").toString().contains("No data loading"));
     }
+
+    @Test
+    @DisplayName("Should refuse live control and pause when not running")
+    void testControlNotRunning() {
+        ResponseEntity<Map<String, Object>> response = controller.control(Map.of("terminals", 8));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(false, response.getBody().get("success"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, controller.pause().getStatusCode());
+        assertEquals(HttpStatus.OK, controller.resume().getStatusCode());
+
+        Map<String, Object> state = controller.controlState().getBody();
+        assertEquals(false, state.get("running"));
+        assertEquals(false, state.get("paused"));
+        assertEquals(0, state.get("terminals"));
+    }
 }
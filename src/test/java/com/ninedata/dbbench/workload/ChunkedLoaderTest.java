@@ -0,0 +1,81 @@
+package com.ninedata.dbbench.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ChunkedLoader Tests")
+class ChunkedLoaderTest {
+
+    static class CountingLoader extends ChunkedLoader {
+        final AtomicInteger loaded = new AtomicInteger();
+        final int chunks;
+        final int failAt;
+
+        CountingLoader(int chunks, int failAt) {
+            super(3);
+            this.chunks = chunks;
+            this.failAt = failAt;
+        }
+
+        @Override
+        protected int getChunkCount() { return chunks; }
+
+        @Override
+        protected String describe() { return "test"; }
+
+        @Override
+        protected String loadChunk(int chunk) throws SQLException {
+            if (chunk == failAt) {
+                throw new SQLException("disk full");
+            }
+            loaded.incrementAndGet();
+            return "chunk " + chunk;
+        }
+    }
+
+    @Test
+    @DisplayName("Should load every chunk and report done/total")
+    void testLoadsAllChunks() throws SQLException {
+        CountingLoader loader = new CountingLoader(10, -1);
+        List<String> messages = new CopyOnWriteArrayList<>();
+        loader.setProgressCallback(messages::add);
+
+        loader.load();
+
+        assertEquals(10, loader.loaded.get());
+        assertTrue(messages.stream().anyMatch(m -> m.endsWith("loaded (10/10)")));
+        assertTrue(messages.get(0).startsWith("Starting test data load with 3 concurrent threads"));
+    }
+
+    @Test
+    @DisplayName("Should surface chunk failures")
+    void testFailure() {
+        CountingLoader loader = new CountingLoader(5, 2);
+
+        SQLException e = assertThrows(SQLException.class, loader::load);
+        assertTrue(e.getMessage().contains("disk full"));
+    }
+
+    @Test
+    @DisplayName("Cancel should stop the load")
+    void testCancel() {
+        CountingLoader loader = new CountingLoader(5, -1) {
+            @Override
+            protected String loadChunk(int chunk) throws SQLException {
+                cancel();
+                return super.loadChunk(chunk);
+            }
+        };
+
+        SQLException e = assertThrows(SQLException.class, loader::load);
+        assertTrue(e.getMessage().contains("cancelled"));
+        assertTrue(loader.isCancelled());
+    }
+}
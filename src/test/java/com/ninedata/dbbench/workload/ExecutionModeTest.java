@@ -0,0 +1,33 @@
+package com.ninedata.dbbench.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ExecutionMode Tests")
+class ExecutionModeTest {
+
+    @Test
+    @DisplayName("Should default to interactive for blank values")
+    void testDefault() {
+        assertEquals(ExecutionMode.INTERACTIVE, ExecutionMode.fromString(null));
+        assertEquals(ExecutionMode.INTERACTIVE, ExecutionMode.fromString(" "));
+    }
+
+    @Test
+    @DisplayName("Should parse mode names case-insensitively")
+    void testParse() {
+        assertEquals(ExecutionMode.INTERACTIVE, ExecutionMode.fromString("Interactive"));
+        assertEquals(ExecutionMode.PROCEDURE, ExecutionMode.fromString("PROCEDURE"));
+        assertEquals(ExecutionMode.PROCEDURE, ExecutionMode.fromString("proc"));
+        assertEquals(ExecutionMode.BATCHED, ExecutionMode.fromString("batched"));
+        assertEquals(ExecutionMode.BATCHED, ExecutionMode.fromString("optimized"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown modes")
+    void testUnknown() {
+        assertThrows(IllegalArgumentException.class, () -> ExecutionMode.fromString("pipelined"));
+    }
+}
@@ -0,0 +1,56 @@
+package com.ninedata.dbbench.workload;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("InputRandom Tests")
+class InputRandomTest {
+
+    @AfterEach
+    void tearDown() {
+        InputRandom.clear();
+    }
+
+    @Test
+    @DisplayName("Should use ThreadLocalRandom when the thread is not seeded")
+    void testUnseeded() {
+        assertSame(ThreadLocalRandom.current(), InputRandom.current());
+    }
+
+    @Test
+    @DisplayName("Should repeat the same inputs for the same seed")
+    void testSeeded() {
+        InputRandom.seed(42);
+        Random random = InputRandom.current();
+        assertSame(random, InputRandom.current());
+        int[] first = random.ints(100, 0, 1000).toArray();
+
+        InputRandom.seed(42);
+        assertArrayEquals(first, InputRandom.current().ints(100, 0, 1000).toArray());
+
+        InputRandom.seed(43);
+        assertFalse(Arrays.equals(first, InputRandom.current().ints(100, 0, 1000).toArray()));
+
+        InputRandom.clear();
+        assertSame(ThreadLocalRandom.current(), InputRandom.current());
+    }
+
+    @Test
+    @DisplayName("Should keep seeds per thread")
+    void testPerThread() throws InterruptedException {
+        InputRandom.seed(7);
+        Random[] other = new Random[1];
+        Thread thread = new Thread(() -> other[0] = InputRandom.current());
+        thread.start();
+        thread.join();
+        assertInstanceOf(ThreadLocalRandom.class, other[0]);
+        assertFalse(InputRandom.current() instanceof ThreadLocalRandom);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ninedata.dbbench.workload;
+
+import com.ninedata.dbbench.database.ErrorCategory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RetryPolicy Tests")
+class RetryPolicyTest {
+
+    @Test
+    @DisplayName("Should retry only retryable categories within the limit")
+    void testShouldRetry() {
+        RetryPolicy policy = new RetryPolicy(2, 10, 100);
+
+        assertTrue(policy.shouldRetry(ErrorCategory.DEADLOCK, 0));
+        assertTrue(policy.shouldRetry(ErrorCategory.SERIALIZATION, 1));
+        assertFalse(policy.shouldRetry(ErrorCategory.LOCK_TIMEOUT, 2));
+        assertFalse(policy.shouldRetry(ErrorCategory.CONSTRAINT, 0));
+        assertFalse(policy.shouldRetry(ErrorCategory.CONNECTION, 0));
+        assertFalse(policy.shouldRetry(null, 0));
+    }
+
+    @Test
+    @DisplayName("NONE should never retry")
+    void testNone() {
+        assertFalse(RetryPolicy.NONE.shouldRetry(ErrorCategory.DEADLOCK, 0));
+        assertEquals(0, RetryPolicy.NONE.backoffMillis(0));
+    }
+
+    @Test
+    @DisplayName("Backoff should stay within the exponential ceiling and the cap")
+    void testBackoffBounds() {
+        RetryPolicy policy = new RetryPolicy(10, 10, 50);
+        for (int i = 0; i < 200; i++) {
+            assertTrue(policy.backoffMillis(0) <= 10);
+            assertTrue(policy.backoffMillis(1) <= 20);
+            long capped = policy.backoffMillis(8);
+            assertTrue(capped >= 0 && capped <= 50);
+        }
+    }
+
+    @Test
+    @DisplayName("Should clamp negative settings")
+    void testClamp() {
+        RetryPolicy policy = new RetryPolicy(-1, 20, 5);
+        assertEquals(0, policy.getMaxRetries());
+        assertEquals(20, policy.getBackoffMaxMs());
+    }
+}
@@ -0,0 +1,85 @@
+package com.ninedata.dbbench.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RoundTripCounter Tests")
+class RoundTripCounterTest {
+
+    private static PreparedStatement fakeStatement() {
+        return (PreparedStatement) Proxy.newProxyInstance(getLoader(), new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "executeUpdate" -> 1;
+                    case "executeBatch" -> new int[]{1, 1};
+                    case "execute" -> false;
+                    default -> null;
+                });
+    }
+
+    private static Connection fakeConnection() {
+        return (Connection) Proxy.newProxyInstance(getLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "prepareStatement", "createStatement" -> fakeStatement();
+                    default -> null;
+                });
+    }
+
+    private static ClassLoader getLoader() {
+        return RoundTripCounterTest.class.getClassLoader();
+    }
+
+    @Test
+    @DisplayName("Should count executions, batches, commit and rollback")
+    void testCountsRoundTrips() throws Exception {
+        RoundTripCounter counter = new RoundTripCounter();
+        Connection conn = counter.wrap(fakeConnection());
+
+        PreparedStatement ps = conn.prepareStatement("UPDATE t SET a = ?");
+        ps.setInt(1, 1);
+        ps.addBatch();
+        ps.addBatch();
+        ps.executeBatch();
+        ps.executeUpdate();
+        conn.commit();
+        conn.rollback();
+
+        assertEquals(4, counter.getCount());
+        // two batched statements and the update; commit and rollback are not queries
+        assertEquals(3, counter.getQueries());
+    }
+
+    @Test
+    @DisplayName("Parameter binding and closing should not count")
+    void testIgnoresLocalCalls() throws Exception {
+        RoundTripCounter counter = new RoundTripCounter();
+        Connection conn = counter.wrap(fakeConnection());
+
+        Statement stmt = conn.createStatement();
+        stmt.close();
+        conn.close();
+
+        assertEquals(0, counter.getCount());
+    }
+
+    @Test
+    @DisplayName("Reset should clear the count")
+    void testReset() throws Exception {
+        RoundTripCounter counter = new RoundTripCounter();
+        Connection conn = counter.wrap(fakeConnection());
+        conn.prepareStatement("DELETE FROM t").executeUpdate();
+        conn.commit();
+        assertEquals(2, counter.getCount());
+        assertEquals(1, counter.getQueries());
+
+        counter.reset();
+        assertEquals(0, counter.getCount());
+        assertEquals(0, counter.getQueries());
+    }
+}
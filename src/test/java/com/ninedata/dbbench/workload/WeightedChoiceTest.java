@@ -0,0 +1,40 @@
+package com.ninedata.dbbench.workload;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WeightedChoice Tests")
+class WeightedChoiceTest {
+
+    @AfterEach
+    void tearDown() {
+        InputRandom.clear();
+    }
+
+    @Test
+    @DisplayName("Should pick choices in proportion to their weights")
+    void testProportions() {
+        InputRandom.seed(7);
+        WeightedChoice choice = WeightedChoice.of("weights", 1, 0, 3);
+        int[] picks = new int[3];
+        for (int i = 0; i < 8000; i++) {
+            picks[choice.next()]++;
+        }
+        assertEquals(0, picks[1], "A zero weight is never picked");
+        assertTrue(picks[0] > 1700 && picks[0] < 2300, "first: " + picks[0]);
+        assertEquals(8000, picks[0] + picks[2]);
+    }
+
+    @Test
+    @DisplayName("Should return a single choice and reject weights without a positive sum")
+    void testSingleAndInvalid() {
+        assertEquals(0, new WeightedChoice("weights", 0.5).next());
+        assertEquals(1, new WeightedChoice("weights", -1, 2).next());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> WeightedChoice.of("pgbench script weights", 0, 0));
+        assertEquals("pgbench script weights must sum to more than 0", e.getMessage());
+    }
+}
@@ -0,0 +1,75 @@
+package com.ninedata.dbbench.workload;
+
+import com.ninedata.dbbench.chbench.ChBenchmarkWorkload;
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.ingest.IngestWorkload;
+import com.ninedata.dbbench.pgbench.PgbenchWorkload;
+import com.ninedata.dbbench.sysbench.SysbenchWorkload;
+import com.ninedata.dbbench.template.TemplateWorkload;
+import com.ninedata.dbbench.tpcc.TPCCWorkload;
+import com.ninedata.dbbench.ycsb.YcsbWorkload;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WorkloadRegistry Tests")
+class WorkloadRegistryTest {
+
+    @Test
+    @DisplayName("Should discover TPC-C through ServiceLoader")
+    void testDiscoversTpcc() {
+        assertInstanceOf(TPCCWorkload.class, WorkloadRegistry.get("tpcc"));
+        assertTrue(WorkloadRegistry.getAll().stream().anyMatch(w -> w.getName().equals("tpcc")));
+    }
+
+    @Test
+    @DisplayName("Should discover the bundled workloads through ServiceLoader")
+    void testDiscoversBundledWorkloads() {
+        assertInstanceOf(ChBenchmarkWorkload.class, WorkloadRegistry.get("chbenchmark"));
+        assertInstanceOf(SysbenchWorkload.class, WorkloadRegistry.get("Sysbench"));
+        assertInstanceOf(YcsbWorkload.class, WorkloadRegistry.get("ycsb"));
+        assertInstanceOf(PgbenchWorkload.class, WorkloadRegistry.get("pgbench"));
+        assertInstanceOf(TemplateWorkload.class, WorkloadRegistry.get("template"));
+        assertInstanceOf(IngestWorkload.class, WorkloadRegistry.get("ingest"));
+    }
+
+    @Test
+    @DisplayName("Each workload should own a distinct settings section that reads back what it reports")
+    void testSettingsSections() {
+        Set<String> keys = new HashSet<>();
+        for (Workload workload : WorkloadRegistry.getAll()) {
+            String key = workload.getSettingsKey();
+            if (key == null) {
+                continue;
+            }
+            assertTrue(keys.add(key), "duplicate settings section " + key);
+            BenchmarkConfig config = new BenchmarkConfig();
+            Map<String, Object> described = workload.describeSettings(config);
+            assertFalse(described.isEmpty(), key);
+            BenchmarkConfig copy = new BenchmarkConfig();
+            workload.applySettings(copy, described);
+            assertEquals(described, workload.describeSettings(copy), key);
+        }
+        assertEquals(Set.of("sysbench", "ycsb", "ch", "pgbench", "template", "ingest"), keys);
+        assertNull(WorkloadRegistry.get("tpcc").getSettingsKey());
+    }
+
+    @Test
+    @DisplayName("Blank name should resolve to the default workload, case-insensitively")
+    void testDefaultAndCase() {
+        assertEquals("tpcc", WorkloadRegistry.get(null).getName());
+        assertEquals("tpcc", WorkloadRegistry.get(" TPCC ").getName());
+    }
+
+    @Test
+    @DisplayName("Unknown workloads should be rejected")
+    void testUnknown() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> WorkloadRegistry.get("nope"));
+        assertTrue(e.getMessage().contains("tpcc"));
+    }
+}
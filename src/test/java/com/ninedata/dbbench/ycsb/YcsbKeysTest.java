@@ -0,0 +1,25 @@
+package com.ninedata.dbbench.ycsb;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("YcsbKeys Tests")
+class YcsbKeysTest {
+
+    @Test
+    @DisplayName("Keys should match upstream YCSB's hashed key names")
+    void testKeys() {
+        assertEquals("user6284781860667377211", YcsbKeys.buildKey(0));
+        assertEquals("user8517097267634966620", YcsbKeys.buildKey(1));
+    }
+
+    @Test
+    @DisplayName("Hashes should be non-negative")
+    void testNonNegative() {
+        for (long i = 0; i < 10_000; i++) {
+            assertTrue(YcsbKeys.fnvhash64(i) >= 0);
+        }
+    }
+}
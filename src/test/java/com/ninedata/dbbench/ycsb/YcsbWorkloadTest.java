@@ -0,0 +1,206 @@
+package com.ninedata.dbbench.ycsb;
+
+import com.ninedata.dbbench.config.BenchmarkConfig;
+import com.ninedata.dbbench.config.DatabaseConfig;
+import com.ninedata.dbbench.database.DatabaseAdapter;
+import com.ninedata.dbbench.database.DatabaseFactory;
+import com.ninedata.dbbench.metrics.MetricsRegistry;
+import com.ninedata.dbbench.workload.TransactionOptions;
+import com.ninedata.dbbench.workload.WorkloadTerminal;
+import com.ninedata.dbbench.workload.WorkloadTransaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("YcsbWorkload Tests")
+class YcsbWorkloadTest {
+
+    private YcsbWorkload workload;
+    private BenchmarkConfig config;
+    private DatabaseAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        workload = new YcsbWorkload();
+        config = new BenchmarkConfig();
+        config.getYcsb().setRecordCount(1000);
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("postgresql");
+        adapter = DatabaseFactory.create(dbConfig);
+    }
+
+    @Test
+    @DisplayName("Should parse core workloads and distributions")
+    void testParse() {
+        assertEquals(YcsbCoreWorkload.A, YcsbCoreWorkload.fromString(null));
+        assertEquals(YcsbCoreWorkload.D, YcsbCoreWorkload.fromString("workloadd"));
+        assertEquals(YcsbCoreWorkload.E, YcsbCoreWorkload.fromString("E"));
+        assertThrows(IllegalArgumentException.class, () -> YcsbCoreWorkload.fromString("g"));
+        assertEquals(RequestDistribution.LATEST, RequestDistribution.fromString(" Latest "));
+        assertThrows(IllegalArgumentException.class, () -> RequestDistribution.fromString("hotspot"));
+    }
+
+    @Test
+    @DisplayName("Should apply and describe its settings section")
+    void testSettings() {
+        assertEquals("ycsb", workload.getSettingsKey());
+        workload.applySettings(config, Map.of("workload", "workloadc", "requestDistribution", "Latest", "maxScanLength", 50));
+        Map<String, Object> settings = workload.describeSettings(config);
+        assertEquals("c", settings.get("workload"));
+        assertEquals("latest", settings.get("requestDistribution"));
+        assertEquals(50, settings.get("maxScanLength"));
+        assertEquals(1000L, settings.get("recordCount"));
+        assertThrows(IllegalArgumentException.class, () -> workload.applySettings(config, Map.of("workload", "z")));
+    }
+
+    @Test
+    @DisplayName("Core workloads should use YCSB's proportions and distributions")
+    void testCoreWorkloads() {
+        assertArrayEquals(new double[]{0.5, 0.5, 0, 0, 0}, YcsbCoreWorkload.A.getProportions());
+        assertArrayEquals(new double[]{0, 0, 0.05, 0.95, 0}, YcsbCoreWorkload.E.getProportions());
+        assertEquals(RequestDistribution.LATEST, YcsbCoreWorkload.D.getDefaultDistribution());
+        assertEquals(RequestDistribution.ZIPFIAN, YcsbWorkload.distribution(config.getYcsb()));
+        config.getYcsb().setRequestDistribution("uniform");
+        assertEquals(RequestDistribution.UNIFORM, YcsbWorkload.distribution(config.getYcsb()));
+    }
+
+    @Test
+    @DisplayName("Should build usertable statements")
+    void testStatements() {
+        YcsbOperation.Statements sql = YcsbOperation.Statements.forFields(adapter, 2);
+
+        assertEquals("SELECT YCSB_KEY, FIELD0, FIELD1 FROM usertable WHERE YCSB_KEY = ?", sql.readAll());
+        assertEquals("UPDATE usertable SET FIELD1 = ? WHERE YCSB_KEY = ?", sql.updateField()[1]);
+        assertEquals("UPDATE usertable SET FIELD0 = ?, FIELD1 = ? WHERE YCSB_KEY = ?", sql.updateAll());
+        assertEquals("INSERT INTO usertable (YCSB_KEY, FIELD0, FIELD1) VALUES (?, ?, ?)", sql.insert());
+        assertEquals("SELECT YCSB_KEY, FIELD0, FIELD1 FROM usertable WHERE YCSB_KEY >= ? ORDER BY YCSB_KEY LIMIT ?",
+                sql.scanAll());
+    }
+
+    @Test
+    @DisplayName("Terminal should pick operations by the workload's proportions")
+    void testTerminalMix(@TempDir Path dir) throws Exception {
+        DatabaseAdapter sqlite = sqlite(dir);
+        try {
+            config.getYcsb().setWorkload("b");
+            workload.createSchema(sqlite, config);
+            workload.prepare(sqlite, config, new TransactionOptions());
+            WorkloadTerminal terminal = workload.createTerminal(sqlite, config, new TransactionOptions(), 0);
+            Map<String, Integer> counts = new HashMap<>();
+            for (int i = 0; i < 10_000; i++) {
+                WorkloadTransaction tx = terminal.nextTransaction();
+                counts.merge(tx.getName(), 1, Integer::sum);
+            }
+            assertEquals(2, counts.size());
+            assertTrue(counts.get("READ") > 9000);
+            assertTrue(counts.get("UPDATE") > 300);
+            assertSame(terminal.nextTransaction().getClass(), YcsbOperation.class);
+            assertThrows(IllegalArgumentException.class,
+                    () -> new YcsbTerminal(new YcsbOperation[1], new double[]{0}));
+        } finally {
+            sqlite.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should not create terminals before the run is prepared")
+    void testTerminalNeedsPrepare() {
+        assertThrows(IllegalStateException.class,
+                () -> workload.createTerminal(adapter, config, new TransactionOptions(), 0));
+    }
+
+    @Test
+    @DisplayName("A phase switching the core workload should keep the run's insert sequence")
+    void testPhaseKeepsInsertSequence(@TempDir Path dir) throws Exception {
+        DatabaseAdapter sqlite = sqlite(dir);
+        try {
+            config.getYcsb().setFieldCount(1);
+            workload.createSchema(sqlite, config);
+            TransactionOptions options = new TransactionOptions();
+            workload.configureOptions(config, options);
+            config.getYcsb().setWorkload("d");
+            workload.prepare(sqlite, config, options);
+            assertTrue(nextInsert(workload.createTerminal(sqlite, config, options, 0)).execute());
+
+            config.getYcsb().setWorkload("e");
+            WorkloadTransaction insert = nextInsert(workload.createTerminal(sqlite, config, options, 0));
+            assertTrue(insert.execute(), "insert reused a key of the run");
+
+            BenchmarkConfig.YcsbConfig phase = new BenchmarkConfig.YcsbConfig();
+            phase.setFieldCount(1);
+            phase.setRecordCount(1);
+            phase.setWorkload("d");
+            config.setYcsb(phase);
+            insert = nextInsert(workload.createTerminal(sqlite, config, options, 0));
+            assertTrue(insert.execute(), "replaced settings reused a key of the run");
+        } finally {
+            sqlite.close();
+        }
+    }
+
+    private static DatabaseAdapter sqlite(Path dir) throws Exception {
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        dbConfig.setType("sqlite");
+        dbConfig.setJdbcUrl("jdbc:sqlite:" + dir.resolve("ycsb.db"));
+        DatabaseAdapter sqlite = DatabaseFactory.create(dbConfig);
+        sqlite.initialize();
+        return sqlite;
+    }
+
+    private static WorkloadTransaction nextInsert(WorkloadTerminal terminal) {
+        while (true) {
+            WorkloadTransaction tx = terminal.nextTransaction();
+            if (tx.getName().equals("INSERT")) {
+                return tx;
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should describe the mix like the workload files")
+    void testDescribeMix() {
+        config.getYcsb().setWorkload("f");
+        assertEquals("workloadf (Read-modify-write): READ=50% READ-MODIFY-WRITE=50%, zipfian, 1000 records",
+                workload.describeMix(config));
+        assertEquals(List.of("READ", "UPDATE", "INSERT", "SCAN", "READ_MODIFY_WRITE"), workload.getTransactionNames());
+        assertFalse(workload.usesThinkTime());
+    }
+
+    @Test
+    @DisplayName("Results should use YCSB's output names")
+    void testResultMetrics() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.reset();
+        registry.recordTransaction("READ", true, 1_000_000, 2);
+        registry.recordTransaction("READ", false, 3_000_000, 2);
+        registry.recordTransaction("READ_MODIFY_WRITE", true, 2_000_000, 3);
+        Thread.sleep(5);
+        registry.markEnd();
+
+        Map<String, Object> result = workload.getResultMetrics(registry);
+
+        assertTrue((Double) result.get("[OVERALL], Throughput(ops/sec)") > 0);
+        assertEquals(2L, result.get("[READ], Operations"));
+        assertEquals(2000.0, result.get("[READ], AverageLatency(us)"));
+        assertEquals(1L, result.get("[READ], Return=OK"));
+        assertEquals(1L, result.get("[READ], Return=ERROR"));
+        assertEquals(1L, result.get("[READ-MODIFY-WRITE], Operations"));
+        assertFalse(result.containsKey("[UPDATE], Operations"));
+    }
+
+    @Test
+    @DisplayName("Random field values should have the configured length")
+    void testRandomValue() {
+        String value = YcsbOperation.randomValue(java.util.concurrent.ThreadLocalRandom.current(), 100);
+        assertEquals(100, value.length());
+        assertFalse(value.contains("'"));
+    }
+}
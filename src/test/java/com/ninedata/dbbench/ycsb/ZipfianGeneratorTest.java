@@ -0,0 +1,85 @@
+package com.ninedata.dbbench.ycsb;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Zipfian Generator Tests")
+class ZipfianGeneratorTest {
+
+    @Test
+    @DisplayName("Values should stay in range and favour the first items")
+    void testRangeAndSkew() {
+        ZipfianGenerator generator = new ZipfianGenerator(1000);
+        int first = 0;
+        int lastHalf = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long v = generator.nextValue();
+            assertTrue(v >= 0 && v < 1000, "value " + v);
+            if (v == 0) first++;
+            if (v >= 500) lastHalf++;
+        }
+        // With theta 0.99 item 0 gets about 1/zeta(1000) = 13% of draws
+        assertTrue(first > 10_000 && first < 16_000, "item 0 drawn " + first);
+        assertTrue(lastHalf < 15_000, "second half drawn " + lastHalf);
+    }
+
+    @Test
+    @DisplayName("Should honour the minimum and grow the item count incrementally")
+    void testOffsetAndGrowth() {
+        ZipfianGenerator generator = new ZipfianGenerator(100, 109, ZipfianGenerator.ZIPFIAN_CONSTANT);
+        for (int i = 0; i < 1000; i++) {
+            long v = generator.nextValue();
+            assertTrue(v >= 100 && v <= 109);
+        }
+        for (int i = 0; i < 1000; i++) {
+            long v = generator.nextValue(50);
+            assertTrue(v >= 100 && v < 150);
+        }
+        assertEquals(ZipfianGenerator.zeta(0, 50, 0.99, 0),
+                ZipfianGenerator.zeta(10, 50, 0.99, ZipfianGenerator.zeta(0, 10, 0.99, 0)), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(5, 4, 0.99));
+    }
+
+    @Test
+    @DisplayName("Scrambled zipfian should spread hot keys over the range")
+    void testScrambled() {
+        ScrambledZipfianGenerator generator = new ScrambledZipfianGenerator(1000);
+        int[] counts = new int[1000];
+        for (int i = 0; i < 100_000; i++) {
+            long v = generator.nextValue();
+            assertTrue(v >= 0 && v < 1000);
+            counts[(int) v]++;
+        }
+        int hottest = 0;
+        for (int i = 1; i < counts.length; i++) {
+            if (counts[i] > counts[hottest]) hottest = i;
+        }
+        assertNotEquals(0, hottest);
+        assertTrue(counts[hottest] > 1000, "hottest key drawn " + counts[hottest]);
+    }
+
+    @Test
+    @DisplayName("Latest should favour the most recent inserts and follow the sequence")
+    void testSkewedLatest() {
+        AtomicLong sequence = new AtomicLong(1000);
+        SkewedLatestGenerator generator = new SkewedLatestGenerator(sequence);
+        int newest = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long v = generator.nextValue();
+            assertTrue(v >= 0 && v < 1000);
+            if (v == 999) newest++;
+        }
+        assertTrue(newest > 1000, "newest drawn " + newest);
+
+        sequence.set(2000);
+        long max = 0;
+        for (int i = 0; i < 10_000; i++) {
+            max = Math.max(max, generator.nextValue());
+        }
+        assertEquals(1999, max);
+    }
+}